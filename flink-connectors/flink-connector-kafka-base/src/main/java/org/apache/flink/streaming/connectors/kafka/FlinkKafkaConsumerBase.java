@@ -38,6 +38,7 @@ import org.apache.flink.streaming.api.checkpoint.CheckpointedFunction;
 import org.apache.flink.streaming.api.functions.AssignerWithPeriodicWatermarks;
 import org.apache.flink.streaming.api.functions.AssignerWithPunctuatedWatermarks;
 import org.apache.flink.streaming.api.functions.source.RichParallelSourceFunction;
+import org.apache.flink.streaming.api.functions.source.SourceWatermarkAligner;
 import org.apache.flink.streaming.api.operators.StreamingRuntimeContext;
 import org.apache.flink.streaming.connectors.kafka.config.OffsetCommitMode;
 import org.apache.flink.streaming.connectors.kafka.config.OffsetCommitModes;
@@ -107,6 +108,9 @@ public abstract class FlinkKafkaConsumerBase<T> extends RichParallelSourceFuncti
 	/** Configuration key to define the consumer's partition discovery interval, in milliseconds. */
 	public static final String KEY_PARTITION_DISCOVERY_INTERVAL_MILLIS = "flink.partition-discovery.interval-millis";
 
+	/** The default interval in which the watermark is exchanged with the other sources of an alignment group. */
+	public static final long DEFAULT_WATERMARK_ALIGNMENT_INTERVAL_MILLIS = 1000L;
+
 	/** State name of the consumer's partition offset states. */
 	private static final String OFFSETS_STATE_NAME = "topic-partition-offset-states";
 
@@ -163,6 +167,18 @@ public abstract class FlinkKafkaConsumerBase<T> extends RichParallelSourceFuncti
 	/** Timestamp to determine startup offsets; only relevant when startup mode is {@link StartupMode#TIMESTAMP}. */
 	private Long startupOffsetsTimestamp;
 
+	/** The time without records after which a partition is idle, or a non-positive value if idleness detection is disabled. */
+	private long partitionIdleTimeoutMillis;
+
+	/** The group of sources whose watermarks are aligned with this consumer, or null if alignment is disabled. */
+	private String watermarkAlignmentGroup;
+
+	/** The maximum amount of time the watermark may be ahead of the slowest source of the alignment group. */
+	private long maxWatermarkDriftMillis;
+
+	/** The interval in which the watermark is exchanged with the other sources of the alignment group. */
+	private long watermarkAlignmentIntervalMillis;
+
 	// ------------------------------------------------------------------------
 	//  runtime state (used individually by each parallel subtask)
 	// ------------------------------------------------------------------------
@@ -173,6 +189,9 @@ public abstract class FlinkKafkaConsumerBase<T> extends RichParallelSourceFuncti
 	/** The fetcher implements the connections to the Kafka brokers. */
 	private transient volatile AbstractFetcher<T, ?> kafkaFetcher;
 
+	/** The aligner that pauses the fetcher while it is ahead of its alignment group, if alignment is enabled. */
+	private transient volatile SourceWatermarkAligner watermarkAligner;
+
 	/** The partition discoverer, used to find new partitions. */
 	private transient volatile AbstractPartitionDiscoverer partitionDiscoverer;
 
@@ -339,6 +358,67 @@ public abstract class FlinkKafkaConsumerBase<T> extends RichParallelSourceFuncti
 		}
 	}
 
+	/**
+	 * Specifies the time after which a partition that does not receive any records is considered idle.
+	 *
+	 * <p>The watermark of a consumer subtask is the minimum of the watermarks of its partitions, so a
+	 * single partition without records holds back event time for the whole subtask. Idle partitions are
+	 * excluded from that minimum, and the subtask is marked as temporarily idle if all of its partitions
+	 * are idle, so that downstream operators do not wait for its watermark. A partition rejoins the
+	 * watermark calculation as soon as it receives records again.
+	 *
+	 * <p>Idleness detection only applies to watermarks generated by an
+	 * {@link AssignerWithPeriodicWatermarks}, see {@link #assignTimestampsAndWatermarks(AssignerWithPeriodicWatermarks)}.
+	 *
+	 * @param idleTimeoutMillis The idle timeout in milliseconds, or a non-positive value to disable idleness detection.
+	 * @return The consumer object, to allow function chaining.
+	 */
+	public FlinkKafkaConsumerBase<T> setPartitionIdleTimeout(long idleTimeoutMillis) {
+		this.partitionIdleTimeoutMillis = idleTimeoutMillis;
+		return this;
+	}
+
+	/**
+	 * Aligns the watermark of this consumer with all other sources of the same alignment group,
+	 * using the default update interval of {@value #DEFAULT_WATERMARK_ALIGNMENT_INTERVAL_MILLIS} ms.
+	 *
+	 * @see #setWatermarkAlignment(String, long, long)
+	 *
+	 * @param alignmentGroup The name of the group of sources whose watermarks are aligned.
+	 * @param maxDriftMillis The maximum amount of time the watermark may be ahead of the slowest source.
+	 * @return The consumer object, to allow function chaining.
+	 */
+	public FlinkKafkaConsumerBase<T> setWatermarkAlignment(String alignmentGroup, long maxDriftMillis) {
+		return setWatermarkAlignment(alignmentGroup, maxDriftMillis, DEFAULT_WATERMARK_ALIGNMENT_INTERVAL_MILLIS);
+	}
+
+	/**
+	 * Aligns the watermark of this consumer with all other sources of the same alignment group.
+	 *
+	 * <p>Each parallel subtask periodically exchanges its current watermark with the JobMaster.
+	 * A subtask whose watermark is more than {@code maxDriftMillis} ahead of the minimum watermark
+	 * of the group stops emitting records until the slower sources have caught up. This keeps
+	 * lagging partitions from letting the state of downstream windows and joins grow without bound.
+	 *
+	 * <p>Alignment only has an effect if a watermark assigner is set on the consumer, see
+	 * {@link #assignTimestampsAndWatermarks(AssignerWithPeriodicWatermarks)} and
+	 * {@link #assignTimestampsAndWatermarks(AssignerWithPunctuatedWatermarks)}.
+	 *
+	 * @param alignmentGroup The name of the group of sources whose watermarks are aligned.
+	 * @param maxDriftMillis The maximum amount of time the watermark may be ahead of the slowest source.
+	 * @param updateIntervalMillis The interval in which the watermark is exchanged with the JobMaster.
+	 * @return The consumer object, to allow function chaining.
+	 */
+	public FlinkKafkaConsumerBase<T> setWatermarkAlignment(String alignmentGroup, long maxDriftMillis, long updateIntervalMillis) {
+		checkArgument(maxDriftMillis >= 0, "The maximum watermark drift must not be negative.");
+		checkArgument(updateIntervalMillis >= 0, "The watermark alignment interval must not be negative.");
+
+		this.watermarkAlignmentGroup = checkNotNull(alignmentGroup);
+		this.maxWatermarkDriftMillis = maxDriftMillis;
+		this.watermarkAlignmentIntervalMillis = updateIntervalMillis;
+		return this;
+	}
+
 	/**
 	 * Specifies whether or not the consumer should commit offsets back to Kafka on checkpoints.
 	 *
@@ -698,19 +778,47 @@ public abstract class FlinkKafkaConsumerBase<T> extends RichParallelSourceFuncti
 				getRuntimeContext().getMetricGroup().addGroup(KAFKA_CONSUMER_METRICS_GROUP),
 				useMetrics);
 
-		if (!running) {
-			return;
+		if (partitionIdleTimeoutMillis > 0) {
+			kafkaFetcher.setPartitionIdleTimeout(partitionIdleTimeoutMillis);
 		}
 
-		// depending on whether we were restored with the current state version (1.3),
-		// remaining logic branches off into 2 paths:
-		//  1) New state - partition discovery loop executed as separate thread, with this
-		//                 thread running the main fetcher loop
-		//  2) Old state - partition discovery is disabled and only the main fetcher loop is executed
-		if (discoveryIntervalMillis == PARTITION_DISCOVERY_DISABLED) {
-			kafkaFetcher.runFetchLoop();
-		} else {
-			runWithPartitionDiscovery();
+		if (watermarkAlignmentGroup != null
+				&& (periodicWatermarkAssigner != null || punctuatedWatermarkAssigner != null)) {
+			StreamingRuntimeContext runtimeContext = (StreamingRuntimeContext) getRuntimeContext();
+			this.watermarkAligner = new SourceWatermarkAligner(
+				runtimeContext.getGlobalAggregateManager(),
+				watermarkAlignmentGroup,
+				runtimeContext.getOperatorUniqueID() + "-" + runtimeContext.getIndexOfThisSubtask(),
+				maxWatermarkDriftMillis,
+				watermarkAlignmentIntervalMillis,
+				runtimeContext.getMetricGroup());
+			kafkaFetcher.setWatermarkAligner(watermarkAligner);
+
+			if (subscribedPartitionsToStartOffsets.isEmpty()) {
+				watermarkAligner.markIdle();
+			}
+		}
+
+		try {
+			if (!running) {
+				return;
+			}
+
+			// depending on whether we were restored with the current state version (1.3),
+			// remaining logic branches off into 2 paths:
+			//  1) New state - partition discovery loop executed as separate thread, with this
+			//                 thread running the main fetcher loop
+			//  2) Old state - partition discovery is disabled and only the main fetcher loop is executed
+			if (discoveryIntervalMillis == PARTITION_DISCOVERY_DISABLED) {
+				kafkaFetcher.runFetchLoop();
+			} else {
+				runWithPartitionDiscovery();
+			}
+		} finally {
+			// a finished subtask must not hold back the other sources of its alignment group
+			if (watermarkAligner != null) {
+				watermarkAligner.close();
+			}
 		}
 	}
 
@@ -809,6 +917,11 @@ public abstract class FlinkKafkaConsumerBase<T> extends RichParallelSourceFuncti
 			discoveryLoopThread.interrupt();
 		}
 
+		// release the fetcher, if it is paused to align watermarks
+		if (watermarkAligner != null) {
+			watermarkAligner.cancel();
+		}
+
 		// abort the fetcher, if there is one
 		if (kafkaFetcher != null) {
 			kafkaFetcher.cancel();
@@ -24,6 +24,7 @@ import org.apache.flink.metrics.MetricGroup;
 import org.apache.flink.streaming.api.functions.AssignerWithPeriodicWatermarks;
 import org.apache.flink.streaming.api.functions.AssignerWithPunctuatedWatermarks;
 import org.apache.flink.streaming.api.functions.source.SourceFunction.SourceContext;
+import org.apache.flink.streaming.api.functions.source.SourceWatermarkAligner;
 import org.apache.flink.streaming.api.watermark.Watermark;
 import org.apache.flink.streaming.connectors.kafka.config.OffsetCommitMode;
 import org.apache.flink.streaming.connectors.kafka.internals.metrics.KafkaConsumerMetricConstants;
@@ -112,6 +113,12 @@ public abstract class AbstractFetcher<T, KPH> {
 	/** Only relevant for punctuated watermarks: The current cross partition watermark. */
 	private volatile long maxWatermarkSoFar = Long.MIN_VALUE;
 
+	/** Only relevant for periodic watermarks: The emitter that determines the cross partition watermark. */
+	private final PeriodicWatermarkEmitter<KPH> periodicEmitter;
+
+	/** Optional aligner that pauses emission while this fetcher's watermark is too far ahead of other sources. */
+	private volatile SourceWatermarkAligner watermarkAligner;
+
 	// ------------------------------------------------------------------------
 	//  Metrics
 	// ------------------------------------------------------------------------
@@ -202,14 +209,15 @@ public abstract class AbstractFetcher<T, KPH> {
 
 		// if we have periodic watermarks, kick off the interval scheduler
 		if (timestampWatermarkMode == PERIODIC_WATERMARKS) {
-			@SuppressWarnings("unchecked")
-			PeriodicWatermarkEmitter periodicEmitter = new PeriodicWatermarkEmitter(
+			periodicEmitter = new PeriodicWatermarkEmitter<>(
 					subscribedPartitionStates,
 					sourceContext,
 					processingTimeProvider,
 					autoWatermarkInterval);
 
 			periodicEmitter.start();
+		} else {
+			periodicEmitter = null;
 		}
 	}
 
@@ -260,6 +268,35 @@ public abstract class AbstractFetcher<T, KPH> {
 		return subscribedPartitionStates;
 	}
 
+	/**
+	 * Sets the aligner that coordinates the watermark of this fetcher with other sources.
+	 * Records are only emitted while the watermark of this fetcher is not too far ahead of
+	 * the minimum watermark of its alignment group. Only has an effect if the fetcher
+	 * generates watermarks.
+	 *
+	 * @param watermarkAligner The aligner to report watermarks to and wait on.
+	 */
+	public void setWatermarkAligner(SourceWatermarkAligner watermarkAligner) {
+		this.watermarkAligner = watermarkAligner;
+		if (periodicEmitter != null) {
+			periodicEmitter.setWatermarkAligner(watermarkAligner);
+		}
+	}
+
+	/**
+	 * Sets the time after which a partition that does not receive any records is considered idle.
+	 * Idle partitions do not hold back the watermark of this fetcher, and the source is marked as
+	 * temporarily idle if all of its partitions are idle. A partition rejoins the watermark calculation
+	 * as soon as it receives records again. Only has an effect for periodic watermarks.
+	 *
+	 * @param idleTimeoutMillis The idle timeout, or a non-positive value to disable idleness detection.
+	 */
+	public void setPartitionIdleTimeout(long idleTimeoutMillis) {
+		if (periodicEmitter != null) {
+			periodicEmitter.setIdleTimeout(idleTimeoutMillis);
+		}
+	}
+
 	// ------------------------------------------------------------------------
 	//  Core fetcher work methods
 	// ------------------------------------------------------------------------
@@ -416,7 +453,8 @@ public abstract class AbstractFetcher<T, KPH> {
 	 * also a periodic watermark generator.
 	 */
 	private void emitRecordWithTimestampAndPeriodicWatermark(
-			T record, KafkaTopicPartitionState<KPH> partitionState, long offset, long kafkaEventTimestamp) {
+			T record, KafkaTopicPartitionState<KPH> partitionState, long offset, long kafkaEventTimestamp)
+			throws IOException, InterruptedException {
 		@SuppressWarnings("unchecked")
 		final KafkaTopicPartitionStateWithPeriodicWatermarks<T, KPH> withWatermarksState =
 				(KafkaTopicPartitionStateWithPeriodicWatermarks<T, KPH>) partitionState;
@@ -430,6 +468,8 @@ public abstract class AbstractFetcher<T, KPH> {
 			timestamp = withWatermarksState.getTimestampForRecord(record, kafkaEventTimestamp);
 		}
 
+		awaitWatermarkAlignment();
+
 		// emit the record with timestamp, using the usual checkpoint lock to guarantee
 		// atomicity of record emission and offset state update
 		synchronized (checkpointLock) {
@@ -443,7 +483,8 @@ public abstract class AbstractFetcher<T, KPH> {
 	 * also a punctuated watermark generator.
 	 */
 	private void emitRecordWithTimestampAndPunctuatedWatermark(
-			T record, KafkaTopicPartitionState<KPH> partitionState, long offset, long kafkaEventTimestamp) {
+			T record, KafkaTopicPartitionState<KPH> partitionState, long offset, long kafkaEventTimestamp)
+			throws IOException, InterruptedException {
 		@SuppressWarnings("unchecked")
 		final KafkaTopicPartitionStateWithPunctuatedWatermarks<T, KPH> withWatermarksState =
 				(KafkaTopicPartitionStateWithPunctuatedWatermarks<T, KPH>) partitionState;
@@ -453,6 +494,8 @@ public abstract class AbstractFetcher<T, KPH> {
 		final long timestamp = withWatermarksState.getTimestampForRecord(record, kafkaEventTimestamp);
 		final Watermark newWatermark = withWatermarksState.checkAndGetNewWatermark(record, timestamp);
 
+		awaitWatermarkAlignment();
+
 		// emit the record with timestamp, using the usual checkpoint lock to guarantee
 		// atomicity of record emission and offset state update
 		synchronized (checkpointLock) {
@@ -492,6 +535,23 @@ public abstract class AbstractFetcher<T, KPH> {
 				}
 			}
 		}
+
+		final SourceWatermarkAligner aligner = watermarkAligner;
+		if (aligner != null) {
+			aligner.updateLocalWatermark(maxWatermarkSoFar);
+		}
+	}
+
+	/**
+	 * Pauses the calling fetcher thread while the watermark is too far ahead of the other sources
+	 * in the alignment group. Must not be called while holding the checkpoint lock, so that
+	 * checkpoints can proceed while the fetcher is paused.
+	 */
+	private void awaitWatermarkAlignment() throws IOException, InterruptedException {
+		final SourceWatermarkAligner aligner = watermarkAligner;
+		if (aligner != null) {
+			aligner.awaitAlignment();
+		}
 	}
 
 	// ------------------------------------------------------------------------
@@ -672,6 +732,11 @@ public abstract class AbstractFetcher<T, KPH> {
 	/**
 	 * The periodic watermark emitter. In its given interval, it checks all partitions for
 	 * the current event time watermark, and possibly emits the next watermark.
+	 *
+	 * <p>If an idle timeout is set, partitions that have not made progress within the timeout are
+	 * not taken into account, unless their watermark would advance the overall watermark. When all
+	 * partitions are idle, the source is marked as temporarily idle so that downstream operators
+	 * do not wait for its watermark.
 	 */
 	private static class PeriodicWatermarkEmitter<KPH> implements ProcessingTimeCallback {
 
@@ -685,6 +750,10 @@ public abstract class AbstractFetcher<T, KPH> {
 
 		private long lastWatermarkTimestamp;
 
+		private volatile SourceWatermarkAligner watermarkAligner;
+
+		private volatile long idleTimeout;
+
 		//-------------------------------------------------
 
 		PeriodicWatermarkEmitter(
@@ -701,6 +770,14 @@ public abstract class AbstractFetcher<T, KPH> {
 
 		//-------------------------------------------------
 
+		void setWatermarkAligner(SourceWatermarkAligner watermarkAligner) {
+			this.watermarkAligner = watermarkAligner;
+		}
+
+		void setIdleTimeout(long idleTimeout) {
+			this.idleTimeout = idleTimeout;
+		}
+
 		public void start() {
 			timerService.registerTimer(timerService.getCurrentProcessingTime() + interval, this);
 		}
@@ -708,26 +785,52 @@ public abstract class AbstractFetcher<T, KPH> {
 		@Override
 		public void onProcessingTime(long timestamp) throws Exception {
 
+			final long currentIdleTimeout = idleTimeout;
+			final long currentTime = currentIdleTimeout > 0 ? timerService.getCurrentProcessingTime() : 0L;
+
 			long minAcrossAll = Long.MAX_VALUE;
 			boolean isEffectiveMinAggregation = false;
 			for (KafkaTopicPartitionState<?> state : allPartitions) {
+				final KafkaTopicPartitionStateWithPeriodicWatermarks<?, ?> withWatermarksState =
+						(KafkaTopicPartitionStateWithPeriodicWatermarks<?, ?>) state;
 
 				// we access the current watermark for the periodic assigners under the state
 				// lock, to prevent concurrent modification to any internal variables
 				final long curr;
 				//noinspection SynchronizationOnLocalVariableOrMethodParameter
 				synchronized (state) {
-					curr = ((KafkaTopicPartitionStateWithPeriodicWatermarks<?, ?>) state).getCurrentWatermarkTimestamp();
+					curr = withWatermarksState.getCurrentWatermarkTimestamp();
 				}
 
-				minAcrossAll = Math.min(minAcrossAll, curr);
-				isEffectiveMinAggregation = true;
+				// consider only active partitions, or those that would advance the watermark
+				if (currentIdleTimeout <= 0
+						|| withWatermarksState.isActive(currentTime, currentIdleTimeout)
+						|| curr > lastWatermarkTimestamp) {
+					minAcrossAll = Math.min(minAcrossAll, curr);
+					isEffectiveMinAggregation = true;
+				}
 			}
 
 			// emit next watermark, if there is one
-			if (isEffectiveMinAggregation && minAcrossAll > lastWatermarkTimestamp) {
-				lastWatermarkTimestamp = minAcrossAll;
-				emitter.emitWatermark(new Watermark(minAcrossAll));
+			if (isEffectiveMinAggregation) {
+				if (minAcrossAll > lastWatermarkTimestamp) {
+					lastWatermarkTimestamp = minAcrossAll;
+					emitter.emitWatermark(new Watermark(minAcrossAll));
+				}
+			} else if (currentIdleTimeout > 0 && !allPartitions.isEmpty()) {
+				// all partitions are idle, signal downstream operators to not wait for a watermark
+				emitter.markAsTemporarilyIdle();
+
+				// neither should the other sources of the alignment group wait for this subtask
+				final SourceWatermarkAligner aligner = watermarkAligner;
+				if (aligner != null) {
+					aligner.markIdle();
+				}
+			}
+
+			final SourceWatermarkAligner aligner = watermarkAligner;
+			if (aligner != null && isEffectiveMinAggregation) {
+				aligner.updateLocalWatermark(lastWatermarkTimestamp);
 			}
 
 			// schedule the next watermark
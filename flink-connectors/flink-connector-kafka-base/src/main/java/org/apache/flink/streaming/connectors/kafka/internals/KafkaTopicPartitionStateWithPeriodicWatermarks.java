@@ -37,6 +37,12 @@ public final class KafkaTopicPartitionStateWithPeriodicWatermarks<T, KPH> extend
 	/** The last watermark timestamp generated by this partition. */
 	private long partitionWatermark;
 
+	/** The offset of the partition when it was last checked for activity. */
+	private long lastCheckedOffset;
+
+	/** The processing time at which the partition was last seen making progress. */
+	private long lastActivityTime;
+
 	// ------------------------------------------------------------------------
 
 	public KafkaTopicPartitionStateWithPeriodicWatermarks(
@@ -46,6 +52,8 @@ public final class KafkaTopicPartitionStateWithPeriodicWatermarks<T, KPH> extend
 
 		this.timestampsAndWatermarks = timestampsAndWatermarks;
 		this.partitionWatermark = Long.MIN_VALUE;
+		this.lastCheckedOffset = KafkaTopicPartitionStateSentinel.OFFSET_NOT_SET;
+		this.lastActivityTime = Long.MIN_VALUE;
 	}
 
 	// ------------------------------------------------------------------------
@@ -62,6 +70,26 @@ public final class KafkaTopicPartitionStateWithPeriodicWatermarks<T, KPH> extend
 		return partitionWatermark;
 	}
 
+	/**
+	 * Checks whether the partition has made progress within the given timeout. A partition
+	 * makes progress whenever its offset changes, so no per-record bookkeeping is needed.
+	 * A partition is considered active when it is checked for the first time.
+	 *
+	 * <p>This method is only called by the periodic watermark emitter.
+	 *
+	 * @param currentTime The current processing time.
+	 * @param idleTimeout The time without progress after which the partition is idle.
+	 * @return True, if the partition made progress within the timeout.
+	 */
+	public boolean isActive(long currentTime, long idleTimeout) {
+		final long currentOffset = getOffset();
+		if (currentOffset != lastCheckedOffset || lastActivityTime == Long.MIN_VALUE) {
+			lastCheckedOffset = currentOffset;
+			lastActivityTime = currentTime;
+		}
+		return currentTime - lastActivityTime < idleTimeout;
+	}
+
 	// ------------------------------------------------------------------------
 
 	@Override
@@ -21,9 +21,12 @@ package org.apache.flink.streaming.connectors.kafka.internals;
 import org.apache.flink.core.testutils.CheckedThread;
 import org.apache.flink.core.testutils.OneShotLatch;
 import org.apache.flink.metrics.groups.UnregisteredMetricsGroup;
+import org.apache.flink.runtime.taskexecutor.GlobalAggregateManager;
+import org.apache.flink.runtime.taskexecutor.TestGlobalAggregateManager;
 import org.apache.flink.streaming.api.functions.AssignerWithPeriodicWatermarks;
 import org.apache.flink.streaming.api.functions.AssignerWithPunctuatedWatermarks;
 import org.apache.flink.streaming.api.functions.source.SourceFunction.SourceContext;
+import org.apache.flink.streaming.api.functions.source.SourceWatermarkAligner;
 import org.apache.flink.streaming.api.watermark.Watermark;
 import org.apache.flink.streaming.connectors.kafka.testutils.TestSourceContext;
 import org.apache.flink.streaming.runtime.tasks.ProcessingTimeService;
@@ -285,6 +288,119 @@ public class AbstractFetcherTest {
 		assertEquals(15L, sourceContext.getLatestWatermark().getTimestamp());
 	}
 
+	@Test
+	public void testWatermarkAlignment() throws Exception {
+		final String testTopic = "test topic name";
+		final GlobalAggregateManager aggregateManager = new TestGlobalAggregateManager();
+
+		TestSourceContext<Long> slowContext = new TestSourceContext<>();
+		TestFetcher<Long> slowFetcher = new TestFetcher<>(
+				slowContext,
+				Collections.singletonMap(new KafkaTopicPartition(testTopic, 1), KafkaTopicPartitionStateSentinel.LATEST_OFFSET),
+				null, /* periodic watermark assigner */
+				new SerializedValue<AssignerWithPunctuatedWatermarks<Long>>(new PunctuatedTestExtractor()),
+				new TestProcessingTimeService(),
+				0);
+		slowFetcher.setWatermarkAligner(new SourceWatermarkAligner(
+				aggregateManager, "group", "slow", 10L, 0L, new UnregisteredMetricsGroup()));
+
+		TestSourceContext<Long> fastContext = new TestSourceContext<>();
+		TestFetcher<Long> fastFetcher = new TestFetcher<>(
+				fastContext,
+				Collections.singletonMap(new KafkaTopicPartition(testTopic, 2), KafkaTopicPartitionStateSentinel.LATEST_OFFSET),
+				null, /* periodic watermark assigner */
+				new SerializedValue<AssignerWithPunctuatedWatermarks<Long>>(new PunctuatedTestExtractor()),
+				new TestProcessingTimeService(),
+				0);
+		fastFetcher.setWatermarkAligner(new SourceWatermarkAligner(
+				aggregateManager, "group", "fast", 10L, 0L, new UnregisteredMetricsGroup()));
+
+		final KafkaTopicPartitionState<Object> slowPartition = slowFetcher.subscribedPartitionStates().get(0);
+		final KafkaTopicPartitionState<Object> fastPartition = fastFetcher.subscribedPartitionStates().get(0);
+
+		// elements generate a watermark if the timestamp is a multiple of three
+		slowFetcher.emitRecord(3L, slowPartition, 1L);
+		slowFetcher.emitRecord(4L, slowPartition, 2L);
+		fastFetcher.emitRecord(30L, fastPartition, 1L);
+		assertEquals(30L, fastContext.getLatestWatermark().getTimestamp());
+
+		// the fast fetcher is 27 ahead of the slow one and must wait
+		CheckedThread fastEmitter = new CheckedThread() {
+			@Override
+			public void go() throws Exception {
+				fastFetcher.emitRecord(31L, fastPartition, 2L);
+			}
+		};
+		fastEmitter.start();
+
+		Thread.sleep(50L);
+		assertTrue(fastEmitter.isAlive());
+		assertEquals(30L, fastContext.getLatestElement().getValue().longValue());
+
+		// the slow fetcher catches up to within the allowed drift
+		slowFetcher.emitRecord(24L, slowPartition, 3L);
+		slowFetcher.emitRecord(25L, slowPartition, 4L);
+
+		fastEmitter.sync();
+		assertEquals(31L, fastContext.getLatestElement().getValue().longValue());
+	}
+
+	@Test
+	public void testWatermarkAlignmentWithIdleFetcher() throws Exception {
+		final String testTopic = "test topic name";
+		final GlobalAggregateManager aggregateManager = new TestGlobalAggregateManager();
+
+		TestProcessingTimeService idleProcessingTimeService = new TestProcessingTimeService();
+		TestFetcher<Long> idleFetcher = new TestFetcher<>(
+				new TestSourceContext<>(),
+				Collections.singletonMap(new KafkaTopicPartition(testTopic, 1), KafkaTopicPartitionStateSentinel.LATEST_OFFSET),
+				new SerializedValue<AssignerWithPeriodicWatermarks<Long>>(new PeriodicTestExtractor()),
+				null, /* punctuated watermarks assigner*/
+				idleProcessingTimeService,
+				10);
+		idleFetcher.setPartitionIdleTimeout(50);
+		idleFetcher.setWatermarkAligner(new SourceWatermarkAligner(
+				aggregateManager, "group", "idle", 10L, 0L, new UnregisteredMetricsGroup()));
+
+		TestSourceContext<Long> fastContext = new TestSourceContext<>();
+		TestFetcher<Long> fastFetcher = new TestFetcher<>(
+				fastContext,
+				Collections.singletonMap(new KafkaTopicPartition(testTopic, 2), KafkaTopicPartitionStateSentinel.LATEST_OFFSET),
+				null, /* periodic watermark assigner */
+				new SerializedValue<AssignerWithPunctuatedWatermarks<Long>>(new PunctuatedTestExtractor()),
+				new TestProcessingTimeService(),
+				0);
+		fastFetcher.setWatermarkAligner(new SourceWatermarkAligner(
+				aggregateManager, "group", "fast", 10L, 0L, new UnregisteredMetricsGroup()));
+
+		final KafkaTopicPartitionState<Object> idlePartition = idleFetcher.subscribedPartitionStates().get(0);
+		final KafkaTopicPartitionState<Object> fastPartition = fastFetcher.subscribedPartitionStates().get(0);
+
+		// the periodic watermark of the idle fetcher is published with its next record
+		idleFetcher.emitRecord(3L, idlePartition, 1L);
+		idleProcessingTimeService.setCurrentTime(10);
+		idleFetcher.emitRecord(4L, idlePartition, 2L);
+		idleProcessingTimeService.setCurrentTime(20);
+
+		fastFetcher.emitRecord(30L, fastPartition, 1L);
+		CheckedThread fastEmitter = new CheckedThread() {
+			@Override
+			public void go() throws Exception {
+				fastFetcher.emitRecord(31L, fastPartition, 2L);
+			}
+		};
+		fastEmitter.start();
+
+		Thread.sleep(50L);
+		assertTrue(fastEmitter.isAlive());
+
+		// the only partition of the idle fetcher times out, which removes it from the alignment group
+		idleProcessingTimeService.setCurrentTime(80);
+
+		fastEmitter.sync();
+		assertEquals(31L, fastContext.getLatestElement().getValue().longValue());
+	}
+
 	@Test
 	public void testPeriodicWatermarks() throws Exception {
 		final String testTopic = "test topic name";
@@ -362,6 +478,57 @@ public class AbstractFetcherTest {
 		assertTrue(watermarkTs >= 13L && watermarkTs <= 15L);
 	}
 
+	@Test
+	public void testPeriodicWatermarksWithIdlePartitions() throws Exception {
+		final String testTopic = "test topic name";
+		Map<KafkaTopicPartition, Long> originalPartitions = new HashMap<>();
+		originalPartitions.put(new KafkaTopicPartition(testTopic, 7), KafkaTopicPartitionStateSentinel.LATEST_OFFSET);
+		originalPartitions.put(new KafkaTopicPartition(testTopic, 13), KafkaTopicPartitionStateSentinel.LATEST_OFFSET);
+
+		TestSourceContext<Long> sourceContext = new TestSourceContext<>();
+
+		TestProcessingTimeService processingTimeService = new TestProcessingTimeService();
+
+		TestFetcher<Long> fetcher = new TestFetcher<>(
+				sourceContext,
+				originalPartitions,
+				new SerializedValue<AssignerWithPeriodicWatermarks<Long>>(new PeriodicTestExtractor()),
+				null, /* punctuated watermarks assigner*/
+				processingTimeService,
+				10);
+		fetcher.setPartitionIdleTimeout(50);
+
+		final KafkaTopicPartitionState<Object> part1 = fetcher.subscribedPartitionStates().get(0);
+		final KafkaTopicPartitionState<Object> part2 = fetcher.subscribedPartitionStates().get(1);
+
+		fetcher.emitRecord(5L, part1, 1L);
+		fetcher.emitRecord(8L, part2, 1L);
+
+		processingTimeService.setCurrentTime(10);
+		assertEquals(5L, sourceContext.getLatestWatermark().getTimestamp());
+
+		// only partition 2 receives records, partition 1 holds back the watermark until it is idle
+		fetcher.emitRecord(20L, part2, 2L);
+		processingTimeService.setCurrentTime(20);
+		assertFalse(sourceContext.hasWatermark());
+
+		fetcher.emitRecord(25L, part2, 3L);
+		processingTimeService.setCurrentTime(70);
+		assertEquals(25L, sourceContext.getLatestWatermark().getTimestamp());
+		assertFalse(sourceContext.isIdle());
+
+		// all partitions are idle, the source is marked as idle
+		processingTimeService.setCurrentTime(130);
+		assertFalse(sourceContext.hasWatermark());
+		assertTrue(sourceContext.isIdle());
+
+		// partition 1 receives records again and rejoins the watermark calculation
+		fetcher.emitRecord(40L, part1, 2L);
+		assertFalse(sourceContext.isIdle());
+		processingTimeService.setCurrentTime(140);
+		assertEquals(40L, sourceContext.getLatestWatermark().getTimestamp());
+	}
+
 	@Test
 	public void testPeriodicWatermarksWithNoSubscribedPartitionsShouldYieldNoWatermarks() throws Exception {
 		final String testTopic = "test topic name";
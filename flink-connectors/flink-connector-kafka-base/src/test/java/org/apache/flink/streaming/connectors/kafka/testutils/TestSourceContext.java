@@ -32,20 +32,24 @@ public class TestSourceContext<T> implements SourceFunction.SourceContext<T> {
 
 	private volatile StreamRecord<T> latestElement;
 	private volatile Watermark currentWatermark;
+	private volatile boolean idle;
 
 	@Override
 	public void collect(T element) {
+		this.idle = false;
 		this.latestElement = new StreamRecord<>(element);
 	}
 
 	@Override
 	public void collectWithTimestamp(T element, long timestamp) {
+		this.idle = false;
 		this.latestElement = new StreamRecord<>(element, timestamp);
 	}
 
 	@Override
 	public void emitWatermark(Watermark mark) {
 		synchronized (watermarkLock) {
+			idle = false;
 			currentWatermark = mark;
 			watermarkLock.notifyAll();
 		}
@@ -53,7 +57,7 @@ public class TestSourceContext<T> implements SourceFunction.SourceContext<T> {
 
 	@Override
 	public void markAsTemporarilyIdle() {
-		// do nothing
+		this.idle = true;
 	}
 
 	@Override
@@ -70,6 +74,10 @@ public class TestSourceContext<T> implements SourceFunction.SourceContext<T> {
 		return latestElement;
 	}
 
+	public boolean isIdle() {
+		return idle;
+	}
+
 	public boolean hasWatermark() {
 		return currentWatermark != null;
 	}
@@ -34,6 +34,8 @@ import org.apache.flink.streaming.api.checkpoint.CheckpointedFunction;
 import org.apache.flink.streaming.api.functions.AssignerWithPeriodicWatermarks;
 import org.apache.flink.streaming.api.functions.source.RichParallelSourceFunction;
 import org.apache.flink.streaming.api.functions.source.SourceFunction;
+import org.apache.flink.streaming.api.functions.source.SourceWatermarkAligner;
+import org.apache.flink.streaming.api.operators.StreamingRuntimeContext;
 import org.apache.flink.streaming.connectors.kinesis.config.ConsumerConfigConstants;
 import org.apache.flink.streaming.connectors.kinesis.config.ConsumerConfigConstants.InitialPosition;
 import org.apache.flink.streaming.connectors.kinesis.internals.KinesisDataFetcher;
@@ -106,6 +108,9 @@ public class FlinkKinesisConsumer<T> extends RichParallelSourceFunction<T> imple
 
 	private static final Logger LOG = LoggerFactory.getLogger(FlinkKinesisConsumer.class);
 
+	/** The default interval in which the watermark is exchanged with the other sources of an alignment group. */
+	public static final long DEFAULT_WATERMARK_ALIGNMENT_INTERVAL_MILLIS = 1000L;
+
 	// ------------------------------------------------------------------------
 	//  Consumer properties
 	// ------------------------------------------------------------------------
@@ -127,6 +132,15 @@ public class FlinkKinesisConsumer<T> extends RichParallelSourceFunction<T> imple
 
 	private AssignerWithPeriodicWatermarks<T> periodicWatermarkAssigner;
 
+	/** The group of sources whose watermarks are aligned with this consumer, or null if alignment is disabled. */
+	private String watermarkAlignmentGroup;
+
+	/** The maximum amount of time the watermark may be ahead of the slowest source of the alignment group. */
+	private long maxWatermarkDriftMillis;
+
+	/** The interval in which the watermark is exchanged with the other sources of the alignment group. */
+	private long watermarkAlignmentIntervalMillis;
+
 	// ------------------------------------------------------------------------
 	//  Runtime state
 	// ------------------------------------------------------------------------
@@ -134,6 +148,9 @@ public class FlinkKinesisConsumer<T> extends RichParallelSourceFunction<T> imple
 	/** Per-task fetcher for Kinesis data records, where each fetcher pulls data from one or more Kinesis shards. */
 	private transient KinesisDataFetcher<T> fetcher;
 
+	/** The aligner that pauses the shard consumers while they are ahead of the alignment group, if alignment is enabled. */
+	private transient volatile SourceWatermarkAligner watermarkAligner;
+
 	/** The sequence numbers to restore to upon restore from failure. */
 	private transient HashMap<StreamShardMetadata.EquivalenceWrapper, SequenceNumber> sequenceNumsToRestore;
 
@@ -254,6 +271,43 @@ public class FlinkKinesisConsumer<T> extends RichParallelSourceFunction<T> imple
 		ClosureCleaner.clean(this.periodicWatermarkAssigner, true);
 	}
 
+	/**
+	 * Aligns the watermark of this consumer with all other sources of the same alignment group,
+	 * using the default update interval of {@value #DEFAULT_WATERMARK_ALIGNMENT_INTERVAL_MILLIS} ms.
+	 *
+	 * @see #setWatermarkAlignment(String, long, long)
+	 *
+	 * @param alignmentGroup The name of the group of sources whose watermarks are aligned.
+	 * @param maxDriftMillis The maximum amount of time the watermark may be ahead of the slowest source.
+	 */
+	public void setWatermarkAlignment(String alignmentGroup, long maxDriftMillis) {
+		setWatermarkAlignment(alignmentGroup, maxDriftMillis, DEFAULT_WATERMARK_ALIGNMENT_INTERVAL_MILLIS);
+	}
+
+	/**
+	 * Aligns the watermark of this consumer with all other sources of the same alignment group.
+	 *
+	 * <p>Each parallel subtask periodically exchanges its current watermark, the minimum over the
+	 * watermarks of its shards, with the JobMaster. The shard consumers of a subtask whose watermark
+	 * is more than {@code maxDriftMillis} ahead of the minimum watermark of the group stop emitting
+	 * records until the slower sources have caught up.
+	 *
+	 * <p>Alignment only has an effect if a periodic watermark assigner is set on the consumer, see
+	 * {@link #setPeriodicWatermarkAssigner(AssignerWithPeriodicWatermarks)}.
+	 *
+	 * @param alignmentGroup The name of the group of sources whose watermarks are aligned.
+	 * @param maxDriftMillis The maximum amount of time the watermark may be ahead of the slowest source.
+	 * @param updateIntervalMillis The interval in which the watermark is exchanged with the JobMaster.
+	 */
+	public void setWatermarkAlignment(String alignmentGroup, long maxDriftMillis, long updateIntervalMillis) {
+		checkArgument(maxDriftMillis >= 0, "The maximum watermark drift must not be negative.");
+		checkArgument(updateIntervalMillis >= 0, "The watermark alignment interval must not be negative.");
+
+		this.watermarkAlignmentGroup = checkNotNull(alignmentGroup);
+		this.maxWatermarkDriftMillis = maxDriftMillis;
+		this.watermarkAlignmentIntervalMillis = updateIntervalMillis;
+	}
+
 	// ------------------------------------------------------------------------
 	//  Source life cycle
 	// ------------------------------------------------------------------------
@@ -319,16 +373,35 @@ public class FlinkKinesisConsumer<T> extends RichParallelSourceFunction<T> imple
 			return;
 		}
 
+		if (watermarkAlignmentGroup != null && periodicWatermarkAssigner != null) {
+			StreamingRuntimeContext runtimeContext = (StreamingRuntimeContext) getRuntimeContext();
+			this.watermarkAligner = new SourceWatermarkAligner(
+				runtimeContext.getGlobalAggregateManager(),
+				watermarkAlignmentGroup,
+				runtimeContext.getOperatorUniqueID() + "-" + runtimeContext.getIndexOfThisSubtask(),
+				maxWatermarkDriftMillis,
+				watermarkAlignmentIntervalMillis,
+				runtimeContext.getMetricGroup());
+			fetcher.setWatermarkAligner(watermarkAligner);
+		}
+
 		// expose the fetcher from this point, so that state
 		// snapshots can be taken from the fetcher's state holders
 		this.fetcher = fetcher;
 
-		// start the fetcher loop. The fetcher will stop running only when cancel() or
-		// close() is called, or an error is thrown by threads created by the fetcher
-		fetcher.runFetcher();
-
-		// check that the fetcher has terminated before fully closing
-		fetcher.awaitTermination();
+		try {
+			// start the fetcher loop. The fetcher will stop running only when cancel() or
+			// close() is called, or an error is thrown by threads created by the fetcher
+			fetcher.runFetcher();
+
+			// check that the fetcher has terminated before fully closing
+			fetcher.awaitTermination();
+		} finally {
+			// a finished subtask must not hold back the other sources of its alignment group
+			if (watermarkAligner != null) {
+				watermarkAligner.close();
+			}
+		}
 		sourceContext.close();
 	}
 
@@ -336,6 +409,12 @@ public class FlinkKinesisConsumer<T> extends RichParallelSourceFunction<T> imple
 	public void cancel() {
 		running = false;
 
+		// release the shard consumers, if they are paused to align watermarks
+		SourceWatermarkAligner watermarkAligner = this.watermarkAligner;
+		if (watermarkAligner != null) {
+			watermarkAligner.cancel();
+		}
+
 		KinesisDataFetcher fetcher = this.fetcher;
 		this.fetcher = null;
 
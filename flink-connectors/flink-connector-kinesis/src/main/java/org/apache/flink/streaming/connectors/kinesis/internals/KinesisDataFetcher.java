@@ -23,6 +23,7 @@ import org.apache.flink.api.common.functions.RuntimeContext;
 import org.apache.flink.metrics.MetricGroup;
 import org.apache.flink.streaming.api.functions.AssignerWithPeriodicWatermarks;
 import org.apache.flink.streaming.api.functions.source.SourceFunction;
+import org.apache.flink.streaming.api.functions.source.SourceWatermarkAligner;
 import org.apache.flink.streaming.api.operators.StreamingRuntimeContext;
 import org.apache.flink.streaming.api.watermark.Watermark;
 import org.apache.flink.streaming.connectors.kinesis.KinesisShardAssigner;
@@ -212,6 +213,9 @@ public class KinesisDataFetcher<T> {
 	 */
 	private long shardIdleIntervalMillis = ConsumerConfigConstants.DEFAULT_SHARD_IDLE_INTERVAL_MILLIS;
 
+	/** The aligner that receives the subtask watermark and pauses the shard consumers, if alignment is enabled. */
+	private volatile SourceWatermarkAligner watermarkAligner;
+
 	/**
 	 * Factory to create Kinesis proxy instances used by a fetcher.
 	 */
@@ -309,6 +313,16 @@ public class KinesisDataFetcher<T> {
 			shardMetricsReporter);
 	}
 
+	/**
+	 * Sets the aligner that the subtask watermark is reported to, and that the shard consumers wait
+	 * on before emitting a record while the subtask is ahead of its alignment group.
+	 *
+	 * @param watermarkAligner The aligner to report watermarks to and wait on.
+	 */
+	public void setWatermarkAligner(SourceWatermarkAligner watermarkAligner) {
+		this.watermarkAligner = watermarkAligner;
+	}
+
 	/**
 	 * Starts the fetcher. After starting the fetcher, it can only
 	 * be stopped by calling {@link KinesisDataFetcher#shutdownFetcher()}.
@@ -400,6 +414,7 @@ public class KinesisDataFetcher<T> {
 			LOG.info("Subtask {} has no active shards to read on startup; marking the subtask as temporarily idle ...",
 				indexOfThisConsumerSubtask);
 			sourceContext.markAsTemporarilyIdle();
+			markWatermarkAlignmentIdle();
 		}
 
 		while (running) {
@@ -615,6 +630,9 @@ public class KinesisDataFetcher<T> {
 			sws.lastUpdated = getCurrentTimeMillis();
 		}
 
+		// pause outside of the checkpoint lock while this subtask is ahead of its alignment group
+		awaitWatermarkAlignment();
+
 		synchronized (checkpointLock) {
 			if (record != null) {
 				sourceContext.collectWithTimestamp(record, recordTimestamp);
@@ -657,6 +675,7 @@ public class KinesisDataFetcher<T> {
 						indexOfThisConsumerSubtask);
 
 					sourceContext.markAsTemporarilyIdle();
+					markWatermarkAlignmentIdle();
 				}
 			}
 		}
@@ -741,13 +760,48 @@ public class KinesisDataFetcher<T> {
 					indexOfThisConsumerSubtask);
 				// no active shard, signal downstream operators to not wait for a watermark
 				sourceContext.markAsTemporarilyIdle();
+				markWatermarkAlignmentIdle();
 			}
-		} else if (potentialWatermark > lastWatermark) {
-			LOG.debug("Emitting watermark {} from subtask {}",
-				potentialWatermark,
-				indexOfThisConsumerSubtask);
-			sourceContext.emitWatermark(new Watermark(potentialWatermark));
-			lastWatermark = potentialWatermark;
+		} else {
+			if (potentialWatermark > lastWatermark) {
+				LOG.debug("Emitting watermark {} from subtask {}",
+					potentialWatermark,
+					indexOfThisConsumerSubtask);
+				sourceContext.emitWatermark(new Watermark(potentialWatermark));
+				lastWatermark = potentialWatermark;
+			}
+
+			final SourceWatermarkAligner aligner = watermarkAligner;
+			if (aligner != null) {
+				aligner.updateLocalWatermark(lastWatermark);
+			}
+		}
+	}
+
+	/**
+	 * Pauses the calling shard consumer while the watermark of this subtask is too far ahead of the
+	 * other sources in the alignment group. Must not be called while holding the checkpoint lock,
+	 * so that checkpoints can proceed while the shard consumers are paused.
+	 */
+	private void awaitWatermarkAlignment() {
+		final SourceWatermarkAligner aligner = watermarkAligner;
+		if (aligner != null) {
+			try {
+				aligner.awaitAlignment();
+			} catch (InterruptedException e) {
+				// the fetcher is shutting down; the shard consumer checks the interrupt flag
+				Thread.currentThread().interrupt();
+			} catch (IOException e) {
+				throw new RuntimeException("Failed to align the watermark with the alignment group.", e);
+			}
+		}
+	}
+
+	/** Removes this subtask from its alignment group, so that the other sources do not wait for it while it is idle. */
+	private void markWatermarkAlignmentIdle() {
+		final SourceWatermarkAligner aligner = watermarkAligner;
+		if (aligner != null) {
+			aligner.markIdle();
 		}
 	}
 
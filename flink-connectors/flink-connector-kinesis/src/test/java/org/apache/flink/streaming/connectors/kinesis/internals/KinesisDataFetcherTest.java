@@ -20,7 +20,11 @@ package org.apache.flink.streaming.connectors.kinesis.internals;
 import org.apache.flink.api.common.functions.RuntimeContext;
 import org.apache.flink.api.common.serialization.SimpleStringSchema;
 import org.apache.flink.core.testutils.CheckedThread;
+import org.apache.flink.metrics.groups.UnregisteredMetricsGroup;
+import org.apache.flink.runtime.taskexecutor.GlobalAggregateManager;
+import org.apache.flink.runtime.taskexecutor.TestGlobalAggregateManager;
 import org.apache.flink.streaming.api.functions.source.SourceFunction;
+import org.apache.flink.streaming.api.functions.source.SourceWatermarkAligner;
 import org.apache.flink.streaming.api.functions.timestamps.BoundedOutOfOrdernessTimestampExtractor;
 import org.apache.flink.streaming.api.watermark.Watermark;
 import org.apache.flink.streaming.api.windowing.time.Time;
@@ -818,6 +822,94 @@ public class KinesisDataFetcherTest extends TestLogger {
 		Assert.assertTrue("idle, no watermark", watermarks.isEmpty());
 	}
 
+	@Test
+	public void testWatermarkAlignment() throws Exception {
+		final MutableLong clock = new MutableLong();
+		final GlobalAggregateManager aggregateManager = new TestGlobalAggregateManager();
+
+		TestSourceContext<String> slowContext = new TestSourceContext<>();
+		KinesisDataFetcher<String> slowFetcher = createWatermarkingFetcher(slowContext, clock);
+		slowFetcher.setWatermarkAligner(new SourceWatermarkAligner(
+			aggregateManager, "group", "slow", 10L, 0L, new UnregisteredMetricsGroup()));
+
+		TestSourceContext<String> fastContext = new TestSourceContext<>();
+		KinesisDataFetcher<String> fastFetcher = createWatermarkingFetcher(fastContext, clock);
+		fastFetcher.setWatermarkAligner(new SourceWatermarkAligner(
+			aggregateManager, "group", "fast", 10L, 0L, new UnregisteredMetricsGroup()));
+
+		SequenceNumber seq = new SequenceNumber("fakeSequenceNumber");
+		int slowShard = registerShard(slowFetcher, seq);
+		int fastShard = registerShard(fastFetcher, seq);
+
+		// the slow subtask publishes its watermark with the next record
+		slowFetcher.emitRecordAndUpdateState("3", 3L, slowShard, seq);
+		slowFetcher.emitWatermark();
+		slowFetcher.emitRecordAndUpdateState("4", 4L, slowShard, seq);
+		slowFetcher.emitWatermark();
+
+		fastFetcher.emitRecordAndUpdateState("30", 30L, fastShard, seq);
+		fastFetcher.emitWatermark();
+
+		// the fast subtask is 27 ahead of the slow one and must wait
+		CheckedThread fastEmitter = new CheckedThread() {
+			@Override
+			public void go() throws Exception {
+				fastFetcher.emitRecordAndUpdateState("31", 31L, fastShard, seq);
+			}
+		};
+		fastEmitter.start();
+
+		Thread.sleep(50L);
+		assertTrue(fastEmitter.isAlive());
+
+		// the shard of the slow subtask becomes idle, which removes the subtask from the group
+		Whitebox.setInternalState(slowFetcher, "shardIdleIntervalMillis", 10L);
+		clock.add(11L);
+		slowFetcher.emitWatermark();
+
+		fastEmitter.sync();
+		StreamRecord<String> lastRecord = null;
+		for (StreamRecord<String> record : fastContext.getCollectedOutputs()) {
+			lastRecord = record;
+		}
+		assertEquals(new StreamRecord<>("31", 31L), lastRecord);
+	}
+
+	private static KinesisDataFetcher<String> createWatermarkingFetcher(
+			TestSourceContext<String> sourceContext,
+			MutableLong clock) {
+		KinesisDataFetcher<String> fetcher =
+			new TestableKinesisDataFetcher<String>(
+				Collections.singletonList("fakeStream"),
+				sourceContext,
+				new Properties(),
+				new KinesisDeserializationSchemaWrapper<>(new SimpleStringSchema()),
+				1,
+				0,
+				new AtomicReference<>(),
+				new LinkedList<>(),
+				new HashMap<>(),
+				FakeKinesisBehavioursFactory.nonReshardedStreamsBehaviour(new HashMap<>())) {
+
+				@Override
+				protected long getCurrentTimeMillis() {
+					return clock.getValue();
+				}
+			};
+		Whitebox.setInternalState(fetcher, "periodicWatermarkAssigner", watermarkAssigner);
+		return fetcher;
+	}
+
+	private static int registerShard(KinesisDataFetcher<String> fetcher, SequenceNumber seq) {
+		StreamShardHandle shardHandle =
+			new StreamShardHandle(
+				"fakeStream",
+				new Shard().withShardId(KinesisShardIdGenerator.generateFromShardOrder(0)));
+		return fetcher.registerNewSubscribedShardState(
+			new KinesisStreamShardState(
+				KinesisDataFetcher.convertToStreamShardMetadata(shardHandle), shardHandle, seq));
+	}
+
 	@Test
 	public void testOriginalExceptionIsPreservedWhenInterruptedDuringShutdown() throws Exception {
 		String stream = "fakeStream";
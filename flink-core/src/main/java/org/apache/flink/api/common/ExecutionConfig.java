@@ -120,6 +120,12 @@ public class ExecutionConfig implements Serializable, Archiveable<ArchivedExecut
 
 	private boolean forceAvro = false;
 
+	private boolean pojoCodeGeneration = false;
+
+	private boolean kryoClassDictionary = false;
+
+	private boolean compactSerialization = false;
+
 	private CodeAnalysisMode codeAnalysisMode = CodeAnalysisMode.DISABLE;
 
 	/** If set to true, progress updates are printed to System.out during execution */
@@ -668,6 +674,92 @@ public class ExecutionConfig implements Serializable, Archiveable<ArchivedExecut
 		return forceAvro;
 	}
 
+	/**
+	 * Enables code generation for the field access of the POJO serializers and comparators.
+	 * Instead of reading and writing the fields of a POJO through reflection, a class that
+	 * accesses the fields directly is generated for each public POJO class.
+	 *
+	 * <p>The serialized format of the POJOs is not affected by this setting.
+	 */
+	public void enablePojoCodeGeneration() {
+		pojoCodeGeneration = true;
+	}
+
+	/**
+	 * Disables code generation for the POJO serializers and comparators.
+	 * @see #enablePojoCodeGeneration()
+	 */
+	public void disablePojoCodeGeneration() {
+		pojoCodeGeneration = false;
+	}
+
+	/**
+	 * Returns whether code generation for the POJO serializers and comparators is enabled.
+	 * @see #enablePojoCodeGeneration()
+	 */
+	public boolean isPojoCodeGenerationEnabled() {
+		return pojoCodeGeneration;
+	}
+
+	/**
+	 * Enables the class dictionary of the Kryo serializers. The Kryo serializer of a generic type
+	 * registers the classes that are reachable through the fields of the type, so that instances
+	 * of these classes are written with a compact integer id instead of their full class name.
+	 *
+	 * <p>The registrations are part of the serializer snapshot, so that the ids stay stable when
+	 * restoring from a savepoint or checkpoint.
+	 */
+	public void enableKryoClassDictionary() {
+		kryoClassDictionary = true;
+	}
+
+	/**
+	 * Disables the class dictionary of the Kryo serializers.
+	 * @see #enableKryoClassDictionary()
+	 */
+	public void disableKryoClassDictionary() {
+		kryoClassDictionary = false;
+	}
+
+	/**
+	 * Returns whether the class dictionary of the Kryo serializers is enabled.
+	 * @see #enableKryoClassDictionary()
+	 */
+	public boolean isKryoClassDictionaryEnabled() {
+		return kryoClassDictionary;
+	}
+
+	/**
+	 * Enables the compact serialization mode. In this mode, {@code Integer} and {@code Long} values
+	 * are written as zig-zag encoded variable length integers, the null mask of wide rows is omitted
+	 * if no field is null, and the timestamps of stream records are written as variable length
+	 * integers on the network.
+	 *
+	 * <p>The mode is recorded in the serializer snapshots. When restoring state that was written
+	 * with the other mode, the state is migrated to the new format. Note that the state backends do
+	 * not support migrating the serializer of the keys, so the mode cannot be changed for jobs
+	 * whose keys contain {@code Integer} or {@code Long} values.
+	 */
+	public void enableCompactSerialization() {
+		compactSerialization = true;
+	}
+
+	/**
+	 * Disables the compact serialization mode.
+	 * @see #enableCompactSerialization()
+	 */
+	public void disableCompactSerialization() {
+		compactSerialization = false;
+	}
+
+	/**
+	 * Returns whether the compact serialization mode is enabled.
+	 * @see #enableCompactSerialization()
+	 */
+	public boolean isCompactSerializationEnabled() {
+		return compactSerialization;
+	}
+
 	/**
 	 * Enables reusing objects that Flink internally uses for deserialization and passing
 	 * data to user-code functions. Keep in mind that this can lead to bugs when the
@@ -966,6 +1058,9 @@ public class ExecutionConfig implements Serializable, Archiveable<ArchivedExecut
 				objectReuse == other.objectReuse &&
 				autoTypeRegistrationEnabled == other.autoTypeRegistrationEnabled &&
 				forceAvro == other.forceAvro &&
+				pojoCodeGeneration == other.pojoCodeGeneration &&
+				kryoClassDictionary == other.kryoClassDictionary &&
+				compactSerialization == other.compactSerialization &&
 				Objects.equals(codeAnalysisMode, other.codeAnalysisMode) &&
 				printProgressDuringExecution == other.printProgressDuringExecution &&
 				Objects.equals(globalJobParameters, other.globalJobParameters) &&
@@ -995,6 +1090,9 @@ public class ExecutionConfig implements Serializable, Archiveable<ArchivedExecut
 			objectReuse,
 			autoTypeRegistrationEnabled,
 			forceAvro,
+			pojoCodeGeneration,
+			kryoClassDictionary,
+			compactSerialization,
 			codeAnalysisMode,
 			printProgressDuringExecution,
 			globalJobParameters,
@@ -19,8 +19,14 @@
 package org.apache.flink.api.common.typeinfo;
 
 import org.apache.flink.annotation.Public;
+import org.apache.flink.annotation.PublicEvolving;
+import org.apache.flink.api.common.ExecutionConfig;
 import org.apache.flink.api.common.typeutils.TypeComparator;
 import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.api.common.typeutils.base.VarIntComparator;
+import org.apache.flink.api.common.typeutils.base.VarIntSerializer;
+import org.apache.flink.api.common.typeutils.base.VarLongComparator;
+import org.apache.flink.api.common.typeutils.base.VarLongSerializer;
 
 import java.util.Arrays;
 import java.util.HashSet;
@@ -49,4 +55,37 @@ public class IntegerTypeInfo<T> extends NumericTypeInfo<T> {
 		checkArgument(integerTypes.contains(clazz),
 				"The given class %s is not a integer type.", clazz.getSimpleName());
 	}
+
+	@Override
+	@PublicEvolving
+	@SuppressWarnings("unchecked")
+	public TypeSerializer<T> createSerializer(ExecutionConfig executionConfig) {
+		if (isCompactSerializationEnabled(executionConfig)) {
+			if (getTypeClass() == Integer.class) {
+				return (TypeSerializer<T>) VarIntSerializer.INSTANCE;
+			} else if (getTypeClass() == Long.class) {
+				return (TypeSerializer<T>) VarLongSerializer.INSTANCE;
+			}
+		}
+		return super.createSerializer(executionConfig);
+	}
+
+	@Override
+	@PublicEvolving
+	@SuppressWarnings("unchecked")
+	public TypeComparator<T> createComparator(boolean sortOrderAscending, ExecutionConfig executionConfig) {
+		// the comparators must be able to compare the values in the format of the serializer
+		if (isCompactSerializationEnabled(executionConfig)) {
+			if (getTypeClass() == Integer.class) {
+				return (TypeComparator<T>) new VarIntComparator(sortOrderAscending);
+			} else if (getTypeClass() == Long.class) {
+				return (TypeComparator<T>) new VarLongComparator(sortOrderAscending);
+			}
+		}
+		return super.createComparator(sortOrderAscending, executionConfig);
+	}
+
+	private static boolean isCompactSerializationEnabled(ExecutionConfig executionConfig) {
+		return executionConfig != null && executionConfig.isCompactSerializationEnabled();
+	}
 }
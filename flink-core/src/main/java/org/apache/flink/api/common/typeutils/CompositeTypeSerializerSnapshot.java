@@ -165,7 +165,8 @@ public abstract class CompositeTypeSerializerSnapshot<T, S extends TypeSerialize
 		S castedNewSerializer = correspondingSerializerClass.cast(newSerializer);
 
 		// check that outer configuration is compatible; if not, short circuit result
-		if (!isOuterSnapshotCompatible(castedNewSerializer)) {
+		final OuterSchemaCompatibility outerSchemaCompatibility = resolveOuterSchemaCompatibility(castedNewSerializer);
+		if (outerSchemaCompatibility == OuterSchemaCompatibility.INCOMPATIBLE) {
 			return TypeSerializerSchemaCompatibility.incompatible();
 		}
 
@@ -175,7 +176,15 @@ public abstract class CompositeTypeSerializerSnapshot<T, S extends TypeSerialize
 			return TypeSerializerSchemaCompatibility.incompatible();
 		}
 
-		return constructFinalSchemaCompatibilityResult(newNestedSerializers, snapshots);
+		final TypeSerializerSchemaCompatibility<T> nestedSchemaCompatibility =
+			constructFinalSchemaCompatibilityResult(newNestedSerializers, snapshots);
+
+		if (outerSchemaCompatibility == OuterSchemaCompatibility.COMPATIBLE_AFTER_MIGRATION
+				&& !nestedSchemaCompatibility.isIncompatible()) {
+			return TypeSerializerSchemaCompatibility.compatibleAfterMigration();
+		}
+
+		return nestedSchemaCompatibility;
 	}
 
 	@Internal
@@ -276,6 +285,40 @@ public abstract class CompositeTypeSerializerSnapshot<T, S extends TypeSerialize
 		return true;
 	}
 
+	/**
+	 * Checks the schema compatibility of the outer snapshot with a given new serializer.
+	 *
+	 * <p>The base implementation of this method delegates to {@link #isOuterSnapshotCompatible(TypeSerializer)},
+	 * i.e. the outer information is either compatible as is or incompatible. This should be overridden
+	 * if the outer serializer can read the data that was written with a different outer information,
+	 * after it has been migrated.
+	 *
+	 * @param newSerializer the new serializer, which contains the new outer information to check against.
+	 *
+	 * @return the schema compatibility of the outer information written in this snapshot.
+	 */
+	protected OuterSchemaCompatibility resolveOuterSchemaCompatibility(S newSerializer) {
+		return isOuterSnapshotCompatible(newSerializer) ?
+			OuterSchemaCompatibility.COMPATIBLE_AS_IS :
+			OuterSchemaCompatibility.INCOMPATIBLE;
+	}
+
+	/**
+	 * The schema compatibility of the outer snapshot, i.e. any information beyond the nested serializers.
+	 */
+	@PublicEvolving
+	public enum OuterSchemaCompatibility {
+
+		/** The new serializer can read the data with the outer information as is. */
+		COMPATIBLE_AS_IS,
+
+		/** The data must be read with the restored serializer and written with the new one. */
+		COMPATIBLE_AFTER_MIGRATION,
+
+		/** The new serializer cannot read the data. */
+		INCOMPATIBLE
+	}
+
 	// ------------------------------------------------------------------------------------------
 	//  Utilities
 	// ------------------------------------------------------------------------------------------
@@ -20,6 +20,8 @@ package org.apache.flink.api.common.typeutils.base;
 
 import org.apache.flink.annotation.Internal;
 import org.apache.flink.api.common.typeutils.SimpleTypeSerializerSnapshot;
+import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.api.common.typeutils.TypeSerializerSchemaCompatibility;
 import org.apache.flink.api.common.typeutils.TypeSerializerSnapshot;
 import org.apache.flink.core.memory.DataInputView;
 import org.apache.flink.core.memory.DataOutputView;
@@ -100,5 +102,13 @@ public final class LongSerializer extends TypeSerializerSingleton<Long> {
 		public LongSerializerSnapshot() {
 			super(() -> INSTANCE);
 		}
+
+		@Override
+		public TypeSerializerSchemaCompatibility<Long> resolveSchemaCompatibility(TypeSerializer<Long> newSerializer) {
+			// state can be migrated to the format of the compact serialization mode
+			return newSerializer instanceof VarLongSerializer ?
+				TypeSerializerSchemaCompatibility.compatibleAfterMigration() :
+				super.resolveSchemaCompatibility(newSerializer);
+		}
 	}
 }
@@ -150,4 +150,18 @@ public class NormalizedKeyUtil {
 			}
 		}
 	}
+
+	/**
+	 * Flips all bits of the given normalized key bytes. Inverting a fixed-length region of a normalized key
+	 * reverses its unsigned byte-wise order, which lets composite keys include fields whose sort direction
+	 * differs from the direction of the key as a whole.
+	 */
+	public static void invertNormalizedKey(MemorySegment target, int offset, int numBytes) {
+		for (; numBytes >= 8; numBytes -= 8, offset += 8) {
+			target.putLong(offset, ~target.getLong(offset));
+		}
+		for (; numBytes > 0; numBytes--, offset++) {
+			target.put(offset, (byte) ~target.get(offset));
+		}
+	}
 }
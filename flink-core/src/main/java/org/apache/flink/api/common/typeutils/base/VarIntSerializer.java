@@ -0,0 +1,150 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.api.common.typeutils.base;
+
+import org.apache.flink.annotation.Internal;
+import org.apache.flink.api.common.typeutils.SimpleTypeSerializerSnapshot;
+import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.api.common.typeutils.TypeSerializerSchemaCompatibility;
+import org.apache.flink.api.common.typeutils.TypeSerializerSnapshot;
+import org.apache.flink.core.memory.DataInputView;
+import org.apache.flink.core.memory.DataOutputView;
+
+import java.io.IOException;
+
+/**
+ * Type serializer for {@code Integer} (and {@code int}, via auto-boxing) that writes the values
+ * as zig-zag encoded variable length integers. Values of small magnitude take one or two bytes,
+ * at the cost of five bytes for values of large magnitude.
+ *
+ * <p>This serializer is used instead of the {@link IntSerializer} if the compact serialization
+ * mode is enabled in the {@link org.apache.flink.api.common.ExecutionConfig}.
+ */
+@Internal
+public final class VarIntSerializer extends TypeSerializerSingleton<Integer> {
+
+	private static final long serialVersionUID = 1L;
+
+	/** Sharable instance of the VarIntSerializer. */
+	public static final VarIntSerializer INSTANCE = new VarIntSerializer();
+
+	private static final Integer ZERO = 0;
+
+	@Override
+	public boolean isImmutableType() {
+		return true;
+	}
+
+	@Override
+	public Integer createInstance() {
+		return ZERO;
+	}
+
+	@Override
+	public Integer copy(Integer from) {
+		return from;
+	}
+
+	@Override
+	public Integer copy(Integer from, Integer reuse) {
+		return from;
+	}
+
+	@Override
+	public int getLength() {
+		return -1;
+	}
+
+	@Override
+	public void serialize(Integer record, DataOutputView target) throws IOException {
+		writeVarInt(record, target);
+	}
+
+	@Override
+	public Integer deserialize(DataInputView source) throws IOException {
+		return readVarInt(source);
+	}
+
+	@Override
+	public Integer deserialize(Integer reuse, DataInputView source) throws IOException {
+		return deserialize(source);
+	}
+
+	@Override
+	public void copy(DataInputView source, DataOutputView target) throws IOException {
+		VarLongSerializer.copyVarLong(source, target);
+	}
+
+	@Override
+	public TypeSerializerSnapshot<Integer> snapshotConfiguration() {
+		return new VarIntSerializerSnapshot();
+	}
+
+	// ------------------------------------------------------------------------
+	//  Encoding
+	// ------------------------------------------------------------------------
+
+	/**
+	 * Writes the given value as a zig-zag encoded variable length integer.
+	 */
+	public static void writeVarInt(int value, DataOutputView target) throws IOException {
+		int zigZag = (value << 1) ^ (value >> 31);
+		while ((zigZag & ~0x7F) != 0) {
+			target.writeByte((zigZag & 0x7F) | 0x80);
+			zigZag >>>= 7;
+		}
+		target.writeByte(zigZag);
+	}
+
+	/**
+	 * Reads a value that was written with {@link #writeVarInt(int, DataOutputView)}.
+	 */
+	public static int readVarInt(DataInputView source) throws IOException {
+		int zigZag = 0;
+		for (int shift = 0; shift < 35; shift += 7) {
+			byte b = source.readByte();
+			zigZag |= (b & 0x7F) << shift;
+			if (b >= 0) {
+				return (zigZag >>> 1) ^ -(zigZag & 1);
+			}
+		}
+		throw new IOException("Malformed variable length integer.");
+	}
+
+	// ------------------------------------------------------------------------
+
+	/**
+	 * Serializer configuration snapshot for compatibility and format evolution.
+	 */
+	public static final class VarIntSerializerSnapshot extends SimpleTypeSerializerSnapshot<Integer> {
+
+		@SuppressWarnings("WeakerAccess")
+		public VarIntSerializerSnapshot() {
+			super(() -> INSTANCE);
+		}
+
+		@Override
+		public TypeSerializerSchemaCompatibility<Integer> resolveSchemaCompatibility(TypeSerializer<Integer> newSerializer) {
+			// state that was written in the compact mode can be migrated to the fixed length format
+			return newSerializer instanceof IntSerializer ?
+				TypeSerializerSchemaCompatibility.compatibleAfterMigration() :
+				super.resolveSchemaCompatibility(newSerializer);
+		}
+	}
+}
@@ -0,0 +1,164 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.api.common.typeutils.base;
+
+import org.apache.flink.annotation.Internal;
+import org.apache.flink.api.common.typeutils.SimpleTypeSerializerSnapshot;
+import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.api.common.typeutils.TypeSerializerSchemaCompatibility;
+import org.apache.flink.api.common.typeutils.TypeSerializerSnapshot;
+import org.apache.flink.core.memory.DataInputView;
+import org.apache.flink.core.memory.DataOutputView;
+
+import java.io.IOException;
+
+/**
+ * Type serializer for {@code Long} that writes the values as zig-zag encoded variable length
+ * integers. Values of small magnitude take one or two bytes, at the cost of up to ten bytes for
+ * values of large magnitude.
+ *
+ * <p>This serializer is used instead of the {@link LongSerializer} if the compact serialization
+ * mode is enabled in the {@link org.apache.flink.api.common.ExecutionConfig}.
+ */
+@Internal
+public final class VarLongSerializer extends TypeSerializerSingleton<Long> {
+
+	private static final long serialVersionUID = 1L;
+
+	/** Sharable instance of the VarLongSerializer. */
+	public static final VarLongSerializer INSTANCE = new VarLongSerializer();
+
+	private static final Long ZERO = 0L;
+
+	@Override
+	public boolean isImmutableType() {
+		return true;
+	}
+
+	@Override
+	public Long createInstance() {
+		return ZERO;
+	}
+
+	@Override
+	public Long copy(Long from) {
+		return from;
+	}
+
+	@Override
+	public Long copy(Long from, Long reuse) {
+		return from;
+	}
+
+	@Override
+	public int getLength() {
+		return -1;
+	}
+
+	@Override
+	public void serialize(Long record, DataOutputView target) throws IOException {
+		writeVarLong(record, target);
+	}
+
+	@Override
+	public Long deserialize(DataInputView source) throws IOException {
+		return readVarLong(source);
+	}
+
+	@Override
+	public Long deserialize(Long reuse, DataInputView source) throws IOException {
+		return deserialize(source);
+	}
+
+	@Override
+	public void copy(DataInputView source, DataOutputView target) throws IOException {
+		copyVarLong(source, target);
+	}
+
+	@Override
+	public TypeSerializerSnapshot<Long> snapshotConfiguration() {
+		return new VarLongSerializerSnapshot();
+	}
+
+	// ------------------------------------------------------------------------
+	//  Encoding
+	// ------------------------------------------------------------------------
+
+	/**
+	 * Writes the given value as a zig-zag encoded variable length integer.
+	 */
+	public static void writeVarLong(long value, DataOutputView target) throws IOException {
+		long zigZag = (value << 1) ^ (value >> 63);
+		while ((zigZag & ~0x7FL) != 0) {
+			target.writeByte((int) (zigZag & 0x7F) | 0x80);
+			zigZag >>>= 7;
+		}
+		target.writeByte((int) zigZag);
+	}
+
+	/**
+	 * Reads a value that was written with {@link #writeVarLong(long, DataOutputView)}.
+	 */
+	public static long readVarLong(DataInputView source) throws IOException {
+		long zigZag = 0;
+		for (int shift = 0; shift < 70; shift += 7) {
+			byte b = source.readByte();
+			zigZag |= (long) (b & 0x7F) << shift;
+			if (b >= 0) {
+				return (zigZag >>> 1) ^ -(zigZag & 1);
+			}
+		}
+		throw new IOException("Malformed variable length integer.");
+	}
+
+	/**
+	 * Copies a variable length integer, of either an int or a long, from the source to the target.
+	 */
+	public static void copyVarLong(DataInputView source, DataOutputView target) throws IOException {
+		for (int i = 0; i < 10; i++) {
+			byte b = source.readByte();
+			target.writeByte(b);
+			if (b >= 0) {
+				return;
+			}
+		}
+		throw new IOException("Malformed variable length integer.");
+	}
+
+	// ------------------------------------------------------------------------
+
+	/**
+	 * Serializer configuration snapshot for compatibility and format evolution.
+	 */
+	public static final class VarLongSerializerSnapshot extends SimpleTypeSerializerSnapshot<Long> {
+
+		@SuppressWarnings("WeakerAccess")
+		public VarLongSerializerSnapshot() {
+			super(() -> INSTANCE);
+		}
+
+		@Override
+		public TypeSerializerSchemaCompatibility<Long> resolveSchemaCompatibility(TypeSerializer<Long> newSerializer) {
+			// state that was written in the compact mode can be migrated to the fixed length format
+			return newSerializer instanceof LongSerializer ?
+				TypeSerializerSchemaCompatibility.compatibleAfterMigration() :
+				super.resolveSchemaCompatibility(newSerializer);
+		}
+	}
+}
@@ -0,0 +1,133 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.api.java.typeutils;
+
+import org.apache.flink.annotation.PublicEvolving;
+import org.apache.flink.api.common.ExecutionConfig;
+import org.apache.flink.api.common.typeinfo.TypeInformation;
+import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.api.java.typeutils.runtime.LazyRowSerializer;
+import org.apache.flink.types.LazyRow;
+
+import java.util.Arrays;
+
+import static org.apache.flink.util.Preconditions.checkNotNull;
+
+/**
+ * {@link TypeInformation} for {@link LazyRow}, a row whose fields are deserialized on demand.
+ *
+ * <p>Fields may be appended to the type of a row that is kept in state, existing records are
+ * read with null values for the new fields.
+ */
+@PublicEvolving
+public class LazyRowTypeInfo extends TypeInformation<LazyRow> {
+
+	private static final long serialVersionUID = 1L;
+
+	private final TypeInformation<?>[] fieldTypes;
+
+	public LazyRowTypeInfo(TypeInformation<?>... fieldTypes) {
+		this.fieldTypes = checkNotNull(fieldTypes);
+		for (TypeInformation<?> fieldType : fieldTypes) {
+			checkNotNull(fieldType);
+		}
+	}
+
+	/**
+	 * Returns the types of the fields.
+	 */
+	public TypeInformation<?>[] getFieldTypes() {
+		return fieldTypes.clone();
+	}
+
+	@Override
+	public boolean isBasicType() {
+		return false;
+	}
+
+	@Override
+	public boolean isTupleType() {
+		return false;
+	}
+
+	@Override
+	public int getArity() {
+		return fieldTypes.length;
+	}
+
+	@Override
+	public int getTotalFields() {
+		int totalFields = 0;
+		for (TypeInformation<?> fieldType : fieldTypes) {
+			totalFields += fieldType.getTotalFields();
+		}
+		return totalFields;
+	}
+
+	@Override
+	public Class<LazyRow> getTypeClass() {
+		return LazyRow.class;
+	}
+
+	@Override
+	public boolean isKeyType() {
+		return false;
+	}
+
+	@Override
+	public TypeSerializer<LazyRow> createSerializer(ExecutionConfig config) {
+		TypeSerializer<?>[] fieldSerializers = new TypeSerializer[fieldTypes.length];
+		for (int i = 0; i < fieldTypes.length; i++) {
+			fieldSerializers[i] = fieldTypes[i].createSerializer(config);
+		}
+		return new LazyRowSerializer(fieldSerializers);
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder bld = new StringBuilder("LazyRow(");
+		for (int i = 0; i < fieldTypes.length; i++) {
+			if (i > 0) {
+				bld.append(", ");
+			}
+			bld.append(fieldTypes[i]);
+		}
+		bld.append(')');
+		return bld.toString();
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (obj instanceof LazyRowTypeInfo) {
+			LazyRowTypeInfo other = (LazyRowTypeInfo) obj;
+			return other.canEqual(this) && Arrays.equals(fieldTypes, other.fieldTypes);
+		}
+		return false;
+	}
+
+	@Override
+	public int hashCode() {
+		return Arrays.hashCode(fieldTypes);
+	}
+
+	@Override
+	public boolean canEqual(Object obj) {
+		return obj instanceof LazyRowTypeInfo;
+	}
+}
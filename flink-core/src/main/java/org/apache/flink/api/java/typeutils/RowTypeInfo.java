@@ -239,7 +239,7 @@ public class RowTypeInfo extends TupleTypeInfoBase<Row> {
 		for (int i = 0; i < len; i++) {
 			fieldSerializers[i] = types[i].createSerializer(config);
 		}
-		return new RowSerializer(fieldSerializers);
+		return new RowSerializer(fieldSerializers, isCompactSerializationEnabled(config));
 	}
 
 	@Override
@@ -374,10 +374,15 @@ public class RowTypeInfo extends TupleTypeInfoBase<Row> {
 				keyPositions,
 				comparators,
 				(TypeSerializer<Object>[]) fieldSerializers,
-				comparatorOrders);
+				comparatorOrders,
+				isCompactSerializationEnabled(config));
 		}
 	}
 
+	private static boolean isCompactSerializationEnabled(ExecutionConfig config) {
+		return config != null && config.isCompactSerializationEnabled();
+	}
+
 	/**
 	 * Creates a {@link RowTypeInfo} with projected fields.
 	 *
@@ -56,6 +56,8 @@ import org.apache.flink.util.Preconditions;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.Nullable;
+
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.GenericArrayType;
@@ -66,11 +68,15 @@ import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.lang.reflect.TypeVariable;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 
 import static org.apache.flink.api.java.typeutils.TypeExtractionUtils.getTypeHierarchy;
 import static org.apache.flink.api.java.typeutils.TypeExtractionUtils.hasSuperclass;
@@ -127,6 +133,29 @@ public class TypeExtractor {
 
 	public static final int[] NO_INDEX = new int[] {};
 
+	/**
+	 * The extracted return types of functions. They are attached to the class of the function, so
+	 * that they are released together with the class loader of the function. Return types that
+	 * refer to classes the function class cannot see are not cached, because they would otherwise
+	 * keep another class loader alive, see {@link #isVisibleFrom(ClassLoader, TypeInformation)}.
+	 */
+	private static final ClassValue<ConcurrentHashMap<ReturnTypeKey, TypeInformation<?>>> RETURN_TYPES =
+		new ClassValue<ConcurrentHashMap<ReturnTypeKey, TypeInformation<?>>>() {
+			@Override
+			protected ConcurrentHashMap<ReturnTypeKey, TypeInformation<?>> computeValue(Class<?> type) {
+				return new ConcurrentHashMap<>();
+			}
+		};
+
+	/** The reflective analysis of POJO classes that does not depend on the type hierarchy. */
+	private static final ClassValue<PojoClassAnalysis> POJO_CLASS_ANALYSES =
+		new ClassValue<PojoClassAnalysis>() {
+			@Override
+			protected PojoClassAnalysis computeValue(Class<?> type) {
+				return new PojoClassAnalysis(type);
+			}
+		};
+
 	protected TypeExtractor() {
 		// only create instances for special use cases
 	}
@@ -547,52 +576,78 @@ public class TypeExtractor {
 			return ((ResultTypeQueryable<OUT>) function).getProducedType();
 		}
 
+		final ReturnTypeKey returnTypeKey = new ReturnTypeKey(
+			baseClass,
+			inputTypeArgumentIndex,
+			-1,
+			outputTypeArgumentIndex,
+			lambdaOutputTypeArgumentIndices,
+			inType,
+			null);
+
 		// perform extraction
 		try {
-			final LambdaExecutable exec;
-			try {
-				exec = checkAndExtractLambda(function);
-			} catch (TypeExtractionException e) {
-				throw new InvalidTypesException("Internal error occurred.", e);
+			return getOrExtractReturnType(function, returnTypeKey, () -> extractUnaryOperatorReturnType(
+				function,
+				baseClass,
+				inputTypeArgumentIndex,
+				outputTypeArgumentIndex,
+				lambdaOutputTypeArgumentIndices,
+				inType));
+		}
+		catch (InvalidTypesException e) {
+			if (allowMissing) {
+				return (TypeInformation<OUT>) new MissingTypeInfo(functionName != null ? functionName : function.toString(), e);
+			} else {
+				throw e;
 			}
-			if (exec != null) {
+		}
+	}
+
+	private static <IN, OUT> TypeInformation<OUT> extractUnaryOperatorReturnType(
+		Function function,
+		Class<?> baseClass,
+		int inputTypeArgumentIndex,
+		int outputTypeArgumentIndex,
+		int[] lambdaOutputTypeArgumentIndices,
+		TypeInformation<IN> inType) {
 
-				// parameters must be accessed from behind, since JVM can add additional parameters e.g. when using local variables inside lambda function
-				// paramLen is the total number of parameters of the provided lambda, it includes parameters added through closure
-				final int paramLen = exec.getParameterTypes().length;
+		final LambdaExecutable exec;
+		try {
+			exec = checkAndExtractLambda(function);
+		} catch (TypeExtractionException e) {
+			throw new InvalidTypesException("Internal error occurred.", e);
+		}
+		if (exec != null) {
 
-				final Method sam = TypeExtractionUtils.getSingleAbstractMethod(baseClass);
+			// parameters must be accessed from behind, since JVM can add additional parameters e.g. when using local variables inside lambda function
+			// paramLen is the total number of parameters of the provided lambda, it includes parameters added through closure
+			final int paramLen = exec.getParameterTypes().length;
 
-				// number of parameters the SAM of implemented interface has; the parameter indexing applies to this range
-				final int baseParametersLen = sam.getParameterTypes().length;
+			final Method sam = TypeExtractionUtils.getSingleAbstractMethod(baseClass);
 
-				final Type output;
-				if (lambdaOutputTypeArgumentIndices.length > 0) {
-					output = TypeExtractionUtils.extractTypeFromLambda(
-						baseClass,
-						exec,
-						lambdaOutputTypeArgumentIndices,
-						paramLen,
-						baseParametersLen);
-				} else {
-					output = exec.getReturnType();
-					TypeExtractionUtils.validateLambdaType(baseClass, output);
-				}
+			// number of parameters the SAM of implemented interface has; the parameter indexing applies to this range
+			final int baseParametersLen = sam.getParameterTypes().length;
 
-				return new TypeExtractor().privateCreateTypeInfo(output, inType, null);
+			final Type output;
+			if (lambdaOutputTypeArgumentIndices.length > 0) {
+				output = TypeExtractionUtils.extractTypeFromLambda(
+					baseClass,
+					exec,
+					lambdaOutputTypeArgumentIndices,
+					paramLen,
+					baseParametersLen);
 			} else {
-				if (inType != null) {
-					validateInputType(baseClass, function.getClass(), inputTypeArgumentIndex, inType);
-				}
-				return new TypeExtractor().privateCreateTypeInfo(baseClass, function.getClass(), outputTypeArgumentIndex, inType, null);
+				output = exec.getReturnType();
+				TypeExtractionUtils.validateLambdaType(baseClass, output);
 			}
-		}
-		catch (InvalidTypesException e) {
-			if (allowMissing) {
-				return (TypeInformation<OUT>) new MissingTypeInfo(functionName != null ? functionName : function.toString(), e);
-			} else {
-				throw e;
+
+			return new TypeExtractor().privateCreateTypeInfo(output, inType, null);
+		} else {
+			if (inType != null) {
+				validateInputType(baseClass, function.getClass(), inputTypeArgumentIndex, inType);
 			}
+			return new TypeExtractor().privateCreateTypeInfo(baseClass, function.getClass(), outputTypeArgumentIndex, inType, null);
 		}
 	}
 
@@ -669,49 +724,26 @@ public class TypeExtractor {
 			return ((ResultTypeQueryable<OUT>) function).getProducedType();
 		}
 
+		final ReturnTypeKey returnTypeKey = new ReturnTypeKey(
+			baseClass,
+			input1TypeArgumentIndex,
+			input2TypeArgumentIndex,
+			outputTypeArgumentIndex,
+			lambdaOutputTypeArgumentIndices,
+			in1Type,
+			in2Type);
+
 		// perform extraction
 		try {
-			final LambdaExecutable exec;
-			try {
-				exec = checkAndExtractLambda(function);
-			} catch (TypeExtractionException e) {
-				throw new InvalidTypesException("Internal error occurred.", e);
-			}
-			if (exec != null) {
-
-				final Method sam = TypeExtractionUtils.getSingleAbstractMethod(baseClass);
-				final int baseParametersLen = sam.getParameterTypes().length;
-
-				// parameters must be accessed from behind, since JVM can add additional parameters e.g. when using local variables inside lambda function
-				final int paramLen = exec.getParameterTypes().length;
-
-				final Type output;
-				if (lambdaOutputTypeArgumentIndices.length > 0) {
-					output = TypeExtractionUtils.extractTypeFromLambda(
-						baseClass,
-						exec,
-						lambdaOutputTypeArgumentIndices,
-						paramLen,
-						baseParametersLen);
-				} else {
-					output = exec.getReturnType();
-					TypeExtractionUtils.validateLambdaType(baseClass, output);
-				}
-
-				return new TypeExtractor().privateCreateTypeInfo(
-					output,
-					in1Type,
-					in2Type);
-			}
-			else {
-				if (in1Type != null) {
-					validateInputType(baseClass, function.getClass(), input1TypeArgumentIndex, in1Type);
-				}
-				if (in2Type != null) {
-					validateInputType(baseClass, function.getClass(), input2TypeArgumentIndex, in2Type);
-				}
-				return new TypeExtractor().privateCreateTypeInfo(baseClass, function.getClass(), outputTypeArgumentIndex, in1Type, in2Type);
-			}
+			return getOrExtractReturnType(function, returnTypeKey, () -> extractBinaryOperatorReturnType(
+				function,
+				baseClass,
+				input1TypeArgumentIndex,
+				input2TypeArgumentIndex,
+				outputTypeArgumentIndex,
+				lambdaOutputTypeArgumentIndices,
+				in1Type,
+				in2Type));
 		}
 		catch (InvalidTypesException e) {
 			if (allowMissing) {
@@ -722,6 +754,236 @@ public class TypeExtractor {
 		}
 	}
 
+	private static <IN1, IN2, OUT> TypeInformation<OUT> extractBinaryOperatorReturnType(
+		Function function,
+		Class<?> baseClass,
+		int input1TypeArgumentIndex,
+		int input2TypeArgumentIndex,
+		int outputTypeArgumentIndex,
+		int[] lambdaOutputTypeArgumentIndices,
+		TypeInformation<IN1> in1Type,
+		TypeInformation<IN2> in2Type) {
+
+		final LambdaExecutable exec;
+		try {
+			exec = checkAndExtractLambda(function);
+		} catch (TypeExtractionException e) {
+			throw new InvalidTypesException("Internal error occurred.", e);
+		}
+		if (exec != null) {
+
+			final Method sam = TypeExtractionUtils.getSingleAbstractMethod(baseClass);
+			final int baseParametersLen = sam.getParameterTypes().length;
+
+			// parameters must be accessed from behind, since JVM can add additional parameters e.g. when using local variables inside lambda function
+			final int paramLen = exec.getParameterTypes().length;
+
+			final Type output;
+			if (lambdaOutputTypeArgumentIndices.length > 0) {
+				output = TypeExtractionUtils.extractTypeFromLambda(
+					baseClass,
+					exec,
+					lambdaOutputTypeArgumentIndices,
+					paramLen,
+					baseParametersLen);
+			} else {
+				output = exec.getReturnType();
+				TypeExtractionUtils.validateLambdaType(baseClass, output);
+			}
+
+			return new TypeExtractor().privateCreateTypeInfo(
+				output,
+				in1Type,
+				in2Type);
+		}
+		else {
+			if (in1Type != null) {
+				validateInputType(baseClass, function.getClass(), input1TypeArgumentIndex, in1Type);
+			}
+			if (in2Type != null) {
+				validateInputType(baseClass, function.getClass(), input2TypeArgumentIndex, in2Type);
+			}
+			return new TypeExtractor().privateCreateTypeInfo(baseClass, function.getClass(), outputTypeArgumentIndex, in1Type, in2Type);
+		}
+	}
+
+	// --------------------------------------------------------------------------------------------
+	//  Return type cache
+	// --------------------------------------------------------------------------------------------
+
+	/**
+	 * Returns the cached return type of the function for the given key, or extracts and caches it.
+	 *
+	 * <p>Apart from {@link ResultTypeQueryable} functions, which are never cached, the return type
+	 * only depends on the class of the function and on the key. Programs that create many
+	 * transformations from the same function classes therefore run the reflective analysis only
+	 * once per class. Failed extractions are not cached.
+	 *
+	 * <p>Functions that are loaded by a parent class loader, for example functions that are part
+	 * of Flink, can be applied to types of user classes. Their return types are not cached, so
+	 * that the cache does not keep the user code class loader alive.
+	 */
+	@SuppressWarnings("unchecked")
+	private static <OUT> TypeInformation<OUT> getOrExtractReturnType(
+			Function function,
+			ReturnTypeKey key,
+			Supplier<TypeInformation<OUT>> extractor) {
+
+		final ClassLoader functionClassLoader = function.getClass().getClassLoader();
+		final ConcurrentHashMap<ReturnTypeKey, TypeInformation<?>> returnTypes = key.isCacheable(functionClassLoader) ?
+			RETURN_TYPES.get(function.getClass()) : null;
+
+		if (returnTypes != null) {
+			TypeInformation<?> returnType = returnTypes.get(key);
+			if (returnType != null) {
+				TypeExtractorStatistics.returnTypeCacheHit();
+				return (TypeInformation<OUT>) returnType;
+			}
+		}
+
+		final long extractionStart = System.nanoTime();
+		final TypeInformation<OUT> returnType = extractor.get();
+		TypeExtractorStatistics.returnTypeExtracted(System.nanoTime() - extractionStart);
+
+		if (returnTypes != null && returnType != null && isVisibleFrom(functionClassLoader, returnType)) {
+			returnTypes.putIfAbsent(key, returnType);
+		}
+		return returnType;
+	}
+
+	/**
+	 * Checks whether all classes that the type information refers to are loaded by the given class
+	 * loader or by one of its parents. Missing types are never visible, since they carry the
+	 * exception of a failed extraction instead of a class. Neither are custom types that do not
+	 * tell their class.
+	 */
+	private static boolean isVisibleFrom(@Nullable ClassLoader classLoader, TypeInformation<?> type) {
+		if (type instanceof MissingTypeInfo) {
+			return false;
+		}
+
+		final Class<?> typeClass = type.getTypeClass();
+		if (typeClass == null || !isVisibleFrom(classLoader, typeClass)) {
+			return false;
+		}
+
+		for (TypeInformation<?> parameter : type.getGenericParameters().values()) {
+			if (!isVisibleFrom(classLoader, parameter)) {
+				return false;
+			}
+		}
+
+		if (type instanceof CompositeType) {
+			final CompositeType<?> compositeType = (CompositeType<?>) type;
+			for (int i = 0; i < compositeType.getArity(); i++) {
+				if (!isVisibleFrom(classLoader, compositeType.getTypeAt(i))) {
+					return false;
+				}
+			}
+		} else if (type instanceof ListTypeInfo) {
+			return isVisibleFrom(classLoader, ((ListTypeInfo<?>) type).getElementTypeInfo());
+		} else if (type instanceof MapTypeInfo) {
+			final MapTypeInfo<?, ?> mapType = (MapTypeInfo<?, ?>) type;
+			return isVisibleFrom(classLoader, mapType.getKeyTypeInfo()) &&
+				isVisibleFrom(classLoader, mapType.getValueTypeInfo());
+		}
+		return true;
+	}
+
+	private static boolean isVisibleFrom(@Nullable ClassLoader classLoader, Class<?> clazz) {
+		final ClassLoader classClassLoader = clazz.getClassLoader();
+		if (classClassLoader == null) {
+			// classes of the bootstrap class loader are visible from every class loader
+			return true;
+		}
+
+		for (ClassLoader loader = classLoader; loader != null; loader = loader.getParent()) {
+			if (loader == classClassLoader) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * The arguments of a return type extraction, other than the class of the function.
+	 */
+	private static final class ReturnTypeKey {
+
+		private final Class<?> baseClass;
+
+		private final int input1TypeArgumentIndex;
+
+		private final int input2TypeArgumentIndex;
+
+		private final int outputTypeArgumentIndex;
+
+		private final int[] lambdaOutputTypeArgumentIndices;
+
+		@Nullable
+		private final TypeInformation<?> in1Type;
+
+		@Nullable
+		private final TypeInformation<?> in2Type;
+
+		ReturnTypeKey(
+				Class<?> baseClass,
+				int input1TypeArgumentIndex,
+				int input2TypeArgumentIndex,
+				int outputTypeArgumentIndex,
+				int[] lambdaOutputTypeArgumentIndices,
+				@Nullable TypeInformation<?> in1Type,
+				@Nullable TypeInformation<?> in2Type) {
+			this.baseClass = baseClass;
+			this.input1TypeArgumentIndex = in1Type != null ? input1TypeArgumentIndex : -1;
+			this.input2TypeArgumentIndex = in2Type != null ? input2TypeArgumentIndex : -1;
+			this.outputTypeArgumentIndex = outputTypeArgumentIndex;
+			this.lambdaOutputTypeArgumentIndices = lambdaOutputTypeArgumentIndices.clone();
+			this.in1Type = in1Type;
+			this.in2Type = in2Type;
+		}
+
+		/**
+		 * Checks whether the input types may be cached with a function of the given class loader.
+		 * Missing input types carry the exception of a failed extraction, which should be
+		 * reported again for every function that depends on them.
+		 */
+		boolean isCacheable(@Nullable ClassLoader functionClassLoader) {
+			return (in1Type == null || isVisibleFrom(functionClassLoader, in1Type)) &&
+				(in2Type == null || isVisibleFrom(functionClassLoader, in2Type));
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (o == null || getClass() != o.getClass()) {
+				return false;
+			}
+			ReturnTypeKey that = (ReturnTypeKey) o;
+			return baseClass == that.baseClass &&
+				input1TypeArgumentIndex == that.input1TypeArgumentIndex &&
+				input2TypeArgumentIndex == that.input2TypeArgumentIndex &&
+				outputTypeArgumentIndex == that.outputTypeArgumentIndex &&
+				Arrays.equals(lambdaOutputTypeArgumentIndices, that.lambdaOutputTypeArgumentIndices) &&
+				Objects.equals(in1Type, that.in1Type) &&
+				Objects.equals(in2Type, that.in2Type);
+		}
+
+		@Override
+		public int hashCode() {
+			int result = Objects.hash(
+				baseClass,
+				input1TypeArgumentIndex,
+				input2TypeArgumentIndex,
+				outputTypeArgumentIndex,
+				in1Type,
+				in2Type);
+			return 31 * result + Arrays.hashCode(lambdaOutputTypeArgumentIndices);
+		}
+	}
+
 	// --------------------------------------------------------------------------------------------
 	//  Create type information
 	// --------------------------------------------------------------------------------------------
@@ -1768,7 +2030,7 @@ public class TypeExtractor {
 	 * @param clazz class of field
 	 * @param typeHierarchy type hierarchy for materializing generic types
 	 */
-	private boolean isValidPojoField(Field f, Class<?> clazz, ArrayList<Type> typeHierarchy) {
+	private static boolean isValidPojoField(Field f, Class<?> clazz, ArrayList<Type> typeHierarchy) {
 		if(Modifier.isPublic(f.getModifiers())) {
 			return true;
 		} else {
@@ -1842,7 +2104,8 @@ public class TypeExtractor {
 			getTypeHierarchy(typeHierarchy, clazz, Object.class);
 		}
 
-		List<Field> fields = getAllDeclaredFields(clazz, false);
+		final PojoClassAnalysis classAnalysis = POJO_CLASS_ANALYSES.get(clazz);
+		List<Field> fields = classAnalysis.getFields();
 		if (fields.size() == 0) {
 			LOG.info("No fields were detected for " + clazz + " so it cannot be used as a POJO type " +
 				"and must be processed as GenericType. Please read the Flink documentation " +
@@ -1851,9 +2114,10 @@ public class TypeExtractor {
 		}
 
 		List<PojoField> pojoFields = new ArrayList<PojoField>();
-		for (Field field : fields) {
+		for (int i = 0; i < fields.size(); i++) {
+			Field field = fields.get(i);
 			Type fieldType = field.getGenericType();
-			if(!isValidPojoField(field, clazz, typeHierarchy)) {
+			if(!classAnalysis.isValidPojoField(i, typeHierarchy)) {
 				LOG.info("Class " + clazz + " cannot be used as a POJO type because not all fields are valid POJO fields, " +
 					"and must be processed as GenericType. Please read the Flink documentation " +
 					"on \"Data Types & Serialization\" for details of the effect on performance.");
@@ -1879,14 +2143,11 @@ public class TypeExtractor {
 		// Validate the correctness of the pojo.
 		// returning "null" will result create a generic type information.
 		//
-		List<Method> methods = getAllDeclaredMethods(clazz);
-		for (Method method : methods) {
-			if (method.getName().equals("readObject") || method.getName().equals("writeObject")) {
-				LOG.info("Class " + clazz + " contains custom serialization methods we do not call, so it cannot be used as a POJO type " +
-					"and must be processed as GenericType. Please read the Flink documentation " +
-					"on \"Data Types & Serialization\" for details of the effect on performance.");
-				return null;
-			}
+		if (classAnalysis.hasCustomSerializationMethods()) {
+			LOG.info("Class " + clazz + " contains custom serialization methods we do not call, so it cannot be used as a POJO type " +
+				"and must be processed as GenericType. Please read the Flink documentation " +
+				"on \"Data Types & Serialization\" for details of the effect on performance.");
+			return null;
 		}
 
 		// Try retrieving the default constructor, if it does not have one
@@ -1916,6 +2177,62 @@ public class TypeExtractor {
 		return pojoType;
 	}
 
+	/**
+	 * The part of the analysis of a POJO class that only depends on the class itself. It is cached
+	 * per class, because the same POJO types are usually analyzed for many functions of a program.
+	 */
+	private static final class PojoClassAnalysis {
+
+		private final Class<?> clazz;
+
+		private final List<Field> fields;
+
+		/**
+		 * Whether the fields are valid POJO fields, computed on first use. The validity of fields
+		 * whose type is a type variable depends on the type hierarchy and is never cached.
+		 */
+		private final Boolean[] validFields;
+
+		private final boolean hasCustomSerializationMethods;
+
+		PojoClassAnalysis(Class<?> clazz) {
+			this.clazz = clazz;
+			this.fields = Collections.unmodifiableList(getAllDeclaredFields(clazz, false));
+			this.validFields = new Boolean[fields.size()];
+
+			boolean hasCustomSerializationMethods = false;
+			for (Method method : getAllDeclaredMethods(clazz)) {
+				if (method.getName().equals("readObject") || method.getName().equals("writeObject")) {
+					hasCustomSerializationMethods = true;
+					break;
+				}
+			}
+			this.hasCustomSerializationMethods = hasCustomSerializationMethods;
+		}
+
+		List<Field> getFields() {
+			return fields;
+		}
+
+		boolean isValidPojoField(int index, ArrayList<Type> typeHierarchy) {
+			final Field field = fields.get(index);
+			if (field.getGenericType() instanceof TypeVariable) {
+				return TypeExtractor.isValidPojoField(field, clazz, typeHierarchy);
+			}
+
+			Boolean valid = validFields[index];
+			if (valid == null) {
+				valid = TypeExtractor.isValidPojoField(field, clazz, typeHierarchy);
+				validFields[index] = valid;
+			}
+			return valid;
+		}
+
+		boolean hasCustomSerializationMethods() {
+			return hasCustomSerializationMethods;
+		}
+	}
+
 	/**
 	 * Recursively determine all declared fields
 	 * This is required because class.getFields() is not returning fields defined
@@ -0,0 +1,82 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.api.java.typeutils;
+
+import org.apache.flink.annotation.Internal;
+import org.apache.flink.annotation.VisibleForTesting;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Process wide statistics of the {@link TypeExtractor}. They show how much time the client spends
+ * extracting the return types of functions while a program builds its dataflow, and how many
+ * return types were served from the cache of already extracted types.
+ */
+@Internal
+public final class TypeExtractorStatistics {
+
+	private static final LongAdder NUM_EXTRACTIONS = new LongAdder();
+
+	private static final LongAdder NUM_CACHE_HITS = new LongAdder();
+
+	private static final LongAdder EXTRACTION_TIME_NANOS = new LongAdder();
+
+	private TypeExtractorStatistics() {}
+
+	// ------------------------------------------------------------------------
+
+	static void returnTypeExtracted(long extractionTimeNanos) {
+		NUM_EXTRACTIONS.increment();
+		EXTRACTION_TIME_NANOS.add(extractionTimeNanos);
+	}
+
+	static void returnTypeCacheHit() {
+		NUM_CACHE_HITS.increment();
+	}
+
+	// ------------------------------------------------------------------------
+
+	/**
+	 * Returns the number of function return types that were extracted by reflection.
+	 */
+	public static long getNumExtractions() {
+		return NUM_EXTRACTIONS.sum();
+	}
+
+	/**
+	 * Returns the number of function return types that were taken from the cache.
+	 */
+	public static long getNumCacheHits() {
+		return NUM_CACHE_HITS.sum();
+	}
+
+	/**
+	 * Returns the total time spent extracting function return types, in milliseconds.
+	 */
+	public static long getExtractionTimeMillis() {
+		return EXTRACTION_TIME_NANOS.sum() / 1_000_000;
+	}
+
+	@VisibleForTesting
+	static void reset() {
+		NUM_EXTRACTIONS.reset();
+		NUM_CACHE_HITS.reset();
+		EXTRACTION_TIME_NANOS.reset();
+	}
+}
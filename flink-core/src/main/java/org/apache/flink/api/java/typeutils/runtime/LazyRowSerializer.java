@@ -0,0 +1,332 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.api.java.typeutils.runtime;
+
+import org.apache.flink.annotation.Internal;
+import org.apache.flink.api.common.typeutils.CompositeTypeSerializerUtil;
+import org.apache.flink.api.common.typeutils.CompositeTypeSerializerUtil.IntermediateCompatibilityResult;
+import org.apache.flink.api.common.typeutils.NestedSerializersSnapshotDelegate;
+import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.api.common.typeutils.TypeSerializerSchemaCompatibility;
+import org.apache.flink.api.common.typeutils.TypeSerializerSnapshot;
+import org.apache.flink.core.memory.DataInputView;
+import org.apache.flink.core.memory.DataOutputSerializer;
+import org.apache.flink.core.memory.DataOutputView;
+import org.apache.flink.types.LazyRow;
+
+import javax.annotation.Nullable;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.util.Arrays;
+
+import static org.apache.flink.api.common.typeutils.base.VarIntSerializer.readVarInt;
+import static org.apache.flink.api.common.typeutils.base.VarIntSerializer.writeVarInt;
+import static org.apache.flink.util.Preconditions.checkNotNull;
+import static org.apache.flink.util.Preconditions.checkState;
+
+/**
+ * Serializer for {@link LazyRow}.
+ *
+ * <p>A row is written as its arity, followed by the length of each serialized field (-1 for null
+ * fields) and the serialized fields. Deserializing a row only reads the bytes of the fields, which
+ * are deserialized on demand by the row. Fields whose raw bytes are still up to date are written
+ * without serializing them again.
+ *
+ * <p>Since every record carries its arity, records that were written with fewer fields can be
+ * read, the missing fields are null. Fields can therefore be appended to the row type without
+ * migrating existing state.
+ */
+@Internal
+public final class LazyRowSerializer extends TypeSerializer<LazyRow> {
+
+	private static final long serialVersionUID = 1L;
+
+	private final TypeSerializer<Object>[] fieldSerializers;
+
+	private final int arity;
+
+	private transient DataOutputSerializer fieldsBuffer;
+
+	private transient int[] fieldLengths;
+
+	/** Field serializers of rows whose raw fields were last found to be in the format of this serializer. */
+	private transient TypeSerializer<?>[] lastRawCompatibleFieldSerializers;
+
+	@SuppressWarnings("unchecked")
+	public LazyRowSerializer(TypeSerializer<?>[] fieldSerializers) {
+		this.fieldSerializers = (TypeSerializer<Object>[]) checkNotNull(fieldSerializers);
+		this.arity = fieldSerializers.length;
+		this.fieldsBuffer = new DataOutputSerializer(64);
+		this.fieldLengths = new int[arity];
+	}
+
+	@Override
+	public boolean isImmutableType() {
+		return false;
+	}
+
+	@Override
+	public TypeSerializer<LazyRow> duplicate() {
+		TypeSerializer<?>[] duplicateFieldSerializers = new TypeSerializer[fieldSerializers.length];
+		for (int i = 0; i < fieldSerializers.length; i++) {
+			duplicateFieldSerializers[i] = fieldSerializers[i].duplicate();
+		}
+		return new LazyRowSerializer(duplicateFieldSerializers);
+	}
+
+	@Override
+	public LazyRow createInstance() {
+		return new LazyRow(arity);
+	}
+
+	@Override
+	public LazyRow copy(LazyRow from) {
+		if (from.getArity() != arity) {
+			throw new RuntimeException("Row arity of from does not match serializers.");
+		}
+		return from.copy(fieldSerializers);
+	}
+
+	@Override
+	public LazyRow copy(LazyRow from, LazyRow reuse) {
+		return copy(from);
+	}
+
+	@Override
+	public int getLength() {
+		return -1;
+	}
+
+	public int getArity() {
+		return arity;
+	}
+
+	TypeSerializer<?>[] getFieldSerializers() {
+		return fieldSerializers;
+	}
+
+	@Override
+	public void serialize(LazyRow record, DataOutputView target) throws IOException {
+		int len = fieldSerializers.length;
+
+		if (record.getArity() != len) {
+			throw new RuntimeException("Row arity of from does not match serializers.");
+		}
+
+		boolean forwardRawFields = isRawFormatCompatible(record);
+
+		fieldsBuffer.clear();
+		for (int i = 0; i < len; i++) {
+			if (forwardRawFields && record.hasRawField(i)) {
+				fieldLengths[i] = record.getRawFieldLength(i);
+				record.writeRawField(i, fieldsBuffer);
+			} else {
+				Object value = forwardRawFields ? record.getMaterializedField(i) : record.getField(i);
+				if (value == null) {
+					fieldLengths[i] = -1;
+				} else {
+					int start = fieldsBuffer.length();
+					fieldSerializers[i].serialize(value, fieldsBuffer);
+					fieldLengths[i] = fieldsBuffer.length() - start;
+				}
+			}
+		}
+
+		writeVarInt(len, target);
+		for (int i = 0; i < len; i++) {
+			writeVarInt(fieldLengths[i], target);
+		}
+		target.write(fieldsBuffer.getSharedBuffer(), 0, fieldsBuffer.length());
+	}
+
+	/**
+	 * Checks whether the raw fields of the given row were written by equal field serializers,
+	 * which is not the case for example when state is migrated to new serializers.
+	 */
+	private boolean isRawFormatCompatible(LazyRow record) {
+		TypeSerializer<?>[] recordFieldSerializers = record.getFieldSerializers();
+		if (recordFieldSerializers == fieldSerializers || recordFieldSerializers == lastRawCompatibleFieldSerializers) {
+			return true;
+		}
+		if (recordFieldSerializers != null && Arrays.equals(recordFieldSerializers, fieldSerializers)) {
+			lastRawCompatibleFieldSerializers = recordFieldSerializers;
+			return true;
+		}
+		return false;
+	}
+
+	@Override
+	public LazyRow deserialize(DataInputView source) throws IOException {
+		int serializedArity = readVarInt(source);
+
+		int[] offsets = new int[arity];
+		int[] lengths = new int[arity];
+		int numBytes = 0;
+		for (int i = 0; i < serializedArity; i++) {
+			int length = readVarInt(source);
+			if (i < arity) {
+				offsets[i] = numBytes;
+				lengths[i] = length;
+			}
+			numBytes += Math.max(length, 0);
+		}
+		// fields which were appended after the record was written are null
+		for (int i = serializedArity; i < arity; i++) {
+			lengths[i] = -1;
+		}
+
+		byte[] bytes = new byte[numBytes];
+		source.readFully(bytes);
+		return new LazyRow(fieldSerializers, bytes, offsets, lengths);
+	}
+
+	@Override
+	public LazyRow deserialize(LazyRow reuse, DataInputView source) throws IOException {
+		return deserialize(source);
+	}
+
+	@Override
+	public void copy(DataInputView source, DataOutputView target) throws IOException {
+		int serializedArity = readVarInt(source);
+		writeVarInt(serializedArity, target);
+
+		int numBytes = 0;
+		for (int i = 0; i < serializedArity; i++) {
+			int length = readVarInt(source);
+			writeVarInt(length, target);
+			numBytes += Math.max(length, 0);
+		}
+		target.write(source, numBytes);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (obj instanceof LazyRowSerializer) {
+			LazyRowSerializer other = (LazyRowSerializer) obj;
+			return Arrays.equals(fieldSerializers, other.fieldSerializers);
+		}
+
+		return false;
+	}
+
+	@Override
+	public int hashCode() {
+		return Arrays.hashCode(fieldSerializers);
+	}
+
+	// --------------------------------------------------------------------------------------------
+
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		in.defaultReadObject();
+		this.fieldsBuffer = new DataOutputSerializer(64);
+		this.fieldLengths = new int[arity];
+	}
+
+	// --------------------------------------------------------------------------------------------
+	// Serializer configuration snapshoting & compatibility
+	// --------------------------------------------------------------------------------------------
+
+	@Override
+	public TypeSerializerSnapshot<LazyRow> snapshotConfiguration() {
+		return new LazyRowSerializerSnapshot(this);
+	}
+
+	/**
+	 * A {@link TypeSerializerSnapshot} for {@link LazyRowSerializer}.
+	 *
+	 * <p>Since records carry their arity, a new serializer which appends fields to the fields of
+	 * the snapshot is compatible, as long as the serializers of the existing fields are compatible.
+	 */
+	public static final class LazyRowSerializerSnapshot implements TypeSerializerSnapshot<LazyRow> {
+
+		private static final int VERSION = 1;
+
+		@Nullable
+		private NestedSerializersSnapshotDelegate nestedSnapshot;
+
+		@SuppressWarnings("unused")
+		public LazyRowSerializerSnapshot() {
+			// this constructor is used when restoring from a checkpoint/savepoint.
+		}
+
+		LazyRowSerializerSnapshot(LazyRowSerializer serializerInstance) {
+			this.nestedSnapshot = new NestedSerializersSnapshotDelegate(serializerInstance.getFieldSerializers());
+		}
+
+		@Override
+		public int getCurrentVersion() {
+			return VERSION;
+		}
+
+		@Override
+		public void writeSnapshot(DataOutputView out) throws IOException {
+			checkState(nestedSnapshot != null);
+			nestedSnapshot.writeNestedSerializerSnapshots(out);
+		}
+
+		@Override
+		public void readSnapshot(int readVersion, DataInputView in, ClassLoader userCodeClassLoader) throws IOException {
+			if (readVersion != VERSION) {
+				throw new IllegalArgumentException("Unrecognized version: " + readVersion);
+			}
+			nestedSnapshot = NestedSerializersSnapshotDelegate.readNestedSerializerSnapshots(in, userCodeClassLoader);
+		}
+
+		@Override
+		public TypeSerializer<LazyRow> restoreSerializer() {
+			checkState(nestedSnapshot != null);
+			return new LazyRowSerializer(nestedSnapshot.getRestoredNestedSerializers());
+		}
+
+		@Override
+		public TypeSerializerSchemaCompatibility<LazyRow> resolveSchemaCompatibility(TypeSerializer<LazyRow> newSerializer) {
+			checkState(nestedSnapshot != null);
+
+			if (!(newSerializer instanceof LazyRowSerializer)) {
+				return TypeSerializerSchemaCompatibility.incompatible();
+			}
+
+			TypeSerializer<?>[] newFieldSerializers = ((LazyRowSerializer) newSerializer).getFieldSerializers();
+			TypeSerializerSnapshot<?>[] fieldSnapshots = nestedSnapshot.getNestedSerializerSnapshots();
+
+			// fields may only be appended
+			if (newFieldSerializers.length < fieldSnapshots.length) {
+				return TypeSerializerSchemaCompatibility.incompatible();
+			}
+
+			IntermediateCompatibilityResult<LazyRow> intermediateResult =
+				CompositeTypeSerializerUtil.constructIntermediateCompatibilityResult(
+					Arrays.copyOf(newFieldSerializers, fieldSnapshots.length),
+					fieldSnapshots);
+
+			if (intermediateResult.isCompatibleWithReconfiguredSerializer()) {
+				TypeSerializer<?>[] reconfiguredFieldSerializers = newFieldSerializers.clone();
+				System.arraycopy(
+					intermediateResult.getNestedSerializers(), 0,
+					reconfiguredFieldSerializers, 0,
+					fieldSnapshots.length);
+				return TypeSerializerSchemaCompatibility.compatibleWithReconfiguredSerializer(
+					new LazyRowSerializer(reconfiguredFieldSerializers));
+			}
+
+			return intermediateResult.getFinalResult();
+		}
+	}
+}
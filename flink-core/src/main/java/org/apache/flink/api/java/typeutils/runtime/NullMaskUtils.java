@@ -23,6 +23,7 @@ import org.apache.flink.core.memory.DataOutputView;
 import org.apache.flink.types.Row;
 
 import java.io.IOException;
+import java.util.Arrays;
 
 @Internal
 public class NullMaskUtils {
@@ -104,4 +105,64 @@ public class NullMaskUtils {
 			fieldPos += numPos;
 		}
 	}
+
+	// --------------------------------------------------------------------------------------------
+	//  Compact null mask
+	// --------------------------------------------------------------------------------------------
+
+	/**
+	 * The length up to which the compact null mask is identical to the regular null mask. Longer
+	 * null masks are prefixed with a flag that tells whether any field is null, and are omitted
+	 * if no field is null.
+	 */
+	private static final int MAX_UNCONDITIONAL_COMPACT_NULL_MASK_LENGTH = 8;
+
+	public static void writeCompactNullMask(int len, Row value, DataOutputView target) throws IOException {
+		if (len <= MAX_UNCONDITIONAL_COMPACT_NULL_MASK_LENGTH) {
+			writeNullMask(len, value, target);
+			return;
+		}
+
+		boolean hasNullField = false;
+		for (int i = 0; i < len && !hasNullField; i++) {
+			hasNullField = value.getField(i) == null;
+		}
+
+		target.writeBoolean(hasNullField);
+		if (hasNullField) {
+			writeNullMask(len, value, target);
+		}
+	}
+
+	public static void readIntoCompactNullMask(
+		int len,
+		DataInputView source,
+		boolean[] nullMask) throws IOException {
+
+		if (len <= MAX_UNCONDITIONAL_COMPACT_NULL_MASK_LENGTH || source.readBoolean()) {
+			readIntoNullMask(len, source, nullMask);
+		} else {
+			Arrays.fill(nullMask, 0, len, false);
+		}
+	}
+
+	public static void readIntoAndCopyCompactNullMask(
+		int len,
+		DataInputView source,
+		DataOutputView target,
+		boolean[] nullMask) throws IOException {
+
+		if (len <= MAX_UNCONDITIONAL_COMPACT_NULL_MASK_LENGTH) {
+			readIntoAndCopyNullMask(len, source, target, nullMask);
+			return;
+		}
+
+		boolean hasNullField = source.readBoolean();
+		target.writeBoolean(hasNullField);
+		if (hasNullField) {
+			readIntoAndCopyNullMask(len, source, target, nullMask);
+		} else {
+			Arrays.fill(nullMask, 0, len, false);
+		}
+	}
 }
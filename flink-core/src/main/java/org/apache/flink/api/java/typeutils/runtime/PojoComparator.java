@@ -22,12 +22,14 @@ import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.lang.reflect.Field;
+import java.util.Arrays;
 import java.util.List;
 
 import org.apache.flink.annotation.Internal;
 import org.apache.flink.api.common.typeutils.CompositeTypeComparator;
 import org.apache.flink.api.common.typeutils.TypeComparator;
 import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.api.common.typeutils.base.NormalizedKeyUtil;
 import org.apache.flink.core.memory.DataInputView;
 import org.apache.flink.core.memory.DataOutputView;
 import org.apache.flink.core.memory.MemorySegment;
@@ -56,6 +58,14 @@ public final class PojoComparator<T> extends CompositeTypeComparator<T> implemen
 
 	private final Class<T> type;
 
+	/** The generated accessor of the serializer, used to access the key fields, if available. */
+	private transient PojoFieldAccessor<T> keyFieldAccessor;
+
+	/** The positions of the key fields in the fields of the accessor. */
+	private transient int[] keyFieldPositions;
+
+	private transient boolean keyFieldAccessorInitialized;
+
 	@SuppressWarnings("unchecked")
 	public PojoComparator(Field[] keyFields, TypeComparator<?>[] comparators, TypeSerializer<T> serializer, Class<T> type) {
 		this.keyFields = keyFields;
@@ -85,10 +95,7 @@ public final class PojoComparator<T> extends CompositeTypeComparator<T> implemen
 					// the first comparator decides whether we need to invert the key direction
 					inverted = k.invertNormalizedKey();
 				}
-				else if (k.invertNormalizedKey() != inverted) {
-					// if a successor does not agree on the inversion direction, it cannot be part of the normalized key
-					break;
-				}
+				// successors that do not agree on the inversion direction are written with inverted bytes
 
 				nKeys++;
 				final int len = k.getNormalizeKeyLen();
@@ -186,6 +193,45 @@ public final class PojoComparator<T> extends CompositeTypeComparator<T> implemen
 		return object;
 	}
 
+	private Object accessKeyField(int keyPosition, Object object) {
+		if (!keyFieldAccessorInitialized) {
+			initializeKeyFieldAccessor();
+		}
+		if (keyFieldAccessor == null) {
+			return accessField(keyFields[keyPosition], object);
+		}
+		if (object == null) {
+			throw new NullKeyFieldException("Unable to access field " + keyFields[keyPosition] + " on object null");
+		}
+		return keyFieldAccessor.getField(object, keyFieldPositions[keyPosition]);
+	}
+
+	private void initializeKeyFieldAccessor() {
+		keyFieldAccessorInitialized = true;
+		if (!(serializer instanceof PojoSerializer)) {
+			return;
+		}
+
+		PojoSerializer<T> pojoSerializer = (PojoSerializer<T>) serializer;
+		PojoFieldAccessor<T> accessor = pojoSerializer.getFieldAccessor();
+		if (accessor == null) {
+			return;
+		}
+
+		Field[] fields = pojoSerializer.getFields();
+		int[] positions = new int[keyFields.length];
+		for (int i = 0; i < keyFields.length; i++) {
+			int position = Arrays.asList(fields).indexOf(keyFields[i]);
+			if (position < 0) {
+				return;
+			}
+			positions[i] = position;
+		}
+
+		keyFieldPositions = positions;
+		keyFieldAccessor = accessor;
+	}
+
 	@Override
 	public int hash(T value) {
 		int i = 0;
@@ -193,7 +239,7 @@ public final class PojoComparator<T> extends CompositeTypeComparator<T> implemen
 		for (; i < this.keyFields.length; i++) {
 			code *= TupleComparatorBase.HASH_SALT[i & 0x1F];
 			try {
-				code += this.comparators[i].hash(accessField(keyFields[i], value));
+				code += this.comparators[i].hash(accessKeyField(i, value));
 			}catch(NullPointerException npe) {
 				throw new RuntimeException("A NullPointerException occured while accessing a key field in a POJO. " +
 						"Most likely, the value grouped/joined on is null. Field name: "+keyFields[i].getName(), npe);
@@ -207,7 +253,7 @@ public final class PojoComparator<T> extends CompositeTypeComparator<T> implemen
 	public void setReference(T toCompare) {
 		int i = 0;
 		for (; i < this.keyFields.length; i++) {
-			this.comparators[i].setReference(accessField(keyFields[i], toCompare));
+			this.comparators[i].setReference(accessKeyField(i, toCompare));
 		}
 	}
 
@@ -215,7 +261,7 @@ public final class PojoComparator<T> extends CompositeTypeComparator<T> implemen
 	public boolean equalToReference(T candidate) {
 		int i = 0;
 		for (; i < this.keyFields.length; i++) {
-			if (!this.comparators[i].equalToReference(accessField(keyFields[i], candidate))) {
+			if (!this.comparators[i].equalToReference(accessKeyField(i, candidate))) {
 				return false;
 			}
 		}
@@ -245,7 +291,7 @@ public final class PojoComparator<T> extends CompositeTypeComparator<T> implemen
 	public int compare(T first, T second) {
 		int i = 0;
 		for (; i < keyFields.length; i++) {
-			int cmp = comparators[i].compare(accessField(keyFields[i], first), accessField(keyFields[i], second));
+			int cmp = comparators[i].compare(accessKeyField(i, first), accessKeyField(i, second));
 			if (cmp != 0) {
 				return cmp;
 			}
@@ -290,7 +336,10 @@ public final class PojoComparator<T> extends CompositeTypeComparator<T> implemen
 		{
 			int len = this.normalizedKeyLengths[i];
 			len = numBytes >= len ? len : numBytes;
-			this.comparators[i].putNormalizedKey(accessField(keyFields[i], value), target, offset, len);
+			this.comparators[i].putNormalizedKey(accessKeyField(i, value), target, offset, len);
+			if (this.comparators[i].invertNormalizedKey() != this.invertNormKey) {
+				NormalizedKeyUtil.invertNormalizedKey(target, offset, len);
+			}
 			numBytes -= len;
 			offset += len;
 		}
@@ -326,7 +375,7 @@ public final class PojoComparator<T> extends CompositeTypeComparator<T> implemen
 	public int extractKeys(Object record, Object[] target, int index) {
 		int localIndex = index;
 		for (int i = 0; i < comparators.length; i++) {
-			localIndex += comparators[i].extractKeys(accessField(keyFields[i], record), target, localIndex);
+			localIndex += comparators[i].extractKeys(accessKeyField(i, record), target, localIndex);
 		}
 		return localIndex - index;
 	}
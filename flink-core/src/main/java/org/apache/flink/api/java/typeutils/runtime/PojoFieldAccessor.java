@@ -0,0 +1,102 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.api.java.typeutils.runtime;
+
+import org.apache.flink.annotation.Internal;
+import org.apache.flink.core.memory.DataInputView;
+import org.apache.flink.core.memory.DataOutputView;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+
+/**
+ * Direct access to the fields of a POJO, as used by the {@link PojoSerializer} and the
+ * {@link PojoComparator} instead of reflection.
+ *
+ * <p>Subclasses are generated for each POJO class by the {@link PojoFieldAccessorGenerator}. They
+ * read and write the fields without reflection and call the field serializers from call sites of
+ * their own, so that the JIT compiler can inline them. The methods handle the fields exactly like the
+ * reflective code paths of the {@link PojoSerializer}, so that the binary format is the same.
+ *
+ * <p>This class must be public, because the generated subclasses are defined by a different class loader.
+ *
+ * @param <T> The type of the POJO.
+ */
+@Internal
+public abstract class PojoFieldAccessor<T> {
+
+	private final Class<T> pojoClass;
+
+	private final Field[] fields;
+
+	protected PojoFieldAccessor(Class<T> pojoClass, Field[] fields) {
+		this.pojoClass = pojoClass;
+		this.fields = fields;
+	}
+
+	/**
+	 * Creates a new instance of the POJO class, without initializing its fields.
+	 */
+	public T newInstance() {
+		try {
+			return pojoClass.newInstance();
+		} catch (Exception e) {
+			throw new RuntimeException("Cannot instantiate class.", e);
+		}
+	}
+
+	/**
+	 * Returns the value of the field at the given position, boxing primitive values.
+	 */
+	public abstract Object getField(Object pojo, int position);
+
+	/**
+	 * Writes the null flag and, if the value is not null, the value of each field.
+	 */
+	public abstract void serializeFields(Object pojo, DataOutputView target) throws IOException;
+
+	/**
+	 * Reads the fields that were written by {@link #serializeFields(Object, DataOutputView)}.
+	 */
+	public abstract void deserializeFields(Object pojo, DataInputView source) throws IOException;
+
+	/**
+	 * Reads the fields that were written by {@link #serializeFields(Object, DataOutputView)},
+	 * reusing the current field values of the POJO.
+	 */
+	public abstract void deserializeFieldsWithReuse(Object pojo, DataInputView source) throws IOException;
+
+	/**
+	 * Sets the fields of the target POJO to copies of the fields of the source POJO.
+	 */
+	public abstract void copyFields(Object from, Object to);
+
+	/**
+	 * Sets the fields of the target POJO to copies of the fields of the source POJO,
+	 * reusing the current field values of the target POJO.
+	 */
+	public abstract void copyFieldsWithReuse(Object from, Object reuse);
+
+	/**
+	 * Called by the generated code if a null value was read for a primitive field.
+	 */
+	protected IllegalArgumentException nullPrimitiveField(int position) {
+		return new IllegalArgumentException("Cannot set primitive field " + fields[position] + " to null.");
+	}
+}
@@ -0,0 +1,661 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.api.java.typeutils.runtime;
+
+import org.apache.flink.annotation.Internal;
+import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.api.common.typeutils.base.BooleanSerializer;
+import org.apache.flink.api.common.typeutils.base.ByteSerializer;
+import org.apache.flink.api.common.typeutils.base.CharSerializer;
+import org.apache.flink.api.common.typeutils.base.DoubleSerializer;
+import org.apache.flink.api.common.typeutils.base.FloatSerializer;
+import org.apache.flink.api.common.typeutils.base.IntSerializer;
+import org.apache.flink.api.common.typeutils.base.LongSerializer;
+import org.apache.flink.api.common.typeutils.base.ShortSerializer;
+import org.apache.flink.core.memory.DataInputView;
+import org.apache.flink.core.memory.DataOutputView;
+import org.apache.flink.core.memory.MemoryUtils;
+
+import org.apache.flink.shaded.asm5.org.objectweb.asm.ClassWriter;
+import org.apache.flink.shaded.asm5.org.objectweb.asm.Label;
+import org.apache.flink.shaded.asm5.org.objectweb.asm.Opcodes;
+import org.apache.flink.shaded.asm5.org.objectweb.asm.Type;
+import org.apache.flink.shaded.asm5.org.objectweb.asm.commons.GeneratorAdapter;
+import org.apache.flink.shaded.asm5.org.objectweb.asm.commons.Method;
+import org.apache.flink.shaded.asm5.org.objectweb.asm.commons.TableSwitchGenerator;
+
+import javax.annotation.Nullable;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Generates the {@link PojoFieldAccessor} subclasses for POJO classes.
+ *
+ * <p>The generated code reads and writes the fields through {@code sun.misc.Unsafe} with the
+ * offsets of the fields, which works for private fields and fields of super classes alike.
+ * Primitive fields with the default serializer of their type are read and written directly,
+ * without boxing. All other fields are handed to their field serializers.
+ *
+ * <p>The generated classes are cached per POJO class and field layout, in a {@link ClassValue},
+ * so that they are released together with the class loader of the POJO class.
+ */
+@Internal
+final class PojoFieldAccessorGenerator {
+
+	private static final ClassValue<ConcurrentHashMap<String, Constructor<?>>> ACCESSOR_CONSTRUCTORS =
+		new ClassValue<ConcurrentHashMap<String, Constructor<?>>>() {
+			@Override
+			protected ConcurrentHashMap<String, Constructor<?>> computeValue(Class<?> type) {
+				return new ConcurrentHashMap<>();
+			}
+		};
+
+	private static final AtomicInteger CLASS_COUNTER = new AtomicInteger();
+
+	private static final String CLASS_NAME_PREFIX = "org/apache/flink/api/java/typeutils/runtime/generated/PojoFieldAccessor$";
+
+	private static final Type ACCESSOR_TYPE = Type.getType(PojoFieldAccessor.class);
+	private static final Type SERIALIZER_TYPE = Type.getType(TypeSerializer.class);
+	private static final Type OUTPUT_TYPE = Type.getType(DataOutputView.class);
+	private static final Type INPUT_TYPE = Type.getType(DataInputView.class);
+	private static final Type UNSAFE_TYPE = Type.getType(sun.misc.Unsafe.class);
+	private static final Type OBJECT_TYPE = Type.getType(Object.class);
+	private static final Type CLASS_TYPE = Type.getType(Class.class);
+	private static final Type FIELD_ARRAY_TYPE = Type.getType(Field[].class);
+	private static final Type SERIALIZER_ARRAY_TYPE = Type.getType(TypeSerializer[].class);
+	private static final Type LONG_ARRAY_TYPE = Type.getType(long[].class);
+
+	private static final Method REQUIRE_NON_NULL = Method.getMethod("Object requireNonNull(Object)");
+	private static final Method SERIALIZE = Method.getMethod("void serialize(Object, " + DataOutputView.class.getName() + ")");
+	private static final Method DESERIALIZE = Method.getMethod("Object deserialize(" + DataInputView.class.getName() + ")");
+	private static final Method DESERIALIZE_WITH_REUSE = Method.getMethod("Object deserialize(Object, " + DataInputView.class.getName() + ")");
+	private static final Method COPY = Method.getMethod("Object copy(Object)");
+	private static final Method COPY_WITH_REUSE = Method.getMethod("Object copy(Object, Object)");
+	private static final Method READ_BOOLEAN = Method.getMethod("boolean readBoolean()");
+	private static final Method WRITE_BOOLEAN = Method.getMethod("void writeBoolean(boolean)");
+	private static final Method NULL_PRIMITIVE_FIELD = Method.getMethod("IllegalArgumentException nullPrimitiveField(int)");
+
+	private PojoFieldAccessorGenerator() {}
+
+	/**
+	 * Creates an accessor for the given fields of the POJO class, which (de)serializes the fields
+	 * with the given serializers. Returns null if the POJO class is not public, because the
+	 * generated code could not refer to it.
+	 *
+	 * @param pojoClass The POJO class.
+	 * @param fields The fields of the POJO, null for fields that do not exist anymore.
+	 * @param fieldSerializers The serializers of the fields.
+	 */
+	@Nullable
+	static <T> PojoFieldAccessor<T> createAccessor(
+			Class<T> pojoClass,
+			Field[] fields,
+			TypeSerializer<?>[] fieldSerializers) throws ReflectiveOperationException {
+
+		if (!Modifier.isPublic(pojoClass.getModifiers())) {
+			return null;
+		}
+
+		final FieldKind[] kinds = new FieldKind[fields.length];
+		final long[] offsets = new long[fields.length];
+		final StringBuilder layout = new StringBuilder();
+
+		for (int i = 0; i < fields.length; i++) {
+			kinds[i] = FieldKind.of(fields[i], fieldSerializers[i]);
+			if (fields[i] != null) {
+				offsets[i] = MemoryUtils.UNSAFE.objectFieldOffset(fields[i]);
+				layout.append(fields[i].getDeclaringClass().getName()).append('.').append(fields[i].getName());
+			}
+			layout.append(':').append(kinds[i]).append(';');
+		}
+
+		Constructor<?> constructor = ACCESSOR_CONSTRUCTORS.get(pojoClass).computeIfAbsent(
+			layout.toString(),
+			key -> generateAccessorClass(pojoClass, fields, kinds));
+
+		@SuppressWarnings("unchecked")
+		PojoFieldAccessor<T> accessor = (PojoFieldAccessor<T>) constructor.newInstance(
+			pojoClass, fields, fieldSerializers, offsets);
+		return accessor;
+	}
+
+	// --------------------------------------------------------------------------------------------
+	//  Code generation
+	// --------------------------------------------------------------------------------------------
+
+	private static Constructor<?> generateAccessorClass(Class<?> pojoClass, Field[] fields, FieldKind[] kinds) {
+		final String className = CLASS_NAME_PREFIX +
+			pojoClass.getSimpleName().replaceAll("[^A-Za-z0-9_]", "_") + '$' + CLASS_COUNTER.incrementAndGet();
+
+		final ClassWriter classWriter = new ClassWriter(ClassWriter.COMPUTE_FRAMES) {
+			@Override
+			protected String getCommonSuperClass(String type1, String type2) {
+				// all merged references in the generated code are used as plain objects
+				return OBJECT_TYPE.getInternalName();
+			}
+		};
+		classWriter.visit(
+			Opcodes.V1_8,
+			Opcodes.ACC_PUBLIC | Opcodes.ACC_FINAL | Opcodes.ACC_SUPER,
+			className,
+			null,
+			ACCESSOR_TYPE.getInternalName(),
+			null);
+
+		final Generator generator = new Generator(classWriter, Type.getObjectType(className), Type.getType(pojoClass), fields, kinds);
+		generator.generateConstructor();
+		if (isInstantiable(pojoClass)) {
+			generator.generateNewInstance();
+		}
+		generator.generateGetField();
+		generator.generateSerializeFields();
+		generator.generateDeserializeFields(false);
+		generator.generateDeserializeFields(true);
+		generator.generateCopyFields(false);
+		generator.generateCopyFields(true);
+		classWriter.visitEnd();
+
+		try {
+			Class<?> accessorClass = new AccessorClassLoader(pojoClass)
+				.define(className.replace('/', '.'), classWriter.toByteArray());
+			return accessorClass.getConstructor(Class.class, Field[].class, TypeSerializer[].class, long[].class);
+		} catch (NoSuchMethodException e) {
+			throw new IllegalStateException("The generated accessor has no matching constructor.", e);
+		}
+	}
+
+	private static boolean isInstantiable(Class<?> pojoClass) {
+		if (Modifier.isAbstract(pojoClass.getModifiers())) {
+			return false;
+		}
+		try {
+			pojoClass.getConstructor();
+			return true;
+		} catch (NoSuchMethodException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Emits the methods of a generated accessor class.
+	 */
+	private static final class Generator {
+
+		private final ClassWriter classWriter;
+		private final Type accessorType;
+		private final Type pojoType;
+		private final Field[] fields;
+		private final FieldKind[] kinds;
+
+		Generator(ClassWriter classWriter, Type accessorType, Type pojoType, Field[] fields, FieldKind[] kinds) {
+			this.classWriter = classWriter;
+			this.accessorType = accessorType;
+			this.pojoType = pojoType;
+			this.fields = fields;
+			this.kinds = kinds;
+		}
+
+		void generateConstructor() {
+			for (int i = 0; i < fields.length; i++) {
+				classWriter.visitField(Opcodes.ACC_PRIVATE | Opcodes.ACC_FINAL, serializerField(i), SERIALIZER_TYPE.getDescriptor(), null, null).visitEnd();
+				if (kinds[i] != FieldKind.MISSING) {
+					classWriter.visitField(Opcodes.ACC_PRIVATE | Opcodes.ACC_FINAL, offsetField(i), "J", null, null).visitEnd();
+				}
+			}
+
+			Method constructor = new Method("<init>", Type.VOID_TYPE, new Type[] {CLASS_TYPE, FIELD_ARRAY_TYPE, SERIALIZER_ARRAY_TYPE, LONG_ARRAY_TYPE});
+			GeneratorAdapter ga = new GeneratorAdapter(Opcodes.ACC_PUBLIC, constructor, null, null, classWriter);
+			ga.loadThis();
+			ga.loadArg(0);
+			ga.loadArg(1);
+			ga.invokeConstructor(ACCESSOR_TYPE, new Method("<init>", Type.VOID_TYPE, new Type[] {CLASS_TYPE, FIELD_ARRAY_TYPE}));
+			for (int i = 0; i < fields.length; i++) {
+				ga.loadThis();
+				ga.loadArg(2);
+				ga.push(i);
+				ga.arrayLoad(SERIALIZER_TYPE);
+				ga.putField(accessorType, serializerField(i), SERIALIZER_TYPE);
+				if (kinds[i] != FieldKind.MISSING) {
+					ga.loadThis();
+					ga.loadArg(3);
+					ga.push(i);
+					ga.arrayLoad(Type.LONG_TYPE);
+					ga.putField(accessorType, offsetField(i), Type.LONG_TYPE);
+				}
+			}
+			ga.returnValue();
+			ga.endMethod();
+		}
+
+		void generateNewInstance() {
+			GeneratorAdapter ga = method("Object newInstance()");
+			ga.newInstance(pojoType);
+			ga.dup();
+			ga.invokeConstructor(pojoType, Method.getMethod("void <init>()"));
+			ga.returnValue();
+			ga.endMethod();
+		}
+
+		void generateGetField() {
+			GeneratorAdapter ga = method("Object getField(Object, int)");
+			checkPojo(ga, 0);
+			int[] positions = new int[fields.length];
+			for (int i = 0; i < positions.length; i++) {
+				positions[i] = i;
+			}
+			ga.loadArg(1);
+			ga.tableSwitch(positions, new TableSwitchGenerator() {
+				@Override
+				public void generateCase(int position, Label end) {
+					FieldKind kind = kinds[position];
+					if (kind == FieldKind.MISSING) {
+						ga.visitInsn(Opcodes.ACONST_NULL);
+					} else {
+						getFieldValue(ga, position, 0);
+						if (kind.isPrimitive()) {
+							ga.valueOf(kind.type);
+						}
+					}
+					ga.returnValue();
+				}
+
+				@Override
+				public void generateDefault() {
+					ga.throwException(Type.getType(IndexOutOfBoundsException.class), "No field at the given position.");
+				}
+			});
+			ga.endMethod();
+		}
+
+		void generateSerializeFields() {
+			GeneratorAdapter ga = method("void serializeFields(Object, " + DataOutputView.class.getName() + ")");
+			checkPojo(ga, 0);
+			for (int i = 0; i < fields.length; i++) {
+				FieldKind kind = kinds[i];
+				if (kind == FieldKind.MISSING) {
+					writeNullFlag(ga, true);
+				} else if (kind.isDirect()) {
+					writeNullFlag(ga, false);
+					ga.loadArg(1);
+					getFieldValue(ga, i, 0);
+					ga.invokeInterface(OUTPUT_TYPE, kind.writeMethod);
+				} else if (kind.isPrimitive()) {
+					writeNullFlag(ga, false);
+					loadSerializer(ga, i);
+					getFieldValue(ga, i, 0);
+					ga.valueOf(kind.type);
+					ga.loadArg(1);
+					ga.invokeVirtual(SERIALIZER_TYPE, SERIALIZE);
+				} else {
+					int value = ga.newLocal(OBJECT_TYPE);
+					Label isNull = ga.newLabel();
+					Label end = ga.newLabel();
+					getFieldValue(ga, i, 0);
+					ga.storeLocal(value);
+					ga.loadLocal(value);
+					ga.ifNull(isNull);
+					writeNullFlag(ga, false);
+					loadSerializer(ga, i);
+					ga.loadLocal(value);
+					ga.loadArg(1);
+					ga.invokeVirtual(SERIALIZER_TYPE, SERIALIZE);
+					ga.goTo(end);
+					ga.mark(isNull);
+					writeNullFlag(ga, true);
+					ga.mark(end);
+				}
+			}
+			ga.returnValue();
+			ga.endMethod();
+		}
+
+		void generateDeserializeFields(boolean withReuse) {
+			GeneratorAdapter ga = method("void " + (withReuse ? "deserializeFieldsWithReuse" : "deserializeFields") +
+				"(Object, " + DataInputView.class.getName() + ")");
+			checkPojo(ga, 0);
+			for (int i = 0; i < fields.length; i++) {
+				FieldKind kind = kinds[i];
+				Label end = ga.newLabel();
+				if (kind == FieldKind.MISSING) {
+					// read and dump a pre-existing field value
+					ga.loadArg(1);
+					ga.invokeInterface(INPUT_TYPE, READ_BOOLEAN);
+					ga.ifZCmp(GeneratorAdapter.NE, end);
+					loadSerializer(ga, i);
+					ga.loadArg(1);
+					ga.invokeVirtual(SERIALIZER_TYPE, DESERIALIZE);
+					ga.pop();
+				} else if (kind.isPrimitive()) {
+					Label notNull = ga.newLabel();
+					ga.loadArg(1);
+					ga.invokeInterface(INPUT_TYPE, READ_BOOLEAN);
+					ga.ifZCmp(GeneratorAdapter.EQ, notNull);
+					ga.loadThis();
+					ga.push(i);
+					ga.invokeVirtual(ACCESSOR_TYPE, NULL_PRIMITIVE_FIELD);
+					ga.throwException();
+					ga.mark(notNull);
+					prepareFieldWrite(ga, i, 0);
+					if (kind.isDirect()) {
+						ga.loadArg(1);
+						ga.invokeInterface(INPUT_TYPE, kind.readMethod);
+					} else {
+						loadSerializer(ga, i);
+						if (withReuse) {
+							getFieldValue(ga, i, 0);
+							ga.valueOf(kind.type);
+							ga.loadArg(1);
+							ga.invokeVirtual(SERIALIZER_TYPE, DESERIALIZE_WITH_REUSE);
+						} else {
+							ga.loadArg(1);
+							ga.invokeVirtual(SERIALIZER_TYPE, DESERIALIZE);
+						}
+						ga.unbox(kind.type);
+					}
+					writeFieldValue(ga, i);
+				} else {
+					Label notNull = ga.newLabel();
+					ga.loadArg(1);
+					ga.invokeInterface(INPUT_TYPE, READ_BOOLEAN);
+					ga.ifZCmp(GeneratorAdapter.EQ, notNull);
+					prepareFieldWrite(ga, i, 0);
+					ga.visitInsn(Opcodes.ACONST_NULL);
+					writeFieldValue(ga, i);
+					ga.goTo(end);
+
+					ga.mark(notNull);
+					if (withReuse) {
+						int reuse = ga.newLocal(OBJECT_TYPE);
+						Label noReuse = ga.newLabel();
+						Label write = ga.newLabel();
+						getFieldValue(ga, i, 0);
+						ga.storeLocal(reuse);
+						prepareFieldWrite(ga, i, 0);
+						ga.loadLocal(reuse);
+						ga.ifNull(noReuse);
+						loadSerializer(ga, i);
+						ga.loadLocal(reuse);
+						ga.loadArg(1);
+						ga.invokeVirtual(SERIALIZER_TYPE, DESERIALIZE_WITH_REUSE);
+						ga.goTo(write);
+						ga.mark(noReuse);
+						loadSerializer(ga, i);
+						ga.loadArg(1);
+						ga.invokeVirtual(SERIALIZER_TYPE, DESERIALIZE);
+						ga.mark(write);
+						writeFieldValue(ga, i);
+					} else {
+						prepareFieldWrite(ga, i, 0);
+						loadSerializer(ga, i);
+						ga.loadArg(1);
+						ga.invokeVirtual(SERIALIZER_TYPE, DESERIALIZE);
+						writeFieldValue(ga, i);
+					}
+				}
+				ga.mark(end);
+			}
+			ga.returnValue();
+			ga.endMethod();
+		}
+
+		void generateCopyFields(boolean withReuse) {
+			GeneratorAdapter ga = method("void " + (withReuse ? "copyFieldsWithReuse" : "copyFields") + "(Object, Object)");
+			checkPojo(ga, 0);
+			checkPojo(ga, 1);
+			for (int i = 0; i < fields.length; i++) {
+				FieldKind kind = kinds[i];
+				if (kind == FieldKind.MISSING) {
+					continue;
+				}
+
+				if (kind.isDirect()) {
+					prepareFieldWrite(ga, i, 1);
+					getFieldValue(ga, i, 0);
+					writeFieldValue(ga, i);
+				} else if (kind.isPrimitive()) {
+					prepareFieldWrite(ga, i, 1);
+					loadSerializer(ga, i);
+					getFieldValue(ga, i, 0);
+					ga.valueOf(kind.type);
+					if (withReuse) {
+						getFieldValue(ga, i, 1);
+						ga.valueOf(kind.type);
+						ga.invokeVirtual(SERIALIZER_TYPE, COPY_WITH_REUSE);
+					} else {
+						ga.invokeVirtual(SERIALIZER_TYPE, COPY);
+					}
+					ga.unbox(kind.type);
+					writeFieldValue(ga, i);
+				} else {
+					int value = ga.newLocal(OBJECT_TYPE);
+					Label isNull = ga.newLabel();
+					Label write = ga.newLabel();
+					getFieldValue(ga, i, 0);
+					ga.storeLocal(value);
+					prepareFieldWrite(ga, i, 1);
+					ga.loadLocal(value);
+					ga.ifNull(isNull);
+					if (withReuse) {
+						Label noReuse = ga.newLabel();
+						int reuse = ga.newLocal(OBJECT_TYPE);
+						getFieldValue(ga, i, 1);
+						ga.storeLocal(reuse);
+						ga.loadLocal(reuse);
+						ga.ifNull(noReuse);
+						loadSerializer(ga, i);
+						ga.loadLocal(value);
+						ga.loadLocal(reuse);
+						ga.invokeVirtual(SERIALIZER_TYPE, COPY_WITH_REUSE);
+						ga.goTo(write);
+						ga.mark(noReuse);
+					}
+					loadSerializer(ga, i);
+					ga.loadLocal(value);
+					ga.invokeVirtual(SERIALIZER_TYPE, COPY);
+					ga.goTo(write);
+					ga.mark(isNull);
+					ga.visitInsn(Opcodes.ACONST_NULL);
+					ga.mark(write);
+					writeFieldValue(ga, i);
+				}
+			}
+			ga.returnValue();
+			ga.endMethod();
+		}
+
+		// ----------------------------------------------------------------------------------------
+
+		private GeneratorAdapter method(String signature) {
+			return new GeneratorAdapter(Opcodes.ACC_PUBLIC | Opcodes.ACC_FINAL, Method.getMethod(signature), null, null, classWriter);
+		}
+
+		/**
+		 * Checks that the argument is a non-null instance of the POJO class, which makes the
+		 * field offsets valid for it.
+		 */
+		private void checkPojo(GeneratorAdapter ga, int arg) {
+			ga.loadArg(arg);
+			ga.invokeStatic(Type.getType(Objects.class), REQUIRE_NON_NULL);
+			ga.checkCast(pojoType);
+			ga.pop();
+		}
+
+		private void loadSerializer(GeneratorAdapter ga, int position) {
+			ga.loadThis();
+			ga.getField(accessorType, serializerField(position), SERIALIZER_TYPE);
+		}
+
+		/** Pushes the value of the field of the POJO in the given argument. */
+		private void getFieldValue(GeneratorAdapter ga, int position, int pojoArg) {
+			FieldKind kind = kinds[position];
+			ga.getStatic(Type.getType(MemoryUtils.class), "UNSAFE", UNSAFE_TYPE);
+			ga.loadArg(pojoArg);
+			ga.loadThis();
+			ga.getField(accessorType, offsetField(position), Type.LONG_TYPE);
+			ga.invokeVirtual(UNSAFE_TYPE, new Method(
+				"get" + kind.unsafeSuffix + volatileSuffix(position),
+				kind.type,
+				new Type[] {OBJECT_TYPE, Type.LONG_TYPE}));
+		}
+
+		/** Pushes the arguments for writing the field of the POJO in the given argument, except the value. */
+		private void prepareFieldWrite(GeneratorAdapter ga, int position, int pojoArg) {
+			ga.getStatic(Type.getType(MemoryUtils.class), "UNSAFE", UNSAFE_TYPE);
+			ga.loadArg(pojoArg);
+			ga.loadThis();
+			ga.getField(accessorType, offsetField(position), Type.LONG_TYPE);
+		}
+
+		/** Writes the value on top of the stack, after the arguments pushed by {@link #prepareFieldWrite}. */
+		private void writeFieldValue(GeneratorAdapter ga, int position) {
+			FieldKind kind = kinds[position];
+			ga.invokeVirtual(UNSAFE_TYPE, new Method(
+				"put" + kind.unsafeSuffix + volatileSuffix(position),
+				Type.VOID_TYPE,
+				new Type[] {OBJECT_TYPE, Type.LONG_TYPE, kind.type}));
+		}
+
+		private void writeNullFlag(GeneratorAdapter ga, boolean isNull) {
+			ga.loadArg(1);
+			ga.push(isNull);
+			ga.invokeInterface(OUTPUT_TYPE, WRITE_BOOLEAN);
+		}
+
+		private String volatileSuffix(int position) {
+			return Modifier.isVolatile(fields[position].getModifiers()) ? "Volatile" : "";
+		}
+
+		private static String serializerField(int position) {
+			return "serializer" + position;
+		}
+
+		private static String offsetField(int position) {
+			return "offset" + position;
+		}
+	}
+
+	// --------------------------------------------------------------------------------------------
+
+	/**
+	 * The ways in which the generated code handles a field.
+	 */
+	enum FieldKind {
+		/** A field that does not exist in the POJO class anymore. */
+		MISSING(null, null, null, null),
+		/** A field of a reference type. */
+		REFERENCE(OBJECT_TYPE, "Object", null, null),
+
+		/** Primitive fields with a serializer other than the default one of their type, which are boxed. */
+		BOXED_BOOLEAN(Type.BOOLEAN_TYPE, "Boolean", null, null),
+		BOXED_BYTE(Type.BYTE_TYPE, "Byte", null, null),
+		BOXED_SHORT(Type.SHORT_TYPE, "Short", null, null),
+		BOXED_CHAR(Type.CHAR_TYPE, "Char", null, null),
+		BOXED_INT(Type.INT_TYPE, "Int", null, null),
+		BOXED_LONG(Type.LONG_TYPE, "Long", null, null),
+		BOXED_FLOAT(Type.FLOAT_TYPE, "Float", null, null),
+		BOXED_DOUBLE(Type.DOUBLE_TYPE, "Double", null, null),
+
+		/** Primitive fields with the default serializer of their type, which are read and written directly. */
+		BOOLEAN(Type.BOOLEAN_TYPE, "Boolean", "void writeBoolean(boolean)", "boolean readBoolean()"),
+		BYTE(Type.BYTE_TYPE, "Byte", "void writeByte(int)", "byte readByte()"),
+		SHORT(Type.SHORT_TYPE, "Short", "void writeShort(int)", "short readShort()"),
+		CHAR(Type.CHAR_TYPE, "Char", "void writeChar(int)", "char readChar()"),
+		INT(Type.INT_TYPE, "Int", "void writeInt(int)", "int readInt()"),
+		LONG(Type.LONG_TYPE, "Long", "void writeLong(long)", "long readLong()"),
+		FLOAT(Type.FLOAT_TYPE, "Float", "void writeFloat(float)", "float readFloat()"),
+		DOUBLE(Type.DOUBLE_TYPE, "Double", "void writeDouble(double)", "double readDouble()");
+
+		final Type type;
+		final String unsafeSuffix;
+		final Method writeMethod;
+		final Method readMethod;
+
+		FieldKind(Type type, String unsafeSuffix, String writeMethod, String readMethod) {
+			this.type = type;
+			this.unsafeSuffix = unsafeSuffix;
+			this.writeMethod = writeMethod == null ? null : Method.getMethod(writeMethod);
+			this.readMethod = readMethod == null ? null : Method.getMethod(readMethod);
+		}
+
+		boolean isPrimitive() {
+			return this != MISSING && this != REFERENCE;
+		}
+
+		boolean isDirect() {
+			return writeMethod != null;
+		}
+
+		static FieldKind of(@Nullable Field field, TypeSerializer<?> serializer) {
+			if (field == null) {
+				return MISSING;
+			}
+			Class<?> type = field.getType();
+			if (!type.isPrimitive()) {
+				return REFERENCE;
+			}
+			Class<?> serializerClass = serializer.getClass();
+			if (type == boolean.class) {
+				return serializerClass == BooleanSerializer.class ? BOOLEAN : BOXED_BOOLEAN;
+			} else if (type == byte.class) {
+				return serializerClass == ByteSerializer.class ? BYTE : BOXED_BYTE;
+			} else if (type == short.class) {
+				return serializerClass == ShortSerializer.class ? SHORT : BOXED_SHORT;
+			} else if (type == char.class) {
+				return serializerClass == CharSerializer.class ? CHAR : BOXED_CHAR;
+			} else if (type == int.class) {
+				return serializerClass == IntSerializer.class ? INT : BOXED_INT;
+			} else if (type == long.class) {
+				return serializerClass == LongSerializer.class ? LONG : BOXED_LONG;
+			} else if (type == float.class) {
+				return serializerClass == FloatSerializer.class ? FLOAT : BOXED_FLOAT;
+			} else {
+				return serializerClass == DoubleSerializer.class ? DOUBLE : BOXED_DOUBLE;
+			}
+		}
+	}
+
+	/**
+	 * The class loader of a generated accessor class. It resolves the POJO class to the given class,
+	 * and all other classes with the class loader of Flink, so that the generated class extends the
+	 * same {@link PojoFieldAccessor} class as the one used by the serializers.
+	 */
+	private static final class AccessorClassLoader extends ClassLoader {
+
+		private final Class<?> pojoClass;
+
+		AccessorClassLoader(Class<?> pojoClass) {
+			super(PojoFieldAccessor.class.getClassLoader());
+			this.pojoClass = pojoClass;
+		}
+
+		@Override
+		protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+			return name.equals(pojoClass.getName()) ? pojoClass : super.loadClass(name, resolve);
+		}
+
+		Class<?> define(String name, byte[] code) {
+			return defineClass(name, code, 0, code.length);
+		}
+	}
+}
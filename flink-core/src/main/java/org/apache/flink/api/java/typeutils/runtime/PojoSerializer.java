@@ -20,6 +20,7 @@ package org.apache.flink.api.java.typeutils.runtime;
 
 import org.apache.flink.annotation.Internal;
 import org.apache.flink.api.common.ExecutionConfig;
+import org.apache.flink.api.common.typeinfo.ImmutableType;
 import org.apache.flink.api.common.typeutils.GenericTypeSerializerConfigSnapshot;
 import org.apache.flink.api.common.typeutils.LegacySerializerSnapshotTransformer;
 import org.apache.flink.api.common.typeutils.TypeSerializer;
@@ -36,8 +37,14 @@ import org.apache.flink.core.memory.DataInputView;
 import org.apache.flink.core.memory.DataInputViewStreamWrapper;
 import org.apache.flink.core.memory.DataOutputView;
 import org.apache.flink.core.memory.DataOutputViewStreamWrapper;
+import org.apache.flink.util.ExceptionUtils;
 import org.apache.flink.util.Preconditions;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
@@ -64,6 +71,8 @@ public final class PojoSerializer<T> extends TypeSerializer<T> {
 
 	private static final long serialVersionUID = 1L;
 
+	private static final Logger LOG = LoggerFactory.getLogger(PojoSerializer.class);
+
 	// --------------------------------------------------------------------------------------------
 	// PojoSerializer parameters
 	// --------------------------------------------------------------------------------------------
@@ -94,6 +103,9 @@ public final class PojoSerializer<T> extends TypeSerializer<T> {
 	 */
 	private transient Map<Class<?>, TypeSerializer<?>> subclassSerializerCache;
 
+	/** Whether the POJO type is annotated as {@link ImmutableType}, determined once from the class. */
+	private transient boolean immutableType;
+
 	// --------------------------------------------------------------------------------------------
 
 	/**
@@ -103,6 +115,13 @@ public final class PojoSerializer<T> extends TypeSerializer<T> {
 
 	private transient ClassLoader cl;
 
+	/**
+	 * The generated accessor for the fields, if code generation is enabled in the execution config.
+	 * It is created lazily, so that it is also created for serializers that were restored.
+	 */
+	private transient PojoFieldAccessor<T> fieldAccessor;
+	private transient boolean fieldAccessorInitialized;
+
 	/**
 	 * Constructor to create a new {@link PojoSerializer}.
 	 */
@@ -133,6 +152,7 @@ public final class PojoSerializer<T> extends TypeSerializer<T> {
 		this.registeredSerializers = createRegisteredSubclassSerializers(registeredSubclasses, executionConfig);
 
 		this.subclassSerializerCache = new HashMap<>();
+		this.immutableType = clazz.isAnnotationPresent(ImmutableType.class);
 	}
 
 	/**
@@ -156,11 +176,12 @@ public final class PojoSerializer<T> extends TypeSerializer<T> {
 		this.registeredSerializers = checkNotNull(registeredSerializers);
 		this.subclassSerializerCache = checkNotNull(subclassSerializerCache);
 		this.executionConfig = checkNotNull(executionConfig);
+		this.immutableType = clazz.isAnnotationPresent(ImmutableType.class);
 	}
 	
 	@Override
 	public boolean isImmutableType() {
-		return false;
+		return immutableType;
 	}
 
 	@Override
@@ -216,12 +237,19 @@ public final class PojoSerializer<T> extends TypeSerializer<T> {
 	@Override
 	@SuppressWarnings({"unchecked", "rawtypes"})
 	public T copy(T from) {
-		if (from == null) {
-			return null;
+		if (from == null || immutableType) {
+			return from;
 		}
 
 		Class<?> actualType = from.getClass();
 		if (actualType == clazz) {
+			PojoFieldAccessor<T> accessor = getFieldAccessor();
+			if (accessor != null) {
+				T target = accessor.newInstance();
+				accessor.copyFields(from, target);
+				return target;
+			}
+
 			T target;
 			try {
 				target = (T) from.getClass().newInstance();
@@ -257,8 +285,8 @@ public final class PojoSerializer<T> extends TypeSerializer<T> {
 	@Override
 	@SuppressWarnings({"unchecked", "rawtypes"})
 	public T copy(T from, T reuse) {
-		if (from == null) {
-			return null;
+		if (from == null || immutableType) {
+			return from;
 		}
 
 		Class<?> actualType = from.getClass();
@@ -268,26 +296,31 @@ public final class PojoSerializer<T> extends TypeSerializer<T> {
 		}
 
 		if (actualType == clazz) {
-			try {
-				for (int i = 0; i < numFields; i++) {
-					if (fields[i] != null) {
-						Object value = fields[i].get(from);
-						if (value != null) {
-							Object reuseValue = fields[i].get(reuse);
-							Object copy;
-							if (reuseValue != null) {
-								copy = fieldSerializers[i].copy(value, reuseValue);
+			PojoFieldAccessor<T> accessor = getFieldAccessor();
+			if (accessor != null) {
+				accessor.copyFieldsWithReuse(from, reuse);
+			} else {
+				try {
+					for (int i = 0; i < numFields; i++) {
+						if (fields[i] != null) {
+							Object value = fields[i].get(from);
+							if (value != null) {
+								Object reuseValue = fields[i].get(reuse);
+								Object copy;
+								if (reuseValue != null) {
+									copy = fieldSerializers[i].copy(value, reuseValue);
+								} else {
+									copy = fieldSerializers[i].copy(value);
+								}
+								fields[i].set(reuse, copy);
 							} else {
-								copy = fieldSerializers[i].copy(value);
+								fields[i].set(reuse, null);
 							}
-							fields[i].set(reuse, copy);
-						} else {
-							fields[i].set(reuse, null);
 						}
 					}
+				} catch (IllegalAccessException e) {
+					throw new RuntimeException("Error during POJO copy, this should not happen since we check the fields before.", e);
 				}
-			} catch (IllegalAccessException e) {
-				throw new RuntimeException("Error during POJO copy, this should not happen since we check the fields before.", e);
 			}
 		} else {
 			TypeSerializer subclassSerializer = getSubclassSerializer(actualType);
@@ -342,18 +375,23 @@ public final class PojoSerializer<T> extends TypeSerializer<T> {
 		// if its a subclass, use the corresponding subclass serializer,
 		// otherwise serialize each field with our field serializers
 		if ((flags & NO_SUBCLASS) != 0) {
-			try {
-				for (int i = 0; i < numFields; i++) {
-					Object o = (fields[i] != null) ? fields[i].get(value) : null;
-					if (o == null) {
-						target.writeBoolean(true); // null field handling
-					} else {
-						target.writeBoolean(false);
-						fieldSerializers[i].serialize(o, target);
+			PojoFieldAccessor<T> accessor = getFieldAccessor();
+			if (accessor != null) {
+				accessor.serializeFields(value, target);
+			} else {
+				try {
+					for (int i = 0; i < numFields; i++) {
+						Object o = (fields[i] != null) ? fields[i].get(value) : null;
+						if (o == null) {
+							target.writeBoolean(true); // null field handling
+						} else {
+							target.writeBoolean(false);
+							fieldSerializers[i].serialize(o, target);
+						}
 					}
+				} catch (IllegalAccessException e) {
+					throw new RuntimeException("Error during POJO copy, this should not happen since we check the fields before.", e);
 				}
-			} catch (IllegalAccessException e) {
-				throw new RuntimeException("Error during POJO copy, this should not happen since we check the fields before.", e);
 			}
 		} else {
 			// subclass
@@ -395,28 +433,35 @@ public final class PojoSerializer<T> extends TypeSerializer<T> {
 			// also initialize fields for which the subclass serializer is not responsible
 			initializeFields(target);
 		} else {
-			target = createInstance();
+			// the generated accessor sets all fields, so they need not be initialized first
+			PojoFieldAccessor<T> accessor = getFieldAccessor();
+			target = accessor != null ? accessor.newInstance() : createInstance();
 		}
 
 		if ((flags & NO_SUBCLASS) != 0) {
-			try {
-				for (int i = 0; i < numFields; i++) {
-					boolean isNull = source.readBoolean();
+			PojoFieldAccessor<T> accessor = getFieldAccessor();
+			if (accessor != null) {
+				accessor.deserializeFields(target, source);
+			} else {
+				try {
+					for (int i = 0; i < numFields; i++) {
+						boolean isNull = source.readBoolean();
 
-					if (fields[i] != null) {
-						if (isNull) {
-							fields[i].set(target, null);
-						} else {
-							Object field = fieldSerializers[i].deserialize(source);
-							fields[i].set(target, field);
+						if (fields[i] != null) {
+							if (isNull) {
+								fields[i].set(target, null);
+							} else {
+								Object field = fieldSerializers[i].deserialize(source);
+								fields[i].set(target, field);
+							}
+						} else if (!isNull) {
+							// read and dump a pre-existing field value
+							fieldSerializers[i].deserialize(source);
 						}
-					} else if (!isNull) {
-						// read and dump a pre-existing field value
-						fieldSerializers[i].deserialize(source);
 					}
+				} catch (IllegalAccessException e) {
+					throw new RuntimeException("Error during POJO copy, this should not happen since we check the fields before.", e);
 				}
-			} catch (IllegalAccessException e) {
-				throw new RuntimeException("Error during POJO copy, this should not happen since we check the fields before.", e);
 			}
 		} else {
 			if (subclassSerializer != null) {
@@ -465,37 +510,43 @@ public final class PojoSerializer<T> extends TypeSerializer<T> {
 			}
 		} else {
 			if (reuse == null || clazz != reuse.getClass()) {
-				reuse = createInstance();
+				PojoFieldAccessor<T> accessor = getFieldAccessor();
+				reuse = accessor != null ? accessor.newInstance() : createInstance();
 			}
 		}
 
 		if ((flags & NO_SUBCLASS) != 0) {
-			try {
-				for (int i = 0; i < numFields; i++) {
-					boolean isNull = source.readBoolean();
-
-					if (fields[i] != null) {
-						if (isNull) {
-							fields[i].set(reuse, null);
-						} else {
-							Object field;
+			PojoFieldAccessor<T> accessor = getFieldAccessor();
+			if (accessor != null) {
+				accessor.deserializeFieldsWithReuse(reuse, source);
+			} else {
+				try {
+					for (int i = 0; i < numFields; i++) {
+						boolean isNull = source.readBoolean();
 
-							Object reuseField = fields[i].get(reuse);
-							if (reuseField != null) {
-								field = fieldSerializers[i].deserialize(reuseField, source);
+						if (fields[i] != null) {
+							if (isNull) {
+								fields[i].set(reuse, null);
 							} else {
-								field = fieldSerializers[i].deserialize(source);
-							}
+								Object field;
+
+								Object reuseField = fields[i].get(reuse);
+								if (reuseField != null) {
+									field = fieldSerializers[i].deserialize(reuseField, source);
+								} else {
+									field = fieldSerializers[i].deserialize(source);
+								}
 
-							fields[i].set(reuse, field);
+								fields[i].set(reuse, field);
+							}
+						} else if (!isNull) {
+							// read and dump a pre-existing field value
+							fieldSerializers[i].deserialize(source);
 						}
-					} else if (!isNull) {
-						// read and dump a pre-existing field value
-						fieldSerializers[i].deserialize(source);
 					}
+				} catch (IllegalAccessException e) {
+					throw new RuntimeException("Error during POJO copy, this should not happen since we check the fields before.", e);
 				}
-			} catch (IllegalAccessException e) {
-				throw new RuntimeException("Error during POJO copy, this should not happen since we check the fields before.", e);
 			}
 		} else {
 			if (subclassSerializer != null) {
@@ -943,6 +994,7 @@ public final class PojoSerializer<T> extends TypeSerializer<T> {
 
 		cl = Thread.currentThread().getContextClassLoader();
 		subclassSerializerCache = new HashMap<Class<?>, TypeSerializer<?>>();
+		immutableType = clazz.isAnnotationPresent(ImmutableType.class);
 	}
 
 	// --------------------------------------------------------------------------------------------
@@ -957,6 +1009,27 @@ public final class PojoSerializer<T> extends TypeSerializer<T> {
 		return fields;
 	}
 
+	/**
+	 * Returns the generated accessor for the fields of the POJO, or null if code generation is
+	 * disabled or not possible for the POJO class.
+	 */
+	@Nullable
+	PojoFieldAccessor<T> getFieldAccessor() {
+		if (!fieldAccessorInitialized) {
+			fieldAccessorInitialized = true;
+			if (executionConfig.isPojoCodeGenerationEnabled()) {
+				try {
+					fieldAccessor = PojoFieldAccessorGenerator.createAccessor(clazz, fields, fieldSerializers);
+				} catch (Throwable t) {
+					ExceptionUtils.rethrowIfFatalErrorOrOOM(t);
+					LOG.warn("Could not generate the field accessor for POJO class {}, falling back to reflection.",
+						clazz.getName(), t);
+				}
+			}
+		}
+		return fieldAccessor;
+	}
+
 	TypeSerializer<?>[] getFieldSerializers() {
 		return fieldSerializers;
 	}
@@ -21,6 +21,7 @@ import org.apache.flink.annotation.Internal;
 import org.apache.flink.api.common.typeutils.CompositeTypeComparator;
 import org.apache.flink.api.common.typeutils.TypeComparator;
 import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.api.common.typeutils.base.NormalizedKeyUtil;
 import org.apache.flink.api.java.tuple.Tuple4;
 import org.apache.flink.core.memory.DataInputView;
 import org.apache.flink.core.memory.DataOutputView;
@@ -32,6 +33,7 @@ import java.io.IOException;
 import java.util.Collections;
 import java.util.List;
 
+import static org.apache.flink.api.java.typeutils.runtime.NullMaskUtils.readIntoCompactNullMask;
 import static org.apache.flink.api.java.typeutils.runtime.NullMaskUtils.readIntoNullMask;
 import static org.apache.flink.util.Preconditions.checkArgument;
 
@@ -55,6 +57,8 @@ public class RowComparator extends CompositeTypeComparator<Row> {
 	private final int numLeadingNormalizableKeys;
 	private final int normalizableKeyPrefixLen;
 	private final boolean invertNormKey;
+	/** whether the null masks of the serialized rows are in the compact format */
+	private final boolean compactNullMask;
 
 	// null masks for serialized comparison
 	private final boolean[] nullMask1;
@@ -81,7 +85,29 @@ public class RowComparator extends CompositeTypeComparator<Row> {
 		TypeSerializer<Object>[] serializers,
 		boolean[] orders) {
 
-		this(arity, keyPositions, makeNullAware(comparators, orders), serializers);
+		this(arity, keyPositions, comparators, serializers, orders, false);
+	}
+
+	/**
+	 * General constructor for RowComparator.
+	 *
+	 * @param arity           the number of fields of the Row
+	 * @param keyPositions    key positions describe which fields are keys in what order
+	 * @param comparators     non-null-aware comparators for the key fields, in the same order as
+	 *                        the key fields
+	 * @param serializers     serializers to deserialize the first n fields for comparison
+	 * @param orders          sorting orders for the fields
+	 * @param compactNullMask whether the rows were serialized with the compact null mask
+	 */
+	public RowComparator(
+		int arity,
+		int[] keyPositions,
+		TypeComparator<Object>[] comparators,
+		TypeSerializer<Object>[] serializers,
+		boolean[] orders,
+		boolean compactNullMask) {
+
+		this(arity, keyPositions, makeNullAware(comparators, orders), serializers, compactNullMask);
 	}
 
 
@@ -92,14 +118,16 @@ public class RowComparator extends CompositeTypeComparator<Row> {
 		int arity,
 		int[] keyPositions,
 		NullAwareComparator<Object>[] comparators,
-		TypeSerializer<Object>[] serializers) {
+		TypeSerializer<Object>[] serializers,
+		boolean compactNullMask) {
 
 		this(
 			arity,
 			keyPositions,
 			comparators,
 			serializers,
-			createAuxiliaryFields(keyPositions, comparators));
+			createAuxiliaryFields(keyPositions, comparators),
+			compactNullMask);
 	}
 
 	/**
@@ -110,7 +138,8 @@ public class RowComparator extends CompositeTypeComparator<Row> {
 		int[] keyPositions,
 		NullAwareComparator<Object>[] comparators,
 		TypeSerializer<Object>[] serializers,
-		Tuple4<int[], Integer, Integer, Boolean> auxiliaryFields) {
+		Tuple4<int[], Integer, Integer, Boolean> auxiliaryFields,
+		boolean compactNullMask) {
 
 		this(
 			arity,
@@ -120,7 +149,8 @@ public class RowComparator extends CompositeTypeComparator<Row> {
 			auxiliaryFields.f0,
 			auxiliaryFields.f1,
 			auxiliaryFields.f2,
-			auxiliaryFields.f3);
+			auxiliaryFields.f3,
+			compactNullMask);
 	}
 
 	/**
@@ -134,7 +164,8 @@ public class RowComparator extends CompositeTypeComparator<Row> {
 		int[] normalizedKeyLengths,
 		int numLeadingNormalizableKeys,
 		int normalizableKeyPrefixLen,
-		boolean invertNormKey) {
+		boolean invertNormKey,
+		boolean compactNullMask) {
 
 		this.arity = arity;
 		this.keyPositions = keyPositions;
@@ -144,6 +175,7 @@ public class RowComparator extends CompositeTypeComparator<Row> {
 		this.numLeadingNormalizableKeys = numLeadingNormalizableKeys;
 		this.normalizableKeyPrefixLen = normalizableKeyPrefixLen;
 		this.invertNormKey = invertNormKey;
+		this.compactNullMask = compactNullMask;
 		this.nullMask1 = new boolean[arity];
 		this.nullMask2 = new boolean[arity];
 		deserializedKeyFields1 = instantiateDeserializationFields();
@@ -257,8 +289,13 @@ public class RowComparator extends CompositeTypeComparator<Row> {
 		int len = serializers.length;
 		int keyLen = keyPositions.length;
 
-		readIntoNullMask(arity, firstSource, nullMask1);
-		readIntoNullMask(arity, secondSource, nullMask2);
+		if (compactNullMask) {
+			readIntoCompactNullMask(arity, firstSource, nullMask1);
+			readIntoCompactNullMask(arity, secondSource, nullMask2);
+		} else {
+			readIntoNullMask(arity, firstSource, nullMask1);
+			readIntoNullMask(arity, secondSource, nullMask2);
+		}
 
 		// deserialize
 		for (int i = 0; i < len; i++) {
@@ -350,6 +387,9 @@ public class RowComparator extends CompositeTypeComparator<Row> {
 			Object element = record.getField(keyPositions[i]);  // element can be null
 			// write key
 			comparator.putNormalizedKey(element, target, currentOffset, len);
+			if (comparator.invertNormalizedKey() != invertNormKey) {
+				NormalizedKeyUtil.invertNormalizedKey(target, currentOffset, len);
+			}
 
 			bytesLeft -= len;
 			currentOffset += len;
@@ -394,7 +434,8 @@ public class RowComparator extends CompositeTypeComparator<Row> {
 			normalizedKeyLengths,
 			numLeadingNormalizableKeys,
 			normalizableKeyPrefixLen,
-			invertNormKey);
+			invertNormKey,
+			compactNullMask);
 	}
 
 	@Override
@@ -435,15 +476,8 @@ public class RowComparator extends CompositeTypeComparator<Row> {
 				if (i == 0) {
 					// the first comparator decides whether we need to invert the key direction
 					inverted = k.invertNormalizedKey();
-				} else if (k.invertNormalizedKey() != inverted) {
-					// if a successor does not agree on the inversion direction, it cannot be part of the
-					// normalized key
-					return new Tuple4<>(
-						normalizedKeyLengths,
-						numLeadingNormalizableKeys,
-						normalizableKeyPrefixLen,
-						inverted);
 				}
+				// successors that do not agree on the inversion direction are written with inverted bytes
 				numLeadingNormalizableKeys++;
 				int len = k.getNormalizeKeyLen();
 				if (len < 0) {
@@ -33,8 +33,11 @@ import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.util.Arrays;
 
+import static org.apache.flink.api.java.typeutils.runtime.NullMaskUtils.readIntoAndCopyCompactNullMask;
 import static org.apache.flink.api.java.typeutils.runtime.NullMaskUtils.readIntoAndCopyNullMask;
+import static org.apache.flink.api.java.typeutils.runtime.NullMaskUtils.readIntoCompactNullMask;
 import static org.apache.flink.api.java.typeutils.runtime.NullMaskUtils.readIntoNullMask;
+import static org.apache.flink.api.java.typeutils.runtime.NullMaskUtils.writeCompactNullMask;
 import static org.apache.flink.api.java.typeutils.runtime.NullMaskUtils.writeNullMask;
 import static org.apache.flink.util.Preconditions.checkNotNull;
 
@@ -50,12 +53,20 @@ public final class RowSerializer extends TypeSerializer<Row> {
 
 	private final int arity;
 
+	/** Whether the null mask is written in the compact format of {@link NullMaskUtils}. */
+	private final boolean compactNullMask;
+
 	private transient boolean[] nullMask;
 
-	@SuppressWarnings("unchecked")
 	public RowSerializer(TypeSerializer<?>[] fieldSerializers) {
+		this(fieldSerializers, false);
+	}
+
+	@SuppressWarnings("unchecked")
+	public RowSerializer(TypeSerializer<?>[] fieldSerializers, boolean compactNullMask) {
 		this.fieldSerializers = (TypeSerializer<Object>[]) checkNotNull(fieldSerializers);
 		this.arity = fieldSerializers.length;
+		this.compactNullMask = compactNullMask;
 		this.nullMask = new boolean[fieldSerializers.length];
 	}
 
@@ -70,7 +81,7 @@ public final class RowSerializer extends TypeSerializer<Row> {
 		for (int i = 0; i < fieldSerializers.length; i++) {
 			duplicateFieldSerializers[i] = fieldSerializers[i].duplicate();
 		}
-		return new RowSerializer(duplicateFieldSerializers);
+		return new RowSerializer(duplicateFieldSerializers, compactNullMask);
 	}
 
 	@Override
@@ -143,6 +154,10 @@ public final class RowSerializer extends TypeSerializer<Row> {
 		return arity;
 	}
 
+	public boolean isCompactNullMask() {
+		return compactNullMask;
+	}
+
 	@Override
 	public void serialize(Row record, DataOutputView target) throws IOException {
 		int len = fieldSerializers.length;
@@ -152,7 +167,11 @@ public final class RowSerializer extends TypeSerializer<Row> {
 		}
 
 		// write a null mask
-		writeNullMask(len, record, target);
+		if (compactNullMask) {
+			writeCompactNullMask(len, record, target);
+		} else {
+			writeNullMask(len, record, target);
+		}
 
 		// serialize non-null fields
 		for (int i = 0; i < len; i++) {
@@ -170,7 +189,7 @@ public final class RowSerializer extends TypeSerializer<Row> {
 		Row result = new Row(len);
 
 		// read null mask
-		readIntoNullMask(len, source, nullMask);
+		readNullMask(len, source);
 
 		for (int i = 0; i < len; i++) {
 			if (nullMask[i]) {
@@ -193,7 +212,7 @@ public final class RowSerializer extends TypeSerializer<Row> {
 		}
 
 		// read null mask
-		readIntoNullMask(len, source, nullMask);
+		readNullMask(len, source);
 
 		for (int i = 0; i < len; i++) {
 			if (nullMask[i]) {
@@ -218,7 +237,11 @@ public final class RowSerializer extends TypeSerializer<Row> {
 		int len = fieldSerializers.length;
 
 		// copy null mask
-		readIntoAndCopyNullMask(len, source, target, nullMask);
+		if (compactNullMask) {
+			readIntoAndCopyCompactNullMask(len, source, target, nullMask);
+		} else {
+			readIntoAndCopyNullMask(len, source, target, nullMask);
+		}
 
 		for (int i = 0; i < len; i++) {
 			if (!nullMask[i]) {
@@ -227,11 +250,20 @@ public final class RowSerializer extends TypeSerializer<Row> {
 		}
 	}
 
+	private void readNullMask(int len, DataInputView source) throws IOException {
+		if (compactNullMask) {
+			readIntoCompactNullMask(len, source, nullMask);
+		} else {
+			readIntoNullMask(len, source, nullMask);
+		}
+	}
+
 	@Override
 	public boolean equals(Object obj) {
 		if (obj instanceof RowSerializer) {
 			RowSerializer other = (RowSerializer) obj;
-			if (this.fieldSerializers.length == other.fieldSerializers.length) {
+			if (this.fieldSerializers.length == other.fieldSerializers.length
+					&& this.compactNullMask == other.compactNullMask) {
 				for (int i = 0; i < this.fieldSerializers.length; i++) {
 					if (!this.fieldSerializers[i].equals(other.fieldSerializers[i])) {
 						return false;
@@ -246,7 +278,7 @@ public final class RowSerializer extends TypeSerializer<Row> {
 
 	@Override
 	public int hashCode() {
-		return Arrays.hashCode(fieldSerializers);
+		return 31 * Arrays.hashCode(fieldSerializers) + Boolean.hashCode(compactNullMask);
 	}
 
 	// --------------------------------------------------------------------------------------------
@@ -310,7 +342,9 @@ public final class RowSerializer extends TypeSerializer<Row> {
 	 */
 	public static final class RowSerializerSnapshot extends CompositeTypeSerializerSnapshot<Row, RowSerializer> {
 
-		private static final int VERSION = 2;
+		private static final int VERSION = 3;
+
+		private boolean compactNullMask;
 
 		@SuppressWarnings("WeakerAccess")
 		public RowSerializerSnapshot() {
@@ -319,6 +353,7 @@ public final class RowSerializer extends TypeSerializer<Row> {
 
 		RowSerializerSnapshot(RowSerializer serializerInstance) {
 			super(serializerInstance);
+			this.compactNullMask = serializerInstance.compactNullMask;
 		}
 
 		@Override
@@ -333,7 +368,25 @@ public final class RowSerializer extends TypeSerializer<Row> {
 
 		@Override
 		protected RowSerializer createOuterSerializerWithNestedSerializers(TypeSerializer<?>[] nestedSerializers) {
-			return new RowSerializer(nestedSerializers);
+			return new RowSerializer(nestedSerializers, compactNullMask);
+		}
+
+		@Override
+		protected void writeOuterSnapshot(DataOutputView out) throws IOException {
+			out.writeBoolean(compactNullMask);
+		}
+
+		@Override
+		protected void readOuterSnapshot(int readOuterSnapshotVersion, DataInputView in, ClassLoader userCodeClassLoader) throws IOException {
+			// versions before 3 did not support the compact null mask
+			this.compactNullMask = readOuterSnapshotVersion >= 3 && in.readBoolean();
+		}
+
+		@Override
+		protected OuterSchemaCompatibility resolveOuterSchemaCompatibility(RowSerializer newSerializer) {
+			return compactNullMask == newSerializer.compactNullMask ?
+				OuterSchemaCompatibility.COMPATIBLE_AS_IS :
+				OuterSchemaCompatibility.COMPATIBLE_AFTER_MIGRATION;
 		}
 	}
 }
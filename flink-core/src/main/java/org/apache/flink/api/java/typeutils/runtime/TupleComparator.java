@@ -132,7 +132,7 @@ public final class TupleComparator<T extends Tuple> extends TupleComparatorBase<
 			for (; i < this.numLeadingNormalizableKeys && numBytes > 0; i++) {
 				int len = this.normalizedKeyLengths[i];
 				len = numBytes >= len ? len : numBytes;
-				this.comparators[i].putNormalizedKey(value.getFieldNotNull(this.keyPositions[i]), target, offset, len);
+				putNormalizedKeyField(i, value.getFieldNotNull(this.keyPositions[i]), target, offset, len);
 				numBytes -= len;
 				offset += len;
 			}
@@ -24,8 +24,10 @@ import org.apache.flink.annotation.Internal;
 import org.apache.flink.api.common.typeutils.CompositeTypeComparator;
 import org.apache.flink.api.common.typeutils.TypeComparator;
 import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.api.common.typeutils.base.NormalizedKeyUtil;
 import org.apache.flink.core.memory.DataInputView;
 import org.apache.flink.core.memory.DataOutputView;
+import org.apache.flink.core.memory.MemorySegment;
 import org.apache.flink.types.KeyFieldOutOfBoundsException;
 import org.apache.flink.types.NullKeyFieldException;
 
@@ -81,10 +83,7 @@ public abstract class TupleComparatorBase<T> extends CompositeTypeComparator<T>
 					// the first comparator decides whether we need to invert the key direction
 					inverted = k.invertNormalizedKey();
 				}
-				else if (k.invertNormalizedKey() != inverted) {
-					// if a successor does not agree on the inversion direction, it cannot be part of the normalized key
-					break;
-				}
+				// successors that do not agree on the inversion direction are written with inverted bytes
 
 				nKeys++;
 				final int len = k.getNormalizeKeyLen();
@@ -251,6 +250,18 @@ public abstract class TupleComparatorBase<T> extends CompositeTypeComparator<T>
 	}
 	
 	// --------------------------------------------------------------------------------------------
+
+	/**
+	 * Writes the normalized key of the given key field. Fields sorted in the opposite direction of the
+	 * composite key are written with inverted bytes, so that they still order correctly.
+	 */
+	protected final void putNormalizedKeyField(int keyIndex, Object field, MemorySegment target, int offset, int numBytes) {
+		TypeComparator<Object> comparator = this.comparators[keyIndex];
+		comparator.putNormalizedKey(field, target, offset, numBytes);
+		if (comparator.invertNormalizedKey() != this.invertNormKey) {
+			NormalizedKeyUtil.invertNormalizedKey(target, offset, numBytes);
+		}
+	}
 	
 	protected final void instantiateDeserializationUtils() {
 		this.deserializedFields1 = new Object[this.serializers.length];
@@ -0,0 +1,225 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.api.java.typeutils.runtime.kryo;
+
+import org.apache.flink.annotation.VisibleForTesting;
+import org.apache.flink.util.InstantiationUtil;
+
+import com.esotericsoftware.kryo.Kryo;
+
+import javax.annotation.Nullable;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * A pool of Kryo instances that is shared by all {@link KryoSerializer}s of the process.
+ *
+ * <p>Creating a Kryo instance with all its registrations is expensive, and every duplicate of a
+ * serializer needs its own instance, because Kryo is not thread safe. A serializer leases an
+ * instance for its whole lifetime. Serializers have no life cycle, so the instance is returned to
+ * the pool once its serializer was garbage collected, and is then leased to the next serializer
+ * with the same configuration.
+ *
+ * <p>The pools are attached to the serialized type through a {@link ClassValue}, so that they are
+ * released together with the class loader of the type. Types that were not loaded by the class
+ * loader of the Kryo instance are not pooled, because their pool would keep that class loader alive.
+ */
+final class KryoPool {
+
+	/** The maximum number of idle instances per configuration. */
+	@VisibleForTesting
+	static final int MAX_NUM_IDLE_INSTANCES = 16;
+
+	private static final ClassValue<ConcurrentHashMap<ConfigurationKey, KryoPool>> POOLS =
+		new ClassValue<ConcurrentHashMap<ConfigurationKey, KryoPool>>() {
+			@Override
+			protected ConcurrentHashMap<ConfigurationKey, KryoPool> computeValue(Class<?> type) {
+				return new ConcurrentHashMap<>();
+			}
+		};
+
+	private final ConcurrentLinkedQueue<Kryo> idleInstances = new ConcurrentLinkedQueue<>();
+
+	private final AtomicInteger numIdleInstances = new AtomicInteger();
+
+	/** The leases of serializers that were garbage collected are enqueued here. */
+	private final ReferenceQueue<Object> releasedLeases = new ReferenceQueue<>();
+
+	/** Keeps the leases reachable, so that they are enqueued once their owner was collected. */
+	private final Set<Lease> activeLeases = ConcurrentHashMap.newKeySet();
+
+	private KryoPool() {}
+
+	/**
+	 * Leases a Kryo instance to the given owner.
+	 *
+	 * @param owner The serializer that uses the instance until it is garbage collected.
+	 * @param type The type that is serialized with the instance.
+	 * @param classLoader The class loader of the instance.
+	 * @param configuration The configuration of the instance. Instances are only shared between
+	 *                      owners with an equal serialized configuration.
+	 * @param factory Creates a new instance, if there is no idle one.
+	 */
+	static Lease lease(
+			Object owner,
+			Class<?> type,
+			@Nullable ClassLoader classLoader,
+			Serializable configuration,
+			Supplier<Kryo> factory) {
+
+		KryoPool pool = classLoader != null && type.getClassLoader() == classLoader ?
+			getPool(type, configuration) : null;
+
+		if (pool == null) {
+			KryoSerializerStatistics.instanceCreated();
+			return new Lease(owner, factory.get(), null);
+		}
+
+		pool.releaseCollectedLeases();
+
+		Kryo kryo = pool.idleInstances.poll();
+		if (kryo != null) {
+			pool.numIdleInstances.decrementAndGet();
+			kryo.reset();
+			KryoSerializerStatistics.instanceReused();
+		} else {
+			kryo = factory.get();
+			KryoSerializerStatistics.instanceCreated();
+		}
+
+		Lease lease = new Lease(owner, kryo, pool);
+		pool.activeLeases.add(lease);
+		return lease;
+	}
+
+	@Nullable
+	private static KryoPool getPool(Class<?> type, Serializable configuration) {
+		final byte[] serializedConfiguration;
+		try {
+			serializedConfiguration = InstantiationUtil.serializeObject(configuration);
+		} catch (IOException e) {
+			// the configuration cannot be compared, so the instance is not shared
+			return null;
+		}
+		return POOLS.get(type).computeIfAbsent(new ConfigurationKey(serializedConfiguration), key -> new KryoPool());
+	}
+
+	private void releaseCollectedLeases() {
+		Reference<?> reference;
+		while ((reference = releasedLeases.poll()) != null) {
+			Lease lease = (Lease) reference;
+			activeLeases.remove(lease);
+
+			if (lease.reusable && numIdleInstances.incrementAndGet() <= MAX_NUM_IDLE_INSTANCES) {
+				idleInstances.offer(lease.kryo);
+			} else if (lease.reusable) {
+				numIdleInstances.decrementAndGet();
+			}
+		}
+	}
+
+	@VisibleForTesting
+	int getNumIdleInstances() {
+		releaseCollectedLeases();
+		return numIdleInstances.get();
+	}
+
+	// ------------------------------------------------------------------------
+
+	/**
+	 * The lease of a Kryo instance, which is returned to its pool once the owner was garbage collected.
+	 */
+	static final class Lease extends WeakReference<Object> {
+
+		private final Kryo kryo;
+
+		@Nullable
+		private final KryoPool pool;
+
+		private volatile boolean reusable = true;
+
+		private Lease(Object owner, Kryo kryo, @Nullable KryoPool pool) {
+			super(owner, pool == null ? null : pool.releasedLeases);
+			this.kryo = kryo;
+			this.pool = pool;
+		}
+
+		Kryo getKryo() {
+			return kryo;
+		}
+
+		/**
+		 * Prevents that the instance is leased again, because it might have been modified by its owner.
+		 */
+		void discardOnRelease() {
+			reusable = false;
+		}
+
+		/**
+		 * Returns the instance to the pool before the owner was garbage collected. The owner must
+		 * not use the instance afterwards.
+		 */
+		@VisibleForTesting
+		void release() {
+			enqueue();
+		}
+
+		@Nullable
+		@VisibleForTesting
+		KryoPool getPool() {
+			return pool;
+		}
+	}
+
+	/**
+	 * The serialized configuration of the Kryo instances of a pool.
+	 */
+	private static final class ConfigurationKey {
+
+		private final byte[] serializedConfiguration;
+
+		private final int hashCode;
+
+		ConfigurationKey(byte[] serializedConfiguration) {
+			this.serializedConfiguration = serializedConfiguration;
+			this.hashCode = Arrays.hashCode(serializedConfiguration);
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			return o instanceof ConfigurationKey &&
+				Arrays.equals(serializedConfiguration, ((ConfigurationKey) o).serializedConfiguration);
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+	}
+}
@@ -21,6 +21,7 @@ package org.apache.flink.api.java.typeutils.runtime.kryo;
 import org.apache.flink.annotation.VisibleForTesting;
 import org.apache.flink.api.common.ExecutionConfig;
 import org.apache.flink.api.common.ExecutionConfig.SerializableSerializer;
+import org.apache.flink.api.common.typeinfo.ImmutableType;
 import org.apache.flink.api.common.typeutils.TypeSerializer;
 import org.apache.flink.api.common.typeutils.TypeSerializerSchemaCompatibility;
 import org.apache.flink.api.common.typeutils.TypeSerializerSnapshot;
@@ -99,11 +100,15 @@ public class KryoSerializer<T> extends TypeSerializer<T> {
 	private LinkedHashMap<String, KryoRegistration> kryoRegistrations;
 
 	private final Class<T> type;
+
+	/** Whether the type is annotated as {@link ImmutableType}, determined once from the class. */
+	private transient boolean immutableType;
 	
 	// ------------------------------------------------------------------------
 	// The fields below are lazily initialized after duplication or deserialization.
 
 	private transient Kryo kryo;
+	private transient KryoPool.Lease kryoLease;
 	private transient T copyInstance;
 	
 	private transient DataOutputView previousOut;
@@ -112,6 +117,9 @@ public class KryoSerializer<T> extends TypeSerializer<T> {
 	private transient Input input;
 	private transient Output output;
 
+	private transient Class<?> lastRecordClass;
+	private transient KryoSerializerStatistics.TypeStatistics lastRecordStatistics;
+
 	// ------------------------------------------------------------------------
 	// legacy fields; these fields cannot yet be removed to retain backwards compatibility
 
@@ -126,6 +134,7 @@ public class KryoSerializer<T> extends TypeSerializer<T> {
 
 	public KryoSerializer(Class<T> type, ExecutionConfig executionConfig){
 		this.type = checkNotNull(type);
+		this.immutableType = type.isAnnotationPresent(ImmutableType.class);
 
 		this.defaultSerializers = executionConfig.getDefaultKryoSerializers();
 		this.defaultSerializerClasses = executionConfig.getDefaultKryoSerializerClasses();
@@ -135,6 +144,14 @@ public class KryoSerializer<T> extends TypeSerializer<T> {
 				executionConfig.getRegisteredKryoTypes(),
 				executionConfig.getRegisteredTypesWithKryoSerializerClasses(),
 				executionConfig.getRegisteredTypesWithKryoSerializers());
+
+		if (executionConfig.isKryoClassDictionaryEnabled()) {
+			// register the classes of the dictionary after all other registrations, so that
+			// registering further classes does not change the ids of the existing registrations
+			for (Class<?> dictionaryClass : Serializers.getKryoClassDictionary(type)) {
+				kryoRegistrations.putIfAbsent(dictionaryClass.getName(), new KryoRegistration(dictionaryClass));
+			}
+		}
 	}
 
 	/**
@@ -143,6 +160,7 @@ public class KryoSerializer<T> extends TypeSerializer<T> {
 	protected KryoSerializer(KryoSerializer<T> toCopy) {
 
 		this.type = checkNotNull(toCopy.type, "Type class cannot be null.");
+		this.immutableType = toCopy.immutableType;
 		this.defaultSerializerClasses = toCopy.defaultSerializerClasses;
 		this.defaultSerializers = new LinkedHashMap<>(toCopy.defaultSerializers.size());
 		this.kryoRegistrations = new LinkedHashMap<>(toCopy.kryoRegistrations.size());
@@ -184,6 +202,7 @@ public class KryoSerializer<T> extends TypeSerializer<T> {
 				   LinkedHashMap<String, KryoRegistration> kryoRegistrations) {
 
 		this.type = checkNotNull(type, "Type class cannot be null.");
+		this.immutableType = type.isAnnotationPresent(ImmutableType.class);
 		this.defaultSerializerClasses = checkNotNull(defaultSerializerClasses, "Default serializer classes cannot be null.");
 		this.defaultSerializers = checkNotNull(defaultSerializers, "Default serializers cannot be null.");
 		this.kryoRegistrations = checkNotNull(kryoRegistrations, "Kryo registrations cannot be null.");
@@ -209,7 +228,7 @@ public class KryoSerializer<T> extends TypeSerializer<T> {
 
 	@Override
 	public boolean isImmutableType() {
-		return false;
+		return immutableType;
 	}
 
 	@Override
@@ -234,8 +253,8 @@ public class KryoSerializer<T> extends TypeSerializer<T> {
 	@SuppressWarnings("unchecked")
 	@Override
 	public T copy(T from) {
-		if (from == null) {
-			return null;
+		if (from == null || immutableType) {
+			return from;
 		}
 
 		if (CONCURRENT_ACCESS_CHECK) {
@@ -302,8 +321,13 @@ public class KryoSerializer<T> extends TypeSerializer<T> {
 			}
 
 			try {
+				final long startBytes = output.total();
 				kryo.writeClassAndObject(output, record);
 				output.flush();
+
+				if (record != null) {
+					updateStatistics(record.getClass(), output.total() - startBytes);
+				}
 			}
 			catch (KryoException ke) {
 				// make sure that the Kryo output buffer is cleared in case that we can recover from
@@ -449,33 +473,53 @@ public class KryoSerializer<T> extends TypeSerializer<T> {
 		}
 	}
 
+	private void updateStatistics(Class<?> recordClass, long bytes) {
+		if (recordClass != lastRecordClass) {
+			lastRecordStatistics = KryoSerializerStatistics.getTypeStatistics(recordClass);
+			lastRecordClass = recordClass;
+		}
+		lastRecordStatistics.recordSerialized(bytes);
+	}
+
 	private void checkKryoInitialized() {
 		if (this.kryo == null) {
-			this.kryo = getKryoInstance();
-
-			// Enable reference tracking. 
-			kryo.setReferences(true);
-			
-			// Throwable and all subclasses should be serialized via java serialization
-			// Note: the registered JavaSerializer is Flink's own implementation, and not Kryo's.
-			//       This is due to a know issue with Kryo's JavaSerializer. See FLINK-6025 for details.
-			kryo.addDefaultSerializer(Throwable.class, new JavaSerializer());
-
-			// Add default serializers first, so that the type registrations without a serializer
-			// are registered with a default serializer
-			for (Map.Entry<Class<?>, ExecutionConfig.SerializableSerializer<?>> entry: defaultSerializers.entrySet()) {
-				kryo.addDefaultSerializer(entry.getKey(), entry.getValue().getSerializer());
-			}
-
-			for (Map.Entry<Class<?>, Class<? extends Serializer<?>>> entry: defaultSerializerClasses.entrySet()) {
-				kryo.addDefaultSerializer(entry.getKey(), entry.getValue());
-			}
+			final ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+			this.kryoLease = KryoPool.lease(
+				this,
+				type,
+				classLoader,
+				new Object[] {defaultSerializers, defaultSerializerClasses, kryoRegistrations},
+				() -> createKryo(classLoader));
+			this.kryo = kryoLease.getKryo();
+		}
+	}
 
-			KryoUtils.applyRegistrations(this.kryo, kryoRegistrations.values());
+	private Kryo createKryo(ClassLoader classLoader) {
+		Kryo kryo = getKryoInstance();
+
+		// Enable reference tracking. 
+		kryo.setReferences(true);
+		
+		// Throwable and all subclasses should be serialized via java serialization
+		// Note: the registered JavaSerializer is Flink's own implementation, and not Kryo's.
+		//       This is due to a know issue with Kryo's JavaSerializer. See FLINK-6025 for details.
+		kryo.addDefaultSerializer(Throwable.class, new JavaSerializer());
+
+		// Add default serializers first, so that the type registrations without a serializer
+		// are registered with a default serializer
+		for (Map.Entry<Class<?>, ExecutionConfig.SerializableSerializer<?>> entry: defaultSerializers.entrySet()) {
+			kryo.addDefaultSerializer(entry.getKey(), entry.getValue().getSerializer());
+		}
 
-			kryo.setRegistrationRequired(false);
-			kryo.setClassLoader(Thread.currentThread().getContextClassLoader());
+		for (Map.Entry<Class<?>, Class<? extends Serializer<?>>> entry: defaultSerializerClasses.entrySet()) {
+			kryo.addDefaultSerializer(entry.getKey(), entry.getValue());
 		}
+
+		KryoUtils.applyRegistrations(kryo, kryoRegistrations.values());
+
+		kryo.setRegistrationRequired(false);
+		kryo.setClassLoader(classLoader);
+		return kryo;
 	}
 
 	// --------------------------------------------------------------------------------------------
@@ -589,6 +633,8 @@ public class KryoSerializer<T> extends TypeSerializer<T> {
 	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
 		in.defaultReadObject();
 
+		immutableType = type.isAnnotationPresent(ImmutableType.class);
+
 		// kryoRegistrations may be null if this Kryo serializer is deserialized from an old version
 		if (kryoRegistrations == null) {
 			this.kryoRegistrations = buildKryoRegistrations(
@@ -638,6 +684,8 @@ public class KryoSerializer<T> extends TypeSerializer<T> {
 	@VisibleForTesting
 	public Kryo getKryo() {
 		checkKryoInitialized();
+		// the instance may be modified, so it must not be leased to other serializers
+		kryoLease.discardOnRelease();
 		return this.kryo;
 	}
 }
@@ -0,0 +1,167 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.api.java.typeutils.runtime.kryo;
+
+import org.apache.flink.annotation.Internal;
+import org.apache.flink.annotation.VisibleForTesting;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Process wide statistics of the {@link KryoSerializer}s, which are exposed as metrics of the
+ * TaskManager. They show which types fall back to Kryo, how many bytes their records cost, and
+ * how many Kryo instances were created or taken from the {@link KryoPool}.
+ */
+@Internal
+public final class KryoSerializerStatistics {
+
+	/** The maximum number of types that are tracked individually. */
+	private static final int MAX_NUM_TRACKED_TYPES = 1024;
+
+	/** The name under which the types beyond the maximum number of tracked types are counted. */
+	static final String OTHER_TYPES = "<other>";
+
+	private static final ConcurrentHashMap<String, TypeStatistics> TYPE_STATISTICS = new ConcurrentHashMap<>();
+
+	private static final LongAdder NUM_CREATED_INSTANCES = new LongAdder();
+
+	private static final LongAdder NUM_REUSED_INSTANCES = new LongAdder();
+
+	private KryoSerializerStatistics() {}
+
+	// ------------------------------------------------------------------------
+
+	/**
+	 * Returns the statistics for the records of the given class.
+	 */
+	static TypeStatistics getTypeStatistics(Class<?> recordClass) {
+		TypeStatistics statistics = TYPE_STATISTICS.get(recordClass.getName());
+		if (statistics != null) {
+			return statistics;
+		}
+		String name = TYPE_STATISTICS.size() < MAX_NUM_TRACKED_TYPES ? recordClass.getName() : OTHER_TYPES;
+		return TYPE_STATISTICS.computeIfAbsent(name, ignored -> new TypeStatistics());
+	}
+
+	static void instanceCreated() {
+		NUM_CREATED_INSTANCES.increment();
+	}
+
+	static void instanceReused() {
+		NUM_REUSED_INSTANCES.increment();
+	}
+
+	// ------------------------------------------------------------------------
+
+	/**
+	 * Returns the number of Kryo instances that were created.
+	 */
+	public static long getNumCreatedInstances() {
+		return NUM_CREATED_INSTANCES.sum();
+	}
+
+	/**
+	 * Returns the number of Kryo instances that were taken from the pool instead of being created.
+	 */
+	public static long getNumReusedInstances() {
+		return NUM_REUSED_INSTANCES.sum();
+	}
+
+	/**
+	 * Returns the number of records that were serialized with Kryo.
+	 */
+	public static long getNumRecords() {
+		long numRecords = 0;
+		for (TypeStatistics statistics : TYPE_STATISTICS.values()) {
+			numRecords += statistics.getNumRecords();
+		}
+		return numRecords;
+	}
+
+	/**
+	 * Returns the number of bytes of the records that were serialized with Kryo.
+	 */
+	public static long getNumBytes() {
+		long numBytes = 0;
+		for (TypeStatistics statistics : TYPE_STATISTICS.values()) {
+			numBytes += statistics.getNumBytes();
+		}
+		return numBytes;
+	}
+
+	/**
+	 * Returns a description of the types that cost the most bytes when serialized with Kryo, in
+	 * the format {@code "com.example.Type1=(records,bytes), com.example.Type2=(records,bytes)"}.
+	 *
+	 * @param maxNumTypes The maximum number of types to describe.
+	 */
+	public static String getTopTypes(int maxNumTypes) {
+		List<Map.Entry<String, TypeStatistics>> entries = new ArrayList<>(TYPE_STATISTICS.entrySet());
+		entries.sort(Comparator.comparingLong((Map.Entry<String, TypeStatistics> e) -> e.getValue().getNumBytes()).reversed());
+
+		StringBuilder topTypes = new StringBuilder();
+		for (int i = 0; i < Math.min(maxNumTypes, entries.size()); i++) {
+			if (i > 0) {
+				topTypes.append(", ");
+			}
+			TypeStatistics statistics = entries.get(i).getValue();
+			topTypes.append(entries.get(i).getKey())
+				.append("=(").append(statistics.getNumRecords())
+				.append(',').append(statistics.getNumBytes()).append(')');
+		}
+		return topTypes.toString();
+	}
+
+	@VisibleForTesting
+	static void reset() {
+		TYPE_STATISTICS.clear();
+		NUM_CREATED_INSTANCES.reset();
+		NUM_REUSED_INSTANCES.reset();
+	}
+
+	// ------------------------------------------------------------------------
+
+	/**
+	 * The number of records and bytes that were serialized for a type.
+	 */
+	static final class TypeStatistics {
+
+		private final LongAdder numRecords = new LongAdder();
+
+		private final LongAdder numBytes = new LongAdder();
+
+		void recordSerialized(long bytes) {
+			numRecords.increment();
+			numBytes.add(bytes);
+		}
+
+		long getNumRecords() {
+			return numRecords.sum();
+		}
+
+		long getNumBytes() {
+			return numBytes.sum();
+		}
+	}
+}
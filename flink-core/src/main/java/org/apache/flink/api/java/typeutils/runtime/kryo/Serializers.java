@@ -41,8 +41,12 @@ import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 /**
  * Class containing utilities for the serializers of the Flink Runtime.
@@ -75,6 +79,42 @@ public class Serializers {
 	}
 	
 	public static void recursivelyRegisterType(Class<?> type, ExecutionConfig config, Set<Class<?>> alreadySeen) {
+		recursivelyVisitType(type, alreadySeen, clazz -> true, clazz -> {
+			config.registerKryoType(clazz);
+			// add serializers for Avro type if necessary
+			AvroUtils.getAvroUtils().addAvroSerializersIfRequired(config, clazz);
+		});
+	}
+
+	/**
+	 * Returns the class dictionary of a type that is serialized with Kryo. These are the concrete
+	 * classes that are reachable through the (generic) field types of the type, sorted by name
+	 * so that the result does not depend on the order of the reflected fields. The fields of JDK
+	 * classes are not traversed.
+	 */
+	public static List<Class<?>> getKryoClassDictionary(Class<?> type) {
+		final List<Class<?>> dictionary = new ArrayList<>();
+		recursivelyVisitType(type, new HashSet<>(), clazz -> !isJdkClass(clazz), clazz -> {
+			if (!clazz.isInterface() && !Modifier.isAbstract(clazz.getModifiers()) &&
+					(!isJdkClass(clazz) || Modifier.isPublic(clazz.getModifiers()))) {
+				dictionary.add(clazz);
+			}
+		});
+		dictionary.sort(Comparator.comparing(Class::getName));
+		return dictionary;
+	}
+
+	private static boolean isJdkClass(Class<?> clazz) {
+		String name = clazz.getName();
+		return name.startsWith("java.") || name.startsWith("javax.") || name.startsWith("sun.") || name.startsWith("jdk.");
+	}
+
+	private static void recursivelyVisitType(
+			Class<?> type,
+			Set<Class<?>> alreadySeen,
+			Predicate<Class<?>> visitFields,
+			Consumer<Class<?>> visitor) {
+
 		// don't register or remember primitives
 		if (type == null || type.isPrimitive() || type == Object.class) {
 			return;
@@ -86,12 +126,13 @@ public class Serializers {
 		}
 		
 		if (type.isArray()) {
-			recursivelyRegisterType(type.getComponentType(), config, alreadySeen);
+			recursivelyVisitType(type.getComponentType(), alreadySeen, visitFields, visitor);
 		}
 		else {
-			config.registerKryoType(type);
-			// add serializers for Avro type if necessary
-			AvroUtils.getAvroUtils().addAvroSerializersIfRequired(config, type);
+			visitor.accept(type);
+			if (!visitFields.test(type)) {
+				return;
+			}
 
 			Field[] fields = type.getDeclaredFields();
 			for (Field field : fields) {
@@ -99,31 +140,36 @@ public class Serializers {
 					continue;
 				}
 				Type fieldType = field.getGenericType();
-				recursivelyRegisterGenericType(fieldType, config, alreadySeen);
+				recursivelyVisitGenericType(fieldType, alreadySeen, visitFields, visitor);
 			}
 		}
 	}
 	
-	private static void recursivelyRegisterGenericType(Type fieldType, ExecutionConfig config, Set<Class<?>> alreadySeen) {
+	private static void recursivelyVisitGenericType(
+			Type fieldType,
+			Set<Class<?>> alreadySeen,
+			Predicate<Class<?>> visitFields,
+			Consumer<Class<?>> visitor) {
+
 		if (fieldType instanceof ParameterizedType) {
 			// field has generics
 			ParameterizedType parameterizedFieldType = (ParameterizedType) fieldType;
 			
 			for (Type t: parameterizedFieldType.getActualTypeArguments()) {
 				if (TypeExtractionUtils.isClassType(t) ) {
-					recursivelyRegisterType(TypeExtractionUtils.typeToClass(t), config, alreadySeen);
+					recursivelyVisitType(TypeExtractionUtils.typeToClass(t), alreadySeen, visitFields, visitor);
 				}
 			}
 
-			recursivelyRegisterGenericType(parameterizedFieldType.getRawType(), config, alreadySeen);
+			recursivelyVisitGenericType(parameterizedFieldType.getRawType(), alreadySeen, visitFields, visitor);
 		}
 		else if (fieldType instanceof GenericArrayType) {
 			GenericArrayType genericArrayType = (GenericArrayType) fieldType;
-			recursivelyRegisterGenericType(genericArrayType.getGenericComponentType(), config, alreadySeen);
+			recursivelyVisitGenericType(genericArrayType.getGenericComponentType(), alreadySeen, visitFields, visitor);
 		}
 		else if (fieldType instanceof Class) {
 			Class<?> clazz = (Class<?>) fieldType;
-			recursivelyRegisterType(clazz, config, alreadySeen);
+			recursivelyVisitType(clazz, alreadySeen, visitFields, visitor);
 		}
 	}
 
@@ -97,6 +97,45 @@ public class CheckpointingOptions {
 				"recovery. Local recovery currently only covers keyed state backends. Currently, MemoryStateBackend does " +
 				"not support local recovery and ignore this option");
 
+	/**
+	 * Option whether timers that are kept on the Java heap are stored in a compact, serialized form.
+	 *
+	 * <p>This applies to the heap-based state backends and to RocksDB with heap timers. Compact timers are
+	 * written to checkpoints synchronously.
+	 */
+	public static final ConfigOption<Boolean> TIMER_SERVICE_COMPACT_STORE = ConfigOptions
+			.key("state.backend.timer-service.compact-store")
+			.defaultValue(false)
+			.withDescription("Option whether timers that are kept on the Java heap (by the heap-based state backends or" +
+				" by RocksDB with heap timers) are stored in a compact form, bucketed by timestamp with serialized keys and" +
+				" namespaces. This reduces the memory footprint of jobs with many timers at the cost of serializing timers" +
+				" on registration and firing. Compact timers are written to checkpoints synchronously.");
+
+	/**
+	 * Option whether the contents of broadcast state are written to checkpoints only by the first parallel
+	 * subtask of an operator, instead of by every subtask.
+	 *
+	 * <p>Broadcast state is identical on all subtasks, so one copy is enough to restore all of them.
+	 */
+	public static final ConfigOption<Boolean> DEDUPLICATE_BROADCAST_STATE = ConfigOptions
+			.key("state.backend.broadcast-state.deduplicate")
+			.defaultValue(false)
+			.withDescription("Option whether the contents of broadcast state are written to checkpoints only by the" +
+				" first parallel subtask of an operator. Broadcast state is identical on all subtasks, so on restore all" +
+				" subtasks read that single copy. This reduces the size of checkpoints with large broadcast state by a" +
+				" factor of the parallelism. Checkpoints written with this option cannot be restored by Flink versions" +
+				" that do not support it.");
+
+	/**
+	 * The granularity in milliseconds to which the firing of processing time timers is coalesced.
+	 */
+	public static final ConfigOption<Long> TIMER_SERVICE_PROCESSING_TIME_COALESCING = ConfigOptions
+			.key("state.backend.timer-service.processing-time-coalescing")
+			.defaultValue(0L)
+			.withDescription("The granularity in milliseconds to which the firing of processing time timers is" +
+				" coalesced. Timers keep their timestamps, but all timers of one interval fire together at the end of the" +
+				" interval, which reduces the number of scheduled callbacks. With 0, every timer fires at its timestamp.");
+
 	// ------------------------------------------------------------------------
 	//  Options specific to the file-system-based state backends
 	// ------------------------------------------------------------------------
@@ -173,6 +173,16 @@ public class JobManagerOptions {
 			.defaultValue(HeartbeatManagerOptions.HEARTBEAT_TIMEOUT.defaultValue())
 			.withDescription("The timeout in milliseconds for a idle slot in Slot Pool.");
 
+	/**
+	 * The time in milliseconds for which a returned slot is retained for its previous task if local recovery is enabled.
+	 */
+	public static final ConfigOption<Long> SLOT_LOCAL_RECOVERY_RETENTION_TIMEOUT =
+		key("slot.local-recovery.retention-timeout")
+			.defaultValue(60000L)
+			.withDescription("The time in milliseconds for which the Slot Pool retains a returned slot for the task which " +
+				"used it before, if local recovery is enabled. During this time the slot is only handed out to requests " +
+				"which prefer its allocation, so that restarted tasks can recover from their local state.");
+
 	// ---------------------------------------------------------------------------------------------
 
 	private JobManagerOptions() {
@@ -134,6 +134,23 @@ public class MetricOptions {
 			.defaultValue(128)
 			.withDescription("Defines the number of measured latencies to maintain at each operator.");
 
+	/** The number of keys that are tracked at the same time for each keyed output to find the hottest keys. */
+	public static final ConfigOption<Integer> HOT_KEYS_NUM_TRACKED_KEYS =
+		key("metrics.hot-keys.num-tracked-keys")
+			.defaultValue(0)
+			.withDescription("Defines the number of keys that are tracked at the same time for each keyed output of an" +
+				" operator to find its hottest keys and key groups. The tracked keys are reported as metrics of the" +
+				" operator. Disables hot key tracking if set to 0. A larger number finds hot keys more reliably in" +
+				" inputs with many keys.");
+
+	/** The average number of records per record that is sampled for hot key tracking. */
+	public static final ConfigOption<Integer> HOT_KEYS_SAMPLE_INTERVAL =
+		key("metrics.hot-keys.sample-interval")
+			.defaultValue(16)
+			.withDescription("Defines the average number of records of a keyed output per record that is sampled for" +
+				" hot key tracking. Has an effect only when '" + HOT_KEYS_NUM_TRACKED_KEYS.key() + "' is positive." +
+				" A smaller interval makes the tracking more precise but more expensive.");
+
 	/**
 	 * Whether Flink should report system resource metrics such as machine's CPU, memory or network usage.
 	 */
@@ -1355,6 +1355,43 @@ public abstract class MemorySegment {
 		return 0;
 	}
 
+	/**
+	 * Finds the first byte in which two memory segment regions differ. The regions are
+	 * compared 8 bytes at a time, the position of the differing byte within a long is
+	 * derived from the bits of the XOR of both longs.
+	 *
+	 * @param seg2 Segment to compare this segment with
+	 * @param offset1 Offset of this segment to start comparing
+	 * @param offset2 Offset of seg2 to start comparing
+	 * @param len Length of the compared memory region
+	 *
+	 * @return The index of the first differing byte, relative to the offsets, or -1 if the
+	 *         regions are equal
+	 */
+	public final int findFirstMismatch(MemorySegment seg2, int offset1, int offset2, int len) {
+		int i = 0;
+
+		// we assume unaligned accesses are supported.
+		// Compare 8 bytes at a time.
+		while (i <= len - 8) {
+			final long diff = this.getLong(offset1 + i) ^ seg2.getLong(offset2 + i);
+			if (diff != 0) {
+				return i + ((LITTLE_ENDIAN ? Long.numberOfTrailingZeros(diff) : Long.numberOfLeadingZeros(diff)) >>> 3);
+			}
+			i += 8;
+		}
+
+		// cover the last (len % 8) elements.
+		while (i < len) {
+			if (this.get(offset1 + i) != seg2.get(offset2 + i)) {
+				return i;
+			}
+			i++;
+		}
+
+		return -1;
+	}
+
 	/**
 	 * Swaps bytes between two memory segments, using the given auxiliary buffer.
 	 *
@@ -0,0 +1,189 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.core.memory;
+
+import org.apache.flink.annotation.Internal;
+import org.apache.flink.annotation.VisibleForTesting;
+
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.apache.flink.util.Preconditions.checkArgument;
+
+/**
+ * An arena of off-heap memory for the memory segments of a memory pool. Instead of allocating
+ * every segment individually, the arena allocates a few large chunks of memory and carves them
+ * into buffers of the segment size. This keeps the memory of a pool contiguous and makes
+ * allocating the pool much cheaper.
+ *
+ * <p>The memory of the arena can be freed explicitly with {@link #free()}, instead of waiting for
+ * the garbage collector to collect the buffers. Since any access to freed memory crashes the
+ * process, the arena must only be freed once none of its buffers are in use any more.
+ */
+@Internal
+public final class OffHeapMemoryArena {
+
+	/** The maximum size of a single chunk of memory. */
+	private static final int MAX_CHUNK_SIZE = 1 << 30;
+
+	private static final BufferCleaner BUFFER_CLEANER = createBufferCleaner();
+
+	/** The chunks of memory, which are freed together with the arena. */
+	private final List<ByteBuffer> chunks;
+
+	/** The buffers of the segments, which are views of the chunks. */
+	private final List<ByteBuffer> segmentBuffers;
+
+	private final int segmentSize;
+
+	private boolean freed;
+
+	/**
+	 * Allocates an arena with the given number of segments.
+	 *
+	 * @param numSegments The number of segments of the arena.
+	 * @param segmentSize The size of the segments of the arena.
+	 * @throws OutOfMemoryError Thrown, if the memory of the arena could not be allocated.
+	 */
+	public OffHeapMemoryArena(int numSegments, int segmentSize) {
+		this(numSegments, segmentSize, MAX_CHUNK_SIZE);
+	}
+
+	@VisibleForTesting
+	OffHeapMemoryArena(int numSegments, int segmentSize, int maxChunkSize) {
+		checkArgument(numSegments >= 0, "The number of segments must not be negative.");
+		checkArgument(segmentSize > 0 && segmentSize <= maxChunkSize, "Invalid segment size: " + segmentSize);
+
+		final int segmentsPerChunk = maxChunkSize / segmentSize;
+
+		this.segmentSize = segmentSize;
+		this.chunks = new ArrayList<>((numSegments + segmentsPerChunk - 1) / segmentsPerChunk);
+		this.segmentBuffers = new ArrayList<>(numSegments);
+
+		try {
+			int remaining = numSegments;
+			while (remaining > 0) {
+				final int numChunkSegments = Math.min(remaining, segmentsPerChunk);
+				final ByteBuffer chunk = ByteBuffer.allocateDirect(numChunkSegments * segmentSize);
+				chunks.add(chunk);
+
+				for (int offset = 0; offset < chunk.capacity(); offset += segmentSize) {
+					chunk.limit(offset + segmentSize);
+					chunk.position(offset);
+					segmentBuffers.add(chunk.slice());
+				}
+				remaining -= numChunkSegments;
+			}
+		}
+		catch (OutOfMemoryError err) {
+			// do not hold on to the memory of the chunks that could be allocated
+			free();
+			throw err;
+		}
+	}
+
+	// ------------------------------------------------------------------------
+
+	/**
+	 * Gets the buffers of the segments of this arena. Each buffer is a direct buffer of the
+	 * segment size, which is meant to be wrapped by a pooled memory segment.
+	 *
+	 * @return The buffers of the segments of this arena.
+	 */
+	public List<ByteBuffer> getSegmentBuffers() {
+		return Collections.unmodifiableList(segmentBuffers);
+	}
+
+	public int getNumberOfSegments() {
+		return segmentBuffers.size();
+	}
+
+	public int getSegmentSize() {
+		return segmentSize;
+	}
+
+	@VisibleForTesting
+	int getNumberOfChunks() {
+		return chunks.size();
+	}
+
+	/**
+	 * Frees the memory of this arena. This method is idempotent.
+	 *
+	 * <p>The caller must make sure that none of the buffers of this arena, or of the memory
+	 * segments that wrap them, are accessed after this method was called.
+	 */
+	public synchronized void free() {
+		if (!freed) {
+			freed = true;
+			segmentBuffers.clear();
+			for (ByteBuffer chunk : chunks) {
+				BUFFER_CLEANER.clean(chunk);
+			}
+			chunks.clear();
+		}
+	}
+
+	public synchronized boolean isFreed() {
+		return freed;
+	}
+
+	// ------------------------------------------------------------------------
+	//  Freeing of direct buffers
+	// ------------------------------------------------------------------------
+
+	/**
+	 * Frees the memory of a direct buffer.
+	 */
+	private interface BufferCleaner {
+		void clean(ByteBuffer buffer);
+	}
+
+	private static BufferCleaner createBufferCleaner() {
+		try {
+			// Java 9 and later
+			final Method invokeCleaner = MemoryUtils.UNSAFE.getClass().getMethod("invokeCleaner", ByteBuffer.class);
+			return buffer -> invoke(invokeCleaner, MemoryUtils.UNSAFE, buffer);
+		}
+		catch (NoSuchMethodException e) {
+			// Java 8, where the cleaner of a direct buffer can be accessed and invoked directly
+			try {
+				final Method getCleaner = Class.forName("sun.nio.ch.DirectBuffer").getMethod("cleaner");
+				final Method clean = Class.forName("sun.misc.Cleaner").getMethod("clean");
+				return buffer -> invoke(clean, invoke(getCleaner, buffer));
+			}
+			catch (ClassNotFoundException | NoSuchMethodException ignored) {
+				// leave the memory to the garbage collector
+				return buffer -> {};
+			}
+		}
+	}
+
+	private static Object invoke(Method method, Object target, Object... args) {
+		try {
+			return method.invoke(target, args);
+		}
+		catch (Exception e) {
+			throw new RuntimeException("Could not free the memory of a direct buffer.", e);
+		}
+	}
+}
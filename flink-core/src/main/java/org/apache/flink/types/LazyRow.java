@@ -0,0 +1,328 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.types;
+
+import org.apache.flink.annotation.Internal;
+import org.apache.flink.annotation.PublicEvolving;
+import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.api.java.typeutils.LazyRowTypeInfo;
+import org.apache.flink.core.memory.DataInputDeserializer;
+import org.apache.flink.core.memory.DataOutputView;
+import org.apache.flink.util.FlinkRuntimeException;
+import org.apache.flink.util.StringUtils;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.Arrays;
+
+import static org.apache.flink.util.Preconditions.checkArgument;
+
+/**
+ * A LazyRow is a {@link Row}-like record with an arbitrary number of fields, which deserializes
+ * its fields on demand. The types of the fields are described by a {@link LazyRowTypeInfo}.
+ *
+ * <p>A LazyRow that is read by its serializer keeps the serialized bytes of all fields and only
+ * deserializes a field when it is accessed with {@link #getField(int)}. Fields that are neither
+ * accessed nor changed are forwarded as raw bytes when the row is serialized again, for example
+ * when it is sent to the next operator or written to state. This makes operators that only look
+ * at a few fields of wide records considerably cheaper.
+ *
+ * <p>Fields of mutable types can be modified through the object returned by {@link #getField(int)}.
+ * Such fields are therefore serialized from the object once they have been accessed, while the
+ * raw bytes of accessed fields of immutable types, such as {@code String} or boxed primitives,
+ * are still forwarded.
+ *
+ * <p>A LazyRow is not thread-safe.
+ */
+@PublicEvolving
+public final class LazyRow implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	/** The values of the fields, valid for positions where {@link #materialized} is set. */
+	private final Object[] fields;
+
+	/** Flags for the fields whose value has been deserialized or set. */
+	private final boolean[] materialized;
+
+	/** Flags for the fields whose raw bytes are still up to date. */
+	private final boolean[] rawValid;
+
+	/** The serializers of the fields, null if the row was not created from bytes. */
+	private final TypeSerializer<?>[] fieldSerializers;
+
+	/** The serialized fields, shared between copies of the row and never modified. */
+	private final byte[] bytes;
+
+	/** The offsets of the serialized fields in {@link #bytes}. */
+	private final int[] offsets;
+
+	/** The lengths of the serialized fields, -1 for null fields. */
+	private final int[] lengths;
+
+	private transient DataInputDeserializer fieldInput;
+
+	/**
+	 * Create a new LazyRow instance whose fields are all null.
+	 * @param arity The number of fields in the LazyRow
+	 */
+	public LazyRow(int arity) {
+		this.fields = new Object[arity];
+		this.materialized = new boolean[arity];
+		Arrays.fill(materialized, true);
+		this.rawValid = new boolean[arity];
+		this.fieldSerializers = null;
+		this.bytes = null;
+		this.offsets = null;
+		this.lengths = null;
+	}
+
+	/**
+	 * Create a new LazyRow instance from serialized fields. The arrays are not copied and must
+	 * not be modified afterwards.
+	 *
+	 * @param fieldSerializers The serializers to deserialize the fields with
+	 * @param bytes The serialized fields
+	 * @param offsets The offsets of the serialized fields in the bytes
+	 * @param lengths The lengths of the serialized fields, -1 for null fields
+	 */
+	@Internal
+	public LazyRow(TypeSerializer<?>[] fieldSerializers, byte[] bytes, int[] offsets, int[] lengths) {
+		checkArgument(fieldSerializers.length == offsets.length && offsets.length == lengths.length);
+		int arity = fieldSerializers.length;
+		this.fields = new Object[arity];
+		this.materialized = new boolean[arity];
+		this.rawValid = new boolean[arity];
+		Arrays.fill(rawValid, true);
+		this.fieldSerializers = fieldSerializers;
+		this.bytes = bytes;
+		this.offsets = offsets;
+		this.lengths = lengths;
+	}
+
+	private LazyRow(LazyRow row, TypeSerializer<?>[] fieldSerializers) {
+		this.fields = new Object[row.fields.length];
+		this.materialized = row.materialized.clone();
+		this.rawValid = row.rawValid.clone();
+		this.fieldSerializers = row.bytes != null ? fieldSerializers : null;
+		this.bytes = row.bytes;
+		this.offsets = row.offsets;
+		this.lengths = row.lengths;
+	}
+
+	/**
+	 * Get the number of fields in the LazyRow.
+	 * @return The number of fields in the LazyRow.
+	 */
+	public int getArity() {
+		return fields.length;
+	}
+
+	/**
+	 * Gets the field at the specified position. The field is deserialized when it is accessed
+	 * for the first time.
+	 * @param pos The position of the field, 0-based.
+	 * @return The field at the specified position.
+	 * @throws IndexOutOfBoundsException Thrown, if the position is negative, or equal to, or larger than the number of fields.
+	 */
+	public Object getField(int pos) {
+		if (!materialized[pos]) {
+			fields[pos] = lengths[pos] < 0 ? null : deserializeField(pos);
+			materialized[pos] = true;
+			if (!fieldSerializers[pos].isImmutableType()) {
+				// the returned object may be modified, so the raw bytes cannot be trusted any more
+				rawValid[pos] = false;
+			}
+		}
+		return fields[pos];
+	}
+
+	/**
+	 * Sets the field at the specified position.
+	 *
+	 * @param pos The position of the field, 0-based.
+	 * @param value The value to be assigned to the field at the specified position.
+	 * @throws IndexOutOfBoundsException Thrown, if the position is negative, or equal to, or larger than the number of fields.
+	 */
+	public void setField(int pos, Object value) {
+		fields[pos] = value;
+		materialized[pos] = true;
+		rawValid[pos] = false;
+	}
+
+	/**
+	 * Checks whether the field at the specified position has been deserialized or set.
+	 *
+	 * @param pos The position of the field, 0-based.
+	 * @return True, if the field is held as an object, false if it is only held as raw bytes.
+	 */
+	public boolean isFieldMaterialized(int pos) {
+		return materialized[pos];
+	}
+
+	/**
+	 * Creates a {@link Row} with the values of all fields of this row.
+	 * This method does not perform a deep copy.
+	 *
+	 * @return The new Row.
+	 */
+	public Row toRow() {
+		Row row = new Row(fields.length);
+		for (int i = 0; i < fields.length; i++) {
+			row.setField(i, getField(i));
+		}
+		return row;
+	}
+
+	// ------------------------------------------------------------------------
+	//  Raw field access for the serializer
+	// ------------------------------------------------------------------------
+
+	/**
+	 * Checks whether the raw bytes of the field at the specified position are up to date, so
+	 * that they can be forwarded instead of serializing the value of the field.
+	 */
+	@Internal
+	public boolean hasRawField(int pos) {
+		return rawValid[pos];
+	}
+
+	/**
+	 * Gets the serializers the raw fields were written with, null if the row was not created
+	 * from bytes.
+	 */
+	@Internal
+	public TypeSerializer<?>[] getFieldSerializers() {
+		return fieldSerializers;
+	}
+
+	/**
+	 * Gets the length of the raw bytes of the field at the specified position, -1 if the field
+	 * is null. Only valid if {@link #hasRawField(int)} is true.
+	 */
+	@Internal
+	public int getRawFieldLength(int pos) {
+		return lengths[pos];
+	}
+
+	/**
+	 * Writes the raw bytes of the field at the specified position to the given target.
+	 * Only valid if {@link #hasRawField(int)} is true.
+	 */
+	@Internal
+	public void writeRawField(int pos, DataOutputView target) throws IOException {
+		if (lengths[pos] > 0) {
+			target.write(bytes, offsets[pos], lengths[pos]);
+		}
+	}
+
+	/**
+	 * Gets the value of the field at the specified position, if it is held as an object.
+	 * Unlike {@link #getField(int)} this never deserializes the field, and does not change the
+	 * state of the row.
+	 */
+	@Internal
+	public Object getMaterializedField(int pos) {
+		return materialized[pos] ? fields[pos] : null;
+	}
+
+	/**
+	 * Creates a copy of this row. The raw bytes are shared with the copy, while values of
+	 * fields are copied with the given serializers, unless they are still backed by raw bytes.
+	 *
+	 * @param fieldSerializers The serializers to copy the values of the fields with
+	 * @return The copy of the row.
+	 */
+	@Internal
+	@SuppressWarnings("unchecked")
+	public LazyRow copy(TypeSerializer<?>[] fieldSerializers) {
+		LazyRow copy = new LazyRow(this, fieldSerializers);
+		for (int i = 0; i < fields.length; i++) {
+			Object value = fields[i];
+			if (!materialized[i] || value == null) {
+				continue;
+			}
+			copy.fields[i] = rawValid[i] ? value : ((TypeSerializer<Object>) fieldSerializers[i]).copy(value);
+		}
+		return copy;
+	}
+
+	private Object[] materializeAll() {
+		for (int i = 0; i < fields.length; i++) {
+			getField(i);
+		}
+		return fields;
+	}
+
+	private Object deserializeField(int pos) {
+		if (fieldInput == null) {
+			fieldInput = new DataInputDeserializer();
+		}
+		fieldInput.setBuffer(bytes, offsets[pos], lengths[pos]);
+		try {
+			return fieldSerializers[pos].deserialize(fieldInput);
+		} catch (IOException e) {
+			throw new FlinkRuntimeException("Could not deserialize field " + pos + " of the row.", e);
+		}
+	}
+
+	// ------------------------------------------------------------------------
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < fields.length; i++) {
+			if (i > 0) {
+				sb.append(",");
+			}
+			sb.append(StringUtils.arrayAwareToString(getField(i)));
+		}
+		return sb.toString();
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (o == null || getClass() != o.getClass()) {
+			return false;
+		}
+
+		LazyRow row = (LazyRow) o;
+
+		return Arrays.deepEquals(materializeAll(), row.materializeAll());
+	}
+
+	@Override
+	public int hashCode() {
+		return Arrays.deepHashCode(materializeAll());
+	}
+
+	/**
+	 * Creates a new LazyRow and assigns the given values to the LazyRow's fields.
+	 */
+	public static LazyRow of(Object... values) {
+		LazyRow row = new LazyRow(values.length);
+		for (int i = 0; i < values.length; i++) {
+			row.setField(i, values[i]);
+		}
+		return row;
+	}
+}
@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.api.common.typeutils.base;
+
+import org.apache.flink.api.common.typeutils.SerializerTestBase;
+import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.core.memory.DataOutputSerializer;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * A test for the {@link VarIntSerializer}.
+ */
+public class VarIntSerializerTest extends SerializerTestBase<Integer> {
+
+	@Override
+	protected TypeSerializer<Integer> createSerializer() {
+		return new VarIntSerializer();
+	}
+
+	@Override
+	protected int getLength() {
+		return -1;
+	}
+
+	@Override
+	protected Class<Integer> getTypeClass() {
+		return Integer.class;
+	}
+
+	@Override
+	protected Integer[] getTestData() {
+		Random rnd = new Random(874597969123412341L);
+		int rndInt = rnd.nextInt();
+
+		return new Integer[] {0, 1, -1, (1 << 6), -(1 << 6) - 1, (1 << 13), Integer.MAX_VALUE, Integer.MIN_VALUE, rndInt, -rndInt};
+	}
+
+	@Test
+	public void testEncodedLength() throws IOException {
+		assertEquals(1, getEncodedLength(0));
+		assertEquals(1, getEncodedLength((1 << 6) - 1));
+		assertEquals(1, getEncodedLength(-(1 << 6)));
+		assertEquals(2, getEncodedLength((1 << 6)));
+		assertEquals(2, getEncodedLength((1 << 13) - 1));
+		assertEquals(3, getEncodedLength((1 << 13)));
+		assertEquals(5, getEncodedLength(Integer.MAX_VALUE));
+		assertEquals(5, getEncodedLength(Integer.MIN_VALUE));
+	}
+
+	@Test
+	public void testMigrationFromAndToFixedLengthFormat() {
+		assertTrue(new IntSerializer.IntSerializerSnapshot()
+			.resolveSchemaCompatibility(VarIntSerializer.INSTANCE)
+			.isCompatibleAfterMigration());
+		assertTrue(new VarIntSerializer.VarIntSerializerSnapshot()
+			.resolveSchemaCompatibility(IntSerializer.INSTANCE)
+			.isCompatibleAfterMigration());
+		assertTrue(new VarIntSerializer.VarIntSerializerSnapshot()
+			.resolveSchemaCompatibility(VarIntSerializer.INSTANCE)
+			.isCompatibleAsIs());
+	}
+
+	private static int getEncodedLength(int value) throws IOException {
+		DataOutputSerializer out = new DataOutputSerializer(16);
+		VarIntSerializer.writeVarInt(value, out);
+		return out.length();
+	}
+}
@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.api.common.typeutils.base;
+
+import org.apache.flink.api.common.typeutils.SerializerTestBase;
+import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.core.memory.DataOutputSerializer;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * A test for the {@link VarLongSerializer}.
+ */
+public class VarLongSerializerTest extends SerializerTestBase<Long> {
+
+	@Override
+	protected TypeSerializer<Long> createSerializer() {
+		return new VarLongSerializer();
+	}
+
+	@Override
+	protected int getLength() {
+		return -1;
+	}
+
+	@Override
+	protected Class<Long> getTypeClass() {
+		return Long.class;
+	}
+
+	@Override
+	protected Long[] getTestData() {
+		Random rnd = new Random(874597969123412341L);
+		long rndLong = rnd.nextLong();
+
+		return new Long[] {0L, 1L, -1L, (1L << 6), -(1L << 6) - 1, (1L << 13), Long.MAX_VALUE, Long.MIN_VALUE, rndLong, -rndLong};
+	}
+
+	@Test
+	public void testEncodedLength() throws IOException {
+		assertEquals(1, getEncodedLength(0L));
+		assertEquals(1, getEncodedLength((1L << 6) - 1));
+		assertEquals(1, getEncodedLength(-(1L << 6)));
+		assertEquals(2, getEncodedLength((1L << 6)));
+		assertEquals(2, getEncodedLength((1L << 13) - 1));
+		assertEquals(3, getEncodedLength((1L << 13)));
+		assertEquals(10, getEncodedLength(Long.MAX_VALUE));
+		assertEquals(10, getEncodedLength(Long.MIN_VALUE));
+	}
+
+	@Test
+	public void testMigrationFromAndToFixedLengthFormat() {
+		assertTrue(new LongSerializer.LongSerializerSnapshot()
+			.resolveSchemaCompatibility(VarLongSerializer.INSTANCE)
+			.isCompatibleAfterMigration());
+		assertTrue(new VarLongSerializer.VarLongSerializerSnapshot()
+			.resolveSchemaCompatibility(LongSerializer.INSTANCE)
+			.isCompatibleAfterMigration());
+		assertTrue(new VarLongSerializer.VarLongSerializerSnapshot()
+			.resolveSchemaCompatibility(VarLongSerializer.INSTANCE)
+			.isCompatibleAsIs());
+	}
+
+	private static int getEncodedLength(long value) throws IOException {
+		DataOutputSerializer out = new DataOutputSerializer(16);
+		VarLongSerializer.writeVarLong(value, out);
+		return out.length();
+	}
+}
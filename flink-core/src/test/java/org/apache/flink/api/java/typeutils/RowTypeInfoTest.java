@@ -30,6 +30,7 @@ import java.util.List;
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
 /**
@@ -148,4 +149,12 @@ public class RowTypeInfoTest extends TypeInformationTestBase<RowTypeInfo> {
 		assertFalse(row1.schemaEquals(other2));
 	}
 
+	@Test
+	public void testCreateSerializerAndComparatorWithoutExecutionConfig() {
+		final RowTypeInfo typeInfo = new RowTypeInfo(typeList);
+
+		assertNotNull(typeInfo.createSerializer(null));
+		assertNotNull(typeInfo.createComparator(new int[] {0}, new boolean[] {true}, 0, null));
+	}
+
 }
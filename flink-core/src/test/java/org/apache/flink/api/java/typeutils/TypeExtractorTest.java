@@ -63,14 +63,20 @@ import org.apache.flink.types.IntValue;
 import org.apache.flink.types.StringValue;
 import org.apache.flink.types.Value;
 import org.apache.flink.types.Row;
+import org.apache.flink.testutils.ClassLoaderUtils;
 import org.apache.flink.util.Collector;
 
 import org.junit.Assert;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 @SuppressWarnings("serial")
 public class TypeExtractorTest {
 
+	@Rule
+	public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
 	
 	@SuppressWarnings({ "rawtypes", "unchecked" })
 	@Test
@@ -2085,4 +2091,94 @@ public class TypeExtractorTest {
 		Assert.assertEquals(SqlTimeTypeInfo.TIME, TypeExtractor.getForObject(Time.valueOf("12:37:45")));
 		Assert.assertEquals(SqlTimeTypeInfo.TIMESTAMP, TypeExtractor.getForObject(Timestamp.valueOf("1998-12-12 12:37:45")));
 	}
+
+	@Test
+	public void testReturnTypesAreCachedPerFunctionClass() {
+		long cacheHits = TypeExtractorStatistics.getNumCacheHits();
+
+		TypeInformation<String> stringType = TypeExtractor.getMapReturnTypes(
+			new CachedIdentityMapper<String>(), BasicTypeInfo.STRING_TYPE_INFO);
+		TypeInformation<Tuple2<Integer, String>> tupleType = TypeExtractor.getMapReturnTypes(
+			new CachedIdentityMapper<Tuple2<Integer, String>>(),
+			new TupleTypeInfo<>(BasicTypeInfo.INT_TYPE_INFO, BasicTypeInfo.STRING_TYPE_INFO));
+
+		Assert.assertEquals(BasicTypeInfo.STRING_TYPE_INFO, stringType);
+		Assert.assertEquals(new TupleTypeInfo<>(BasicTypeInfo.INT_TYPE_INFO, BasicTypeInfo.STRING_TYPE_INFO), tupleType);
+
+		// the same function class with the same input type is served from the cache
+		Assert.assertSame(tupleType, TypeExtractor.getMapReturnTypes(
+			new CachedIdentityMapper<Tuple2<Integer, String>>(),
+			new TupleTypeInfo<>(BasicTypeInfo.INT_TYPE_INFO, BasicTypeInfo.STRING_TYPE_INFO)));
+		Assert.assertTrue(TypeExtractorStatistics.getNumCacheHits() > cacheHits);
+	}
+
+	@Test
+	public void testReturnTypesOfClassesFromChildClassLoadersAreNotCached() throws Exception {
+		ClassLoader userClassLoader = ClassLoaderUtils.compileAndLoadJava(
+			temporaryFolder.newFolder(),
+			"UserValue.java",
+			"public class UserValue implements java.io.Serializable {}");
+		Class<?> userClass = Class.forName("UserValue", false, userClassLoader);
+		TypeInformation<Tuple2<Integer, ?>> inType = new TupleTypeInfo<>(
+			BasicTypeInfo.INT_TYPE_INFO, new GenericTypeInfo<>(userClass));
+
+		long cacheHits = TypeExtractorStatistics.getNumCacheHits();
+
+		// the mapper class is loaded by a parent of the class loader of the user class, caching
+		// the return type with the mapper class would keep the user class loader alive
+		TypeInformation<Tuple2<Integer, ?>> first = TypeExtractor.getMapReturnTypes(
+			new ParentLoadedIdentityMapper<Tuple2<Integer, ?>>(), inType);
+		TypeInformation<Tuple2<Integer, ?>> second = TypeExtractor.getMapReturnTypes(
+			new ParentLoadedIdentityMapper<Tuple2<Integer, ?>>(), inType);
+
+		Assert.assertEquals(inType, first);
+		Assert.assertEquals(first, second);
+		Assert.assertEquals(cacheHits, TypeExtractorStatistics.getNumCacheHits());
+	}
+
+	@Test
+	public void testFailedExtractionsAreNotCached() {
+		for (int i = 0; i < 2; i++) {
+			TypeInformation<?> missingType = TypeExtractor.getMapReturnTypes(
+				new UnresolvableMapper<Integer, String>(), BasicTypeInfo.INT_TYPE_INFO, "mapper", true);
+			Assert.assertTrue(missingType instanceof MissingTypeInfo);
+		}
+	}
+
+	/**
+	 * Identity mapper that is only used by {@link #testReturnTypesAreCachedPerFunctionClass()}.
+	 */
+	public static class CachedIdentityMapper<T> implements MapFunction<T, T> {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		public T map(T value) {
+			return value;
+		}
+	}
+
+	/**
+	 * Identity mapper that is only used by
+	 * {@link #testReturnTypesOfClassesFromChildClassLoadersAreNotCached()}.
+	 */
+	public static class ParentLoadedIdentityMapper<T> implements MapFunction<T, T> {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		public T map(T value) {
+			return value;
+		}
+	}
+
+	/**
+	 * Mapper whose return type cannot be extracted.
+	 */
+	public static class UnresolvableMapper<T, O> implements MapFunction<T, O> {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		public O map(T value) {
+			return null;
+		}
+	}
 }
@@ -0,0 +1,190 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.api.java.typeutils.runtime;
+
+import org.apache.flink.api.common.ExecutionConfig;
+import org.apache.flink.api.common.typeinfo.BasicTypeInfo;
+import org.apache.flink.api.common.typeinfo.PrimitiveArrayTypeInfo;
+import org.apache.flink.api.common.typeutils.SerializerTestInstance;
+import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.api.common.typeutils.TypeSerializerSchemaCompatibility;
+import org.apache.flink.api.common.typeutils.TypeSerializerSnapshot;
+import org.apache.flink.api.common.typeutils.TypeSerializerSnapshotSerializationUtil;
+import org.apache.flink.api.java.typeutils.LazyRowTypeInfo;
+import org.apache.flink.core.memory.DataInputDeserializer;
+import org.apache.flink.core.memory.DataOutputSerializer;
+import org.apache.flink.types.LazyRow;
+
+import org.junit.Test;
+
+import java.io.IOException;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class LazyRowSerializerTest {
+
+	private static final LazyRowTypeInfo TYPE_INFO = new LazyRowTypeInfo(
+		BasicTypeInfo.INT_TYPE_INFO,
+		BasicTypeInfo.STRING_TYPE_INFO,
+		BasicTypeInfo.LONG_TYPE_INFO);
+
+	@Test
+	public void testLazyRowSerializer() {
+		LazyRow[] data = new LazyRow[]{
+			LazyRow.of(null, null, null),
+			LazyRow.of(0, null, null),
+			LazyRow.of(0, "a", null),
+			LazyRow.of(1, "a", 1L),
+			LazyRow.of(1, "b", 2L),
+			LazyRow.of(Integer.MIN_VALUE, "", Long.MAX_VALUE)
+		};
+
+		TypeSerializer<LazyRow> serializer = TYPE_INFO.createSerializer(new ExecutionConfig());
+		LazyRowSerializerTestInstance testInstance = new LazyRowSerializerTestInstance(serializer, data);
+		testInstance.testAll();
+	}
+
+	@Test
+	public void testFieldsAreDeserializedOnAccess() throws IOException {
+		TypeSerializer<LazyRow> serializer = TYPE_INFO.createSerializer(new ExecutionConfig());
+		LazyRow row = roundTrip(serializer, LazyRow.of(42, "lazy", 7L));
+
+		for (int i = 0; i < row.getArity(); i++) {
+			assertFalse(row.isFieldMaterialized(i));
+		}
+
+		assertEquals("lazy", row.getField(1));
+		assertTrue(row.isFieldMaterialized(1));
+		assertFalse(row.isFieldMaterialized(0));
+		assertFalse(row.isFieldMaterialized(2));
+	}
+
+	@Test
+	public void testUntouchedFieldsAreForwardedAsBytes() throws IOException {
+		TypeSerializer<LazyRow> serializer = TYPE_INFO.createSerializer(new ExecutionConfig());
+		LazyRow original = LazyRow.of(42, "forwarded", 7L);
+		byte[] serialized = serialize(serializer, original);
+
+		LazyRow row = serializer.deserialize(new DataInputDeserializer(serialized));
+		row.getField(1);
+		assertArrayEquals(serialized, serialize(serializer, row));
+		assertFalse(row.isFieldMaterialized(0));
+		assertFalse(row.isFieldMaterialized(2));
+
+		row.setField(1, "modified");
+		LazyRow modified = roundTrip(serializer, row);
+		assertEquals(LazyRow.of(42, "modified", 7L), modified);
+	}
+
+	@Test
+	public void testMutableFieldsAreReserializedAfterAccess() throws IOException {
+		TypeSerializer<LazyRow> serializer = new LazyRowTypeInfo(
+			BasicTypeInfo.INT_TYPE_INFO,
+			PrimitiveArrayTypeInfo.INT_PRIMITIVE_ARRAY_TYPE_INFO)
+			.createSerializer(new ExecutionConfig());
+
+		LazyRow row = roundTrip(serializer, LazyRow.of(1, new int[]{1, 2, 3}));
+		int[] array = (int[]) row.getField(1);
+		array[0] = 42;
+
+		LazyRow copy = serializer.copy(row);
+		array[1] = 43;
+
+		assertArrayEquals(new int[]{42, 43, 3}, (int[]) roundTrip(serializer, row).getField(1));
+		assertArrayEquals(new int[]{42, 2, 3}, (int[]) copy.getField(1));
+	}
+
+	@Test
+	public void testReadRecordsWithFewerFields() throws IOException {
+		TypeSerializer<LazyRow> oldSerializer = new LazyRowTypeInfo(
+			BasicTypeInfo.INT_TYPE_INFO,
+			BasicTypeInfo.STRING_TYPE_INFO).createSerializer(new ExecutionConfig());
+		TypeSerializer<LazyRow> newSerializer = TYPE_INFO.createSerializer(new ExecutionConfig());
+
+		byte[] serialized = serialize(oldSerializer, LazyRow.of(1, "old"));
+		LazyRow row = newSerializer.deserialize(new DataInputDeserializer(serialized));
+
+		assertEquals(3, row.getArity());
+		assertEquals(LazyRow.of(1, "old", null), row);
+	}
+
+	@Test
+	public void testSchemaCompatibilityWithAppendedFields() throws IOException {
+		TypeSerializer<LazyRow> oldSerializer = new LazyRowTypeInfo(
+			BasicTypeInfo.INT_TYPE_INFO,
+			BasicTypeInfo.STRING_TYPE_INFO).createSerializer(new ExecutionConfig());
+		TypeSerializer<LazyRow> newSerializer = TYPE_INFO.createSerializer(new ExecutionConfig());
+
+		TypeSerializerSnapshot<LazyRow> oldSnapshot = writeAndReadSnapshot(oldSerializer);
+		TypeSerializerSnapshot<LazyRow> newSnapshot = writeAndReadSnapshot(newSerializer);
+
+		assertEquals(newSerializer, newSnapshot.restoreSerializer());
+		assertTrue(newSnapshot.resolveSchemaCompatibility(newSerializer).isCompatibleAsIs());
+
+		TypeSerializerSchemaCompatibility<LazyRow> appended = oldSnapshot.resolveSchemaCompatibility(newSerializer);
+		assertTrue(appended.isCompatibleAsIs());
+
+		TypeSerializerSchemaCompatibility<LazyRow> removed = newSnapshot.resolveSchemaCompatibility(oldSerializer);
+		assertTrue(removed.isIncompatible());
+	}
+
+	@Test
+	public void testNullRowFieldsAreNotMaterialized() throws IOException {
+		TypeSerializer<LazyRow> serializer = TYPE_INFO.createSerializer(new ExecutionConfig());
+		LazyRow row = roundTrip(serializer, LazyRow.of(null, "b", null));
+
+		assertNull(row.getField(0));
+		assertNull(row.getField(2));
+		assertEquals("b", row.getField(1));
+	}
+
+	// ----------------------------------------------------------------------------------------------
+
+	private static byte[] serialize(TypeSerializer<LazyRow> serializer, LazyRow row) throws IOException {
+		DataOutputSerializer out = new DataOutputSerializer(64);
+		serializer.serialize(row, out);
+		return out.getCopyOfBuffer();
+	}
+
+	private static LazyRow roundTrip(TypeSerializer<LazyRow> serializer, LazyRow row) throws IOException {
+		return serializer.deserialize(new DataInputDeserializer(serialize(serializer, row)));
+	}
+
+	private static TypeSerializerSnapshot<LazyRow> writeAndReadSnapshot(TypeSerializer<LazyRow> serializer) throws IOException {
+		DataOutputSerializer out = new DataOutputSerializer(64);
+		TypeSerializerSnapshotSerializationUtil.writeSerializerSnapshot(out, serializer.snapshotConfiguration(), serializer);
+
+		DataInputDeserializer in = new DataInputDeserializer(out.getCopyOfBuffer());
+		return TypeSerializerSnapshotSerializationUtil.readSerializerSnapshot(
+			in, Thread.currentThread().getContextClassLoader(), null);
+	}
+
+	private static class LazyRowSerializerTestInstance extends SerializerTestInstance<LazyRow> {
+
+		LazyRowSerializerTestInstance(
+			TypeSerializer<LazyRow> serializer,
+			LazyRow... testData) {
+			super(serializer, LazyRow.class, -1, testData);
+		}
+	}
+}
@@ -0,0 +1,83 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.api.java.typeutils.runtime;
+
+import org.apache.flink.api.common.ExecutionConfig;
+import org.apache.flink.api.common.operators.Keys.ExpressionKeys;
+import org.apache.flink.api.common.typeinfo.TypeInformation;
+import org.apache.flink.api.common.typeutils.ComparatorTestBase;
+import org.apache.flink.api.common.typeutils.CompositeType;
+import org.apache.flink.api.common.typeutils.TypeComparator;
+import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.api.java.typeutils.TypeExtractor;
+
+import java.util.Arrays;
+
+/**
+ * Tests for the {@link PojoComparator} with code generated field access.
+ */
+public class PojoComparatorCodeGenerationTest extends ComparatorTestBase<PojoSerializerCodeGenerationTest.PrimitivesPojo> {
+
+	private final TypeInformation<PojoSerializerCodeGenerationTest.PrimitivesPojo> type =
+		TypeExtractor.getForClass(PojoSerializerCodeGenerationTest.PrimitivesPojo.class);
+
+	private final PojoSerializerCodeGenerationTest.PrimitivesPojo[] data = new PojoSerializerCodeGenerationTest.PrimitivesPojo[] {
+		createPojo(-5, 1L, "a"),
+		createPojo(-5, 2L, "a"),
+		createPojo(1, 2L, "a"),
+		createPojo(1, 2L, "b"),
+		createPojo(8520, -1L, "b"),
+		createPojo(8521, 0L, "a")
+	};
+
+	@Override
+	protected TypeComparator<PojoSerializerCodeGenerationTest.PrimitivesPojo> createComparator(boolean ascending) {
+		CompositeType<PojoSerializerCodeGenerationTest.PrimitivesPojo> cType =
+			(CompositeType<PojoSerializerCodeGenerationTest.PrimitivesPojo>) type;
+		ExpressionKeys<PojoSerializerCodeGenerationTest.PrimitivesPojo> keys =
+			new ExpressionKeys<>(new String[] {"intValue", "longValue", "stringValue"}, cType);
+		boolean[] orders = new boolean[keys.getNumberOfKeyFields()];
+		Arrays.fill(orders, ascending);
+		return cType.createComparator(keys.computeLogicalKeyPositions(), orders, 0, createExecutionConfig());
+	}
+
+	@Override
+	protected TypeSerializer<PojoSerializerCodeGenerationTest.PrimitivesPojo> createSerializer() {
+		return type.createSerializer(createExecutionConfig());
+	}
+
+	@Override
+	protected PojoSerializerCodeGenerationTest.PrimitivesPojo[] getSortedTestData() {
+		return data;
+	}
+
+	private static ExecutionConfig createExecutionConfig() {
+		ExecutionConfig config = new ExecutionConfig();
+		config.enablePojoCodeGeneration();
+		return config;
+	}
+
+	private static PojoSerializerCodeGenerationTest.PrimitivesPojo createPojo(int intValue, long longValue, String stringValue) {
+		PojoSerializerCodeGenerationTest.PrimitivesPojo pojo = new PojoSerializerCodeGenerationTest.PrimitivesPojo();
+		pojo.setIntValue(intValue);
+		pojo.setLongValue(longValue);
+		pojo.setStringValue(stringValue);
+		return pojo;
+	}
+}
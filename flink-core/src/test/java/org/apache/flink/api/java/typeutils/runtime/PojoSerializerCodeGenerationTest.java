@@ -0,0 +1,360 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.api.java.typeutils.runtime;
+
+import org.apache.flink.api.common.ExecutionConfig;
+import org.apache.flink.api.common.typeinfo.TypeInformation;
+import org.apache.flink.api.common.typeutils.SerializerTestBase;
+import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.api.common.typeutils.base.IntSerializer;
+import org.apache.flink.api.java.typeutils.TypeExtractor;
+import org.apache.flink.api.java.typeutils.runtime.kryo.KryoSerializer;
+import org.apache.flink.core.memory.DataInputDeserializer;
+import org.apache.flink.core.memory.DataOutputSerializer;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Objects;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Tests for the {@link PojoSerializer} with code generated field access.
+ */
+public class PojoSerializerCodeGenerationTest extends SerializerTestBase<PojoSerializerCodeGenerationTest.PrimitivesPojo> {
+
+	private final TypeInformation<PrimitivesPojo> type = TypeExtractor.getForClass(PrimitivesPojo.class);
+
+	@Override
+	protected TypeSerializer<PrimitivesPojo> createSerializer() {
+		return createSerializer(true);
+	}
+
+	@Override
+	protected int getLength() {
+		return -1;
+	}
+
+	@Override
+	protected Class<PrimitivesPojo> getTypeClass() {
+		return PrimitivesPojo.class;
+	}
+
+	@Override
+	protected PrimitivesPojo[] getTestData() {
+		return new PrimitivesPojo[] {
+			new PrimitivesPojo(),
+			new PrimitivesPojo(true, (byte) 7, (short) -3, 'x', 42, Long.MIN_VALUE, 1.5f, Double.NaN, 17, "foo",
+				new PojoSerializerTest.NestedTestUserClass(3, "bar", 0.5, new int[] {1, 2})),
+			new PrimitivesPojo(false, Byte.MAX_VALUE, Short.MIN_VALUE, '\u1234', -1, 1L, -0.0f, 3.25, null, null, null)
+		};
+	}
+
+	@Test
+	public void testAccessorIsGenerated() {
+		PojoSerializer<PrimitivesPojo> serializer = createSerializer(true);
+		assertNotNull(serializer.getFieldAccessor());
+		assertNotNull(serializer.duplicate().getFieldAccessor());
+
+		assertNull(createSerializer(false).getFieldAccessor());
+	}
+
+	@Test
+	public void testSameBinaryFormatAsReflection() throws IOException {
+		PojoSerializer<PrimitivesPojo> generated = createSerializer(true);
+		PojoSerializer<PrimitivesPojo> reflective = createSerializer(false);
+
+		for (PrimitivesPojo pojo : getTestData()) {
+			byte[] generatedBytes = serialize(generated, pojo);
+			byte[] reflectiveBytes = serialize(reflective, pojo);
+			assertArrayEquals(reflectiveBytes, generatedBytes);
+
+			assertEquals(pojo, generated.deserialize(new DataInputDeserializer(reflectiveBytes)));
+			assertEquals(pojo, reflective.deserialize(new DataInputDeserializer(generatedBytes)));
+		}
+	}
+
+	@Test
+	public void testFallbackForNonPublicClass() throws Exception {
+		ExecutionConfig config = new ExecutionConfig();
+		config.enablePojoCodeGeneration();
+		PojoSerializer<NonPublicPojo> serializer = new PojoSerializer<>(
+			NonPublicPojo.class,
+			new TypeSerializer<?>[] {IntSerializer.INSTANCE},
+			new Field[] {NonPublicPojo.class.getField("value")},
+			config);
+
+		assertNull(serializer.getFieldAccessor());
+
+		NonPublicPojo pojo = new NonPublicPojo();
+		pojo.value = 12;
+		assertEquals(12, serializer.deserialize(new DataInputDeserializer(serialize(serializer, pojo))).value);
+	}
+
+	@Test
+	public void testPrimitiveFieldWithCustomSerializer() throws Exception {
+		ExecutionConfig config = new ExecutionConfig();
+		config.enablePojoCodeGeneration();
+		PojoSerializer<CustomPojo> serializer = new PojoSerializer<>(
+			CustomPojo.class,
+			new TypeSerializer<?>[] {new KryoSerializer<>(Integer.class, config)},
+			new Field[] {CustomPojo.class.getField("value")},
+			config);
+		assertNotNull(serializer.getFieldAccessor());
+
+		CustomPojo pojo = new CustomPojo();
+		pojo.value = 31;
+		CustomPojo copy = serializer.deserialize(new DataInputDeserializer(serialize(serializer, pojo)));
+		assertEquals(31, copy.value);
+		assertEquals(31, serializer.copy(pojo).value);
+		assertEquals(31, serializer.copy(pojo, new CustomPojo()).value);
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testMissingField() throws Exception {
+		PojoSerializer<PrimitivesPojo> reflective = createSerializer(false);
+		Field[] fields = reflective.getFields().clone();
+		int intField = -1;
+		for (int i = 0; i < fields.length; i++) {
+			if (fields[i].getName().equals("intValue")) {
+				intField = i;
+				fields[i] = null;
+			}
+		}
+
+		ExecutionConfig config = new ExecutionConfig();
+		config.enablePojoCodeGeneration();
+		PojoSerializer<PrimitivesPojo> restored = new PojoSerializer<>(
+			PrimitivesPojo.class,
+			fields,
+			(TypeSerializer<Object>[]) reflective.getFieldSerializers(),
+			new LinkedHashMap<>(),
+			new TypeSerializer<?>[0],
+			new HashMap<>(),
+			config);
+		assertNotNull(restored.getFieldAccessor());
+		assertEquals(IntSerializer.INSTANCE, reflective.getFieldSerializers()[intField]);
+
+		PrimitivesPojo pojo = getTestData()[1];
+		PrimitivesPojo result = restored.deserialize(new DataInputDeserializer(serialize(reflective, pojo)));
+
+		pojo.setIntValue(0);
+		assertEquals(pojo, result);
+	}
+
+	@SuppressWarnings("unchecked")
+	private PojoSerializer<PrimitivesPojo> createSerializer(boolean codeGeneration) {
+		ExecutionConfig config = new ExecutionConfig();
+		if (codeGeneration) {
+			config.enablePojoCodeGeneration();
+		}
+		return (PojoSerializer<PrimitivesPojo>) type.createSerializer(config);
+	}
+
+	private static <T> byte[] serialize(TypeSerializer<T> serializer, T value) throws IOException {
+		DataOutputSerializer out = new DataOutputSerializer(64);
+		serializer.serialize(value, out);
+		return out.getCopyOfBuffer();
+	}
+
+	// --------------------------------------------------------------------------------------------
+
+	/**
+	 * A POJO with private fields of all primitive types.
+	 */
+	public static class PrimitivesPojo {
+
+		private boolean booleanValue;
+		private byte byteValue;
+		private short shortValue;
+		private char charValue;
+		private volatile int intValue;
+		private long longValue;
+		private float floatValue;
+		private double doubleValue;
+		private Integer boxedValue;
+		private String stringValue;
+		private PojoSerializerTest.NestedTestUserClass nested;
+
+		public PrimitivesPojo() {}
+
+		public PrimitivesPojo(
+				boolean booleanValue,
+				byte byteValue,
+				short shortValue,
+				char charValue,
+				int intValue,
+				long longValue,
+				float floatValue,
+				double doubleValue,
+				Integer boxedValue,
+				String stringValue,
+				PojoSerializerTest.NestedTestUserClass nested) {
+			this.booleanValue = booleanValue;
+			this.byteValue = byteValue;
+			this.shortValue = shortValue;
+			this.charValue = charValue;
+			this.intValue = intValue;
+			this.longValue = longValue;
+			this.floatValue = floatValue;
+			this.doubleValue = doubleValue;
+			this.boxedValue = boxedValue;
+			this.stringValue = stringValue;
+			this.nested = nested;
+		}
+
+		public boolean isBooleanValue() {
+			return booleanValue;
+		}
+
+		public void setBooleanValue(boolean booleanValue) {
+			this.booleanValue = booleanValue;
+		}
+
+		public byte getByteValue() {
+			return byteValue;
+		}
+
+		public void setByteValue(byte byteValue) {
+			this.byteValue = byteValue;
+		}
+
+		public short getShortValue() {
+			return shortValue;
+		}
+
+		public void setShortValue(short shortValue) {
+			this.shortValue = shortValue;
+		}
+
+		public char getCharValue() {
+			return charValue;
+		}
+
+		public void setCharValue(char charValue) {
+			this.charValue = charValue;
+		}
+
+		public int getIntValue() {
+			return intValue;
+		}
+
+		public void setIntValue(int intValue) {
+			this.intValue = intValue;
+		}
+
+		public long getLongValue() {
+			return longValue;
+		}
+
+		public void setLongValue(long longValue) {
+			this.longValue = longValue;
+		}
+
+		public float getFloatValue() {
+			return floatValue;
+		}
+
+		public void setFloatValue(float floatValue) {
+			this.floatValue = floatValue;
+		}
+
+		public double getDoubleValue() {
+			return doubleValue;
+		}
+
+		public void setDoubleValue(double doubleValue) {
+			this.doubleValue = doubleValue;
+		}
+
+		public Integer getBoxedValue() {
+			return boxedValue;
+		}
+
+		public void setBoxedValue(Integer boxedValue) {
+			this.boxedValue = boxedValue;
+		}
+
+		public String getStringValue() {
+			return stringValue;
+		}
+
+		public void setStringValue(String stringValue) {
+			this.stringValue = stringValue;
+		}
+
+		public PojoSerializerTest.NestedTestUserClass getNested() {
+			return nested;
+		}
+
+		public void setNested(PojoSerializerTest.NestedTestUserClass nested) {
+			this.nested = nested;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (o == null || getClass() != o.getClass()) {
+				return false;
+			}
+			PrimitivesPojo that = (PrimitivesPojo) o;
+			return booleanValue == that.booleanValue &&
+				byteValue == that.byteValue &&
+				shortValue == that.shortValue &&
+				charValue == that.charValue &&
+				intValue == that.intValue &&
+				longValue == that.longValue &&
+				Float.compare(floatValue, that.floatValue) == 0 &&
+				Double.compare(doubleValue, that.doubleValue) == 0 &&
+				Objects.equals(boxedValue, that.boxedValue) &&
+				Objects.equals(stringValue, that.stringValue) &&
+				Objects.equals(nested, that.nested);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(booleanValue, byteValue, shortValue, charValue, intValue, longValue,
+				floatValue, doubleValue, boxedValue, stringValue, nested);
+		}
+	}
+
+	/**
+	 * A POJO with a primitive field that is used with a custom serializer.
+	 */
+	public static class CustomPojo {
+		public int value;
+	}
+
+	/**
+	 * A POJO class that is not public, for which no accessor can be generated.
+	 */
+	static class NonPublicPojo {
+		public int value;
+	}
+}
@@ -21,6 +21,7 @@ package org.apache.flink.api.java.typeutils.runtime;
 import org.apache.flink.api.common.ExecutionConfig;
 import org.apache.flink.api.common.operators.Keys.ExpressionKeys;
 import org.apache.flink.api.common.operators.Keys.IncompatibleKeysException;
+import org.apache.flink.api.common.typeinfo.ImmutableType;
 import org.apache.flink.api.common.typeinfo.TypeInformation;
 import org.apache.flink.api.common.typeutils.CompositeType.FlatFieldDescriptor;
 import org.apache.flink.api.common.typeutils.SerializerTestBase;
@@ -36,6 +37,8 @@ import org.apache.flink.api.java.typeutils.TupleTypeInfo;
 import org.apache.flink.api.java.typeutils.TypeExtractor;
 import org.apache.flink.core.memory.DataInputViewStreamWrapper;
 import org.apache.flink.core.memory.DataOutputViewStreamWrapper;
+import org.apache.flink.util.InstantiationUtil;
+
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -48,6 +51,8 @@ import java.util.Objects;
 import java.util.Random;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 /**
@@ -214,6 +219,20 @@ public class PojoSerializerTest extends SerializerTestBase<PojoSerializerTest.Te
 
 		public SubTestUserClassB() {}
 	}
+
+	@ImmutableType
+	public static class ImmutableTestUserClass {
+		public int dumm1;
+		public String dumm2;
+
+		public ImmutableTestUserClass() {}
+	}
+
+	public static class SubImmutableTestUserClass extends ImmutableTestUserClass {
+		public long subDumm1;
+
+		public SubImmutableTestUserClass() {}
+	}
 	
 	/**
 	 * This tests if the hashes returned by the pojo and tuple comparators are the same
@@ -469,4 +488,23 @@ public class PojoSerializerTest extends SerializerTestBase<PojoSerializerTest.Te
 		assertTrue(reconfiguredPojoSerializer.getRegisteredClasses().containsKey(SubTestUserClassA.class));
 		assertTrue(reconfiguredPojoSerializer.getRegisteredClasses().containsKey(SubTestUserClassB.class));
 	}
+
+	@Test
+	public void testImmutableTypeIsNotCopied() throws Exception {
+		assertFalse(type.createSerializer(new ExecutionConfig()).isImmutableType());
+
+		TypeSerializer<ImmutableTestUserClass> serializer =
+			TypeExtractor.getForClass(ImmutableTestUserClass.class).createSerializer(new ExecutionConfig());
+		assertTrue(serializer instanceof PojoSerializer);
+		assertTrue(serializer.isImmutableType());
+		assertTrue(serializer.duplicate().isImmutableType());
+		assertTrue(InstantiationUtil.clone(serializer).isImmutableType());
+
+		ImmutableTestUserClass value = new ImmutableTestUserClass();
+		assertSame(value, serializer.copy(value));
+		assertSame(value, serializer.copy(value, new ImmutableTestUserClass()));
+
+		SubImmutableTestUserClass subclassValue = new SubImmutableTestUserClass();
+		assertSame(subclassValue, serializer.copy(subclassValue));
+	}
 }
@@ -0,0 +1,92 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.api.java.typeutils.runtime;
+
+import org.apache.flink.api.common.ExecutionConfig;
+import org.apache.flink.api.common.typeinfo.BasicTypeInfo;
+import org.apache.flink.api.common.typeutils.ComparatorTestBase;
+import org.apache.flink.api.common.typeutils.TypeComparator;
+import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.api.java.typeutils.RowTypeInfo;
+import org.apache.flink.types.Row;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+/**
+ * Tests the {@link RowComparator} on nullable key fields that are sorted in opposite directions.
+ */
+public class RowComparatorMixedOrderTest extends ComparatorTestBase<Row> {
+
+	private static final RowTypeInfo typeInfo = new RowTypeInfo(
+		BasicTypeInfo.INT_TYPE_INFO,
+		BasicTypeInfo.SHORT_TYPE_INFO);
+
+	private static final Row[] data = new Row[]{
+		Row.of(null, (short) 5),
+		Row.of(null, null),
+		Row.of(0, (short) 3),
+		Row.of(0, (short) -2),
+		Row.of(0, null),
+		Row.of(1, Short.MAX_VALUE),
+		Row.of(1, (short) 0),
+		Row.of(1, Short.MIN_VALUE),
+		Row.of(Integer.MAX_VALUE, null)
+	};
+
+	@Test
+	public void testNormalizedKeyCoversAllFields() {
+		TypeComparator<Row> comparator = getComparator(true);
+
+		// one null marker byte per field, followed by the field's own normalized key
+		assertEquals(8, comparator.getNormalizeKeyLen());
+		assertFalse(comparator.isNormalizedKeyPrefixOnly(8));
+	}
+
+	@Override
+	protected void deepEquals(String message, Row should, Row is) {
+		assertEquals(message, should, is);
+	}
+
+	@Override
+	protected TypeComparator<Row> createComparator(boolean ascending) {
+		return typeInfo.createComparator(
+			new int[] {0, 1},
+			new boolean[] {ascending, !ascending},
+			0,
+			new ExecutionConfig());
+	}
+
+	@Override
+	protected TypeSerializer<Row> createSerializer() {
+		return typeInfo.createSerializer(new ExecutionConfig());
+	}
+
+	@Override
+	protected Row[] getSortedTestData() {
+		return data;
+	}
+
+	@Override
+	protected boolean supportsNullKeys() {
+		return true;
+	}
+}
@@ -73,12 +73,16 @@ public class RowComparatorWithManyFieldsTests extends ComparatorTestBase<Row> {
 			new int[]{0},
 			new boolean[]{ascending},
 			0,
-			new ExecutionConfig());
+			createExecutionConfig());
 	}
 
 	@Override
 	protected TypeSerializer<Row> createSerializer() {
-		return typeInfo.createSerializer(new ExecutionConfig());
+		return typeInfo.createSerializer(createExecutionConfig());
+	}
+
+	protected ExecutionConfig createExecutionConfig() {
+		return new ExecutionConfig();
 	}
 
 	@Override
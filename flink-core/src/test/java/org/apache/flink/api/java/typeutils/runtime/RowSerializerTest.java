@@ -22,16 +22,25 @@ import org.apache.flink.api.common.typeinfo.BasicTypeInfo;
 import org.apache.flink.api.common.typeinfo.TypeInformation;
 import org.apache.flink.api.common.typeutils.SerializerTestInstance;
 import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.api.common.typeutils.TypeSerializerSchemaCompatibility;
+import org.apache.flink.api.common.typeutils.TypeSerializerSnapshot;
+import org.apache.flink.api.common.typeutils.TypeSerializerSnapshotSerializationUtil;
 import org.apache.flink.api.java.tuple.Tuple3;
 import org.apache.flink.api.java.typeutils.RowTypeInfo;
 import org.apache.flink.api.java.typeutils.TupleTypeInfo;
 import org.apache.flink.api.java.typeutils.TypeExtractor;
+import org.apache.flink.core.memory.DataInputDeserializer;
+import org.apache.flink.core.memory.DataOutputSerializer;
 import org.apache.flink.types.Row;
 
 import org.junit.Test;
 
+import java.io.IOException;
 import java.io.Serializable;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
 public class RowSerializerTest {
 
 	@Test
@@ -88,6 +97,64 @@ public class RowSerializerTest {
 		testInstance.testAll();
 	}
 
+	@Test
+	public void testCompactLargeRowSerializer() {
+		TypeInformation<?>[] fieldTypes = new TypeInformation<?>[12];
+		Row rowWithoutNulls = new Row(12);
+		Row rowWithNulls = new Row(12);
+		for (int i = 0; i < 12; i++) {
+			fieldTypes[i] = BasicTypeInfo.LONG_TYPE_INFO;
+			rowWithoutNulls.setField(i, (long) i);
+			rowWithNulls.setField(i, i % 3 == 0 ? null : (long) -i);
+		}
+
+		ExecutionConfig config = new ExecutionConfig();
+		config.enableCompactSerialization();
+		TypeSerializer<Row> serializer = new RowTypeInfo(fieldTypes).createSerializer(config);
+
+		RowSerializerTestInstance testInstance = new RowSerializerTestInstance(serializer, rowWithoutNulls, rowWithNulls);
+		testInstance.testAll();
+	}
+
+	@Test
+	public void testCompactRowSerializerWritesFewerBytes() throws IOException {
+		TypeInformation<?>[] fieldTypes = new TypeInformation<?>[12];
+		Row row = new Row(12);
+		for (int i = 0; i < 12; i++) {
+			fieldTypes[i] = BasicTypeInfo.INT_TYPE_INFO;
+			row.setField(i, i);
+		}
+		RowTypeInfo typeInfo = new RowTypeInfo(fieldTypes);
+
+		ExecutionConfig config = new ExecutionConfig();
+		config.enableCompactSerialization();
+
+		// a null mask of two bytes and 12 ints, vs. a flag and 12 single byte varints
+		assertEquals(2 + 12 * 4, getSerializedLength(typeInfo.createSerializer(new ExecutionConfig()), row));
+		assertEquals(1 + 12, getSerializedLength(typeInfo.createSerializer(config), row));
+	}
+
+	@Test
+	public void testMigrationToAndFromCompactRowSerializer() throws IOException {
+		RowTypeInfo typeInfo = new RowTypeInfo(BasicTypeInfo.INT_TYPE_INFO, BasicTypeInfo.STRING_TYPE_INFO);
+
+		ExecutionConfig compactConfig = new ExecutionConfig();
+		compactConfig.enableCompactSerialization();
+		TypeSerializer<Row> serializer = typeInfo.createSerializer(new ExecutionConfig());
+		TypeSerializer<Row> compactSerializer = typeInfo.createSerializer(compactConfig);
+
+		TypeSerializerSnapshot<Row> snapshot = writeAndReadSnapshot(serializer);
+		TypeSerializerSnapshot<Row> compactSnapshot = writeAndReadSnapshot(compactSerializer);
+
+		assertEquals(compactSerializer, compactSnapshot.restoreSerializer());
+
+		TypeSerializerSchemaCompatibility<Row> toCompact = snapshot.resolveSchemaCompatibility(compactSerializer);
+		TypeSerializerSchemaCompatibility<Row> fromCompact = compactSnapshot.resolveSchemaCompatibility(serializer);
+		assertTrue(toCompact.isCompatibleAfterMigration());
+		assertTrue(fromCompact.isCompatibleAfterMigration());
+		assertTrue(compactSnapshot.resolveSchemaCompatibility(compactSerializer).isCompatibleAsIs());
+	}
+
 	@Test
 	public void testRowSerializerWithComplexTypes() {
 		TypeInformation<Row> typeInfo = new RowTypeInfo(
@@ -131,6 +198,21 @@ public class RowSerializerTest {
 
 	// ----------------------------------------------------------------------------------------------
 
+	private static int getSerializedLength(TypeSerializer<Row> serializer, Row row) throws IOException {
+		DataOutputSerializer out = new DataOutputSerializer(64);
+		serializer.serialize(row, out);
+		return out.length();
+	}
+
+	private static TypeSerializerSnapshot<Row> writeAndReadSnapshot(TypeSerializer<Row> serializer) throws IOException {
+		DataOutputSerializer out = new DataOutputSerializer(64);
+		TypeSerializerSnapshotSerializationUtil.writeSerializerSnapshot(out, serializer.snapshotConfiguration(), serializer);
+
+		DataInputDeserializer in = new DataInputDeserializer(out.getCopyOfBuffer());
+		return TypeSerializerSnapshotSerializationUtil.readSerializerSnapshot(
+			in, Thread.currentThread().getContextClassLoader(), null);
+	}
+
 	private static Row createRow(Object f0, Object f1, Object f2, Object f3, Object f4) {
 		Row row = new Row(5);
 		row.setField(0, f0);
@@ -0,0 +1,90 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.api.java.typeutils.runtime;
+
+import org.apache.flink.api.common.typeutils.TypeComparator;
+import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.api.common.typeutils.base.DoubleSerializer;
+import org.apache.flink.api.common.typeutils.base.IntComparator;
+import org.apache.flink.api.common.typeutils.base.IntSerializer;
+import org.apache.flink.api.java.tuple.Tuple3;
+import org.apache.flink.api.java.typeutils.runtime.tuple.base.TupleComparatorTestBase;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests the {@link TupleComparator} on a composite key whose fields are sorted in opposite directions.
+ */
+public class TupleComparatorIIMixedOrderTest extends TupleComparatorTestBase<Tuple3<Integer, Integer, Double>> {
+
+	@SuppressWarnings("unchecked")
+	Tuple3<Integer, Integer, Double>[] dataIID = new Tuple3[]{
+		new Tuple3<Integer, Integer, Double>(Integer.MIN_VALUE, Integer.MAX_VALUE, 20.0),
+		new Tuple3<Integer, Integer, Double>(Integer.MIN_VALUE, 0, 23.2),
+		new Tuple3<Integer, Integer, Double>(-3, 15, 20.0),
+		new Tuple3<Integer, Integer, Double>(-3, -1, 20.0),
+		new Tuple3<Integer, Integer, Double>(4, 256, 23.2),
+		new Tuple3<Integer, Integer, Double>(4, 255, 20.0),
+		new Tuple3<Integer, Integer, Double>(4, Integer.MIN_VALUE, 20.0),
+		new Tuple3<Integer, Integer, Double>(7, 29, 23.2),
+		new Tuple3<Integer, Integer, Double>(Integer.MAX_VALUE, 1, 20.0)
+	};
+
+	@Test
+	public void testNormalizedKeyCoversAllFields() {
+		TypeComparator<Tuple3<Integer, Integer, Double>> comparator = getComparator(true);
+
+		assertTrue(comparator.supportsNormalizedKey());
+		assertEquals(8, comparator.getNormalizeKeyLen());
+		assertFalse(comparator.isNormalizedKeyPrefixOnly(8));
+		assertFalse(comparator.invertNormalizedKey());
+		assertTrue(getComparator(false).invertNormalizedKey());
+	}
+
+	@Override
+	protected TupleComparator<Tuple3<Integer, Integer, Double>> createComparator(boolean ascending) {
+		return new TupleComparator<Tuple3<Integer, Integer, Double>>(
+				new int[]{0, 1},
+				new TypeComparator[]{
+					new IntComparator(ascending),
+					new IntComparator(!ascending)
+				},
+				new TypeSerializer[]{ IntSerializer.INSTANCE, IntSerializer.INSTANCE });
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	protected TupleSerializer<Tuple3<Integer, Integer, Double>> createSerializer() {
+		return new TupleSerializer<Tuple3<Integer, Integer, Double>>(
+				(Class<Tuple3<Integer, Integer, Double>>) (Class<?>) Tuple3.class,
+				new TypeSerializer[]{
+					new IntSerializer(),
+					new IntSerializer(),
+					new DoubleSerializer()});
+	}
+
+	@Override
+	protected Tuple3<Integer, Integer, Double>[] getSortedTestData() {
+		return dataIID;
+	}
+}
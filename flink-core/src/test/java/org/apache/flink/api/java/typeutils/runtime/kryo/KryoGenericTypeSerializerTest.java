@@ -21,10 +21,12 @@ package org.apache.flink.api.java.typeutils.runtime.kryo;
 import com.esotericsoftware.kryo.Kryo;
 
 import org.apache.flink.api.common.ExecutionConfig;
+import org.apache.flink.api.common.typeinfo.ImmutableType;
 import org.apache.flink.api.common.typeutils.ComparatorTestBase;
 import org.apache.flink.api.java.typeutils.runtime.AbstractGenericTypeSerializerTest;
 import org.apache.flink.api.java.typeutils.runtime.TestDataOutputSerializer;
 import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.util.InstantiationUtil;
 
 import org.junit.Test;
 
@@ -165,4 +167,27 @@ public class KryoGenericTypeSerializerTest extends AbstractGenericTypeSerializer
 		Kryo kryo = serializer.getKryo();
 		assertTrue(kryo.getReferences());
 	}
+
+	@Test
+	public void testImmutableTypeIsNotCopied() throws Exception {
+		KryoSerializer<ImmutableValue> serializer = new KryoSerializer<>(ImmutableValue.class, new ExecutionConfig());
+		assertTrue(serializer.isImmutableType());
+		assertTrue(serializer.duplicate().isImmutableType());
+		assertTrue(InstantiationUtil.clone(serializer).isImmutableType());
+
+		ImmutableValue value = new ImmutableValue(42L);
+		assertSame(value, serializer.copy(value));
+		assertSame(value, serializer.copy(value, new ImmutableValue(1L)));
+
+		assertFalse(new KryoSerializer<>(Random.class, new ExecutionConfig()).isImmutableType());
+	}
+
+	@ImmutableType
+	private static final class ImmutableValue {
+		private final long value;
+
+		ImmutableValue(long value) {
+			this.value = value;
+		}
+	}
 }
@@ -0,0 +1,104 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.api.java.typeutils.runtime.kryo;
+
+import org.apache.flink.util.TestLogger;
+
+import com.esotericsoftware.kryo.Kryo;
+import org.junit.Test;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Tests for the {@link KryoPool}.
+ */
+public class KryoPoolTest extends TestLogger {
+
+	@Test
+	public void testReleasedInstanceIsReused() {
+		KryoPool.Lease first = lease(new Object(), "reused config");
+		Kryo kryo = first.getKryo();
+		assertNotNull(first.getPool());
+
+		KryoPool.Lease second = lease(new Object(), "reused config");
+		assertNotSame(kryo, second.getKryo());
+
+		first.release();
+		KryoPool.Lease third = lease(new Object(), "reused config");
+		assertSame(kryo, third.getKryo());
+		assertSame(first.getPool(), third.getPool());
+	}
+
+	@Test
+	public void testInstancesAreNotSharedBetweenConfigurations() {
+		KryoPool.Lease first = lease(new Object(), "first config");
+		first.release();
+
+		KryoPool.Lease second = lease(new Object(), "second config");
+		assertNotSame(first.getKryo(), second.getKryo());
+		assertNotSame(first.getPool(), second.getPool());
+	}
+
+	@Test
+	public void testDiscardedInstanceIsNotReused() {
+		KryoPool.Lease first = lease(new Object(), "discarded config");
+		first.discardOnRelease();
+		first.release();
+
+		assertEquals(0, first.getPool().getNumIdleInstances());
+		assertNotSame(first.getKryo(), lease(new Object(), "discarded config").getKryo());
+	}
+
+	@Test
+	public void testNumberOfIdleInstancesIsBounded() {
+		KryoPool.Lease[] leases = new KryoPool.Lease[KryoPool.MAX_NUM_IDLE_INSTANCES + 3];
+		for (int i = 0; i < leases.length; i++) {
+			leases[i] = lease(new Object(), "bounded config");
+		}
+		for (KryoPool.Lease lease : leases) {
+			lease.release();
+		}
+
+		assertEquals(KryoPool.MAX_NUM_IDLE_INSTANCES, leases[0].getPool().getNumIdleInstances());
+	}
+
+	@Test
+	public void testTypesOfOtherClassLoadersAreNotPooled() {
+		ClassLoader classLoader = new URLClassLoader(new URL[0], getClass().getClassLoader());
+		KryoPool.Lease lease = KryoPool.lease(new Object(), PooledType.class, classLoader, "config", Kryo::new);
+
+		assertNull(lease.getPool());
+	}
+
+	private static KryoPool.Lease lease(Object owner, String configuration) {
+		return KryoPool.lease(owner, PooledType.class, PooledType.class.getClassLoader(), configuration, Kryo::new);
+	}
+
+	/**
+	 * The type of the pooled instances.
+	 */
+	public static class PooledType {}
+}
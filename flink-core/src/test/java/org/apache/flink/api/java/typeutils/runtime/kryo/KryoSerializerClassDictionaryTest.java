@@ -0,0 +1,183 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.api.java.typeutils.runtime.kryo;
+
+import org.apache.flink.api.common.ExecutionConfig;
+import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.api.common.typeutils.TypeSerializerSchemaCompatibility;
+import org.apache.flink.api.common.typeutils.TypeSerializerSnapshot;
+import org.apache.flink.core.memory.DataInputDeserializer;
+import org.apache.flink.core.memory.DataOutputSerializer;
+import org.apache.flink.util.TestLogger;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.apache.flink.api.common.typeutils.TypeSerializerMatchers.isCompatibleAsIs;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for the class dictionary and the statistics of the {@link KryoSerializer}.
+ */
+public class KryoSerializerClassDictionaryTest extends TestLogger {
+
+	@Test
+	public void testDictionaryClassesAreRegistered() {
+		KryoSerializer<Outer> serializer = new KryoSerializer<>(Outer.class, dictionaryConfig());
+
+		assertTrue(serializer.getKryoRegistrations().containsKey(Inner.class.getName()));
+		assertTrue(serializer.getKryo().getRegistration(Inner.class).getId() > 0);
+
+		KryoSerializer<Outer> withoutDictionary = new KryoSerializer<>(Outer.class, new ExecutionConfig());
+		assertFalse(withoutDictionary.getKryoRegistrations().containsKey(Inner.class.getName()));
+	}
+
+	@Test
+	public void testDictionaryMakesRecordsSmaller() throws IOException {
+		KryoSerializer<Outer> withDictionary = new KryoSerializer<>(Outer.class, dictionaryConfig());
+		KryoSerializer<Outer> withoutDictionary = new KryoSerializer<>(Outer.class, new ExecutionConfig());
+
+		Outer record = createRecord();
+		byte[] compact = serialize(withDictionary, record);
+		byte[] verbose = serialize(withoutDictionary, record);
+
+		assertTrue(compact.length + Inner.class.getName().length() <= verbose.length);
+		assertEquals(record, withDictionary.deserialize(new DataInputDeserializer(compact)));
+	}
+
+	@Test
+	public void testRecordsWithoutDictionaryCanBeRead() throws IOException {
+		KryoSerializer<Outer> withDictionary = new KryoSerializer<>(Outer.class, dictionaryConfig());
+		KryoSerializer<Outer> withoutDictionary = new KryoSerializer<>(Outer.class, new ExecutionConfig());
+
+		Outer record = createRecord();
+		assertEquals(record, withDictionary.deserialize(new DataInputDeserializer(serialize(withoutDictionary, record))));
+	}
+
+	@Test
+	public void testDictionaryIsRestoredFromSnapshot() throws IOException {
+		KryoSerializer<Outer> serializer = new KryoSerializer<>(Outer.class, dictionaryConfig());
+		Outer record = createRecord();
+		byte[] bytes = serialize(serializer, record);
+
+		DataOutputSerializer out = new DataOutputSerializer(256);
+		TypeSerializerSnapshot.writeVersionedSnapshot(out, serializer.snapshotConfiguration());
+		TypeSerializerSnapshot<Outer> snapshot = TypeSerializerSnapshot.readVersionedSnapshot(
+			new DataInputDeserializer(out.getCopyOfBuffer()), getClass().getClassLoader());
+
+		TypeSerializer<Outer> restored = snapshot.restoreSerializer();
+		assertEquals(record, restored.deserialize(new DataInputDeserializer(bytes)));
+
+		TypeSerializerSchemaCompatibility<Outer> compatibility = snapshot.resolveSchemaCompatibility(
+			new KryoSerializer<>(Outer.class, dictionaryConfig()));
+		assertThat(compatibility, isCompatibleAsIs());
+	}
+
+	@Test
+	public void testEnablingDictionaryIsCompatibleAsIs() {
+		KryoSerializer<Outer> previous = new KryoSerializer<>(Outer.class, new ExecutionConfig());
+		TypeSerializerSchemaCompatibility<Outer> compatibility = previous.snapshotConfiguration()
+			.resolveSchemaCompatibility(new KryoSerializer<>(Outer.class, dictionaryConfig()));
+
+		// the classes of the dictionary are registered after the previous registrations
+		assertThat(compatibility, isCompatibleAsIs());
+	}
+
+	@Test
+	public void testStatisticsOfSerializedRecords() throws IOException {
+		KryoSerializer<Outer> serializer = new KryoSerializer<>(Outer.class, new ExecutionConfig());
+		KryoSerializerStatistics.TypeStatistics statistics = KryoSerializerStatistics.getTypeStatistics(Outer.class);
+		long numRecords = statistics.getNumRecords();
+		long numBytes = statistics.getNumBytes();
+
+		byte[] bytes = serialize(serializer, createRecord());
+
+		assertEquals(numRecords + 1, statistics.getNumRecords());
+		assertEquals(numBytes + bytes.length, statistics.getNumBytes());
+		assertTrue(KryoSerializerStatistics.getTopTypes(Integer.MAX_VALUE).contains(Outer.class.getName() + "=("));
+	}
+
+	// ------------------------------------------------------------------------
+
+	private static ExecutionConfig dictionaryConfig() {
+		ExecutionConfig config = new ExecutionConfig();
+		config.enableKryoClassDictionary();
+		return config;
+	}
+
+	private static Outer createRecord() {
+		Outer record = new Outer();
+		record.inner = new Inner();
+		record.inner.value = 42;
+		record.inners = new ArrayList<>();
+		record.inners.add(new Inner());
+		return record;
+	}
+
+	private static <T> byte[] serialize(TypeSerializer<T> serializer, T record) throws IOException {
+		DataOutputSerializer out = new DataOutputSerializer(256);
+		serializer.serialize(record, out);
+		return out.getCopyOfBuffer();
+	}
+
+	/**
+	 * The type that is serialized with Kryo.
+	 */
+	public static class Outer {
+		Inner inner;
+		List<Inner> inners;
+
+		@Override
+		public boolean equals(Object o) {
+			if (!(o instanceof Outer)) {
+				return false;
+			}
+			Outer other = (Outer) o;
+			return inner.equals(other.inner) && inners.equals(other.inners);
+		}
+
+		@Override
+		public int hashCode() {
+			return inner.hashCode();
+		}
+	}
+
+	/**
+	 * A type that is only reachable through the fields of the serialized type.
+	 */
+	public static class Inner {
+		int value;
+
+		@Override
+		public boolean equals(Object o) {
+			return o instanceof Inner && ((Inner) o).value == value;
+		}
+
+		@Override
+		public int hashCode() {
+			return value;
+		}
+	}
+}
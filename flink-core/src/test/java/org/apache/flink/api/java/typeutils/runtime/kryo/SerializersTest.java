@@ -25,9 +25,13 @@ import org.apache.flink.core.fs.Path;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.net.URI;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
+import java.util.List;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
 public class SerializersTest {
@@ -83,6 +87,25 @@ public class SerializersTest {
 		assertTrue(kryo2.getKryo().getRegistration(FromNested.class).getId() > 0);
 	}
 
+	@Test
+	public void testKryoClassDictionary() {
+		List<Class<?>> dictionary = Serializers.getKryoClassDictionary(ClassWithNested.class);
+
+		// sorted by name; the fields of JDK classes are not traversed
+		assertEquals(
+			Arrays.asList(
+				URI.class,
+				ArrayList.class,
+				ClassWithNested.class,
+				FromGeneric1.class,
+				FromGeneric2.class,
+				FromNested.class,
+				Nested1.class,
+				Node.class,
+				Path.class),
+			dictionary);
+	}
+
 	@Test
 	public void testTypeRegistrationFromTypeInfo() {
 		ExecutionConfig conf = new ExecutionConfig();
@@ -338,6 +338,40 @@ public abstract class MemorySegmentTestBase {
 		assertFalse(seg1.equalTo(seg2, i, i, 9));
 	}
 
+	@Test
+	public void testFindFirstMismatch() {
+		final byte[] bytes = new byte[pageSize];
+		random.nextBytes(bytes);
+
+		MemorySegment seg1 = createSegment(pageSize);
+		MemorySegment seg2 = createSegment(pageSize);
+		seg1.put(0, bytes);
+		seg2.put(0, bytes);
+
+		assertEquals(-1, seg1.findFirstMismatch(seg2, 0, 0, pageSize));
+		assertEquals(0, seg1.compare(seg2, 0, 0, pageSize));
+
+		for (int i = 0; i < 1000; i++) {
+			int start = random.nextInt(pageSize);
+			int pos = start + random.nextInt(pageSize - start);
+			int len = pos - start + 1 + random.nextInt(pageSize - pos);
+
+			byte original = seg1.get(pos);
+			byte changed = (byte) (original + 1 + random.nextInt(255));
+			seg1.put(pos, changed);
+
+			assertEquals(pos - start, seg1.findFirstMismatch(seg2, start, start, len));
+			assertEquals(pos - start, seg2.findFirstMismatch(seg1, start, start, len));
+			assertEquals(-1, seg1.findFirstMismatch(seg2, start, start, pos - start));
+
+			int expected = Integer.signum((changed & 0xff) - (original & 0xff));
+			assertEquals(expected, Integer.signum(seg1.compare(seg2, start, start, len)));
+			assertEquals(-expected, Integer.signum(seg2.compare(seg1, start, start, len)));
+
+			seg1.put(pos, original);
+		}
+	}
+
 	@Test
 	public void testCharAccess() {
 		final MemorySegment segment = createSegment(pageSize);
@@ -0,0 +1,117 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.core.memory;
+
+import org.apache.flink.util.TestLogger;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for the {@link OffHeapMemoryArena}.
+ */
+public class OffHeapMemoryArenaTest extends TestLogger {
+
+	@Test
+	public void testSegmentBuffers() {
+		OffHeapMemoryArena arena = new OffHeapMemoryArena(10, 4096);
+		try {
+			List<ByteBuffer> buffers = arena.getSegmentBuffers();
+
+			assertEquals(10, arena.getNumberOfSegments());
+			assertEquals(10, buffers.size());
+			assertEquals(1, arena.getNumberOfChunks());
+			for (ByteBuffer buffer : buffers) {
+				assertTrue(buffer.isDirect());
+				assertEquals(4096, buffer.capacity());
+				assertEquals(0, buffer.position());
+				assertEquals(4096, buffer.limit());
+			}
+		} finally {
+			arena.free();
+		}
+	}
+
+	@Test
+	public void testSegmentsDoNotOverlap() {
+		OffHeapMemoryArena arena = new OffHeapMemoryArena(7, 4096, 3 * 4096);
+		try {
+			assertEquals(3, arena.getNumberOfChunks());
+
+			List<MemorySegment> segments = new ArrayList<>();
+			for (ByteBuffer buffer : arena.getSegmentBuffers()) {
+				segments.add(MemorySegmentFactory.wrapPooledOffHeapMemory(buffer, null));
+			}
+
+			for (int i = 0; i < segments.size(); i++) {
+				MemorySegment segment = segments.get(i);
+				for (int pos = 0; pos < segment.size(); pos += 8) {
+					segment.putLong(pos, i);
+				}
+			}
+
+			for (int i = 0; i < segments.size(); i++) {
+				MemorySegment segment = segments.get(i);
+				for (int pos = 0; pos < segment.size(); pos += 8) {
+					assertEquals(i, segment.getLong(pos));
+				}
+			}
+		} finally {
+			arena.free();
+		}
+	}
+
+	@Test
+	public void testEmptyArena() {
+		OffHeapMemoryArena arena = new OffHeapMemoryArena(0, 4096);
+
+		assertEquals(0, arena.getNumberOfSegments());
+		assertEquals(0, arena.getNumberOfChunks());
+
+		arena.free();
+		assertTrue(arena.isFreed());
+	}
+
+	@Test
+	public void testFree() {
+		OffHeapMemoryArena arena = new OffHeapMemoryArena(4, 4096, 2 * 4096);
+		assertFalse(arena.isFreed());
+
+		arena.free();
+		assertTrue(arena.isFreed());
+		assertEquals(0, arena.getNumberOfSegments());
+		assertEquals(0, arena.getNumberOfChunks());
+
+		// freeing twice must not free the memory twice
+		arena.free();
+		assertTrue(arena.isFreed());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testSegmentLargerThanChunk() {
+		new OffHeapMemoryArena(1, 8192, 4096);
+	}
+}
@@ -783,6 +783,7 @@ public class CheckpointCoordinator {
 		}
 
 		final long checkpointId = message.getCheckpointId();
+		final PendingCheckpoint checkpoint;
 
 		synchronized (lock) {
 			// we need to check inside the lock for being shutdown as well, otherwise we
@@ -791,49 +792,9 @@ public class CheckpointCoordinator {
 				return false;
 			}
 
-			final PendingCheckpoint checkpoint = pendingCheckpoints.get(checkpointId);
+			checkpoint = pendingCheckpoints.get(checkpointId);
 
-			if (checkpoint != null && !checkpoint.isDiscarded()) {
-
-				switch (checkpoint.acknowledgeTask(message.getTaskExecutionId(), message.getSubtaskState(), message.getCheckpointMetrics())) {
-					case SUCCESS:
-						LOG.debug("Received acknowledge message for checkpoint {} from task {} of job {}.",
-							checkpointId, message.getTaskExecutionId(), message.getJob());
-
-						if (checkpoint.isFullyAcknowledged()) {
-							completePendingCheckpoint(checkpoint);
-						}
-						break;
-					case DUPLICATE:
-						LOG.debug("Received a duplicate acknowledge message for checkpoint {}, task {}, job {}.",
-							message.getCheckpointId(), message.getTaskExecutionId(), message.getJob());
-						break;
-					case UNKNOWN:
-						LOG.warn("Could not acknowledge the checkpoint {} for task {} of job {}, " +
-								"because the task's execution attempt id was unknown. Discarding " +
-								"the state handle to avoid lingering state.", message.getCheckpointId(),
-							message.getTaskExecutionId(), message.getJob());
-
-						discardSubtaskState(message.getJob(), message.getTaskExecutionId(), message.getCheckpointId(), message.getSubtaskState());
-
-						break;
-					case DISCARDED:
-						LOG.warn("Could not acknowledge the checkpoint {} for task {} of job {}, " +
-							"because the pending checkpoint had been discarded. Discarding the " +
-								"state handle tp avoid lingering state.",
-							message.getCheckpointId(), message.getTaskExecutionId(), message.getJob());
-
-						discardSubtaskState(message.getJob(), message.getTaskExecutionId(), message.getCheckpointId(), message.getSubtaskState());
-				}
-
-				return true;
-			}
-			else if (checkpoint != null) {
-				// this should not happen
-				throw new IllegalStateException(
-						"Received message for discarded but non-removed checkpoint " + checkpointId);
-			}
-			else {
+			if (checkpoint == null) {
 				boolean wasPendingCheckpoint;
 
 				// message is for an unknown checkpoint, or comes too late (checkpoint disposed)
@@ -853,7 +814,61 @@ public class CheckpointCoordinator {
 
 				return wasPendingCheckpoint;
 			}
+			else if (checkpoint.isDiscarded()) {
+				// this should not happen
+				throw new IllegalStateException(
+						"Received message for discarded but non-removed checkpoint " + checkpointId);
+			}
+		}
+
+		// The pending checkpoint guards the acknowledged states with its own lock. Acknowledging
+		// outside of the coordinator-wide lock lets the acknowledgements of many tasks, which are
+		// processed concurrently, proceed without contending on the coordinator.
+		switch (checkpoint.acknowledgeTask(message.getTaskExecutionId(), message.getSubtaskState(), message.getCheckpointMetrics())) {
+			case SUCCESS:
+				LOG.debug("Received acknowledge message for checkpoint {} from task {} of job {}.",
+					checkpointId, message.getTaskExecutionId(), message.getJob());
+
+				if (checkpoint.isFullyAcknowledged()) {
+					final CompletedCheckpoint completedCheckpoint;
+
+					synchronized (lock) {
+						// the checkpoint may have been completed by a concurrent acknowledgement, or
+						// it may have been aborted in the meantime
+						if (shutdown || checkpoint.isDiscarded() || pendingCheckpoints.get(checkpointId) != checkpoint) {
+							break;
+						}
+
+						completedCheckpoint = completePendingCheckpoint(checkpoint);
+					}
+
+					// the notifications are RPCs to all tasks, which do not need to be sent under the lock
+					sendCheckpointCompleteNotifications(completedCheckpoint);
+				}
+				break;
+			case DUPLICATE:
+				LOG.debug("Received a duplicate acknowledge message for checkpoint {}, task {}, job {}.",
+					message.getCheckpointId(), message.getTaskExecutionId(), message.getJob());
+				break;
+			case UNKNOWN:
+				LOG.warn("Could not acknowledge the checkpoint {} for task {} of job {}, " +
+						"because the task's execution attempt id was unknown. Discarding " +
+						"the state handle to avoid lingering state.", message.getCheckpointId(),
+					message.getTaskExecutionId(), message.getJob());
+
+				discardSubtaskState(message.getJob(), message.getTaskExecutionId(), message.getCheckpointId(), message.getSubtaskState());
+
+				break;
+			case DISCARDED:
+				LOG.warn("Could not acknowledge the checkpoint {} for task {} of job {}, " +
+					"because the pending checkpoint had been discarded. Discarding the " +
+						"state handle tp avoid lingering state.",
+					message.getCheckpointId(), message.getTaskExecutionId(), message.getJob());
+
+				discardSubtaskState(message.getJob(), message.getTaskExecutionId(), message.getCheckpointId(), message.getSubtaskState());
 		}
+
+		return true;
 	}
 
 	/**
@@ -862,9 +877,10 @@ public class CheckpointCoordinator {
 	 * <p>Important: This method should only be called in the checkpoint lock scope.
 	 *
 	 * @param pendingCheckpoint to complete
+	 * @return the completed checkpoint, whose tasks still need to be notified
 	 * @throws CheckpointException if the completion failed
 	 */
-	private void completePendingCheckpoint(PendingCheckpoint pendingCheckpoint) throws CheckpointException {
+	private CompletedCheckpoint completePendingCheckpoint(PendingCheckpoint pendingCheckpoint) throws CheckpointException {
 		final long checkpointId = pendingCheckpoint.getCheckpointId();
 		final CompletedCheckpoint completedCheckpoint;
 
@@ -936,7 +952,14 @@ public class CheckpointCoordinator {
 			LOG.debug(builder.toString());
 		}
 
-		// send the "notify complete" call to all vertices
+		return completedCheckpoint;
+	}
+
+	/**
+	 * Sends the "notify complete" call for the given checkpoint to all vertices.
+	 */
+	private void sendCheckpointCompleteNotifications(CompletedCheckpoint completedCheckpoint) {
+		final long checkpointId = completedCheckpoint.getCheckpointID();
 		final long timestamp = completedCheckpoint.getTimestamp();
 
 		for (ExecutionVertex ev : tasksToCommitTo) {
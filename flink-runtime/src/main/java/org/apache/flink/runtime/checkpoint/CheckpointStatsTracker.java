@@ -20,11 +20,14 @@ package org.apache.flink.runtime.checkpoint;
 
 import org.apache.flink.annotation.VisibleForTesting;
 import org.apache.flink.metrics.Gauge;
+import org.apache.flink.metrics.Histogram;
+import org.apache.flink.metrics.HistogramStatistics;
 import org.apache.flink.metrics.Metric;
 import org.apache.flink.metrics.MetricGroup;
 import org.apache.flink.runtime.executiongraph.ExecutionJobVertex;
 import org.apache.flink.runtime.jobgraph.JobVertexID;
 import org.apache.flink.runtime.jobgraph.tasks.CheckpointCoordinatorConfiguration;
+import org.apache.flink.runtime.metrics.DescriptiveStatisticsHistogram;
 
 import javax.annotation.Nullable;
 
@@ -101,6 +104,14 @@ public class CheckpointStatsTracker {
 	@Nullable
 	private volatile CompletedCheckpointStats latestCompletedCheckpoint;
 
+	/**
+	 * The acknowledgement latencies of all subtasks of the latest completed checkpoint. A new
+	 * histogram is created for every completed checkpoint so that concurrent metric reporters
+	 * only ever see fully populated histograms.
+	 */
+	@Nullable
+	private volatile Histogram latestCompletedCheckpointAckLatencies;
+
 	/**
 	 * Creates a new checkpoint stats tracker.
 	 *
@@ -247,6 +258,7 @@ public class CheckpointStatsTracker {
 		statsReadWriteLock.lock();
 		try {
 			latestCompletedCheckpoint = completed;
+			latestCompletedCheckpointAckLatencies = createAckLatencyHistogram(completed);
 
 			counts.incrementCompletedCheckpoints();
 			history.replacePendingCheckpointById(completed);
@@ -259,6 +271,29 @@ public class CheckpointStatsTracker {
 		}
 	}
 
+	/**
+	 * Creates a histogram over the end to end durations of all acknowledged subtasks of the
+	 * given checkpoint, i.e. the time between triggering the checkpoint and receiving the
+	 * acknowledgement of the subtask.
+	 *
+	 * @param completed The completed checkpoint stats.
+	 * @return Histogram of the acknowledgement latencies of the checkpoint.
+	 */
+	private Histogram createAckLatencyHistogram(CompletedCheckpointStats completed) {
+		final long triggerTimestamp = completed.getTriggerTimestamp();
+		final Histogram histogram = new DescriptiveStatisticsHistogram(Math.max(1, completed.getNumberOfAcknowledgedSubtasks()));
+
+		for (TaskStateStats taskStateStats : completed.getAllTaskStateStats()) {
+			for (SubtaskStateStats subtaskStateStats : taskStateStats.getSubtaskStats()) {
+				if (subtaskStateStats != null) {
+					histogram.update(subtaskStateStats.getEndToEndDuration(triggerTimestamp));
+				}
+			}
+		}
+
+		return histogram;
+	}
+
 	/**
 	 * Callback when a checkpoint fails.
 	 *
@@ -347,6 +382,9 @@ public class CheckpointStatsTracker {
 	@VisibleForTesting
 	static final String LATEST_COMPLETED_CHECKPOINT_EXTERNAL_PATH_METRIC = "lastCheckpointExternalPath";
 
+	@VisibleForTesting
+	static final String LATEST_COMPLETED_CHECKPOINT_ACK_LATENCY_METRIC = "lastCheckpointAckLatency";
+
 	/**
 	 * Register the exposed metrics.
 	 *
@@ -362,6 +400,7 @@ public class CheckpointStatsTracker {
 		metricGroup.gauge(LATEST_COMPLETED_CHECKPOINT_DURATION_METRIC, new LatestCompletedCheckpointDurationGauge());
 		metricGroup.gauge(LATEST_COMPLETED_CHECKPOINT_ALIGNMENT_BUFFERED_METRIC, new LatestCompletedCheckpointAlignmentBufferedGauge());
 		metricGroup.gauge(LATEST_COMPLETED_CHECKPOINT_EXTERNAL_PATH_METRIC, new LatestCompletedCheckpointExternalPathGauge());
+		metricGroup.histogram(LATEST_COMPLETED_CHECKPOINT_ACK_LATENCY_METRIC, new LatestCompletedCheckpointAckLatencyHistogram());
 	}
 
 	private class CheckpointsCounter implements Gauge<Long> {
@@ -452,4 +491,34 @@ public class CheckpointStatsTracker {
 		}
 	}
 
+	/**
+	 * Read-only view on the acknowledgement latencies of the latest completed checkpoint. The latencies
+	 * are replaced on checkpoint completion, so external updates are ignored.
+	 */
+	private class LatestCompletedCheckpointAckLatencyHistogram implements Histogram {
+		@Override
+		public void update(long value) {
+			// the latencies are only updated on checkpoint completion
+		}
+
+		@Override
+		public long getCount() {
+			Histogram latencies = latestCompletedCheckpointAckLatencies;
+			if (latencies != null) {
+				return latencies.getCount();
+			} else {
+				return 0L;
+			}
+		}
+
+		@Override
+		public HistogramStatistics getStatistics() {
+			Histogram latencies = latestCompletedCheckpointAckLatencies;
+			if (latencies != null) {
+				return latencies.getStatistics();
+			} else {
+				return new DescriptiveStatisticsHistogram(1).getStatistics();
+			}
+		}
+	}
 }
@@ -60,11 +60,17 @@ public class RoundRobinOperatorStateRepartitioner implements OperatorStateRepart
 
 		List<Map<StreamStateHandle, OperatorStateHandle>> mergeMapList;
 
-		// We only round-robin repartition UNION state if new parallelism equals to the old one.
+		// We only round-robin repartition UNION state and deduplicated BROADCAST state if new parallelism equals to the old one.
 		if (newParallelism == oldParallelism) {
-			Map<String, List<Tuple2<StreamStateHandle, OperatorStateHandle.StateMetaInfo>>> unionStates = collectUnionStates(previousParallelSubtaskStates);
+			Map<String, List<Tuple2<StreamStateHandle, OperatorStateHandle.StateMetaInfo>>> unionStates =
+				collectStates(previousParallelSubtaskStates, OperatorStateHandle.Mode.UNION);
 
-			if (unionStates.isEmpty()) {
+			// broadcast states of which not every subtask wrote its own copy
+			Map<String, List<Tuple2<StreamStateHandle, OperatorStateHandle.StateMetaInfo>>> deduplicatedBroadcastStates =
+				collectStates(previousParallelSubtaskStates, OperatorStateHandle.Mode.BROADCAST);
+			deduplicatedBroadcastStates.values().removeIf(stateLocations -> stateLocations.size() == oldParallelism);
+
+			if (unionStates.isEmpty() && deduplicatedBroadcastStates.isEmpty()) {
 				return previousParallelSubtaskStates;
 			}
 
@@ -72,6 +78,7 @@ public class RoundRobinOperatorStateRepartitioner implements OperatorStateRepart
 			mergeMapList = initMergeMapList(previousParallelSubtaskStates);
 
 			repartitionUnionState(unionStates, mergeMapList);
+			repartitionBroadcastState(deduplicatedBroadcastStates, mergeMapList);
 		} else {
 
 			// Reorganize: group by (State Name -> StreamStateHandle + Offsets)
@@ -111,12 +118,13 @@ public class RoundRobinOperatorStateRepartitioner implements OperatorStateRepart
 	}
 
 	/**
-	 * Collect union states from given parallelSubtaskStates.
+	 * Collect the states with the given distribution mode from given parallelSubtaskStates.
 	 */
-	private Map<String, List<Tuple2<StreamStateHandle, OperatorStateHandle.StateMetaInfo>>> collectUnionStates(
-		List<List<OperatorStateHandle>> parallelSubtaskStates) {
+	private Map<String, List<Tuple2<StreamStateHandle, OperatorStateHandle.StateMetaInfo>>> collectStates(
+		List<List<OperatorStateHandle>> parallelSubtaskStates,
+		OperatorStateHandle.Mode mode) {
 
-		Map<String, List<Tuple2<StreamStateHandle, OperatorStateHandle.StateMetaInfo>>> unionStates =
+		Map<String, List<Tuple2<StreamStateHandle, OperatorStateHandle.StateMetaInfo>>> states =
 			new HashMap<>(parallelSubtaskStates.size());
 
 		for (List<OperatorStateHandle> subTaskState : parallelSubtaskStates) {
@@ -129,17 +137,17 @@ public class RoundRobinOperatorStateRepartitioner implements OperatorStateRepart
 					operatorStateHandle.getStateNameToPartitionOffsets().entrySet();
 
 				partitionOffsetEntries.stream()
-					.filter(entry -> entry.getValue().getDistributionMode().equals(OperatorStateHandle.Mode.UNION))
+					.filter(entry -> entry.getValue().getDistributionMode().equals(mode))
 					.forEach(entry -> {
 						List<Tuple2<StreamStateHandle, OperatorStateHandle.StateMetaInfo>> stateLocations =
-							unionStates.computeIfAbsent(entry.getKey(), k -> new ArrayList<>(parallelSubtaskStates.size() * partitionOffsetEntries.size()));
+							states.computeIfAbsent(entry.getKey(), k -> new ArrayList<>(parallelSubtaskStates.size() * partitionOffsetEntries.size()));
 
 						stateLocations.add(Tuple2.of(operatorStateHandle.getDelegateStateHandle(), entry.getValue()));
 					});
 			}
 		}
 
-		return unionStates;
+		return states;
 	}
 
 	/**
@@ -25,6 +25,7 @@ import org.apache.flink.runtime.checkpoint.MasterState;
 import org.apache.flink.runtime.checkpoint.OperatorState;
 import org.apache.flink.runtime.checkpoint.OperatorSubtaskState;
 import org.apache.flink.runtime.jobgraph.OperatorID;
+import org.apache.flink.runtime.state.ConcatenatedStreamStateHandle;
 import org.apache.flink.runtime.state.IncrementalRemoteKeyedStateHandle;
 import org.apache.flink.runtime.state.OperatorStateHandle;
 import org.apache.flink.runtime.state.KeyGroupRange;
@@ -82,6 +83,8 @@ public class SavepointV2Serializer implements SavepointSerializer<SavepointV2> {
 	private static final byte KEY_GROUPS_HANDLE = 3;
 	private static final byte PARTITIONABLE_OPERATOR_STATE_HANDLE = 4;
 	private static final byte INCREMENTAL_KEY_GROUPS_HANDLE = 5;
+	/** Only part of format version 3, see {@link SavepointV3Serializer}. */
+	private static final byte CONCATENATED_STREAM_STATE_HANDLE = 6;
 
 	/** The singleton instance of the serializer */
 	public static final SavepointV2Serializer INSTANCE = new SavepointV2Serializer();
@@ -97,6 +100,19 @@ public class SavepointV2Serializer implements SavepointSerializer<SavepointV2> {
 
 	@Override
 	public void serialize(SavepointV2 checkpointMetadata, DataOutputStream dos) throws IOException {
+		serialize(checkpointMetadata, dos, SavepointV2.VERSION);
+	}
+
+	@Override
+	public SavepointV2 deserialize(DataInputStream dis, ClassLoader cl) throws IOException {
+		return deserialize(dis, SavepointV2.VERSION);
+	}
+
+	/**
+	 * Serializes the checkpoint metadata in the given format version. Format version 3 shares the
+	 * layout of version 2 and only adds further state handle types.
+	 */
+	void serialize(Savepoint checkpointMetadata, DataOutputStream dos, int version) throws IOException {
 		// first: checkpoint ID
 		dos.writeLong(checkpointMetadata.getCheckpointId());
 
@@ -127,13 +143,15 @@ public class SavepointV2Serializer implements SavepointSerializer<SavepointV2> {
 			dos.writeInt(subtaskStateMap.size());
 			for (Map.Entry<Integer, OperatorSubtaskState> entry : subtaskStateMap.entrySet()) {
 				dos.writeInt(entry.getKey());
-				serializeSubtaskState(entry.getValue(), dos);
+				serializeSubtaskState(entry.getValue(), dos, version);
 			}
 		}
 	}
 
-	@Override
-	public SavepointV2 deserialize(DataInputStream dis, ClassLoader cl) throws IOException {
+	/**
+	 * Deserializes checkpoint metadata of the given format version.
+	 */
+	SavepointV2 deserialize(DataInputStream dis, int version) throws IOException {
 		// first: checkpoint ID
 		final long checkpointId = dis.readLong();
 		if (checkpointId < 0) {
@@ -177,7 +195,7 @@ public class SavepointV2Serializer implements SavepointSerializer<SavepointV2> {
 			for (int j = 0; j < numSubTaskStates; j++) {
 				int subtaskIndex = dis.readInt();
 
-				OperatorSubtaskState subtaskState = deserializeSubtaskState(dis);
+				OperatorSubtaskState subtaskState = deserializeSubtaskState(dis, version);
 				taskState.putState(subtaskIndex, subtaskState);
 			}
 		}
@@ -258,7 +276,10 @@ public class SavepointV2Serializer implements SavepointSerializer<SavepointV2> {
 		}
 	}
 
-	private static void serializeSubtaskState(OperatorSubtaskState subtaskState, DataOutputStream dos) throws IOException {
+	private static void serializeSubtaskState(
+			OperatorSubtaskState subtaskState,
+			DataOutputStream dos,
+			int version) throws IOException {
 
 		dos.writeLong(-1);
 
@@ -270,7 +291,7 @@ public class SavepointV2Serializer implements SavepointSerializer<SavepointV2> {
 		len = operatorStateBackend != null ? 1 : 0;
 		dos.writeInt(len);
 		if (len == 1) {
-			serializeOperatorStateHandle(operatorStateBackend, dos);
+			serializeOperatorStateHandle(operatorStateBackend, dos, version);
 		}
 
 		OperatorStateHandle operatorStateFromStream = extractSingleton(subtaskState.getRawOperatorState());
@@ -278,17 +299,17 @@ public class SavepointV2Serializer implements SavepointSerializer<SavepointV2> {
 		len = operatorStateFromStream != null ? 1 : 0;
 		dos.writeInt(len);
 		if (len == 1) {
-			serializeOperatorStateHandle(operatorStateFromStream, dos);
+			serializeOperatorStateHandle(operatorStateFromStream, dos, version);
 		}
 
 		KeyedStateHandle keyedStateBackend = extractSingleton(subtaskState.getManagedKeyedState());
-		serializeKeyedStateHandle(keyedStateBackend, dos);
+		serializeKeyedStateHandle(keyedStateBackend, dos, version);
 
 		KeyedStateHandle keyedStateStream = extractSingleton(subtaskState.getRawKeyedState());
-		serializeKeyedStateHandle(keyedStateStream, dos);
+		serializeKeyedStateHandle(keyedStateStream, dos, version);
 	}
 
-	private static OperatorSubtaskState deserializeSubtaskState(DataInputStream dis) throws IOException {
+	private static OperatorSubtaskState deserializeSubtaskState(DataInputStream dis, int version) throws IOException {
 		// Duration field has been removed from SubtaskState, do not remove
 		long ignoredDuration = dis.readLong();
 
@@ -303,19 +324,19 @@ public class SavepointV2Serializer implements SavepointSerializer<SavepointV2> {
 		} else {
 			for (int i = 0; i < len; ++i) {
 				// absorb bytes from stream and ignore result
-				deserializeStreamStateHandle(dis);
+				deserializeStreamStateHandle(dis, version);
 			}
 		}
 
 		len = dis.readInt();
-		OperatorStateHandle operatorStateBackend = len == 0 ? null : deserializeOperatorStateHandle(dis);
+		OperatorStateHandle operatorStateBackend = len == 0 ? null : deserializeOperatorStateHandle(dis, version);
 
 		len = dis.readInt();
-		OperatorStateHandle operatorStateStream = len == 0 ? null : deserializeOperatorStateHandle(dis);
+		OperatorStateHandle operatorStateStream = len == 0 ? null : deserializeOperatorStateHandle(dis, version);
 
-		KeyedStateHandle keyedStateBackend = deserializeKeyedStateHandle(dis);
+		KeyedStateHandle keyedStateBackend = deserializeKeyedStateHandle(dis, version);
 
-		KeyedStateHandle keyedStateStream = deserializeKeyedStateHandle(dis);
+		KeyedStateHandle keyedStateStream = deserializeKeyedStateHandle(dis, version);
 
 		return new OperatorSubtaskState(
 				operatorStateBackend,
@@ -327,6 +348,11 @@ public class SavepointV2Serializer implements SavepointSerializer<SavepointV2> {
 	@VisibleForTesting
 	public static void serializeKeyedStateHandle(
 			KeyedStateHandle stateHandle, DataOutputStream dos) throws IOException {
+		serializeKeyedStateHandle(stateHandle, dos, SavepointV2.VERSION);
+	}
+
+	private static void serializeKeyedStateHandle(
+			KeyedStateHandle stateHandle, DataOutputStream dos, int version) throws IOException {
 
 		if (stateHandle == null) {
 			dos.writeByte(NULL_HANDLE);
@@ -339,7 +365,7 @@ public class SavepointV2Serializer implements SavepointSerializer<SavepointV2> {
 			for (int keyGroup : keyGroupsStateHandle.getKeyGroupRange()) {
 				dos.writeLong(keyGroupsStateHandle.getOffsetForKeyGroup(keyGroup));
 			}
-			serializeStreamStateHandle(keyGroupsStateHandle.getDelegateStateHandle(), dos);
+			serializeStreamStateHandle(keyGroupsStateHandle.getDelegateStateHandle(), dos, version);
 		} else if (stateHandle instanceof IncrementalRemoteKeyedStateHandle) {
 			IncrementalRemoteKeyedStateHandle incrementalKeyedStateHandle =
 				(IncrementalRemoteKeyedStateHandle) stateHandle;
@@ -351,10 +377,10 @@ public class SavepointV2Serializer implements SavepointSerializer<SavepointV2> {
 			dos.writeInt(incrementalKeyedStateHandle.getKeyGroupRange().getStartKeyGroup());
 			dos.writeInt(incrementalKeyedStateHandle.getKeyGroupRange().getNumberOfKeyGroups());
 
-			serializeStreamStateHandle(incrementalKeyedStateHandle.getMetaStateHandle(), dos);
+			serializeStreamStateHandle(incrementalKeyedStateHandle.getMetaStateHandle(), dos, version);
 
-			serializeStreamStateHandleMap(incrementalKeyedStateHandle.getSharedState(), dos);
-			serializeStreamStateHandleMap(incrementalKeyedStateHandle.getPrivateState(), dos);
+			serializeStreamStateHandleMap(incrementalKeyedStateHandle.getSharedState(), dos, version);
+			serializeStreamStateHandleMap(incrementalKeyedStateHandle.getPrivateState(), dos, version);
 		} else {
 			throw new IllegalStateException("Unknown KeyedStateHandle type: " + stateHandle.getClass());
 		}
@@ -362,23 +388,24 @@ public class SavepointV2Serializer implements SavepointSerializer<SavepointV2> {
 
 	private static void serializeStreamStateHandleMap(
 		Map<StateHandleID, StreamStateHandle> map,
-		DataOutputStream dos) throws IOException {
+		DataOutputStream dos,
+		int version) throws IOException {
 		dos.writeInt(map.size());
 		for (Map.Entry<StateHandleID, StreamStateHandle> entry : map.entrySet()) {
 			dos.writeUTF(entry.getKey().toString());
-			serializeStreamStateHandle(entry.getValue(), dos);
+			serializeStreamStateHandle(entry.getValue(), dos, version);
 		}
 	}
 
 	private static Map<StateHandleID, StreamStateHandle> deserializeStreamStateHandleMap(
-		DataInputStream dis) throws IOException {
+		DataInputStream dis, int version) throws IOException {
 
 		final int size = dis.readInt();
 		Map<StateHandleID, StreamStateHandle> result = new HashMap<>(size);
 
 		for (int i = 0; i < size; ++i) {
 			StateHandleID stateHandleID = new StateHandleID(dis.readUTF());
-			StreamStateHandle stateHandle = deserializeStreamStateHandle(dis);
+			StreamStateHandle stateHandle = deserializeStreamStateHandle(dis, version);
 			result.put(stateHandleID, stateHandle);
 		}
 
@@ -387,6 +414,10 @@ public class SavepointV2Serializer implements SavepointSerializer<SavepointV2> {
 
 	@VisibleForTesting
 	public static KeyedStateHandle deserializeKeyedStateHandle(DataInputStream dis) throws IOException {
+		return deserializeKeyedStateHandle(dis, SavepointV2.VERSION);
+	}
+
+	private static KeyedStateHandle deserializeKeyedStateHandle(DataInputStream dis, int version) throws IOException {
 		final int type = dis.readByte();
 		if (NULL_HANDLE == type) {
 
@@ -403,7 +434,7 @@ public class SavepointV2Serializer implements SavepointSerializer<SavepointV2> {
 			}
 			KeyGroupRangeOffsets keyGroupRangeOffsets = new KeyGroupRangeOffsets(
 				keyGroupRange, offsets);
-			StreamStateHandle stateHandle = deserializeStreamStateHandle(dis);
+			StreamStateHandle stateHandle = deserializeStreamStateHandle(dis, version);
 			return new KeyGroupsStateHandle(keyGroupRangeOffsets, stateHandle);
 		} else if (INCREMENTAL_KEY_GROUPS_HANDLE == type) {
 
@@ -414,9 +445,9 @@ public class SavepointV2Serializer implements SavepointSerializer<SavepointV2> {
 			KeyGroupRange keyGroupRange =
 				KeyGroupRange.of(startKeyGroup, startKeyGroup + numKeyGroups - 1);
 
-			StreamStateHandle metaDataStateHandle = deserializeStreamStateHandle(dis);
-			Map<StateHandleID, StreamStateHandle> sharedStates = deserializeStreamStateHandleMap(dis);
-			Map<StateHandleID, StreamStateHandle> privateStates = deserializeStreamStateHandleMap(dis);
+			StreamStateHandle metaDataStateHandle = deserializeStreamStateHandle(dis, version);
+			Map<StateHandleID, StreamStateHandle> sharedStates = deserializeStreamStateHandleMap(dis, version);
+			Map<StateHandleID, StreamStateHandle> privateStates = deserializeStreamStateHandleMap(dis, version);
 
 			UUID uuid;
 
@@ -442,6 +473,11 @@ public class SavepointV2Serializer implements SavepointSerializer<SavepointV2> {
 	@VisibleForTesting
 	public static void serializeOperatorStateHandle(
 		OperatorStateHandle stateHandle, DataOutputStream dos) throws IOException {
+		serializeOperatorStateHandle(stateHandle, dos, SavepointV2.VERSION);
+	}
+
+	private static void serializeOperatorStateHandle(
+		OperatorStateHandle stateHandle, DataOutputStream dos, int version) throws IOException {
 
 		if (stateHandle != null) {
 			dos.writeByte(PARTITIONABLE_OPERATOR_STATE_HANDLE);
@@ -462,7 +498,7 @@ public class SavepointV2Serializer implements SavepointSerializer<SavepointV2> {
 					dos.writeLong(offset);
 				}
 			}
-			serializeStreamStateHandle(stateHandle.getDelegateStateHandle(), dos);
+			serializeStreamStateHandle(stateHandle.getDelegateStateHandle(), dos, version);
 		} else {
 			dos.writeByte(NULL_HANDLE);
 		}
@@ -471,6 +507,11 @@ public class SavepointV2Serializer implements SavepointSerializer<SavepointV2> {
 	@VisibleForTesting
 	public static OperatorStateHandle deserializeOperatorStateHandle(
 			DataInputStream dis) throws IOException {
+		return deserializeOperatorStateHandle(dis, SavepointV2.VERSION);
+	}
+
+	private static OperatorStateHandle deserializeOperatorStateHandle(
+			DataInputStream dis, int version) throws IOException {
 
 		final int type = dis.readByte();
 		if (NULL_HANDLE == type) {
@@ -493,7 +534,7 @@ public class SavepointV2Serializer implements SavepointSerializer<SavepointV2> {
 						new OperatorStateHandle.StateMetaInfo(offsets, mode);
 				offsetsMap.put(key, metaInfo);
 			}
-			StreamStateHandle stateHandle = deserializeStreamStateHandle(dis);
+			StreamStateHandle stateHandle = deserializeStreamStateHandle(dis, version);
 			return new OperatorStreamStateHandle(offsetsMap, stateHandle);
 		} else {
 			throw new IllegalStateException("Reading invalid OperatorStateHandle, type: " + type);
@@ -503,6 +544,11 @@ public class SavepointV2Serializer implements SavepointSerializer<SavepointV2> {
 	@VisibleForTesting
 	public static void serializeStreamStateHandle(
 			StreamStateHandle stateHandle, DataOutputStream dos) throws IOException {
+		serializeStreamStateHandle(stateHandle, dos, SavepointV2.VERSION);
+	}
+
+	private static void serializeStreamStateHandle(
+			StreamStateHandle stateHandle, DataOutputStream dos, int version) throws IOException {
 
 		if (stateHandle == null) {
 			dos.writeByte(NULL_HANDLE);
@@ -520,6 +566,15 @@ public class SavepointV2Serializer implements SavepointSerializer<SavepointV2> {
 			byte[] internalData = byteStreamStateHandle.getData();
 			dos.writeInt(internalData.length);
 			dos.write(byteStreamStateHandle.getData());
+		} else if (stateHandle instanceof ConcatenatedStreamStateHandle && version >= SavepointV3.VERSION) {
+			dos.writeByte(CONCATENATED_STREAM_STATE_HANDLE);
+			ConcatenatedStreamStateHandle concatenatedStateHandle = (ConcatenatedStreamStateHandle) stateHandle;
+			List<StreamStateHandle> parts = concatenatedStateHandle.getParts();
+			dos.writeInt(parts.size());
+			for (int i = 0; i < parts.size(); i++) {
+				dos.writeLong(concatenatedStateHandle.getPartLength(i));
+				serializeStreamStateHandle(parts.get(i), dos, version);
+			}
 		} else {
 			throw new IOException("Unknown implementation of StreamStateHandle: " + stateHandle.getClass());
 		}
@@ -528,6 +583,10 @@ public class SavepointV2Serializer implements SavepointSerializer<SavepointV2> {
 	}
 
 	public static StreamStateHandle deserializeStreamStateHandle(DataInputStream dis) throws IOException {
+		return deserializeStreamStateHandle(dis, SavepointV2.VERSION);
+	}
+
+	private static StreamStateHandle deserializeStreamStateHandle(DataInputStream dis, int version) throws IOException {
 		final int type = dis.read();
 		if (NULL_HANDLE == type) {
 			return null;
@@ -541,6 +600,15 @@ public class SavepointV2Serializer implements SavepointSerializer<SavepointV2> {
 			byte[] data = new byte[numBytes];
 			dis.readFully(data);
 			return new ByteStreamStateHandle(handleName, data);
+		} else if (CONCATENATED_STREAM_STATE_HANDLE == type && version >= SavepointV3.VERSION) {
+			int numParts = dis.readInt();
+			List<StreamStateHandle> parts = new ArrayList<>(numParts);
+			long[] partLengths = new long[numParts];
+			for (int i = 0; i < numParts; i++) {
+				partLengths[i] = dis.readLong();
+				parts.add(deserializeStreamStateHandle(dis, version));
+			}
+			return new ConcatenatedStreamStateHandle(parts, partLengths);
 		} else {
 			throw new IOException("Unknown implementation of StreamStateHandle, code: " + type);
 		}
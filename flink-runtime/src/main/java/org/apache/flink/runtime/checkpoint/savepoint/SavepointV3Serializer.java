@@ -0,0 +1,59 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.checkpoint.savepoint;
+
+import org.apache.flink.annotation.Internal;
+import org.apache.flink.runtime.state.ConcatenatedStreamStateHandle;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * (De)serializer for checkpoint metadata format version 3.
+ *
+ * <p>This format version has the layout of {@link SavepointV2Serializer format version 2} and adds
+ * {@link ConcatenatedStreamStateHandle concatenated stream state handles}. Readers which only know
+ * version 2 therefore reject such metadata by its version number, instead of failing on an unknown
+ * state handle type.
+ */
+@Internal
+public class SavepointV3Serializer implements SavepointSerializer<SavepointV3> {
+
+	/** The singleton instance of the serializer. */
+	public static final SavepointV3Serializer INSTANCE = new SavepointV3Serializer();
+
+	/** Singleton, not meant to be instantiated. */
+	private SavepointV3Serializer() {}
+
+	@Override
+	public void serialize(SavepointV3 checkpointMetadata, DataOutputStream dos) throws IOException {
+		SavepointV2Serializer.INSTANCE.serialize(checkpointMetadata, dos, SavepointV3.VERSION);
+	}
+
+	@Override
+	public SavepointV3 deserialize(DataInputStream dis, ClassLoader userCodeClassLoader) throws IOException {
+		final SavepointV2 checkpointMetadata = SavepointV2Serializer.INSTANCE.deserialize(dis, SavepointV3.VERSION);
+
+		return new SavepointV3(
+			checkpointMetadata.getCheckpointId(),
+			checkpointMetadata.getOperatorStates(),
+			checkpointMetadata.getMasterStates());
+	}
+}
@@ -52,6 +52,10 @@ public class TaskManagerSlot {
 	@Nullable
 	private JobID jobId;
 
+	/** Job for which this slot has been allocated before it was freed the last time. */
+	@Nullable
+	private JobID previousJobId;
+
 	/** Assigned slot request if there is currently an ongoing request. */
 	private PendingSlotRequest assignedSlotRequest;
 
@@ -95,6 +99,11 @@ public class TaskManagerSlot {
 		return jobId;
 	}
 
+	@Nullable
+	public JobID getPreviousJobId() {
+		return previousJobId;
+	}
+
 	public PendingSlotRequest getAssignedSlotRequest() {
 		return assignedSlotRequest;
 	}
@@ -108,6 +117,7 @@ public class TaskManagerSlot {
 
 		state = State.FREE;
 		allocationId = null;
+		previousJobId = jobId;
 		jobId = null;
 	}
 
@@ -20,8 +20,8 @@ package org.apache.flink.runtime.deployment;
 
 import org.apache.flink.runtime.clusterframework.types.ResourceID;
 import org.apache.flink.runtime.execution.ExecutionState;
+import org.apache.flink.runtime.executiongraph.ConsumedPartitionGroup;
 import org.apache.flink.runtime.executiongraph.Execution;
-import org.apache.flink.runtime.executiongraph.ExecutionEdge;
 import org.apache.flink.runtime.executiongraph.ExecutionGraphException;
 import org.apache.flink.runtime.executiongraph.IntermediateResultPartition;
 import org.apache.flink.runtime.io.network.ConnectionID;
@@ -83,16 +83,15 @@ public class InputChannelDeploymentDescriptor implements Serializable {
 	/**
 	 * Creates an input channel deployment descriptor for each partition.
 	 */
-	public static InputChannelDeploymentDescriptor[] fromEdges(
-			ExecutionEdge[] edges,
+	public static InputChannelDeploymentDescriptor[] fromPartitions(
+			ConsumedPartitionGroup consumedPartitions,
 			ResourceID consumerResourceId,
 			boolean allowLazyDeployment) throws ExecutionGraphException {
 
-		final InputChannelDeploymentDescriptor[] icdd = new InputChannelDeploymentDescriptor[edges.length];
+		final InputChannelDeploymentDescriptor[] icdd = new InputChannelDeploymentDescriptor[consumedPartitions.size()];
 
-		// Each edge is connected to a different result partition
-		for (int i = 0; i < edges.length; i++) {
-			final IntermediateResultPartition consumedPartition = edges[i].getSource();
+		for (int i = 0; i < icdd.length; i++) {
+			final IntermediateResultPartition consumedPartition = consumedPartitions.get(i);
 			final Execution producer = consumedPartition.getProducer().getCurrentExecutionAttempt();
 
 			final ExecutionState producerState = producer.getState();
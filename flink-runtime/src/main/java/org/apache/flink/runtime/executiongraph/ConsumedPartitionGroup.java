@@ -0,0 +1,92 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.executiongraph;
+
+import java.util.Iterator;
+import java.util.List;
+
+import static org.apache.flink.util.Preconditions.checkArgument;
+import static org.apache.flink.util.Preconditions.checkNotNull;
+
+/**
+ * The {@link IntermediateResultPartition}s of one {@link IntermediateResult} that are consumed by
+ * one input of an {@link ExecutionVertex}.
+ *
+ * <p>For {@link org.apache.flink.runtime.jobgraph.DistributionPattern#ALL_TO_ALL ALL_TO_ALL}
+ * connections a single group instance is shared by all consuming vertices, so that the memory
+ * needed to describe the connection is linear in the number of partitions instead of growing
+ * with the product of producer and consumer parallelism.
+ */
+public class ConsumedPartitionGroup implements Iterable<IntermediateResultPartition> {
+
+	private final List<IntermediateResultPartition> partitions;
+
+	private final IntermediateResult intermediateResult;
+
+	public ConsumedPartitionGroup(List<IntermediateResultPartition> partitions) {
+		checkArgument(!partitions.isEmpty(), "A consumed partition group must not be empty.");
+
+		this.partitions = partitions;
+		this.intermediateResult = checkNotNull(partitions.get(0)).getIntermediateResult();
+	}
+
+	public IntermediateResult getIntermediateResult() {
+		return intermediateResult;
+	}
+
+	public int size() {
+		return partitions.size();
+	}
+
+	public IntermediateResultPartition get(int index) {
+		return partitions.get(index);
+	}
+
+	public IntermediateResultPartition getFirst() {
+		return partitions.get(0);
+	}
+
+	/**
+	 * Checks whether any partition of this group is consumable. Blocking partitions only become
+	 * consumable once the whole result is finished, which is checked once for the entire group
+	 * instead of once per partition.
+	 */
+	public boolean isAnyPartitionConsumable() {
+		if (intermediateResult.getResultType().isBlocking()) {
+			return intermediateResult.areAllPartitionsFinished();
+		}
+
+		for (IntermediateResultPartition partition : partitions) {
+			if (partition.isConsumable()) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public Iterator<IntermediateResultPartition> iterator() {
+		return partitions.iterator();
+	}
+
+	@Override
+	public String toString() {
+		return "ConsumedPartitionGroup [" + intermediateResult + ", " + partitions.size() + " partitions]";
+	}
+}
@@ -0,0 +1,68 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.executiongraph;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.apache.flink.util.Preconditions.checkNotNull;
+
+/**
+ * The {@link ExecutionVertex}s of one consuming job vertex that read an
+ * {@link IntermediateResultPartition}.
+ *
+ * <p>For {@link org.apache.flink.runtime.jobgraph.DistributionPattern#ALL_TO_ALL ALL_TO_ALL}
+ * connections a single group instance is shared by all partitions of the consumed result.
+ * For {@link org.apache.flink.runtime.jobgraph.DistributionPattern#POINTWISE POINTWISE}
+ * connections each partition has its own group to which the consumers are added one by one.
+ */
+public class ConsumerVertexGroup implements Iterable<ExecutionVertex> {
+
+	private final List<ExecutionVertex> vertices;
+
+	ConsumerVertexGroup() {
+		this.vertices = new ArrayList<>(1);
+	}
+
+	ConsumerVertexGroup(List<ExecutionVertex> vertices) {
+		this.vertices = checkNotNull(vertices);
+	}
+
+	void add(ExecutionVertex vertex) {
+		vertices.add(vertex);
+	}
+
+	public int size() {
+		return vertices.size();
+	}
+
+	public boolean isEmpty() {
+		return vertices.isEmpty();
+	}
+
+	public ExecutionVertex getFirst() {
+		return vertices.get(0);
+	}
+
+	@Override
+	public Iterator<ExecutionVertex> iterator() {
+		return vertices.iterator();
+	}
+}
@@ -43,6 +43,7 @@ import org.apache.flink.runtime.execution.ExecutionState;
 import org.apache.flink.runtime.instance.SlotSharingGroupId;
 import org.apache.flink.runtime.io.network.ConnectionID;
 import org.apache.flink.runtime.io.network.partition.ResultPartitionID;
+import org.apache.flink.runtime.jobgraph.JobStatus;
 import org.apache.flink.runtime.jobmanager.scheduler.CoLocationConstraint;
 import org.apache.flink.runtime.jobmanager.scheduler.LocationPreferenceConstraint;
 import org.apache.flink.runtime.jobmanager.scheduler.NoResourceAvailableException;
@@ -624,6 +625,11 @@ public class Execution implements AccessExecution, Archiveable<ArchivedExecution
 						attemptNumber, getAssignedResourceLocation()));
 			}
 
+			final AllocationID priorAllocation = vertex.getLatestPriorAllocation();
+			if (taskRestore != null && priorAllocation != null) {
+				vertex.getExecutionGraph().registerRecovery(priorAllocation.equals(slot.getAllocationId()));
+			}
+
 			final TaskDeploymentDescriptor deployment = vertex.createDeploymentDescriptor(
 				attemptId,
 				slot,
@@ -753,8 +759,9 @@ public class Execution implements AccessExecution, Archiveable<ArchivedExecution
 		}
 	}
 
-	void scheduleOrUpdateConsumers(List<List<ExecutionEdge>> allConsumers) {
+	void scheduleOrUpdateConsumers(IntermediateResultPartition partition) {
 		assertRunningInJobMasterMainThread();
+		final List<ConsumerVertexGroup> allConsumers = partition.getConsumers();
 		final int numConsumers = allConsumers.size();
 
 		if (numConsumers > 1) {
@@ -764,14 +771,10 @@ public class Execution implements AccessExecution, Archiveable<ArchivedExecution
 			return;
 		}
 
-		for (ExecutionEdge edge : allConsumers.get(0)) {
-			final ExecutionVertex consumerVertex = edge.getTarget();
-
+		for (ExecutionVertex consumerVertex : allConsumers.get(0)) {
 			final Execution consumer = consumerVertex.getCurrentExecutionAttempt();
 			final ExecutionState consumerState = consumer.getState();
 
-			final IntermediateResultPartition partition = edge.getSource();
-
 			// ----------------------------------------------------------------
 			// Consumer is created => try to deploy and cache input channel
 			// descriptors if there is a deployment race
@@ -1019,7 +1022,7 @@ public class Execution implements AccessExecution, Archiveable<ArchivedExecution
 									.getIntermediateResult().getPartitions();
 
 							for (IntermediateResultPartition partition : allPartitions) {
-								scheduleOrUpdateConsumers(partition.getConsumers());
+								scheduleOrUpdateConsumers(partition);
 							}
 						}
 
@@ -1343,8 +1346,13 @@ public class Execution implements AccessExecution, Archiveable<ArchivedExecution
 		final LogicalSlot slot = assignedResource;
 
 		if (slot != null) {
-			ComponentMainThreadExecutor jobMasterMainThreadExecutor =
-				getVertex().getExecutionGraph().getJobMasterMainThreadExecutor();
+			final ExecutionGraph executionGraph = getVertex().getExecutionGraph();
+			ComponentMainThreadExecutor jobMasterMainThreadExecutor = executionGraph.getJobMasterMainThreadExecutor();
+
+			if (cause != null && isReleasedForRestart(executionGraph.getState())) {
+				// let the slot be retained for the restarted task, so that it can recover from local state
+				executionGraph.getSlotProvider().retainSlotForRestart(slot.getAllocationId());
+			}
 
 			slot.releaseSlot(cause)
 				.whenComplete((Object ignored, Throwable throwable) -> {
@@ -1361,6 +1369,14 @@ public class Execution implements AccessExecution, Archiveable<ArchivedExecution
 		}
 	}
 
+	/**
+	 * Checks whether a task which is released because of a failure or cancellation will be restarted.
+	 * This is not the case if the job is cancelled, suspended or already globally terminated.
+	 */
+	private static boolean isReleasedForRestart(JobStatus jobStatus) {
+		return jobStatus == JobStatus.RUNNING || jobStatus == JobStatus.FAILING || jobStatus == JobStatus.RESTARTING;
+	}
+
 	// --------------------------------------------------------------------------------------------
 	//  Miscellaneous
 	// --------------------------------------------------------------------------------------------
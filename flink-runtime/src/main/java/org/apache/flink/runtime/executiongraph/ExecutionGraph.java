@@ -103,6 +103,7 @@ import java.util.concurrent.Executor;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicLongFieldUpdater;
 import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 import java.util.stream.Collectors;
@@ -259,6 +260,12 @@ public class ExecutionGraph implements AccessExecutionGraph {
 
 	private final AtomicInteger verticesFinished;
 
+	/** The number of task executions which were deployed to restore state after a failure. */
+	private final AtomicLong numberOfRecoveries = new AtomicLong();
+
+	/** The number of recovering task executions which were deployed to the slot they used before. */
+	private final AtomicLong numberOfRecoveriesInPreviousSlot = new AtomicLong();
+
 	/** Current status of the job execution. */
 	private volatile JobStatus state = JobStatus.CREATED;
 
@@ -661,6 +668,24 @@ public class ExecutionGraph implements AccessExecutionGraph {
 		return globalModVersion - 1;
 	}
 
+	/**
+	 * Gets the ratio of task recoveries which were deployed to the slot which the task used before,
+	 * and can therefore recover from local state if local recovery is enabled.
+	 *
+	 * @return The ratio of recoveries in the previous slot, or 0 if there was no recovery so far
+	 */
+	public double getLocalRecoveryHitRate() {
+		final long recoveries = numberOfRecoveries.get();
+		return recoveries == 0L ? 0.0 : (double) numberOfRecoveriesInPreviousSlot.get() / recoveries;
+	}
+
+	void registerRecovery(boolean inPreviousSlot) {
+		numberOfRecoveries.incrementAndGet();
+		if (inPreviousSlot) {
+			numberOfRecoveriesInPreviousSlot.incrementAndGet();
+		}
+	}
+
 	@Override
 	public ExecutionJobVertex getJobVertex(JobVertexID id) {
 		return this.tasks.get(id);
@@ -455,13 +455,44 @@ public class ExecutionJobVertex implements AccessExecutionJobVertex, Archiveable
 
 			int consumerIndex = ires.registerConsumer();
 
-			for (int i = 0; i < parallelism; i++) {
-				ExecutionVertex ev = taskVertices[i];
-				ev.connectSource(num, ires, edge, consumerIndex);
+			switch (edge.getDistributionPattern()) {
+				case POINTWISE:
+					for (int i = 0; i < parallelism; i++) {
+						ExecutionVertex ev = taskVertices[i];
+						ev.connectPointwiseSource(num, ires, consumerIndex);
+					}
+					break;
+
+				case ALL_TO_ALL:
+					connectAllToAll(num, ires, consumerIndex);
+					break;
+
+				default:
+					throw new RuntimeException("Unrecognized distribution pattern.");
 			}
 		}
 	}
 
+	/**
+	 * Connects all task vertices to all partitions of the given result. All consumers share one
+	 * {@link ConsumedPartitionGroup} and all partitions share one {@link ConsumerVertexGroup}, so
+	 * that the connection takes O(#producers + #consumers) time and memory.
+	 */
+	private void connectAllToAll(int inputNumber, IntermediateResult source, int consumerIndex) {
+		final ConsumedPartitionGroup consumedPartitions = new ConsumedPartitionGroup(
+			Collections.unmodifiableList(Arrays.asList(source.getPartitions())));
+		final ConsumerVertexGroup consumers = new ConsumerVertexGroup(
+			Collections.unmodifiableList(Arrays.asList(taskVertices)));
+
+		for (ExecutionVertex ev : taskVertices) {
+			ev.connectSource(inputNumber, consumedPartitions);
+		}
+
+		for (IntermediateResultPartition partition : source.getPartitions()) {
+			partition.setConsumerGroup(consumers, consumerIndex);
+		}
+	}
+
 	//---------------------------------------------------------------------------------------------
 	//  Actions
 	//---------------------------------------------------------------------------------------------
@@ -38,10 +38,8 @@ import org.apache.flink.runtime.deployment.TaskDeploymentDescriptor;
 import org.apache.flink.runtime.execution.ExecutionState;
 import org.apache.flink.runtime.io.network.partition.ResultPartitionID;
 import org.apache.flink.runtime.io.network.partition.ResultPartitionType;
-import org.apache.flink.runtime.jobgraph.DistributionPattern;
 import org.apache.flink.runtime.jobgraph.IntermediateDataSetID;
 import org.apache.flink.runtime.jobgraph.IntermediateResultPartitionID;
-import org.apache.flink.runtime.jobgraph.JobEdge;
 import org.apache.flink.runtime.jobgraph.JobVertexID;
 import org.apache.flink.runtime.jobmanager.scheduler.CoLocationConstraint;
 import org.apache.flink.runtime.jobmanager.scheduler.CoLocationGroup;
@@ -93,7 +91,7 @@ public class ExecutionVertex implements AccessExecutionVertex, Archiveable<Archi
 
 	private final Map<IntermediateResultPartitionID, IntermediateResultPartition> resultPartitions;
 
-	private final ExecutionEdge[][] inputEdges;
+	private final ConsumedPartitionGroup[] consumedPartitionGroups;
 
 	private final int subTaskIndex;
 
@@ -168,7 +166,7 @@ public class ExecutionVertex implements AccessExecutionVertex, Archiveable<Archi
 			resultPartitions.put(irp.getPartitionId(), irp);
 		}
 
-		this.inputEdges = new ExecutionEdge[jobVertex.getJobVertex().getInputs().size()][];
+		this.consumedPartitionGroups = new ConsumedPartitionGroup[jobVertex.getJobVertex().getInputs().size()];
 
 		this.priorExecutions = new EvictingBoundedList<>(maxPriorExecutionHistoryLength);
 
@@ -243,14 +241,29 @@ public class ExecutionVertex implements AccessExecutionVertex, Archiveable<Archi
 	}
 
 	public int getNumberOfInputs() {
-		return this.inputEdges.length;
+		return this.consumedPartitionGroups.length;
 	}
 
+	public ConsumedPartitionGroup getConsumedPartitionGroup(int input) {
+		if (input < 0 || input >= consumedPartitionGroups.length) {
+			throw new IllegalArgumentException(String.format("Input %d is out of range [0..%d)", input, consumedPartitionGroups.length));
+		}
+		return consumedPartitionGroups[input];
+	}
+
+	/**
+	 * Creates the {@link ExecutionEdge}s of the given input. The edges are not stored in the
+	 * execution graph but created on every call, so this should not be used on hot paths.
+	 * Use {@link #getConsumedPartitionGroup(int)} instead.
+	 */
 	public ExecutionEdge[] getInputEdges(int input) {
-		if (input < 0 || input >= inputEdges.length) {
-			throw new IllegalArgumentException(String.format("Input %d is out of range [0..%d)", input, inputEdges.length));
+		final ConsumedPartitionGroup consumedPartitions = getConsumedPartitionGroup(input);
+		final ExecutionEdge[] edges = new ExecutionEdge[consumedPartitions.size()];
+
+		for (int i = 0; i < edges.length; i++) {
+			edges[i] = new ExecutionEdge(consumedPartitions.get(i), this, input);
 		}
-		return inputEdges[input];
+		return edges;
 	}
 
 	public CoLocationConstraint getLocationConstraint() {
@@ -366,55 +379,39 @@ public class ExecutionVertex implements AccessExecutionVertex, Archiveable<Archi
 	//  Graph building
 	// --------------------------------------------------------------------------------------------
 
-	public void connectSource(int inputNumber, IntermediateResult source, JobEdge edge, int consumerNumber) {
+	/**
+	 * Connects an input of this vertex to a group of partitions that may be shared with other
+	 * vertices. The consumer side of the partitions is registered by the caller.
+	 */
+	void connectSource(int inputNumber, ConsumedPartitionGroup consumedPartitions) {
+		consumedPartitionGroups[inputNumber] = consumedPartitions;
+	}
 
-		final DistributionPattern pattern = edge.getDistributionPattern();
+	/**
+	 * Connects an input of this vertex pointwise to the partitions of the given intermediate result
+	 * and registers this vertex as a consumer of these partitions.
+	 */
+	void connectPointwiseSource(int inputNumber, IntermediateResult source, int consumerNumber) {
 		final IntermediateResultPartition[] sourcePartitions = source.getPartitions();
+		final List<IntermediateResultPartition> consumedPartitions = connectPointwise(sourcePartitions);
 
-		ExecutionEdge[] edges;
-
-		switch (pattern) {
-			case POINTWISE:
-				edges = connectPointwise(sourcePartitions, inputNumber);
-				break;
-
-			case ALL_TO_ALL:
-				edges = connectAllToAll(sourcePartitions, inputNumber);
-				break;
-
-			default:
-				throw new RuntimeException("Unrecognized distribution pattern.");
-
-		}
-
-		inputEdges[inputNumber] = edges;
+		consumedPartitionGroups[inputNumber] = new ConsumedPartitionGroup(consumedPartitions);
 
 		// add the consumers to the source
 		// for now (until the receiver initiated handshake is in place), we need to register the
-		// edges as the execution graph
-		for (ExecutionEdge ee : edges) {
-			ee.getSource().addConsumer(ee, consumerNumber);
+		// consumers in the execution graph
+		for (IntermediateResultPartition partition : consumedPartitions) {
+			partition.addConsumer(this, consumerNumber);
 		}
 	}
 
-	private ExecutionEdge[] connectAllToAll(IntermediateResultPartition[] sourcePartitions, int inputNumber) {
-		ExecutionEdge[] edges = new ExecutionEdge[sourcePartitions.length];
-
-		for (int i = 0; i < sourcePartitions.length; i++) {
-			IntermediateResultPartition irp = sourcePartitions[i];
-			edges[i] = new ExecutionEdge(irp, this, inputNumber);
-		}
-
-		return edges;
-	}
-
-	private ExecutionEdge[] connectPointwise(IntermediateResultPartition[] sourcePartitions, int inputNumber) {
+	private List<IntermediateResultPartition> connectPointwise(IntermediateResultPartition[] sourcePartitions) {
 		final int numSources = sourcePartitions.length;
 		final int parallelism = getTotalNumberOfParallelSubtasks();
 
 		// simple case same number of sources as targets
 		if (numSources == parallelism) {
-			return new ExecutionEdge[] { new ExecutionEdge(sourcePartitions[subTaskIndex], this, inputNumber) };
+			return Collections.singletonList(sourcePartitions[subTaskIndex]);
 		}
 		else if (numSources < parallelism) {
 
@@ -433,7 +430,7 @@ public class ExecutionVertex implements AccessExecutionVertex, Archiveable<Archi
 				sourcePartition = (int) (subTaskIndex / factor);
 			}
 
-			return new ExecutionEdge[] { new ExecutionEdge(sourcePartitions[sourcePartition], this, inputNumber) };
+			return Collections.singletonList(sourcePartitions[sourcePartition]);
 		}
 		else {
 			if (numSources % parallelism == 0) {
@@ -441,11 +438,7 @@ public class ExecutionVertex implements AccessExecutionVertex, Archiveable<Archi
 				int factor = numSources / parallelism;
 				int startIndex = subTaskIndex * factor;
 
-				ExecutionEdge[] edges = new ExecutionEdge[factor];
-				for (int i = 0; i < factor; i++) {
-					edges[i] = new ExecutionEdge(sourcePartitions[startIndex + i], this, inputNumber);
-				}
-				return edges;
+				return Arrays.asList(sourcePartitions).subList(startIndex, startIndex + factor);
 			}
 			else {
 				float factor = ((float) numSources) / parallelism;
@@ -455,12 +448,7 @@ public class ExecutionVertex implements AccessExecutionVertex, Archiveable<Archi
 						sourcePartitions.length :
 						(int) ((subTaskIndex + 1) * factor);
 
-				ExecutionEdge[] edges = new ExecutionEdge[end - start];
-				for (int i = 0; i < edges.length; i++) {
-					edges[i] = new ExecutionEdge(sourcePartitions[start + i], this, inputNumber);
-				}
-
-				return edges;
+				return Arrays.asList(sourcePartitions).subList(start, end);
 			}
 		}
 	}
@@ -522,7 +510,7 @@ public class ExecutionVertex implements AccessExecutionVertex, Archiveable<Archi
 	 */
 	public Collection<CompletableFuture<TaskManagerLocation>> getPreferredLocationsBasedOnInputs() {
 		// otherwise, base the preferred locations on the input connections
-		if (inputEdges == null) {
+		if (consumedPartitionGroups == null) {
 			return Collections.emptySet();
 		}
 		else {
@@ -530,14 +518,13 @@ public class ExecutionVertex implements AccessExecutionVertex, Archiveable<Archi
 			Set<CompletableFuture<TaskManagerLocation>> inputLocations = new HashSet<>(getTotalNumberOfParallelSubtasks());
 
 			// go over all inputs
-			for (int i = 0; i < inputEdges.length; i++) {
+			for (ConsumedPartitionGroup sources : consumedPartitionGroups) {
 				inputLocations.clear();
-				ExecutionEdge[] sources = inputEdges[i];
 				if (sources != null) {
 					// go over all input sources
-					for (int k = 0; k < sources.length; k++) {
+					for (IntermediateResultPartition source : sources) {
 						// look-up assigned slot of input source
-						CompletableFuture<TaskManagerLocation> locationFuture = sources[k].getSource().getProducer().getCurrentTaskManagerLocationFuture();
+						CompletableFuture<TaskManagerLocation> locationFuture = source.getProducer().getCurrentTaskManagerLocationFuture();
 						// add input location
 						inputLocations.add(locationFuture);
 						// inputs which have too many distinct sources are not considered
@@ -718,7 +705,7 @@ public class ExecutionVertex implements AccessExecutionVertex, Archiveable<Archi
 
 		if (partition.getIntermediateResult().getResultType().isPipelined()) {
 			// Schedule or update receivers of this partition
-			execution.scheduleOrUpdateConsumers(partition.getConsumers());
+			execution.scheduleOrUpdateConsumers(partition);
 		}
 		else {
 			throw new IllegalArgumentException("ScheduleOrUpdateConsumers msg is only valid for" +
@@ -766,10 +753,10 @@ public class ExecutionVertex implements AccessExecutionVertex, Archiveable<Archi
 	boolean checkInputDependencyConstraints() {
 		if (getInputDependencyConstraint() == InputDependencyConstraint.ANY) {
 			// InputDependencyConstraint == ANY
-			return IntStream.range(0, inputEdges.length).anyMatch(this::isInputConsumable);
+			return IntStream.range(0, consumedPartitionGroups.length).anyMatch(this::isInputConsumable);
 		} else {
 			// InputDependencyConstraint == ALL
-			return IntStream.range(0, inputEdges.length).allMatch(this::isInputConsumable);
+			return IntStream.range(0, consumedPartitionGroups.length).allMatch(this::isInputConsumable);
 		}
 	}
 
@@ -782,8 +769,7 @@ public class ExecutionVertex implements AccessExecutionVertex, Archiveable<Archi
 	 * @return whether the input is consumable
 	 */
 	boolean isInputConsumable(int inputNumber) {
-		return Arrays.stream(inputEdges[inputNumber]).map(ExecutionEdge::getSource).anyMatch(
-				IntermediateResultPartition::isConsumable);
+		return consumedPartitionGroups[inputNumber].isAnyPartitionConsumable();
 	}
 
 	// --------------------------------------------------------------------------------------------
@@ -831,13 +817,13 @@ public class ExecutionVertex implements AccessExecutionVertex, Archiveable<Archi
 		List<ResultPartitionDeploymentDescriptor> producedPartitions = new ArrayList<>(resultPartitions.size());
 
 		// Consumed intermediate results
-		List<InputGateDeploymentDescriptor> consumedPartitions = new ArrayList<>(inputEdges.length);
+		List<InputGateDeploymentDescriptor> consumedPartitions = new ArrayList<>(consumedPartitionGroups.length);
 
 		boolean lazyScheduling = getExecutionGraph().getScheduleMode().allowLazyDeployment();
 
 		for (IntermediateResultPartition partition : resultPartitions.values()) {
 
-			List<List<ExecutionEdge>> consumers = partition.getConsumers();
+			List<ConsumerVertexGroup> consumers = partition.getConsumers();
 
 			if (consumers.isEmpty()) {
 				//TODO this case only exists for test, currently there has to be exactly one consumer in real jobs!
@@ -849,27 +835,27 @@ public class ExecutionVertex implements AccessExecutionVertex, Archiveable<Archi
 				Preconditions.checkState(1 == consumers.size(),
 						"Only one consumer supported in the current implementation! Found: " + consumers.size());
 
-				List<ExecutionEdge> consumer = consumers.get(0);
-				ExecutionJobVertex vertex = consumer.get(0).getTarget().getJobVertex();
+				ConsumerVertexGroup consumer = consumers.get(0);
+				ExecutionJobVertex vertex = consumer.getFirst().getJobVertex();
 				int maxParallelism = vertex.getMaxParallelism();
 				producedPartitions.add(ResultPartitionDeploymentDescriptor.from(partition, maxParallelism, lazyScheduling));
 			}
 		}
 
-		for (ExecutionEdge[] edges : inputEdges) {
-			InputChannelDeploymentDescriptor[] partitions = InputChannelDeploymentDescriptor.fromEdges(
-				edges,
+		for (ConsumedPartitionGroup consumedPartitionGroup : consumedPartitionGroups) {
+			InputChannelDeploymentDescriptor[] partitions = InputChannelDeploymentDescriptor.fromPartitions(
+				consumedPartitionGroup,
 				targetSlot.getTaskManagerLocation().getResourceID(),
 				lazyScheduling);
 
 			// If the produced partition has multiple consumers registered, we
 			// need to request the one matching our sub task index.
 			// TODO Refactor after removing the consumers from the intermediate result partitions
-			int numConsumerEdges = edges[0].getSource().getConsumers().get(0).size();
+			int numConsumers = consumedPartitionGroup.getFirst().getConsumers().get(0).size();
 
-			int queueToRequest = subTaskIndex % numConsumerEdges;
+			int queueToRequest = subTaskIndex % numConsumers;
 
-			IntermediateResult consumedIntermediateResult = edges[0].getSource().getIntermediateResult();
+			IntermediateResult consumedIntermediateResult = consumedPartitionGroup.getIntermediateResult();
 			final IntermediateDataSetID resultId = consumedIntermediateResult.getId();
 			final ResultPartitionType partitionType = consumedIntermediateResult.getResultType();
 
@@ -34,7 +34,7 @@ public class IntermediateResultPartition {
 
 	private final IntermediateResultPartitionID partitionId;
 
-	private List<List<ExecutionEdge>> consumers;
+	private final List<ConsumerVertexGroup> consumers;
 
 	/**
 	 * Whether this partition has produced some data.
@@ -45,7 +45,7 @@ public class IntermediateResultPartition {
 		this.totalResult = totalResult;
 		this.producer = producer;
 		this.partitionNumber = partitionNumber;
-		this.consumers = new ArrayList<List<ExecutionEdge>>(0);
+		this.consumers = new ArrayList<>(0);
 		this.partitionId = new IntermediateResultPartitionID();
 	}
 
@@ -69,7 +69,7 @@ public class IntermediateResultPartition {
 		return totalResult.getResultType();
 	}
 
-	public List<List<ExecutionEdge>> getConsumers() {
+	public List<ConsumerVertexGroup> getConsumers() {
 		return consumers;
 	}
 
@@ -97,12 +97,16 @@ public class IntermediateResultPartition {
 			throw new RuntimeException("Currently, each intermediate result can only have one consumer.");
 		}
 
-		consumers.add(new ArrayList<ExecutionEdge>());
+		consumers.add(new ConsumerVertexGroup());
 		return pos;
 	}
 
-	void addConsumer(ExecutionEdge edge, int consumerNumber) {
-		consumers.get(consumerNumber).add(edge);
+	void addConsumer(ExecutionVertex consumer, int consumerNumber) {
+		consumers.get(consumerNumber).add(consumer);
+	}
+
+	void setConsumerGroup(ConsumerVertexGroup consumerGroup, int consumerNumber) {
+		consumers.set(consumerNumber, consumerGroup);
 	}
 
 	boolean markFinished() {
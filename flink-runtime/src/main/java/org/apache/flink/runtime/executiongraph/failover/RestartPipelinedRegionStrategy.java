@@ -19,12 +19,13 @@
 package org.apache.flink.runtime.executiongraph.failover;
 
 import org.apache.flink.annotation.VisibleForTesting;
+import org.apache.flink.runtime.executiongraph.ConsumedPartitionGroup;
 import org.apache.flink.runtime.executiongraph.Execution;
-import org.apache.flink.runtime.executiongraph.ExecutionEdge;
 import org.apache.flink.runtime.executiongraph.ExecutionGraph;
 import org.apache.flink.runtime.executiongraph.ExecutionJobVertex;
 import org.apache.flink.runtime.executiongraph.ExecutionVertex;
 import org.apache.flink.runtime.executiongraph.IntermediateResult;
+import org.apache.flink.runtime.executiongraph.IntermediateResultPartition;
 import org.apache.flink.runtime.jobgraph.JobVertexID;
 import org.apache.flink.util.FlinkException;
 import org.apache.flink.util.FlinkRuntimeException;
@@ -34,10 +35,12 @@ import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import static org.apache.flink.util.Preconditions.checkNotNull;
 
@@ -110,8 +113,11 @@ public class RestartPipelinedRegionStrategy extends FailoverStrategy {
 		// we use the map (list -> null) to imitate an IdentityHashSet (which does not exist)
 		final IdentityHashMap<ArrayList<ExecutionVertex>, Object> distinctRegions = new IdentityHashMap<>();
 
-		// this loop will worst case iterate over every edge in the graph (complexity is O(#edges))
-		
+		// partition groups that are shared by several consumers (all-to-all connections) only need to be
+		// traversed once, afterwards all of their producers are in the same region. with that, this loop
+		// iterates over every distinct consumed partition group instead of every edge in the graph
+		final Set<ConsumedPartitionGroup> visitedPartitionGroups = Collections.newSetFromMap(new IdentityHashMap<>());
+
 		for (ExecutionJobVertex ejv : newJobVerticesTopological) {
 
 			// currently, jobs with a co-location constraint fail as one
@@ -143,22 +149,39 @@ public class RestartPipelinedRegionStrategy extends FailoverStrategy {
 					for (int inputNum = 0; inputNum < numInputs; inputNum++) {
 						if (inputs.get(inputNum).getResultType().isPipelined()) {
 
-							for (ExecutionEdge edge : ev.getInputEdges(inputNum)) {
-								final ExecutionVertex predecessor = edge.getSource().getProducer();
+							final ConsumedPartitionGroup consumedPartitions = ev.getConsumedPartitionGroup(inputNum);
+							final Iterable<IntermediateResultPartition> partitionsToVisit =
+								visitedPartitionGroups.add(consumedPartitions) ?
+									consumedPartitions :
+									Collections.singletonList(consumedPartitions.getFirst());
+
+							for (IntermediateResultPartition partition : partitionsToVisit) {
+								final ExecutionVertex predecessor = partition.getProducer();
 								final ArrayList<ExecutionVertex> predecessorRegion = vertexToRegion.get(predecessor);
 
 								if (thisRegion != null) {
 									// we already have a region. see if it is the same as the predecessor's region
 									if (predecessorRegion != thisRegion) {
 
-										// we need to merge our region and the predecessor's region
-										predecessorRegion.addAll(thisRegion);
-										distinctRegions.remove(thisRegion);
-										thisRegion = predecessorRegion;
+										// we need to merge our region and the predecessor's region.
+										// the smaller region is merged into the larger one to keep remapping cheap
+										final ArrayList<ExecutionVertex> largerRegion;
+										final ArrayList<ExecutionVertex> smallerRegion;
+										if (predecessorRegion.size() >= thisRegion.size()) {
+											largerRegion = predecessorRegion;
+											smallerRegion = thisRegion;
+										} else {
+											largerRegion = thisRegion;
+											smallerRegion = predecessorRegion;
+										}
+
+										largerRegion.addAll(smallerRegion);
+										distinctRegions.remove(smallerRegion);
+										thisRegion = largerRegion;
 
 										// remap the vertices from that merged region
-										for (ExecutionVertex inPredRegion: predecessorRegion) {
-											vertexToRegion.put(inPredRegion, thisRegion);
+										for (ExecutionVertex inMergedRegion : smallerRegion) {
+											vertexToRegion.put(inMergedRegion, thisRegion);
 										}
 									}
 								}
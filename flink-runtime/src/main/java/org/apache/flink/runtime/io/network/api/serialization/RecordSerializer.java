@@ -72,6 +72,20 @@ public interface RecordSerializer<T extends IOReadableWritable> {
 	 */
 	void serializeRecord(T record) throws IOException;
 
+	/**
+	 * Serializes the given record directly into the given target buffer, without going through
+	 * the intermediate data buffer, if the record fits into the remaining space of the target buffer.
+	 *
+	 * <p>If the record does not fit, the target buffer is left unchanged and the record has to be
+	 * serialized with {@link #serializeRecord(IOReadableWritable)} and copied with
+	 * {@link #copyToBufferBuilder(BufferBuilder)}.
+	 *
+	 * @param record the record to serialize
+	 * @param targetBuffer the target buffer to serialize the record into
+	 * @return <tt>true</tt> if the complete record was written to the target buffer
+	 */
+	boolean serializeRecordToBufferBuilder(T record, BufferBuilder targetBuffer) throws IOException;
+
 	/**
 	 * Copies the intermediate data serialization buffer to the given target buffer.
 	 *
@@ -20,8 +20,11 @@ package org.apache.flink.runtime.io.network.api.serialization;
 
 import org.apache.flink.core.io.IOReadableWritable;
 import org.apache.flink.core.memory.DataOutputSerializer;
+import org.apache.flink.core.memory.MemorySegment;
 import org.apache.flink.runtime.io.network.buffer.BufferBuilder;
+import org.apache.flink.runtime.memory.AbstractPagedOutputView;
 
+import java.io.EOFException;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
@@ -31,6 +34,10 @@ import java.nio.ByteOrder;
  * data serialization buffer and copies this buffer to target buffers
  * one-by-one using {@link #copyToBufferBuilder(BufferBuilder)}.
  *
+ * <p>Records that fit into the remaining space of the target buffer can instead be serialized
+ * directly into it with {@link #serializeRecordToBufferBuilder(IOReadableWritable, BufferBuilder)},
+ * which saves copying them. Their length is patched in front of them once they are written.
+ *
  * @param <T> The type of the records that are serialized.
  */
 public class SpanningRecordSerializer<T extends IOReadableWritable> implements RecordSerializer<T> {
@@ -47,6 +54,12 @@ public class SpanningRecordSerializer<T extends IOReadableWritable> implements R
 	/** Intermediate buffer for length serialization. */
 	private final ByteBuffer lengthBuffer;
 
+	/** View for the serialization directly into target buffers, created on first use. */
+	private BufferBuilderOutputView bufferBuilderOutputView;
+
+	/** The length of the last serialized record, used to skip direct serialization attempts that are likely to fail. */
+	private int lastRecordLength;
+
 	public SpanningRecordSerializer() {
 		serializationBuffer = new DataOutputSerializer(128);
 
@@ -79,10 +92,64 @@ public class SpanningRecordSerializer<T extends IOReadableWritable> implements R
 
 		int len = serializationBuffer.length();
 		lengthBuffer.putInt(0, len);
+		lastRecordLength = len;
 
 		dataBuffer = serializationBuffer.wrapAsByteBuffer();
 	}
 
+	/**
+	 * Serializes the record directly into the target buffer, if it fits into its remaining space.
+	 *
+	 * <p>Space for the length is left in front of the record and patched once the record is
+	 * written. The record is only appended to the target buffer if it was written completely, so a
+	 * record that does not fit leaves no trace in the target buffer.
+	 *
+	 * @param record the record to serialize
+	 * @param targetBuffer the target buffer to serialize the record into
+	 * @return <tt>true</tt> if the complete record was written to the target buffer
+	 */
+	@Override
+	public boolean serializeRecordToBufferBuilder(T record, BufferBuilder targetBuffer) throws IOException {
+		if (CHECKED) {
+			if (dataBuffer.hasRemaining()) {
+				throw new IllegalStateException("Pending serialization of previous record.");
+			}
+		}
+
+		// a record that is as large as the last one would not fit, so do not serialize it twice
+		if (targetBuffer.getWritableBytes() < 4 + lastRecordLength) {
+			return false;
+		}
+
+		final MemorySegment segment = targetBuffer.getMemorySegment();
+		final int lengthPosition = targetBuffer.getWritePosition();
+
+		if (bufferBuilderOutputView == null || bufferBuilderOutputView.getSegmentSize() != targetBuffer.getMaxCapacity()) {
+			bufferBuilderOutputView = new BufferBuilderOutputView(targetBuffer.getMaxCapacity());
+		}
+		bufferBuilderOutputView.seekOutput(segment, lengthPosition + 4);
+
+		final int len;
+		try {
+			record.write(bufferBuilderOutputView);
+			len = bufferBuilderOutputView.getCurrentPositionInSegment() - lengthPosition - 4;
+		}
+		catch (EOFException e) {
+			// the record does not fit, the written bytes are not appended
+			return false;
+		}
+		finally {
+			bufferBuilderOutputView.clear();
+		}
+
+		segment.putIntBigEndian(lengthPosition, len);
+		targetBuffer.moveWritePosition(4 + len);
+		targetBuffer.commit();
+		lastRecordLength = len;
+
+		return true;
+	}
+
 	/**
 	 * Copies an intermediate data serialization buffer into the target BufferBuilder.
 	 *
@@ -124,4 +191,34 @@ public class SpanningRecordSerializer<T extends IOReadableWritable> implements R
 	public boolean hasSerializedData() {
 		return lengthBuffer.hasRemaining() || dataBuffer.hasRemaining();
 	}
+
+	// ------------------------------------------------------------------------
+
+	/**
+	 * Output view that writes into the memory segment of a {@link BufferBuilder}, and signals with
+	 * an {@link EOFException} that the remaining space of the segment is exhausted.
+	 */
+	private static final class BufferBuilderOutputView extends AbstractPagedOutputView {
+
+		BufferBuilderOutputView(int segmentSize) {
+			super(segmentSize, 0);
+		}
+
+		// the seek and clear methods are overridden to make them accessible to the serializer
+
+		@Override
+		protected void seekOutput(MemorySegment segment, int position) {
+			super.seekOutput(segment, position);
+		}
+
+		@Override
+		protected void clear() {
+			super.clear();
+		}
+
+		@Override
+		protected MemorySegment nextSegment(MemorySegment current, int positionInCurrent) throws EOFException {
+			throw new EOFException();
+		}
+	}
 }
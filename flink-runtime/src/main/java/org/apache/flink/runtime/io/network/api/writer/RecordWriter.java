@@ -149,6 +149,18 @@ public class RecordWriter<T extends IOReadableWritable> {
 	}
 
 	private void emit(T record, int targetChannel) throws IOException, InterruptedException {
+		// most records fit into the current buffer and are serialized into it without an intermediate copy
+		BufferBuilder bufferBuilder = getBufferBuilder(targetChannel);
+		if (serializer.serializeRecordToBufferBuilder(record, bufferBuilder)) {
+			if (bufferBuilder.isFull()) {
+				tryFinishCurrentBufferBuilder(targetChannel);
+			}
+			if (flushAlways) {
+				targetPartition.flush(targetChannel);
+			}
+			return;
+		}
+
 		serializer.serializeRecord(record);
 
 		if (copyFromSerializerToTargetChannel(targetChannel)) {
@@ -87,6 +87,39 @@ public class BufferBuilder {
 		return toCopy;
 	}
 
+	/**
+	 * Returns the underlying {@link MemorySegment}, so that writers can serialize into it directly
+	 * instead of going through an intermediate buffer. The bytes written starting at
+	 * {@link #getWritePosition()} are appended with {@link #moveWritePosition(int)}.
+	 */
+	public MemorySegment getMemorySegment() {
+		return memorySegment;
+	}
+
+	/**
+	 * @return the position in the underlying {@link MemorySegment} at which the next bytes are appended.
+	 */
+	public int getWritePosition() {
+		return positionMarker.getCached();
+	}
+
+	/**
+	 * Appends the given number of bytes that were written directly into the underlying
+	 * {@link MemorySegment}, starting at {@link #getWritePosition()}.
+	 */
+	public void moveWritePosition(int numBytes) {
+		checkState(!isFinished());
+		checkState(numBytes >= 0 && numBytes <= getWritableBytes());
+		positionMarker.move(numBytes);
+	}
+
+	/**
+	 * @return the number of bytes that can still be appended.
+	 */
+	public int getWritableBytes() {
+		return getMaxCapacity() - positionMarker.getCached();
+	}
+
 	/**
 	 * Make the change visible to the readers. This is costly operation (volatile access) thus in case of bulk writes
 	 * it's better to commit them all together instead one by one.
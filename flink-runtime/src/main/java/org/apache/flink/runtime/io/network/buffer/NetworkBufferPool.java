@@ -21,6 +21,7 @@ package org.apache.flink.runtime.io.network.buffer;
 import org.apache.flink.configuration.TaskManagerOptions;
 import org.apache.flink.core.memory.MemorySegment;
 import org.apache.flink.core.memory.MemorySegmentFactory;
+import org.apache.flink.core.memory.OffHeapMemoryArena;
 import org.apache.flink.util.ExceptionUtils;
 import org.apache.flink.util.MathUtils;
 
@@ -30,6 +31,7 @@ import org.slf4j.LoggerFactory;
 import javax.annotation.Nullable;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
@@ -59,6 +61,9 @@ public class NetworkBufferPool implements BufferPoolFactory {
 
 	private final ArrayBlockingQueue<MemorySegment> availableMemorySegments;
 
+	/** The off-heap memory of the memory segments, which is allocated in a few large chunks. */
+	private final OffHeapMemoryArena arena;
+
 	private volatile boolean isDestroyed;
 
 	// ---- Managed buffer pools ----------------------------------------------
@@ -88,24 +93,17 @@ public class NetworkBufferPool implements BufferPoolFactory {
 		}
 
 		try {
-			for (int i = 0; i < numberOfSegmentsToAllocate; i++) {
-				availableMemorySegments.add(MemorySegmentFactory.allocateUnpooledOffHeapMemory(segmentSize, null));
-			}
+			this.arena = new OffHeapMemoryArena(numberOfSegmentsToAllocate, segmentSize);
 		}
 		catch (OutOfMemoryError err) {
-			int allocated = availableMemorySegments.size();
-
-			// free some memory
-			availableMemorySegments.clear();
-
 			long requiredMb = (sizeInLong * numberOfSegmentsToAllocate) >> 20;
-			long allocatedMb = (sizeInLong * allocated) >> 20;
-			long missingMb = requiredMb - allocatedMb;
 
 			throw new OutOfMemoryError("Could not allocate enough memory segments for NetworkBufferPool " +
-					"(required (Mb): " + requiredMb +
-					", allocated (Mb): " + allocatedMb +
-					", missing (Mb): " + missingMb + "). Cause: " + err.getMessage());
+					"(required (Mb): " + requiredMb + "). Cause: " + err.getMessage());
+		}
+
+		for (ByteBuffer buffer : arena.getSegmentBuffers()) {
+			availableMemorySegments.add(MemorySegmentFactory.wrapPooledOffHeapMemory(buffer, null));
 		}
 
 		long allocatedMb = (sizeInLong * availableMemorySegments.size()) >> 20;
@@ -207,9 +205,17 @@ public class NetworkBufferPool implements BufferPoolFactory {
 		synchronized (factoryLock) {
 			isDestroyed = true;
 
+			int numFreedSegments = 0;
 			MemorySegment segment;
 			while ((segment = availableMemorySegments.poll()) != null) {
 				segment.free();
+				numFreedSegments++;
+			}
+
+			// the memory can only be freed right away if no segment is in use any more,
+			// otherwise it is left to the garbage collector
+			if (numFreedSegments == totalNumberOfMemorySegments) {
+				arena.free();
 			}
 		}
 	}
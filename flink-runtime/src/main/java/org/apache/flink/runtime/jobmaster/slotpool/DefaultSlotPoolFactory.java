@@ -20,6 +20,7 @@ package org.apache.flink.runtime.jobmaster.slotpool;
 
 import org.apache.flink.api.common.JobID;
 import org.apache.flink.api.common.time.Time;
+import org.apache.flink.configuration.CheckpointingOptions;
 import org.apache.flink.configuration.Configuration;
 import org.apache.flink.configuration.JobManagerOptions;
 import org.apache.flink.runtime.akka.AkkaUtils;
@@ -42,13 +43,25 @@ public class DefaultSlotPoolFactory implements SlotPoolFactory {
 	@Nonnull
 	private final Time slotIdleTimeout;
 
+	@Nonnull
+	private final Time localRecoverySlotRetention;
+
 	public DefaultSlotPoolFactory(
 			@Nonnull Clock clock,
 			@Nonnull Time rpcTimeout,
 			@Nonnull Time slotIdleTimeout) {
+		this(clock, rpcTimeout, slotIdleTimeout, Time.milliseconds(0L));
+	}
+
+	public DefaultSlotPoolFactory(
+			@Nonnull Clock clock,
+			@Nonnull Time rpcTimeout,
+			@Nonnull Time slotIdleTimeout,
+			@Nonnull Time localRecoverySlotRetention) {
 		this.clock = clock;
 		this.rpcTimeout = rpcTimeout;
 		this.slotIdleTimeout = slotIdleTimeout;
+		this.localRecoverySlotRetention = localRecoverySlotRetention;
 	}
 
 	@Override
@@ -58,7 +71,8 @@ public class DefaultSlotPoolFactory implements SlotPoolFactory {
 			jobId,
 			clock,
 			rpcTimeout,
-			slotIdleTimeout);
+			slotIdleTimeout,
+			localRecoverySlotRetention);
 	}
 
 	public static DefaultSlotPoolFactory fromConfiguration(@Nonnull Configuration configuration) {
@@ -66,9 +80,15 @@ public class DefaultSlotPoolFactory implements SlotPoolFactory {
 		final Time rpcTimeout = AkkaUtils.getTimeoutAsTime(configuration);
 		final Time slotIdleTimeout = Time.milliseconds(configuration.getLong(JobManagerOptions.SLOT_IDLE_TIMEOUT));
 
+		// returned slots are only worth retaining if the tasks can recover from their local state
+		final Time localRecoverySlotRetention = configuration.getBoolean(CheckpointingOptions.LOCAL_RECOVERY) ?
+			Time.milliseconds(configuration.getLong(JobManagerOptions.SLOT_LOCAL_RECOVERY_RETENTION_TIMEOUT)) :
+			Time.milliseconds(0L);
+
 		return new DefaultSlotPoolFactory(
 			SystemClock.getInstance(),
 			rpcTimeout,
-			slotIdleTimeout);
+			slotIdleTimeout,
+			localRecoverySlotRetention);
 	}
 }
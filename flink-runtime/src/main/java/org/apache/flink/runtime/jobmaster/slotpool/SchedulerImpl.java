@@ -20,6 +20,7 @@ package org.apache.flink.runtime.jobmaster.slotpool;
 
 import org.apache.flink.annotation.VisibleForTesting;
 import org.apache.flink.api.common.time.Time;
+import org.apache.flink.runtime.clusterframework.types.AllocationID;
 import org.apache.flink.runtime.clusterframework.types.SlotProfile;
 import org.apache.flink.runtime.concurrent.ComponentMainThreadExecutor;
 import org.apache.flink.runtime.concurrent.FutureUtils;
@@ -151,6 +152,14 @@ public class SchedulerImpl implements Scheduler {
 		}
 	}
 
+	@Override
+	public void retainSlotForRestart(AllocationID allocationId) {
+
+		componentMainThreadExecutor.assertRunningInMainThread();
+
+		slotPool.retainSlotForRestart(allocationId);
+	}
+
 	@Override
 	public void returnLogicalSlot(LogicalSlot logicalSlot) {
 		SlotRequestId slotRequestId = logicalSlot.getSlotRequestId();
@@ -223,7 +232,8 @@ public class SchedulerImpl implements Scheduler {
 		@Nonnull SlotRequestId slotRequestId,
 		@Nonnull SlotProfile slotProfile) {
 
-		Collection<SlotInfo> slotInfoList = slotPool.getAvailableSlotsInformation();
+		Collection<SlotInfo> slotInfoList =
+			slotPool.getAvailableSlotsInformation(slotProfile.getPreferredAllocations());
 
 		Optional<SlotSelectionStrategy.SlotInfoAndLocality> selectedAvailableSlot =
 			slotSelectionStrategy.selectBestSlotForProfile(slotInfoList, slotProfile);
@@ -136,6 +136,26 @@ public interface SlotPool extends AllocatedSlotActions, AutoCloseable {
 	@Nonnull
 	Collection<SlotInfo> getAvailableSlotsInformation();
 
+	/**
+	 * Returns a list of {@link SlotInfo} objects about all slots that are currently available in the slot
+	 * pool for a request with the given preferred allocations. Slots which are retained for local recovery
+	 * are only included if the request prefers their allocation.
+	 *
+	 * @param preferredAllocations allocations which the requesting execution used before
+	 * @return a list of {@link SlotInfo} objects about all slots that are available for the request.
+	 */
+	@Nonnull
+	Collection<SlotInfo> getAvailableSlotsInformation(@Nonnull Collection<AllocationID> preferredAllocations);
+
+	/**
+	 * Marks the allocation as used by a task which is released in order to be restarted after a failure.
+	 * If local recovery is enabled, the slot of the allocation is retained for the restarted task once it
+	 * is returned to the slot pool. Slots which are returned without such a mark are immediately reused.
+	 *
+	 * @param allocationId identifying the allocation of the task which is restarted
+	 */
+	void retainSlotForRestart(@Nonnull AllocationID allocationId);
+
 	/**
 	 * Allocates the available slot with the given allocation id under the given request id. This method returns
 	 * {@code null} if no slot with the given allocation id is available.
@@ -112,6 +112,16 @@ public class SlotPoolImpl implements SlotPool {
 	/** Timeout for releasing idle slots. */
 	private final Time idleSlotTimeout;
 
+	/**
+	 * Time for which a returned slot is retained for the task which used it before. A retained slot
+	 * is not used to fulfill pending requests, so that the task can be restarted with its local state.
+	 * A zero duration disables the retention.
+	 */
+	private final Time localRecoverySlotRetention;
+
+	/** Allocations whose tasks are restarted after a failure, with the time at which they were marked. */
+	private final HashMap<AllocationID, Long> allocationsForRestart;
+
 	private final Clock clock;
 
 	/** the fencing token of the job manager. */
@@ -140,17 +150,28 @@ public class SlotPoolImpl implements SlotPool {
 			Clock clock,
 			Time rpcTimeout,
 			Time idleSlotTimeout) {
+		this(jobId, clock, rpcTimeout, idleSlotTimeout, Time.milliseconds(0L));
+	}
+
+	public SlotPoolImpl(
+			JobID jobId,
+			Clock clock,
+			Time rpcTimeout,
+			Time idleSlotTimeout,
+			Time localRecoverySlotRetention) {
 
 		this.jobId = checkNotNull(jobId);
 		this.clock = checkNotNull(clock);
 		this.rpcTimeout = checkNotNull(rpcTimeout);
 		this.idleSlotTimeout = checkNotNull(idleSlotTimeout);
+		this.localRecoverySlotRetention = checkNotNull(localRecoverySlotRetention);
 
 		this.registeredTaskManagers = new HashSet<>(16);
 		this.allocatedSlots = new AllocatedSlots();
 		this.availableSlots = new AvailableSlots();
 		this.pendingRequests = new DualKeyMap<>(16);
 		this.waitingForResourceManager = new HashMap<>(16);
+		this.allocationsForRestart = new HashMap<>(16);
 
 		this.jobMasterId = null;
 		this.resourceManagerGateway = null;
@@ -405,7 +426,23 @@ public class SlotPoolImpl implements SlotPool {
 	@Override
 	@Nonnull
 	public Collection<SlotInfo> getAvailableSlotsInformation() {
-		return availableSlots.listSlotInfo();
+		return availableSlots.listSlotInfo(Collections.emptyList());
+	}
+
+	@Override
+	@Nonnull
+	public Collection<SlotInfo> getAvailableSlotsInformation(@Nonnull Collection<AllocationID> preferredAllocations) {
+		return availableSlots.listSlotInfo(preferredAllocations);
+	}
+
+	@Override
+	public void retainSlotForRestart(@Nonnull AllocationID allocationId) {
+
+		componentMainThreadExecutor.assertRunningInMainThread();
+
+		if (localRecoverySlotRetention.toMilliseconds() > 0L) {
+			allocationsForRestart.put(allocationId, clock.relativeTimeMillis());
+		}
 	}
 
 	private void releaseSingleSlot(SlotRequestId slotRequestId, Throwable cause) {
@@ -418,13 +455,31 @@ public class SlotPoolImpl implements SlotPool {
 
 			if (allocatedSlot != null) {
 				allocatedSlot.releasePayload(cause);
-				tryFulfillSlotRequestOrMakeAvailable(allocatedSlot);
+
+				if (isMarkedForRestart(allocatedSlot.getAllocationId())) {
+					log.debug("Retaining returned slot [{}] for local recovery", allocatedSlot.getAllocationId());
+					availableSlots.add(allocatedSlot, clock.relativeTimeMillis(), true);
+				} else {
+					tryFulfillSlotRequestOrMakeAvailable(allocatedSlot);
+				}
 			} else {
 				log.debug("There is no allocated slot [{}]. Ignoring the release slot request.", slotRequestId);
 			}
 		}
 	}
 
+	/**
+	 * Checks whether the task of the given allocation is restarted after a failure and removes the mark.
+	 * Only slots of such tasks are retained for local recovery, all other returned slots are immediately
+	 * used to fulfill pending requests.
+	 */
+	private boolean isMarkedForRestart(AllocationID allocationId) {
+		final Long markTimestamp = allocationsForRestart.remove(allocationId);
+
+		return markTimestamp != null &&
+			clock.relativeTimeMillis() - markTimestamp <= localRecoverySlotRetention.toMilliseconds();
+	}
+
 	/**
 	 * Checks whether there exists a pending request with the given slot request id and removes it
 	 * from the internal data structures.
@@ -748,14 +803,33 @@ public class SlotPoolImpl implements SlotPool {
 		// The timestamp in SlotAndTimestamp is relative
 		final long currentRelativeTimeMillis = clock.relativeTimeMillis();
 
+		// forget restart marks of tasks whose slots were never returned within the retention time
+		allocationsForRestart.values().removeIf(
+			markTimestamp -> currentRelativeTimeMillis - markTimestamp > localRecoverySlotRetention.toMilliseconds());
+
 		final List<AllocatedSlot> expiredSlots = new ArrayList<>(availableSlots.size());
+		final List<AllocatedSlot> expiredRetainedSlots = new ArrayList<>();
 
 		for (SlotAndTimestamp slotAndTimestamp : availableSlots.availableSlots.values()) {
-			if (currentRelativeTimeMillis - slotAndTimestamp.timestamp > idleSlotTimeout.toMilliseconds()) {
+			final long idleTime = currentRelativeTimeMillis - slotAndTimestamp.timestamp;
+
+			if (slotAndTimestamp.retainedForLocalRecovery) {
+				if (idleTime > localRecoverySlotRetention.toMilliseconds()) {
+					expiredRetainedSlots.add(slotAndTimestamp.slot);
+				}
+			} else if (idleTime > idleSlotTimeout.toMilliseconds()) {
 				expiredSlots.add(slotAndTimestamp.slot);
 			}
 		}
 
+		// slots which are no longer retained for their previous task become regular available slots
+		for (AllocatedSlot expiredRetainedSlot : expiredRetainedSlots) {
+			if (availableSlots.tryRemove(expiredRetainedSlot.getAllocationId()) != null) {
+				log.debug("Retention of slot [{}] for local recovery expired.", expiredRetainedSlot.getAllocationId());
+				tryFulfillSlotRequestOrMakeAvailable(expiredRetainedSlot);
+			}
+		}
+
 		final FlinkException cause = new FlinkException("Releasing idle slot.");
 
 		for (AllocatedSlot expiredSlot : expiredSlots) {
@@ -1069,10 +1143,20 @@ public class SlotPoolImpl implements SlotPool {
 		 * @param slot The slot to add
 		 */
 		void add(final AllocatedSlot slot, final long timestamp) {
+			add(slot, timestamp, false);
+		}
+
+		/**
+		 * Adds an available slot.
+		 *
+		 * @param slot The slot to add
+		 * @param retainedForLocalRecovery Whether the slot is retained for the task which used it before
+		 */
+		void add(final AllocatedSlot slot, final long timestamp, final boolean retainedForLocalRecovery) {
 			checkNotNull(slot);
 
 			SlotAndTimestamp previous = availableSlots.put(
-					slot.getAllocationId(), new SlotAndTimestamp(slot, timestamp));
+					slot.getAllocationId(), new SlotAndTimestamp(slot, timestamp, retainedForLocalRecovery));
 
 			if (previous == null) {
 				final ResourceID resourceID = slot.getTaskManagerLocation().getResourceID();
@@ -1164,11 +1248,17 @@ public class SlotPoolImpl implements SlotPool {
 			}
 		}
 
+		/**
+		 * Lists the available slots. Slots which are retained for local recovery are only listed if
+		 * their allocation is among the given preferred allocations.
+		 */
 		@Nonnull
-		List<SlotInfo> listSlotInfo() {
+		List<SlotInfo> listSlotInfo(Collection<AllocationID> preferredAllocations) {
 			return availableSlots
 				.values()
 				.stream()
+				.filter(slotAndTimestamp -> !slotAndTimestamp.retainedForLocalRecovery ||
+					preferredAllocations.contains(slotAndTimestamp.slot.getAllocationId()))
 				.map(SlotAndTimestamp::slot)
 				.collect(Collectors.toList());
 		}
@@ -1262,9 +1352,13 @@ public class SlotPoolImpl implements SlotPool {
 
 		private final long timestamp;
 
-		SlotAndTimestamp(AllocatedSlot slot, long timestamp) {
+		/** Whether the slot is retained for the task which used it before. */
+		private final boolean retainedForLocalRecovery;
+
+		SlotAndTimestamp(AllocatedSlot slot, long timestamp, boolean retainedForLocalRecovery) {
 			this.slot = slot;
 			this.timestamp = timestamp;
+			this.retainedForLocalRecovery = retainedForLocalRecovery;
 		}
 
 		public AllocatedSlot slot() {
@@ -19,6 +19,7 @@
 package org.apache.flink.runtime.jobmaster.slotpool;
 
 import org.apache.flink.api.common.time.Time;
+import org.apache.flink.runtime.clusterframework.types.AllocationID;
 import org.apache.flink.runtime.clusterframework.types.SlotProfile;
 import org.apache.flink.runtime.instance.SlotSharingGroupId;
 import org.apache.flink.runtime.jobmanager.scheduler.ScheduledUnit;
@@ -92,4 +93,13 @@ public interface SlotProvider {
 		SlotRequestId slotRequestId,
 		@Nullable SlotSharingGroupId slotSharingGroupId,
 		Throwable cause);
+
+	/**
+	 * Notifies the slot provider that the task running in the slot of the given allocation is released
+	 * in order to be restarted after a failure. The slot provider may then retain the slot for the
+	 * restarted task so that it can recover from its local state.
+	 *
+	 * @param allocationId identifying the allocation of the task which is restarted
+	 */
+	default void retainSlotForRestart(AllocationID allocationId) {}
 }
@@ -22,6 +22,7 @@ import org.apache.flink.core.memory.HybridMemorySegment;
 import org.apache.flink.core.memory.MemorySegment;
 import org.apache.flink.core.memory.MemorySegmentFactory;
 import org.apache.flink.core.memory.MemoryType;
+import org.apache.flink.core.memory.OffHeapMemoryArena;
 import org.apache.flink.util.MathUtils;
 
 import org.slf4j.Logger;
@@ -663,15 +664,17 @@ public class MemoryManager {
 		/** The collection of available memory segments. */
 		private final ArrayDeque<ByteBuffer> availableMemory;
 
+		/** The arena of the initial segments, which are allocated in a few large chunks. */
+		private final OffHeapMemoryArena arena;
+
 		private final int segmentSize;
 
 		HybridOffHeapMemoryPool(int numInitialSegments, int segmentSize) {
 			this.availableMemory = new ArrayDeque<>(numInitialSegments);
 			this.segmentSize = segmentSize;
+			this.arena = new OffHeapMemoryArena(numInitialSegments, segmentSize);
 
-			for (int i = 0; i < numInitialSegments; i++) {
-				this.availableMemory.add(ByteBuffer.allocateDirect(segmentSize));
-			}
+			this.availableMemory.addAll(arena.getSegmentBuffers());
 		}
 
 		@Override
@@ -705,6 +708,11 @@ public class MemoryManager {
 
 		@Override
 		void clear() {
+			// the memory can only be freed right away if no segment is in use any more,
+			// otherwise it is left to the garbage collector
+			if (availableMemory.size() == arena.getNumberOfSegments()) {
+				arena.free();
+			}
 			availableMemory.clear();
 		}
 	}
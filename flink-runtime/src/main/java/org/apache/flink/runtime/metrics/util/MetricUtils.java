@@ -20,6 +20,7 @@ package org.apache.flink.runtime.metrics.util;
 
 import org.apache.flink.annotation.VisibleForTesting;
 import org.apache.flink.api.common.time.Time;
+import org.apache.flink.api.java.typeutils.runtime.kryo.KryoSerializerStatistics;
 import org.apache.flink.configuration.Configuration;
 import org.apache.flink.configuration.MetricOptions;
 import org.apache.flink.metrics.Gauge;
@@ -69,6 +70,9 @@ public class MetricUtils {
 	static final String METRIC_GROUP_HEAP_NAME = "Heap";
 	static final String METRIC_GROUP_NONHEAP_NAME = "NonHeap";
 
+	/** The number of types that are listed in the metric of the types that are serialized with Kryo. */
+	private static final int KRYO_NUM_TOP_TYPES = 10;
+
 	private MetricUtils() {
 	}
 
@@ -110,6 +114,8 @@ public class MetricUtils {
 			.addGroup("Network");
 		instantiateNetworkMetrics(networkGroup, network);
 
+		instantiateKryoMetrics(statusGroup.addGroup("Kryo"));
+
 		if (systemResourceProbeInterval.isPresent()) {
 			instantiateSystemMetrics(taskManagerMetricGroup, systemResourceProbeInterval.get());
 		}
@@ -148,6 +154,14 @@ public class MetricUtils {
 		metrics.<Integer, Gauge<Integer>>gauge("AvailableMemorySegments", networkBufferPool::getNumberOfAvailableMemorySegments);
 	}
 
+	private static void instantiateKryoMetrics(MetricGroup metrics) {
+		metrics.<Long, Gauge<Long>>gauge("InstancesCreated", KryoSerializerStatistics::getNumCreatedInstances);
+		metrics.<Long, Gauge<Long>>gauge("InstancesReused", KryoSerializerStatistics::getNumReusedInstances);
+		metrics.<Long, Gauge<Long>>gauge("RecordsSerialized", KryoSerializerStatistics::getNumRecords);
+		metrics.<Long, Gauge<Long>>gauge("BytesSerialized", KryoSerializerStatistics::getNumBytes);
+		metrics.<String, Gauge<String>>gauge("TopTypes", () -> KryoSerializerStatistics.getTopTypes(KRYO_NUM_TOP_TYPES));
+	}
+
 	private static void instantiateClassLoaderMetrics(MetricGroup metrics) {
 		final ClassLoadingMXBean mxBean = ManagementFactory.getClassLoadingMXBean();
 		metrics.<Long, Gauge<Long>>gauge("ClassesLoaded", mxBean::getTotalLoadedClassCount);
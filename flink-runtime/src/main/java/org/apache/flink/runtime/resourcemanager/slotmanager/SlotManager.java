@@ -521,6 +521,58 @@ public class SlotManager implements AutoCloseable {
 		return null;
 	}
 
+	/**
+	 * Finds a free matching slot which has been allocated to the given job before. Returning the
+	 * slots of a job to it after a failover keeps its tasks on the same TaskManagers, where they
+	 * can benefit from data which is still present locally.
+	 *
+	 * @param jobId of the job requesting the slot
+	 * @param requestResourceProfile specifying the resource requirements for the slot request
+	 * @return A matching slot which was allocated to the given job before. Null if there is no
+	 * such slot available.
+	 */
+	@Nullable
+	private TaskManagerSlot findMatchingSlotPreviouslyAllocatedTo(JobID jobId, ResourceProfile requestResourceProfile) {
+		Iterator<Map.Entry<SlotID, TaskManagerSlot>> iterator = freeSlots.entrySet().iterator();
+
+		while (iterator.hasNext()) {
+			TaskManagerSlot taskManagerSlot = iterator.next().getValue();
+
+			if (jobId.equals(taskManagerSlot.getPreviousJobId()) &&
+					taskManagerSlot.getResourceProfile().isMatching(requestResourceProfile)) {
+				iterator.remove();
+				return taskManagerSlot;
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * Finds a pending slot request of the given job which can be fulfilled by a slot with the given
+	 * resource profile.
+	 *
+	 * @param jobId of the job to which the slot has been allocated before
+	 * @param slotResourceProfile defining the resources of an available slot
+	 * @return A matching slot request of the given job. Null if there is no such slot request pending.
+	 */
+	@Nullable
+	private PendingSlotRequest findMatchingRequestOfJob(@Nullable JobID jobId, ResourceProfile slotResourceProfile) {
+		if (jobId == null) {
+			return null;
+		}
+
+		for (PendingSlotRequest pendingSlotRequest : pendingSlotRequests.values()) {
+			if (!pendingSlotRequest.isAssigned() &&
+					jobId.equals(pendingSlotRequest.getJobId()) &&
+					slotResourceProfile.isMatching(pendingSlotRequest.getResourceProfile())) {
+				return pendingSlotRequest;
+			}
+		}
+
+		return null;
+	}
+
 	// ---------------------------------------------------------------------------------------------
 	// Internal slot operations
 	// ---------------------------------------------------------------------------------------------
@@ -708,7 +760,11 @@ public class SlotManager implements AutoCloseable {
 	 */
 	private void internalRequestSlot(PendingSlotRequest pendingSlotRequest) throws ResourceManagerException {
 		final ResourceProfile resourceProfile = pendingSlotRequest.getResourceProfile();
-		TaskManagerSlot taskManagerSlot = findMatchingSlot(resourceProfile);
+		TaskManagerSlot taskManagerSlot = findMatchingSlotPreviouslyAllocatedTo(pendingSlotRequest.getJobId(), resourceProfile);
+
+		if (taskManagerSlot == null) {
+			taskManagerSlot = findMatchingSlot(resourceProfile);
+		}
 
 		if (taskManagerSlot != null) {
 			allocateSlot(taskManagerSlot, pendingSlotRequest);
@@ -850,7 +906,12 @@ public class SlotManager implements AutoCloseable {
 	private void handleFreeSlot(TaskManagerSlot freeSlot) {
 		Preconditions.checkState(freeSlot.getState() == TaskManagerSlot.State.FREE);
 
-		PendingSlotRequest pendingSlotRequest = findMatchingRequest(freeSlot.getResourceProfile());
+		// prefer the job which used the slot before
+		PendingSlotRequest pendingSlotRequest = findMatchingRequestOfJob(freeSlot.getPreviousJobId(), freeSlot.getResourceProfile());
+
+		if (pendingSlotRequest == null) {
+			pendingSlotRequest = findMatchingRequest(freeSlot.getResourceProfile());
+		}
 
 		if (null != pendingSlotRequest) {
 			allocateSlot(freeSlot, pendingSlotRequest);
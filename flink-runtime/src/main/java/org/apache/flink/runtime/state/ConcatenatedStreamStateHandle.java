@@ -0,0 +1,249 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.state;
+
+import org.apache.flink.core.fs.FSDataInputStream;
+import org.apache.flink.util.IOUtils;
+import org.apache.flink.util.Preconditions;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A {@link StreamStateHandle} that presents several stream state handles as one contiguous stream.
+ * Position {@code p} of the concatenated stream maps to position {@code p - offset(i)} of the part
+ * {@code i} with the largest start offset not greater than {@code p}.
+ *
+ * <p>This allows to write the parts of a snapshot concurrently into separate streams, while readers
+ * that seek to absolute offsets (e.g. {@link KeyGroupsStateHandle}) can consume it like a single stream.
+ */
+public class ConcatenatedStreamStateHandle implements StreamStateHandle {
+
+	private static final long serialVersionUID = 1L;
+
+	/** The parts of the stream, ordered by their start offset. */
+	private final List<StreamStateHandle> parts;
+
+	/** The offset in the concatenated stream at which each part starts. */
+	private final long[] partOffsets;
+
+	/** The total number of bytes of all parts. */
+	private final long totalLength;
+
+	/**
+	 * Creates a new handle from the given parts.
+	 *
+	 * @param parts The non-empty parts of the stream, in order
+	 * @param partLengths The number of bytes in each part
+	 */
+	public ConcatenatedStreamStateHandle(List<StreamStateHandle> parts, long[] partLengths) {
+		Preconditions.checkNotNull(parts);
+		Preconditions.checkNotNull(partLengths);
+		Preconditions.checkArgument(!parts.isEmpty(), "There must be at least one part.");
+		Preconditions.checkArgument(parts.size() == partLengths.length,
+			"The number of parts and part lengths must be equal.");
+
+		this.parts = new ArrayList<>(parts);
+		this.partOffsets = new long[partLengths.length];
+
+		long offset = 0L;
+		for (int i = 0; i < partLengths.length; i++) {
+			Preconditions.checkArgument(partLengths[i] > 0L, "Parts must not be empty.");
+			Preconditions.checkNotNull(this.parts.get(i));
+			partOffsets[i] = offset;
+			offset += partLengths[i];
+		}
+
+		this.totalLength = offset;
+	}
+
+	public List<StreamStateHandle> getParts() {
+		return parts;
+	}
+
+	/**
+	 * Returns the number of bytes of the given part.
+	 */
+	public long getPartLength(int partIndex) {
+		final long end = partIndex + 1 < partOffsets.length ? partOffsets[partIndex + 1] : totalLength;
+		return end - partOffsets[partIndex];
+	}
+
+	@Override
+	public FSDataInputStream openInputStream() throws IOException {
+		return new ConcatenatedInputStream();
+	}
+
+	@Override
+	public void discardState() throws Exception {
+		StateUtil.bestEffortDiscardAllStateObjects(parts);
+	}
+
+	@Override
+	public long getStateSize() {
+		return totalLength;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (o == null || getClass() != o.getClass()) {
+			return false;
+		}
+
+		ConcatenatedStreamStateHandle that = (ConcatenatedStreamStateHandle) o;
+		return parts.equals(that.parts) && Arrays.equals(partOffsets, that.partOffsets);
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * parts.hashCode() + Arrays.hashCode(partOffsets);
+	}
+
+	@Override
+	public String toString() {
+		return "ConcatenatedStreamStateHandle{" +
+			"parts=" + parts +
+			", totalLength=" + totalLength +
+			'}';
+	}
+
+	/**
+	 * Input stream over all parts, which opens the stream of a part when it is first read.
+	 */
+	private final class ConcatenatedInputStream extends FSDataInputStream {
+
+		/** Index of the part that contains the current position. */
+		private int currentPart;
+
+		/** Stream of the current part, or null if it has not been opened yet. */
+		private FSDataInputStream currentStream;
+
+		/** Position in the concatenated stream. */
+		private long pos;
+
+		private boolean closed;
+
+		@Override
+		public void seek(long desired) throws IOException {
+			if (desired < 0 || desired > totalLength) {
+				throw new IOException("Position " + desired + " is out of bounds [0, " + totalLength + "].");
+			}
+
+			int targetPart = Arrays.binarySearch(partOffsets, desired);
+			if (targetPart < 0) {
+				targetPart = -targetPart - 2;
+			}
+			targetPart = Math.min(targetPart, partOffsets.length - 1);
+
+			if (targetPart != currentPart) {
+				closeCurrentStream();
+				currentPart = targetPart;
+			}
+
+			if (currentStream != null) {
+				currentStream.seek(desired - partOffsets[currentPart]);
+			}
+
+			pos = desired;
+		}
+
+		@Override
+		public long getPos() {
+			return pos;
+		}
+
+		@Override
+		public int read() throws IOException {
+			while (ensureStreamAtPosition()) {
+				final int b = currentStream.read();
+				if (b >= 0) {
+					pos++;
+					return b;
+				}
+				advanceToNextPart();
+			}
+			return -1;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			if (len == 0) {
+				return 0;
+			}
+
+			while (ensureStreamAtPosition()) {
+				final int read = currentStream.read(b, off, len);
+				if (read > 0) {
+					pos += read;
+					return read;
+				}
+				advanceToNextPart();
+			}
+			return -1;
+		}
+
+		@Override
+		public void close() throws IOException {
+			closed = true;
+			closeCurrentStream();
+		}
+
+		/**
+		 * Opens the stream of the current part if required. Returns false if the end of the last
+		 * part has been reached.
+		 */
+		private boolean ensureStreamAtPosition() throws IOException {
+			if (closed) {
+				throw new IOException("The stream is closed.");
+			}
+
+			if (pos >= totalLength) {
+				return false;
+			}
+
+			if (currentStream == null) {
+				currentStream = parts.get(currentPart).openInputStream();
+				final long partPos = pos - partOffsets[currentPart];
+				if (partPos > 0L) {
+					currentStream.seek(partPos);
+				}
+			}
+			return true;
+		}
+
+		private void advanceToNextPart() throws IOException {
+			final int nextPart = currentPart + 1;
+			if (nextPart >= parts.size() || pos != partOffsets[nextPart]) {
+				throw new IOException("Unexpected end of part " + currentPart + " at position " + pos + '.');
+			}
+			closeCurrentStream();
+			currentPart = nextPart;
+		}
+
+		private void closeCurrentStream() {
+			IOUtils.closeQuietly(currentStream);
+			currentStream = null;
+		}
+	}
+}
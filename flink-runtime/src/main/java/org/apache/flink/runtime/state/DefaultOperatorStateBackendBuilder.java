@@ -19,7 +19,9 @@ package org.apache.flink.runtime.state;
 
 import org.apache.flink.annotation.VisibleForTesting;
 import org.apache.flink.api.common.ExecutionConfig;
+import org.apache.flink.configuration.CheckpointingOptions;
 import org.apache.flink.core.fs.CloseableRegistry;
+import org.apache.flink.runtime.execution.Environment;
 import org.apache.flink.util.IOUtils;
 
 import java.util.Collection;
@@ -45,6 +47,9 @@ public class DefaultOperatorStateBackendBuilder implements
 	protected final Collection<OperatorStateHandle> restoreStateHandles;
 	@VisibleForTesting
 	protected final CloseableRegistry cancelStreamRegistry;
+	/** Flag whether the contents of broadcast states are written to snapshots. */
+	@VisibleForTesting
+	protected final boolean snapshotBroadcastState;
 
 
 	public DefaultOperatorStateBackendBuilder(
@@ -53,11 +58,38 @@ public class DefaultOperatorStateBackendBuilder implements
 		boolean asynchronousSnapshots,
 		Collection<OperatorStateHandle> stateHandles,
 		CloseableRegistry cancelStreamRegistry) {
+		this(
+			userClassloader,
+			executionConfig,
+			asynchronousSnapshots,
+			stateHandles,
+			cancelStreamRegistry,
+			true);
+	}
+
+	public DefaultOperatorStateBackendBuilder(
+		ClassLoader userClassloader,
+		ExecutionConfig executionConfig,
+		boolean asynchronousSnapshots,
+		Collection<OperatorStateHandle> stateHandles,
+		CloseableRegistry cancelStreamRegistry,
+		boolean snapshotBroadcastState) {
 		this.userClassloader = userClassloader;
 		this.executionConfig = executionConfig;
 		this.asynchronousSnapshots = asynchronousSnapshots;
 		this.restoreStateHandles = stateHandles;
 		this.cancelStreamRegistry = cancelStreamRegistry;
+		this.snapshotBroadcastState = snapshotBroadcastState;
+	}
+
+	/**
+	 * Checks whether the operator state backend of the given task writes the contents of its broadcast
+	 * states to snapshots. If {@link CheckpointingOptions#DEDUPLICATE_BROADCAST_STATE} is set, only the
+	 * first subtask does so, and all subtasks restore from its copy.
+	 */
+	public static boolean snapshotsBroadcastState(Environment env) {
+		return !env.getTaskManagerInfo().getConfiguration().getBoolean(CheckpointingOptions.DEDUPLICATE_BROADCAST_STATE)
+			|| env.getTaskInfo().getIndexOfThisSubtask() == 0;
 	}
 
 	@Override
@@ -71,7 +103,8 @@ public class DefaultOperatorStateBackendBuilder implements
 				asynchronousSnapshots,
 				registeredOperatorStates,
 				registeredBroadcastStates,
-				cancelStreamRegistryForBackend);
+				cancelStreamRegistryForBackend,
+				snapshotBroadcastState);
 		OperatorStateRestoreOperation restoreOperation = new OperatorStateRestoreOperation(
 			cancelStreamRegistry,
 			userClassloader,
@@ -44,18 +44,26 @@ class DefaultOperatorStateBackendSnapshotStrategy extends AbstractSnapshotStrate
 	private final Map<String, BackendWritableBroadcastState<?, ?>> registeredBroadcastStates;
 	private final CloseableRegistry closeStreamOnCancelRegistry;
 
+	/**
+	 * Whether the broadcast states are written. Broadcast state is identical on all subtasks, so with
+	 * deduplicated snapshots only one subtask writes it and the others are restored from that copy.
+	 */
+	private final boolean snapshotBroadcastState;
+
 	protected DefaultOperatorStateBackendSnapshotStrategy(
 		ClassLoader userClassLoader,
 		boolean asynchronousSnapshots,
 		Map<String, PartitionableListState<?>> registeredOperatorStates,
 		Map<String, BackendWritableBroadcastState<?, ?>> registeredBroadcastStates,
-		CloseableRegistry closeStreamOnCancelRegistry) {
+		CloseableRegistry closeStreamOnCancelRegistry,
+		boolean snapshotBroadcastState) {
 		super("DefaultOperatorStateBackend snapshot");
 		this.userClassLoader = userClassLoader;
 		this.asynchronousSnapshots = asynchronousSnapshots;
 		this.registeredOperatorStates = registeredOperatorStates;
 		this.registeredBroadcastStates = registeredBroadcastStates;
 		this.closeStreamOnCancelRegistry = closeStreamOnCancelRegistry;
+		this.snapshotBroadcastState = snapshotBroadcastState;
 	}
 
 	@Nonnull
@@ -66,7 +74,9 @@ class DefaultOperatorStateBackendSnapshotStrategy extends AbstractSnapshotStrate
 		@Nonnull final CheckpointStreamFactory streamFactory,
 		@Nonnull final CheckpointOptions checkpointOptions) throws IOException {
 
-		if (registeredOperatorStates.isEmpty() && registeredBroadcastStates.isEmpty()) {
+		final boolean hasBroadcastStatesToWrite = snapshotBroadcastState && !registeredBroadcastStates.isEmpty();
+
+		if (registeredOperatorStates.isEmpty() && !hasBroadcastStatesToWrite) {
 			return DoneFuture.of(SnapshotResult.empty());
 		}
 
@@ -91,7 +101,7 @@ class DefaultOperatorStateBackendSnapshotStrategy extends AbstractSnapshotStrate
 				}
 			}
 
-			if (!registeredBroadcastStates.isEmpty()) {
+			if (hasBroadcastStatesToWrite) {
 				for (Map.Entry<String, BackendWritableBroadcastState<?, ?>> entry : registeredBroadcastStates.entrySet()) {
 					BackendWritableBroadcastState<?, ?> broadcastState = entry.getValue();
 					if (null != broadcastState) {
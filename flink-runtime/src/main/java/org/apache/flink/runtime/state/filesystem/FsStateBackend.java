@@ -501,7 +501,8 @@ public class FsStateBackend extends AbstractFileStateBackend implements Configur
 			env.getExecutionConfig(),
 			isUsingAsynchronousSnapshots(),
 			stateHandles,
-			cancelStreamRegistry).build();
+			cancelStreamRegistry,
+			DefaultOperatorStateBackendBuilder.snapshotsBroadcastState(env)).build();
 	}
 
 	// ------------------------------------------------------------------------
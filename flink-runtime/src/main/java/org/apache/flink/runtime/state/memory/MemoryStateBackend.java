@@ -311,7 +311,8 @@ public class MemoryStateBackend extends AbstractFileStateBackend implements Conf
 			env.getExecutionConfig(),
 			isUsingAsynchronousSnapshots(),
 			stateHandles,
-			cancelStreamRegistry).build();
+			cancelStreamRegistry,
+			DefaultOperatorStateBackendBuilder.snapshotsBroadcastState(env)).build();
 	}
 
 	@Override
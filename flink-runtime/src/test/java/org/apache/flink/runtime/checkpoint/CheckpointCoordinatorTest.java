@@ -74,15 +74,20 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
 import java.util.UUID;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
@@ -1042,6 +1047,128 @@ public class CheckpointCoordinatorTest extends TestLogger {
 		}
 	}
 
+	/**
+	 * Tests that acknowledgements, which are processed concurrently and outside of the coordinator-wide
+	 * lock, complete every checkpoint exactly once, while further checkpoints are triggered and other
+	 * pending checkpoints expire or complete at the same time.
+	 */
+	@Test
+	public void testConcurrentAcknowledgementsWhileTriggeringExpiringAndCompleting() throws Exception {
+		final JobID jid = new JobID();
+		final long checkpointTimeout = 500L;
+		final int numberOfAckTasks = 8;
+		final int numberOfCheckpoints = 60;
+
+		final ExecutionVertex triggerVertex = mockExecutionVertex(new ExecutionAttemptID());
+		final ExecutionVertex commitVertex = mockExecutionVertex(new ExecutionAttemptID());
+		final ExecutionAttemptID[] ackAttemptIDs = new ExecutionAttemptID[numberOfAckTasks];
+		final ExecutionVertex[] ackVertices = new ExecutionVertex[numberOfAckTasks];
+		for (int i = 0; i < numberOfAckTasks; i++) {
+			ackAttemptIDs[i] = new ExecutionAttemptID();
+			ackVertices[i] = mockExecutionVertex(ackAttemptIDs[i]);
+		}
+
+		final List<Long> completedCheckpointIds = Collections.synchronizedList(new ArrayList<>());
+		final CompletedCheckpointStore completedCheckpointStore = new StandaloneCompletedCheckpointStore(1) {
+			@Override
+			public void addCheckpoint(CompletedCheckpoint checkpoint) throws Exception {
+				completedCheckpointIds.add(checkpoint.getCheckpointID());
+				super.addCheckpoint(checkpoint);
+			}
+		};
+
+		final CheckpointCoordinator coord = new CheckpointCoordinator(
+			jid,
+			600000,
+			checkpointTimeout,
+			0,
+			Integer.MAX_VALUE,
+			CheckpointRetentionPolicy.NEVER_RETAIN_AFTER_TERMINATION,
+			new ExecutionVertex[] { triggerVertex },
+			ackVertices,
+			new ExecutionVertex[] { commitVertex },
+			new StandaloneCheckpointIDCounter(),
+			completedCheckpointStore,
+			new MemoryStateBackend(),
+			Executors.directExecutor(),
+			SharedStateRegistry.DEFAULT_FACTORY);
+
+		final ScheduledExecutorService ackExecutor =
+			java.util.concurrent.Executors.newScheduledThreadPool(numberOfAckTasks);
+		final List<PendingCheckpoint> checkpoints = new ArrayList<>(numberOfCheckpoints);
+		final List<Future<Boolean>> acknowledgements = new ArrayList<>(numberOfCheckpoints * numberOfAckTasks);
+		final Random random = new Random();
+
+		try {
+			for (int i = 0; i < numberOfCheckpoints; i++) {
+				final CheckpointTriggerResult triggerResult = coord.triggerCheckpoint(
+					System.currentTimeMillis(),
+					CheckpointProperties.forCheckpoint(CheckpointRetentionPolicy.NEVER_RETAIN_AFTER_TERMINATION),
+					null,
+					false,
+					false);
+				assertTrue(triggerResult.isSuccess());
+
+				final long checkpointId = triggerResult.getPendingCheckpoint().getCheckpointId();
+				checkpoints.add(triggerResult.getPendingCheckpoint());
+
+				for (int task = 0; task < numberOfAckTasks; task++) {
+					final AcknowledgeCheckpoint acknowledgement = new AcknowledgeCheckpoint(
+						jid, ackAttemptIDs[task], checkpointId, new CheckpointMetrics(), new TaskStateSnapshot());
+					final Callable<Boolean> acknowledge = () -> coord.receiveAcknowledgeMessage(acknowledgement);
+
+					// the last acknowledgement of every third checkpoint races with its expiration
+					if (i % 3 == 0 && task == numberOfAckTasks - 1) {
+						acknowledgements.add(ackExecutor.schedule(
+							acknowledge, checkpointTimeout - 10L + random.nextInt(20), TimeUnit.MILLISECONDS));
+					} else {
+						acknowledgements.add(ackExecutor.submit(acknowledge));
+					}
+				}
+			}
+
+			for (Future<Boolean> acknowledgement : acknowledgements) {
+				acknowledgement.get();
+			}
+		} finally {
+			ackExecutor.shutdownNow();
+		}
+
+		// wait for the remaining checkpoints to expire
+		final long deadline = System.currentTimeMillis() + 10000L;
+		while (coord.getNumberOfPendingCheckpoints() > 0 && System.currentTimeMillis() < deadline) {
+			Thread.sleep(10L);
+		}
+		assertEquals(0, coord.getNumberOfPendingCheckpoints());
+
+		assertEquals(
+			"A checkpoint was completed more than once.",
+			new HashSet<>(completedCheckpointIds).size(),
+			completedCheckpointIds.size());
+
+		// the last checkpoint cannot be subsumed
+		assertTrue(completedCheckpointIds.contains(checkpoints.get(numberOfCheckpoints - 1).getCheckpointId()));
+
+		for (int i = 0; i < numberOfCheckpoints; i++) {
+			final PendingCheckpoint checkpoint = checkpoints.get(i);
+			assertTrue(checkpoint.isDiscarded());
+
+			final long checkpointId = checkpoint.getCheckpointId();
+			final boolean completed = completedCheckpointIds.contains(checkpointId);
+			if (i % 3 != 0) {
+				// fully acknowledged checkpoints complete, unless a later checkpoint completed first and subsumed them
+				assertTrue(
+					"Checkpoint " + checkpointId + " was neither completed nor subsumed.",
+					completed || completedCheckpointIds.stream().anyMatch(id -> id > checkpointId));
+			}
+
+			verify(commitVertex.getCurrentExecutionAttempt(), times(completed ? 1 : 0))
+				.notifyCheckpointComplete(eq(checkpointId), anyLong());
+		}
+
+		coord.shutdown(JobStatus.FINISHED);
+	}
+
 	@Test
 	public void testHandleMessagesForNonExistingCheckpoints() {
 		try {
@@ -34,6 +34,7 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
 import org.apache.flink.metrics.Gauge;
+import org.apache.flink.metrics.Histogram;
 import org.apache.flink.metrics.MetricGroup;
 import org.apache.flink.metrics.groups.UnregisteredMetricsGroup;
 import org.apache.flink.runtime.executiongraph.ExecutionJobVertex;
@@ -455,6 +456,80 @@ public class CheckpointStatsTrackerTest {
 		assertEquals("n/a", latestCompletedExternalPath.getValue());
 	}
 
+	/**
+	 * Tests that the acknowledgement latency histogram reflects the subtasks of the latest
+	 * completed checkpoint only.
+	 */
+	@Test
+	public void testAckLatencyHistogramIsUpdated() throws Exception {
+		final Map<String, Histogram> registeredHistograms = new HashMap<>();
+
+		MetricGroup metricGroup = new UnregisteredMetricsGroup() {
+			@Override
+			public <H extends Histogram> H histogram(String name, H histogram) {
+				registeredHistograms.put(name, histogram);
+				return histogram;
+			}
+		};
+
+		ExecutionJobVertex jobVertex = mock(ExecutionJobVertex.class);
+		when(jobVertex.getJobVertexId()).thenReturn(new JobVertexID());
+		when(jobVertex.getParallelism()).thenReturn(3);
+
+		CheckpointStatsTracker stats = new CheckpointStatsTracker(
+			0,
+			Collections.singletonList(jobVertex),
+			mock(CheckpointCoordinatorConfiguration.class),
+			metricGroup);
+
+		Histogram ackLatency = registeredHistograms.get(CheckpointStatsTracker.LATEST_COMPLETED_CHECKPOINT_ACK_LATENCY_METRIC);
+		assertNotNull(ackLatency);
+		assertEquals(0, ackLatency.getCount());
+		assertEquals(0, ackLatency.getStatistics().size());
+
+		PendingCheckpointStats pending = stats.reportPendingCheckpoint(
+			0,
+			100,
+			CheckpointProperties.forCheckpoint(CheckpointRetentionPolicy.NEVER_RETAIN_AFTER_TERMINATION));
+
+		for (int subtask = 0; subtask < 3; subtask++) {
+			assertTrue(pending.reportSubtaskStats(
+				jobVertex.getJobVertexId(),
+				new SubtaskStateStats(subtask, 110 + subtask * 10, 0, 0, 0, 0, 0)));
+		}
+
+		// the histogram is only updated once the checkpoint completes
+		assertEquals(0, ackLatency.getCount());
+
+		pending.reportCompletedCheckpoint(null);
+
+		assertEquals(3, ackLatency.getCount());
+		assertEquals(10, ackLatency.getStatistics().getMin());
+		assertEquals(30, ackLatency.getStatistics().getMax());
+		assertEquals(20.0, ackLatency.getStatistics().getMean(), 0.0);
+
+		PendingCheckpointStats nextPending = stats.reportPendingCheckpoint(
+			1,
+			1000,
+			CheckpointProperties.forCheckpoint(CheckpointRetentionPolicy.NEVER_RETAIN_AFTER_TERMINATION));
+
+		for (int subtask = 0; subtask < 3; subtask++) {
+			assertTrue(nextPending.reportSubtaskStats(
+				jobVertex.getJobVertexId(),
+				new SubtaskStateStats(subtask, 1050, 0, 0, 0, 0, 0)));
+		}
+		nextPending.reportCompletedCheckpoint(null);
+
+		assertEquals(3, ackLatency.getCount());
+		assertEquals(50, ackLatency.getStatistics().getMin());
+		assertEquals(50, ackLatency.getStatistics().getMax());
+
+		// the histogram is read-only for reporters
+		ackLatency.update(1000L);
+		assertEquals(3, ackLatency.getCount());
+		assertEquals(50, ackLatency.getStatistics().getMax());
+	}
+
 	// ------------------------------------------------------------------------
 
 	/**
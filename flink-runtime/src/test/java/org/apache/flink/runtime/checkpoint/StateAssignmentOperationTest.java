@@ -96,6 +96,57 @@ public class StateAssignmentOperationTest extends TestLogger {
 		verifyOneKindPartitionableStateRescale(operatorState, operatorID);
 	}
 
+	/**
+	 * Verify that broadcast state which was only written by the first subtask is assigned to all subtasks.
+	 */
+	@Test
+	public void testRepartitionDeduplicatedBroadcastState() {
+		OperatorID operatorID = new OperatorID();
+		OperatorState operatorState = new OperatorState(operatorID, 2, 4);
+
+		Map<String, OperatorStateHandle.StateMetaInfo> metaInfoMap1 = new HashMap<>(2);
+		metaInfoMap1.put("t-5", new OperatorStateHandle.StateMetaInfo(new long[]{0, 10, 20}, OperatorStateHandle.Mode.BROADCAST));
+		metaInfoMap1.put("t-6", new OperatorStateHandle.StateMetaInfo(new long[]{30, 40, 50}, OperatorStateHandle.Mode.BROADCAST));
+		OperatorStateHandle osh1 = new OperatorStreamStateHandle(metaInfoMap1, new ByteStreamStateHandle("test1", new byte[60]));
+		operatorState.putState(0, new OperatorSubtaskState(osh1, null, null, null));
+
+		Map<String, OperatorStateHandle.StateMetaInfo> metaInfoMap2 = new HashMap<>(1);
+		metaInfoMap2.put("t-1", new OperatorStateHandle.StateMetaInfo(new long[]{0}, OperatorStateHandle.Mode.SPLIT_DISTRIBUTE));
+		OperatorStateHandle osh2 = new OperatorStreamStateHandle(metaInfoMap2, new ByteStreamStateHandle("test2", new byte[10]));
+		operatorState.putState(1, new OperatorSubtaskState(osh2, null, null, null));
+
+		for (int newParallelism : new int[]{1, 2, 3}) {
+			final Map<OperatorInstanceID, List<OperatorStateHandle>> newManagedOperatorStates = new HashMap<>(newParallelism);
+
+			StateAssignmentOperation.reDistributePartitionableStates(
+				Collections.singletonList(operatorState),
+				newParallelism,
+				Collections.singletonList(operatorID),
+				newManagedOperatorStates,
+				new HashMap<>(newParallelism));
+
+			Assert.assertEquals(newParallelism, newManagedOperatorStates.size());
+
+			int splitDistributeCount = 0;
+			for (List<OperatorStateHandle> operatorStateHandles : newManagedOperatorStates.values()) {
+				int broadcastCount = 0;
+				for (OperatorStateHandle operatorStateHandle : operatorStateHandles) {
+					Map<String, OperatorStateHandle.StateMetaInfo> offsets = operatorStateHandle.getStateNameToPartitionOffsets();
+					if (offsets.containsKey("t-5")) {
+						Assert.assertEquals(osh1.getDelegateStateHandle(), operatorStateHandle.getDelegateStateHandle());
+						Assert.assertTrue(offsets.containsKey("t-6"));
+						broadcastCount++;
+					}
+					if (offsets.containsKey("t-1")) {
+						splitDistributeCount++;
+					}
+				}
+				Assert.assertEquals(1, broadcastCount);
+			}
+			Assert.assertEquals(1, splitDistributeCount);
+		}
+	}
+
 	/**
 	 * Verify repartition logic on partitionable states with all modes.
 	 */
@@ -27,6 +27,7 @@ import org.apache.flink.runtime.checkpoint.TaskState;
 import org.apache.flink.runtime.jobgraph.JobVertexID;
 import org.apache.flink.runtime.jobgraph.OperatorID;
 import org.apache.flink.runtime.state.ChainedStateHandle;
+import org.apache.flink.runtime.state.ConcatenatedStreamStateHandle;
 import org.apache.flink.runtime.state.IncrementalRemoteKeyedStateHandle;
 import org.apache.flink.runtime.state.KeyGroupRange;
 import org.apache.flink.runtime.state.KeyGroupRangeOffsets;
@@ -283,6 +284,18 @@ public class CheckpointTestUtils {
 			createDummyStreamStateHandle(rnd));
 	}
 
+	public static ConcatenatedStreamStateHandle createDummyConcatenatedStreamStateHandle(Random rnd) {
+		final int numParts = 1 + rnd.nextInt(3);
+		final List<StreamStateHandle> parts = new ArrayList<>(numParts);
+		final long[] partLengths = new long[numParts];
+		for (int i = 0; i < numParts; i++) {
+			StreamStateHandle part = createDummyStreamStateHandle(rnd);
+			parts.add(part);
+			partLengths[i] = part.getStateSize();
+		}
+		return new ConcatenatedStreamStateHandle(parts, partLengths);
+	}
+
 	public static StreamStateHandle createDummyStreamStateHandle(Random rnd) {
 		return new ByteStreamStateHandle(
 			String.valueOf(createRandomUUID(rnd)),
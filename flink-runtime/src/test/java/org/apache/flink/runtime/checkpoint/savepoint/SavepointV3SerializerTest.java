@@ -0,0 +1,146 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.checkpoint.savepoint;
+
+import org.apache.flink.core.memory.ByteArrayInputStreamWithPos;
+import org.apache.flink.core.memory.ByteArrayOutputStreamWithPos;
+import org.apache.flink.core.memory.DataInputViewStreamWrapper;
+import org.apache.flink.core.memory.DataOutputViewStreamWrapper;
+import org.apache.flink.runtime.checkpoint.Checkpoints;
+import org.apache.flink.runtime.checkpoint.MasterState;
+import org.apache.flink.runtime.checkpoint.OperatorState;
+import org.apache.flink.runtime.checkpoint.OperatorSubtaskState;
+import org.apache.flink.runtime.jobgraph.OperatorID;
+import org.apache.flink.runtime.state.KeyGroupRangeOffsets;
+import org.apache.flink.runtime.state.KeyGroupsStateHandle;
+
+import org.junit.Test;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Various tests for the version 3 format serializer of a checkpoint.
+ */
+public class SavepointV3SerializerTest {
+
+	@Test
+	public void testCheckpointWithConcatenatedStateHandles() throws Exception {
+		final Random rnd = new Random();
+
+		for (int i = 0; i < 100; ++i) {
+			final long checkpointId = rnd.nextLong() & 0x7fffffffffffffffL;
+
+			final Collection<OperatorState> operatorStates = createOperatorStatesWithConcatenatedHandles(rnd);
+			final Collection<MasterState> masterStates =
+					CheckpointTestUtils.createRandomMasterStates(rnd, rnd.nextInt(5) + 1);
+
+			testCheckpointSerialization(checkpointId, operatorStates, masterStates);
+		}
+	}
+
+	@Test
+	public void testVersion2RejectsConcatenatedStateHandles() throws Exception {
+		final Collection<OperatorState> operatorStates = createOperatorStatesWithConcatenatedHandles(new Random());
+
+		try {
+			SavepointV2Serializer.INSTANCE.serialize(
+				new SavepointV2(42L, operatorStates, Collections.emptyList()),
+				new DataOutputViewStreamWrapper(new ByteArrayOutputStreamWithPos()));
+			fail("Format version 2 must not contain concatenated stream state handles.");
+		} catch (IOException expected) {
+			// expected
+		}
+	}
+
+	@Test
+	public void testMetadataIsLoadedWithVersion3() throws Exception {
+		final Random rnd = new Random();
+		final SavepointV3 savepoint = new SavepointV3(
+			42L,
+			createOperatorStatesWithConcatenatedHandles(rnd),
+			Collections.emptyList());
+
+		final ByteArrayOutputStreamWithPos baos = new ByteArrayOutputStreamWithPos();
+		Checkpoints.storeCheckpointMetadata(savepoint, new DataOutputViewStreamWrapper(baos));
+
+		final Savepoint loaded = Checkpoints.loadCheckpointMetadata(
+			new DataInputViewStreamWrapper(new ByteArrayInputStreamWithPos(baos.toByteArray())),
+			getClass().getClassLoader());
+
+		assertTrue(loaded instanceof SavepointV3);
+		assertEquals(savepoint.getOperatorStates(), loaded.getOperatorStates());
+	}
+
+	private static Collection<OperatorState> createOperatorStatesWithConcatenatedHandles(Random rnd) {
+		final List<OperatorState> operatorStates =
+			new ArrayList<>(CheckpointTestUtils.createOperatorStates(rnd, rnd.nextInt(5) + 1, rnd.nextInt(5) + 1));
+
+		final OperatorState operatorState = new OperatorState(new OperatorID(), 1, 128);
+		operatorState.putState(0, new OperatorSubtaskState(
+			null,
+			null,
+			new KeyGroupsStateHandle(
+				new KeyGroupRangeOffsets(1, 1, new long[]{rnd.nextInt(1024)}),
+				CheckpointTestUtils.createDummyConcatenatedStreamStateHandle(rnd)),
+			null));
+		operatorStates.add(operatorState);
+
+		return operatorStates;
+	}
+
+	private void testCheckpointSerialization(
+			long checkpointId,
+			Collection<OperatorState> operatorStates,
+			Collection<MasterState> masterStates) throws IOException {
+
+		SavepointV3Serializer serializer = SavepointV3Serializer.INSTANCE;
+
+		ByteArrayOutputStreamWithPos baos = new ByteArrayOutputStreamWithPos();
+		DataOutputStream out = new DataOutputViewStreamWrapper(baos);
+
+		serializer.serialize(new SavepointV3(checkpointId, operatorStates, masterStates), out);
+		out.close();
+
+		byte[] bytes = baos.toByteArray();
+
+		DataInputStream in = new DataInputViewStreamWrapper(new ByteArrayInputStreamWithPos(bytes));
+		SavepointV3 deserialized = serializer.deserialize(in, getClass().getClassLoader());
+
+		assertEquals(checkpointId, deserialized.getCheckpointId());
+		assertEquals(operatorStates, deserialized.getOperatorStates());
+
+		assertEquals(masterStates.size(), deserialized.getMasterStates().size());
+		for (Iterator<MasterState> a = masterStates.iterator(), b = deserialized.getMasterStates().iterator();
+				a.hasNext();) {
+			CheckpointTestUtils.assertMasterStateEquality(a.next(), b.next());
+		}
+	}
+}
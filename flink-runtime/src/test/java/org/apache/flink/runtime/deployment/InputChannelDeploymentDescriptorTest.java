@@ -20,9 +20,9 @@ package org.apache.flink.runtime.deployment;
 
 import org.apache.flink.runtime.clusterframework.types.ResourceID;
 import org.apache.flink.runtime.execution.ExecutionState;
+import org.apache.flink.runtime.executiongraph.ConsumedPartitionGroup;
 import org.apache.flink.runtime.executiongraph.Execution;
 import org.apache.flink.runtime.executiongraph.ExecutionAttemptID;
-import org.apache.flink.runtime.executiongraph.ExecutionEdge;
 import org.apache.flink.runtime.executiongraph.ExecutionGraphException;
 import org.apache.flink.runtime.executiongraph.ExecutionVertex;
 import org.apache.flink.runtime.executiongraph.IntermediateResult;
@@ -37,6 +37,8 @@ import org.apache.flink.runtime.taskmanager.TaskManagerLocation;
 import org.junit.Test;
 
 import java.net.InetAddress;
+import java.util.Arrays;
+import java.util.Collections;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
@@ -60,7 +62,6 @@ public class InputChannelDeploymentDescriptorTest {
 		boolean allowLazyDeployment = true;
 
 		ResourceID consumerResourceId = ResourceID.generate();
-		ExecutionVertex consumer = mock(ExecutionVertex.class);
 		LogicalSlot consumerSlot = mockSlot(consumerResourceId);
 
 		// Local and remote channel are only allowed for certain execution
@@ -70,23 +71,20 @@ public class InputChannelDeploymentDescriptorTest {
 			ExecutionVertex localProducer = mockExecutionVertex(state, consumerResourceId);
 			IntermediateResultPartition localPartition = mockPartition(localProducer);
 			ResultPartitionID localPartitionId = new ResultPartitionID(localPartition.getPartitionId(), localProducer.getCurrentExecutionAttempt().getAttemptId());
-			ExecutionEdge localEdge = new ExecutionEdge(localPartition, consumer, 0);
 
 			// Remote partition
 			ExecutionVertex remoteProducer = mockExecutionVertex(state, ResourceID.generate()); // new resource ID
 			IntermediateResultPartition remotePartition = mockPartition(remoteProducer);
 			ResultPartitionID remotePartitionId = new ResultPartitionID(remotePartition.getPartitionId(), remoteProducer.getCurrentExecutionAttempt().getAttemptId());
 			ConnectionID remoteConnectionId = new ConnectionID(remoteProducer.getCurrentAssignedResource().getTaskManagerLocation(), 0);
-			ExecutionEdge remoteEdge = new ExecutionEdge(remotePartition, consumer, 1);
 
 			// Unknown partition
 			ExecutionVertex unknownProducer = mockExecutionVertex(state, null); // no assigned resource
 			IntermediateResultPartition unknownPartition = mockPartition(unknownProducer);
 			ResultPartitionID unknownPartitionId = new ResultPartitionID(unknownPartition.getPartitionId(), unknownProducer.getCurrentExecutionAttempt().getAttemptId());
-			ExecutionEdge unknownEdge = new ExecutionEdge(unknownPartition, consumer, 2);
 
-			InputChannelDeploymentDescriptor[] desc = InputChannelDeploymentDescriptor.fromEdges(
-				new ExecutionEdge[]{localEdge, remoteEdge, unknownEdge},
+			InputChannelDeploymentDescriptor[] desc = InputChannelDeploymentDescriptor.fromPartitions(
+				new ConsumedPartitionGroup(Arrays.asList(localPartition, remotePartition, unknownPartition)),
 				consumerSlot.getTaskManagerLocation().getResourceID(),
 				allowLazyDeployment);
 
@@ -124,20 +122,18 @@ public class InputChannelDeploymentDescriptorTest {
 	@Test
 	public void testUnknownChannelWithoutLazyDeploymentThrows() throws Exception {
 		ResourceID consumerResourceId = ResourceID.generate();
-		ExecutionVertex consumer = mock(ExecutionVertex.class);
 		LogicalSlot consumerSlot = mockSlot(consumerResourceId);
 
 		// Unknown partition
 		ExecutionVertex unknownProducer = mockExecutionVertex(ExecutionState.CREATED, null); // no assigned resource
 		IntermediateResultPartition unknownPartition = mockPartition(unknownProducer);
 		ResultPartitionID unknownPartitionId = new ResultPartitionID(unknownPartition.getPartitionId(), unknownProducer.getCurrentExecutionAttempt().getAttemptId());
-		ExecutionEdge unknownEdge = new ExecutionEdge(unknownPartition, consumer, 2);
 
 		// This should work if lazy deployment is allowed
 		boolean allowLazyDeployment = true;
 
-		InputChannelDeploymentDescriptor[] desc = InputChannelDeploymentDescriptor.fromEdges(
-			new ExecutionEdge[]{unknownEdge},
+		InputChannelDeploymentDescriptor[] desc = InputChannelDeploymentDescriptor.fromPartitions(
+			new ConsumedPartitionGroup(Collections.singletonList(unknownPartition)),
 			consumerSlot.getTaskManagerLocation().getResourceID(),
 			allowLazyDeployment);
 
@@ -151,8 +147,8 @@ public class InputChannelDeploymentDescriptorTest {
 			// Fail if lazy deployment is *not* allowed
 			allowLazyDeployment = false;
 
-			InputChannelDeploymentDescriptor.fromEdges(
-				new ExecutionEdge[]{unknownEdge},
+			InputChannelDeploymentDescriptor.fromPartitions(
+				new ConsumedPartitionGroup(Collections.singletonList(unknownPartition)),
 				consumerSlot.getTaskManagerLocation().getResourceID(),
 				allowLazyDeployment);
 
@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.executiongraph;
+
+import org.apache.flink.api.common.JobID;
+import org.apache.flink.runtime.io.network.partition.ResultPartitionType;
+import org.apache.flink.runtime.jobgraph.DistributionPattern;
+import org.apache.flink.runtime.jobgraph.JobVertex;
+import org.apache.flink.util.TestLogger;
+
+import org.junit.Test;
+
+import static org.apache.flink.runtime.executiongraph.ExecutionGraphTestUtils.createNoOpVertex;
+import static org.apache.flink.runtime.executiongraph.ExecutionGraphTestUtils.createSimpleTestGraph;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Tests for the connections of {@link DistributionPattern#ALL_TO_ALL} job edges in the
+ * {@link ExecutionGraph}.
+ */
+public class AllToAllPatternTest extends TestLogger {
+
+	@Test
+	public void testConsumedPartitionGroupIsShared() throws Exception {
+		final int producerParallelism = 7;
+		final int consumerParallelism = 5;
+
+		final JobVertex v1 = createNoOpVertex(producerParallelism);
+		final JobVertex v2 = createNoOpVertex(consumerParallelism);
+		v2.connectNewDataSetAsInput(v1, DistributionPattern.ALL_TO_ALL, ResultPartitionType.PIPELINED);
+
+		final ExecutionGraph eg = createSimpleTestGraph(new JobID(), v1, v2);
+
+		final ExecutionVertex[] consumers = eg.getJobVertex(v2.getID()).getTaskVertices();
+		final ConsumedPartitionGroup consumedPartitions = consumers[0].getConsumedPartitionGroup(0);
+
+		assertEquals(producerParallelism, consumedPartitions.size());
+		for (int i = 0; i < producerParallelism; i++) {
+			assertEquals(i, consumedPartitions.get(i).getPartitionNumber());
+		}
+
+		for (ExecutionVertex consumer : consumers) {
+			assertEquals(1, consumer.getNumberOfInputs());
+			assertSame(consumedPartitions, consumer.getConsumedPartitionGroup(0));
+		}
+	}
+
+	@Test
+	public void testConsumerVertexGroupIsShared() throws Exception {
+		final int producerParallelism = 4;
+		final int consumerParallelism = 9;
+
+		final JobVertex v1 = createNoOpVertex(producerParallelism);
+		final JobVertex v2 = createNoOpVertex(consumerParallelism);
+		v2.connectNewDataSetAsInput(v1, DistributionPattern.ALL_TO_ALL, ResultPartitionType.BLOCKING);
+
+		final ExecutionGraph eg = createSimpleTestGraph(new JobID(), v1, v2);
+
+		final IntermediateResultPartition[] partitions =
+			eg.getJobVertex(v1.getID()).getProducedDataSets()[0].getPartitions();
+		final ConsumerVertexGroup consumers = partitions[0].getConsumers().get(0);
+
+		assertEquals(consumerParallelism, consumers.size());
+
+		for (IntermediateResultPartition partition : partitions) {
+			assertEquals(1, partition.getConsumers().size());
+			assertSame(consumers, partition.getConsumers().get(0));
+		}
+	}
+
+	@Test
+	public void testInputEdgesAreCreatedFromPartitionGroup() throws Exception {
+		final JobVertex v1 = createNoOpVertex(3);
+		final JobVertex v2 = createNoOpVertex(2);
+		v2.connectNewDataSetAsInput(v1, DistributionPattern.ALL_TO_ALL, ResultPartitionType.PIPELINED);
+
+		final ExecutionGraph eg = createSimpleTestGraph(new JobID(), v1, v2);
+
+		for (ExecutionVertex consumer : eg.getJobVertex(v2.getID()).getTaskVertices()) {
+			final ExecutionEdge[] edges = consumer.getInputEdges(0);
+			final ConsumedPartitionGroup consumedPartitions = consumer.getConsumedPartitionGroup(0);
+
+			assertEquals(consumedPartitions.size(), edges.length);
+			for (int i = 0; i < edges.length; i++) {
+				assertSame(consumedPartitions.get(i), edges[i].getSource());
+				assertSame(consumer, edges[i].getTarget());
+				assertEquals(0, edges[i].getInputNum());
+			}
+		}
+	}
+}
@@ -290,10 +290,10 @@ public class ExecutionVertexDeploymentTest extends TestLogger {
 		ExecutionVertex vertex =
 				new ExecutionVertex(jobVertex, 0, new IntermediateResult[]{result}, Time.minutes(1));
 
-		ExecutionEdge mockEdge = createMockExecutionEdge(1);
+		ExecutionVertex mockConsumer = createMockConsumerVertex(1);
 
 		result.getPartitions()[0].addConsumerGroup();
-		result.getPartitions()[0].addConsumer(mockEdge, 0);
+		result.getPartitions()[0].addConsumer(mockConsumer, 0);
 
 		SlotContext slotContext = mock(SlotContext.class);
 		when(slotContext.getAllocationId()).thenReturn(new AllocationID());
@@ -316,15 +316,13 @@ public class ExecutionVertexDeploymentTest extends TestLogger {
 
 
 
-	private ExecutionEdge createMockExecutionEdge(int maxParallelism) {
+	private ExecutionVertex createMockConsumerVertex(int maxParallelism) {
 		ExecutionVertex targetVertex = mock(ExecutionVertex.class);
 		ExecutionJobVertex targetJobVertex = mock(ExecutionJobVertex.class);
 
 		when(targetVertex.getJobVertex()).thenReturn(targetJobVertex);
 		when(targetJobVertex.getMaxParallelism()).thenReturn(maxParallelism);
 
-		ExecutionEdge edge = mock(ExecutionEdge.class);
-		when(edge.getTarget()).thenReturn(targetVertex);
-		return edge;
+		return targetVertex;
 	}
 }
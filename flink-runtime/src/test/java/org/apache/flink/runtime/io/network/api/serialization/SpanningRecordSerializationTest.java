@@ -105,15 +105,58 @@ public class SpanningRecordSerializationTest extends TestLogger {
 		testSerializationRoundTrip(originalRecords, segmentSize);
 	}
 
+	@Test
+	public void testRandomRecordsSerializedToBufferBuilder() throws Exception {
+		final int segmentSize = 127;
+		final int numValues = 10000;
+
+		testSerializationRoundTrip(Util.randomRecords(numValues), segmentSize, true);
+	}
+
+	@Test
+	public void testIntRecordsSerializedToUnalignedBufferBuilders() throws Exception {
+		final int segmentSize = 31;
+		final int numValues = 248;
+
+		testSerializationRoundTrip(Util.randomRecords(numValues, SerializationTestTypeFactory.INT), segmentSize, true);
+	}
+
+	@Test
+	public void testMixedLargeRecordsSerializedToBufferBuilder() throws Exception {
+		final int numValues = 99;
+		final int segmentSize = 32 * 1024;
+
+		List<SerializationTestType> originalRecords = new ArrayList<>((numValues + 1) / 2);
+		LargeObjectType genLarge = new LargeObjectType();
+		Random rnd = new Random();
+
+		for (int i = 0; i < numValues; i++) {
+			if (i % 3 == 0) {
+				originalRecords.add(genLarge.getRandom(rnd));
+			} else {
+				originalRecords.add(new IntType(42));
+			}
+		}
+
+		testSerializationRoundTrip(originalRecords, segmentSize, true);
+	}
+
 	// -----------------------------------------------------------------------------------------------------------------
 
 	private void testSerializationRoundTrip(Iterable<SerializationTestType> records, int segmentSize) throws Exception {
+		testSerializationRoundTrip(records, segmentSize, false);
+	}
+
+	private void testSerializationRoundTrip(
+			Iterable<SerializationTestType> records,
+			int segmentSize,
+			boolean serializeToBufferBuilder) throws Exception {
 		RecordSerializer<SerializationTestType> serializer = new SpanningRecordSerializer<>();
 		RecordDeserializer<SerializationTestType> deserializer =
 			new SpillingAdaptiveSpanningRecordDeserializer<>(
 				new String[]{ tempFolder.getRoot().getAbsolutePath() });
 
-		testSerializationRoundTrip(records, segmentSize, serializer, deserializer);
+		testSerializationRoundTrip(records, segmentSize, serializer, deserializer, serializeToBufferBuilder);
 	}
 
 	/**
@@ -124,12 +167,14 @@ public class SpanningRecordSerializationTest extends TestLogger {
 	 *
 	 * @param records records to test
 	 * @param segmentSize size for the {@link MemorySegment}
+	 * @param serializeToBufferBuilder whether records are serialized directly into the buffers if they fit
 	 */
 	private static void testSerializationRoundTrip(
 			Iterable<SerializationTestType> records,
 			int segmentSize,
 			RecordSerializer<SerializationTestType> serializer,
-			RecordDeserializer<SerializationTestType> deserializer)
+			RecordDeserializer<SerializationTestType> deserializer,
+			boolean serializeToBufferBuilder)
 		throws Exception {
 		final ArrayDeque<SerializationTestType> serializedRecords = new ArrayDeque<>();
 
@@ -145,8 +190,14 @@ public class SpanningRecordSerializationTest extends TestLogger {
 			numRecords++;
 
 			// serialize record
-			serializer.serializeRecord(record);
-			if (serializer.copyToBufferBuilder(serializationResult.getBufferBuilder()).isFullBuffer()) {
+			final boolean isFullBuffer;
+			if (serializeToBufferBuilder && serializer.serializeRecordToBufferBuilder(record, serializationResult.getBufferBuilder())) {
+				isFullBuffer = serializationResult.getBufferBuilder().isFull();
+			} else {
+				serializer.serializeRecord(record);
+				isFullBuffer = serializer.copyToBufferBuilder(serializationResult.getBufferBuilder()).isFullBuffer();
+			}
+			if (isFullBuffer) {
 				// buffer is full => start deserializing
 				deserializer.setNextBuffer(serializationResult.buildBuffer());
 
@@ -21,7 +21,10 @@ package org.apache.flink.runtime.io.network.api.serialization;
 import org.apache.flink.core.memory.DataInputView;
 import org.apache.flink.core.memory.DataOutputView;
 import org.apache.flink.core.memory.MemorySegment;
+import org.apache.flink.runtime.io.network.buffer.Buffer;
 import org.apache.flink.runtime.io.network.buffer.BufferBuilder;
+import org.apache.flink.runtime.io.network.buffer.BufferConsumer;
+import org.apache.flink.testutils.serialization.types.IntType;
 import org.apache.flink.testutils.serialization.types.SerializationTestType;
 import org.apache.flink.testutils.serialization.types.SerializationTestTypeFactory;
 import org.apache.flink.testutils.serialization.types.Util;
@@ -117,6 +120,33 @@ public class SpanningRecordSerializerTest {
 			serializer.copyToBufferBuilder(bufferBuilder2));
 	}
 
+	@Test
+	public void testSerializeRecordToBufferBuilder() throws IOException {
+		final SpanningRecordSerializer<SerializationTestType> serializer = new SpanningRecordSerializer<>();
+
+		// the record does not fit, nothing is appended
+		final BufferBuilder smallBufferBuilder = createBufferBuilder(6);
+		Assert.assertFalse(serializer.serializeRecordToBufferBuilder(new IntType(42), smallBufferBuilder));
+		Assert.assertEquals(0, smallBufferBuilder.getWritePosition());
+
+		final BufferBuilder bufferBuilder = createBufferBuilder(16);
+		final BufferConsumer bufferConsumer = bufferBuilder.createBufferConsumer();
+		Assert.assertTrue(serializer.serializeRecordToBufferBuilder(new IntType(42), bufferBuilder));
+		Assert.assertTrue(serializer.serializeRecordToBufferBuilder(new IntType(43), bufferBuilder));
+		Assert.assertTrue(bufferBuilder.isFull());
+		Assert.assertFalse(serializer.serializeRecordToBufferBuilder(new IntType(44), bufferBuilder));
+		Assert.assertFalse(serializer.hasSerializedData());
+
+		final Buffer buffer = bufferConsumer.build();
+		final MemorySegment segment = buffer.getMemorySegment();
+		Assert.assertEquals(16, buffer.getSize());
+		Assert.assertEquals(4, segment.getIntBigEndian(0));
+		Assert.assertEquals(42, segment.getIntBigEndian(4));
+		Assert.assertEquals(4, segment.getIntBigEndian(8));
+		Assert.assertEquals(43, segment.getIntBigEndian(12));
+		buffer.recycleBuffer();
+	}
+
 	@Test
 	public void testIntRecordsSpanningMultipleSegments() throws Exception {
 		final int segmentSize = 1;
@@ -44,6 +44,7 @@ import org.apache.flink.runtime.taskmanager.LocalTaskManagerLocation;
 import org.apache.flink.runtime.taskmanager.TaskManagerLocation;
 import org.apache.flink.runtime.testingUtils.TestingUtils;
 import org.apache.flink.runtime.util.clock.ManualClock;
+import org.apache.flink.runtime.util.clock.SystemClock;
 import org.apache.flink.util.ExceptionUtils;
 import org.apache.flink.util.FlinkException;
 import org.apache.flink.util.TestLogger;
@@ -74,6 +75,7 @@ import static org.hamcrest.Matchers.is;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
@@ -200,6 +202,158 @@ public class SlotPoolTest extends TestLogger {
 		}
 	}
 
+	/**
+	 * Tests that a slot which is returned without being marked for a restart fulfills a pending
+	 * request right away, even if local recovery slot retention is enabled.
+	 */
+	@Test
+	public void testReturnedSlotIsNotRetainedWithoutRestart() throws Exception {
+		final ArrayBlockingQueue<SlotRequest> slotRequestQueue = new ArrayBlockingQueue<>(2);
+
+		resourceManagerGateway.setRequestSlotConsumer(slotRequest -> {
+			while (!slotRequestQueue.offer(slotRequest)) {
+				// noop
+			}
+		});
+
+		try (SlotPoolImpl slotPool = new SlotPoolImpl(
+			jobId,
+			SystemClock.getInstance(),
+			TestingUtils.infiniteTime(),
+			timeout,
+			Time.hours(1L))) {
+			setupSlotPool(slotPool, resourceManagerGateway, mainThreadExecutor);
+			Scheduler scheduler = setupScheduler(slotPool, mainThreadExecutor);
+			slotPool.registerTaskManager(taskManagerLocation.getResourceID());
+
+			CompletableFuture<LogicalSlot> future1 = allocateSlot(scheduler, new SlotRequestId());
+			CompletableFuture<LogicalSlot> future2 = allocateSlot(scheduler, new SlotRequestId());
+
+			final SlotRequest slotRequest = slotRequestQueue.poll(timeout.toMilliseconds(), TimeUnit.MILLISECONDS);
+			final SlotOffer slotOffer = new SlotOffer(slotRequest.getAllocationId(), 0, DEFAULT_TESTING_PROFILE);
+
+			assertTrue(slotPool.offerSlot(taskManagerLocation, taskManagerGateway, slotOffer));
+
+			LogicalSlot slot1 = future1.get(1, TimeUnit.SECONDS);
+			slot1.releaseSlot();
+
+			// the returned slot immediately fulfills the waiting request
+			LogicalSlot slot2 = future2.get(1, TimeUnit.SECONDS);
+			assertEquals(slot1.getAllocationId(), slot2.getAllocationId());
+		}
+	}
+
+	/**
+	 * Tests that a slot which is returned because its task is restarted is retained for local recovery
+	 * instead of fulfilling another pending request, until the retention time has expired.
+	 */
+	@Test
+	public void testSlotReleasedForRestartIsRetainedForLocalRecovery() throws Exception {
+		final ManualClock clock = new ManualClock();
+		final Time retention = Time.seconds(30L);
+		final ArrayBlockingQueue<SlotRequest> slotRequestQueue = new ArrayBlockingQueue<>(2);
+
+		resourceManagerGateway.setRequestSlotConsumer(slotRequest -> {
+			while (!slotRequestQueue.offer(slotRequest)) {
+				// noop
+			}
+		});
+
+		try (SlotPoolImpl slotPool = new SlotPoolImpl(
+			jobId,
+			clock,
+			TestingUtils.infiniteTime(),
+			timeout,
+			retention)) {
+			setupSlotPool(slotPool, resourceManagerGateway, mainThreadExecutor);
+			Scheduler scheduler = setupScheduler(slotPool, mainThreadExecutor);
+			slotPool.registerTaskManager(taskManagerLocation.getResourceID());
+
+			CompletableFuture<LogicalSlot> future1 = allocateSlot(scheduler, new SlotRequestId());
+			CompletableFuture<LogicalSlot> future2 = allocateSlot(scheduler, new SlotRequestId());
+
+			final SlotRequest slotRequest = slotRequestQueue.poll(timeout.toMilliseconds(), TimeUnit.MILLISECONDS);
+			final SlotOffer slotOffer = new SlotOffer(slotRequest.getAllocationId(), 0, DEFAULT_TESTING_PROFILE);
+
+			assertTrue(slotPool.offerSlot(taskManagerLocation, taskManagerGateway, slotOffer));
+
+			LogicalSlot slot1 = future1.get(1, TimeUnit.SECONDS);
+			scheduler.retainSlotForRestart(slot1.getAllocationId());
+			slot1.releaseSlot();
+
+			// the returned slot is retained for the task which used it before
+			assertFalse(future2.isDone());
+			assertTrue(slotPool.getAvailableSlotsInformation().isEmpty());
+			assertEquals(1, slotPool.getAvailableSlotsInformation(
+				Collections.singleton(slot1.getAllocationId())).size());
+
+			clock.advanceTime(retention.toMilliseconds() + 1L, TimeUnit.MILLISECONDS);
+			slotPool.triggerCheckIdleSlot();
+
+			// after the retention expired, the slot fulfills the pending request
+			LogicalSlot slot2 = future2.get(1, TimeUnit.SECONDS);
+			assertEquals(slot1.getAllocationId(), slot2.getAllocationId());
+			assertTrue(slotPool.getAvailableSlotsInformation().isEmpty());
+		}
+	}
+
+	/**
+	 * Tests that a retained slot is only handed to a request which prefers its allocation and
+	 * that other requests do not get it from the available slots.
+	 */
+	@Test
+	public void testRetainedSlotIsOnlyAllocatedToItsPreviousExecution() throws Exception {
+		final ArrayBlockingQueue<SlotRequest> slotRequestQueue = new ArrayBlockingQueue<>(2);
+
+		resourceManagerGateway.setRequestSlotConsumer(slotRequest -> {
+			while (!slotRequestQueue.offer(slotRequest)) {
+				// noop
+			}
+		});
+
+		try (SlotPoolImpl slotPool = new SlotPoolImpl(
+			jobId,
+			SystemClock.getInstance(),
+			TestingUtils.infiniteTime(),
+			timeout,
+			Time.hours(1L))) {
+			setupSlotPool(slotPool, resourceManagerGateway, mainThreadExecutor);
+			Scheduler scheduler = setupScheduler(slotPool, mainThreadExecutor);
+			slotPool.registerTaskManager(taskManagerLocation.getResourceID());
+
+			CompletableFuture<LogicalSlot> future1 = allocateSlot(scheduler, new SlotRequestId());
+
+			final SlotRequest slotRequest = slotRequestQueue.poll(timeout.toMilliseconds(), TimeUnit.MILLISECONDS);
+			final SlotOffer slotOffer = new SlotOffer(slotRequest.getAllocationId(), 0, DEFAULT_TESTING_PROFILE);
+
+			assertTrue(slotPool.offerSlot(taskManagerLocation, taskManagerGateway, slotOffer));
+
+			LogicalSlot slot1 = future1.get(1, TimeUnit.SECONDS);
+			final AllocationID retainedAllocationId = slot1.getAllocationId();
+			scheduler.retainSlotForRestart(retainedAllocationId);
+			slot1.releaseSlot();
+
+			// a request without preferences must not take the retained slot but request a new one
+			CompletableFuture<LogicalSlot> future2 = allocateSlot(scheduler, new SlotRequestId());
+			assertFalse(future2.isDone());
+			final SlotRequest newSlotRequest = slotRequestQueue.poll(timeout.toMilliseconds(), TimeUnit.MILLISECONDS);
+			assertNotNull(newSlotRequest);
+			assertNotEquals(retainedAllocationId, newSlotRequest.getAllocationId());
+
+			// the previous execution gets its retained slot back
+			CompletableFuture<LogicalSlot> future3 = scheduler.allocateSlot(
+				new SlotRequestId(),
+				new DummyScheduledUnit(),
+				SlotProfile.priorAllocation(DEFAULT_TESTING_PROFILE, Collections.singletonList(retainedAllocationId)),
+				true,
+				timeout);
+
+			LogicalSlot slot3 = future3.get(1, TimeUnit.SECONDS);
+			assertEquals(retainedAllocationId, slot3.getAllocationId());
+			assertFalse(future2.isDone());
+		}
+	}
+
 	@Test
 	public void testAllocateWithFreeSlot() throws Exception {
 		final CompletableFuture<SlotRequest> slotRequestFuture = new CompletableFuture<>();
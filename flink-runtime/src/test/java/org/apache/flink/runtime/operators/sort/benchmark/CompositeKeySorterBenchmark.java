@@ -0,0 +1,177 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.operators.sort.benchmark;
+
+import org.apache.flink.api.common.ExecutionConfig;
+import org.apache.flink.api.common.typeinfo.BasicTypeInfo;
+import org.apache.flink.api.common.typeinfo.TypeInformation;
+import org.apache.flink.api.common.typeutils.CompositeType;
+import org.apache.flink.api.common.typeutils.TypeComparator;
+import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.api.java.typeutils.PojoTypeInfo;
+import org.apache.flink.api.java.typeutils.RowTypeInfo;
+import org.apache.flink.api.java.typeutils.TypeExtractor;
+import org.apache.flink.core.memory.MemorySegment;
+import org.apache.flink.core.memory.MemorySegmentFactory;
+import org.apache.flink.runtime.operators.sort.NormalizedKeySorter;
+import org.apache.flink.runtime.operators.sort.QuickSort;
+import org.apache.flink.types.Row;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Benchmark that sorts POJOs or Rows with the {@link NormalizedKeySorter} on a composite key of
+ * different sort orders, the id of a customer ascending and a timestamp descending, as for
+ * finding the latest orders of every customer.
+ *
+ * <p>The benchmark can be executed by the external
+ * <a href="https://github.com/dataArtisans/flink-benchmarks">flink-benchmarks</a> project, or
+ * standalone via {@link #main(String[])}.
+ */
+public class CompositeKeySorterBenchmark {
+
+	private static final int PAGE_SIZE = 32 * 1024;
+
+	private static final long SEED = 0x5eed5eed5eedL;
+
+	private final QuickSort quickSort = new QuickSort();
+
+	private List<MemorySegment> memory;
+
+	private NormalizedKeySorter<Object> sorter;
+
+	private List<Object> records;
+
+	/**
+	 * Initializes the benchmark.
+	 *
+	 * @param rows whether to sort {@link Row Rows} instead of POJOs
+	 * @param numberOfRecords number of records to sort in every run
+	 * @param numberOfCustomers number of distinct values of the first key field
+	 */
+	@SuppressWarnings("unchecked")
+	public void setUp(boolean rows, int numberOfRecords, int numberOfCustomers) {
+		final ExecutionConfig config = new ExecutionConfig();
+
+		final CompositeType<?> typeInfo;
+		if (rows) {
+			typeInfo = new RowTypeInfo(
+				new TypeInformation<?>[] {
+					BasicTypeInfo.INT_TYPE_INFO, BasicTypeInfo.LONG_TYPE_INFO, BasicTypeInfo.STRING_TYPE_INFO},
+				new String[] {"customerId", "timestamp", "comment"});
+		} else {
+			typeInfo = (PojoTypeInfo<Order>) TypeExtractor.createTypeInfo(Order.class);
+		}
+
+		final Random random = new Random(SEED);
+		records = new ArrayList<>(numberOfRecords);
+		for (int i = 0; i < numberOfRecords; i++) {
+			final int customerId = random.nextInt(numberOfCustomers);
+			final long timestamp = random.nextLong();
+			final String comment = "order " + i;
+			records.add(rows ? Row.of(customerId, timestamp, comment) : new Order(customerId, timestamp, comment));
+		}
+
+		// up to 14 bytes of normalized key and 8 bytes of pointer per record, plus the serialized records
+		final int numberOfPages = (int) ((numberOfRecords * 64L) / PAGE_SIZE) + 4;
+		memory = new ArrayList<>(numberOfPages);
+		for (int i = 0; i < numberOfPages; i++) {
+			memory.add(MemorySegmentFactory.allocateUnpooledSegment(PAGE_SIZE));
+		}
+
+		final TypeComparator<?> comparator = typeInfo.createComparator(
+			new int[] {typeInfo.getFieldIndex("customerId"), typeInfo.getFieldIndex("timestamp")},
+			new boolean[] {true, false},
+			0,
+			config);
+
+		sorter = new NormalizedKeySorter<>(
+			(TypeSerializer<Object>) typeInfo.createSerializer(config),
+			(TypeComparator<Object>) comparator,
+			memory);
+	}
+
+	/**
+	 * Writes all records to the sorter and sorts them.
+	 */
+	public void executeBenchmark() throws Exception {
+		sorter.reset();
+		for (Object record : records) {
+			if (!sorter.write(record)) {
+				throw new IllegalStateException("The sort buffer is too small for the records.");
+			}
+		}
+		quickSort.sort(sorter);
+	}
+
+	public void tearDown() {
+		if (sorter != null) {
+			sorter.dispose();
+		}
+		if (memory != null) {
+			for (MemorySegment segment : memory) {
+				segment.free();
+			}
+		}
+	}
+
+	/**
+	 * Sorts one million POJOs and one million Rows repeatedly and prints the throughput.
+	 */
+	public static void main(String[] args) throws Exception {
+		final int records = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+		final int runs = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+
+		for (boolean rows : new boolean[] {false, true}) {
+			CompositeKeySorterBenchmark benchmark = new CompositeKeySorterBenchmark();
+			benchmark.setUp(rows, records, 1000);
+			try {
+				for (int i = 0; i < runs; i++) {
+					final long start = System.nanoTime();
+					benchmark.executeBenchmark();
+					final long durationMillis = Math.max(1L, (System.nanoTime() - start) / 1_000_000L);
+
+					System.out.println((rows ? "Row" : "POJO") + ": " + records + " records in " + durationMillis +
+						" ms (" + (records * 1000L / durationMillis) + " records/s)");
+				}
+			} finally {
+				benchmark.tearDown();
+			}
+		}
+	}
+
+	/**
+	 * POJO of the benchmark.
+	 */
+	public static class Order {
+		public int customerId;
+		public long timestamp;
+		public String comment;
+
+		public Order() {}
+
+		public Order(int customerId, long timestamp, String comment) {
+			this.customerId = customerId;
+			this.timestamp = timestamp;
+			this.comment = comment;
+		}
+	}
+}
@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.operators.sort.benchmark;
+
+import org.apache.flink.api.common.ExecutionConfig;
+import org.apache.flink.api.common.typeinfo.BasicTypeInfo;
+import org.apache.flink.api.java.tuple.Tuple2;
+import org.apache.flink.api.java.typeutils.TupleTypeInfo;
+import org.apache.flink.core.memory.MemorySegment;
+import org.apache.flink.core.memory.MemorySegmentFactory;
+import org.apache.flink.runtime.operators.sort.NormalizedKeySorter;
+import org.apache.flink.runtime.operators.sort.QuickSort;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Benchmark that sorts records with the {@link NormalizedKeySorter}. The records have a key of two
+ * longs that fully determine the 16 bytes of normalized key. The first key field has few distinct
+ * values, so that many comparisons only find the difference in the second half of the key.
+ *
+ * <p>The benchmark can be executed by the external
+ * <a href="https://github.com/dataArtisans/flink-benchmarks">flink-benchmarks</a> project, or
+ * standalone via {@link #main(String[])}.
+ */
+public class NormalizedKeySorterBenchmark {
+
+	private static final int PAGE_SIZE = 32 * 1024;
+
+	private static final long SEED = 0x5eed5eed5eedL;
+
+	private final QuickSort quickSort = new QuickSort();
+
+	private List<MemorySegment> memory;
+
+	private NormalizedKeySorter<Tuple2<Long, Long>> sorter;
+
+	private Tuple2<Long, Long>[] records;
+
+	/**
+	 * Initializes the benchmark.
+	 *
+	 * @param numberOfRecords number of records to sort in every run
+	 * @param numberOfDistinctKeys number of distinct values of the first key field
+	 */
+	@SuppressWarnings("unchecked")
+	public void setUp(int numberOfRecords, int numberOfDistinctKeys) {
+		TupleTypeInfo<Tuple2<Long, Long>> typeInfo =
+			new TupleTypeInfo<>(BasicTypeInfo.LONG_TYPE_INFO, BasicTypeInfo.LONG_TYPE_INFO);
+		ExecutionConfig config = new ExecutionConfig();
+
+		Random random = new Random(SEED);
+		records = new Tuple2[numberOfRecords];
+		for (int i = 0; i < numberOfRecords; i++) {
+			records[i] = Tuple2.of(
+				(long) random.nextInt(numberOfDistinctKeys),
+				random.nextLong());
+		}
+
+		// 16 bytes of normalized key and 8 bytes of pointer per record, plus the serialized records
+		int numberOfPages = (int) ((numberOfRecords * 48L) / PAGE_SIZE) + 4;
+		memory = new ArrayList<>(numberOfPages);
+		for (int i = 0; i < numberOfPages; i++) {
+			memory.add(MemorySegmentFactory.allocateUnpooledSegment(PAGE_SIZE));
+		}
+
+		sorter = new NormalizedKeySorter<>(
+			typeInfo.createSerializer(config),
+			typeInfo.createComparator(new int[] {0, 1}, new boolean[] {true, true}, 0, config),
+			memory);
+	}
+
+	/**
+	 * Writes all records to the sorter and sorts them.
+	 */
+	public void executeBenchmark() throws Exception {
+		sorter.reset();
+		for (Tuple2<Long, Long> record : records) {
+			if (!sorter.write(record)) {
+				throw new IllegalStateException("The sort buffer is too small for the records.");
+			}
+		}
+		quickSort.sort(sorter);
+	}
+
+	public void tearDown() {
+		if (sorter != null) {
+			sorter.dispose();
+		}
+		if (memory != null) {
+			for (MemorySegment segment : memory) {
+				segment.free();
+			}
+		}
+	}
+
+	/**
+	 * Sorts one million records repeatedly and prints the throughput.
+	 */
+	public static void main(String[] args) throws Exception {
+		final int records = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+		final int runs = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+
+		NormalizedKeySorterBenchmark benchmark = new NormalizedKeySorterBenchmark();
+		benchmark.setUp(records, 1000);
+		try {
+			for (int i = 0; i < runs; i++) {
+				final long start = System.nanoTime();
+				benchmark.executeBenchmark();
+				final long durationMillis = Math.max(1L, (System.nanoTime() - start) / 1_000_000L);
+
+				System.out.println("NormalizedKeySorter: " + records + " records in " + durationMillis +
+					" ms (" + (records * 1000L / durationMillis) + " records/s)");
+			}
+		} finally {
+			benchmark.tearDown();
+		}
+	}
+}
@@ -440,6 +440,44 @@ public class SlotManagerTest extends TestLogger {
 		}
 	}
 
+	/**
+	 * Tests that a slot request is preferably fulfilled with a free slot which has been allocated
+	 * to the same job before.
+	 */
+	@Test
+	public void testSlotRequestPrefersSlotPreviouslyAllocatedToJob() throws Exception {
+		final ResourceManagerId resourceManagerId = ResourceManagerId.generate();
+		final ResourceActions resourceManagerActions = new TestingResourceActionsBuilder().build();
+		final JobID jobId = new JobID();
+		final AllocationID previousAllocationId = new AllocationID();
+		final ResourceProfile resourceProfile = new ResourceProfile(1.0, 1);
+
+		final TaskExecutorGateway taskExecutorGateway = new TestingTaskExecutorGatewayBuilder().createTestingTaskExecutorGateway();
+
+		final ResourceID otherResourceId = ResourceID.generate();
+		final SlotID otherSlotId = new SlotID(otherResourceId, 0);
+		final SlotReport otherSlotReport = new SlotReport(new SlotStatus(otherSlotId, resourceProfile));
+
+		final ResourceID previousResourceId = ResourceID.generate();
+		final SlotID previousSlotId = new SlotID(previousResourceId, 0);
+		final SlotReport previousSlotReport = new SlotReport(
+			new SlotStatus(previousSlotId, resourceProfile, jobId, previousAllocationId));
+
+		try (SlotManager slotManager = createSlotManager(resourceManagerId, resourceManagerActions)) {
+			slotManager.registerTaskManager(new TaskExecutorConnection(otherResourceId, taskExecutorGateway), otherSlotReport);
+			slotManager.registerTaskManager(new TaskExecutorConnection(previousResourceId, taskExecutorGateway), previousSlotReport);
+
+			slotManager.freeSlot(previousSlotId, previousAllocationId);
+			assertEquals(2, slotManager.getNumberFreeSlots());
+
+			final AllocationID allocationId = new AllocationID();
+			assertTrue(slotManager.registerSlotRequest(new SlotRequest(jobId, allocationId, resourceProfile, "foobar")));
+
+			assertEquals(allocationId, slotManager.getSlot(previousSlotId).getAllocationId());
+			assertEquals(TaskManagerSlot.State.FREE, slotManager.getSlot(otherSlotId).getState());
+		}
+	}
+
 	/**
 	 * Tests that a second pending slot request is detected as a duplicate if the allocation ids are
 	 * the same.
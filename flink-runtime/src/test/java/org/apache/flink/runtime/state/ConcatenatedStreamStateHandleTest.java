@@ -0,0 +1,125 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.state;
+
+import org.apache.flink.core.fs.FSDataInputStream;
+import org.apache.flink.runtime.state.memory.ByteStreamStateHandle;
+import org.apache.flink.util.TestLogger;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests for {@link ConcatenatedStreamStateHandle}.
+ */
+public class ConcatenatedStreamStateHandleTest extends TestLogger {
+
+	private static final byte[] PART_1 = {0, 1, 2};
+	private static final byte[] PART_2 = {3, 4, 5, 6, 7};
+	private static final byte[] PART_3 = {8};
+
+	@Test
+	public void testSequentialReadAcrossParts() throws IOException {
+		final ConcatenatedStreamStateHandle handle = createHandle();
+		assertEquals(9L, handle.getStateSize());
+
+		try (FSDataInputStream in = handle.openInputStream()) {
+			final byte[] buffer = new byte[9];
+			int read = 0;
+			int n;
+			while ((n = in.read(buffer, read, buffer.length - read)) > 0) {
+				read += n;
+			}
+
+			assertEquals(9, read);
+			assertArrayEquals(new byte[]{0, 1, 2, 3, 4, 5, 6, 7, 8}, buffer);
+			assertEquals(9L, in.getPos());
+			assertEquals(-1, in.read());
+		}
+	}
+
+	@Test
+	public void testSeekToAbsolutePositions() throws IOException {
+		try (FSDataInputStream in = createHandle().openInputStream()) {
+			in.seek(6L);
+			assertEquals(6, in.read());
+			assertEquals(7, in.read());
+			assertEquals(8, in.read());
+
+			in.seek(3L);
+			assertEquals(3, in.read());
+
+			in.seek(2L);
+			assertEquals(2, in.read());
+			assertEquals(3, in.read());
+			assertEquals(4L, in.getPos());
+
+			in.seek(9L);
+			assertEquals(-1, in.read());
+		}
+	}
+
+	@Test
+	public void testSeekOutOfBounds() throws IOException {
+		try (FSDataInputStream in = createHandle().openInputStream()) {
+			in.seek(10L);
+			fail("Expected an exception.");
+		} catch (IOException expected) {
+			// expected
+		}
+	}
+
+	@Test
+	public void testShortPartIsDetected() throws IOException {
+		final ConcatenatedStreamStateHandle handle = new ConcatenatedStreamStateHandle(
+			Arrays.asList(new ByteStreamStateHandle("a", PART_1), new ByteStreamStateHandle("b", PART_2)),
+			new long[]{PART_1.length + 1, PART_2.length});
+
+		try (FSDataInputStream in = handle.openInputStream()) {
+			in.read(new byte[PART_1.length]);
+			in.read();
+			fail("Expected an exception.");
+		} catch (IOException expected) {
+			// expected
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testEmptyPartIsRejected() {
+		new ConcatenatedStreamStateHandle(
+			Collections.singletonList(new ByteStreamStateHandle("a", new byte[0])),
+			new long[]{0L});
+	}
+
+	private static ConcatenatedStreamStateHandle createHandle() {
+		return new ConcatenatedStreamStateHandle(
+			Arrays.asList(
+				new ByteStreamStateHandle("a", PART_1),
+				new ByteStreamStateHandle("b", PART_2),
+				new ByteStreamStateHandle("c", PART_3)),
+			new long[]{PART_1.length, PART_2.length, PART_3.length});
+	}
+}
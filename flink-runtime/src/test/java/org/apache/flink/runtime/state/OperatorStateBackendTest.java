@@ -18,6 +18,7 @@
 package org.apache.flink.runtime.state;
 
 import org.apache.flink.api.common.ExecutionConfig;
+import org.apache.flink.api.common.TaskInfo;
 import org.apache.flink.api.common.state.BroadcastState;
 import org.apache.flink.api.common.state.ListState;
 import org.apache.flink.api.common.state.ListStateDescriptor;
@@ -40,6 +41,7 @@ import org.apache.flink.runtime.state.memory.MemCheckpointStreamFactory;
 import org.apache.flink.runtime.state.memory.MemoryStateBackend;
 import org.apache.flink.runtime.util.BlockerCheckpointStreamFactory;
 import org.apache.flink.runtime.util.BlockingCheckpointOutputStream;
+import org.apache.flink.runtime.util.TestingTaskManagerRuntimeInfo;
 import org.apache.flink.util.Preconditions;
 import org.junit.Assert;
 import org.junit.Test;
@@ -485,6 +487,49 @@ public class OperatorStateBackendTest {
 		}
 	}
 
+	@Test
+	public void testSnapshotWithoutBroadcastState() throws Exception {
+		final OperatorStateBackend operatorStateBackend =
+			new DefaultOperatorStateBackendBuilder(
+				classLoader,
+				new ExecutionConfig(),
+				false,
+				emptyStateHandles,
+				new CloseableRegistry(),
+				false).build();
+
+		final MapStateDescriptor<Integer, Integer> broadcastStateDesc = new MapStateDescriptor<>(
+				"test-broadcast", BasicTypeInfo.INT_TYPE_INFO, BasicTypeInfo.INT_TYPE_INFO);
+		final ListStateDescriptor<Integer> listStateDesc = new ListStateDescriptor<>("test-list", Integer.class);
+
+		final CheckpointStreamFactory streamFactory = new MemCheckpointStreamFactory(4096);
+		OperatorStateHandle stateHandle = null;
+
+		try {
+			operatorStateBackend.getBroadcastState(broadcastStateDesc).put(1, 2);
+
+			// only broadcast state, which is written by another subtask
+			RunnableFuture<SnapshotResult<OperatorStateHandle>> snapshot =
+				operatorStateBackend.snapshot(0L, 0L, streamFactory, CheckpointOptions.forCheckpointWithDefaultLocation());
+			assertNull(FutureUtils.runIfNotDoneAndGet(snapshot).getJobManagerOwnedSnapshot());
+
+			operatorStateBackend.getListState(listStateDesc).add(42);
+
+			snapshot = operatorStateBackend.snapshot(1L, 1L, streamFactory, CheckpointOptions.forCheckpointWithDefaultLocation());
+			stateHandle = FutureUtils.runIfNotDoneAndGet(snapshot).getJobManagerOwnedSnapshot();
+			assertNotNull(stateHandle);
+			assertEquals(
+				Collections.singleton("test-list"),
+				stateHandle.getStateNameToPartitionOffsets().keySet());
+		} finally {
+			operatorStateBackend.close();
+			operatorStateBackend.dispose();
+			if (stateHandle != null) {
+				stateHandle.discardState();
+			}
+		}
+	}
+
 	@Test
 	public void testSnapshotRestoreSync() throws Exception {
 		AbstractStateBackend abstractStateBackend = new MemoryStateBackend(2 * 4096);
@@ -937,6 +982,8 @@ public class OperatorStateBackendTest {
 		Environment env = mock(Environment.class);
 		when(env.getExecutionConfig()).thenReturn(new ExecutionConfig());
 		when(env.getUserClassLoader()).thenReturn(OperatorStateBackendTest.class.getClassLoader());
+		when(env.getTaskInfo()).thenReturn(new TaskInfo("testTask", 1, 0, 1, 0));
+		when(env.getTaskManagerInfo()).thenReturn(new TestingTaskManagerRuntimeInfo());
 		return env;
 	}
 
@@ -19,13 +19,27 @@
 package org.apache.flink.runtime.taskexecutor;
 
 import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
 import org.apache.flink.api.common.functions.AggregateFunction;
 
+/**
+ * {@link GlobalAggregateManager} that keeps the aggregates in memory, the same way as the JobMaster does.
+ */
 public class TestGlobalAggregateManager implements GlobalAggregateManager {
 
+	private final Map<String, Object> accumulators = new HashMap<>();
+
 	@Override
-	public <IN, ACC, OUT> OUT updateGlobalAggregate(String aggregateName, Object aggregand,
+	@SuppressWarnings("unchecked")
+	public synchronized <IN, ACC, OUT> OUT updateGlobalAggregate(String aggregateName, Object aggregand,
 		AggregateFunction<IN, ACC, OUT> aggregateFunction) throws IOException {
-		return aggregateFunction.getResult(aggregateFunction.createAccumulator());
+		ACC accumulator = (ACC) accumulators.get(aggregateName);
+		if (accumulator == null) {
+			accumulator = aggregateFunction.createAccumulator();
+		}
+		accumulator = aggregateFunction.add((IN) aggregand, accumulator);
+		accumulators.put(aggregateName, accumulator);
+		return aggregateFunction.getResult(accumulator);
 	}
 }
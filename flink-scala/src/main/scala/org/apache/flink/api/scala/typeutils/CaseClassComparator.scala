@@ -136,8 +136,7 @@ class CaseClassComparator[T <: Product](
         {
           var len: Int = normalizedKeyLengths(i)
           len = if (numBytes >= len) len else numBytes
-          val comparator = comparators(i).asInstanceOf[TypeComparator[Any]]
-          comparator.putNormalizedKey(value.productElement(keyPositions(i)), target, offset, len)
+          putNormalizedKeyField(i, value.productElement(keyPositions(i)), target, offset, len)
           numBytes -= len
           offset += len
         }
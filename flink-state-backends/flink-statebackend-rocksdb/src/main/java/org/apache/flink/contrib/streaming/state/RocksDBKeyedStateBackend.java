@@ -313,6 +313,9 @@ public class RocksDBKeyedStateBackend<K> extends AbstractKeyedStateBackend<K> {
 		// so that we cannot release the native resources while clients are still working with it in parallel.
 		rocksDBResourceGuard.close();
 
+		checkpointSnapshotStrategy.close();
+		savepointSnapshotStrategy.close();
+
 		// IMPORTANT: null reference to signal potential async checkpoint workers that the db was disposed, as
 		// working on the disposed object results in SEGFAULTS.
 		if (db != null) {
@@ -110,6 +110,7 @@ public class RocksDBKeyedStateBackendBuilder<K> extends AbstractKeyedStateBacken
 	private boolean enableTtlCompactionFilter;
 	private RocksDBNativeMetricOptions nativeMetricOptions;
 	private int numberOfTransferingThreads;
+	private int numberOfFullSnapshotThreads;
 
 	private RocksDB injectedTestDB; // for testing
 	private ColumnFamilyHandle injectedDefaultColumnFamilyHandle; // for testing
@@ -157,6 +158,7 @@ public class RocksDBKeyedStateBackendBuilder<K> extends AbstractKeyedStateBacken
 		this.enableIncrementalCheckpointing = false;
 		this.nativeMetricOptions = new RocksDBNativeMetricOptions();
 		this.numberOfTransferingThreads = RocksDBOptions.CHECKPOINT_TRANSFER_THREAD_NUM.defaultValue();
+		this.numberOfFullSnapshotThreads = RocksDBOptions.FULL_SNAPSHOT_THREAD_NUM.defaultValue();
 	}
 
 	@VisibleForTesting
@@ -223,6 +225,11 @@ public class RocksDBKeyedStateBackendBuilder<K> extends AbstractKeyedStateBacken
 		return this;
 	}
 
+	RocksDBKeyedStateBackendBuilder<K> setNumberOfFullSnapshotThreads(int numberOfFullSnapshotThreads) {
+		this.numberOfFullSnapshotThreads = numberOfFullSnapshotThreads;
+		return this;
+	}
+
 	private static void checkAndCreateDirectory(File directory) throws IOException {
 		if (directory.exists()) {
 			if (!directory.isDirectory()) {
@@ -401,7 +408,7 @@ public class RocksDBKeyedStateBackendBuilder<K> extends AbstractKeyedStateBacken
 			return new RocksDBFullRestoreOperation<>(
 				keyGroupRange,
 				keyGroupPrefixBytes,
-				numberOfTransferingThreads,
+				numberOfFullSnapshotThreads,
 				cancelStreamRegistry,
 				userCodeClassLoader,
 				kvStateInformation,
@@ -435,7 +442,8 @@ public class RocksDBKeyedStateBackendBuilder<K> extends AbstractKeyedStateBacken
 			keyGroupPrefixBytes,
 			localRecoveryConfig,
 			cancelStreamRegistry,
-			keyGroupCompressionDecorator);
+			keyGroupCompressionDecorator,
+			numberOfFullSnapshotThreads);
 		RocksDBSnapshotStrategyBase<K> checkpointSnapshotStrategy;
 		if (enableIncrementalCheckpointing) {
 			// TODO eventually we might want to separate savepoint and snapshot strategy, i.e. having 2 strategies.
@@ -58,6 +58,15 @@ public class RocksDBOptions {
 		.defaultValue(1)
 		.withDescription("The number of threads used to transfer (download and upload) files in RocksDBStateBackend.");
 
+	/**
+	 * The number of threads used to write and restore full snapshots in RocksDBStateBackend.
+	 */
+	public static final ConfigOption<Integer> FULL_SNAPSHOT_THREAD_NUM = ConfigOptions
+		.key("state.backend.rocksdb.full-snapshot.thread.num")
+		.defaultValue(1)
+		.withDescription("The number of threads used to write and restore full snapshots, e.g. savepoints, in " +
+			"RocksDBStateBackend. Each thread handles a separate range of key-groups.");
+
 	/** This determines if compaction filter to cleanup state with TTL is enabled. */
 	public static final ConfigOption<Boolean> TTL_COMPACT_FILTER_ENABLED = ConfigOptions
 		.key("state.backend.rocksdb.ttl.compaction.filter.enabled")
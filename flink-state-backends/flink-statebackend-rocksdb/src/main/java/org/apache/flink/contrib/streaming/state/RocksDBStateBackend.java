@@ -72,6 +72,7 @@ import java.util.Random;
 import java.util.UUID;
 
 import static org.apache.flink.contrib.streaming.state.RocksDBOptions.CHECKPOINT_TRANSFER_THREAD_NUM;
+import static org.apache.flink.contrib.streaming.state.RocksDBOptions.FULL_SNAPSHOT_THREAD_NUM;
 import static org.apache.flink.contrib.streaming.state.RocksDBOptions.TIMER_SERVICE_FACTORY;
 import static org.apache.flink.contrib.streaming.state.RocksDBOptions.TTL_COMPACT_FILTER_ENABLED;
 import static org.apache.flink.util.Preconditions.checkNotNull;
@@ -111,6 +112,8 @@ public class RocksDBStateBackend extends AbstractStateBackend implements Configu
 
 	private static final int UNDEFINED_NUMBER_OF_TRANSFERING_THREADS = -1;
 
+	private static final int UNDEFINED_NUMBER_OF_FULL_SNAPSHOT_THREADS = -1;
+
 	// ------------------------------------------------------------------------
 
 	// -- configuration values, set in the application / configuration
@@ -138,6 +141,9 @@ public class RocksDBStateBackend extends AbstractStateBackend implements Configu
 	/** Thread number used to transfer (download and upload) state, default value: 1. */
 	private int numberOfTransferingThreads;
 
+	/** Thread number used to write and restore full snapshots, default value: 1. */
+	private int numberOfFullSnapshotThreads;
+
 	/**
 	 * This determines if compaction filter to cleanup state with TTL is enabled.
 	 *
@@ -265,6 +271,7 @@ public class RocksDBStateBackend extends AbstractStateBackend implements Configu
 		this.checkpointStreamBackend = checkNotNull(checkpointStreamBackend);
 		this.enableIncrementalCheckpointing = enableIncrementalCheckpointing;
 		this.numberOfTransferingThreads = UNDEFINED_NUMBER_OF_TRANSFERING_THREADS;
+		this.numberOfFullSnapshotThreads = UNDEFINED_NUMBER_OF_FULL_SNAPSHOT_THREADS;
 		// for now, we use still the heap-based implementation as default
 		this.priorityQueueStateType = PriorityQueueStateType.HEAP;
 		this.defaultMetricOptions = new RocksDBNativeMetricOptions();
@@ -311,6 +318,12 @@ public class RocksDBStateBackend extends AbstractStateBackend implements Configu
 			this.numberOfTransferingThreads = original.numberOfTransferingThreads;
 		}
 
+		if (original.numberOfFullSnapshotThreads == UNDEFINED_NUMBER_OF_FULL_SNAPSHOT_THREADS) {
+			this.numberOfFullSnapshotThreads = config.getInteger(FULL_SNAPSHOT_THREAD_NUM);
+		} else {
+			this.numberOfFullSnapshotThreads = original.numberOfFullSnapshotThreads;
+		}
+
 		this.enableTtlCompactionFilter = original.enableTtlCompactionFilter
 			.resolveUndefined(config.getBoolean(TTL_COMPACT_FILTER_ENABLED));
 
@@ -516,6 +529,7 @@ public class RocksDBStateBackend extends AbstractStateBackend implements Configu
 		).setEnableIncrementalCheckpointing(isIncrementalCheckpointsEnabled())
 			.setEnableTtlCompactionFilter(isTtlCompactionFilterEnabled())
 			.setNumberOfTransferingThreads(getNumberOfTransferingThreads())
+			.setNumberOfFullSnapshotThreads(getNumberOfFullSnapshotThreads())
 			.setNativeMetricOptions(getMemoryWatcherOptions());
 		return builder.build();
 	}
@@ -534,7 +548,8 @@ public class RocksDBStateBackend extends AbstractStateBackend implements Configu
 			env.getExecutionConfig(),
 			asyncSnapshots,
 			stateHandles,
-			cancelStreamRegistry).build();
+			cancelStreamRegistry,
+			DefaultOperatorStateBackendBuilder.snapshotsBroadcastState(env)).build();
 	}
 
 	private OptionsFactory configureOptionsFactory(
@@ -839,6 +854,26 @@ public class RocksDBStateBackend extends AbstractStateBackend implements Configu
 		this.numberOfTransferingThreads = numberOfTransferingThreads;
 	}
 
+	/**
+	 * Gets the number of threads used to write and restore full snapshots.
+	 */
+	public int getNumberOfFullSnapshotThreads() {
+		return numberOfFullSnapshotThreads == UNDEFINED_NUMBER_OF_FULL_SNAPSHOT_THREADS ?
+			FULL_SNAPSHOT_THREAD_NUM.defaultValue() : numberOfFullSnapshotThreads;
+	}
+
+	/**
+	 * Sets the number of threads used to write and restore full snapshots, e.g. savepoints. Each thread
+	 * handles a separate range of key-groups.
+	 *
+	 * @param numberOfFullSnapshotThreads The number of threads used to write and restore full snapshots.
+	 */
+	public void setNumberOfFullSnapshotThreads(int numberOfFullSnapshotThreads) {
+		Preconditions.checkArgument(numberOfFullSnapshotThreads > 0,
+			"The number of threads used to write full snapshots in RocksDBStateBackend should be greater than zero.");
+		this.numberOfFullSnapshotThreads = numberOfFullSnapshotThreads;
+	}
+
 	// ------------------------------------------------------------------------
 	//  utilities
 	// ------------------------------------------------------------------------
@@ -850,6 +885,7 @@ public class RocksDBStateBackend extends AbstractStateBackend implements Configu
 				", localRocksDbDirectories=" + Arrays.toString(localRocksDbDirectories) +
 				", enableIncrementalCheckpointing=" + enableIncrementalCheckpointing +
 				", numberOfTransferingThreads=" + numberOfTransferingThreads +
+				", numberOfFullSnapshotThreads=" + numberOfFullSnapshotThreads +
 				'}';
 	}
 
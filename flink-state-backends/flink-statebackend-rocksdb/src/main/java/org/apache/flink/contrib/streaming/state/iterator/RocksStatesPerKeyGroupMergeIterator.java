@@ -19,10 +19,14 @@
 package org.apache.flink.contrib.streaming.state.iterator;
 
 import org.apache.flink.api.java.tuple.Tuple2;
+import org.apache.flink.contrib.streaming.state.RocksDBKeySerializationUtils;
 import org.apache.flink.contrib.streaming.state.RocksIteratorWrapper;
+import org.apache.flink.runtime.state.KeyGroupRange;
 import org.apache.flink.util.IOUtils;
 import org.apache.flink.util.Preconditions;
 
+import javax.annotation.Nullable;
+
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
@@ -36,6 +40,8 @@ public class RocksStatesPerKeyGroupMergeIterator implements AutoCloseable {
 
 	private final PriorityQueue<RocksSingleStateIterator> heap;
 	private final int keyGroupPrefixByteCount;
+	/** The last key-group to iterate, all later keys are ignored. */
+	private final int lastKeyGroup;
 	private boolean newKeyGroup;
 	private boolean newKVState;
 	private boolean valid;
@@ -59,13 +65,28 @@ public class RocksStatesPerKeyGroupMergeIterator implements AutoCloseable {
 	public RocksStatesPerKeyGroupMergeIterator(
 		List<Tuple2<RocksIteratorWrapper, Integer>> kvStateIterators,
 		final int keyGroupPrefixByteCount) {
+		this(kvStateIterators, keyGroupPrefixByteCount, null);
+	}
+
+	/**
+	 * Creates an iterator which only returns the states of the given key-groups.
+	 *
+	 * @param kvStateIterators iterators over the states, paired with their kv-state ids
+	 * @param keyGroupPrefixByteCount number of bytes of the key-group prefix of the keys
+	 * @param keyGroupRange the key-groups to iterate, or null to iterate all keys
+	 */
+	public RocksStatesPerKeyGroupMergeIterator(
+		List<Tuple2<RocksIteratorWrapper, Integer>> kvStateIterators,
+		final int keyGroupPrefixByteCount,
+		@Nullable KeyGroupRange keyGroupRange) {
 		Preconditions.checkNotNull(kvStateIterators);
 		Preconditions.checkArgument(keyGroupPrefixByteCount >= 1);
 
 		this.keyGroupPrefixByteCount = keyGroupPrefixByteCount;
+		this.lastKeyGroup = keyGroupRange != null ? keyGroupRange.getEndKeyGroup() : Integer.MAX_VALUE;
 
 		if (kvStateIterators.size() > 0) {
-			this.heap = buildIteratorHeap(kvStateIterators);
+			this.heap = buildIteratorHeap(kvStateIterators, keyGroupRange);
 			this.valid = !heap.isEmpty();
 			this.currentSubIterator = heap.poll();
 			kvStateIterators.clear();
@@ -91,9 +112,10 @@ public class RocksStatesPerKeyGroupMergeIterator implements AutoCloseable {
 		rocksIterator.next();
 
 		byte[] oldKey = currentSubIterator.getCurrentKey();
-		if (rocksIterator.isValid()) {
+		byte[] newKey = rocksIterator.isValid() ? rocksIterator.key() : null;
+		if (newKey != null && isWithinLastKeyGroup(newKey)) {
 
-			currentSubIterator.setCurrentKey(rocksIterator.key());
+			currentSubIterator.setCurrentKey(newKey);
 
 			if (isDifferentKeyGroup(oldKey, currentSubIterator.getCurrentKey())) {
 				heap.offer(currentSubIterator);
@@ -116,17 +138,28 @@ public class RocksStatesPerKeyGroupMergeIterator implements AutoCloseable {
 	}
 
 	private PriorityQueue<RocksSingleStateIterator> buildIteratorHeap(
-		List<Tuple2<RocksIteratorWrapper, Integer>> kvStateIterators) {
+		List<Tuple2<RocksIteratorWrapper, Integer>> kvStateIterators,
+		@Nullable KeyGroupRange keyGroupRange) {
 
 		Comparator<RocksSingleStateIterator> iteratorComparator = COMPARATORS.get(keyGroupPrefixByteCount - 1);
 
 		PriorityQueue<RocksSingleStateIterator> iteratorPriorityQueue =
 			new PriorityQueue<>(kvStateIterators.size(), iteratorComparator);
 
+		byte[] startKeyGroupPrefix = null;
+		if (keyGroupRange != null) {
+			startKeyGroupPrefix = new byte[keyGroupPrefixByteCount];
+			RocksDBKeySerializationUtils.serializeKeyGroup(keyGroupRange.getStartKeyGroup(), startKeyGroupPrefix);
+		}
+
 		for (Tuple2<RocksIteratorWrapper, Integer> rocksIteratorWithKVStateId : kvStateIterators) {
 			final RocksIteratorWrapper rocksIterator = rocksIteratorWithKVStateId.f0;
-			rocksIterator.seekToFirst();
-			if (rocksIterator.isValid()) {
+			if (startKeyGroupPrefix != null) {
+				rocksIterator.seek(startKeyGroupPrefix);
+			} else {
+				rocksIterator.seekToFirst();
+			}
+			if (rocksIterator.isValid() && isWithinLastKeyGroup(rocksIterator.key())) {
 				iteratorPriorityQueue.offer(
 					new RocksSingleStateIterator(rocksIterator, rocksIteratorWithKVStateId.f1));
 			} else {
@@ -136,6 +169,10 @@ public class RocksStatesPerKeyGroupMergeIterator implements AutoCloseable {
 		return iteratorPriorityQueue;
 	}
 
+	private boolean isWithinLastKeyGroup(byte[] key) {
+		return lastKeyGroup == Integer.MAX_VALUE || extractKeyGroup(key) <= lastKeyGroup;
+	}
+
 	private boolean isDifferentKeyGroup(byte[] a, byte[] b) {
 		return 0 != compareKeyGroupsForByteArrays(a, b, keyGroupPrefixByteCount);
 	}
@@ -150,12 +187,15 @@ public class RocksStatesPerKeyGroupMergeIterator implements AutoCloseable {
 	 * @return key-group for the current key
 	 */
 	public int keyGroup() {
-		final byte[] currentKey = currentSubIterator.getCurrentKey();
+		return extractKeyGroup(currentSubIterator.getCurrentKey());
+	}
+
+	private int extractKeyGroup(byte[] key) {
 		int result = 0;
 		//big endian decode
 		for (int i = 0; i < keyGroupPrefixByteCount; ++i) {
 			result <<= 8;
-			result |= (currentKey[i] & 0xFF);
+			result |= (key[i] & 0xFF);
 		}
 		return result;
 	}
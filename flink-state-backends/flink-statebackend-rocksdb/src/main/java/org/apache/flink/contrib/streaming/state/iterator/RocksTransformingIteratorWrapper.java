@@ -54,6 +54,12 @@ public class RocksTransformingIteratorWrapper extends RocksIteratorWrapper {
 		filterOrTransform(super::prev);
 	}
 
+	@Override
+	public void seek(byte[] target) {
+		super.seek(target);
+		filterOrTransform(super::next);
+	}
+
 	@Override
 	public void next() {
 		super.next();
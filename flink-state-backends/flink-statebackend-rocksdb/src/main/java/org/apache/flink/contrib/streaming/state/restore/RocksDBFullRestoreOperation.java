@@ -29,6 +29,7 @@ import org.apache.flink.core.fs.FSDataInputStream;
 import org.apache.flink.core.memory.DataInputView;
 import org.apache.flink.core.memory.DataInputViewStreamWrapper;
 import org.apache.flink.metrics.MetricGroup;
+import org.apache.flink.runtime.concurrent.FutureUtils;
 import org.apache.flink.runtime.state.KeyGroupRange;
 import org.apache.flink.runtime.state.KeyGroupsStateHandle;
 import org.apache.flink.runtime.state.KeyedBackendSerializationProxy;
@@ -38,9 +39,12 @@ import org.apache.flink.runtime.state.StateSerializerProvider;
 import org.apache.flink.runtime.state.StreamCompressionDecorator;
 import org.apache.flink.runtime.state.UncompressedStreamCompressionDecorator;
 import org.apache.flink.runtime.state.metainfo.StateMetaInfoSnapshot;
+import org.apache.flink.util.ExceptionUtils;
+import org.apache.flink.util.FlinkRuntimeException;
 import org.apache.flink.util.IOUtils;
 import org.apache.flink.util.Preconditions;
 import org.apache.flink.util.StateMigrationException;
+import org.apache.flink.util.function.ThrowingRunnable;
 
 import org.rocksdb.ColumnFamilyHandle;
 import org.rocksdb.ColumnFamilyOptions;
@@ -56,6 +60,10 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.function.Function;
 
 import static org.apache.flink.contrib.streaming.state.snapshot.RocksSnapshotUtil.END_OF_KEY_GROUP_MARK;
@@ -86,11 +94,19 @@ public class RocksDBFullRestoreOperation<K> extends AbstractRocksDBRestoreOperat
 	 * The compression decorator that was used for writing the state, as determined by the meta data.
 	 */
 	private StreamCompressionDecorator keygroupStreamCompressionDecorator;
+	/**
+	 * The number of threads which restore the key-groups of a state handle in parallel.
+	 */
+	private final int numberOfFullSnapshotThreads;
 
+	/**
+	 * Creates the restore operation. The key-groups of each state handle are restored by up to
+	 * {@code numberOfFullSnapshotThreads} threads, each of which reads a contiguous range of key-groups.
+	 */
 	public RocksDBFullRestoreOperation(
 		KeyGroupRange keyGroupRange,
 		int keyGroupPrefixBytes,
-		int numberOfTransferringThreads,
+		int numberOfFullSnapshotThreads,
 		CloseableRegistry cancelStreamRegistry,
 		ClassLoader userCodeClassLoader,
 		Map<String, RocksDbKvStateInfo> kvStateInformation,
@@ -106,7 +122,7 @@ public class RocksDBFullRestoreOperation<K> extends AbstractRocksDBRestoreOperat
 		super(
 			keyGroupRange,
 			keyGroupPrefixBytes,
-			numberOfTransferringThreads,
+			numberOfFullSnapshotThreads,
 			cancelStreamRegistry,
 			userCodeClassLoader,
 			kvStateInformation,
@@ -119,6 +135,7 @@ public class RocksDBFullRestoreOperation<K> extends AbstractRocksDBRestoreOperat
 			metricGroup,
 			restoreStateHandles,
 			ttlCompactFiltersManager);
+		this.numberOfFullSnapshotThreads = numberOfFullSnapshotThreads;
 	}
 
 	/**
@@ -187,45 +204,116 @@ public class RocksDBFullRestoreOperation<K> extends AbstractRocksDBRestoreOperat
 	 * Restore the KV-state / ColumnFamily data for all key-groups referenced by the current state handle.
 	 */
 	private void restoreKVStateData() throws IOException, RocksDBException {
+		final List<Tuple2<Integer, Long>> keyGroupOffsets = new ArrayList<>();
 		//for all key-groups in the current state handle...
+		for (Tuple2<Integer, Long> keyGroupOffset : currentKeyGroupsStateHandle.getGroupRangeOffsets()) {
+			// Check that restored key groups all belong to the backend
+			Preconditions.checkState(keyGroupRange.contains(keyGroupOffset.f0),
+				"The key group must belong to the backend");
+
+			//not empty key-group?
+			if (0L != keyGroupOffset.f1) {
+				keyGroupOffsets.add(keyGroupOffset);
+			}
+		}
+
+		final int parallelism = Math.min(numberOfFullSnapshotThreads, keyGroupOffsets.size());
+		if (parallelism > 1) {
+			restoreKVStateDataInParallel(keyGroupOffsets, parallelism);
+		} else {
+			try (RocksDBWriteBatchWrapper writeBatchWrapper = new RocksDBWriteBatchWrapper(db)) {
+				restoreKeyGroups(keyGroupOffsets, currentStateHandleInStream, writeBatchWrapper);
+			}
+		}
+	}
+
+	/**
+	 * Restores the key-groups with the given threads. Each thread reads a contiguous range of the
+	 * key-groups through its own input stream of the current state handle.
+	 */
+	private void restoreKVStateDataInParallel(
+		List<Tuple2<Integer, Long>> keyGroupOffsets,
+		int parallelism) throws IOException, RocksDBException {
+
+		final ExecutorService executorService = Executors.newFixedThreadPool(parallelism);
+		final List<CompletableFuture<Void>> futures = new ArrayList<>(parallelism);
+
+		try {
+			for (int i = 0; i < parallelism; i++) {
+				final List<Tuple2<Integer, Long>> rangeOffsets = keyGroupOffsets.subList(
+					i * keyGroupOffsets.size() / parallelism,
+					(i + 1) * keyGroupOffsets.size() / parallelism);
+
+				futures.add(CompletableFuture.runAsync(
+					ThrowingRunnable.unchecked(() -> restoreKeyGroupsFromNewStream(rangeOffsets)),
+					executorService));
+			}
+
+			FutureUtils.waitForAll(futures).get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while restoring the key-groups.", e);
+		} catch (ExecutionException e) {
+			Throwable throwable = ExceptionUtils.stripExecutionException(e);
+			throwable = ExceptionUtils.stripException(throwable, RuntimeException.class);
+			if (throwable instanceof IOException) {
+				throw (IOException) throwable;
+			} else if (throwable instanceof RocksDBException) {
+				throw (RocksDBException) throwable;
+			} else {
+				throw new FlinkRuntimeException("Failed to restore the key-groups.", e);
+			}
+		} finally {
+			executorService.shutdownNow();
+		}
+	}
+
+	private void restoreKeyGroupsFromNewStream(List<Tuple2<Integer, Long>> keyGroupOffsets)
+		throws IOException, RocksDBException {
+
+		final FSDataInputStream inputStream = currentKeyGroupsStateHandle.openInputStream();
+		cancelStreamRegistry.registerCloseable(inputStream);
+
 		try (RocksDBWriteBatchWrapper writeBatchWrapper = new RocksDBWriteBatchWrapper(db)) {
-			for (Tuple2<Integer, Long> keyGroupOffset : currentKeyGroupsStateHandle.getGroupRangeOffsets()) {
-				int keyGroup = keyGroupOffset.f0;
-
-				// Check that restored key groups all belong to the backend
-				Preconditions.checkState(keyGroupRange.contains(keyGroup),
-					"The key group must belong to the backend");
-
-				long offset = keyGroupOffset.f1;
-				//not empty key-group?
-				if (0L != offset) {
-					currentStateHandleInStream.seek(offset);
-					try (InputStream compressedKgIn = keygroupStreamCompressionDecorator.decorateWithCompression(currentStateHandleInStream)) {
-						DataInputViewStreamWrapper compressedKgInputView = new DataInputViewStreamWrapper(compressedKgIn);
+			restoreKeyGroups(keyGroupOffsets, inputStream, writeBatchWrapper);
+		} finally {
+			if (cancelStreamRegistry.unregisterCloseable(inputStream)) {
+				IOUtils.closeQuietly(inputStream);
+			}
+		}
+	}
+
+	private void restoreKeyGroups(
+		List<Tuple2<Integer, Long>> keyGroupOffsets,
+		FSDataInputStream inputStream,
+		RocksDBWriteBatchWrapper writeBatchWrapper) throws IOException, RocksDBException {
+
+		for (Tuple2<Integer, Long> keyGroupOffset : keyGroupOffsets) {
+			inputStream.seek(keyGroupOffset.f1);
+			try (InputStream compressedKgIn = keygroupStreamCompressionDecorator.decorateWithCompression(inputStream)) {
+				DataInputViewStreamWrapper compressedKgInputView = new DataInputViewStreamWrapper(compressedKgIn);
+				//TODO this could be aware of keyGroupPrefixBytes and write only one byte if possible
+				int kvStateId = compressedKgInputView.readShort();
+				ColumnFamilyHandle handle = currentStateHandleKVStateColumnFamilies.get(kvStateId);
+				//insert all k/v pairs into DB
+				boolean keyGroupHasMoreKeys = true;
+				while (keyGroupHasMoreKeys) {
+					byte[] key = BytePrimitiveArraySerializer.INSTANCE.deserialize(compressedKgInputView);
+					byte[] value = BytePrimitiveArraySerializer.INSTANCE.deserialize(compressedKgInputView);
+					if (hasMetaDataFollowsFlag(key)) {
+						//clear the signal bit in the key to make it ready for insertion again
+						clearMetaDataFollowsFlag(key);
+						writeBatchWrapper.put(handle, key, value);
 						//TODO this could be aware of keyGroupPrefixBytes and write only one byte if possible
-						int kvStateId = compressedKgInputView.readShort();
-						ColumnFamilyHandle handle = currentStateHandleKVStateColumnFamilies.get(kvStateId);
-						//insert all k/v pairs into DB
-						boolean keyGroupHasMoreKeys = true;
-						while (keyGroupHasMoreKeys) {
-							byte[] key = BytePrimitiveArraySerializer.INSTANCE.deserialize(compressedKgInputView);
-							byte[] value = BytePrimitiveArraySerializer.INSTANCE.deserialize(compressedKgInputView);
-							if (hasMetaDataFollowsFlag(key)) {
-								//clear the signal bit in the key to make it ready for insertion again
-								clearMetaDataFollowsFlag(key);
-								writeBatchWrapper.put(handle, key, value);
-								//TODO this could be aware of keyGroupPrefixBytes and write only one byte if possible
-								kvStateId = END_OF_KEY_GROUP_MARK
-									& compressedKgInputView.readShort();
-								if (END_OF_KEY_GROUP_MARK == kvStateId) {
-									keyGroupHasMoreKeys = false;
-								} else {
-									handle = currentStateHandleKVStateColumnFamilies.get(kvStateId);
-								}
-							} else {
-								writeBatchWrapper.put(handle, key, value);
-							}
+						kvStateId = END_OF_KEY_GROUP_MARK
+							& compressedKgInputView.readShort();
+						if (END_OF_KEY_GROUP_MARK == kvStateId) {
+							keyGroupHasMoreKeys = false;
+						} else {
+							handle = currentStateHandleKVStateColumnFamilies.get(kvStateId);
 						}
+					} else {
+						writeBatchWrapper.put(handle, key, value);
 					}
 				}
 			}
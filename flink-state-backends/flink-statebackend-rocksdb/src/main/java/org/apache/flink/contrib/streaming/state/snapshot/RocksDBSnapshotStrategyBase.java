@@ -136,4 +136,12 @@ public abstract class RocksDBSnapshotStrategyBase<K>
 		long timestamp,
 		CheckpointStreamFactory streamFactory,
 		CheckpointOptions checkpointOptions) throws Exception;
+
+	/**
+	 * Releases the resources which are owned by this strategy. Called when the backend is disposed, after
+	 * all asynchronous snapshots released their access to the RocksDB instance.
+	 */
+	public void close() {
+		// nothing to do by default.
+	}
 }
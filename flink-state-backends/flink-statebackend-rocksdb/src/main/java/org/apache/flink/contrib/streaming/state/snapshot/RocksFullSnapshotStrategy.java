@@ -30,12 +30,15 @@ import org.apache.flink.core.fs.CloseableRegistry;
 import org.apache.flink.core.memory.DataOutputView;
 import org.apache.flink.core.memory.DataOutputViewStreamWrapper;
 import org.apache.flink.runtime.checkpoint.CheckpointOptions;
+import org.apache.flink.runtime.concurrent.FutureUtils;
 import org.apache.flink.runtime.state.AsyncSnapshotCallable;
 import org.apache.flink.runtime.state.CheckpointStreamFactory;
 import org.apache.flink.runtime.state.CheckpointStreamWithResultProvider;
 import org.apache.flink.runtime.state.CheckpointedStateScope;
+import org.apache.flink.runtime.state.ConcatenatedStreamStateHandle;
 import org.apache.flink.runtime.state.KeyGroupRange;
 import org.apache.flink.runtime.state.KeyGroupRangeOffsets;
+import org.apache.flink.runtime.state.KeyGroupsStateHandle;
 import org.apache.flink.runtime.state.KeyedBackendSerializationProxy;
 import org.apache.flink.runtime.state.KeyedStateHandle;
 import org.apache.flink.runtime.state.LocalRecoveryConfig;
@@ -43,10 +46,14 @@ import org.apache.flink.runtime.state.RegisteredKeyValueStateBackendMetaInfo;
 import org.apache.flink.runtime.state.SnapshotResult;
 import org.apache.flink.runtime.state.StateSnapshotTransformer;
 import org.apache.flink.runtime.state.StreamCompressionDecorator;
+import org.apache.flink.runtime.state.StreamStateHandle;
 import org.apache.flink.runtime.state.UncompressedStreamCompressionDecorator;
 import org.apache.flink.runtime.state.metainfo.StateMetaInfoSnapshot;
+import org.apache.flink.runtime.util.ExecutorThreadFactory;
+import org.apache.flink.util.ExceptionUtils;
 import org.apache.flink.util.IOUtils;
 import org.apache.flink.util.ResourceGuard;
+import org.apache.flink.util.function.FunctionUtils;
 import org.apache.flink.util.function.SupplierWithException;
 
 import org.rocksdb.ColumnFamilyHandle;
@@ -54,17 +61,26 @@ import org.rocksdb.ReadOptions;
 import org.rocksdb.RocksDB;
 import org.rocksdb.RocksIterator;
 import org.rocksdb.Snapshot;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nonnegative;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 import java.io.IOException;
 import java.io.OutputStream;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.RunnableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import static org.apache.flink.contrib.streaming.state.snapshot.RocksSnapshotUtil.END_OF_KEY_GROUP_MARK;
 import static org.apache.flink.contrib.streaming.state.snapshot.RocksSnapshotUtil.hasMetaDataFollowsFlag;
@@ -79,12 +95,24 @@ import static org.apache.flink.contrib.streaming.state.snapshot.RocksSnapshotUti
  */
 public class RocksFullSnapshotStrategy<K> extends RocksDBSnapshotStrategyBase<K> {
 
+	private static final Logger LOG = LoggerFactory.getLogger(RocksFullSnapshotStrategy.class);
+
 	private static final String DESCRIPTION = "Asynchronous incremental RocksDB snapshot";
 
 	/** This decorator is used to apply compression per key-group for the written snapshot data. */
 	@Nonnull
 	private final StreamCompressionDecorator keyGroupCompressionDecorator;
 
+	/** The number of threads which write disjoint key-group ranges of a savepoint concurrently. */
+	private final int numberOfWritingThreads;
+
+	/**
+	 * Executor for the additional writers of parallel snapshots, shared by all snapshots of the backend.
+	 * The first part of a snapshot is always written by the asynchronous snapshot thread itself.
+	 */
+	@Nullable
+	private final ExecutorService partWriterExecutor;
+
 	public RocksFullSnapshotStrategy(
 		@Nonnull RocksDB db,
 		@Nonnull ResourceGuard rocksDBResourceGuard,
@@ -94,7 +122,8 @@ public class RocksFullSnapshotStrategy<K> extends RocksDBSnapshotStrategyBase<K>
 		@Nonnegative int keyGroupPrefixBytes,
 		@Nonnull LocalRecoveryConfig localRecoveryConfig,
 		@Nonnull CloseableRegistry cancelStreamRegistry,
-		@Nonnull StreamCompressionDecorator keyGroupCompressionDecorator) {
+		@Nonnull StreamCompressionDecorator keyGroupCompressionDecorator,
+		int numberOfWritingThreads) {
 		super(
 			DESCRIPTION,
 			db,
@@ -107,6 +136,22 @@ public class RocksFullSnapshotStrategy<K> extends RocksDBSnapshotStrategyBase<K>
 			cancelStreamRegistry);
 
 		this.keyGroupCompressionDecorator = keyGroupCompressionDecorator;
+		this.numberOfWritingThreads = numberOfWritingThreads;
+
+		if (numberOfWritingThreads > 1) {
+			ThreadPoolExecutor executor = new ThreadPoolExecutor(
+				numberOfWritingThreads - 1,
+				numberOfWritingThreads - 1,
+				60L,
+				TimeUnit.SECONDS,
+				new LinkedBlockingQueue<>(),
+				new ExecutorThreadFactory("Flink-RocksDBFullSnapshotWriter"));
+			// threads are only kept while snapshots are written
+			executor.allowCoreThreadTimeOut(true);
+			this.partWriterExecutor = executor;
+		} else {
+			this.partWriterExecutor = null;
+		}
 	}
 
 	@Nonnull
@@ -130,6 +175,13 @@ public class RocksFullSnapshotStrategy<K> extends RocksDBSnapshotStrategyBase<K>
 			metaDataCopy.add(stateInfo);
 		}
 
+		// the parts of a parallel snapshot are only written to the primary stream factory,
+		// so snapshots which also create a local copy for local recovery are written sequentially
+		final boolean duplicatingStream =
+			localRecoveryConfig.isLocalRecoveryEnabled() && !checkpointOptions.getCheckpointType().isSavepoint();
+		final int numberOfParts = duplicatingStream || partWriterExecutor == null ?
+			1 : Math.max(1, Math.min(numberOfWritingThreads, keyGroupRange.getNumberOfKeyGroups()));
+
 		final ResourceGuard.Lease lease = rocksDBResourceGuard.acquireResource();
 		final Snapshot snapshot = db.getSnapshot();
 
@@ -140,6 +192,8 @@ public class RocksFullSnapshotStrategy<K> extends RocksDBSnapshotStrategyBase<K>
 				snapshot,
 				stateMetaInfoSnapshots,
 				metaDataCopy,
+				numberOfParts,
+				primaryStreamFactory,
 				primaryStreamFactory.toString());
 
 		return asyncSnapshotCallable.toAsyncSnapshotFutureTask(cancelStreamRegistry);
@@ -150,6 +204,13 @@ public class RocksFullSnapshotStrategy<K> extends RocksDBSnapshotStrategyBase<K>
 		// nothing to do.
 	}
 
+	@Override
+	public void close() {
+		if (partWriterExecutor != null) {
+			partWriterExecutor.shutdownNow();
+		}
+	}
+
 	private SupplierWithException<CheckpointStreamWithResultProvider, Exception> createCheckpointStreamSupplier(
 		long checkpointId,
 		CheckpointStreamFactory primaryStreamFactory,
@@ -192,6 +253,13 @@ public class RocksFullSnapshotStrategy<K> extends RocksDBSnapshotStrategyBase<K>
 		@Nonnull
 		private List<MetaData> metaData;
 
+		/** The number of streams into which disjoint key-group ranges are written concurrently. */
+		private final int numberOfParts;
+
+		/** Factory for the streams of the parts, if the snapshot is written in parallel. */
+		@Nonnull
+		private final CheckpointStreamFactory partStreamFactory;
+
 		@Nonnull
 		private final String logPathString;
 
@@ -201,6 +269,8 @@ public class RocksFullSnapshotStrategy<K> extends RocksDBSnapshotStrategyBase<K>
 			@Nonnull Snapshot snapshot,
 			@Nonnull List<StateMetaInfoSnapshot> stateMetaInfoSnapshots,
 			@Nonnull List<RocksDbKvStateInfo> metaDataCopy,
+			int numberOfParts,
+			@Nonnull CheckpointStreamFactory partStreamFactory,
 			@Nonnull String logPathString) {
 
 			this.checkpointStreamSupplier = checkpointStreamSupplier;
@@ -208,11 +278,17 @@ public class RocksFullSnapshotStrategy<K> extends RocksDBSnapshotStrategyBase<K>
 			this.snapshot = snapshot;
 			this.stateMetaInfoSnapshots = stateMetaInfoSnapshots;
 			this.metaData = fillMetaData(metaDataCopy);
+			this.numberOfParts = numberOfParts;
+			this.partStreamFactory = partStreamFactory;
 			this.logPathString = logPathString;
 		}
 
 		@Override
 		protected SnapshotResult<KeyedStateHandle> callInternal() throws Exception {
+			if (numberOfParts > 1) {
+				return writeSnapshotInParallel();
+			}
+
 			final KeyGroupRangeOffsets keyGroupRangeOffsets = new KeyGroupRangeOffsets(keyGroupRange);
 			final CheckpointStreamWithResultProvider checkpointStreamWithResultProvider =
 				checkpointStreamSupplier.get();
@@ -229,6 +305,174 @@ public class RocksFullSnapshotStrategy<K> extends RocksDBSnapshotStrategyBase<K>
 			}
 		}
 
+		/**
+		 * Splits the key-group range of the backend into {@link #numberOfParts} sub-ranges and writes
+		 * each of them concurrently into its own stream. The first stream also contains the meta data.
+		 * The streams are combined into a {@link ConcatenatedStreamStateHandle}, with key-group offsets
+		 * relative to the start of the first stream. The result can therefore be restored like a
+		 * snapshot that was written into a single stream.
+		 */
+		private SnapshotResult<KeyedStateHandle> writeSnapshotInParallel() throws Exception {
+			final List<KeyGroupRange> partRanges = splitKeyGroupRange(keyGroupRange, numberOfParts);
+			final List<CompletableFuture<SnapshotPart>> partFutures = new ArrayList<>(numberOfParts);
+
+			// closing this registry aborts all part writers, it is also closed if the snapshot is cancelled
+			final CloseableRegistry partStreamsRegistry = new CloseableRegistry();
+			snapshotCloseableRegistry.registerCloseable(partStreamsRegistry);
+
+			try {
+				for (int i = 1; i < numberOfParts; i++) {
+					final KeyGroupRange partRange = partRanges.get(i);
+					partFutures.add(CompletableFuture.supplyAsync(
+						FunctionUtils.uncheckedSupplier(() -> writeSnapshotPart(partRange, false, partStreamsRegistry)),
+						partWriterExecutor));
+				}
+
+				// the first part, which includes the meta data, is written by this thread
+				partFutures.add(0, CompletableFuture.completedFuture(
+					writeSnapshotPart(partRanges.get(0), true, partStreamsRegistry)));
+
+				FutureUtils.waitForAll(partFutures).get();
+			} catch (Exception e) {
+				abortAndDiscardParts(partStreamsRegistry, partFutures);
+				Throwable cause = ExceptionUtils.stripException(ExceptionUtils.stripExecutionException(e), RuntimeException.class);
+				ExceptionUtils.rethrowException(cause, "Could not write the snapshot in parallel.");
+			}
+
+			if (!snapshotCloseableRegistry.unregisterCloseable(partStreamsRegistry)) {
+				discardParts(partFutures);
+				throw new IOException("Streams are already unregistered/closed.");
+			}
+
+			final KeyGroupRangeOffsets keyGroupRangeOffsets = new KeyGroupRangeOffsets(keyGroupRange);
+			final List<StreamStateHandle> partHandles = new ArrayList<>(numberOfParts);
+			final long[] partLengths = new long[numberOfParts];
+			long partStartOffset = 0L;
+
+			for (CompletableFuture<SnapshotPart> partFuture : partFutures) {
+				final SnapshotPart part = partFuture.get();
+
+				for (int keyGroup : part.keyGroupRange) {
+					final long partOffset = part.keyGroupOffsets[keyGroup - part.keyGroupRange.getStartKeyGroup()];
+					if (partOffset >= 0L) {
+						keyGroupRangeOffsets.setKeyGroupOffset(keyGroup, partStartOffset + partOffset);
+					}
+				}
+
+				if (part.stateHandle != null && part.length > 0L) {
+					partLengths[partHandles.size()] = part.length;
+					partHandles.add(part.stateHandle);
+					partStartOffset += part.length;
+				} else {
+					// parts without any key-group still created a (possibly empty) file
+					discardPart(part);
+				}
+			}
+
+			final StreamStateHandle stateHandle = partHandles.size() == 1 ?
+				partHandles.get(0) :
+				new ConcatenatedStreamStateHandle(partHandles, Arrays.copyOf(partLengths, partHandles.size()));
+
+			return SnapshotResult.of(new KeyGroupsStateHandle(keyGroupRangeOffsets, stateHandle));
+		}
+
+		/**
+		 * Writes all states of the given key-groups into a new stream.
+		 *
+		 * @param partRange the key-groups to write
+		 * @param writeMetaData flag whether the meta data is written at the beginning of the stream
+		 * @param partStreamsRegistry registry for the stream of the part while it is written
+		 * @return the written part, with key-group offsets relative to the start of the part
+		 */
+		private SnapshotPart writeSnapshotPart(
+			KeyGroupRange partRange,
+			boolean writeMetaData,
+			CloseableRegistry partStreamsRegistry) throws Exception {
+
+			final long[] keyGroupOffsets = new long[partRange.getNumberOfKeyGroups()];
+			Arrays.fill(keyGroupOffsets, -1L);
+
+			final CheckpointStreamWithResultProvider partStream =
+				CheckpointStreamWithResultProvider.createSimpleStream(CheckpointedStateScope.EXCLUSIVE, partStreamFactory);
+			partStreamsRegistry.registerCloseable(partStream);
+
+			final CheckpointStreamFactory.CheckpointStateOutputStream outputStream = partStream.getCheckpointOutputStream();
+			final List<Tuple2<RocksIteratorWrapper, Integer>> kvStateIterators = new ArrayList<>(metaData.size());
+			final ReadOptions readOptions = new ReadOptions();
+			final long length;
+
+			try {
+				readOptions.setSnapshot(snapshot);
+				createKVStateIterators(kvStateIterators, readOptions);
+				if (writeMetaData) {
+					writeKVStateMetaData(new DataOutputViewStreamWrapper(outputStream));
+				}
+				writeKVStateData(
+					kvStateIterators,
+					partRange,
+					outputStream,
+					(keyGroup, offset) -> keyGroupOffsets[keyGroup - partRange.getStartKeyGroup()] = offset);
+				length = outputStream.getPos();
+			} finally {
+				for (Tuple2<RocksIteratorWrapper, Integer> kvStateIterator : kvStateIterators) {
+					IOUtils.closeQuietly(kvStateIterator.f0);
+				}
+
+				IOUtils.closeQuietly(readOptions);
+			}
+
+			if (partStreamsRegistry.unregisterCloseable(partStream)) {
+				return new SnapshotPart(
+					partRange,
+					keyGroupOffsets,
+					partStream.closeAndFinalizeCheckpointStreamResult().getJobManagerOwnedSnapshot(),
+					length);
+			} else {
+				throw new IOException("Stream is already unregistered/closed.");
+			}
+		}
+
+		/**
+		 * Aborts the part writers of a failed snapshot and discards the parts which were already written.
+		 *
+		 * <p>Closing the streams lets the remaining writers fail with their next write, and writers which
+		 * did not start yet fail when they register their stream. We still wait for them to terminate,
+		 * because they read from the RocksDB snapshot which is released when this callable returns.
+		 */
+		private void abortAndDiscardParts(
+			CloseableRegistry partStreamsRegistry,
+			List<CompletableFuture<SnapshotPart>> partFutures) {
+
+			IOUtils.closeQuietly(partStreamsRegistry);
+
+			try {
+				FutureUtils.waitForAll(partFutures).get();
+			} catch (Exception ignored) {
+				// the failures of the single parts are reported by the caller
+			}
+
+			discardParts(partFutures);
+		}
+
+		/** Discards all parts which have been written completely. Does not wait for unfinished parts. */
+		private void discardParts(List<CompletableFuture<SnapshotPart>> partFutures) {
+			for (CompletableFuture<SnapshotPart> partFuture : partFutures) {
+				if (partFuture.isDone() && !partFuture.isCompletedExceptionally()) {
+					discardPart(partFuture.getNow(null));
+				}
+			}
+		}
+
+		private void discardPart(SnapshotPart part) {
+			if (part != null && part.stateHandle != null) {
+				try {
+					part.stateHandle.discardState();
+				} catch (Exception e) {
+					LOG.warn("Could not discard part of the snapshot.", e);
+				}
+			}
+		}
+
 		@Override
 		protected void cleanupProvidedResources() {
 			db.releaseSnapshot(snapshot);
@@ -252,8 +496,13 @@ public class RocksFullSnapshotStrategy<K> extends RocksDBSnapshotStrategyBase<K>
 			final ReadOptions readOptions = new ReadOptions();
 			try {
 				readOptions.setSnapshot(snapshot);
-				writeKVStateMetaData(kvStateIterators, readOptions, outputView);
-				writeKVStateData(kvStateIterators, checkpointStreamWithResultProvider, keyGroupRangeOffsets);
+				createKVStateIterators(kvStateIterators, readOptions);
+				writeKVStateMetaData(outputView);
+				writeKVStateData(
+					kvStateIterators,
+					null,
+					checkpointStreamWithResultProvider.getCheckpointOutputStream(),
+					keyGroupRangeOffsets::setKeyGroupOffset);
 			} finally {
 
 				for (Tuple2<RocksIteratorWrapper, Integer> kvStateIterator : kvStateIterators) {
@@ -264,10 +513,9 @@ public class RocksFullSnapshotStrategy<K> extends RocksDBSnapshotStrategyBase<K>
 			}
 		}
 
-		private void writeKVStateMetaData(
+		private void createKVStateIterators(
 			final List<Tuple2<RocksIteratorWrapper, Integer>> kvStateIterators,
-			final ReadOptions readOptions,
-			final DataOutputView outputView) throws IOException {
+			final ReadOptions readOptions) {
 
 			int kvStateId = 0;
 
@@ -277,6 +525,9 @@ public class RocksFullSnapshotStrategy<K> extends RocksDBSnapshotStrategyBase<K>
 				kvStateIterators.add(Tuple2.of(rocksIteratorWrapper, kvStateId));
 				++kvStateId;
 			}
+		}
+
+		private void writeKVStateMetaData(final DataOutputView outputView) throws IOException {
 
 			KeyedBackendSerializationProxy<K> serializationProxy =
 				new KeyedBackendSerializationProxy<>(
@@ -293,25 +544,24 @@ public class RocksFullSnapshotStrategy<K> extends RocksDBSnapshotStrategyBase<K>
 
 		private void writeKVStateData(
 			final List<Tuple2<RocksIteratorWrapper, Integer>> kvStateIterators,
-			final CheckpointStreamWithResultProvider checkpointStreamWithResultProvider,
-			final KeyGroupRangeOffsets keyGroupRangeOffsets) throws IOException, InterruptedException {
+			@Nullable final KeyGroupRange keyGroupsToWrite,
+			final CheckpointStreamFactory.CheckpointStateOutputStream checkpointOutputStream,
+			final KeyGroupOffsetRecorder keyGroupOffsetRecorder) throws IOException, InterruptedException {
 
 			byte[] previousKey = null;
 			byte[] previousValue = null;
 			DataOutputView kgOutView = null;
 			OutputStream kgOutStream = null;
-			CheckpointStreamFactory.CheckpointStateOutputStream checkpointOutputStream =
-				checkpointStreamWithResultProvider.getCheckpointOutputStream();
 
 			try {
 				// Here we transfer ownership of RocksIterators to the RocksStatesPerKeyGroupMergeIterator
 				try (RocksStatesPerKeyGroupMergeIterator mergeIterator = new RocksStatesPerKeyGroupMergeIterator(
-					kvStateIterators, keyGroupPrefixBytes)) {
+					kvStateIterators, keyGroupPrefixBytes, keyGroupsToWrite)) {
 
 					//preamble: setup with first key-group as our lookahead
 					if (mergeIterator.isValid()) {
 						//begin first key-group by recording the offset
-						keyGroupRangeOffsets.setKeyGroupOffset(
+						keyGroupOffsetRecorder.setKeyGroupOffset(
 							mergeIterator.keyGroup(),
 							checkpointOutputStream.getPos());
 						//write the k/v-state id as metadata
@@ -347,7 +597,7 @@ public class RocksFullSnapshotStrategy<K> extends RocksDBSnapshotStrategyBase<K>
 							// this will just close the outer stream
 							kgOutStream.close();
 							//begin new key-group
-							keyGroupRangeOffsets.setKeyGroupOffset(
+							keyGroupOffsetRecorder.setKeyGroupOffset(
 								mergeIterator.keyGroup(),
 								checkpointOutputStream.getPos());
 							//write the kev-state
@@ -398,6 +648,23 @@ public class RocksFullSnapshotStrategy<K> extends RocksDBSnapshotStrategyBase<K>
 		}
 	}
 
+	/**
+	 * Splits the given key-group range into the given number of contiguous sub-ranges of (almost) equal size.
+	 */
+	@VisibleForTesting
+	static List<KeyGroupRange> splitKeyGroupRange(KeyGroupRange keyGroupRange, int numberOfRanges) {
+		final List<KeyGroupRange> ranges = new ArrayList<>(numberOfRanges);
+		final int numberOfKeyGroups = keyGroupRange.getNumberOfKeyGroups();
+		int start = keyGroupRange.getStartKeyGroup();
+
+		for (int i = 0; i < numberOfRanges; i++) {
+			final int size = numberOfKeyGroups / numberOfRanges + (i < numberOfKeyGroups % numberOfRanges ? 1 : 0);
+			ranges.add(new KeyGroupRange(start, start + size - 1));
+			start += size;
+		}
+		return ranges;
+	}
+
 	private static List<MetaData> fillMetaData(
 		List<RocksDbKvStateInfo> metaDataCopy) {
 		List<MetaData> metaData = new ArrayList<>(metaDataCopy.size());
@@ -424,6 +691,37 @@ public class RocksFullSnapshotStrategy<K> extends RocksDBSnapshotStrategyBase<K>
 			new RocksTransformingIteratorWrapper(rocksIterator, stateSnapshotTransformer);
 	}
 
+	/**
+	 * Records the offset at which the data of a key-group starts in the written stream.
+	 */
+	@FunctionalInterface
+	private interface KeyGroupOffsetRecorder {
+		void setKeyGroupOffset(int keyGroup, long offset);
+	}
+
+	/**
+	 * A stream into which the states of a sub-range of the key-groups have been written.
+	 */
+	private static class SnapshotPart {
+		final KeyGroupRange keyGroupRange;
+		final long[] keyGroupOffsets;
+		@Nullable
+		final StreamStateHandle stateHandle;
+		final long length;
+
+		private SnapshotPart(
+			KeyGroupRange keyGroupRange,
+			long[] keyGroupOffsets,
+			@Nullable StreamStateHandle stateHandle,
+			long length) {
+
+			this.keyGroupRange = keyGroupRange;
+			this.keyGroupOffsets = keyGroupOffsets;
+			this.stateHandle = stateHandle;
+			this.length = length;
+		}
+	}
+
 	private static class MetaData {
 		final RocksDbKvStateInfo rocksDbKvStateInfo;
 		final StateSnapshotTransformer<byte[]> stateSnapshotTransformer;
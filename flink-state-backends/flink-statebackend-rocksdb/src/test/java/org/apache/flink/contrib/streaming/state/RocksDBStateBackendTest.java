@@ -25,16 +25,24 @@ import org.apache.flink.api.common.typeutils.base.IntSerializer;
 import org.apache.flink.api.common.typeutils.base.StringSerializer;
 import org.apache.flink.configuration.Configuration;
 import org.apache.flink.core.fs.CloseableRegistry;
+import org.apache.flink.core.fs.FileSystem;
+import org.apache.flink.core.fs.Path;
 import org.apache.flink.core.testutils.OneShotLatch;
 import org.apache.flink.metrics.groups.UnregisteredMetricsGroup;
 import org.apache.flink.runtime.checkpoint.CheckpointOptions;
+import org.apache.flink.runtime.checkpoint.CheckpointType;
 import org.apache.flink.runtime.execution.Environment;
 import org.apache.flink.runtime.operators.testutils.DummyEnvironment;
 import org.apache.flink.runtime.query.TaskKvStateRegistry;
 import org.apache.flink.runtime.state.AbstractKeyedStateBackend;
 import org.apache.flink.runtime.state.AbstractStateBackend;
+import org.apache.flink.runtime.state.CheckpointStorageLocationReference;
+import org.apache.flink.runtime.state.CheckpointStreamFactory;
+import org.apache.flink.runtime.state.CheckpointedStateScope;
+import org.apache.flink.runtime.state.ConcatenatedStreamStateHandle;
 import org.apache.flink.runtime.state.IncrementalRemoteKeyedStateHandle;
 import org.apache.flink.runtime.state.KeyGroupRange;
+import org.apache.flink.runtime.state.KeyGroupsStateHandle;
 import org.apache.flink.runtime.state.KeyedStateHandle;
 import org.apache.flink.runtime.state.LocalRecoveryConfig;
 import org.apache.flink.runtime.state.SharedStateRegistry;
@@ -44,10 +52,12 @@ import org.apache.flink.runtime.state.StateHandleID;
 import org.apache.flink.runtime.state.StreamStateHandle;
 import org.apache.flink.runtime.state.VoidNamespace;
 import org.apache.flink.runtime.state.VoidNamespaceSerializer;
+import org.apache.flink.runtime.state.filesystem.FsCheckpointStreamFactory;
 import org.apache.flink.runtime.state.filesystem.FsStateBackend;
 import org.apache.flink.runtime.state.ttl.TtlTimeProvider;
 import org.apache.flink.runtime.util.BlockerCheckpointStreamFactory;
 import org.apache.flink.runtime.util.BlockingCheckpointOutputStream;
+import org.apache.flink.util.ExceptionUtils;
 import org.apache.flink.util.IOUtils;
 
 import org.apache.commons.io.FileUtils;
@@ -71,6 +81,8 @@ import org.rocksdb.RocksIterator;
 import org.rocksdb.RocksObject;
 import org.rocksdb.Snapshot;
 
+import javax.annotation.Nullable;
+
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
@@ -83,6 +95,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Queue;
 import java.util.concurrent.RunnableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static junit.framework.TestCase.assertNotNull;
 import static org.apache.flink.contrib.streaming.state.RocksDBKeyedStateBackendBuilder.DB_INSTANCE_DIR_STRING;
@@ -122,6 +135,9 @@ public class RocksDBStateBackendTest extends StateBackendTestBase<RocksDBStateBa
 	@Rule
 	public final TemporaryFolder tempFolder = new TemporaryFolder();
 
+	/** The number of full snapshot threads of the backends created by {@link #getStateBackend()}. */
+	private int numberOfFullSnapshotThreads = 1;
+
 	// Store it because we need it for the cleanup test.
 	private String dbPath;
 	private RocksDB db = null;
@@ -153,6 +169,7 @@ public class RocksDBStateBackendTest extends StateBackendTestBase<RocksDBStateBa
 			RocksDBStateBackend.PriorityQueueStateType.ROCKSDB.toString());
 		backend = backend.configure(configuration, Thread.currentThread().getContextClassLoader());
 		backend.setDbStoragePath(dbPath);
+		backend.setNumberOfFullSnapshotThreads(numberOfFullSnapshotThreads);
 		return backend;
 	}
 
@@ -268,6 +285,150 @@ public class RocksDBStateBackendTest extends StateBackendTestBase<RocksDBStateBa
 		}
 	}
 
+	@Test
+	public void testParallelSavepointWriteAndRestore() throws Exception {
+		final CheckpointStreamFactory streamFactory = createStreamFactory();
+		final SharedStateRegistry sharedStateRegistry = new SharedStateRegistry();
+		final ValueStateDescriptor<String> kvId = new ValueStateDescriptor<>("id", String.class);
+		final int numberOfKeys = 100;
+
+		numberOfFullSnapshotThreads = 3;
+		AbstractKeyedStateBackend<Integer> backend = createKeyedBackend(IntSerializer.INSTANCE);
+		final KeyedStateHandle snapshot;
+
+		try {
+			ValueState<String> state =
+				backend.getPartitionedState(VoidNamespace.INSTANCE, VoidNamespaceSerializer.INSTANCE, kvId);
+
+			for (int i = 0; i < numberOfKeys; i++) {
+				backend.setCurrentKey(i);
+				state.update("value-" + i);
+			}
+
+			snapshot = runSnapshot(
+				backend.snapshot(
+					1L,
+					1L,
+					streamFactory,
+					new CheckpointOptions(CheckpointType.SAVEPOINT, CheckpointStorageLocationReference.getDefault())),
+				sharedStateRegistry);
+		} finally {
+			IOUtils.closeQuietly(backend);
+			backend.dispose();
+		}
+
+		assertTrue(snapshot instanceof KeyGroupsStateHandle);
+		assertTrue(((KeyGroupsStateHandle) snapshot).getDelegateStateHandle() instanceof ConcatenatedStreamStateHandle);
+
+		for (int restoringThreads : new int[]{1, 3}) {
+			numberOfFullSnapshotThreads = restoringThreads;
+			backend = restoreKeyedBackend(IntSerializer.INSTANCE, snapshot);
+
+			try {
+				ValueState<String> state =
+					backend.getPartitionedState(VoidNamespace.INSTANCE, VoidNamespaceSerializer.INSTANCE, kvId);
+
+				for (int i = 0; i < numberOfKeys; i++) {
+					backend.setCurrentKey(i);
+					assertEquals("value-" + i, state.value());
+				}
+			} finally {
+				IOUtils.closeQuietly(backend);
+				backend.dispose();
+			}
+		}
+
+		snapshot.discardState();
+	}
+
+	@Test
+	public void testParallelSavepointDiscardsEmptyParts() throws Exception {
+		final File partsDirectory = tempFolder.newFolder();
+		final ValueStateDescriptor<String> kvId = new ValueStateDescriptor<>("id", String.class);
+
+		numberOfFullSnapshotThreads = 3;
+		AbstractKeyedStateBackend<Integer> backend = createKeyedBackend(IntSerializer.INSTANCE);
+		final KeyedStateHandle snapshot;
+
+		try {
+			ValueState<String> state =
+				backend.getPartitionedState(VoidNamespace.INSTANCE, VoidNamespaceSerializer.INSTANCE, kvId);
+
+			// a single key leaves all but one part without any key-group
+			backend.setCurrentKey(1);
+			state.update("value");
+
+			snapshot = runSnapshot(
+				backend.snapshot(
+					1L,
+					1L,
+					new EagerPartStreamFactory(partsDirectory, -1),
+					new CheckpointOptions(CheckpointType.SAVEPOINT, CheckpointStorageLocationReference.getDefault())),
+				new SharedStateRegistry());
+		} finally {
+			IOUtils.closeQuietly(backend);
+			backend.dispose();
+		}
+
+		// only the parts which contain data are kept
+		final StreamStateHandle delegate = ((KeyGroupsStateHandle) snapshot).getDelegateStateHandle();
+		final int numberOfParts = delegate instanceof ConcatenatedStreamStateHandle ?
+			((ConcatenatedStreamStateHandle) delegate).getParts().size() : 1;
+		assertTrue(numberOfParts < numberOfFullSnapshotThreads);
+		assertEquals(numberOfParts, partsDirectory.listFiles().length);
+
+		backend = restoreKeyedBackend(IntSerializer.INSTANCE, snapshot);
+		try {
+			ValueState<String> state =
+				backend.getPartitionedState(VoidNamespace.INSTANCE, VoidNamespaceSerializer.INSTANCE, kvId);
+			backend.setCurrentKey(1);
+			assertEquals("value", state.value());
+		} finally {
+			IOUtils.closeQuietly(backend);
+			backend.dispose();
+		}
+
+		snapshot.discardState();
+		assertEquals(0, partsDirectory.listFiles().length);
+	}
+
+	@Test
+	public void testFailedParallelSavepointDiscardsAllParts() throws Exception {
+		final File partsDirectory = tempFolder.newFolder();
+		final ValueStateDescriptor<String> kvId = new ValueStateDescriptor<>("id", String.class);
+
+		numberOfFullSnapshotThreads = 3;
+		AbstractKeyedStateBackend<Integer> backend = createKeyedBackend(IntSerializer.INSTANCE);
+
+		try {
+			ValueState<String> state =
+				backend.getPartitionedState(VoidNamespace.INSTANCE, VoidNamespaceSerializer.INSTANCE, kvId);
+
+			for (int i = 0; i < 100; i++) {
+				backend.setCurrentKey(i);
+				state.update("value-" + i);
+			}
+
+			RunnableFuture<SnapshotResult<KeyedStateHandle>> snapshot = backend.snapshot(
+				1L,
+				1L,
+				new EagerPartStreamFactory(partsDirectory, 1),
+				new CheckpointOptions(CheckpointType.SAVEPOINT, CheckpointStorageLocationReference.getDefault()));
+
+			try {
+				runSnapshot(snapshot, new SharedStateRegistry());
+				fail("The snapshot should fail.");
+			} catch (Exception expected) {
+				assertTrue(ExceptionUtils.findThrowableWithMessage(expected, "Expected test failure").isPresent());
+			}
+		} finally {
+			IOUtils.closeQuietly(backend);
+			backend.dispose();
+		}
+
+		assertEquals(0, partsDirectory.listFiles().length);
+	}
+
 	@Test
 	public void testCorrectMergeOperatorSet() throws Exception {
 		prepareRocksDB();
@@ -597,6 +758,79 @@ public class RocksDBStateBackendTest extends StateBackendTestBase<RocksDBStateBa
 		assertEquals(true, keyedStateBackend.isDisposed());
 	}
 
+	/**
+	 * Creates a file for each part stream as soon as the stream is created. The stream with the given
+	 * number fails when it is written to.
+	 */
+	private static class EagerPartStreamFactory implements CheckpointStreamFactory {
+
+		private final Path directory;
+
+		private final int failingStreamNumber;
+
+		private final AtomicInteger numberOfStreams = new AtomicInteger();
+
+		EagerPartStreamFactory(File directory, int failingStreamNumber) {
+			this.directory = Path.fromLocalFile(directory);
+			this.failingStreamNumber = failingStreamNumber;
+		}
+
+		@Override
+		public CheckpointStateOutputStream createCheckpointStateOutputStream(CheckpointedStateScope scope) throws IOException {
+			final boolean failing = numberOfStreams.getAndIncrement() == failingStreamNumber;
+			final CheckpointStateOutputStream stream =
+				new FsCheckpointStreamFactory.FsCheckpointStateOutputStream(directory, FileSystem.getLocalFileSystem(), 16, 0);
+			stream.flush();
+
+			return new CheckpointStateOutputStream() {
+
+				@Nullable
+				@Override
+				public StreamStateHandle closeAndGetHandle() throws IOException {
+					return stream.closeAndGetHandle();
+				}
+
+				@Override
+				public long getPos() throws IOException {
+					return stream.getPos();
+				}
+
+				@Override
+				public void write(int b) throws IOException {
+					checkNotFailing();
+					stream.write(b);
+				}
+
+				@Override
+				public void write(byte[] b, int off, int len) throws IOException {
+					checkNotFailing();
+					stream.write(b, off, len);
+				}
+
+				@Override
+				public void flush() throws IOException {
+					stream.flush();
+				}
+
+				@Override
+				public void sync() throws IOException {
+					stream.sync();
+				}
+
+				@Override
+				public void close() throws IOException {
+					stream.close();
+				}
+
+				private void checkNotFailing() throws IOException {
+					if (failing) {
+						throw new IOException("Expected test failure");
+					}
+				}
+			};
+		}
+	}
+
 	private static class AcceptAllFilter implements IOFileFilter {
 		@Override
 		public boolean accept(File file) {
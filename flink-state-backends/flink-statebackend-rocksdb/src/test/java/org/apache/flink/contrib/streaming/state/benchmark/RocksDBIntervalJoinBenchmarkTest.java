@@ -0,0 +1,80 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.contrib.streaming.state.benchmark;
+
+import org.apache.flink.contrib.streaming.state.RocksDBStateBackend;
+import org.apache.flink.runtime.state.memory.MemoryStateBackend;
+import org.apache.flink.streaming.api.operators.co.benchmark.IntervalJoinBenchmark;
+import org.apache.flink.util.TestLogger;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+
+/**
+ * Runs the {@link IntervalJoinBenchmark} on the {@link RocksDBStateBackend}, with and without
+ * bucketing of the buffers of the interval join.
+ *
+ * <p>The throughput can be measured standalone via {@link #main(String[])}.
+ */
+public class RocksDBIntervalJoinBenchmarkTest extends TestLogger {
+
+	@Rule
+	public final TemporaryFolder tmp = new TemporaryFolder();
+
+	@Test
+	public void intervalJoinBenchmark() throws Exception {
+		runBenchmark(false);
+	}
+
+	@Test
+	public void bucketedIntervalJoinBenchmark() throws Exception {
+		runBenchmark(true);
+	}
+
+	private void runBenchmark(boolean bucketing) throws Exception {
+		IntervalJoinBenchmark benchmark = new IntervalJoinBenchmark();
+		benchmark.setUp(bucketing, createStateBackend(tmp.newFolder()), -10L, 10L, 1000L, 10);
+		try {
+			benchmark.executeBenchmark(10_000);
+		} finally {
+			benchmark.tearDown();
+		}
+	}
+
+	private static RocksDBStateBackend createStateBackend(File directory) throws Exception {
+		RocksDBStateBackend stateBackend = new RocksDBStateBackend(new MemoryStateBackend());
+		stateBackend.setDbStoragePath(directory.getAbsolutePath());
+		return stateBackend;
+	}
+
+	public static void main(String[] args) throws Exception {
+		final long records = args.length > 0 ? Long.parseLong(args[0]) : 1_000_000L;
+
+		TemporaryFolder directory = new TemporaryFolder();
+		directory.create();
+		try {
+			IntervalJoinBenchmark.run(createStateBackend(directory.newFolder()), records);
+		} finally {
+			directory.delete();
+		}
+	}
+}
@@ -20,9 +20,13 @@ package org.apache.flink.streaming.api.datastream;
 import org.apache.flink.annotation.PublicEvolving;
 import org.apache.flink.api.common.typeinfo.TypeInformation;
 import org.apache.flink.api.java.Utils;
+import org.apache.flink.api.java.functions.KeySelector;
 import org.apache.flink.api.java.typeutils.TypeExtractor;
 import org.apache.flink.streaming.api.functions.async.AsyncFunction;
 import org.apache.flink.streaming.api.operators.async.AsyncWaitOperator;
+import org.apache.flink.util.Preconditions;
+
+import javax.annotation.Nullable;
 
 import java.util.concurrent.TimeUnit;
 
@@ -42,9 +46,11 @@ import java.util.concurrent.TimeUnit;
 public class AsyncDataStream {
 
 	/**
-	 * Output mode for asynchronous operations.
+	 * Output mode for asynchronous operations. In the {@code KEY_ORDERED} mode, the results of
+	 * records with the same key are emitted in the order of the records, whereas the results of
+	 * different keys are emitted as soon as they are completed.
 	 */
-	public enum OutputMode { ORDERED, UNORDERED }
+	public enum OutputMode { ORDERED, UNORDERED, KEY_ORDERED }
 
 	private static final int DEFAULT_QUEUE_CAPACITY = 100;
 
@@ -56,6 +62,8 @@ public class AsyncDataStream {
 	 * @param timeout for the asynchronous operation to complete
 	 * @param bufSize The max number of inputs the {@link AsyncWaitOperator} can hold inside.
 	 * @param mode Processing mode for {@link AsyncWaitOperator}.
+	 * @param keySelector Key selector for the {@code KEY_ORDERED} mode, or {@code null}.
+	 * @param options Adaptive capacity and retry options for the {@link AsyncWaitOperator}.
 	 * @param <IN> Input type.
 	 * @param <OUT> Output type.
 	 * @return A new {@link SingleOutputStreamOperator}
@@ -65,7 +73,9 @@ public class AsyncDataStream {
 			AsyncFunction<IN, OUT> func,
 			long timeout,
 			int bufSize,
-			OutputMode mode) {
+			OutputMode mode,
+			@Nullable KeySelector<IN, ?> keySelector,
+			AsyncWaitOptions options) {
 
 		TypeInformation<OUT> outTypeInfo = TypeExtractor.getUnaryOperatorReturnType(
 			func,
@@ -82,7 +92,9 @@ public class AsyncDataStream {
 			in.getExecutionEnvironment().clean(func),
 			timeout,
 			bufSize,
-			mode);
+			mode,
+			keySelector == null ? null : in.getExecutionEnvironment().clean(keySelector),
+			options);
 
 		return in.transform("async wait operator", outTypeInfo, operator);
 	}
@@ -105,7 +117,7 @@ public class AsyncDataStream {
 			long timeout,
 			TimeUnit timeUnit,
 			int capacity) {
-		return addOperator(in, func, timeUnit.toMillis(timeout), capacity, OutputMode.UNORDERED);
+		return addOperator(in, func, timeUnit.toMillis(timeout), capacity, OutputMode.UNORDERED, null, AsyncWaitOptions.DEFAULT);
 	}
 
 	/**
@@ -128,7 +140,9 @@ public class AsyncDataStream {
 			func,
 			timeUnit.toMillis(timeout),
 			DEFAULT_QUEUE_CAPACITY,
-			OutputMode.UNORDERED);
+			OutputMode.UNORDERED,
+			null,
+			AsyncWaitOptions.DEFAULT);
 	}
 
 	/**
@@ -150,7 +164,7 @@ public class AsyncDataStream {
 			long timeout,
 			TimeUnit timeUnit,
 			int capacity) {
-		return addOperator(in, func, timeUnit.toMillis(timeout), capacity, OutputMode.ORDERED);
+		return addOperator(in, func, timeUnit.toMillis(timeout), capacity, OutputMode.ORDERED, null, AsyncWaitOptions.DEFAULT);
 	}
 
 	/**
@@ -175,6 +189,113 @@ public class AsyncDataStream {
 			func,
 			timeUnit.toMillis(timeout),
 			DEFAULT_QUEUE_CAPACITY,
-			OutputMode.ORDERED);
+			OutputMode.ORDERED,
+			null,
+			AsyncWaitOptions.DEFAULT);
+	}
+
+	/**
+	 * Add an AsyncWaitOperator. The order of output stream records may be reordered. The capacity
+	 * and retries of the async i/o operations are controlled by the given {@link AsyncWaitOptions}.
+	 *
+	 * @param in Input {@link DataStream}
+	 * @param func {@link AsyncFunction}
+	 * @param timeout for the asynchronous operation to complete
+	 * @param timeUnit of the given timeout
+	 * @param capacity The max number of async i/o operation that can be triggered
+	 * @param options The adaptive capacity and retry options
+	 * @param <IN> Type of input record
+	 * @param <OUT> Type of output record
+	 * @return A new {@link SingleOutputStreamOperator}.
+	 */
+	public static <IN, OUT> SingleOutputStreamOperator<OUT> unorderedWait(
+			DataStream<IN> in,
+			AsyncFunction<IN, OUT> func,
+			long timeout,
+			TimeUnit timeUnit,
+			int capacity,
+			AsyncWaitOptions options) {
+		return addOperator(in, func, timeUnit.toMillis(timeout), capacity, OutputMode.UNORDERED, null, options);
+	}
+
+	/**
+	 * Add an AsyncWaitOperator. The order to process input records is guaranteed to be the same as
+	 * input ones. The capacity and retries of the async i/o operations are controlled by the given
+	 * {@link AsyncWaitOptions}.
+	 *
+	 * @param in Input {@link DataStream}
+	 * @param func {@link AsyncFunction}
+	 * @param timeout for the asynchronous operation to complete
+	 * @param timeUnit of the given timeout
+	 * @param capacity The max number of async i/o operation that can be triggered
+	 * @param options The adaptive capacity and retry options
+	 * @param <IN> Type of input record
+	 * @param <OUT> Type of output record
+	 * @return A new {@link SingleOutputStreamOperator}.
+	 */
+	public static <IN, OUT> SingleOutputStreamOperator<OUT> orderedWait(
+			DataStream<IN> in,
+			AsyncFunction<IN, OUT> func,
+			long timeout,
+			TimeUnit timeUnit,
+			int capacity,
+			AsyncWaitOptions options) {
+		return addOperator(in, func, timeUnit.toMillis(timeout), capacity, OutputMode.ORDERED, null, options);
+	}
+
+	/**
+	 * Add an AsyncWaitOperator. The order to process input records is guaranteed to be the same as
+	 * input ones for records with the same key. Records with different keys do not wait for each
+	 * other, so that a slow async i/o operation only delays the results of its own key.
+	 *
+	 * @param in Input {@link DataStream}
+	 * @param keySelector The {@link KeySelector} that extracts the key of the input records
+	 * @param func {@link AsyncFunction}
+	 * @param timeout for the asynchronous operation to complete
+	 * @param timeUnit of the given timeout
+	 * @param capacity The max number of async i/o operation that can be triggered
+	 * @param <IN> Type of input record
+	 * @param <OUT> Type of output record
+	 * @return A new {@link SingleOutputStreamOperator}.
+	 */
+	public static <IN, OUT> SingleOutputStreamOperator<OUT> orderedWaitByKey(
+			DataStream<IN> in,
+			KeySelector<IN, ?> keySelector,
+			AsyncFunction<IN, OUT> func,
+			long timeout,
+			TimeUnit timeUnit,
+			int capacity) {
+		return orderedWaitByKey(in, keySelector, func, timeout, timeUnit, capacity, AsyncWaitOptions.DEFAULT);
+	}
+
+	/**
+	 * Add an AsyncWaitOperator. The order to process input records is guaranteed to be the same as
+	 * input ones for records with the same key. Records with different keys do not wait for each
+	 * other, so that a slow async i/o operation only delays the results of its own key. The
+	 * capacity and retries of the async i/o operations are controlled by the given
+	 * {@link AsyncWaitOptions}.
+	 *
+	 * @param in Input {@link DataStream}
+	 * @param keySelector The {@link KeySelector} that extracts the key of the input records
+	 * @param func {@link AsyncFunction}
+	 * @param timeout for the asynchronous operation to complete
+	 * @param timeUnit of the given timeout
+	 * @param capacity The max number of async i/o operation that can be triggered
+	 * @param options The adaptive capacity and retry options
+	 * @param <IN> Type of input record
+	 * @param <OUT> Type of output record
+	 * @return A new {@link SingleOutputStreamOperator}.
+	 */
+	public static <IN, OUT> SingleOutputStreamOperator<OUT> orderedWaitByKey(
+			DataStream<IN> in,
+			KeySelector<IN, ?> keySelector,
+			AsyncFunction<IN, OUT> func,
+			long timeout,
+			TimeUnit timeUnit,
+			int capacity,
+			AsyncWaitOptions options) {
+		Preconditions.checkNotNull(keySelector, "keySelector");
+
+		return addOperator(in, func, timeUnit.toMillis(timeout), capacity, OutputMode.KEY_ORDERED, keySelector, options);
 	}
 }
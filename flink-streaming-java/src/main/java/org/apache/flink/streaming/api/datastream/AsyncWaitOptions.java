@@ -0,0 +1,186 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.streaming.api.datastream;
+
+import org.apache.flink.annotation.PublicEvolving;
+import org.apache.flink.streaming.api.functions.async.AsyncFunction;
+
+import java.io.Serializable;
+import java.util.concurrent.TimeUnit;
+
+import static org.apache.flink.util.Preconditions.checkArgument;
+import static org.apache.flink.util.Preconditions.checkNotNull;
+
+/**
+ * Options for the asynchronous operations that are added with {@link AsyncDataStream}.
+ *
+ * <p>With an adaptive capacity, the number of in-flight requests is limited by a value between a
+ * minimum and the capacity of the operator. The limit grows while requests complete within the
+ * target latency and shrinks when requests are slower, time out or fail.
+ *
+ * <p>With retries, a request that failed or timed out is invoked again on the
+ * {@link AsyncFunction}, after a backoff that doubles with every attempt up to a maximum backoff.
+ *
+ * <pre>{@code
+ * AsyncWaitOptions options = AsyncWaitOptions.builder()
+ *     .setAdaptiveCapacity(10, 50, TimeUnit.MILLISECONDS)
+ *     .setRetries(3, 100, 1000, TimeUnit.MILLISECONDS)
+ *     .build();
+ * }</pre>
+ */
+@PublicEvolving
+public final class AsyncWaitOptions implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	/** Options with a fixed capacity and without retries. */
+	public static final AsyncWaitOptions DEFAULT = builder().build();
+
+	/** The minimum limit of in-flight requests, or 0 if the capacity is fixed. */
+	private final int minCapacity;
+
+	/** The target latency of a request in milliseconds. */
+	private final long targetLatency;
+
+	/** The maximum number of times a request is retried. */
+	private final int maxRetries;
+
+	/** The backoff in milliseconds before the first retry. */
+	private final long initialRetryBackoff;
+
+	/** The maximum backoff in milliseconds between retries. */
+	private final long maxRetryBackoff;
+
+	private AsyncWaitOptions(
+			int minCapacity,
+			long targetLatency,
+			int maxRetries,
+			long initialRetryBackoff,
+			long maxRetryBackoff) {
+		this.minCapacity = minCapacity;
+		this.targetLatency = targetLatency;
+		this.maxRetries = maxRetries;
+		this.initialRetryBackoff = initialRetryBackoff;
+		this.maxRetryBackoff = maxRetryBackoff;
+	}
+
+	public boolean isAdaptiveCapacity() {
+		return minCapacity > 0;
+	}
+
+	public int getMinCapacity() {
+		return minCapacity;
+	}
+
+	public long getTargetLatency() {
+		return targetLatency;
+	}
+
+	public int getMaxRetries() {
+		return maxRetries;
+	}
+
+	/**
+	 * Returns the backoff in milliseconds before the given retry, starting with 1.
+	 */
+	public long getRetryBackoff(int retry) {
+		checkArgument(retry > 0, "The retry must be positive.");
+
+		long backoff = initialRetryBackoff;
+		for (int i = 1; i < retry && backoff < maxRetryBackoff; i++) {
+			backoff *= 2;
+		}
+		return Math.min(backoff, maxRetryBackoff);
+	}
+
+	@Override
+	public String toString() {
+		return "AsyncWaitOptions{" +
+			"minCapacity=" + minCapacity +
+			", targetLatency=" + targetLatency +
+			", maxRetries=" + maxRetries +
+			", initialRetryBackoff=" + initialRetryBackoff +
+			", maxRetryBackoff=" + maxRetryBackoff +
+			'}';
+	}
+
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	/**
+	 * Builder for {@link AsyncWaitOptions}.
+	 */
+	@PublicEvolving
+	public static final class Builder {
+
+		private int minCapacity;
+
+		private long targetLatency;
+
+		private int maxRetries;
+
+		private long initialRetryBackoff;
+
+		private long maxRetryBackoff;
+
+		private Builder() {
+		}
+
+		/**
+		 * Adapts the limit of in-flight requests between the given minimum and the capacity of the
+		 * operator, such that requests complete within the given target latency.
+		 *
+		 * @param minCapacity The minimum limit of in-flight requests.
+		 * @param targetLatency The target latency of a request.
+		 * @param timeUnit The time unit of the target latency.
+		 */
+		public Builder setAdaptiveCapacity(int minCapacity, long targetLatency, TimeUnit timeUnit) {
+			checkArgument(minCapacity > 0, "The minimum capacity must be positive.");
+			checkArgument(targetLatency > 0, "The target latency must be positive.");
+
+			this.minCapacity = minCapacity;
+			this.targetLatency = checkNotNull(timeUnit).toMillis(targetLatency);
+			return this;
+		}
+
+		/**
+		 * Retries failed and timed out requests with an exponential backoff.
+		 *
+		 * @param maxRetries The maximum number of times a request is retried.
+		 * @param initialBackoff The backoff before the first retry.
+		 * @param maxBackoff The maximum backoff between retries.
+		 * @param timeUnit The time unit of the backoffs.
+		 */
+		public Builder setRetries(int maxRetries, long initialBackoff, long maxBackoff, TimeUnit timeUnit) {
+			checkArgument(maxRetries >= 0, "The number of retries must not be negative.");
+			checkArgument(initialBackoff >= 0, "The initial backoff must not be negative.");
+			checkArgument(maxBackoff >= initialBackoff, "The maximum backoff must not be smaller than the initial backoff.");
+
+			this.maxRetries = maxRetries;
+			this.initialRetryBackoff = checkNotNull(timeUnit).toMillis(initialBackoff);
+			this.maxRetryBackoff = timeUnit.toMillis(maxBackoff);
+			return this;
+		}
+
+		public AsyncWaitOptions build() {
+			return new AsyncWaitOptions(minCapacity, targetLatency, maxRetries, initialRetryBackoff, maxRetryBackoff);
+		}
+	}
+}
@@ -21,6 +21,7 @@ import org.apache.flink.annotation.Internal;
 import org.apache.flink.annotation.Public;
 import org.apache.flink.annotation.PublicEvolving;
 import org.apache.flink.api.common.InvalidProgramException;
+import org.apache.flink.api.common.functions.AggregateFunction;
 import org.apache.flink.api.common.functions.FlatMapFunction;
 import org.apache.flink.api.common.functions.FoldFunction;
 import org.apache.flink.api.common.functions.ReduceFunction;
@@ -32,8 +33,10 @@ import org.apache.flink.api.common.typeinfo.PrimitiveArrayTypeInfo;
 import org.apache.flink.api.common.typeinfo.TypeInformation;
 import org.apache.flink.api.java.Utils;
 import org.apache.flink.api.java.functions.KeySelector;
+import org.apache.flink.api.java.tuple.Tuple2;
 import org.apache.flink.api.java.typeutils.ObjectArrayTypeInfo;
 import org.apache.flink.api.java.typeutils.PojoTypeInfo;
+import org.apache.flink.api.java.typeutils.TupleTypeInfo;
 import org.apache.flink.api.java.typeutils.TupleTypeInfoBase;
 import org.apache.flink.api.java.typeutils.TypeExtractor;
 import org.apache.flink.streaming.api.TimeCharacteristic;
@@ -49,12 +52,16 @@ import org.apache.flink.streaming.api.functions.sink.SinkFunction;
 import org.apache.flink.streaming.api.graph.StreamGraphGenerator;
 import org.apache.flink.streaming.api.operators.KeyedProcessOperator;
 import org.apache.flink.streaming.api.operators.LegacyKeyedProcessOperator;
+import org.apache.flink.streaming.api.operators.LocalAggregateMergeOperator;
+import org.apache.flink.streaming.api.operators.LocalAggregateOperator;
+import org.apache.flink.streaming.api.operators.LocalReduceOperator;
 import org.apache.flink.streaming.api.operators.OneInputStreamOperator;
 import org.apache.flink.streaming.api.operators.StreamGroupedFold;
 import org.apache.flink.streaming.api.operators.StreamGroupedReduce;
 import org.apache.flink.streaming.api.operators.co.IntervalJoinOperator;
 import org.apache.flink.streaming.api.transformations.OneInputTransformation;
 import org.apache.flink.streaming.api.transformations.PartitionTransformation;
+import org.apache.flink.streaming.api.transformations.StreamTransformation;
 import org.apache.flink.streaming.api.windowing.assigners.GlobalWindows;
 import org.apache.flink.streaming.api.windowing.assigners.SlidingEventTimeWindows;
 import org.apache.flink.streaming.api.windowing.assigners.SlidingProcessingTimeWindows;
@@ -491,6 +498,9 @@ public class KeyedStream<T, KEY> extends DataStream<T> {
 		private boolean lowerBoundInclusive;
 		private boolean upperBoundInclusive;
 
+		/** Whether the buffered elements are split into time buckets. */
+		private boolean bucketing;
+
 		public IntervalJoined(
 				KeyedStream<IN1, KEY> left,
 				KeyedStream<IN2, KEY> right,
@@ -530,6 +540,23 @@ public class KeyedStream<T, KEY> extends DataStream<T> {
 			return this;
 		}
 
+		/**
+		 * Buffers the elements of both sides in time buckets of the width of the join interval.
+		 * An element then only reads the buffered elements of the buckets that overlap with its
+		 * join interval, instead of all buffered elements of its key, and the buffers are cleaned
+		 * up per bucket. This helps for keys with many buffered timestamps, in particular with
+		 * state backends that serialize the state.
+		 *
+		 * <p>Note that the state of a bucketed join is not compatible with the state of a regular
+		 * interval join, so bucketing cannot be enabled when restoring from a savepoint of a job
+		 * that did not use it.
+		 */
+		@PublicEvolving
+		public IntervalJoined<IN1, IN2, KEY> enableBucketing() {
+			this.bucketing = true;
+			return this;
+		}
+
 		/**
 		 * Completes the join operation with the given user function that is executed for each joined pair
 		 * of elements.
@@ -584,7 +611,8 @@ public class KeyedStream<T, KEY> extends DataStream<T> {
 					upperBoundInclusive,
 					left.getType().createSerializer(left.getExecutionConfig()),
 					right.getType().createSerializer(right.getExecutionConfig()),
-					cleanedUdf
+					cleanedUdf,
+					bucketing
 				);
 
 			return left
@@ -672,6 +700,164 @@ public class KeyedStream<T, KEY> extends DataStream<T> {
 		return new WindowedStream<>(this, assigner);
 	}
 
+	// ------------------------------------------------------------------------
+	//  Local pre-aggregation
+	// ------------------------------------------------------------------------
+
+	/**
+	 * Combines the elements of each key with the given {@link ReduceFunction} before they are
+	 * shuffled by key. The elements are reduced in bounded bundles by an operator that is chained
+	 * to the operator which produces this stream. A bundle is emitted after {@code maxBundleSize}
+	 * elements, after {@code maxBundleDelay}, before watermarks, and before checkpoint barriers,
+	 * so no state is kept for the bundles.
+	 *
+	 * <p>This reduces the number of records that are sent over the network and relieves the
+	 * subtasks of hot keys. The returned stream is partitioned by the same key and is typically
+	 * followed by a {@link #reduce(ReduceFunction)} or a window reduce with the same function.
+	 *
+	 * @param reducer The {@link ReduceFunction} that combines elements with the same key.
+	 * @param maxBundleSize The maximum number of elements in a bundle.
+	 * @param maxBundleDelay The maximum time after which a bundle is emitted.
+	 * @return The pre-reduced stream, partitioned by the same key.
+	 */
+	@PublicEvolving
+	public KeyedStream<T, KEY> localReduce(ReduceFunction<T> reducer, long maxBundleSize, Time maxBundleDelay) {
+		LocalReduceOperator<KEY, T> operator = new LocalReduceOperator<>(
+			clean(reducer),
+			keySelector,
+			keyType.createSerializer(getExecutionConfig()),
+			getType().createSerializer(getExecutionConfig()),
+			maxBundleSize,
+			maxBundleDelay.toMilliseconds());
+
+		DataStream<T> combined = transformBeforePartitioning("Local Reduce", getType(), operator);
+		return new KeyedStream<>(combined, keySelector, keyType);
+	}
+
+	/**
+	 * Combines the elements of each key into accumulators of the given {@link AggregateFunction}
+	 * before they are shuffled by key. The elements are aggregated in bounded bundles by an operator
+	 * that is chained to the operator which produces this stream. A bundle is emitted after
+	 * {@code maxBundleSize} elements, after {@code maxBundleDelay}, before watermarks, and before
+	 * checkpoint barriers, so no state is kept for the bundles.
+	 *
+	 * <p>The returned stream contains the key and the accumulator of each bundle and is partitioned
+	 * by the same key. {@link #mergeLocalAggregates(AggregateFunction)} combines the accumulators of
+	 * each key with {@link AggregateFunction#merge(Object, Object)}.
+	 *
+	 * @param aggFunction The {@link AggregateFunction} that accumulates elements with the same key.
+	 * @param maxBundleSize The maximum number of elements in a bundle.
+	 * @param maxBundleDelay The maximum time after which a bundle is emitted.
+	 * @param <ACC> The type of the accumulator of the aggregate function.
+	 * @return The stream of keys and accumulators, partitioned by the same key.
+	 */
+	@PublicEvolving
+	public <ACC> KeyedStream<Tuple2<KEY, ACC>, KEY> localAggregate(
+			AggregateFunction<T, ACC, ?> aggFunction,
+			long maxBundleSize,
+			Time maxBundleDelay) {
+
+		checkNotNull(aggFunction, "aggFunction");
+
+		TypeInformation<ACC> accumulatorType = TypeExtractor.getAggregateFunctionAccumulatorType(
+			aggFunction, getType(), Utils.getCallLocationName(), false);
+
+		LocalAggregateOperator<KEY, T, ACC> operator = new LocalAggregateOperator<>(
+			clean(aggFunction),
+			keySelector,
+			keyType.createSerializer(getExecutionConfig()),
+			getType().createSerializer(getExecutionConfig()),
+			maxBundleSize,
+			maxBundleDelay.toMilliseconds());
+
+		DataStream<Tuple2<KEY, ACC>> combined = transformBeforePartitioning(
+			"Local Aggregate",
+			new TupleTypeInfo<>(keyType, accumulatorType),
+			operator);
+
+		return new KeyedStream<>(combined, new LocalAggregateOperator.AccumulatorKeySelector<>(), keyType);
+	}
+
+	/**
+	 * Merges the accumulators of a stream that was pre-aggregated with
+	 * {@link #localAggregate(AggregateFunction, long, Time)}. The merged accumulator of each key is
+	 * kept in keyed state, and the current result of the given {@link AggregateFunction} is emitted
+	 * for every received accumulator.
+	 *
+	 * @param aggFunction The {@link AggregateFunction} that was used for the local pre-aggregation.
+	 * @param <ACC> The type of the accumulator of the aggregate function.
+	 * @param <R> The type of the aggregation result.
+	 * @return The stream of the aggregation results.
+	 */
+	@PublicEvolving
+	public <ACC, R> SingleOutputStreamOperator<R> mergeLocalAggregates(AggregateFunction<?, ACC, R> aggFunction) {
+		checkNotNull(aggFunction, "aggFunction");
+
+		TypeInformation<R> resultType = TypeExtractor.getAggregateFunctionReturnType(
+			aggFunction, null, Utils.getCallLocationName(), false);
+
+		return mergeLocalAggregates(aggFunction, resultType);
+	}
+
+	/**
+	 * Merges the accumulators of a stream that was pre-aggregated with
+	 * {@link #localAggregate(AggregateFunction, long, Time)}. The merged accumulator of each key is
+	 * kept in keyed state, and the current result of the given {@link AggregateFunction} is emitted
+	 * for every received accumulator.
+	 *
+	 * @param aggFunction The {@link AggregateFunction} that was used for the local pre-aggregation.
+	 * @param resultType The type information of the aggregation result.
+	 * @param <ACC> The type of the accumulator of the aggregate function.
+	 * @param <R> The type of the aggregation result.
+	 * @return The stream of the aggregation results.
+	 */
+	@PublicEvolving
+	public <ACC, R> SingleOutputStreamOperator<R> mergeLocalAggregates(
+			AggregateFunction<?, ACC, R> aggFunction,
+			TypeInformation<R> resultType) {
+
+		checkNotNull(aggFunction, "aggFunction");
+		checkNotNull(resultType, "resultType");
+
+		if (!(getType() instanceof TupleTypeInfo) || getType().getArity() != 2 ||
+				!(keySelector instanceof LocalAggregateOperator.AccumulatorKeySelector)) {
+			throw new UnsupportedOperationException(
+				"Only streams that are returned by localAggregate() can merge local aggregates.");
+		}
+
+		@SuppressWarnings("unchecked")
+		TypeInformation<ACC> accumulatorType = ((TupleTypeInfo<Tuple2<KEY, ACC>>) getType()).getTypeAt(1);
+
+		@SuppressWarnings("unchecked")
+		OneInputStreamOperator<T, R> operator = (OneInputStreamOperator<T, R>) new LocalAggregateMergeOperator<KEY, ACC, R>(
+			clean(aggFunction),
+			accumulatorType.createSerializer(getExecutionConfig()));
+
+		return transform("Merge Local Aggregates", resultType, operator);
+	}
+
+	/**
+	 * Applies the given operator to the input of the key partitioning of this stream, with the
+	 * parallelism of the input, so that it can be chained to the operator that produces the input.
+	 */
+	private <R> SingleOutputStreamOperator<R> transformBeforePartitioning(
+			String operatorName,
+			TypeInformation<R> outTypeInfo,
+			OneInputStreamOperator<T, R> operator) {
+
+		if (!(getTransformation() instanceof PartitionTransformation) ||
+				!(((PartitionTransformation<T>) getTransformation()).getPartitioner() instanceof KeyGroupStreamPartitioner)) {
+			throw new UnsupportedOperationException(
+				"Local pre-aggregation is only supported on streams that are partitioned with keyBy().");
+		}
+
+		PartitionTransformation<T> partitionTransformation = (PartitionTransformation<T>) getTransformation();
+		StreamTransformation<T> input = partitionTransformation.getInput();
+		return new DataStream<>(getExecutionEnvironment(), input)
+			.transform(operatorName, outTypeInfo, operator)
+			.setParallelism(input.getParallelism());
+	}
+
 	// ------------------------------------------------------------------------
 	//  Non-Windowed aggregation operations
 	// ------------------------------------------------------------------------
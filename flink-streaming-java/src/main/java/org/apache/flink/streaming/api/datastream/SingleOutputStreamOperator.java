@@ -247,6 +247,42 @@ public class SingleOutputStreamOperator<T> extends DataStream<T> {
 		return this;
 	}
 
+	/**
+	 * Declares that this operator does not modify the records it receives, neither while
+	 * processing them nor afterwards, for example when keeping them in heap state.
+	 *
+	 * <p>If object reuse is disabled, records are copied before they are handed to a chained
+	 * operator, unless their type is immutable. The copy also protects the records against
+	 * modifications by the chained predecessor, which may reuse the objects it emits. The copy
+	 * is therefore only skipped if the predecessor in the chain declared with
+	 * {@link #declareOutputNotMutated()} to not modify its records after emitting them. The
+	 * declaration has no effect if object reuse is enabled, because then records are not
+	 * copied in the first place.
+	 *
+	 * @return The operator with the declaration set.
+	 */
+	@PublicEvolving
+	public SingleOutputStreamOperator<T> declareInputNotMutated() {
+		transformation.setInputNotMutated(true);
+		return this;
+	}
+
+	/**
+	 * Declares that this operator does not modify the records it emits after emitting them,
+	 * for example by reusing the output object for the next record.
+	 *
+	 * <p>Together with {@link #declareInputNotMutated()} on the chained successor, this skips
+	 * the copy of the records that are passed between the two operators if object reuse is
+	 * disabled.
+	 *
+	 * @return The operator with the declaration set.
+	 */
+	@PublicEvolving
+	public SingleOutputStreamOperator<T> declareOutputNotMutated() {
+		transformation.setOutputNotMutated(true);
+		return this;
+	}
+
 	/**
 	 * Sets the {@link ChainingStrategy} for the given operator affecting the
 	 * way operators will possibly be co-located on the same thread for
@@ -51,12 +51,16 @@ import org.apache.flink.streaming.api.functions.windowing.WindowFunction;
 import org.apache.flink.streaming.api.operators.OneInputStreamOperator;
 import org.apache.flink.streaming.api.windowing.assigners.BaseAlignedWindowAssigner;
 import org.apache.flink.streaming.api.windowing.assigners.MergingWindowAssigner;
+import org.apache.flink.streaming.api.windowing.assigners.SlidingEventTimeWindows;
+import org.apache.flink.streaming.api.windowing.assigners.SlidingProcessingTimeWindows;
 import org.apache.flink.streaming.api.windowing.assigners.WindowAssigner;
 import org.apache.flink.streaming.api.windowing.evictors.Evictor;
 import org.apache.flink.streaming.api.windowing.time.Time;
 import org.apache.flink.streaming.api.windowing.triggers.Trigger;
+import org.apache.flink.streaming.api.windowing.windows.TimeWindow;
 import org.apache.flink.streaming.api.windowing.windows.Window;
 import org.apache.flink.streaming.runtime.operators.windowing.EvictingWindowOperator;
+import org.apache.flink.streaming.runtime.operators.windowing.SlicingWindowOperator;
 import org.apache.flink.streaming.runtime.operators.windowing.WindowOperator;
 import org.apache.flink.streaming.runtime.operators.windowing.functions.InternalAggregateProcessWindowFunction;
 import org.apache.flink.streaming.runtime.operators.windowing.functions.InternalIterableProcessWindowFunction;
@@ -122,6 +126,12 @@ public class WindowedStream<T, K, W extends Window> {
  	 */
 	private OutputTag<T> lateDataOutputTag;
 
+	/** Whether incremental aggregations are evaluated on slices of the sliding windows. */
+	private boolean slicing;
+
+	/** Whether the contents of merging windows are merged by reference instead of by copy. */
+	private boolean lazyMerging;
+
 	@PublicEvolving
 	public WindowedStream(KeyedStream<T, K> input,
 			WindowAssigner<? super T, W> windowAssigner) {
@@ -143,6 +153,10 @@ public class WindowedStream<T, K, W extends Window> {
 			throw new UnsupportedOperationException("Cannot use a " + windowAssigner.getClass().getSimpleName() + " with a custom trigger.");
 		}
 
+		if (slicing) {
+			throw new UnsupportedOperationException("Cannot use a custom trigger when slicing windows.");
+		}
+
 		this.trigger = trigger;
 		return this;
 	}
@@ -191,10 +205,71 @@ public class WindowedStream<T, K, W extends Window> {
 		if (windowAssigner instanceof BaseAlignedWindowAssigner) {
 			throw new UnsupportedOperationException("Cannot use a " + windowAssigner.getClass().getSimpleName() + " with an Evictor.");
 		}
+		if (slicing) {
+			throw new UnsupportedOperationException("Cannot use an Evictor when slicing windows.");
+		}
 		this.evictor = evictor;
 		return this;
 	}
 
+	/**
+	 * Evaluates incremental aggregations, i.e. {@code reduce()} and {@code aggregate()}, by slicing
+	 * the sliding windows instead of adding each element to every window it belongs to.
+	 *
+	 * <p>With slicing, the time is split into non-overlapping slices of the greatest common divisor
+	 * of window size and slide, and each element is added to the accumulator of exactly one slice.
+	 * The accumulators of all slices of a window are merged when the window fires. For example, for
+	 * windows of one hour that slide by one minute, an element updates one accumulator instead of
+	 * sixty, and only one timer per key is registered.
+	 *
+	 * <p>Slicing can only be used with {@link SlidingEventTimeWindows} or
+	 * {@link SlidingProcessingTimeWindows}, with their default trigger and without evictor.
+	 * Per-window state of a {@link ProcessWindowFunction} is not available. Window functions without
+	 * incremental aggregation are not affected. Note that the state of a sliced window is not
+	 * compatible with the state of a regular window, so slicing cannot be enabled when restoring
+	 * from a savepoint of a job that did not use it.
+	 */
+	@PublicEvolving
+	public WindowedStream<T, K, W> enableSlicing() {
+		if (!SlicingWindowOperator.isSupportedWindowAssigner(windowAssigner)) {
+			throw new UnsupportedOperationException("Cannot slice windows of a " + windowAssigner.getClass().getSimpleName() + ".");
+		}
+
+		if (evictor != null) {
+			throw new UnsupportedOperationException("Cannot slice windows with an Evictor.");
+		}
+
+		if (trigger.getClass() != windowAssigner.getDefaultTrigger(input.getExecutionEnvironment()).getClass()) {
+			throw new UnsupportedOperationException("Cannot slice windows with a custom trigger.");
+		}
+
+		this.slicing = true;
+		return this;
+	}
+
+	/**
+	 * Merges the contents of merging windows, such as session windows, lazily when the window
+	 * function has no incremental aggregation. Instead of moving the elements of the merged windows
+	 * into the state of the resulting window, the resulting window keeps references to the state of
+	 * the merged windows, and all elements are read when the window fires.
+	 *
+	 * <p>This makes a merge independent of the number of elements in the merged windows, which helps
+	 * long sessions that merge often, in particular with state backends that serialize the state.
+	 * Incremental aggregations, i.e. {@code reduce()} and {@code aggregate()}, and windows with an
+	 * evictor are not affected. Note that the state of a lazily merged window is not compatible with
+	 * the state of a regular window, so lazy merging cannot be enabled when restoring from a
+	 * savepoint of a job that did not use it.
+	 */
+	@PublicEvolving
+	public WindowedStream<T, K, W> enableLazyMerging() {
+		if (!(windowAssigner instanceof MergingWindowAssigner)) {
+			throw new UnsupportedOperationException("Cannot lazily merge windows of a " + windowAssigner.getClass().getSimpleName() + ".");
+		}
+
+		this.lazyMerging = true;
+		return this;
+	}
+
 
 	// ------------------------------------------------------------------------
 	//  Operations on the keyed windows
@@ -297,6 +372,12 @@ public class WindowedStream<T, K, W extends Window> {
 					allowedLateness,
 					lateDataOutputTag);
 
+		} else if (slicing) {
+			operator = createSlicingWindowOperator(
+				new SlicingWindowOperator.ReduceAggregateFunction<>(reduceFunction),
+				input.getType(),
+				new InternalSingleValueWindowFunction<>(function));
+
 		} else {
 			ReducingStateDescriptor<T> stateDesc = new ReducingStateDescriptor<>("window-contents",
 				reduceFunction,
@@ -383,6 +464,12 @@ public class WindowedStream<T, K, W extends Window> {
 							allowedLateness,
 							lateDataOutputTag);
 
+		} else if (slicing) {
+			operator = createSlicingWindowOperator(
+					new SlicingWindowOperator.ReduceAggregateFunction<>(reduceFunction),
+					input.getType(),
+					new InternalSingleValueProcessWindowFunction<>(function));
+
 		} else {
 			ReducingStateDescriptor<T> stateDesc = new ReducingStateDescriptor<>("window-contents",
 					reduceFunction,
@@ -832,6 +919,12 @@ public class WindowedStream<T, K, W extends Window> {
 					allowedLateness,
 					lateDataOutputTag);
 
+		} else if (slicing) {
+			operator = createSlicingWindowOperator(
+					aggregateFunction,
+					accumulatorType,
+					new InternalSingleValueWindowFunction<>(windowFunction));
+
 		} else {
 			AggregatingStateDescriptor<T, ACC, V> stateDesc = new AggregatingStateDescriptor<>("window-contents",
 					aggregateFunction, accumulatorType.createSerializer(getExecutionEnvironment().getConfig()));
@@ -982,6 +1075,12 @@ public class WindowedStream<T, K, W extends Window> {
 					allowedLateness,
 					lateDataOutputTag);
 
+		} else if (slicing) {
+			operator = createSlicingWindowOperator(
+					aggregateFunction,
+					accumulatorType,
+					new InternalSingleValueProcessWindowFunction<>(windowFunction));
+
 		} else {
 			AggregatingStateDescriptor<T, ACC, V> stateDesc = new AggregatingStateDescriptor<>("window-contents",
 					aggregateFunction, accumulatorType.createSerializer(getExecutionEnvironment().getConfig()));
@@ -1114,7 +1213,8 @@ public class WindowedStream<T, K, W extends Window> {
 					function,
 					trigger,
 					allowedLateness,
-					lateDataOutputTag);
+					lateDataOutputTag,
+					lazyMerging);
 		}
 
 		return input.transform(opName, resultType, operator);
@@ -1303,6 +1403,25 @@ public class WindowedStream<T, K, W extends Window> {
 		return input.transform(opName, resultType, operator);
 	}
 
+	/**
+	 * Creates a {@link SlicingWindowOperator}. Slicing can only be enabled for sliding time
+	 * windows, so the windows are guaranteed to be {@link TimeWindow TimeWindows}.
+	 */
+	@SuppressWarnings("unchecked")
+	private <ACC, V, R> OneInputStreamOperator<T, R> createSlicingWindowOperator(
+			AggregateFunction<T, ACC, V> aggregateFunction,
+			TypeInformation<ACC> accumulatorType,
+			InternalWindowFunction<V, R, K, W> windowFunction) {
+
+		return new SlicingWindowOperator<>(
+			(WindowAssigner<?, TimeWindow>) windowAssigner,
+			aggregateFunction,
+			accumulatorType.createSerializer(getExecutionEnvironment().getConfig()),
+			(InternalWindowFunction<V, R, K, TimeWindow>) (InternalWindowFunction<V, R, K, ?>) windowFunction,
+			allowedLateness,
+			lateDataOutputTag);
+	}
+
 	private static String generateFunctionName(Function function) {
 		Class<? extends Function> functionClass = function.getClass();
 		if (functionClass.isAnonymousClass()) {
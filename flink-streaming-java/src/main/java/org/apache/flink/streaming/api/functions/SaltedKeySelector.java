@@ -0,0 +1,124 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.streaming.api.functions;
+
+import org.apache.flink.annotation.PublicEvolving;
+import org.apache.flink.api.common.typeinfo.BasicTypeInfo;
+import org.apache.flink.api.common.typeinfo.TypeInformation;
+import org.apache.flink.api.java.functions.KeySelector;
+import org.apache.flink.api.java.tuple.Tuple2;
+import org.apache.flink.api.java.typeutils.ResultTypeQueryable;
+import org.apache.flink.api.java.typeutils.TupleTypeInfo;
+import org.apache.flink.util.MathUtils;
+import org.apache.flink.util.Preconditions;
+
+import java.util.Collection;
+import java.util.HashSet;
+
+/**
+ * A {@link KeySelector} that splits hot keys into several keys, so that the records of a hot key
+ * are spread over several parallel instances of a keyed operator.
+ *
+ * <p>The selector extends the key of each record with a salt. The salt of a record with a hot key
+ * is derived from the value of the salt selector and lies between {@code 0} and {@code fanOut - 1}.
+ * The salt of all other records is {@code 0}, so that their keys are not split. The hot keys can be
+ * taken from the {@code hotKeys} metric of the operator in front of the keyed operator, which is
+ * reported if {@code metrics.hot-keys.num-tracked-keys} is set.
+ *
+ * <p>Splitting keys requires a two-phase aggregation. The first phase aggregates the records per
+ * salted key, the second phase combines the partial results per original key:
+ *
+ * <pre>{@code
+ * KeySelector<Event, String> userId = event -> event.userId;
+ *
+ * input
+ *     .keyBy(new SaltedKeySelector<>(userId, Types.STRING, hotUserIds, 8, event -> event.sessionId))
+ *     .timeWindow(Time.minutes(1))
+ *     .aggregate(new PartialCount())
+ *     .keyBy(partial -> partial.userId)
+ *     .timeWindow(Time.minutes(1))
+ *     .reduce(new SumCounts());
+ * }</pre>
+ *
+ * <p>The salt selector must be deterministic for a record, just like the key selector, because
+ * the key of a record is extracted again by the keyed operator.
+ *
+ * @param <T> The type of the records.
+ * @param <K> The type of the original keys.
+ */
+@PublicEvolving
+public class SaltedKeySelector<T, K> implements KeySelector<T, Tuple2<K, Integer>>, ResultTypeQueryable<Tuple2<K, Integer>> {
+
+	private static final long serialVersionUID = 1L;
+
+	private final KeySelector<T, K> keySelector;
+
+	private final TypeInformation<K> keyType;
+
+	private final HashSet<K> hotKeys;
+
+	private final int fanOut;
+
+	private final KeySelector<T, ?> saltSelector;
+
+	/**
+	 * Creates a selector that splits each of the given hot keys into {@code fanOut} keys.
+	 *
+	 * @param keySelector The selector of the original keys.
+	 * @param keyType The type of the original keys.
+	 * @param hotKeys The keys that are split.
+	 * @param fanOut The number of keys that each hot key is split into.
+	 * @param saltSelector The selector of the values from which the salts of records with hot keys are derived.
+	 */
+	public SaltedKeySelector(
+			KeySelector<T, K> keySelector,
+			TypeInformation<K> keyType,
+			Collection<K> hotKeys,
+			int fanOut,
+			KeySelector<T, ?> saltSelector) {
+		Preconditions.checkArgument(fanOut > 0, "The fan-out must be positive.");
+		this.keySelector = Preconditions.checkNotNull(keySelector);
+		this.keyType = Preconditions.checkNotNull(keyType);
+		this.hotKeys = new HashSet<>(Preconditions.checkNotNull(hotKeys));
+		this.fanOut = fanOut;
+		this.saltSelector = Preconditions.checkNotNull(saltSelector);
+	}
+
+	/**
+	 * Returns the selector of the original keys, for keying the second phase of an aggregation.
+	 */
+	public KeySelector<T, K> getKeySelector() {
+		return keySelector;
+	}
+
+	@Override
+	public Tuple2<K, Integer> getKey(T value) throws Exception {
+		K key = keySelector.getKey(value);
+		if (fanOut == 1 || !hotKeys.contains(key)) {
+			return Tuple2.of(key, 0);
+		}
+		Object salt = saltSelector.getKey(value);
+		return Tuple2.of(key, MathUtils.murmurHash(salt == null ? 0 : salt.hashCode()) % fanOut);
+	}
+
+	@Override
+	public TypeInformation<Tuple2<K, Integer>> getProducedType() {
+		return new TupleTypeInfo<>(keyType, BasicTypeInfo.INT_TYPE_INFO);
+	}
+}
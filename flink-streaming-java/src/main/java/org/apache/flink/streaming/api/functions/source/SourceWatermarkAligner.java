@@ -0,0 +1,335 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.streaming.api.functions.source;
+
+import org.apache.flink.annotation.PublicEvolving;
+import org.apache.flink.annotation.VisibleForTesting;
+import org.apache.flink.api.common.functions.AggregateFunction;
+import org.apache.flink.api.java.tuple.Tuple2;
+import org.apache.flink.metrics.Counter;
+import org.apache.flink.metrics.Gauge;
+import org.apache.flink.metrics.MetricGroup;
+import org.apache.flink.runtime.taskexecutor.GlobalAggregateManager;
+import org.apache.flink.runtime.util.ExecutorThreadFactory;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.apache.flink.util.Preconditions.checkArgument;
+import static org.apache.flink.util.Preconditions.checkNotNull;
+
+/**
+ * Aligns the watermarks of the parallel subtasks of one or more sources that share the same
+ * alignment group.
+ *
+ * <p>Every subtask reports its current watermark to the JobMaster through the
+ * {@link GlobalAggregateManager} and receives the minimum watermark across all subtasks of the
+ * group in return. A subtask whose watermark is more than the configured maximum drift ahead of
+ * that minimum is paused in {@link #awaitAlignment()} until the slower subtasks have caught up.
+ * This bounds the amount of state that downstream windows and joins have to buffer while they
+ * wait for the slowest source.
+ *
+ * <p>Subtasks that have not determined a watermark yet (i.e. report {@code Long.MIN_VALUE}) are
+ * ignored when computing the minimum, so that a subtask without data does not stall the group.
+ * Subtasks that are idle ({@link #markIdle()}), cancelled ({@link #cancel()}) or finished
+ * ({@link #close()}) are removed from the group, so that the remaining subtasks never wait for them.
+ *
+ * <p>{@link #updateLocalWatermark(long)} and {@link #markIdle()} may be called from any thread.
+ * {@link #awaitAlignment()} communicates with the JobMaster at most once per update interval. It
+ * must only be called by the threads that emit records, and never while holding the checkpoint lock.
+ */
+@PublicEvolving
+public class SourceWatermarkAligner {
+
+	/** Name of the gauge reporting how far the local watermark is ahead of the group minimum. */
+	public static final String WATERMARK_DRIFT_METRIC = "watermarkAlignmentDrift";
+
+	/** Name of the counter reporting how often the source was paused to let others catch up. */
+	public static final String ALIGNMENT_PAUSES_METRIC = "watermarkAlignmentPauses";
+
+	/** Name of the counter reporting the total time in milliseconds the source was paused. */
+	public static final String ALIGNMENT_PAUSED_TIME_METRIC = "watermarkAlignmentPausedTime";
+
+	private static final Logger LOG = LoggerFactory.getLogger(SourceWatermarkAligner.class);
+
+	private static final String AGGREGATE_NAME_PREFIX = "__watermark_alignment_";
+
+	/** The watermark that is published to remove a subtask from the alignment group. */
+	private static final long REMOVED_WATERMARK = Long.MAX_VALUE;
+
+	private final GlobalAggregateManager aggregateManager;
+
+	private final String aggregateName;
+
+	private final String subtaskId;
+
+	private final long maxDrift;
+
+	private final long updateInterval;
+
+	private final Object pauseLock = new Object();
+
+	private final Object exchangeLock = new Object();
+
+	/** Publishes the removal of this subtask without blocking the caller, which may hold the checkpoint lock. */
+	private final ExecutorService removalExecutor;
+
+	private final Counter pauses;
+
+	private final Counter pausedTime;
+
+	/** The latest watermark of this subtask. */
+	private volatile long localWatermark = Long.MIN_VALUE;
+
+	/** The latest minimum watermark of the group, as received from the JobMaster. */
+	private volatile long globalWatermark = Long.MIN_VALUE;
+
+	private volatile long nextUpdateTime;
+
+	/** Whether this subtask is idle and removed from the group until it reports a watermark again. */
+	private volatile boolean idle;
+
+	private volatile boolean running = true;
+
+	/**
+	 * Creates a new aligner for one parallel subtask of a source.
+	 *
+	 * @param aggregateManager The manager of the global aggregate shared by the alignment group.
+	 * @param alignmentGroup The name of the group of sources whose watermarks are aligned.
+	 * @param subtaskId The identifier of this subtask, unique within the alignment group.
+	 * @param maxDrift The maximum amount of time the watermark may be ahead of the group minimum.
+	 * @param updateInterval The minimum interval between two exchanges with the JobMaster.
+	 * @param metricGroup The metric group to register the alignment metrics with.
+	 */
+	public SourceWatermarkAligner(
+			GlobalAggregateManager aggregateManager,
+			String alignmentGroup,
+			String subtaskId,
+			long maxDrift,
+			long updateInterval,
+			MetricGroup metricGroup) {
+		checkArgument(maxDrift >= 0, "The maximum watermark drift must not be negative.");
+		checkArgument(updateInterval >= 0, "The alignment update interval must not be negative.");
+
+		this.aggregateManager = checkNotNull(aggregateManager);
+		this.aggregateName = AGGREGATE_NAME_PREFIX + checkNotNull(alignmentGroup);
+		this.subtaskId = checkNotNull(subtaskId);
+		this.maxDrift = maxDrift;
+		this.updateInterval = updateInterval;
+		this.removalExecutor = Executors.newSingleThreadExecutor(
+			new ExecutorThreadFactory("Flink-WatermarkAlignment"));
+
+		this.pauses = metricGroup.counter(ALIGNMENT_PAUSES_METRIC);
+		this.pausedTime = metricGroup.counter(ALIGNMENT_PAUSED_TIME_METRIC);
+		metricGroup.gauge(WATERMARK_DRIFT_METRIC, (Gauge<Long>) this::getDrift);
+	}
+
+	/**
+	 * Sets the current watermark of this subtask. The new value is published to the group with the
+	 * next exchange in {@link #awaitAlignment()}. An idle subtask rejoins the group with that exchange.
+	 */
+	public void updateLocalWatermark(long watermark) {
+		localWatermark = watermark;
+		idle = false;
+	}
+
+	/**
+	 * Marks this subtask as idle and removes it from the group until the next call to
+	 * {@link #updateLocalWatermark(long)}. The removal is published asynchronously, so this method
+	 * may be called while holding the checkpoint lock.
+	 */
+	public void markIdle() {
+		if (running && !idle) {
+			idle = true;
+			publishRemoval();
+		}
+	}
+
+	/**
+	 * Blocks as long as the watermark of this subtask is too far ahead of the group minimum, or
+	 * until the aligner is cancelled.
+	 */
+	public void awaitAlignment() throws IOException, InterruptedException {
+		if (!running) {
+			return;
+		}
+
+		final long now = System.currentTimeMillis();
+		if (now >= nextUpdateTime) {
+			synchronized (exchangeLock) {
+				if (now >= nextUpdateTime) {
+					exchangeWatermarks(now);
+				}
+			}
+		}
+
+		if (!isAhead()) {
+			return;
+		}
+
+		pauses.inc();
+		while (isAhead()) {
+			synchronized (pauseLock) {
+				if (running) {
+					pauseLock.wait(Math.max(updateInterval, 1L));
+				}
+			}
+			if (running) {
+				exchangeWatermarks(System.currentTimeMillis());
+			}
+		}
+		pausedTime.inc(System.currentTimeMillis() - now);
+	}
+
+	/**
+	 * Releases a subtask that is currently paused, disables all further pausing, and removes this
+	 * subtask from the group. The removal is published asynchronously.
+	 */
+	public void cancel() {
+		if (stop()) {
+			publishRemoval();
+		}
+		removalExecutor.shutdown();
+	}
+
+	/**
+	 * Removes this subtask from the group once it has finished emitting records, and releases the
+	 * resources of the aligner. Unlike {@link #cancel()}, this waits until the removal is published.
+	 */
+	public void close() {
+		if (stop()) {
+			try {
+				exchangeWatermarks(System.currentTimeMillis());
+			} catch (IOException e) {
+				LOG.warn("Could not remove subtask {} from watermark alignment group {}.", subtaskId, aggregateName, e);
+			}
+		}
+		removalExecutor.shutdown();
+	}
+
+	@VisibleForTesting
+	long getGlobalWatermark() {
+		return globalWatermark;
+	}
+
+	private boolean stop() {
+		final boolean wasRunning = running;
+		running = false;
+		synchronized (pauseLock) {
+			pauseLock.notifyAll();
+		}
+		return wasRunning;
+	}
+
+	private void publishRemoval() {
+		try {
+			removalExecutor.execute(() -> {
+				try {
+					exchangeWatermarks(System.currentTimeMillis());
+				} catch (IOException e) {
+					LOG.warn("Could not remove subtask {} from watermark alignment group {}.", subtaskId, aggregateName, e);
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			// the aligner was closed concurrently and has already removed this subtask
+		}
+	}
+
+	private void exchangeWatermarks(long now) throws IOException {
+		synchronized (exchangeLock) {
+			// the published value is determined under the lock, so that a delayed removal never
+			// overrides the watermark of a subtask that became active again in the meantime
+			final long published = running && !idle ? localWatermark : REMOVED_WATERMARK;
+			Long result = aggregateManager.updateGlobalAggregate(
+				aggregateName,
+				Tuple2.of(subtaskId, published),
+				new MinWatermarkAggregateFunction());
+
+			globalWatermark = result;
+			nextUpdateTime = now + updateInterval;
+		}
+	}
+
+	private boolean isAhead() {
+		return running && getDrift() > maxDrift;
+	}
+
+	private long getDrift() {
+		final long local = localWatermark;
+		final long global = globalWatermark;
+		if (local == Long.MIN_VALUE || global == Long.MIN_VALUE || local <= global) {
+			return 0L;
+		}
+		final long drift = local - global;
+		// guard against overflow for watermarks at the extremes of the value range
+		return drift < 0 ? Long.MAX_VALUE : drift;
+	}
+
+	// ------------------------------------------------------------------------
+
+	/**
+	 * Keeps the latest watermark per subtask on the JobMaster and computes their minimum. A subtask
+	 * that publishes {@link #REMOVED_WATERMARK} is removed from the group.
+	 */
+	private static class MinWatermarkAggregateFunction
+			implements AggregateFunction<Tuple2<String, Long>, HashMap<String, Long>, Long> {
+
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		public HashMap<String, Long> createAccumulator() {
+			return new HashMap<>();
+		}
+
+		@Override
+		public HashMap<String, Long> add(Tuple2<String, Long> value, HashMap<String, Long> accumulator) {
+			if (value.f1 == REMOVED_WATERMARK) {
+				accumulator.remove(value.f0);
+			} else {
+				accumulator.put(value.f0, value.f1);
+			}
+			return accumulator;
+		}
+
+		@Override
+		public Long getResult(HashMap<String, Long> accumulator) {
+			long min = Long.MAX_VALUE;
+			boolean found = false;
+			for (long watermark : accumulator.values()) {
+				if (watermark != Long.MIN_VALUE) {
+					min = Math.min(min, watermark);
+					found = true;
+				}
+			}
+			return found ? min : Long.MIN_VALUE;
+		}
+
+		@Override
+		public HashMap<String, Long> merge(HashMap<String, Long> a, HashMap<String, Long> b) {
+			a.putAll(b);
+			return a;
+		}
+	}
+}
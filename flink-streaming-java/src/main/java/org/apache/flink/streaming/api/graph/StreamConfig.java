@@ -67,6 +67,8 @@ public class StreamConfig implements Serializable {
 	private static final String SERIALIZEDUDF = "serializedUDF";
 	private static final String USER_FUNCTION = "userFunction";
 	private static final String BUFFER_TIMEOUT = "bufferTimeout";
+	private static final String INPUT_NOT_MUTATED = "inputNotMutated";
+	private static final String OUTPUT_NOT_MUTATED = "outputNotMutated";
 	private static final String TYPE_SERIALIZER_IN_1 = "typeSerializer_in_1";
 	private static final String TYPE_SERIALIZER_IN_2 = "typeSerializer_in_2";
 	private static final String TYPE_SERIALIZER_OUT_1 = "typeSerializer_out";
@@ -206,6 +208,22 @@ public class StreamConfig implements Serializable {
 		return getBufferTimeout() == 0;
 	}
 
+	public void setInputNotMutated(boolean inputNotMutated) {
+		config.setBoolean(INPUT_NOT_MUTATED, inputNotMutated);
+	}
+
+	public boolean isInputNotMutated() {
+		return config.getBoolean(INPUT_NOT_MUTATED, false);
+	}
+
+	public void setOutputNotMutated(boolean outputNotMutated) {
+		config.setBoolean(OUTPUT_NOT_MUTATED, outputNotMutated);
+	}
+
+	public boolean isOutputNotMutated() {
+		return config.getBoolean(OUTPUT_NOT_MUTATED, false);
+	}
+
 	public void setStreamOperator(StreamOperator<?> operator) {
 		if (operator != null) {
 			config.setClass(USER_FUNCTION, operator.getClass());
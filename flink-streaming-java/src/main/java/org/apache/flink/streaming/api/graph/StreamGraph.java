@@ -492,6 +492,18 @@ public class StreamGraph extends StreamingPlan {
 		}
 	}
 
+	public void setInputNotMutated(Integer vertexID, boolean inputNotMutated) {
+		if (getStreamNode(vertexID) != null) {
+			getStreamNode(vertexID).setInputNotMutated(inputNotMutated);
+		}
+	}
+
+	public void setOutputNotMutated(Integer vertexID, boolean outputNotMutated) {
+		if (getStreamNode(vertexID) != null) {
+			getStreamNode(vertexID).setOutputNotMutated(outputNotMutated);
+		}
+	}
+
 	public void setSerializers(Integer vertexID, TypeSerializer<?> in1, TypeSerializer<?> in2, TypeSerializer<?> out) {
 		StreamNode vertex = getStreamNode(vertexID);
 		vertex.setSerializerIn1(in1);
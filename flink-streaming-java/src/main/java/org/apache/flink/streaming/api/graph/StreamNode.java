@@ -54,6 +54,8 @@ public class StreamNode implements Serializable {
 	private ResourceSpec minResources = ResourceSpec.DEFAULT;
 	private ResourceSpec preferredResources = ResourceSpec.DEFAULT;
 	private Long bufferTimeout = null;
+	private boolean inputNotMutated;
+	private boolean outputNotMutated;
 	private final String operatorName;
 	private String slotSharingGroup;
 	private @Nullable String coLocationGroup;
@@ -195,6 +197,22 @@ public class StreamNode implements Serializable {
 		this.bufferTimeout = bufferTimeout;
 	}
 
+	public boolean isInputNotMutated() {
+		return inputNotMutated;
+	}
+
+	public void setInputNotMutated(boolean inputNotMutated) {
+		this.inputNotMutated = inputNotMutated;
+	}
+
+	public boolean isOutputNotMutated() {
+		return outputNotMutated;
+	}
+
+	public void setOutputNotMutated(boolean outputNotMutated) {
+		this.outputNotMutated = outputNotMutated;
+	}
+
 	public StreamOperator<?> getOperator() {
 		return operator;
 	}
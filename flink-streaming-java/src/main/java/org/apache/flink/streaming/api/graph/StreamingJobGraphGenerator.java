@@ -136,6 +136,7 @@ public class StreamingJobGraphGenerator {
 	}
 
 	private JobGraph createJobGraph() {
+		final long creationStart = System.nanoTime();
 
 		// make sure that all vertices start immediately
 		jobGraph.setScheduleMode(ScheduleMode.EAGER);
@@ -171,6 +172,11 @@ public class StreamingJobGraphGenerator {
 					"This indicates that non-serializable types (like custom serializers) were registered");
 		}
 
+		LOG.info("Created job graph with {} vertices from {} stream nodes in {} ms.",
+			jobGraph.getNumberOfVertices(),
+			streamGraph.getStreamNodes().size(),
+			(System.nanoTime() - creationStart) / 1_000_000);
+
 		return jobGraph;
 	}
 
@@ -412,6 +418,8 @@ public class StreamingJobGraphGenerator {
 
 		config.setVertexID(vertexID);
 		config.setBufferTimeout(vertex.getBufferTimeout());
+		config.setInputNotMutated(vertex.isInputNotMutated());
+		config.setOutputNotMutated(vertex.isOutputNotMutated());
 
 		config.setTypeSerializerIn1(vertex.getTypeSerializerIn1());
 		config.setTypeSerializerIn2(vertex.getTypeSerializerIn2());
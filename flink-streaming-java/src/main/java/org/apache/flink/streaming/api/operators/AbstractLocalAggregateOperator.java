@@ -0,0 +1,227 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.streaming.api.operators;
+
+import org.apache.flink.annotation.Internal;
+import org.apache.flink.annotation.VisibleForTesting;
+import org.apache.flink.api.common.functions.Function;
+import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.api.java.functions.KeySelector;
+import org.apache.flink.streaming.api.watermark.Watermark;
+import org.apache.flink.streaming.runtime.streamrecord.StreamRecord;
+import org.apache.flink.streaming.runtime.tasks.ProcessingTimeCallback;
+import org.apache.flink.streaming.runtime.tasks.ProcessingTimeService;
+
+import javax.annotation.Nullable;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.apache.flink.util.Preconditions.checkArgument;
+import static org.apache.flink.util.Preconditions.checkNotNull;
+
+/**
+ * Base class for operators that combine the elements of each key in a bounded bundle before the elements are
+ * shuffled by key. This reduces the number of records that are sent to the keyed operator downstream, in particular
+ * for hot keys.
+ *
+ * <p>The operator is not keyed itself and keeps the bundle only in memory. A bundle is emitted once it has
+ * received {@code maxBundleSize} elements, once {@code maxBundleDelay} milliseconds passed since its first element,
+ * before a watermark is forwarded, before a checkpoint barrier is emitted, and when the operator is closed. Hence no
+ * state needs to be checkpointed. Each emitted record carries the largest timestamp of the elements it combines.
+ *
+ * <p>The bundle outlives the input records. If object reuse is enabled, the keys of the bundle are therefore copied,
+ * and implementations must not keep references to input records in their accumulators.
+ *
+ * @param <K> The type of the key.
+ * @param <IN> The type of the input elements.
+ * @param <ACC> The type of the per-key accumulator in the bundle.
+ * @param <OUT> The type of the output elements.
+ * @param <F> The type of the user function.
+ */
+@Internal
+public abstract class AbstractLocalAggregateOperator<K, IN, ACC, OUT, F extends Function>
+		extends AbstractUdfStreamOperator<OUT, F>
+		implements OneInputStreamOperator<IN, OUT>, ProcessingTimeCallback {
+
+	private static final long serialVersionUID = 1L;
+
+	/** Extracts the key by which the elements are combined. */
+	private final KeySelector<IN, K> keySelector;
+
+	/** Serializer to copy the keys of the bundle, if object reuse is enabled. */
+	private final TypeSerializer<K> keySerializer;
+
+	/** The number of elements after which the bundle is emitted. */
+	private final long maxBundleSize;
+
+	/** The time in milliseconds after the first element of a bundle at which the bundle is emitted. */
+	private final long maxBundleDelay;
+
+	/** The accumulators of the current bundle. */
+	private transient Map<K, BundleEntry<ACC>> bundle;
+
+	/** The number of elements in the current bundle. */
+	private transient long numElementsInBundle;
+
+	/** Whether a processing time timer that emits the current bundle is registered. */
+	private transient boolean flushTimerRegistered;
+
+	private transient TimestampedCollector<OUT> collector;
+
+	private transient boolean objectReuseEnabled;
+
+	protected AbstractLocalAggregateOperator(
+			F userFunction,
+			KeySelector<IN, K> keySelector,
+			TypeSerializer<K> keySerializer,
+			long maxBundleSize,
+			long maxBundleDelay) {
+
+		super(userFunction);
+
+		checkArgument(maxBundleSize > 0, "The maximum bundle size must be positive.");
+		checkArgument(maxBundleDelay > 0, "The maximum bundle delay must be positive.");
+
+		this.keySelector = checkNotNull(keySelector);
+		this.keySerializer = checkNotNull(keySerializer);
+		this.maxBundleSize = maxBundleSize;
+		this.maxBundleDelay = maxBundleDelay;
+
+		chainingStrategy = ChainingStrategy.ALWAYS;
+	}
+
+	/**
+	 * Adds the given element to the accumulator of its key in the bundle.
+	 *
+	 * @param accumulator The current accumulator of the key, or {@code null} if the key is not in the bundle.
+	 * @param value The element to add.
+	 * @return The updated accumulator.
+	 */
+	protected abstract ACC addToAccumulator(@Nullable ACC accumulator, IN value) throws Exception;
+
+	/**
+	 * Creates the record that is emitted for the accumulator of a key when the bundle is emitted.
+	 */
+	protected abstract OUT createOutput(K key, ACC accumulator) throws Exception;
+
+	@Override
+	public void open() throws Exception {
+		super.open();
+
+		bundle = new HashMap<>();
+		numElementsInBundle = 0L;
+		collector = new TimestampedCollector<>(output);
+		objectReuseEnabled = getExecutionConfig().isObjectReuseEnabled();
+	}
+
+	@Override
+	public void processElement(StreamRecord<IN> element) throws Exception {
+		final IN value = element.getValue();
+		final K key = keySelector.getKey(value);
+
+		BundleEntry<ACC> entry = bundle.get(key);
+		if (entry == null) {
+			entry = new BundleEntry<>();
+			// the key may be part of an input record that is reused
+			bundle.put(objectReuseEnabled ? keySerializer.copy(key) : key, entry);
+		}
+
+		entry.accumulator = addToAccumulator(entry.accumulator, value);
+		if (element.hasTimestamp()) {
+			entry.timestamp = Math.max(entry.timestamp, element.getTimestamp());
+			entry.hasTimestamp = true;
+		}
+
+		if (++numElementsInBundle >= maxBundleSize) {
+			emitBundle();
+		} else if (!flushTimerRegistered) {
+			final ProcessingTimeService timerService = getProcessingTimeService();
+			timerService.registerTimer(timerService.getCurrentProcessingTime() + maxBundleDelay, this);
+			flushTimerRegistered = true;
+		}
+	}
+
+	@Override
+	public void onProcessingTime(long timestamp) throws Exception {
+		flushTimerRegistered = false;
+		emitBundle();
+	}
+
+	@Override
+	public void processWatermark(Watermark mark) throws Exception {
+		emitBundle();
+		super.processWatermark(mark);
+	}
+
+	@Override
+	public void prepareSnapshotPreBarrier(long checkpointId) throws Exception {
+		emitBundle();
+	}
+
+	@Override
+	public void close() throws Exception {
+		emitBundle();
+		super.close();
+	}
+
+	private void emitBundle() throws Exception {
+		if (bundle == null || bundle.isEmpty()) {
+			return;
+		}
+
+		for (Map.Entry<K, BundleEntry<ACC>> keyAndEntry : bundle.entrySet()) {
+			final BundleEntry<ACC> entry = keyAndEntry.getValue();
+			if (entry.hasTimestamp) {
+				collector.setAbsoluteTimestamp(entry.timestamp);
+			} else {
+				collector.eraseTimestamp();
+			}
+			collector.collect(createOutput(keyAndEntry.getKey(), entry.accumulator));
+		}
+
+		bundle.clear();
+		numElementsInBundle = 0L;
+	}
+
+	/**
+	 * Returns whether input records may be reused by the upstream operators after they were processed.
+	 */
+	protected boolean isObjectReuseEnabled() {
+		return objectReuseEnabled;
+	}
+
+	@VisibleForTesting
+	long getNumElementsInBundle() {
+		return numElementsInBundle;
+	}
+
+	/**
+	 * The accumulator of one key in the bundle, together with the largest timestamp of the combined elements.
+	 */
+	private static final class BundleEntry<ACC> {
+
+		@Nullable
+		private ACC accumulator;
+
+		private long timestamp = Long.MIN_VALUE;
+
+		private boolean hasTimestamp;
+	}
+}
@@ -431,10 +431,8 @@ public abstract class AbstractStreamOperator<OUT>
 	 * @param context context that provides information and means required for taking a snapshot
 	 */
 	public void snapshotState(StateSnapshotContext context) throws Exception {
-		final KeyedStateBackend<?> keyedStateBackend = getKeyedStateBackend();
 		//TODO all of this can be removed once heap-based timers are integrated with RocksDB incremental snapshots
-		if (keyedStateBackend instanceof AbstractKeyedStateBackend &&
-			((AbstractKeyedStateBackend<?>) keyedStateBackend).requiresLegacySynchronousTimerSnapshots()) {
+		if (timeServiceManager != null && timeServiceManager.isUsingLegacySynchronousSnapshots()) {
 
 			KeyedStateCheckpointOutputStream out;
 
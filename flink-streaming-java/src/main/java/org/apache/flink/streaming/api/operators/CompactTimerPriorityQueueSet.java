@@ -0,0 +1,578 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.streaming.api.operators;
+
+import org.apache.flink.annotation.Internal;
+import org.apache.flink.annotation.VisibleForTesting;
+import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.core.memory.DataInputDeserializer;
+import org.apache.flink.core.memory.DataOutputSerializer;
+import org.apache.flink.core.memory.MemorySegment;
+import org.apache.flink.core.memory.MemorySegmentFactory;
+import org.apache.flink.runtime.state.InternalPriorityQueue;
+import org.apache.flink.runtime.state.KeyExtractorFunction;
+import org.apache.flink.runtime.state.KeyGroupRange;
+import org.apache.flink.runtime.state.PriorityComparator;
+import org.apache.flink.runtime.state.heap.HeapPriorityQueueElement;
+import org.apache.flink.runtime.state.heap.KeyGroupPartitionedPriorityQueue;
+import org.apache.flink.util.CloseableIterator;
+import org.apache.flink.util.FlinkRuntimeException;
+import org.apache.flink.util.MathUtils;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.TreeMap;
+
+/**
+ * A priority queue with set semantics for the timers of one key-group that keeps timers in serialized form instead of
+ * as {@link TimerHeapInternalTimer} objects. Timers are bucketed by their timestamp. Each bucket stores the serialized
+ * key and namespace of its timers back to back in a single {@link MemorySegment}, so all timers of one timestamp are
+ * held (and fired) as one contiguous batch. Larger buckets maintain an open-addressing index of record offsets to
+ * de-duplicate timers.
+ *
+ * <p>Only the head element is held in de-serialized form. Two timers are considered equal if their serialized keys
+ * and namespaces are equal. Instances are meant to be used as partitions of a
+ * {@link KeyGroupPartitionedPriorityQueue}.
+ *
+ * @param <K> type of the timer keys.
+ * @param <N> type of the timer namespaces.
+ */
+@Internal
+public class CompactTimerPriorityQueueSet<K, N>
+	implements InternalPriorityQueue<TimerHeapInternalTimer<K, N>>, HeapPriorityQueueElement {
+
+	/** Serializer for the keys of the timers. */
+	@Nonnull
+	private final TypeSerializer<K> keySerializer;
+
+	/** Serializer for the namespaces of the timers. */
+	@Nonnull
+	private final TypeSerializer<N> namespaceSerializer;
+
+	/** Output view that helps to serialize timers. */
+	@Nonnull
+	private final DataOutputSerializer outputView;
+
+	/** Input view that helps to de-serialize timers. */
+	@Nonnull
+	private final DataInputDeserializer inputView;
+
+	/** The buckets of serialized timers, ordered by timestamp. Buckets are never empty. */
+	@Nonnull
+	private final TreeMap<Long, TimerBucket> buckets;
+
+	/** The number of timers in this queue. */
+	@Nonnegative
+	private int size;
+
+	/** Cache for the head element in de-serialized form. */
+	@Nullable
+	private TimerHeapInternalTimer<K, N> peekCache;
+
+	/** Index for management as a {@link HeapPriorityQueueElement}. */
+	private int internalIndex;
+
+	CompactTimerPriorityQueueSet(
+		@Nonnull TypeSerializer<K> keySerializer,
+		@Nonnull TypeSerializer<N> namespaceSerializer,
+		@Nonnull DataOutputSerializer outputView,
+		@Nonnull DataInputDeserializer inputView) {
+
+		this.keySerializer = keySerializer;
+		this.namespaceSerializer = namespaceSerializer;
+		this.outputView = outputView;
+		this.inputView = inputView;
+		this.buckets = new TreeMap<>();
+		this.size = 0;
+		this.internalIndex = HeapPriorityQueueElement.NOT_CONTAINED;
+	}
+
+	@Nullable
+	@Override
+	public TimerHeapInternalTimer<K, N> peek() {
+		if (peekCache == null && !buckets.isEmpty()) {
+			final Map.Entry<Long, TimerBucket> firstEntry = buckets.firstEntry();
+			final TimerBucket bucket = firstEntry.getValue();
+			peekCache = deserializeTimer(firstEntry.getKey(), bucket, bucket.firstRecordOffset());
+		}
+		return peekCache;
+	}
+
+	@Nullable
+	@Override
+	public TimerHeapInternalTimer<K, N> poll() {
+		final TimerHeapInternalTimer<K, N> head = peek();
+		if (head != null) {
+			final TimerBucket bucket = buckets.firstEntry().getValue();
+			bucket.removeRecord(bucket.firstRecordOffset());
+			if (bucket.isEmpty()) {
+				buckets.pollFirstEntry();
+			}
+			--size;
+			peekCache = null;
+		}
+		return head;
+	}
+
+	@Override
+	public boolean add(@Nonnull TimerHeapInternalTimer<K, N> toAdd) {
+		final long timestamp = toAdd.getTimestamp();
+		final int length = serializeTimer(toAdd);
+
+		TimerBucket bucket = buckets.get(timestamp);
+		final boolean newBucket = bucket == null;
+		if (newBucket) {
+			bucket = new TimerBucket(length);
+			buckets.put(timestamp, bucket);
+		}
+
+		if (!bucket.addRecord(outputView.getSharedBuffer(), length)) {
+			return false;
+		}
+
+		++size;
+
+		// the head can only change if we created a new smallest bucket, all other timers are appended behind it
+		if (newBucket && buckets.firstKey() == timestamp) {
+			peekCache = null;
+			return true;
+		}
+		return false;
+	}
+
+	@Override
+	public boolean remove(@Nonnull TimerHeapInternalTimer<K, N> toRemove) {
+		final long timestamp = toRemove.getTimestamp();
+		final TimerBucket bucket = buckets.get(timestamp);
+		if (bucket == null) {
+			return false;
+		}
+
+		final int length = serializeTimer(toRemove);
+		final int offset = bucket.findRecord(outputView.getSharedBuffer(), length);
+		if (offset < 0) {
+			return false;
+		}
+
+		final boolean removedHead = buckets.firstKey() == timestamp && offset == bucket.firstRecordOffset();
+
+		bucket.removeRecord(offset);
+		if (bucket.isEmpty()) {
+			buckets.remove(timestamp);
+		}
+		--size;
+
+		if (removedHead) {
+			peekCache = null;
+		}
+		return removedHead;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public void addAll(@Nullable Collection<? extends TimerHeapInternalTimer<K, N>> toAdd) {
+		if (toAdd == null) {
+			return;
+		}
+
+		for (TimerHeapInternalTimer<K, N> timer : toAdd) {
+			add(timer);
+		}
+	}
+
+	@Nonnull
+	@Override
+	public CloseableIterator<TimerHeapInternalTimer<K, N>> iterator() {
+		return new TimerIterator();
+	}
+
+	@Override
+	public int getInternalIndex() {
+		return internalIndex;
+	}
+
+	@Override
+	public void setInternalIndex(int newIndex) {
+		this.internalIndex = newIndex;
+	}
+
+	/**
+	 * Creates a queue for all timers of the given key-group range that is partitioned into one
+	 * {@link CompactTimerPriorityQueueSet} per key-group.
+	 */
+	static <K, N> KeyGroupPartitionedPriorityQueue<TimerHeapInternalTimer<K, N>, CompactTimerPriorityQueueSet<K, N>>
+		createKeyGroupPartitionedQueue(
+			@Nonnull TimerSerializer<K, N> timerSerializer,
+			@Nonnull KeyGroupRange keyGroupRange,
+			@Nonnegative int totalKeyGroups) {
+
+		final TypeSerializer<K> keySerializer = timerSerializer.getKeySerializer();
+		final TypeSerializer<N> namespaceSerializer = timerSerializer.getNamespaceSerializer();
+		final DataOutputSerializer outputView = new DataOutputSerializer(128);
+		final DataInputDeserializer inputView = new DataInputDeserializer();
+
+		final KeyExtractorFunction<TimerHeapInternalTimer<K, N>> keyExtractor = KeyExtractorFunction.forKeyedObjects();
+		final PriorityComparator<TimerHeapInternalTimer<K, N>> priorityComparator =
+			PriorityComparator.forPriorityComparableObjects();
+
+		return new KeyGroupPartitionedPriorityQueue<TimerHeapInternalTimer<K, N>, CompactTimerPriorityQueueSet<K, N>>(
+			keyExtractor,
+			priorityComparator,
+			(keyGroupId, numKeyGroups, keyExtractorFunction, elementPriorityComparator) ->
+				new CompactTimerPriorityQueueSet<>(keySerializer, namespaceSerializer, outputView, inputView),
+			keyGroupRange,
+			totalKeyGroups);
+	}
+
+	@VisibleForTesting
+	int numberOfBuckets() {
+		return buckets.size();
+	}
+
+	private int serializeTimer(TimerHeapInternalTimer<K, N> timer) {
+		try {
+			outputView.clear();
+			keySerializer.serialize(timer.getKey(), outputView);
+			namespaceSerializer.serialize(timer.getNamespace(), outputView);
+			return outputView.length();
+		} catch (IOException e) {
+			throw new FlinkRuntimeException("Error while serializing timer.", e);
+		}
+	}
+
+	private TimerHeapInternalTimer<K, N> deserializeTimer(long timestamp, TimerBucket bucket, int offset) {
+		try {
+			inputView.setBuffer(bucket.segment.getArray(), bucket.recordDataOffset(offset), bucket.recordLength(offset));
+			final K key = keySerializer.deserialize(inputView);
+			final N namespace = namespaceSerializer.deserialize(inputView);
+			return new TimerHeapInternalTimer<>(timestamp, key, namespace);
+		} catch (IOException e) {
+			throw new FlinkRuntimeException("Error while deserializing timer.", e);
+		}
+	}
+
+	/**
+	 * Iterator over all timers of the queue, in the order of their timestamps. The iterator creates a new de-serialized
+	 * timer for every element and does not support concurrent modifications of the queue.
+	 */
+	private final class TimerIterator implements CloseableIterator<TimerHeapInternalTimer<K, N>> {
+
+		/** Iterator over the remaining buckets. */
+		private final Iterator<Map.Entry<Long, TimerBucket>> bucketIterator;
+
+		/** The bucket from which we currently return timers. */
+		@Nullable
+		private Map.Entry<Long, TimerBucket> currentBucket;
+
+		/** Offset of the next record in the current bucket, or -1 if the current bucket is exhausted. */
+		private int nextOffset;
+
+		private TimerIterator() {
+			this.bucketIterator = buckets.entrySet().iterator();
+			this.nextOffset = -1;
+		}
+
+		@Override
+		public boolean hasNext() {
+			while (nextOffset < 0 && bucketIterator.hasNext()) {
+				currentBucket = bucketIterator.next();
+				nextOffset = currentBucket.getValue().nextRecordOffset(currentBucket.getValue().readPosition);
+			}
+			return nextOffset >= 0;
+		}
+
+		@Override
+		public TimerHeapInternalTimer<K, N> next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+
+			final TimerBucket bucket = currentBucket.getValue();
+			final TimerHeapInternalTimer<K, N> timer = deserializeTimer(currentBucket.getKey(), bucket, nextOffset);
+			nextOffset = bucket.nextRecordOffset(bucket.recordDataOffset(nextOffset) + bucket.recordLength(nextOffset));
+			return timer;
+		}
+
+		@Override
+		public void close() {
+		}
+	}
+
+	/**
+	 * All timers for one timestamp. Records are laid out as {@code [header (int)][key and namespace bytes]}, where the
+	 * header holds the length of the serialized bytes and a flag that marks removed records. The space of removed
+	 * records is reclaimed when the segment has to grow.
+	 */
+	private static final class TimerBucket {
+
+		/** Number of bytes of the header in front of each record. */
+		private static final int HEADER_BYTES = Integer.BYTES;
+
+		/** Flag in the header that marks a record as removed. */
+		private static final int REMOVED_FLAG = 0x80000000;
+
+		/** Buckets with up to this many live records are searched linearly, larger buckets build an index. */
+		private static final int MAX_RECORDS_WITHOUT_INDEX = 8;
+
+		/** The largest segment we can allocate. */
+		private static final int MAX_SEGMENT_SIZE = Integer.MAX_VALUE - 8;
+
+		/** Holds the records of this bucket. */
+		@Nonnull
+		private MemorySegment segment;
+
+		/** Offset at which the next record is appended. */
+		private int writePosition;
+
+		/** All records in front of this offset are removed. */
+		private int readPosition;
+
+		/** Number of records that are not removed. */
+		private int liveRecords;
+
+		/** Number of bytes (including headers) that are occupied by removed records. */
+		private int removedBytes;
+
+		/** Open-addressing hash index that holds the record offsets + 1, or {@code null} for small buckets. */
+		@Nullable
+		private int[] index;
+
+		/** Number of used slots in the index, including slots that point to removed records. */
+		private int usedIndexSlots;
+
+		TimerBucket(int firstRecordLength) {
+			this.segment = MemorySegmentFactory.wrap(new byte[HEADER_BYTES + firstRecordLength]);
+		}
+
+		boolean isEmpty() {
+			return liveRecords == 0;
+		}
+
+		/**
+		 * Appends the given serialized timer, if it is not already contained.
+		 *
+		 * @return true if the timer was added, false if it was already contained.
+		 */
+		boolean addRecord(byte[] bytes, int length) {
+			if (findRecord(bytes, length) >= 0) {
+				return false;
+			}
+
+			ensureCapacity(HEADER_BYTES + length);
+
+			final int offset = writePosition;
+			segment.putInt(offset, length);
+			segment.put(offset + HEADER_BYTES, bytes, 0, length);
+			writePosition += HEADER_BYTES + length;
+			++liveRecords;
+
+			if (index != null) {
+				insertIntoIndex(offset, hash(bytes, 0, length));
+			} else if (liveRecords > MAX_RECORDS_WITHOUT_INDEX) {
+				rebuildIndex();
+			}
+			return true;
+		}
+
+		/**
+		 * Returns the offset of the live record with the given bytes, or -1 if there is no such record.
+		 */
+		int findRecord(byte[] bytes, int length) {
+			if (index == null) {
+				for (int offset = nextRecordOffset(readPosition);
+					offset >= 0;
+					offset = nextRecordOffset(recordDataOffset(offset) + recordLength(offset))) {
+
+					if (recordEquals(offset, bytes, length)) {
+						return offset;
+					}
+				}
+				return -1;
+			}
+
+			final int mask = index.length - 1;
+			int slot = hash(bytes, 0, length) & mask;
+			int entry;
+			while ((entry = index[slot]) != 0) {
+				final int offset = entry - 1;
+				if (!isRemoved(offset) && recordEquals(offset, bytes, length)) {
+					return offset;
+				}
+				slot = (slot + 1) & mask;
+			}
+			return -1;
+		}
+
+		void removeRecord(int offset) {
+			final int length = recordLength(offset);
+			segment.putInt(offset, length | REMOVED_FLAG);
+			removedBytes += HEADER_BYTES + length;
+			--liveRecords;
+		}
+
+		/**
+		 * Returns the offset of the first live record. Must only be called on non-empty buckets.
+		 */
+		int firstRecordOffset() {
+			readPosition = nextRecordOffset(readPosition);
+			return readPosition;
+		}
+
+		/**
+		 * Returns the offset of the first live record at or after the given offset, or -1 if there is none.
+		 */
+		int nextRecordOffset(int offset) {
+			while (offset < writePosition) {
+				if (!isRemoved(offset)) {
+					return offset;
+				}
+				offset = recordDataOffset(offset) + recordLength(offset);
+			}
+			return -1;
+		}
+
+		int recordLength(int offset) {
+			return segment.getInt(offset) & ~REMOVED_FLAG;
+		}
+
+		int recordDataOffset(int offset) {
+			return offset + HEADER_BYTES;
+		}
+
+		private boolean isRemoved(int offset) {
+			return (segment.getInt(offset) & REMOVED_FLAG) != 0;
+		}
+
+		private boolean recordEquals(int offset, byte[] bytes, int length) {
+			if (recordLength(offset) != length) {
+				return false;
+			}
+
+			final byte[] array = segment.getArray();
+			final int dataOffset = recordDataOffset(offset);
+			for (int i = 0; i < length; i++) {
+				if (array[dataOffset + i] != bytes[i]) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		/**
+		 * Makes room for the given number of bytes behind the last record. Growing the segment also drops all
+		 * removed records.
+		 */
+		private void ensureCapacity(int requiredBytes) {
+			if ((long) writePosition + requiredBytes <= segment.size()) {
+				return;
+			}
+
+			final int liveBytes = writePosition - removedBytes;
+			long newSize = (long) liveBytes + requiredBytes;
+			// only grow if compacting does not free at least half of the segment
+			newSize = Math.max(newSize, removedBytes > liveBytes ? segment.size() : 2L * segment.size());
+			newSize = Math.min(newSize, MAX_SEGMENT_SIZE);
+
+			if (newSize < (long) liveBytes + requiredBytes) {
+				throw new FlinkRuntimeException("Too many timers registered for a single timestamp.");
+			}
+
+			final MemorySegment newSegment = MemorySegmentFactory.wrap(new byte[(int) newSize]);
+			int newWritePosition = 0;
+			for (int offset = nextRecordOffset(readPosition);
+				offset >= 0;
+				offset = nextRecordOffset(recordDataOffset(offset) + recordLength(offset))) {
+
+				final int recordBytes = HEADER_BYTES + recordLength(offset);
+				segment.copyTo(offset, newSegment, newWritePosition, recordBytes);
+				newWritePosition += recordBytes;
+			}
+
+			segment = newSegment;
+			writePosition = newWritePosition;
+			readPosition = 0;
+			removedBytes = 0;
+
+			if (index != null) {
+				rebuildIndex();
+			}
+		}
+
+		private void insertIntoIndex(int offset, int hash) {
+			if (usedIndexSlots + 1 > index.length / 2) {
+				rebuildIndex();
+				return;
+			}
+
+			final int mask = index.length - 1;
+			int slot = hash & mask;
+			while (index[slot] != 0) {
+				slot = (slot + 1) & mask;
+			}
+			index[slot] = offset + 1;
+			++usedIndexSlots;
+		}
+
+		/**
+		 * Creates a fresh index for all live records, dropping slots that point to removed records.
+		 */
+		private void rebuildIndex() {
+			index = new int[MathUtils.roundUpToPowerOfTwo((int) Math.max(16, Math.min(1 << 30, liveRecords * 4L)))];
+			usedIndexSlots = 0;
+
+			final int mask = index.length - 1;
+			final byte[] array = segment.getArray();
+			for (int offset = nextRecordOffset(readPosition);
+				offset >= 0;
+				offset = nextRecordOffset(recordDataOffset(offset) + recordLength(offset))) {
+
+				int slot = hash(array, recordDataOffset(offset), recordLength(offset)) & mask;
+				while (index[slot] != 0) {
+					slot = (slot + 1) & mask;
+				}
+				index[slot] = offset + 1;
+				++usedIndexSlots;
+			}
+		}
+
+		private static int hash(byte[] bytes, int offset, int length) {
+			int hash = 1;
+			for (int i = offset; i < offset + length; i++) {
+				hash = 31 * hash + bytes[i];
+			}
+			return MathUtils.jenkinsHash(hash);
+		}
+	}
+}
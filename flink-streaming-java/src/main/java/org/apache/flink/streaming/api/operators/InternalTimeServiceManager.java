@@ -63,17 +63,40 @@ public class InternalTimeServiceManager<K> {
 
 	private final boolean useLegacySynchronousSnapshots;
 
+	/**
+	 * Whether timers are kept in {@link CompactTimerPriorityQueueSet compact timer queues} instead of the
+	 * queues of the {@link #priorityQueueSetFactory}. Compact timers are written as raw keyed state
+	 * and therefore require legacy synchronous snapshots.
+	 */
+	private final boolean useCompactTimerStore;
+
+	/** The total number of key-groups, required to partition the compact timer queues. */
+	private final int totalKeyGroups;
+
+	/** The granularity to which the firing of processing time timers is coalesced. */
+	private final long processingTimeCoalescingGranularity;
+
 	InternalTimeServiceManager(
 		KeyGroupRange localKeyGroupRange,
 		KeyContext keyContext,
 		PriorityQueueSetFactory priorityQueueSetFactory,
-		ProcessingTimeService processingTimeService, boolean useLegacySynchronousSnapshots) {
+		ProcessingTimeService processingTimeService,
+		boolean useLegacySynchronousSnapshots,
+		boolean useCompactTimerStore,
+		int totalKeyGroups,
+		long processingTimeCoalescingGranularity) {
+
+		Preconditions.checkArgument(!useCompactTimerStore || useLegacySynchronousSnapshots,
+			"The compact timer store requires legacy synchronous snapshots.");
 
 		this.localKeyGroupRange = Preconditions.checkNotNull(localKeyGroupRange);
 		this.priorityQueueSetFactory = Preconditions.checkNotNull(priorityQueueSetFactory);
 		this.keyContext = Preconditions.checkNotNull(keyContext);
 		this.processingTimeService = Preconditions.checkNotNull(processingTimeService);
 		this.useLegacySynchronousSnapshots = useLegacySynchronousSnapshots;
+		this.useCompactTimerStore = useCompactTimerStore;
+		this.totalKeyGroups = totalKeyGroups;
+		this.processingTimeCoalescingGranularity = processingTimeCoalescingGranularity;
 
 		this.timerServices = new HashMap<>();
 	}
@@ -104,7 +127,8 @@ public class InternalTimeServiceManager<K> {
 				keyContext,
 				processingTimeService,
 				createTimerPriorityQueue(PROCESSING_TIMER_PREFIX + name, timerSerializer),
-				createTimerPriorityQueue(EVENT_TIMER_PREFIX + name, timerSerializer));
+				createTimerPriorityQueue(EVENT_TIMER_PREFIX + name, timerSerializer),
+				processingTimeCoalescingGranularity);
 
 			timerServices.put(name, timerService);
 		}
@@ -118,9 +142,28 @@ public class InternalTimeServiceManager<K> {
 	private <N> KeyGroupedInternalPriorityQueue<TimerHeapInternalTimer<K, N>> createTimerPriorityQueue(
 		String name,
 		TimerSerializer<K, N> timerSerializer) {
-		return priorityQueueSetFactory.create(
-			name,
-			timerSerializer);
+
+		final KeyGroupedInternalPriorityQueue<TimerHeapInternalTimer<K, N>> backendQueue =
+			priorityQueueSetFactory.create(
+				name,
+				timerSerializer);
+
+		if (!useCompactTimerStore) {
+			return backendQueue;
+		}
+
+		final KeyGroupedInternalPriorityQueue<TimerHeapInternalTimer<K, N>> compactQueue =
+			CompactTimerPriorityQueueSet.createKeyGroupPartitionedQueue(
+				timerSerializer,
+				localKeyGroupRange,
+				totalKeyGroups);
+
+		// move over timers that the backend restored from a snapshot that was taken without the compact store
+		TimerHeapInternalTimer<K, N> timer;
+		while ((timer = backendQueue.poll()) != null) {
+			compactQueue.add(timer);
+		}
+		return compactQueue;
 	}
 
 	public void advanceWatermark(Watermark watermark) throws Exception {
@@ -131,6 +174,14 @@ public class InternalTimeServiceManager<K> {
 
 	//////////////////				Fault Tolerance Methods				///////////////////
 
+	/**
+	 * Returns whether the timers are written as raw keyed state by
+	 * {@link #snapshotStateForKeyGroup(DataOutputView, int)}, instead of as part of the keyed state backend.
+	 */
+	public boolean isUsingLegacySynchronousSnapshots() {
+		return useLegacySynchronousSnapshots;
+	}
+
 	public void snapshotStateForKeyGroup(DataOutputView stream, int keyGroupIdx) throws IOException {
 		Preconditions.checkState(useLegacySynchronousSnapshots);
 		InternalTimerServiceSerializationProxy<K> serializationProxy =
@@ -65,6 +65,12 @@ public class InternalTimerServiceImpl<K, N> implements InternalTimerService<N>,
 
 	private final int localKeyGroupRangeStartIdx;
 
+	/**
+	 * The granularity (in milliseconds) to which the firing of processing time timers is coalesced,
+	 * or {@code 0} if every timer fires at its exact timestamp.
+	 */
+	private final long processingTimeCoalescingGranularity;
+
 	/**
 	 * The local event time, as denoted by the last received
 	 * {@link org.apache.flink.streaming.api.watermark.Watermark Watermark}.
@@ -101,11 +107,32 @@ public class InternalTimerServiceImpl<K, N> implements InternalTimerService<N>,
 		KeyGroupedInternalPriorityQueue<TimerHeapInternalTimer<K, N>> processingTimeTimersQueue,
 		KeyGroupedInternalPriorityQueue<TimerHeapInternalTimer<K, N>> eventTimeTimersQueue) {
 
+		this(
+			localKeyGroupRange,
+			keyContext,
+			processingTimeService,
+			processingTimeTimersQueue,
+			eventTimeTimersQueue,
+			0L);
+	}
+
+	InternalTimerServiceImpl(
+		KeyGroupRange localKeyGroupRange,
+		KeyContext keyContext,
+		ProcessingTimeService processingTimeService,
+		KeyGroupedInternalPriorityQueue<TimerHeapInternalTimer<K, N>> processingTimeTimersQueue,
+		KeyGroupedInternalPriorityQueue<TimerHeapInternalTimer<K, N>> eventTimeTimersQueue,
+		long processingTimeCoalescingGranularity) {
+
+		checkArgument(processingTimeCoalescingGranularity >= 0L,
+			"The processing time coalescing granularity must not be negative.");
+
 		this.keyContext = checkNotNull(keyContext);
 		this.processingTimeService = checkNotNull(processingTimeService);
 		this.localKeyGroupRange = checkNotNull(localKeyGroupRange);
 		this.processingTimeTimersQueue = checkNotNull(processingTimeTimersQueue);
 		this.eventTimeTimersQueue = checkNotNull(eventTimeTimersQueue);
+		this.processingTimeCoalescingGranularity = processingTimeCoalescingGranularity;
 
 		// find the starting index of the local key-group range
 		int startIdx = Integer.MAX_VALUE;
@@ -174,7 +201,7 @@ public class InternalTimerServiceImpl<K, N> implements InternalTimerService<N>,
 			// re-register the restored timers (if any)
 			final InternalTimer<K, N> headTimer = processingTimeTimersQueue.peek();
 			if (headTimer != null) {
-				nextTimer = processingTimeService.registerTimer(headTimer.getTimestamp(), this);
+				nextTimer = processingTimeService.registerTimer(processingTimeTriggerTime(headTimer.getTimestamp()), this);
 			}
 			this.isInitialized = true;
 		} else {
@@ -199,13 +226,14 @@ public class InternalTimerServiceImpl<K, N> implements InternalTimerService<N>,
 	public void registerProcessingTimeTimer(N namespace, long time) {
 		InternalTimer<K, N> oldHead = processingTimeTimersQueue.peek();
 		if (processingTimeTimersQueue.add(new TimerHeapInternalTimer<>(time, (K) keyContext.getCurrentKey(), namespace))) {
-			long nextTriggerTime = oldHead != null ? oldHead.getTimestamp() : Long.MAX_VALUE;
+			long nextTriggerTime = oldHead != null ? processingTimeTriggerTime(oldHead.getTimestamp()) : Long.MAX_VALUE;
+			long triggerTime = processingTimeTriggerTime(time);
 			// check if we need to re-schedule our timer to earlier
-			if (time < nextTriggerTime) {
+			if (triggerTime < nextTriggerTime) {
 				if (nextTimer != null) {
 					nextTimer.cancel(false);
 				}
-				nextTimer = processingTimeService.registerTimer(time, this);
+				nextTimer = processingTimeService.registerTimer(triggerTime, this);
 			}
 		}
 	}
@@ -240,8 +268,28 @@ public class InternalTimerServiceImpl<K, N> implements InternalTimerService<N>,
 		}
 
 		if (timer != null && nextTimer == null) {
-			nextTimer = processingTimeService.registerTimer(timer.getTimestamp(), this);
+			nextTimer = processingTimeService.registerTimer(processingTimeTriggerTime(timer.getTimestamp()), this);
+		}
+	}
+
+	/**
+	 * Returns the time at which the processing time callback for a timer with the given timestamp is scheduled.
+	 * With coalescing, this is the end of the granularity interval that contains the timestamp, so all timers
+	 * of one interval fire together. Timers always keep their original timestamps.
+	 */
+	private long processingTimeTriggerTime(long timestamp) {
+		if (processingTimeCoalescingGranularity <= 1L) {
+			return timestamp;
 		}
+
+		final long remainder = Math.floorMod(timestamp, processingTimeCoalescingGranularity);
+		if (remainder == 0L) {
+			return timestamp;
+		}
+
+		final long triggerTime = timestamp - remainder + processingTimeCoalescingGranularity;
+		// guard against overflow for timestamps close to Long.MAX_VALUE
+		return triggerTime < timestamp ? Long.MAX_VALUE : triggerTime;
 	}
 
 	public void advanceWatermark(long time) throws Exception {
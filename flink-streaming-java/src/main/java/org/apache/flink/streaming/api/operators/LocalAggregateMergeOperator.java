@@ -0,0 +1,81 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.streaming.api.operators;
+
+import org.apache.flink.annotation.Internal;
+import org.apache.flink.api.common.functions.AggregateFunction;
+import org.apache.flink.api.common.state.ValueState;
+import org.apache.flink.api.common.state.ValueStateDescriptor;
+import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.api.java.tuple.Tuple2;
+import org.apache.flink.streaming.runtime.streamrecord.StreamRecord;
+
+import static org.apache.flink.util.Preconditions.checkNotNull;
+
+/**
+ * A {@link StreamOperator} that merges the accumulators which were pre-aggregated by a
+ * {@link LocalAggregateOperator} on a {@link org.apache.flink.streaming.api.datastream.KeyedStream}. The operator
+ * keeps the merged accumulator of each key in keyed state and emits the current result of the
+ * {@link AggregateFunction} for every received accumulator.
+ *
+ * @param <K> The type of the key.
+ * @param <ACC> The type of the accumulator.
+ * @param <OUT> The type of the aggregation result.
+ */
+@Internal
+public class LocalAggregateMergeOperator<K, ACC, OUT>
+		extends AbstractUdfStreamOperator<OUT, AggregateFunction<?, ACC, OUT>>
+		implements OneInputStreamOperator<Tuple2<K, ACC>, OUT> {
+
+	private static final long serialVersionUID = 1L;
+
+	private static final String STATE_NAME = "_op_state";
+
+	private final TypeSerializer<ACC> accumulatorSerializer;
+
+	private transient ValueState<ACC> accumulators;
+
+	public LocalAggregateMergeOperator(
+			AggregateFunction<?, ACC, OUT> aggregateFunction,
+			TypeSerializer<ACC> accumulatorSerializer) {
+
+		super(aggregateFunction);
+		this.accumulatorSerializer = checkNotNull(accumulatorSerializer);
+	}
+
+	@Override
+	public void open() throws Exception {
+		super.open();
+		ValueStateDescriptor<ACC> stateId = new ValueStateDescriptor<>(STATE_NAME, accumulatorSerializer);
+		accumulators = getPartitionedState(stateId);
+	}
+
+	@Override
+	public void processElement(StreamRecord<Tuple2<K, ACC>> element) throws Exception {
+		ACC accumulator = element.getValue().f1;
+		ACC currentAccumulator = accumulators.value();
+
+		if (currentAccumulator != null) {
+			accumulator = userFunction.merge(currentAccumulator, accumulator);
+		}
+
+		accumulators.update(accumulator);
+		output.collect(element.replace(userFunction.getResult(accumulator)));
+	}
+}
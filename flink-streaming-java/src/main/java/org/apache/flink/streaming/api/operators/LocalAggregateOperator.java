@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.streaming.api.operators;
+
+import org.apache.flink.annotation.Internal;
+import org.apache.flink.api.common.functions.AggregateFunction;
+import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.api.java.functions.KeySelector;
+import org.apache.flink.api.java.tuple.Tuple2;
+
+import javax.annotation.Nullable;
+
+import static org.apache.flink.util.Preconditions.checkNotNull;
+
+/**
+ * A {@link StreamOperator} that pre-aggregates the elements of each key into an accumulator of an
+ * {@link AggregateFunction} before they are shuffled to a
+ * {@link org.apache.flink.streaming.api.datastream.KeyedStream}. The operator emits the key together with the
+ * accumulator, so that a downstream {@link LocalAggregateMergeOperator} can
+ * {@link AggregateFunction#merge(Object, Object) merge} the accumulators of each key.
+ *
+ * @param <K> The type of the key.
+ * @param <IN> The type of the input elements.
+ * @param <ACC> The type of the accumulator.
+ */
+@Internal
+public class LocalAggregateOperator<K, IN, ACC>
+		extends AbstractLocalAggregateOperator<K, IN, ACC, Tuple2<K, ACC>, AggregateFunction<IN, ACC, ?>> {
+
+	private static final long serialVersionUID = 1L;
+
+	/** Serializer to copy the input elements, which the accumulators may reference, if object reuse is enabled. */
+	private final TypeSerializer<IN> inputSerializer;
+
+	public LocalAggregateOperator(
+			AggregateFunction<IN, ACC, ?> aggregateFunction,
+			KeySelector<IN, K> keySelector,
+			TypeSerializer<K> keySerializer,
+			TypeSerializer<IN> inputSerializer,
+			long maxBundleSize,
+			long maxBundleDelay) {
+
+		super(aggregateFunction, keySelector, keySerializer, maxBundleSize, maxBundleDelay);
+		this.inputSerializer = checkNotNull(inputSerializer);
+	}
+
+	@Override
+	protected ACC addToAccumulator(@Nullable ACC accumulator, IN value) {
+		return userFunction.add(
+			isObjectReuseEnabled() ? inputSerializer.copy(value) : value,
+			accumulator == null ? userFunction.createAccumulator() : accumulator);
+	}
+
+	@Override
+	protected Tuple2<K, ACC> createOutput(K key, ACC accumulator) {
+		return new Tuple2<>(key, accumulator);
+	}
+
+	/**
+	 * A {@link KeySelector} that selects the key of the records emitted by a {@link LocalAggregateOperator}.
+	 *
+	 * @param <K> The type of the key.
+	 * @param <ACC> The type of the accumulator.
+	 */
+	@Internal
+	public static class AccumulatorKeySelector<K, ACC> implements KeySelector<Tuple2<K, ACC>, K> {
+
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		public K getKey(Tuple2<K, ACC> value) {
+			return value.f0;
+		}
+	}
+}
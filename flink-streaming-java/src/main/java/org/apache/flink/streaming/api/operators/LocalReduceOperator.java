@@ -0,0 +1,71 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.streaming.api.operators;
+
+import org.apache.flink.annotation.Internal;
+import org.apache.flink.api.common.functions.ReduceFunction;
+import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.api.java.functions.KeySelector;
+
+import javax.annotation.Nullable;
+
+import static org.apache.flink.util.Preconditions.checkNotNull;
+
+/**
+ * A {@link StreamOperator} that pre-reduces the elements of each key with a {@link ReduceFunction} before they
+ * are shuffled to a {@link org.apache.flink.streaming.api.datastream.KeyedStream}.
+ *
+ * @param <K> The type of the key.
+ * @param <T> The type of the reduced elements.
+ */
+@Internal
+public class LocalReduceOperator<K, T> extends AbstractLocalAggregateOperator<K, T, T, T, ReduceFunction<T>> {
+
+	private static final long serialVersionUID = 1L;
+
+	private final TypeSerializer<T> serializer;
+
+	public LocalReduceOperator(
+			ReduceFunction<T> reducer,
+			KeySelector<T, K> keySelector,
+			TypeSerializer<K> keySerializer,
+			TypeSerializer<T> serializer,
+			long maxBundleSize,
+			long maxBundleDelay) {
+
+		super(reducer, keySelector, keySerializer, maxBundleSize, maxBundleDelay);
+		this.serializer = checkNotNull(serializer);
+	}
+
+	@Override
+	protected T addToAccumulator(@Nullable T accumulator, T value) throws Exception {
+		if (accumulator == null) {
+			return serializer.copy(value);
+		}
+
+		// the bundle must not hold on to input objects, they may be reused
+		final T reduced = userFunction.reduce(accumulator, value);
+		return reduced == value ? serializer.copy(reduced) : reduced;
+	}
+
+	@Override
+	protected T createOutput(K key, T accumulator) {
+		return accumulator;
+	}
+}
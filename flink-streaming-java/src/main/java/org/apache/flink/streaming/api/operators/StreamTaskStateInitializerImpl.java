@@ -21,6 +21,8 @@ package org.apache.flink.streaming.api.operators;
 import org.apache.flink.api.common.TaskInfo;
 import org.apache.flink.api.common.typeutils.TypeSerializer;
 import org.apache.flink.api.java.tuple.Tuple2;
+import org.apache.flink.configuration.CheckpointingOptions;
+import org.apache.flink.configuration.Configuration;
 import org.apache.flink.core.fs.CloseableRegistry;
 import org.apache.flink.core.fs.FSDataInputStream;
 import org.apache.flink.metrics.MetricGroup;
@@ -41,6 +43,7 @@ import org.apache.flink.runtime.state.StateBackend;
 import org.apache.flink.runtime.state.StatePartitionStreamProvider;
 import org.apache.flink.runtime.state.StreamStateHandle;
 import org.apache.flink.runtime.state.TaskStateManager;
+import org.apache.flink.runtime.state.heap.HeapKeyedStateBackend;
 import org.apache.flink.runtime.state.ttl.TtlTimeProvider;
 import org.apache.flink.runtime.util.OperatorSubtaskDescriptionText;
 import org.apache.flink.streaming.runtime.tasks.ProcessingTimeService;
@@ -207,12 +210,23 @@ public class StreamTaskStateInitializerImpl implements StreamTaskStateInitialize
 
 		final KeyGroupRange keyGroupRange = keyedStatedBackend.getKeyGroupRange();
 
+		final Configuration configuration = environment.getTaskManagerInfo().getConfiguration();
+
+		// the compact store only replaces timers that would otherwise be kept on the heap
+		final boolean useCompactTimerStore =
+			configuration.getBoolean(CheckpointingOptions.TIMER_SERVICE_COMPACT_STORE) &&
+				(keyedStatedBackend instanceof HeapKeyedStateBackend ||
+					keyedStatedBackend.requiresLegacySynchronousTimerSnapshots());
+
 		final InternalTimeServiceManager<K> timeServiceManager = new InternalTimeServiceManager<>(
 			keyGroupRange,
 			keyContext,
 			keyedStatedBackend,
 			processingTimeService,
-			keyedStatedBackend.requiresLegacySynchronousTimerSnapshots());
+			keyedStatedBackend.requiresLegacySynchronousTimerSnapshots() || useCompactTimerStore,
+			useCompactTimerStore,
+			keyedStatedBackend.getNumberOfKeyGroups(),
+			configuration.getLong(CheckpointingOptions.TIMER_SERVICE_PROCESSING_TIME_COALESCING));
 
 		// and then initialize the timer services
 		for (KeyGroupStatePartitionStreamProvider streamProvider : rawKeyedStates) {
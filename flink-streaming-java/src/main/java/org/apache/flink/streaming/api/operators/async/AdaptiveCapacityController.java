@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.streaming.api.operators.async;
+
+import org.apache.flink.annotation.Internal;
+
+import static org.apache.flink.util.Preconditions.checkArgument;
+
+/**
+ * Limits the number of in-flight asynchronous requests of the {@link AsyncWaitOperator} based on
+ * the observed request latency. The limit is adjusted with an additive increase, multiplicative
+ * decrease scheme between a minimum and a maximum capacity: it grows by one after a full limit of
+ * requests has completed within the target latency, and it is halved when a request is slower than
+ * the target latency, times out or fails.
+ *
+ * <p>In order to not collapse the limit when all in-flight requests of a slow period complete at
+ * once, the limit is decreased at most once per limit of completed requests.
+ *
+ * <p>The limit may be read by any thread. The updates are synchronized, since requests are
+ * completed by the threads of the asynchronous clients.
+ */
+@Internal
+public class AdaptiveCapacityController {
+
+	private final int minCapacity;
+
+	private final int maxCapacity;
+
+	private final long targetLatency;
+
+	/** The current limit of in-flight requests. */
+	private volatile int capacity;
+
+	/** The number of requests completed within the target latency since the last increase. */
+	private int numFastSinceIncrease;
+
+	/** The number of requests completed since the last decrease. */
+	private int numCompletedSinceDecrease;
+
+	public AdaptiveCapacityController(int minCapacity, int maxCapacity, long targetLatency) {
+		checkArgument(minCapacity > 0, "The minimum capacity must be positive.");
+		checkArgument(minCapacity <= maxCapacity, "The minimum capacity must not exceed the maximum capacity.");
+		checkArgument(targetLatency > 0, "The target latency must be positive.");
+
+		this.minCapacity = minCapacity;
+		this.maxCapacity = maxCapacity;
+		this.targetLatency = targetLatency;
+
+		this.capacity = maxCapacity;
+		this.numCompletedSinceDecrease = maxCapacity;
+	}
+
+	/**
+	 * Returns the current limit of in-flight requests.
+	 */
+	public int getCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * Reports a successfully completed request with the given latency in milliseconds.
+	 */
+	public synchronized void onSuccess(long latency) {
+		if (latency > targetLatency) {
+			onFailure();
+			return;
+		}
+
+		numCompletedSinceDecrease++;
+
+		if (++numFastSinceIncrease >= capacity) {
+			numFastSinceIncrease = 0;
+			capacity = Math.min(maxCapacity, capacity + 1);
+		}
+	}
+
+	/**
+	 * Reports a request which was too slow, timed out, or failed.
+	 */
+	public synchronized void onFailure() {
+		numFastSinceIncrease = 0;
+
+		if (numCompletedSinceDecrease >= capacity) {
+			numCompletedSinceDecrease = 0;
+			capacity = Math.max(minCapacity, capacity / 2);
+		} else {
+			numCompletedSinceDecrease++;
+		}
+	}
+}
@@ -22,10 +22,17 @@ import org.apache.flink.annotation.Internal;
 import org.apache.flink.api.common.state.ListState;
 import org.apache.flink.api.common.state.ListStateDescriptor;
 import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.api.java.functions.KeySelector;
+import org.apache.flink.metrics.Counter;
+import org.apache.flink.metrics.Gauge;
+import org.apache.flink.metrics.Histogram;
+import org.apache.flink.metrics.MetricGroup;
+import org.apache.flink.runtime.metrics.DescriptiveStatisticsHistogram;
 import org.apache.flink.runtime.state.StateInitializationContext;
 import org.apache.flink.runtime.state.StateSnapshotContext;
 import org.apache.flink.streaming.api.datastream.AsyncDataStream;
 import org.apache.flink.streaming.api.datastream.AsyncDataStream.OutputMode;
+import org.apache.flink.streaming.api.datastream.AsyncWaitOptions;
 import org.apache.flink.streaming.api.functions.async.AsyncFunction;
 import org.apache.flink.streaming.api.functions.async.ResultFuture;
 import org.apache.flink.streaming.api.graph.StreamConfig;
@@ -33,6 +40,7 @@ import org.apache.flink.streaming.api.operators.AbstractUdfStreamOperator;
 import org.apache.flink.streaming.api.operators.ChainingStrategy;
 import org.apache.flink.streaming.api.operators.OneInputStreamOperator;
 import org.apache.flink.streaming.api.operators.Output;
+import org.apache.flink.streaming.api.operators.async.queue.KeyOrderedStreamElementQueue;
 import org.apache.flink.streaming.api.operators.async.queue.OrderedStreamElementQueue;
 import org.apache.flink.streaming.api.operators.async.queue.StreamElementQueue;
 import org.apache.flink.streaming.api.operators.async.queue.StreamElementQueueEntry;
@@ -43,16 +51,19 @@ import org.apache.flink.streaming.api.watermark.Watermark;
 import org.apache.flink.streaming.runtime.streamrecord.StreamElement;
 import org.apache.flink.streaming.runtime.streamrecord.StreamElementSerializer;
 import org.apache.flink.streaming.runtime.streamrecord.StreamRecord;
-import org.apache.flink.streaming.runtime.tasks.ProcessingTimeCallback;
+import org.apache.flink.streaming.runtime.tasks.ProcessingTimeService;
 import org.apache.flink.streaming.runtime.tasks.StreamTask;
 import org.apache.flink.util.ExceptionUtils;
 import org.apache.flink.util.Preconditions;
 
+import javax.annotation.Nullable;
+
 import java.util.Collection;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * The {@link AsyncWaitOperator} allows to asynchronously process incoming stream records. For that
@@ -66,6 +77,9 @@ import java.util.concurrent.TimeUnit;
  * operator stores all currently in-flight {@link StreamElement} in it's operator state. Upon
  * recovery the recorded set of stream elements is replayed.
  *
+ * <p>Failed and timed out requests can be retried with a backoff, and the number of in-flight
+ * requests can be adapted to the observed request latency, see {@link AsyncWaitOptions}.
+ *
  * <p>In case of chaining of this operator, it has to be made sure that the operators in the chain are
  * opened tail to head. The reason for this is that an opened {@link AsyncWaitOperator} starts
  * already emitting recovered {@link StreamElement} to downstream operators.
@@ -81,6 +95,9 @@ public class AsyncWaitOperator<IN, OUT>
 
 	private static final String STATE_NAME = "_async_wait_operator_state_";
 
+	/** The number of request latencies from which the latency histogram is computed. */
+	private static final int LATENCY_HISTORY_SIZE = 128;
+
 	/** Capacity of the stream element queue. */
 	private final int capacity;
 
@@ -90,6 +107,13 @@ public class AsyncWaitOperator<IN, OUT>
 	/** Timeout for the async collectors. */
 	private final long timeout;
 
+	/** Key selector for the key ordered output mode. */
+	@Nullable
+	private final KeySelector<IN, ?> keySelector;
+
+	/** Adaptive capacity and retry options. */
+	private final AsyncWaitOptions options;
+
 	protected transient Object checkpointingLock;
 
 	/** {@link TypeSerializer} for inputs while making snapshots. */
@@ -112,11 +136,31 @@ public class AsyncWaitOperator<IN, OUT>
 	/** Thread running the emitter. */
 	private transient Thread emitterThread;
 
+	/** Limits the number of in-flight requests if the capacity is adaptive; otherwise null. */
+	@Nullable
+	private transient AdaptiveCapacityController capacityController;
+
+	private transient Histogram requestLatency;
+
+	private transient Counter numTimeouts;
+
+	private transient Counter numRetries;
+
 	public AsyncWaitOperator(
 			AsyncFunction<IN, OUT> asyncFunction,
 			long timeout,
 			int capacity,
 			AsyncDataStream.OutputMode outputMode) {
+		this(asyncFunction, timeout, capacity, outputMode, null, AsyncWaitOptions.DEFAULT);
+	}
+
+	public AsyncWaitOperator(
+			AsyncFunction<IN, OUT> asyncFunction,
+			long timeout,
+			int capacity,
+			AsyncDataStream.OutputMode outputMode,
+			@Nullable KeySelector<IN, ?> keySelector,
+			AsyncWaitOptions options) {
 		super(asyncFunction);
 		chainingStrategy = ChainingStrategy.ALWAYS;
 
@@ -124,8 +168,16 @@ public class AsyncWaitOperator<IN, OUT>
 		this.capacity = capacity;
 
 		this.outputMode = Preconditions.checkNotNull(outputMode, "outputMode");
+		Preconditions.checkArgument(outputMode != OutputMode.KEY_ORDERED || keySelector != null,
+			"The key ordered output mode requires a key selector.");
 
 		this.timeout = timeout;
+
+		this.keySelector = keySelector;
+
+		this.options = Preconditions.checkNotNull(options, "options");
+		Preconditions.checkArgument(options.getMinCapacity() <= capacity,
+			"The minimum capacity must not exceed the capacity.");
 	}
 
 	@Override
@@ -135,7 +187,8 @@ public class AsyncWaitOperator<IN, OUT>
 		this.checkpointingLock = getContainingTask().getCheckpointLock();
 
 		this.inStreamElementSerializer = new StreamElementSerializer<>(
-			getOperatorConfig().<IN>getTypeSerializerIn1(getUserCodeClassloader()));
+			getOperatorConfig().<IN>getTypeSerializerIn1(getUserCodeClassloader()),
+			getExecutionConfig().isCompactSerializationEnabled());
 
 		// create the operators executor for the complete operations of the queue entries
 		this.executor = Executors.newSingleThreadExecutor();
@@ -153,6 +206,13 @@ public class AsyncWaitOperator<IN, OUT>
 					executor,
 					this);
 				break;
+			case KEY_ORDERED:
+				queue = new KeyOrderedStreamElementQueue(
+					capacity,
+					executor,
+					this,
+					keySelector);
+				break;
 			default:
 				throw new IllegalStateException("Unknown async mode: " + outputMode + '.');
 		}
@@ -162,6 +222,20 @@ public class AsyncWaitOperator<IN, OUT>
 	public void open() throws Exception {
 		super.open();
 
+		if (options.isAdaptiveCapacity()) {
+			capacityController = new AdaptiveCapacityController(
+				options.getMinCapacity(),
+				capacity,
+				options.getTargetLatency());
+		}
+
+		MetricGroup metricGroup = getMetricGroup();
+		metricGroup.gauge("queueSize", (Gauge<Integer>) () -> queue.size());
+		metricGroup.gauge("queueCapacity", (Gauge<Integer>) this::getCurrentCapacity);
+		requestLatency = metricGroup.histogram("requestLatency", new DescriptiveStatisticsHistogram(LATENCY_HISTORY_SIZE));
+		numTimeouts = metricGroup.counter("numTimeouts");
+		numRetries = metricGroup.counter("numRetries");
+
 		// create the emitter
 		this.emitter = new Emitter<>(checkpointingLock, output, queue, this);
 
@@ -199,31 +273,12 @@ public class AsyncWaitOperator<IN, OUT>
 	public void processElement(StreamRecord<IN> element) throws Exception {
 		final StreamRecordQueueEntry<OUT> streamRecordBufferEntry = new StreamRecordQueueEntry<>(element);
 
-		if (timeout > 0L) {
-			// register a timeout for this AsyncStreamRecordBufferEntry
-			long timeoutTimestamp = timeout + getProcessingTimeService().getCurrentProcessingTime();
-
-			final ScheduledFuture<?> timerFuture = getProcessingTimeService().registerTimer(
-				timeoutTimestamp,
-				new ProcessingTimeCallback() {
-					@Override
-					public void onProcessingTime(long timestamp) throws Exception {
-						userFunction.timeout(element.getValue(), streamRecordBufferEntry);
-					}
-				});
-
-			// Cancel the timer once we've completed the stream record buffer entry. This will remove
-			// the register trigger task
-			streamRecordBufferEntry.onComplete(
-				(StreamElementQueueEntry<Collection<OUT>> value) -> {
-					timerFuture.cancel(true);
-				},
-				executor);
-		}
+		final RequestAttempt attempt = new RequestAttempt(element.getValue(), streamRecordBufferEntry, 0);
+		attempt.registerTimeout();
 
 		addAsyncBufferEntry(streamRecordBufferEntry);
 
-		userFunction.asyncInvoke(element.getValue(), streamRecordBufferEntry);
+		attempt.invoke();
 	}
 
 	@Override
@@ -398,7 +453,7 @@ public class AsyncWaitOperator<IN, OUT>
 
 		pendingStreamElementQueueEntry = streamElementQueueEntry;
 
-		while (!queue.tryPut(streamElementQueueEntry)) {
+		while (!hasCapacity(streamElementQueueEntry) || !queue.tryPut(streamElementQueueEntry)) {
 			// we wait for the emitter to notify us if the queue has space left again
 			checkpointingLock.wait();
 		}
@@ -406,8 +461,130 @@ public class AsyncWaitOperator<IN, OUT>
 		pendingStreamElementQueueEntry = null;
 	}
 
+	/**
+	 * Checks whether the given entry may be added with respect to the adaptive capacity. Watermarks
+	 * are not limited by the adaptive capacity.
+	 */
+	private boolean hasCapacity(StreamElementQueueEntry<?> streamElementQueueEntry) {
+		return capacityController == null
+			|| streamElementQueueEntry.isWatermark()
+			|| queue.size() < capacityController.getCapacity();
+	}
+
+	private int getCurrentCapacity() {
+		return capacityController == null ? capacity : capacityController.getCapacity();
+	}
+
 	@Override
 	public void failOperator(Throwable throwable) {
 		getContainingTask().getEnvironment().failExternally(throwable);
 	}
+
+	/**
+	 * The {@link ResultFuture} of one attempt of an asynchronous request. It forwards the result of
+	 * the attempt to the stream record queue entry, or schedules another attempt after a backoff if
+	 * the attempt failed and retries are left. Only the first completion of an attempt counts.
+	 */
+	private final class RequestAttempt implements ResultFuture<OUT> {
+
+		private final IN input;
+
+		private final StreamRecordQueueEntry<OUT> streamRecordBufferEntry;
+
+		private final int retry;
+
+		private final AtomicBoolean completed = new AtomicBoolean(false);
+
+		private long startTime;
+
+		@Nullable
+		private volatile ScheduledFuture<?> timeoutTimer;
+
+		RequestAttempt(IN input, StreamRecordQueueEntry<OUT> streamRecordBufferEntry, int retry) {
+			this.input = input;
+			this.streamRecordBufferEntry = streamRecordBufferEntry;
+			this.retry = retry;
+		}
+
+		void registerTimeout() {
+			if (timeout > 0L) {
+				// register a timeout for this attempt
+				final ProcessingTimeService processingTimeService = getProcessingTimeService();
+				timeoutTimer = processingTimeService.registerTimer(
+					processingTimeService.getCurrentProcessingTime() + timeout,
+					timestamp -> {
+						if (!completed.get()) {
+							numTimeouts.inc();
+							userFunction.timeout(input, this);
+						}
+					});
+
+				// FLINK-5652: cancel the timer if the attempt has been completed concurrently, the
+				// trigger task would otherwise hold a reference on the stream record queue entry
+				if (completed.get()) {
+					cancelTimeout();
+				}
+			}
+		}
+
+		void invoke() throws Exception {
+			startTime = System.nanoTime();
+			userFunction.asyncInvoke(input, this);
+		}
+
+		@Override
+		public void complete(Collection<OUT> result) {
+			if (completed.compareAndSet(false, true)) {
+				cancelTimeout();
+
+				final long latency = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+				synchronized (requestLatency) {
+					requestLatency.update(latency);
+				}
+				if (capacityController != null) {
+					capacityController.onSuccess(latency);
+				}
+
+				streamRecordBufferEntry.complete(result);
+			}
+		}
+
+		@Override
+		public void completeExceptionally(Throwable error) {
+			if (completed.compareAndSet(false, true)) {
+				cancelTimeout();
+
+				if (capacityController != null) {
+					capacityController.onFailure();
+				}
+
+				if (retry < options.getMaxRetries()) {
+					numRetries.inc();
+					scheduleRetry();
+				} else {
+					streamRecordBufferEntry.completeExceptionally(error);
+				}
+			}
+		}
+
+		private void scheduleRetry() {
+			final ProcessingTimeService processingTimeService = getProcessingTimeService();
+			processingTimeService.registerTimer(
+				processingTimeService.getCurrentProcessingTime() + options.getRetryBackoff(retry + 1),
+				timestamp -> {
+					if (!streamRecordBufferEntry.isDone()) {
+						RequestAttempt nextAttempt = new RequestAttempt(input, streamRecordBufferEntry, retry + 1);
+						nextAttempt.registerTimeout();
+						nextAttempt.invoke();
+					}
+				});
+		}
+
+		private void cancelTimeout() {
+			final ScheduledFuture<?> timer = timeoutTimer;
+			if (timer != null) {
+				timer.cancel(true);
+			}
+		}
+	}
 }
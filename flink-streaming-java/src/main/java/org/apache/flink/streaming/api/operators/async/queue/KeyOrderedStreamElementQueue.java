@@ -0,0 +1,389 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.streaming.api.operators.async.queue;
+
+import org.apache.flink.annotation.Internal;
+import org.apache.flink.api.java.functions.KeySelector;
+import org.apache.flink.streaming.api.operators.async.OperatorActions;
+import org.apache.flink.util.FlinkRuntimeException;
+import org.apache.flink.util.Preconditions;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Key ordered implementation of the {@link StreamElementQueue}. The key ordered stream element
+ * queue emits the asynchronous results of stream records with the same key in the order in which
+ * the records were inserted, whereas the results of different keys are emitted independently of
+ * each other as soon as they are completed. Thus, a slow request only delays the subsequent
+ * results of its own key.
+ *
+ * <p>Like the {@link UnorderedStreamElementQueue}, the queue maintains the watermark-stream record
+ * order. No stream record can be overtaken by a watermark and no watermark can overtake a stream
+ * record.
+ */
+@Internal
+public class KeyOrderedStreamElementQueue implements StreamElementQueue {
+
+	private static final Logger LOG = LoggerFactory.getLogger(KeyOrderedStreamElementQueue.class);
+
+	/** Key under which watermarks are stored in their segment. */
+	private static final Object WATERMARK_KEY = new Object();
+
+	/** Capacity of this queue. */
+	private final int capacity;
+
+	/** Executor to run the onComplete callbacks. */
+	private final Executor executor;
+
+	/** OperatorActions to signal the owning operator a failure. */
+	private final OperatorActions operatorActions;
+
+	/** Extracts the key of the stream records. */
+	private final KeySelector<Object, ?> keySelector;
+
+	/** Queue of segments of uncompleted stream element queue entries separated by watermarks. */
+	private final ArrayDeque<Segment> uncompletedQueue;
+
+	/** Queue of completed stream element queue entries. */
+	private final ArrayDeque<StreamElementQueueEntry<?>> completedQueue;
+
+	/** Keys of the uncompleted stream element queue entries. */
+	private final Map<StreamElementQueueEntry<?>, Object> keys;
+
+	/** First (chronologically oldest) segment of uncompleted stream element queue entries. */
+	private Segment firstSegment;
+
+	// Last (chronologically youngest) segment of uncompleted stream element queue entries. New
+	// stream element queue entries are inserted into this segment.
+	private Segment lastSegment;
+	private volatile int numberEntries;
+
+	/** Locks and conditions for the blocking queue. */
+	private final ReentrantLock lock;
+	private final Condition notFull;
+	private final Condition hasCompletedEntries;
+
+	@SuppressWarnings("unchecked")
+	public KeyOrderedStreamElementQueue(
+			int capacity,
+			Executor executor,
+			OperatorActions operatorActions,
+			KeySelector<?, ?> keySelector) {
+
+		Preconditions.checkArgument(capacity > 0, "The capacity must be larger than 0.");
+		this.capacity = capacity;
+
+		this.executor = Preconditions.checkNotNull(executor, "executor");
+
+		this.operatorActions = Preconditions.checkNotNull(operatorActions, "operatorActions");
+
+		this.keySelector = (KeySelector<Object, ?>) Preconditions.checkNotNull(keySelector, "keySelector");
+
+		this.uncompletedQueue = new ArrayDeque<>(capacity);
+		this.completedQueue = new ArrayDeque<>(capacity);
+		this.keys = new HashMap<>(capacity);
+
+		this.firstSegment = new Segment();
+		this.lastSegment = firstSegment;
+
+		this.numberEntries = 0;
+
+		this.lock = new ReentrantLock();
+		this.notFull = lock.newCondition();
+		this.hasCompletedEntries = lock.newCondition();
+	}
+
+	@Override
+	public <T> void put(StreamElementQueueEntry<T> streamElementQueueEntry) throws InterruptedException {
+		lock.lockInterruptibly();
+
+		try {
+			while (numberEntries >= capacity) {
+				notFull.await();
+			}
+
+			addEntry(streamElementQueueEntry);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public <T> boolean tryPut(StreamElementQueueEntry<T> streamElementQueueEntry) throws InterruptedException {
+		lock.lockInterruptibly();
+
+		try {
+			if (numberEntries < capacity) {
+				addEntry(streamElementQueueEntry);
+
+				LOG.debug("Put element into key ordered stream element queue. New filling degree " +
+					"({}/{}).", numberEntries, capacity);
+
+				return true;
+			} else {
+				LOG.debug("Failed to put element into key ordered stream element queue because it " +
+					"was full ({}/{}).", numberEntries, capacity);
+
+				return false;
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public AsyncResult peekBlockingly() throws InterruptedException {
+		lock.lockInterruptibly();
+
+		try {
+			while (completedQueue.isEmpty()) {
+				hasCompletedEntries.await();
+			}
+
+			LOG.debug("Peeked head element from key ordered stream element queue with filling degree " +
+				"({}/{}).", numberEntries, capacity);
+
+			return completedQueue.peek();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public AsyncResult poll() throws InterruptedException {
+		lock.lockInterruptibly();
+
+		try {
+			while (completedQueue.isEmpty()) {
+				hasCompletedEntries.await();
+			}
+
+			numberEntries--;
+			notFull.signalAll();
+
+			LOG.debug("Polled element from key ordered stream element queue. New filling degree " +
+				"({}/{}).", numberEntries, capacity);
+
+			return completedQueue.poll();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public Collection<StreamElementQueueEntry<?>> values() throws InterruptedException {
+		lock.lockInterruptibly();
+
+		try {
+			List<StreamElementQueueEntry<?>> values = new ArrayList<>(numberEntries);
+
+			values.addAll(completedQueue);
+
+			firstSegment.addEntriesTo(values);
+
+			for (Segment segment : uncompletedQueue) {
+				segment.addEntriesTo(values);
+			}
+
+			return values;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return numberEntries == 0;
+	}
+
+	@Override
+	public int size() {
+		return numberEntries;
+	}
+
+	/**
+	 * Callback for onComplete events for the given stream element queue entry. Whenever a queue
+	 * entry of the first segment is completed, the completed entries at the head of the entries of
+	 * its key are added to the completed entries queue from where they can be consumed. If the first
+	 * segment becomes empty, then the next segment is polled from the uncompleted entries queue.
+	 * Completed entries at the heads of the keys of this new segment are then added to the
+	 * completed entries queue.
+	 *
+	 * @param streamElementQueueEntry which has been completed
+	 * @throws InterruptedException if the current thread has been interrupted while performing the
+	 * 	on complete callback.
+	 */
+	public void onCompleteHandler(StreamElementQueueEntry<?> streamElementQueueEntry) throws InterruptedException {
+		lock.lockInterruptibly();
+
+		try {
+			final Object key = keys.get(streamElementQueueEntry);
+
+			if (key != null && moveCompletedEntries(firstSegment, key)) {
+				while (firstSegment.isEmpty() && firstSegment != lastSegment) {
+					firstSegment = uncompletedQueue.poll();
+
+					for (Object segmentKey : firstSegment.keys()) {
+						moveCompletedEntries(firstSegment, segmentKey);
+					}
+				}
+
+				LOG.debug("Signal key ordered stream element queue has completed entries.");
+				hasCompletedEntries.signalAll();
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Moves the completed entries at the head of the entries of the given key in the given segment
+	 * to the completed entries queue.
+	 *
+	 * @return True if at least one entry has been moved; otherwise false.
+	 */
+	private boolean moveCompletedEntries(Segment segment, Object key) {
+		assert(lock.isHeldByCurrentThread());
+
+		final ArrayDeque<StreamElementQueueEntry<?>> entries = segment.entriesByKey.get(key);
+		if (entries == null || !entries.peek().isDone()) {
+			return false;
+		}
+
+		do {
+			StreamElementQueueEntry<?> entry = entries.poll();
+			keys.remove(entry);
+			completedQueue.offer(entry);
+			segment.size--;
+		} while (!entries.isEmpty() && entries.peek().isDone());
+
+		if (entries.isEmpty()) {
+			segment.entriesByKey.remove(key);
+		}
+
+		return true;
+	}
+
+	/**
+	 * Add the given stream element queue entry to the current last segment if it is not a
+	 * watermark. If it is a watermark, then stop adding to the current last segment, insert the
+	 * watermark into its own segment and add a new last segment.
+	 *
+	 * @param streamElementQueueEntry to be inserted
+	 * @param <T> Type of the stream element queue entry's result
+	 */
+	private <T> void addEntry(StreamElementQueueEntry<T> streamElementQueueEntry) {
+		assert(lock.isHeldByCurrentThread());
+
+		final Object key;
+
+		if (streamElementQueueEntry.isWatermark()) {
+			key = WATERMARK_KEY;
+			lastSegment = new Segment();
+
+			if (firstSegment.isEmpty()) {
+				firstSegment.add(key, streamElementQueueEntry);
+			} else {
+				Segment watermarkSegment = new Segment();
+				watermarkSegment.add(key, streamElementQueueEntry);
+				uncompletedQueue.offer(watermarkSegment);
+			}
+			uncompletedQueue.offer(lastSegment);
+		} else {
+			key = extractKey(streamElementQueueEntry);
+			lastSegment.add(key, streamElementQueueEntry);
+		}
+
+		keys.put(streamElementQueueEntry, key);
+
+		streamElementQueueEntry.onComplete(
+			(StreamElementQueueEntry<T> value) -> {
+				try {
+					onCompleteHandler(value);
+				} catch (InterruptedException e) {
+					// The accept executor thread got interrupted. This is probably cause by
+					// the shutdown of the executor.
+					LOG.debug("AsyncBufferEntry could not be properly completed because the " +
+						"executor thread has been interrupted.", e);
+				} catch (Throwable t) {
+					operatorActions.failOperator(new Exception("Could not complete the " +
+						"stream element queue entry: " + value + '.', t));
+				}
+			},
+			executor);
+
+		numberEntries++;
+	}
+
+	private Object extractKey(StreamElementQueueEntry<?> streamElementQueueEntry) {
+		final Object key;
+		try {
+			key = keySelector.getKey(streamElementQueueEntry.getStreamElement().asRecord().getValue());
+		} catch (Exception e) {
+			throw new FlinkRuntimeException("Could not extract the key of the stream element queue entry " +
+				streamElementQueueEntry + '.', e);
+		}
+
+		return Preconditions.checkNotNull(key, "The key of a stream record must not be null.");
+	}
+
+	// ------------------------------------------------------------------------
+
+	/**
+	 * Uncompleted stream element queue entries between two watermarks, grouped by key in insertion
+	 * order.
+	 */
+	private static final class Segment {
+
+		private final Map<Object, ArrayDeque<StreamElementQueueEntry<?>>> entriesByKey = new HashMap<>();
+
+		private int size;
+
+		void add(Object key, StreamElementQueueEntry<?> entry) {
+			entriesByKey.computeIfAbsent(key, k -> new ArrayDeque<>()).add(entry);
+			size++;
+		}
+
+		boolean isEmpty() {
+			return size == 0;
+		}
+
+		/** Returns a snapshot of the keys, which can be modified while iterating. */
+		Collection<Object> keys() {
+			return new ArrayList<>(entriesByKey.keySet());
+		}
+
+		void addEntriesTo(List<StreamElementQueueEntry<?>> target) {
+			for (ArrayDeque<StreamElementQueueEntry<?>> entries : entriesByKey.values()) {
+				target.addAll(entries);
+			}
+		}
+	}
+}
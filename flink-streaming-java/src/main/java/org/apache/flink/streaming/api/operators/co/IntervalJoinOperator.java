@@ -22,6 +22,8 @@ import org.apache.flink.annotation.Internal;
 import org.apache.flink.annotation.VisibleForTesting;
 import org.apache.flink.api.common.state.MapState;
 import org.apache.flink.api.common.state.MapStateDescriptor;
+import org.apache.flink.api.common.state.ValueState;
+import org.apache.flink.api.common.state.ValueStateDescriptor;
 import org.apache.flink.api.common.typeutils.CompositeTypeSerializerConfigSnapshot;
 import org.apache.flink.api.common.typeutils.CompositeTypeSerializerSnapshot;
 import org.apache.flink.api.common.typeutils.CompositeTypeSerializerUtil;
@@ -34,6 +36,7 @@ import org.apache.flink.api.common.typeutils.base.StringSerializer;
 import org.apache.flink.core.memory.DataInputView;
 import org.apache.flink.core.memory.DataOutputView;
 import org.apache.flink.runtime.state.StateInitializationContext;
+import org.apache.flink.runtime.state.internal.InternalMapState;
 import org.apache.flink.streaming.api.functions.co.ProcessJoinFunction;
 import org.apache.flink.streaming.api.operators.AbstractUdfStreamOperator;
 import org.apache.flink.streaming.api.operators.InternalTimer;
@@ -78,6 +81,11 @@ import java.util.Objects;
  * per element. This timer indicates when an element is not considered for joining anymore and can
  * be removed from the state.
  *
+ * <p>With bucketing enabled, the buffers are split into time buckets of the width of the join
+ * interval, with one namespace of the buffer state per bucket. An element then only reads the
+ * one or two buckets that overlap with its join interval, instead of all buffered timestamps of
+ * the key, and the cleanup timer is registered and the buffer is cleared per bucket.
+ *
  * @param <K>	The type of the key based on which we join elements.
  * @param <T1>	The type of the elements in the left stream.
  * @param <T2>	The type of the elements in the right stream.
@@ -94,6 +102,10 @@ public class IntervalJoinOperator<K, T1, T2, OUT>
 
 	private static final String LEFT_BUFFER = "LEFT_BUFFER";
 	private static final String RIGHT_BUFFER = "RIGHT_BUFFER";
+	private static final String LEFT_BUCKETS = "LEFT_BUCKETS";
+	private static final String RIGHT_BUCKETS = "RIGHT_BUCKETS";
+	private static final String LEFT_LAST_BUCKET = "LEFT_LAST_BUCKET";
+	private static final String RIGHT_LAST_BUCKET = "RIGHT_LAST_BUCKET";
 	private static final String CLEANUP_TIMER_NAME = "CLEANUP_TIMER";
 	private static final String CLEANUP_NAMESPACE_LEFT = "CLEANUP_LEFT";
 	private static final String CLEANUP_NAMESPACE_RIGHT = "CLEANUP_RIGHT";
@@ -107,6 +119,23 @@ public class IntervalJoinOperator<K, T1, T2, OUT>
 	private transient MapState<Long, List<BufferEntry<T1>>> leftBuffer;
 	private transient MapState<Long, List<BufferEntry<T2>>> rightBuffer;
 
+	/**
+	 * The size of the time buckets of the buffers, or {@code 0} if the buffers are not bucketed.
+	 * Each bucket is a namespace of the bucketed buffer state.
+	 */
+	private final long bucketSize;
+
+	private transient InternalMapState<K, Long, Long, List<BufferEntry<T1>>> leftBuckets;
+	private transient InternalMapState<K, Long, Long, List<BufferEntry<T2>>> rightBuckets;
+
+	/**
+	 * The last buckets of the buffers that hold elements. Buckets after the last bucket are not
+	 * read, which spares state backends that serialize the state a lookup of a bucket that does
+	 * not exist yet.
+	 */
+	private transient ValueState<Long> leftLastBucket;
+	private transient ValueState<Long> rightLastBucket;
+
 	private transient TimestampedCollector<OUT> collector;
 	private transient ContextImpl context;
 
@@ -133,6 +162,34 @@ public class IntervalJoinOperator<K, T1, T2, OUT>
 			TypeSerializer<T2> rightTypeSerializer,
 			ProcessJoinFunction<T1, T2, OUT> udf) {
 
+		this(lowerBound, upperBound, lowerBoundInclusive, upperBoundInclusive,
+			leftTypeSerializer, rightTypeSerializer, udf, false);
+	}
+
+	/**
+	 * Creates a new IntervalJoinOperator.
+	 *
+	 * @param lowerBound          The lower bound for evaluating if elements should be joined
+	 * @param upperBound          The upper bound for evaluating if elements should be joined
+	 * @param lowerBoundInclusive Whether or not to include elements where the timestamp matches
+	 *                            the lower bound
+	 * @param upperBoundInclusive Whether or not to include elements where the timestamp matches
+	 *                            the upper bound
+	 * @param udf                 A user-defined {@link ProcessJoinFunction} that gets called
+	 *                            whenever two elements of T1 and T2 are joined
+	 * @param bucketing           Whether the buffers are split into time buckets of the width of
+	 *                            the join interval
+	 */
+	public IntervalJoinOperator(
+			long lowerBound,
+			long upperBound,
+			boolean lowerBoundInclusive,
+			boolean upperBoundInclusive,
+			TypeSerializer<T1> leftTypeSerializer,
+			TypeSerializer<T2> rightTypeSerializer,
+			ProcessJoinFunction<T1, T2, OUT> udf,
+			boolean bucketing) {
+
 		super(Preconditions.checkNotNull(udf));
 
 		Preconditions.checkArgument(lowerBound <= upperBound,
@@ -145,6 +202,22 @@ public class IntervalJoinOperator<K, T1, T2, OUT>
 
 		this.leftTypeSerializer = Preconditions.checkNotNull(leftTypeSerializer);
 		this.rightTypeSerializer = Preconditions.checkNotNull(rightTypeSerializer);
+
+		this.bucketSize = bucketing ? bucketSize(this.lowerBound, this.upperBound) : 0L;
+	}
+
+	/**
+	 * Returns the width of the interval between the given bounds, so that the join interval of an
+	 * element overlaps with at most two buckets.
+	 */
+	private static long bucketSize(long lowerBound, long upperBound) {
+		if (upperBound < lowerBound) {
+			return 1L;
+		}
+
+		final long width = upperBound - lowerBound + 1L;
+		// the width overflows for very large bounds
+		return width > 0L ? width : Long.MAX_VALUE;
 	}
 
 	@Override
@@ -158,9 +231,34 @@ public class IntervalJoinOperator<K, T1, T2, OUT>
 	}
 
 	@Override
+	@SuppressWarnings("unchecked")
 	public void initializeState(StateInitializationContext context) throws Exception {
 		super.initializeState(context);
 
+		if (bucketSize > 0L) {
+			this.leftBuckets = (InternalMapState<K, Long, Long, List<BufferEntry<T1>>>) getOrCreateKeyedState(
+				LongSerializer.INSTANCE,
+				new MapStateDescriptor<>(
+					LEFT_BUCKETS,
+					LongSerializer.INSTANCE,
+					new ListSerializer<>(new BufferEntrySerializer<>(leftTypeSerializer))));
+
+			this.rightBuckets = (InternalMapState<K, Long, Long, List<BufferEntry<T2>>>) getOrCreateKeyedState(
+				LongSerializer.INSTANCE,
+				new MapStateDescriptor<>(
+					RIGHT_BUCKETS,
+					LongSerializer.INSTANCE,
+					new ListSerializer<>(new BufferEntrySerializer<>(rightTypeSerializer))));
+
+			this.leftLastBucket = context.getKeyedStateStore().getState(
+				new ValueStateDescriptor<>(LEFT_LAST_BUCKET, LongSerializer.INSTANCE));
+
+			this.rightLastBucket = context.getKeyedStateStore().getState(
+				new ValueStateDescriptor<>(RIGHT_LAST_BUCKET, LongSerializer.INSTANCE));
+
+			return;
+		}
+
 		this.leftBuffer = context.getKeyedStateStore().getMapState(new MapStateDescriptor<>(
 			LEFT_BUFFER,
 			LongSerializer.INSTANCE,
@@ -185,7 +283,11 @@ public class IntervalJoinOperator<K, T1, T2, OUT>
 	 */
 	@Override
 	public void processElement1(StreamRecord<T1> record) throws Exception {
-		processElement(record, leftBuffer, rightBuffer, lowerBound, upperBound, true);
+		if (bucketSize > 0L) {
+			processBucketedElement(record, leftBuckets, leftLastBucket, rightBuckets, rightLastBucket, lowerBound, upperBound, true);
+		} else {
+			processElement(record, leftBuffer, rightBuffer, lowerBound, upperBound, true);
+		}
 	}
 
 	/**
@@ -199,10 +301,13 @@ public class IntervalJoinOperator<K, T1, T2, OUT>
 	 */
 	@Override
 	public void processElement2(StreamRecord<T2> record) throws Exception {
-		processElement(record, rightBuffer, leftBuffer, -upperBound, -lowerBound, false);
+		if (bucketSize > 0L) {
+			processBucketedElement(record, rightBuckets, rightLastBucket, leftBuckets, leftLastBucket, -upperBound, -lowerBound, false);
+		} else {
+			processElement(record, rightBuffer, leftBuffer, -upperBound, -lowerBound, false);
+		}
 	}
 
-	@SuppressWarnings("unchecked")
 	private <THIS, OTHER> void processElement(
 			final StreamRecord<THIS> record,
 			final MapState<Long, List<IntervalJoinOperator.BufferEntry<THIS>>> ourBuffer,
@@ -214,10 +319,7 @@ public class IntervalJoinOperator<K, T1, T2, OUT>
 		final THIS ourValue = record.getValue();
 		final long ourTimestamp = record.getTimestamp();
 
-		if (ourTimestamp == Long.MIN_VALUE) {
-			throw new FlinkException("Long.MIN_VALUE timestamp: Elements used in " +
-					"interval stream joins need to have timestamps meaningful timestamps.");
-		}
+		checkTimestamp(ourTimestamp);
 
 		if (isLate(ourTimestamp)) {
 			return;
@@ -225,7 +327,78 @@ public class IntervalJoinOperator<K, T1, T2, OUT>
 
 		addToBuffer(ourBuffer, ourValue, ourTimestamp);
 
-		for (Map.Entry<Long, List<BufferEntry<OTHER>>> bucket: otherBuffer.entries()) {
+		joinWithBuffered(ourValue, ourTimestamp, otherBuffer.entries(), relativeLowerBound, relativeUpperBound, isLeft);
+
+		long cleanupTime = (relativeUpperBound > 0L) ? ourTimestamp + relativeUpperBound : ourTimestamp;
+		registerCleanupTimer(cleanupTime, isLeft);
+	}
+
+	private <THIS, OTHER> void processBucketedElement(
+			final StreamRecord<THIS> record,
+			final InternalMapState<K, Long, Long, List<IntervalJoinOperator.BufferEntry<THIS>>> ourBuckets,
+			final ValueState<Long> ourLastBucket,
+			final InternalMapState<K, Long, Long, List<IntervalJoinOperator.BufferEntry<OTHER>>> otherBuckets,
+			final ValueState<Long> otherLastBucket,
+			final long relativeLowerBound,
+			final long relativeUpperBound,
+			final boolean isLeft) throws Exception {
+
+		final THIS ourValue = record.getValue();
+		final long ourTimestamp = record.getTimestamp();
+
+		checkTimestamp(ourTimestamp);
+
+		if (isLate(ourTimestamp)) {
+			return;
+		}
+
+		final long ourBucket = Math.floorDiv(ourTimestamp, bucketSize);
+		ourBuckets.setCurrentNamespace(ourBucket);
+		addToBuffer(ourBuckets, ourValue, ourTimestamp);
+
+		final Long ourPreviousLastBucket = ourLastBucket.value();
+		if (ourPreviousLastBucket == null || ourBucket > ourPreviousLastBucket) {
+			ourLastBucket.update(ourBucket);
+		}
+
+		// only the buckets that overlap with the join interval of the element are read
+		final long lowerTimestamp = ourTimestamp + relativeLowerBound;
+		final long upperTimestamp = ourTimestamp + relativeUpperBound;
+		final Long otherBufferLastBucket = otherLastBucket.value();
+		final long firstBucket = Math.floorDiv(lowerTimestamp, bucketSize);
+		if (lowerTimestamp <= upperTimestamp && otherBufferLastBucket != null && firstBucket <= otherBufferLastBucket) {
+			final long lastBucket = Math.min(Math.floorDiv(upperTimestamp, bucketSize), otherBufferLastBucket);
+			for (long bucket = firstBucket; ; bucket++) {
+				otherBuckets.setCurrentNamespace(bucket);
+
+				// unlike the user facing map state, the internal state has no entries for an empty bucket
+				final Iterable<Map.Entry<Long, List<BufferEntry<OTHER>>>> bucketEntries = otherBuckets.entries();
+				if (bucketEntries != null) {
+					joinWithBuffered(ourValue, ourTimestamp, bucketEntries, relativeLowerBound, relativeUpperBound, isLeft);
+				}
+
+				if (bucket == lastBucket) {
+					break;
+				}
+			}
+		}
+
+		// the bucket is cleaned up once its last timestamp is not considered for joining anymore
+		final long bucketEnd = ourBucket * bucketSize + (bucketSize - 1L);
+		long cleanupTime = (relativeUpperBound > 0L) ? bucketEnd + relativeUpperBound : bucketEnd;
+		registerCleanupTimer(cleanupTime, isLeft);
+	}
+
+	@SuppressWarnings("unchecked")
+	private <THIS, OTHER> void joinWithBuffered(
+			final THIS ourValue,
+			final long ourTimestamp,
+			final Iterable<Map.Entry<Long, List<BufferEntry<OTHER>>>> otherBuffer,
+			final long relativeLowerBound,
+			final long relativeUpperBound,
+			final boolean isLeft) throws Exception {
+
+		for (Map.Entry<Long, List<BufferEntry<OTHER>>> bucket: otherBuffer) {
 			final long timestamp  = bucket.getKey();
 
 			if (timestamp < ourTimestamp + relativeLowerBound ||
@@ -241,8 +414,16 @@ public class IntervalJoinOperator<K, T1, T2, OUT>
 				}
 			}
 		}
+	}
 
-		long cleanupTime = (relativeUpperBound > 0L) ? ourTimestamp + relativeUpperBound : ourTimestamp;
+	private static void checkTimestamp(long timestamp) throws FlinkException {
+		if (timestamp == Long.MIN_VALUE) {
+			throw new FlinkException("Long.MIN_VALUE timestamp: Elements used in " +
+					"interval stream joins need to have timestamps meaningful timestamps.");
+		}
+	}
+
+	private void registerCleanupTimer(long cleanupTime, boolean isLeft) {
 		if (isLeft) {
 			internalTimerService.registerEventTimeTimer(CLEANUP_NAMESPACE_LEFT, cleanupTime);
 		} else {
@@ -288,13 +469,21 @@ public class IntervalJoinOperator<K, T1, T2, OUT>
 			case CLEANUP_NAMESPACE_LEFT: {
 				long timestamp = (upperBound <= 0L) ? timerTimestamp : timerTimestamp - upperBound;
 				logger.trace("Removing from left buffer @ {}", timestamp);
-				leftBuffer.remove(timestamp);
+				if (bucketSize > 0L) {
+					removeBucket(leftBuckets, leftLastBucket, timestamp);
+				} else {
+					leftBuffer.remove(timestamp);
+				}
 				break;
 			}
 			case CLEANUP_NAMESPACE_RIGHT: {
 				long timestamp = (lowerBound <= 0L) ? timerTimestamp + lowerBound : timerTimestamp;
 				logger.trace("Removing from right buffer @ {}", timestamp);
-				rightBuffer.remove(timestamp);
+				if (bucketSize > 0L) {
+					removeBucket(rightBuckets, rightLastBucket, timestamp);
+				} else {
+					rightBuffer.remove(timestamp);
+				}
 				break;
 			}
 			default:
@@ -302,6 +491,24 @@ public class IntervalJoinOperator<K, T1, T2, OUT>
 		}
 	}
 
+	/**
+	 * Removes the bucket that ends with the given timestamp in a single operation.
+	 */
+	private <T> void removeBucket(
+			final InternalMapState<K, Long, Long, List<BufferEntry<T>>> buckets,
+			final ValueState<Long> lastBucket,
+			final long bucketEnd) throws Exception {
+		final long bucket = Math.floorDiv(bucketEnd, bucketSize);
+		buckets.setCurrentNamespace(bucket);
+		buckets.clear();
+
+		// buckets are removed in order, so the buffer is empty after removing the last bucket
+		final Long last = lastBucket.value();
+		if (last != null && last == bucket) {
+			lastBucket.clear();
+		}
+	}
+
 	@Override
 	public void onProcessingTime(InternalTimer<K, String> timer) throws Exception {
 		// do nothing.
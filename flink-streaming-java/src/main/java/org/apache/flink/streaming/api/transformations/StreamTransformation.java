@@ -151,6 +151,10 @@ public abstract class StreamTransformation<T> {
 
 	protected long bufferTimeout = -1;
 
+	private boolean inputNotMutated;
+
+	private boolean outputNotMutated;
+
 	private String slotSharingGroup;
 
 	@Nullable
@@ -453,6 +457,48 @@ public abstract class StreamTransformation<T> {
 		return bufferTimeout;
 	}
 
+	/**
+	 * Declares whether the operator of this {@code StreamTransformation} does not modify the
+	 * records it receives. If object reuse is disabled, records that are passed to a chained
+	 * operator which does not modify them are not copied, provided that the chained
+	 * predecessor does not modify them either.
+	 *
+	 * @see #setOutputNotMutated(boolean)
+	 */
+	public void setInputNotMutated(boolean inputNotMutated) {
+		this.inputNotMutated = inputNotMutated;
+	}
+
+	/**
+	 * Returns whether the operator of this {@code StreamTransformation} does not modify the
+	 * records it receives.
+	 *
+	 * @see #setInputNotMutated(boolean)
+	 */
+	public boolean isInputNotMutated() {
+		return inputNotMutated;
+	}
+
+	/**
+	 * Declares whether the operator of this {@code StreamTransformation} does not modify the
+	 * records it emits after emitting them, for example by reusing the output object.
+	 *
+	 * @see #setInputNotMutated(boolean)
+	 */
+	public void setOutputNotMutated(boolean outputNotMutated) {
+		this.outputNotMutated = outputNotMutated;
+	}
+
+	/**
+	 * Returns whether the operator of this {@code StreamTransformation} does not modify the
+	 * records it emits after emitting them.
+	 *
+	 * @see #setOutputNotMutated(boolean)
+	 */
+	public boolean isOutputNotMutated() {
+		return outputNotMutated;
+	}
+
 	/**
 	 * Returns all transitive predecessor {@code StreamTransformation}s of this {@code StreamTransformation}. This
 	 * is, for example, used when determining whether a feedback edge of an iteration
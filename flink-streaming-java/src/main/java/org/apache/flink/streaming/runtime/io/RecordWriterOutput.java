@@ -55,12 +55,21 @@ public class RecordWriterOutput<OUT> implements OperatorChain.WatermarkGaugeExpo
 
 	private final WatermarkGauge watermarkGauge = new WatermarkGauge();
 
-	@SuppressWarnings("unchecked")
 	public RecordWriterOutput(
 			RecordWriter<SerializationDelegate<StreamRecord<OUT>>> recordWriter,
 			TypeSerializer<OUT> outSerializer,
 			OutputTag outputTag,
 			StreamStatusProvider streamStatusProvider) {
+		this(recordWriter, outSerializer, outputTag, streamStatusProvider, false);
+	}
+
+	@SuppressWarnings("unchecked")
+	public RecordWriterOutput(
+			RecordWriter<SerializationDelegate<StreamRecord<OUT>>> recordWriter,
+			TypeSerializer<OUT> outSerializer,
+			OutputTag outputTag,
+			StreamStatusProvider streamStatusProvider,
+			boolean compactTimestamps) {
 
 		checkNotNull(recordWriter);
 		this.outputTag = outputTag;
@@ -70,7 +79,7 @@ public class RecordWriterOutput<OUT> implements OperatorChain.WatermarkGaugeExpo
 				(RecordWriter<?>) recordWriter;
 
 		TypeSerializer<StreamElement> outRecordSerializer =
-				new StreamElementSerializer<>(outSerializer);
+				new StreamElementSerializer<>(outSerializer, compactTimestamps);
 
 		if (outSerializer != null) {
 			serializationDelegate = new SerializationDelegate<StreamElement>(outRecordSerializer);
@@ -130,7 +130,9 @@ public class StreamInputProcessor<IN> {
 
 		this.lock = checkNotNull(lock);
 
-		StreamElementSerializer<IN> ser = new StreamElementSerializer<>(inputSerializer);
+		// the timestamps are written in the format of the upstream tasks, which share the execution config
+		StreamElementSerializer<IN> ser = new StreamElementSerializer<>(
+			inputSerializer, checkpointedTask.getExecutionConfig().isCompactSerializationEnabled());
 		this.deserializationDelegate = new NonReusingDeserializationDelegate<>(ser);
 
 		// Initialize one deserializer per input channel
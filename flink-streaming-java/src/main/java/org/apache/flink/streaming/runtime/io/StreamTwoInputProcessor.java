@@ -149,10 +149,13 @@ public class StreamTwoInputProcessor<IN1, IN2> {
 
 		this.lock = checkNotNull(lock);
 
-		StreamElementSerializer<IN1> ser1 = new StreamElementSerializer<>(inputSerializer1);
+		// the timestamps are written in the format of the upstream tasks, which share the execution config
+		boolean compactTimestamps = checkpointedTask.getExecutionConfig().isCompactSerializationEnabled();
+
+		StreamElementSerializer<IN1> ser1 = new StreamElementSerializer<>(inputSerializer1, compactTimestamps);
 		this.deserializationDelegate1 = new NonReusingDeserializationDelegate<>(ser1);
 
-		StreamElementSerializer<IN2> ser2 = new StreamElementSerializer<>(inputSerializer2);
+		StreamElementSerializer<IN2> ser2 = new StreamElementSerializer<>(inputSerializer2, compactTimestamps);
 		this.deserializationDelegate2 = new NonReusingDeserializationDelegate<>(ser2);
 
 		// Initialize one deserializer per input channel
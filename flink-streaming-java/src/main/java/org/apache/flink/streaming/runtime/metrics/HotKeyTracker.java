@@ -0,0 +1,299 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.streaming.runtime.metrics;
+
+import org.apache.flink.annotation.Internal;
+import org.apache.flink.annotation.VisibleForTesting;
+import org.apache.flink.metrics.Gauge;
+import org.apache.flink.metrics.MetricGroup;
+import org.apache.flink.util.Preconditions;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Tracks the approximately most frequent keys and key groups of a keyed output.
+ *
+ * <p>The tracker looks at a random sample of the records, on average one out of every
+ * {@code sampleInterval} records. The most frequent keys of the sample are found with the
+ * Space-Saving algorithm, which keeps a fixed number of counters and hands the counter of the
+ * least frequent key to a key that is not tracked yet. The counters are kept in a min-heap, so
+ * that each sample costs a hash lookup and a few swaps. The frequencies of all key groups are
+ * counted exactly.
+ *
+ * <p>Keys are tracked by their string representation, which is also what the metrics report. The
+ * key objects themselves are not kept, because the producer of the records may mutate or reuse them
+ * after they were sampled.
+ *
+ * <p>The tracker is only updated by the task thread. When a metric is read, a {@link Snapshot} of the
+ * current summary is computed under the same lock that guards the updates of sampled records, and it
+ * is reused by the other metrics until the next record is sampled.
+ *
+ * @param <K> The type of the tracked keys.
+ */
+@Internal
+public class HotKeyTracker<K> {
+
+	/** The number of hottest keys that are reported by the {@code hotKeys} metric. */
+	static final int NUM_REPORTED_KEYS = 10;
+
+	private final int sampleInterval;
+
+	// ------------------------------------------------------------------------
+	//  Space-Saving summary, as a min-heap on the counts
+
+	private final String[] keys;
+
+	/** The estimated counts, which over-estimate the real counts by at most the errors. */
+	private final long[] counts;
+
+	private final long[] errors;
+
+	/** The positions of the tracked keys in the heap. */
+	private final Map<String, Integer> positions;
+
+	private int size;
+
+	// ------------------------------------------------------------------------
+
+	private final long[] keyGroupCounts;
+
+	private long numSampled;
+
+	private int recordsUntilNextSample;
+
+	/** Guards the summary and the key group counts, which are read by the metric reporter. */
+	private final Object lock = new Object();
+
+	/** The last computed snapshot, which is valid as long as no further record was sampled. */
+	private Snapshot snapshot = Snapshot.EMPTY;
+
+	private long snapshotNumSampled;
+
+	public HotKeyTracker(int numTrackedKeys, int sampleInterval, int maxParallelism) {
+		Preconditions.checkArgument(numTrackedKeys > 0, "The number of tracked keys must be positive.");
+		Preconditions.checkArgument(sampleInterval > 0, "The sample interval must be positive.");
+		Preconditions.checkArgument(maxParallelism > 0, "Number of key-groups must be > 0!");
+
+		this.sampleInterval = sampleInterval;
+		this.keys = new String[numTrackedKeys];
+		this.counts = new long[numTrackedKeys];
+		this.errors = new long[numTrackedKeys];
+		this.positions = new HashMap<>(numTrackedKeys * 2);
+		this.keyGroupCounts = new long[maxParallelism];
+	}
+
+	/**
+	 * Registers the metrics of this tracker with the given group.
+	 */
+	public void registerMetrics(MetricGroup metricGroup) {
+		metricGroup.gauge("hotKeys", (Gauge<String>) () -> getSnapshot().getHotKeys());
+		metricGroup.gauge("hottestKeyShare", (Gauge<Double>) () -> getSnapshot().getHottestKeyShare());
+		metricGroup.gauge("hottestKeyGroup", (Gauge<Integer>) () -> getSnapshot().getHottestKeyGroup());
+		metricGroup.gauge("hottestKeyGroupShare", (Gauge<Double>) () -> getSnapshot().getHottestKeyGroupShare());
+	}
+
+	/**
+	 * Adds a record with the given key and key group to the tracker, if the record is sampled.
+	 */
+	public void add(K key, int keyGroup) {
+		if (--recordsUntilNextSample > 0) {
+			return;
+		}
+		// random gaps, so that the sample does not follow periodic patterns in the input
+		recordsUntilNextSample = sampleInterval == 1 ? 1 : 1 + ThreadLocalRandom.current().nextInt(2 * sampleInterval - 1);
+
+		final String keyString = String.valueOf(key);
+
+		synchronized (lock) {
+			numSampled++;
+			keyGroupCounts[keyGroup]++;
+			offer(keyString);
+		}
+	}
+
+	/**
+	 * Returns a snapshot of the hottest keys and key groups of all records that were sampled so far.
+	 */
+	@VisibleForTesting
+	Snapshot getSnapshot() {
+		synchronized (lock) {
+			if (snapshotNumSampled != numSampled) {
+				snapshot = createSnapshot();
+				snapshotNumSampled = numSampled;
+			}
+			return snapshot;
+		}
+	}
+
+	private void offer(String key) {
+		Integer position = positions.get(key);
+		if (position != null) {
+			counts[position]++;
+			siftDown(position);
+		} else if (size < keys.length) {
+			keys[size] = key;
+			counts[size] = 1;
+			errors[size] = 0;
+			positions.put(key, size);
+			siftUp(size++);
+		} else {
+			// the new key takes over the counter of the least frequent key,
+			// whose count bounds how often the new key may have been missed
+			positions.remove(keys[0]);
+			keys[0] = key;
+			errors[0] = counts[0];
+			counts[0]++;
+			positions.put(key, 0);
+			siftDown(0);
+		}
+	}
+
+	private void siftUp(int index) {
+		while (index > 0) {
+			int parent = (index - 1) >>> 1;
+			if (counts[parent] <= counts[index]) {
+				return;
+			}
+			swap(index, parent);
+			index = parent;
+		}
+	}
+
+	private void siftDown(int index) {
+		while (true) {
+			int left = 2 * index + 1;
+			int right = left + 1;
+			int smallest = index;
+			if (left < size && counts[left] < counts[smallest]) {
+				smallest = left;
+			}
+			if (right < size && counts[right] < counts[smallest]) {
+				smallest = right;
+			}
+			if (smallest == index) {
+				return;
+			}
+			swap(index, smallest);
+			index = smallest;
+		}
+	}
+
+	private void swap(int i, int j) {
+		String key = keys[i];
+		keys[i] = keys[j];
+		keys[j] = key;
+
+		long count = counts[i];
+		counts[i] = counts[j];
+		counts[j] = count;
+
+		long error = errors[i];
+		errors[i] = errors[j];
+		errors[j] = error;
+
+		positions.put(keys[i], i);
+		positions.put(keys[j], j);
+	}
+
+	private Snapshot createSnapshot() {
+		if (numSampled == 0) {
+			return Snapshot.EMPTY;
+		}
+
+		// keys by their guaranteed counts, which are never larger than their real counts
+		Integer[] order = new Integer[size];
+		for (int i = 0; i < size; i++) {
+			order[i] = i;
+		}
+		Arrays.sort(order, Comparator.comparingLong((Integer i) -> counts[i] - errors[i]).reversed());
+
+		StringBuilder hotKeys = new StringBuilder("[");
+		for (int i = 0; i < Math.min(NUM_REPORTED_KEYS, size); i++) {
+			if (i > 0) {
+				hotKeys.append(", ");
+			}
+			hotKeys.append(keys[order[i]]).append('=').append(share(counts[order[i]] - errors[order[i]]));
+		}
+		hotKeys.append(']');
+
+		int hottestKeyGroup = 0;
+		for (int i = 1; i < keyGroupCounts.length; i++) {
+			if (keyGroupCounts[i] > keyGroupCounts[hottestKeyGroup]) {
+				hottestKeyGroup = i;
+			}
+		}
+
+		return new Snapshot(
+			hotKeys.toString(),
+			share(counts[order[0]] - errors[order[0]]),
+			hottestKeyGroup,
+			share(keyGroupCounts[hottestKeyGroup]));
+	}
+
+	private double share(long count) {
+		return Math.round(1000.0 * count / numSampled) / 1000.0;
+	}
+
+	// ------------------------------------------------------------------------
+
+	/**
+	 * The hottest keys and key groups at the time of the snapshot. The shares of the keys are
+	 * lower bounds of their real shares of the sampled records.
+	 */
+	@VisibleForTesting
+	static final class Snapshot {
+
+		static final Snapshot EMPTY = new Snapshot("[]", 0.0, -1, 0.0);
+
+		private final String hotKeys;
+
+		private final double hottestKeyShare;
+
+		private final int hottestKeyGroup;
+
+		private final double hottestKeyGroupShare;
+
+		Snapshot(String hotKeys, double hottestKeyShare, int hottestKeyGroup, double hottestKeyGroupShare) {
+			this.hotKeys = hotKeys;
+			this.hottestKeyShare = hottestKeyShare;
+			this.hottestKeyGroup = hottestKeyGroup;
+			this.hottestKeyGroupShare = hottestKeyGroupShare;
+		}
+
+		String getHotKeys() {
+			return hotKeys;
+		}
+
+		double getHottestKeyShare() {
+			return hottestKeyShare;
+		}
+
+		int getHottestKeyGroup() {
+			return hottestKeyGroup;
+		}
+
+		double getHottestKeyGroupShare() {
+			return hottestKeyGroupShare;
+		}
+	}
+}
@@ -0,0 +1,205 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.streaming.runtime.operators.windowing;
+
+import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.runtime.state.internal.InternalListState;
+import org.apache.flink.runtime.state.internal.InternalMergingState;
+import org.apache.flink.streaming.api.windowing.windows.Window;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.apache.flink.util.Preconditions.checkNotNull;
+
+/**
+ * The contents of merging windows in a list state that is merged lazily. Instead of moving the
+ * elements of the merged state windows into the state window of the merge result, only references
+ * to the merged state windows are added to the merge result. The elements stay in the namespaces of
+ * the state windows they were added to, and are collected from all referenced namespaces when the
+ * contents are read.
+ *
+ * <p>This makes merges independent of the number of elements in the merged windows, which helps
+ * long sessions with frequent merges, in particular on state backends that serialize the state.
+ * Reading the contents is done once per firing, and reads as many namespaces as there are merged
+ * state windows.
+ *
+ * <p>The {@link MergingWindowSet} never reuses the state window of a window which has been merged
+ * into another window while that window exists, so the referenced namespaces are not written to
+ * after the merge.
+ *
+ * @param <K> The type of the key.
+ * @param <W> The type of the windows, which are the namespaces of the state.
+ * @param <T> The type of the elements in the windows.
+ */
+class LazyMergingListState<K, W extends Window, T> implements InternalMergingState<K, W, T, List<T>, Iterable<T>> {
+
+	/** The elements that were added to the state windows. */
+	private final InternalListState<K, W, T> contentsState;
+
+	/** The state windows which have been merged into a state window. */
+	private final InternalListState<K, W, W> mergedStateWindowsState;
+
+	private W currentNamespace;
+
+	LazyMergingListState(
+			InternalListState<K, W, T> contentsState,
+			InternalListState<K, W, W> mergedStateWindowsState) {
+		this.contentsState = checkNotNull(contentsState);
+		this.mergedStateWindowsState = checkNotNull(mergedStateWindowsState);
+	}
+
+	@Override
+	public TypeSerializer<K> getKeySerializer() {
+		return contentsState.getKeySerializer();
+	}
+
+	@Override
+	public TypeSerializer<W> getNamespaceSerializer() {
+		return contentsState.getNamespaceSerializer();
+	}
+
+	@Override
+	public TypeSerializer<List<T>> getValueSerializer() {
+		return contentsState.getValueSerializer();
+	}
+
+	@Override
+	public void setCurrentNamespace(W namespace) {
+		currentNamespace = namespace;
+		contentsState.setCurrentNamespace(namespace);
+		mergedStateWindowsState.setCurrentNamespace(namespace);
+	}
+
+	@Override
+	public byte[] getSerializedValue(
+			byte[] serializedKeyAndNamespace,
+			TypeSerializer<K> safeKeySerializer,
+			TypeSerializer<W> safeNamespaceSerializer,
+			TypeSerializer<List<T>> safeValueSerializer) throws Exception {
+		return contentsState.getSerializedValue(
+			serializedKeyAndNamespace, safeKeySerializer, safeNamespaceSerializer, safeValueSerializer);
+	}
+
+	@Override
+	public StateIncrementalVisitor<K, W, List<T>> getStateIncrementalVisitor(int recommendedMaxNumberOfReturnedRecords) {
+		return contentsState.getStateIncrementalVisitor(recommendedMaxNumberOfReturnedRecords);
+	}
+
+	@Override
+	public Iterable<T> get() throws Exception {
+		return getInternal();
+	}
+
+	@Override
+	public void add(T value) throws Exception {
+		contentsState.add(value);
+	}
+
+	@Override
+	public void clear() {
+		try {
+			Iterable<W> mergedStateWindows = mergedStateWindowsState.get();
+			if (mergedStateWindows != null) {
+				for (W mergedStateWindow : mergedStateWindows) {
+					contentsState.setCurrentNamespace(mergedStateWindow);
+					contentsState.clear();
+				}
+				contentsState.setCurrentNamespace(currentNamespace);
+				mergedStateWindowsState.clear();
+			}
+		} catch (Exception e) {
+			throw new RuntimeException("Error while clearing the merged window contents.", e);
+		}
+
+		contentsState.clear();
+	}
+
+	@Override
+	public List<T> getInternal() throws Exception {
+		final Iterable<T> ownContents = contentsState.get();
+		final Iterable<W> mergedStateWindows = mergedStateWindowsState.get();
+		if (mergedStateWindows == null) {
+			return ownContents == null ? null : toList(ownContents);
+		}
+
+		final List<T> contents = new ArrayList<>();
+		for (W mergedStateWindow : mergedStateWindows) {
+			contentsState.setCurrentNamespace(mergedStateWindow);
+			addAll(contents, contentsState.get());
+		}
+		contentsState.setCurrentNamespace(currentNamespace);
+		addAll(contents, ownContents);
+
+		return contents.isEmpty() ? null : contents;
+	}
+
+	@Override
+	public void updateInternal(List<T> valueToStore) throws Exception {
+		clear();
+		contentsState.updateInternal(valueToStore);
+	}
+
+	/**
+	 * Merges the given state windows into the target state window by adding references to them,
+	 * and to the state windows that have previously been merged into them, to the target.
+	 */
+	@Override
+	public void mergeNamespaces(W target, Collection<W> sources) throws Exception {
+		if (sources == null || sources.isEmpty()) {
+			return;
+		}
+
+		final Set<W> mergedStateWindows = new LinkedHashSet<>();
+		for (W source : sources) {
+			mergedStateWindows.add(source);
+
+			mergedStateWindowsState.setCurrentNamespace(source);
+			addAll(mergedStateWindows, mergedStateWindowsState.get());
+			mergedStateWindowsState.clear();
+		}
+		mergedStateWindows.remove(target);
+
+		mergedStateWindowsState.setCurrentNamespace(target);
+		mergedStateWindowsState.addAll(new ArrayList<>(mergedStateWindows));
+
+		mergedStateWindowsState.setCurrentNamespace(currentNamespace);
+	}
+
+	private static <E> List<E> toList(Iterable<E> iterable) {
+		if (iterable instanceof List) {
+			return (List<E>) iterable;
+		}
+
+		final List<E> list = new ArrayList<>();
+		addAll(list, iterable);
+		return list;
+	}
+
+	private static <E> void addAll(Collection<E> target, Iterable<E> source) {
+		if (source != null) {
+			for (E element : source) {
+				target.add(element);
+			}
+		}
+	}
+}
@@ -21,6 +21,7 @@ package org.apache.flink.streaming.runtime.operators.windowing;
 import org.apache.flink.api.common.state.ListState;
 import org.apache.flink.api.java.tuple.Tuple2;
 import org.apache.flink.streaming.api.windowing.assigners.MergingWindowAssigner;
+import org.apache.flink.streaming.api.windowing.windows.TimeWindow;
 import org.apache.flink.streaming.api.windowing.windows.Window;
 
 import org.slf4j.Logger;
@@ -187,9 +188,10 @@ public class MergingWindowSet<W extends Window> {
 				resultWindow = mergeResult;
 			}
 
-			// pick any of the merged windows and choose that window's state window
-			// as the state window for the merge result
-			W mergedStateWindow = this.mapping.get(mergedWindows.iterator().next());
+			// choose the state window of the largest merged window as the state window for
+			// the merge result, so that only the state of the smaller windows has to be
+			// merged into it and long sessions are not copied over and over again
+			W mergedStateWindow = this.mapping.get(largestWindow(mergedWindows));
 
 			// figure out the state windows that we are merging
 			List<W> mergedStateWindows = new ArrayList<>();
@@ -224,6 +226,28 @@ public class MergingWindowSet<W extends Window> {
 		return resultWindow;
 	}
 
+	/**
+	 * Returns the window with the largest time span of the given windows, or the first window if
+	 * the windows are not {@link TimeWindow TimeWindows}.
+	 */
+	private static <W extends Window> W largestWindow(Collection<W> windows) {
+		W largestWindow = null;
+		long largestSpan = Long.MIN_VALUE;
+
+		for (W window : windows) {
+			long span = window instanceof TimeWindow
+				? ((TimeWindow) window).getEnd() - ((TimeWindow) window).getStart()
+				: 0L;
+
+			if (largestWindow == null || span > largestSpan) {
+				largestWindow = window;
+				largestSpan = span;
+			}
+		}
+
+		return largestWindow;
+	}
+
 	/**
 	 * Callback for {@link #addWindow(Window, MergeFunction)}.
 	 * @param <W>
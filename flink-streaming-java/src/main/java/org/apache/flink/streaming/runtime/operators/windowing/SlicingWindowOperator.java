@@ -0,0 +1,508 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.streaming.runtime.operators.windowing;
+
+import org.apache.flink.annotation.Internal;
+import org.apache.flink.annotation.VisibleForTesting;
+import org.apache.flink.api.common.functions.AggregateFunction;
+import org.apache.flink.api.common.functions.ReduceFunction;
+import org.apache.flink.api.common.state.KeyedStateStore;
+import org.apache.flink.api.common.state.MapState;
+import org.apache.flink.api.common.state.MapStateDescriptor;
+import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.api.common.typeutils.base.LongSerializer;
+import org.apache.flink.metrics.Counter;
+import org.apache.flink.runtime.state.VoidNamespace;
+import org.apache.flink.runtime.state.VoidNamespaceSerializer;
+import org.apache.flink.streaming.api.operators.AbstractUdfStreamOperator;
+import org.apache.flink.streaming.api.operators.ChainingStrategy;
+import org.apache.flink.streaming.api.operators.InternalTimer;
+import org.apache.flink.streaming.api.operators.InternalTimerService;
+import org.apache.flink.streaming.api.operators.OneInputStreamOperator;
+import org.apache.flink.streaming.api.operators.TimestampedCollector;
+import org.apache.flink.streaming.api.operators.Triggerable;
+import org.apache.flink.streaming.api.windowing.assigners.SlidingEventTimeWindows;
+import org.apache.flink.streaming.api.windowing.assigners.SlidingProcessingTimeWindows;
+import org.apache.flink.streaming.api.windowing.assigners.WindowAssigner;
+import org.apache.flink.streaming.api.windowing.windows.TimeWindow;
+import org.apache.flink.streaming.runtime.operators.windowing.functions.InternalWindowFunction;
+import org.apache.flink.streaming.runtime.streamrecord.StreamRecord;
+import org.apache.flink.util.OutputTag;
+
+import java.util.Iterator;
+import java.util.Map;
+
+import static org.apache.flink.util.Preconditions.checkArgument;
+import static org.apache.flink.util.Preconditions.checkNotNull;
+
+/**
+ * An operator that evaluates sliding time windows with an incremental aggregation by slicing
+ * the time axis instead of assigning each element to all of its windows.
+ *
+ * <p>The {@link WindowOperator} adds an element to each of the {@code size / slide} windows that
+ * it belongs to, and registers a timer for each of them. This operator instead splits time into
+ * non-overlapping slices of {@code gcd(size, slide)} and adds each element to the accumulator of
+ * exactly one slice. When a window fires, the accumulators of all slices that it covers are
+ * merged using {@link AggregateFunction#merge(Object, Object)}. A single timer per key is kept
+ * for the next window that has to fire, or for the cleanup of the remaining slices.
+ *
+ * <p>The operator behaves like a {@link WindowOperator} with the default trigger of the window
+ * assigner and without evictor, including the handling of allowed lateness and late data. Per
+ * window state of a {@link org.apache.flink.streaming.api.functions.windowing.ProcessWindowFunction}
+ * is not supported, because there is no state per window.
+ *
+ * @param <K> The type of key.
+ * @param <IN> The type of the incoming elements.
+ * @param <ACC> The type of the accumulator of the {@code AggregateFunction}.
+ * @param <V> The type of the result of the {@code AggregateFunction}.
+ * @param <OUT> The type of elements emitted by the {@code InternalWindowFunction}.
+ */
+@Internal
+public class SlicingWindowOperator<K, IN, ACC, V, OUT>
+	extends AbstractUdfStreamOperator<OUT, InternalWindowFunction<V, OUT, K, TimeWindow>>
+	implements OneInputStreamOperator<IN, OUT>, Triggerable<K, VoidNamespace> {
+
+	private static final long serialVersionUID = 1L;
+
+	private static final String LATE_ELEMENTS_DROPPED_METRIC_NAME = "numLateRecordsDropped";
+
+	// ------------------------------------------------------------------------
+	// Configuration values and user functions
+	// ------------------------------------------------------------------------
+
+	private final long windowSize;
+
+	private final long windowSlide;
+
+	/** The size of the slices, which is the greatest common divisor of window size and slide. */
+	private final long sliceSize;
+
+	/** The offset of the window starts, and therefore also of the slices. */
+	private final long sliceOffset;
+
+	/** The offset of the window ends with respect to the slide. */
+	private final long windowEndOffset;
+
+	private final boolean isEventTime;
+
+	private final AggregateFunction<IN, ACC, V> aggregateFunction;
+
+	private final MapStateDescriptor<Long, ACC> sliceStateDescriptor;
+
+	/** The allowed lateness for elements, see {@link WindowOperator#allowedLateness}. */
+	private final long allowedLateness;
+
+	/** {@link OutputTag} to use for late arriving events. */
+	private final OutputTag<IN> lateDataOutputTag;
+
+	// ------------------------------------------------------------------------
+	// State that is not checkpointed
+	// ------------------------------------------------------------------------
+
+	/** The accumulators of the slices of the current key, by slice start. */
+	private transient MapState<Long, ACC> sliceState;
+
+	private transient TypeSerializer<ACC> accumulatorSerializer;
+
+	private transient TimestampedCollector<OUT> timestampedCollector;
+
+	private transient WindowContext processContext;
+
+	private transient Counter numLateRecordsDropped;
+
+	// ------------------------------------------------------------------------
+	// State that needs to be checkpointed
+	// ------------------------------------------------------------------------
+
+	private transient InternalTimerService<VoidNamespace> internalTimerService;
+
+	/**
+	 * Creates a new {@code SlicingWindowOperator} for the given sliding window assigner.
+	 */
+	public SlicingWindowOperator(
+			WindowAssigner<?, TimeWindow> windowAssigner,
+			AggregateFunction<IN, ACC, V> aggregateFunction,
+			TypeSerializer<ACC> accumulatorSerializer,
+			InternalWindowFunction<V, OUT, K, TimeWindow> windowFunction,
+			long allowedLateness,
+			OutputTag<IN> lateDataOutputTag) {
+
+		super(windowFunction);
+
+		checkArgument(isSupportedWindowAssigner(windowAssigner),
+			"The " + windowAssigner.getClass().getSimpleName() + " cannot be used with a SlicingWindowOperator.");
+		checkArgument(allowedLateness >= 0);
+
+		if (windowAssigner instanceof SlidingEventTimeWindows) {
+			SlidingEventTimeWindows assigner = (SlidingEventTimeWindows) windowAssigner;
+			this.windowSize = assigner.getSize();
+			this.windowSlide = assigner.getSlide();
+			this.sliceOffset = assigner.getOffset();
+		} else {
+			SlidingProcessingTimeWindows assigner = (SlidingProcessingTimeWindows) windowAssigner;
+			this.windowSize = assigner.getSize();
+			this.windowSlide = assigner.getSlide();
+			this.sliceOffset = assigner.getOffset();
+		}
+
+		this.sliceSize = gcd(windowSize, windowSlide);
+		this.windowEndOffset = (sliceOffset + windowSize) % windowSlide;
+		this.isEventTime = windowAssigner.isEventTime();
+		this.aggregateFunction = checkNotNull(aggregateFunction);
+		this.sliceStateDescriptor = new MapStateDescriptor<>(
+			"window-slices", LongSerializer.INSTANCE, checkNotNull(accumulatorSerializer));
+		this.allowedLateness = allowedLateness;
+		this.lateDataOutputTag = lateDataOutputTag;
+
+		setChainingStrategy(ChainingStrategy.ALWAYS);
+	}
+
+	/**
+	 * Returns whether the given window assigner can be evaluated by a {@link SlicingWindowOperator}.
+	 */
+	public static boolean isSupportedWindowAssigner(WindowAssigner<?, ?> windowAssigner) {
+		return windowAssigner instanceof SlidingEventTimeWindows || windowAssigner instanceof SlidingProcessingTimeWindows;
+	}
+
+	@Override
+	public void open() throws Exception {
+		super.open();
+
+		this.numLateRecordsDropped = metrics.counter(LATE_ELEMENTS_DROPPED_METRIC_NAME);
+		timestampedCollector = new TimestampedCollector<>(output);
+
+		internalTimerService =
+				getInternalTimerService("window-slice-timers", VoidNamespaceSerializer.INSTANCE, this);
+
+		processContext = new WindowContext();
+
+		sliceState = getPartitionedState(sliceStateDescriptor);
+		accumulatorSerializer = sliceStateDescriptor.getValueSerializer().duplicate();
+	}
+
+	@Override
+	public void close() throws Exception {
+		super.close();
+		timestampedCollector = null;
+		processContext = null;
+	}
+
+	@Override
+	public void dispose() throws Exception {
+		super.dispose();
+		timestampedCollector = null;
+		processContext = null;
+	}
+
+	@Override
+	public void processElement(StreamRecord<IN> element) throws Exception {
+		final long timestamp;
+		final long currentTime;
+
+		if (isEventTime) {
+			timestamp = element.getTimestamp();
+			if (timestamp == Long.MIN_VALUE) {
+				throw new RuntimeException("Record has Long.MIN_VALUE timestamp (= no timestamp marker). " +
+					"Is the time characteristic set to 'ProcessingTime', or did you forget to call " +
+					"'DataStream.assignTimestampsAndWatermarks(...)'?");
+			}
+			currentTime = internalTimerService.currentWatermark();
+		} else {
+			timestamp = internalTimerService.currentProcessingTime();
+			currentTime = timestamp;
+		}
+
+		final long sliceStart = TimeWindow.getWindowStartWithOffset(timestamp, sliceOffset, sliceSize);
+
+		// drop if all windows of the slice are already late
+		if (isEventTime && sliceCleanupTime(sliceStart) <= currentTime) {
+			if (lateDataOutputTag != null) {
+				output.collect(lateDataOutputTag, element);
+			} else {
+				this.numLateRecordsDropped.inc();
+			}
+			return;
+		}
+
+		ACC accumulator = sliceState.get(sliceStart);
+		if (accumulator == null) {
+			accumulator = aggregateFunction.createAccumulator();
+		}
+		sliceState.put(sliceStart, aggregateFunction.add(element.getValue(), accumulator));
+
+		if (isEventTime) {
+			// windows that already fired but are still within the allowed lateness fire again,
+			// like the default event time trigger does for late elements
+			final long lastWindowEnd = lastWindowEnd(sliceStart);
+			for (long windowEnd = firstWindowEnd(sliceStart);
+					windowEnd <= lastWindowEnd && windowEnd - 1 <= currentTime;
+					windowEnd += windowSlide) {
+
+				if (cleanupTime(windowEnd) > currentTime) {
+					emitWindow(windowEnd);
+				}
+			}
+		}
+
+		// processing time timers for the current time have not fired yet, whereas the
+		// watermark means that all event time timers up to it have fired
+		registerTimer(nextTimerForSlice(sliceStart, isEventTime ? currentTime : currentTime - 1));
+	}
+
+	@Override
+	public void onEventTime(InternalTimer<K, VoidNamespace> timer) throws Exception {
+		if (isEventTime) {
+			onTimer(timer.getTimestamp());
+		}
+	}
+
+	@Override
+	public void onProcessingTime(InternalTimer<K, VoidNamespace> timer) throws Exception {
+		if (!isEventTime) {
+			onTimer(timer.getTimestamp());
+		}
+	}
+
+	/**
+	 * Fires the window that ends right after the given time, if there is one, and drops the
+	 * slices whose windows have all been cleaned up. Afterwards, a timer for the next window or
+	 * cleanup of the remaining slices of the current key is registered.
+	 */
+	private void onTimer(long time) throws Exception {
+		final long windowEnd = time + 1;
+		if (TimeWindow.getWindowStartWithOffset(windowEnd, windowEndOffset, windowSlide) == windowEnd) {
+			emitWindow(windowEnd);
+		}
+
+		long nextTimer = Long.MAX_VALUE;
+		boolean hasRemainingSlices = false;
+
+		Iterator<Map.Entry<Long, ACC>> slices = sliceState.iterator();
+		while (slices.hasNext()) {
+			final long sliceStart = slices.next().getKey();
+
+			if (sliceCleanupTime(sliceStart) <= time) {
+				slices.remove();
+			} else {
+				hasRemainingSlices = true;
+				nextTimer = Math.min(nextTimer, nextTimerForSlice(sliceStart, time));
+			}
+		}
+
+		if (hasRemainingSlices) {
+			registerTimer(nextTimer);
+		} else {
+			sliceState.clear();
+		}
+	}
+
+	/**
+	 * Merges the accumulators of all slices of the window with the given end and emits the
+	 * result using the {@link InternalWindowFunction}. Nothing is emitted if the window does not
+	 * contain any slice.
+	 */
+	private void emitWindow(long windowEnd) throws Exception {
+		final long windowStart = windowEnd - windowSize;
+
+		ACC windowAccumulator = null;
+		boolean isEmpty = true;
+
+		for (Map.Entry<Long, ACC> slice : sliceState.entries()) {
+			final long sliceStart = slice.getKey();
+			if (sliceStart >= windowStart && sliceStart < windowEnd) {
+				if (isEmpty) {
+					// the merge may modify its first argument, which must not be the slice accumulator
+					windowAccumulator = accumulatorSerializer.copy(slice.getValue());
+					isEmpty = false;
+				} else {
+					windowAccumulator = aggregateFunction.merge(windowAccumulator, slice.getValue());
+				}
+			}
+		}
+
+		if (isEmpty) {
+			return;
+		}
+
+		@SuppressWarnings("unchecked")
+		final K key = (K) getCurrentKey();
+		final TimeWindow window = new TimeWindow(windowStart, windowEnd);
+
+		timestampedCollector.setAbsoluteTimestamp(window.maxTimestamp());
+		processContext.window = window;
+		userFunction.process(key, window, processContext, aggregateFunction.getResult(windowAccumulator), timestampedCollector);
+	}
+
+	/**
+	 * Returns the time of the next timer that is required for the slice with the given start
+	 * after the given time. This is either the end of the next window that contains the slice,
+	 * or the cleanup time of the slice if all its windows have already fired.
+	 */
+	private long nextTimerForSlice(long sliceStart, long time) {
+		long windowEnd = firstWindowEnd(sliceStart);
+		if (windowEnd - 1 <= time) {
+			// the first window whose max timestamp is after the given time
+			windowEnd = TimeWindow.getWindowStartWithOffset(time + 1, windowEndOffset, windowSlide) + windowSlide;
+		}
+
+		if (windowEnd <= lastWindowEnd(sliceStart)) {
+			return windowEnd - 1;
+		} else {
+			return sliceCleanupTime(sliceStart);
+		}
+	}
+
+	private void registerTimer(long time) {
+		if (time == Long.MAX_VALUE) {
+			// don't set a timer for "end of time"
+			return;
+		}
+
+		if (isEventTime) {
+			internalTimerService.registerEventTimeTimer(VoidNamespace.INSTANCE, time);
+		} else {
+			internalTimerService.registerProcessingTimeTimer(VoidNamespace.INSTANCE, time);
+		}
+	}
+
+	/**
+	 * Returns the end of the first window that contains the slice with the given start.
+	 */
+	private long firstWindowEnd(long sliceStart) {
+		return TimeWindow.getWindowStartWithOffset(sliceStart + sliceSize - 1, windowEndOffset, windowSlide) + windowSlide;
+	}
+
+	/**
+	 * Returns the end of the last window that contains the slice with the given start.
+	 */
+	private long lastWindowEnd(long sliceStart) {
+		return TimeWindow.getWindowStartWithOffset(sliceStart + windowSize, windowEndOffset, windowSlide);
+	}
+
+	/**
+	 * Returns the time after which the slice with the given start is no longer needed, which is
+	 * the cleanup time of its last window.
+	 */
+	private long sliceCleanupTime(long sliceStart) {
+		return cleanupTime(lastWindowEnd(sliceStart));
+	}
+
+	/**
+	 * Returns the cleanup time for the window with the given end, which is
+	 * {@code window.maxTimestamp + allowedLateness}, or {@link Long#MAX_VALUE} on overflow.
+	 */
+	private long cleanupTime(long windowEnd) {
+		final long maxTimestamp = windowEnd - 1;
+		if (isEventTime) {
+			long cleanupTime = maxTimestamp + allowedLateness;
+			return cleanupTime >= maxTimestamp ? cleanupTime : Long.MAX_VALUE;
+		} else {
+			return maxTimestamp;
+		}
+	}
+
+	private static long gcd(long a, long b) {
+		return b == 0 ? a : gcd(b, a % b);
+	}
+
+	@VisibleForTesting
+	long getSliceSize() {
+		return sliceSize;
+	}
+
+	/**
+	 * The context for the {@link InternalWindowFunction}, which only gives access to global
+	 * keyed state.
+	 */
+	private class WindowContext implements InternalWindowFunction.InternalWindowContext {
+
+		private TimeWindow window;
+
+		@Override
+		public long currentProcessingTime() {
+			return internalTimerService.currentProcessingTime();
+		}
+
+		@Override
+		public long currentWatermark() {
+			return internalTimerService.currentWatermark();
+		}
+
+		@Override
+		public KeyedStateStore windowState() {
+			throw new UnsupportedOperationException("Per-window state is not supported when slicing windows.");
+		}
+
+		@Override
+		public KeyedStateStore globalState() {
+			return SlicingWindowOperator.this.getKeyedStateStore();
+		}
+
+		@Override
+		public <X> void output(OutputTag<X> outputTag, X value) {
+			if (outputTag == null) {
+				throw new IllegalArgumentException("OutputTag must not be null.");
+			}
+			output.collect(outputTag, new StreamRecord<>(value, window.maxTimestamp()));
+		}
+	}
+
+	/**
+	 * An {@link AggregateFunction} that incrementally applies a {@link ReduceFunction}, for
+	 * evaluating reductions with a {@link SlicingWindowOperator}. The accumulator is {@code null}
+	 * until the first element was added.
+	 *
+	 * @param <T> The type of the reduced elements.
+	 */
+	@Internal
+	public static final class ReduceAggregateFunction<T> implements AggregateFunction<T, T, T> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final ReduceFunction<T> reduceFunction;
+
+		public ReduceAggregateFunction(ReduceFunction<T> reduceFunction) {
+			this.reduceFunction = checkNotNull(reduceFunction);
+		}
+
+		@Override
+		public T createAccumulator() {
+			return null;
+		}
+
+		@Override
+		public T add(T value, T accumulator) {
+			try {
+				return accumulator == null ? value : reduceFunction.reduce(accumulator, value);
+			} catch (Exception e) {
+				throw new RuntimeException("Could not reduce the window slice.", e);
+			}
+		}
+
+		@Override
+		public T getResult(T accumulator) {
+			return accumulator;
+		}
+
+		@Override
+		public T merge(T a, T b) {
+			return add(b, a);
+		}
+	}
+}
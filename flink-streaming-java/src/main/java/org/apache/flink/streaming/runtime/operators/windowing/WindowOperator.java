@@ -142,6 +142,22 @@ public class WindowOperator<K, IN, ACC, OUT, W extends Window>
 
 	protected transient Counter numLateRecordsDropped;
 
+	private static final String WINDOW_MERGES_METRIC_NAME = "numWindowMerges";
+
+	private static final String MERGED_STATE_WINDOWS_METRIC_NAME = "numMergedStateWindows";
+
+	/** The number of merges of merging windows. */
+	private transient Counter numWindowMerges;
+
+	/** The number of state windows whose contents were merged into the state window of another window. */
+	private transient Counter numMergedStateWindows;
+
+	/**
+	 * Whether the contents of merging windows are merged lazily, by referencing the merged state
+	 * windows instead of moving their contents. Only applies to list window state.
+	 */
+	private final boolean lazyMerging;
+
 	// ------------------------------------------------------------------------
 	// State that is not checkpointed
 	// ------------------------------------------------------------------------
@@ -190,6 +206,29 @@ public class WindowOperator<K, IN, ACC, OUT, W extends Window>
 			long allowedLateness,
 			OutputTag<IN> lateDataOutputTag) {
 
+		this(windowAssigner, windowSerializer, keySelector, keySerializer, windowStateDescriptor,
+			windowFunction, trigger, allowedLateness, lateDataOutputTag, false);
+	}
+
+	/**
+	 * Creates a new {@code WindowOperator} based on the given policies and user functions.
+	 *
+	 * <p>If {@code lazyMerging} is set, the list contents of merging windows are merged by
+	 * referencing the state windows of the merged windows, instead of moving their contents
+	 * into the state window of the merge result.
+	 */
+	public WindowOperator(
+			WindowAssigner<? super IN, W> windowAssigner,
+			TypeSerializer<W> windowSerializer,
+			KeySelector<IN, K> keySelector,
+			TypeSerializer<K> keySerializer,
+			StateDescriptor<? extends AppendingState<IN, ACC>, ?> windowStateDescriptor,
+			InternalWindowFunction<ACC, OUT, K, W> windowFunction,
+			Trigger<? super IN, ? super W> trigger,
+			long allowedLateness,
+			OutputTag<IN> lateDataOutputTag,
+			boolean lazyMerging) {
+
 		super(windowFunction);
 
 		checkArgument(!(windowAssigner instanceof BaseAlignedWindowAssigner),
@@ -210,6 +249,7 @@ public class WindowOperator<K, IN, ACC, OUT, W extends Window>
 		this.trigger = checkNotNull(trigger);
 		this.allowedLateness = allowedLateness;
 		this.lateDataOutputTag = lateDataOutputTag;
+		this.lazyMerging = lazyMerging;
 
 		setChainingStrategy(ChainingStrategy.ALWAYS);
 	}
@@ -219,6 +259,8 @@ public class WindowOperator<K, IN, ACC, OUT, W extends Window>
 		super.open();
 
 		this.numLateRecordsDropped = metrics.counter(LATE_ELEMENTS_DROPPED_METRIC_NAME);
+		this.numWindowMerges = metrics.counter(WINDOW_MERGES_METRIC_NAME);
+		this.numMergedStateWindows = metrics.counter(MERGED_STATE_WINDOWS_METRIC_NAME);
 		timestampedCollector = new TimestampedCollector<>(output);
 
 		internalTimerService =
@@ -243,6 +285,17 @@ public class WindowOperator<K, IN, ACC, OUT, W extends Window>
 		// create the typed and helper states for merging windows
 		if (windowAssigner instanceof MergingWindowAssigner) {
 
+			// list contents can be merged lazily, by keeping references to the merged state windows
+			if (lazyMerging && windowState instanceof InternalListState) {
+				final InternalListState<K, W, W> mergedStateWindowsState = (InternalListState<K, W, W>)
+					getOrCreateKeyedState(windowSerializer, new ListStateDescriptor<>("merged-state-windows", windowSerializer));
+
+				@SuppressWarnings("unchecked")
+				final InternalAppendingState<K, W, IN, ACC, ACC> lazyMergingState = (InternalAppendingState<K, W, IN, ACC, ACC>)
+					new LazyMergingListState<>((InternalListState<K, W, IN>) windowState, mergedStateWindowsState);
+				windowState = lazyMergingState;
+			}
+
 			// store a typed reference for the state of merging windows - sanity check
 			if (windowState instanceof InternalMergingState) {
 				windowMergingState = (InternalMergingState<K, W, IN, ACC, ACC>) windowState;
@@ -339,6 +392,9 @@ public class WindowOperator<K, IN, ACC, OUT, W extends Window>
 
 						// merge the merged state windows into the newly resulting state window
 						windowMergingState.mergeNamespaces(stateWindowResult, mergedStateWindows);
+
+						numWindowMerges.inc();
+						numMergedStateWindows.inc(mergedStateWindows.size());
 					}
 				});
 
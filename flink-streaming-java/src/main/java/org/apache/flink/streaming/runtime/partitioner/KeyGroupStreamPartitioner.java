@@ -19,11 +19,15 @@ package org.apache.flink.streaming.runtime.partitioner;
 
 import org.apache.flink.annotation.Internal;
 import org.apache.flink.api.java.functions.KeySelector;
+import org.apache.flink.metrics.MetricGroup;
 import org.apache.flink.runtime.plugable.SerializationDelegate;
 import org.apache.flink.runtime.state.KeyGroupRangeAssignment;
+import org.apache.flink.streaming.runtime.metrics.HotKeyTracker;
 import org.apache.flink.streaming.runtime.streamrecord.StreamRecord;
 import org.apache.flink.util.Preconditions;
 
+import javax.annotation.Nullable;
+
 /**
  * Partitioner selects the target channel based on the key group index.
  *
@@ -37,6 +41,10 @@ public class KeyGroupStreamPartitioner<T, K> extends StreamPartitioner<T> implem
 
 	private int maxParallelism;
 
+	/** Optional tracker of the hottest keys and key groups, which only exists at runtime. */
+	@Nullable
+	private transient HotKeyTracker<K> hotKeyTracker;
+
 	public KeyGroupStreamPartitioner(KeySelector<T, K> keySelector, int maxParallelism) {
 		Preconditions.checkArgument(maxParallelism > 0, "Number of key-groups must be > 0!");
 		this.keySelector = Preconditions.checkNotNull(keySelector);
@@ -47,6 +55,25 @@ public class KeyGroupStreamPartitioner<T, K> extends StreamPartitioner<T> implem
 		return maxParallelism;
 	}
 
+	/**
+	 * Creates a copy of this partitioner that tracks the hottest keys and key groups of the
+	 * partitioned records and reports them to the given metric group.
+	 *
+	 * <p>The copy is needed because the same partitioner instance may be shared by several outputs.
+	 *
+	 * @param numTrackedKeys The number of keys that are tracked at the same time.
+	 * @param sampleInterval The average number of records per sampled record.
+	 * @param metricGroup The metric group of the output.
+	 */
+	public KeyGroupStreamPartitioner<T, K> withHotKeyTracking(int numTrackedKeys, int sampleInterval, MetricGroup metricGroup) {
+		HotKeyTracker<K> tracker = new HotKeyTracker<>(numTrackedKeys, sampleInterval, maxParallelism);
+		tracker.registerMetrics(metricGroup);
+
+		KeyGroupStreamPartitioner<T, K> copy = new KeyGroupStreamPartitioner<>(keySelector, maxParallelism);
+		copy.hotKeyTracker = tracker;
+		return copy;
+	}
+
 	@Override
 	public int selectChannel(SerializationDelegate<StreamRecord<T>> record) {
 		K key;
@@ -55,7 +82,11 @@ public class KeyGroupStreamPartitioner<T, K> extends StreamPartitioner<T> implem
 		} catch (Exception e) {
 			throw new RuntimeException("Could not extract key from " + record.getInstance().getValue(), e);
 		}
-		return KeyGroupRangeAssignment.assignKeyToParallelOperator(key, maxParallelism, numberOfChannels);
+		int keyGroup = KeyGroupRangeAssignment.assignToKeyGroup(key, maxParallelism);
+		if (hotKeyTracker != null) {
+			hotKeyTracker.add(key, keyGroup);
+		}
+		return KeyGroupRangeAssignment.computeOperatorIndexForKeyGroup(maxParallelism, numberOfChannels, keyGroup);
 	}
 
 	@Override
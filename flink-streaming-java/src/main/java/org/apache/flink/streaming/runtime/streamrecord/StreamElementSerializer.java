@@ -24,6 +24,7 @@ import org.apache.flink.api.common.typeutils.CompositeTypeSerializerSnapshot;
 import org.apache.flink.api.common.typeutils.CompositeTypeSerializerUtil;
 import org.apache.flink.api.common.typeutils.TypeSerializer;
 import org.apache.flink.api.common.typeutils.TypeSerializerSchemaCompatibility;
+import org.apache.flink.api.common.typeutils.base.VarLongSerializer;
 import org.apache.flink.core.memory.DataInputView;
 import org.apache.flink.core.memory.DataOutputView;
 import org.apache.flink.runtime.jobgraph.OperatorID;
@@ -57,17 +58,29 @@ public final class StreamElementSerializer<T> extends TypeSerializer<StreamEleme
 
 	private final TypeSerializer<T> typeSerializer;
 
+	/** Whether the timestamps of records and watermarks are written as variable length integers. */
+	private final boolean compactTimestamps;
+
 	public StreamElementSerializer(TypeSerializer<T> serializer) {
+		this(serializer, false);
+	}
+
+	public StreamElementSerializer(TypeSerializer<T> serializer, boolean compactTimestamps) {
 		if (serializer instanceof StreamElementSerializer) {
 			throw new RuntimeException("StreamRecordSerializer given to StreamRecordSerializer as value TypeSerializer: " + serializer);
 		}
 		this.typeSerializer = requireNonNull(serializer);
+		this.compactTimestamps = compactTimestamps;
 	}
 
 	public TypeSerializer<T> getContainedTypeSerializer() {
 		return this.typeSerializer;
 	}
 
+	public boolean isCompactTimestamps() {
+		return compactTimestamps;
+	}
+
 	// ------------------------------------------------------------------------
 	//  Utilities
 	// ------------------------------------------------------------------------
@@ -80,7 +93,7 @@ public final class StreamElementSerializer<T> extends TypeSerializer<StreamEleme
 	@Override
 	public StreamElementSerializer<T> duplicate() {
 		TypeSerializer<T> copy = typeSerializer.duplicate();
-		return (copy == typeSerializer) ? this : new StreamElementSerializer<T>(copy);
+		return (copy == typeSerializer) ? this : new StreamElementSerializer<T>(copy, compactTimestamps);
 	}
 
 	// ------------------------------------------------------------------------
@@ -139,14 +152,14 @@ public final class StreamElementSerializer<T> extends TypeSerializer<StreamEleme
 
 		if (tag == TAG_REC_WITH_TIMESTAMP) {
 			// move timestamp
-			target.writeLong(source.readLong());
+			copyTimestamp(source, target);
 			typeSerializer.copy(source, target);
 		}
 		else if (tag == TAG_REC_WITHOUT_TIMESTAMP) {
 			typeSerializer.copy(source, target);
 		}
 		else if (tag == TAG_WATERMARK) {
-			target.writeLong(source.readLong());
+			copyTimestamp(source, target);
 		}
 		else if (tag == TAG_STREAM_STATUS) {
 			target.writeInt(source.readInt());
@@ -168,7 +181,7 @@ public final class StreamElementSerializer<T> extends TypeSerializer<StreamEleme
 
 			if (record.hasTimestamp()) {
 				target.write(TAG_REC_WITH_TIMESTAMP);
-				target.writeLong(record.getTimestamp());
+				writeTimestamp(record.getTimestamp(), target);
 			} else {
 				target.write(TAG_REC_WITHOUT_TIMESTAMP);
 			}
@@ -176,7 +189,7 @@ public final class StreamElementSerializer<T> extends TypeSerializer<StreamEleme
 		}
 		else if (value.isWatermark()) {
 			target.write(TAG_WATERMARK);
-			target.writeLong(value.asWatermark().getTimestamp());
+			writeTimestamp(value.asWatermark().getTimestamp(), target);
 		}
 		else if (value.isStreamStatus()) {
 			target.write(TAG_STREAM_STATUS);
@@ -198,14 +211,14 @@ public final class StreamElementSerializer<T> extends TypeSerializer<StreamEleme
 	public StreamElement deserialize(DataInputView source) throws IOException {
 		int tag = source.readByte();
 		if (tag == TAG_REC_WITH_TIMESTAMP) {
-			long timestamp = source.readLong();
+			long timestamp = readTimestamp(source);
 			return new StreamRecord<T>(typeSerializer.deserialize(source), timestamp);
 		}
 		else if (tag == TAG_REC_WITHOUT_TIMESTAMP) {
 			return new StreamRecord<T>(typeSerializer.deserialize(source));
 		}
 		else if (tag == TAG_WATERMARK) {
-			return new Watermark(source.readLong());
+			return new Watermark(readTimestamp(source));
 		}
 		else if (tag == TAG_STREAM_STATUS) {
 			return new StreamStatus(source.readInt());
@@ -222,7 +235,7 @@ public final class StreamElementSerializer<T> extends TypeSerializer<StreamEleme
 	public StreamElement deserialize(StreamElement reuse, DataInputView source) throws IOException {
 		int tag = source.readByte();
 		if (tag == TAG_REC_WITH_TIMESTAMP) {
-			long timestamp = source.readLong();
+			long timestamp = readTimestamp(source);
 			T value = typeSerializer.deserialize(source);
 			StreamRecord<T> reuseRecord = reuse.asRecord();
 			reuseRecord.replace(value, timestamp);
@@ -235,7 +248,7 @@ public final class StreamElementSerializer<T> extends TypeSerializer<StreamEleme
 			return reuseRecord;
 		}
 		else if (tag == TAG_WATERMARK) {
-			return new Watermark(source.readLong());
+			return new Watermark(readTimestamp(source));
 		}
 		else if (tag == TAG_LATENCY_MARKER) {
 			return new LatencyMarker(source.readLong(), new OperatorID(source.readLong(), source.readLong()), source.readInt());
@@ -245,6 +258,26 @@ public final class StreamElementSerializer<T> extends TypeSerializer<StreamEleme
 		}
 	}
 
+	private void writeTimestamp(long timestamp, DataOutputView target) throws IOException {
+		if (compactTimestamps) {
+			VarLongSerializer.writeVarLong(timestamp, target);
+		} else {
+			target.writeLong(timestamp);
+		}
+	}
+
+	private long readTimestamp(DataInputView source) throws IOException {
+		return compactTimestamps ? VarLongSerializer.readVarLong(source) : source.readLong();
+	}
+
+	private void copyTimestamp(DataInputView source, DataOutputView target) throws IOException {
+		if (compactTimestamps) {
+			VarLongSerializer.copyVarLong(source, target);
+		} else {
+			target.writeLong(source.readLong());
+		}
+	}
+
 	// ------------------------------------------------------------------------
 	//  Utilities
 	// ------------------------------------------------------------------------
@@ -254,7 +287,7 @@ public final class StreamElementSerializer<T> extends TypeSerializer<StreamEleme
 		if (obj instanceof StreamElementSerializer) {
 			StreamElementSerializer<?> other = (StreamElementSerializer<?>) obj;
 
-			return typeSerializer.equals(other.typeSerializer);
+			return typeSerializer.equals(other.typeSerializer) && compactTimestamps == other.compactTimestamps;
 		} else {
 			return false;
 		}
@@ -262,7 +295,7 @@ public final class StreamElementSerializer<T> extends TypeSerializer<StreamEleme
 
 	@Override
 	public int hashCode() {
-		return typeSerializer.hashCode();
+		return 31 * typeSerializer.hashCode() + Boolean.hashCode(compactTimestamps);
 	}
 
 	// --------------------------------------------------------------------------------------------
@@ -310,7 +343,9 @@ public final class StreamElementSerializer<T> extends TypeSerializer<StreamEleme
 	public static final class StreamElementSerializerSnapshot<T>
 		extends CompositeTypeSerializerSnapshot<StreamElement, StreamElementSerializer<T>> {
 
-		private static final int VERSION = 2;
+		private static final int VERSION = 3;
+
+		private boolean compactTimestamps;
 
 		@SuppressWarnings("WeakerAccess")
 		public StreamElementSerializerSnapshot() {
@@ -319,6 +354,7 @@ public final class StreamElementSerializer<T> extends TypeSerializer<StreamEleme
 
 		StreamElementSerializerSnapshot(StreamElementSerializer<T> serializerInstance) {
 			super(serializerInstance);
+			this.compactTimestamps = serializerInstance.compactTimestamps;
 		}
 
 		@Override
@@ -336,7 +372,25 @@ public final class StreamElementSerializer<T> extends TypeSerializer<StreamEleme
 			@SuppressWarnings("unchecked")
 			TypeSerializer<T> casted = (TypeSerializer<T>) nestedSerializers[0];
 
-			return new StreamElementSerializer<>(casted);
+			return new StreamElementSerializer<>(casted, compactTimestamps);
+		}
+
+		@Override
+		protected void writeOuterSnapshot(DataOutputView out) throws IOException {
+			out.writeBoolean(compactTimestamps);
+		}
+
+		@Override
+		protected void readOuterSnapshot(int readOuterSnapshotVersion, DataInputView in, ClassLoader userCodeClassLoader) throws IOException {
+			// versions before 3 did not support compact timestamps
+			this.compactTimestamps = readOuterSnapshotVersion >= 3 && in.readBoolean();
+		}
+
+		@Override
+		protected OuterSchemaCompatibility resolveOuterSchemaCompatibility(StreamElementSerializer<T> newSerializer) {
+			return compactTimestamps == newSerializer.compactTimestamps ?
+				OuterSchemaCompatibility.COMPATIBLE_AS_IS :
+				OuterSchemaCompatibility.COMPATIBLE_AFTER_MIGRATION;
 		}
 	}
 }
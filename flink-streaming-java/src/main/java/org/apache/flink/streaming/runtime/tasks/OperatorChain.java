@@ -300,7 +300,8 @@ public class OperatorChain<OUT, OP extends StreamOperator<OUT>> implements Strea
 				userCodeClassloader,
 				streamOutputs,
 				allOperators,
-				outputEdge.getOutputTag());
+				outputEdge.getOutputTag(),
+				operatorConfig.isOutputNotMutated());
 			allOutputs.add(new Tuple2<>(output, outputEdge));
 		}
 
@@ -355,7 +356,8 @@ public class OperatorChain<OUT, OP extends StreamOperator<OUT>> implements Strea
 			ClassLoader userCodeClassloader,
 			Map<StreamEdge, RecordWriterOutput<?>> streamOutputs,
 			List<StreamOperator<?>> allOperators,
-			OutputTag<IN> outputTag) {
+			OutputTag<IN> outputTag,
+			boolean predecessorOutputNotMutated) {
 		// create the output that the operator writes to first. this may recursively create more operators
 		WatermarkGaugeExposingOutput<StreamRecord<OUT>> chainedOperatorOutput = createOutputCollector(
 			containingTask,
@@ -378,7 +380,12 @@ public class OperatorChain<OUT, OP extends StreamOperator<OUT>> implements Strea
 		}
 		else {
 			TypeSerializer<IN> inSerializer = operatorConfig.getTypeSerializerIn1(userCodeClassloader);
-			currentOperatorOutput = new CopyingChainingOutput<>(chainedOperator, inSerializer, outputTag, this);
+			// values of immutable types can be shared, as well as values that neither the
+			// predecessor nor this operator declared to modify. the record itself is still
+			// copied because operators replace the value of the records they receive
+			boolean copyValues = !(operatorConfig.isInputNotMutated() && predecessorOutputNotMutated)
+				&& (inSerializer == null || !inSerializer.isImmutableType());
+			currentOperatorOutput = new CopyingChainingOutput<>(chainedOperator, inSerializer, copyValues, outputTag, this);
 		}
 
 		// wrap watermark gauges since registered metrics must be unique
@@ -406,7 +413,12 @@ public class OperatorChain<OUT, OP extends StreamOperator<OUT>> implements Strea
 			outSerializer = upStreamConfig.getTypeSerializerOut(taskEnvironment.getUserClassLoader());
 		}
 
-		return new RecordWriterOutput<>(recordWriter, outSerializer, sideOutputTag, this);
+		return new RecordWriterOutput<>(
+			recordWriter,
+			outSerializer,
+			sideOutputTag,
+			this,
+			taskEnvironment.getExecutionConfig().isCompactSerializationEnabled());
 	}
 
 	// ------------------------------------------------------------------------
@@ -535,13 +547,25 @@ public class OperatorChain<OUT, OP extends StreamOperator<OUT>> implements Strea
 
 		private final TypeSerializer<T> serializer;
 
+		private final boolean copyValues;
+
+		public CopyingChainingOutput(
+				OneInputStreamOperator<T, ?> operator,
+				TypeSerializer<T> serializer,
+				OutputTag<T> outputTag,
+				StreamStatusProvider streamStatusProvider) {
+			this(operator, serializer, true, outputTag, streamStatusProvider);
+		}
+
 		public CopyingChainingOutput(
 				OneInputStreamOperator<T, ?> operator,
 				TypeSerializer<T> serializer,
+				boolean copyValues,
 				OutputTag<T> outputTag,
 				StreamStatusProvider streamStatusProvider) {
 			super(operator, streamStatusProvider, outputTag);
 			this.serializer = serializer;
+			this.copyValues = copyValues;
 		}
 
 		@Override
@@ -574,7 +598,8 @@ public class OperatorChain<OUT, OP extends StreamOperator<OUT>> implements Strea
 				StreamRecord<T> castRecord = (StreamRecord<T>) record;
 
 				numRecordsIn.inc();
-				StreamRecord<T> copy = castRecord.copy(serializer.copy(castRecord.getValue()));
+				StreamRecord<T> copy = castRecord.copy(
+					copyValues ? serializer.copy(castRecord.getValue()) : castRecord.getValue());
 				operator.setKeyContextElement1(copy);
 				operator.processElement(copy);
 			} catch (ClassCastException e) {
@@ -20,9 +20,12 @@ package org.apache.flink.streaming.runtime.tasks;
 import org.apache.flink.annotation.Internal;
 import org.apache.flink.annotation.VisibleForTesting;
 import org.apache.flink.api.common.accumulators.Accumulator;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.configuration.MetricOptions;
 import org.apache.flink.configuration.TaskManagerOptions;
 import org.apache.flink.core.fs.CloseableRegistry;
 import org.apache.flink.core.fs.FileSystemSafetyNet;
+import org.apache.flink.metrics.MetricGroup;
 import org.apache.flink.runtime.checkpoint.CheckpointMetaData;
 import org.apache.flink.runtime.checkpoint.CheckpointMetrics;
 import org.apache.flink.runtime.checkpoint.CheckpointOptions;
@@ -52,6 +55,7 @@ import org.apache.flink.streaming.api.operators.StreamTaskStateInitializer;
 import org.apache.flink.streaming.api.operators.StreamTaskStateInitializerImpl;
 import org.apache.flink.streaming.runtime.io.RecordWriterOutput;
 import org.apache.flink.streaming.runtime.partitioner.ConfigurableStreamPartitioner;
+import org.apache.flink.streaming.runtime.partitioner.KeyGroupStreamPartitioner;
 import org.apache.flink.streaming.runtime.partitioner.StreamPartitioner;
 import org.apache.flink.streaming.runtime.streamrecord.StreamRecord;
 import org.apache.flink.streaming.runtime.streamstatus.StreamStatusMaintainer;
@@ -1246,7 +1250,7 @@ public abstract class StreamTask<OUT, OP extends StreamOperator<OUT>>
 					i,
 					environment,
 					environment.getTaskInfo().getTaskName(),
-					chainedConfigs.get(edge.getSourceId()).getBufferTimeout()));
+					chainedConfigs.get(edge.getSourceId())));
 		}
 		return recordWriters;
 	}
@@ -1256,7 +1260,7 @@ public abstract class StreamTask<OUT, OP extends StreamOperator<OUT>>
 			int outputIndex,
 			Environment environment,
 			String taskName,
-			long bufferTimeout) {
+			StreamConfig edgeSourceConfig) {
 		@SuppressWarnings("unchecked")
 		StreamPartitioner<OUT> outputPartitioner = (StreamPartitioner<OUT>) edge.getPartitioner();
 
@@ -1272,9 +1276,23 @@ public abstract class StreamTask<OUT, OP extends StreamOperator<OUT>>
 			}
 		}
 
+		if (outputPartitioner instanceof KeyGroupStreamPartitioner) {
+			Configuration taskManagerConfig = environment.getTaskManagerInfo().getConfiguration();
+			int numTrackedKeys = taskManagerConfig.getInteger(MetricOptions.HOT_KEYS_NUM_TRACKED_KEYS);
+			if (numTrackedKeys > 0) {
+				MetricGroup outputMetricGroup = environment.getMetricGroup()
+					.getOrAddOperator(edgeSourceConfig.getOperatorID(), edgeSourceConfig.getOperatorName())
+					.addGroup("output", String.valueOf(outputIndex));
+				outputPartitioner = ((KeyGroupStreamPartitioner<OUT, ?>) outputPartitioner).withHotKeyTracking(
+					numTrackedKeys,
+					taskManagerConfig.getInteger(MetricOptions.HOT_KEYS_SAMPLE_INTERVAL),
+					outputMetricGroup);
+			}
+		}
+
 		RecordWriter<SerializationDelegate<StreamRecord<OUT>>> output = new RecordWriterBuilder()
 			.setChannelSelector(outputPartitioner)
-			.setTimeout(bufferTimeout)
+			.setTimeout(edgeSourceConfig.getBufferTimeout())
 			.setTaskName(taskName)
 			.build(bufferWriter);
 		output.setMetricGroup(environment.getMetricGroup().getIOMetricGroup());
@@ -18,12 +18,14 @@
 package org.apache.flink.streaming.api;
 
 import org.apache.flink.api.common.InvalidProgramException;
+import org.apache.flink.api.common.functions.AggregateFunction;
 import org.apache.flink.api.common.functions.FilterFunction;
 import org.apache.flink.api.common.functions.FlatMapFunction;
 import org.apache.flink.api.common.functions.FoldFunction;
 import org.apache.flink.api.common.functions.Function;
 import org.apache.flink.api.common.functions.MapFunction;
 import org.apache.flink.api.common.functions.Partitioner;
+import org.apache.flink.api.common.functions.ReduceFunction;
 import org.apache.flink.api.common.operators.ResourceSpec;
 import org.apache.flink.api.common.state.MapStateDescriptor;
 import org.apache.flink.api.common.typeinfo.BasicArrayTypeInfo;
@@ -44,6 +46,7 @@ import org.apache.flink.streaming.api.datastream.ConnectedStreams;
 import org.apache.flink.streaming.api.datastream.DataStream;
 import org.apache.flink.streaming.api.datastream.DataStreamSink;
 import org.apache.flink.streaming.api.datastream.DataStreamSource;
+import org.apache.flink.streaming.api.datastream.DataStreamUtils;
 import org.apache.flink.streaming.api.datastream.KeyedStream;
 import org.apache.flink.streaming.api.datastream.SingleOutputStreamOperator;
 import org.apache.flink.streaming.api.datastream.SplitStream;
@@ -60,13 +63,17 @@ import org.apache.flink.streaming.api.functions.sink.SinkFunction;
 import org.apache.flink.streaming.api.functions.windowing.AllWindowFunction;
 import org.apache.flink.streaming.api.graph.StreamEdge;
 import org.apache.flink.streaming.api.graph.StreamGraph;
+import org.apache.flink.streaming.api.graph.StreamNode;
 import org.apache.flink.streaming.api.operators.AbstractUdfStreamOperator;
 import org.apache.flink.streaming.api.operators.KeyedProcessOperator;
 import org.apache.flink.streaming.api.operators.LegacyKeyedProcessOperator;
+import org.apache.flink.streaming.api.operators.LocalAggregateMergeOperator;
+import org.apache.flink.streaming.api.operators.LocalReduceOperator;
 import org.apache.flink.streaming.api.operators.ProcessOperator;
 import org.apache.flink.streaming.api.operators.StreamOperator;
 import org.apache.flink.streaming.api.watermark.Watermark;
 import org.apache.flink.streaming.api.windowing.assigners.GlobalWindows;
+import org.apache.flink.streaming.api.windowing.time.Time;
 import org.apache.flink.streaming.api.windowing.triggers.CountTrigger;
 import org.apache.flink.streaming.api.windowing.triggers.PurgingTrigger;
 import org.apache.flink.streaming.api.windowing.windows.GlobalWindow;
@@ -799,6 +806,164 @@ public class DataStreamTest extends TestLogger {
 		assertTrue(getOperatorForDataStream(processed) instanceof ProcessOperator);
 	}
 
+	/**
+	 * Verify that a {@link KeyedStream#localReduce(ReduceFunction, long, Time)} call is translated to an
+	 * operator that runs before the key partitioning, with the parallelism of its input.
+	 */
+	@Test
+	public void testLocalReduceTranslation() {
+		StreamExecutionEnvironment env = StreamExecutionEnvironment.getExecutionEnvironment();
+		env.setParallelism(4);
+
+		DataStream<Long> src = env.generateSequence(0, 0).setParallelism(2);
+
+		ReduceFunction<Long> reducer = new ReduceFunction<Long>() {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			public Long reduce(Long value1, Long value2) {
+				return value1 + value2;
+			}
+		};
+
+		KeyedStream<Long, Long> preReduced = src
+				.keyBy(new IdentityKeySelector<Long>())
+				.localReduce(reducer, 100L, Time.seconds(1L));
+
+		DataStream<Long> reduced = preReduced.reduce(reducer);
+		reduced.addSink(new DiscardingSink<Long>());
+
+		StreamGraph streamGraph = env.getStreamGraph();
+		StreamEdge inputEdge = streamGraph.getStreamNode(reduced.getId()).getInEdges().get(0);
+		StreamNode localNode = streamGraph.getStreamNode(inputEdge.getSourceId());
+
+		assertTrue(localNode.getOperator() instanceof LocalReduceOperator);
+		assertEquals(2, localNode.getParallelism());
+		assertTrue(inputEdge.getPartitioner() instanceof KeyGroupStreamPartitioner);
+		assertTrue(localNode.getInEdges().get(0).getPartitioner() instanceof ForwardPartitioner);
+	}
+
+	/**
+	 * Verify that the accumulators of {@link KeyedStream#localAggregate(AggregateFunction, long, Time)} are
+	 * merged by a keyed operator that emits the results of the aggregate function.
+	 */
+	@Test
+	public void testMergeLocalAggregatesTranslation() {
+		StreamExecutionEnvironment env = StreamExecutionEnvironment.getExecutionEnvironment();
+
+		AggregateFunction<Long, Long, String> aggregate = new AggregateFunction<Long, Long, String>() {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			public Long createAccumulator() {
+				return 0L;
+			}
+
+			@Override
+			public Long add(Long value, Long accumulator) {
+				return accumulator + value;
+			}
+
+			@Override
+			public String getResult(Long accumulator) {
+				return String.valueOf(accumulator);
+			}
+
+			@Override
+			public Long merge(Long a, Long b) {
+				return a + b;
+			}
+		};
+
+		SingleOutputStreamOperator<String> merged = env.generateSequence(0, 0)
+				.keyBy(new IdentityKeySelector<Long>())
+				.localAggregate(aggregate, 100L, Time.seconds(1L))
+				.mergeLocalAggregates(aggregate);
+		merged.addSink(new DiscardingSink<String>());
+
+		assertEquals(BasicTypeInfo.STRING_TYPE_INFO, merged.getType());
+		assertTrue(getOperatorForDataStream(merged) instanceof LocalAggregateMergeOperator);
+		assertEquals(aggregate, getFunctionForDataStream(merged));
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void testMergeLocalAggregatesRejectsOtherStreams() {
+		StreamExecutionEnvironment env = StreamExecutionEnvironment.getExecutionEnvironment();
+
+		env.fromElements(Tuple2.of(1L, 1L))
+				.keyBy(0)
+				.mergeLocalAggregates(new AggregateFunction<Long, Long, Long>() {
+					private static final long serialVersionUID = 1L;
+
+					@Override
+					public Long createAccumulator() {
+						return 0L;
+					}
+
+					@Override
+					public Long add(Long value, Long accumulator) {
+						return accumulator + value;
+					}
+
+					@Override
+					public Long getResult(Long accumulator) {
+						return accumulator;
+					}
+
+					@Override
+					public Long merge(Long a, Long b) {
+						return a + b;
+					}
+				});
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void testLocalReduceRejectsReinterpretedKeyedStream() {
+		StreamExecutionEnvironment env = StreamExecutionEnvironment.getExecutionEnvironment();
+		DataStreamSource<Long> src = env.generateSequence(0, 0);
+
+		DataStreamUtils.reinterpretAsKeyedStream(src, new IdentityKeySelector<Long>())
+				.localReduce(new ReduceFunction<Long>() {
+					private static final long serialVersionUID = 1L;
+
+					@Override
+					public Long reduce(Long value1, Long value2) {
+						return value1 + value2;
+					}
+				}, 100L, Time.seconds(1L));
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void testLocalAggregateRejectsReinterpretedKeyedStream() {
+		StreamExecutionEnvironment env = StreamExecutionEnvironment.getExecutionEnvironment();
+		DataStreamSource<Long> src = env.generateSequence(0, 0);
+
+		DataStreamUtils.reinterpretAsKeyedStream(src, new IdentityKeySelector<Long>())
+				.localAggregate(new AggregateFunction<Long, Long, Long>() {
+					private static final long serialVersionUID = 1L;
+
+					@Override
+					public Long createAccumulator() {
+						return 0L;
+					}
+
+					@Override
+					public Long add(Long value, Long accumulator) {
+						return accumulator + value;
+					}
+
+					@Override
+					public Long getResult(Long accumulator) {
+						return accumulator;
+					}
+
+					@Override
+					public Long merge(Long a, Long b) {
+						return a + b;
+					}
+				}, 100L, Time.seconds(1L));
+	}
+
 	/**
 	 * Tests that with a {@link KeyedStream} we have to provide a {@link KeyedBroadcastProcessFunction}.
 	 */
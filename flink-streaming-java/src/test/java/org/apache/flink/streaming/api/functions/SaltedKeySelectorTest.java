@@ -0,0 +1,72 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.streaming.api.functions;
+
+import org.apache.flink.api.common.typeinfo.BasicTypeInfo;
+import org.apache.flink.api.java.functions.KeySelector;
+import org.apache.flink.api.java.tuple.Tuple2;
+import org.apache.flink.api.java.typeutils.TupleTypeInfo;
+import org.apache.flink.util.TestLogger;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests for the {@link SaltedKeySelector}.
+ */
+public class SaltedKeySelectorTest extends TestLogger {
+
+	private static final KeySelector<Tuple2<String, Integer>, String> KEY = value -> value.f0;
+
+	private static final KeySelector<Tuple2<String, Integer>, Integer> SALT = value -> value.f1;
+
+	@Test
+	public void testSplitsOnlyHotKeys() throws Exception {
+		SaltedKeySelector<Tuple2<String, Integer>, String> selector = new SaltedKeySelector<>(
+			KEY, BasicTypeInfo.STRING_TYPE_INFO, Collections.singleton("hot"), 4, SALT);
+
+		Set<Integer> hotSalts = new HashSet<>();
+		for (int i = 0; i < 100; i++) {
+			assertEquals(Tuple2.of("cold", 0), selector.getKey(Tuple2.of("cold", i)));
+
+			Tuple2<String, Integer> hotKey = selector.getKey(Tuple2.of("hot", i));
+			assertEquals("hot", hotKey.f0);
+			assertEquals(hotKey, selector.getKey(Tuple2.of("hot", i)));
+			hotSalts.add(hotKey.f1);
+		}
+		assertEquals(new HashSet<>(Arrays.asList(0, 1, 2, 3)), hotSalts);
+	}
+
+	@Test
+	public void testProducedType() {
+		SaltedKeySelector<Tuple2<String, Integer>, String> selector = new SaltedKeySelector<>(
+			KEY, BasicTypeInfo.STRING_TYPE_INFO, Collections.singleton("hot"), 4, SALT);
+
+		assertEquals(
+			new TupleTypeInfo<>(BasicTypeInfo.STRING_TYPE_INFO, BasicTypeInfo.INT_TYPE_INFO),
+			selector.getProducedType());
+		assertEquals(KEY, selector.getKeySelector());
+	}
+}
@@ -0,0 +1,221 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.streaming.api.functions.source;
+
+import org.apache.flink.core.testutils.CheckedThread;
+import org.apache.flink.metrics.Counter;
+import org.apache.flink.metrics.Gauge;
+import org.apache.flink.metrics.groups.UnregisteredMetricsGroup;
+import org.apache.flink.runtime.metrics.util.InterceptingOperatorMetricGroup;
+import org.apache.flink.runtime.taskexecutor.GlobalAggregateManager;
+import org.apache.flink.runtime.taskexecutor.TestGlobalAggregateManager;
+import org.apache.flink.util.TestLogger;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for the {@link SourceWatermarkAligner}.
+ */
+public class SourceWatermarkAlignerTest extends TestLogger {
+
+	@Test
+	public void testGlobalWatermarkIsMinimumOfKnownWatermarks() throws Exception {
+		GlobalAggregateManager aggregateManager = new TestGlobalAggregateManager();
+		SourceWatermarkAligner first = createAligner(aggregateManager, "first", 100L);
+		SourceWatermarkAligner second = createAligner(aggregateManager, "second", 100L);
+		SourceWatermarkAligner third = createAligner(aggregateManager, "third", 100L);
+
+		// subtasks without a watermark do not hold back the group
+		first.updateLocalWatermark(10L);
+		first.awaitAlignment();
+		second.awaitAlignment();
+		assertEquals(10L, second.getGlobalWatermark());
+
+		second.updateLocalWatermark(5L);
+		second.awaitAlignment();
+		assertEquals(5L, second.getGlobalWatermark());
+
+		third.updateLocalWatermark(50L);
+		third.awaitAlignment();
+		assertEquals(5L, third.getGlobalWatermark());
+
+		second.updateLocalWatermark(20L);
+		second.awaitAlignment();
+		assertEquals(10L, second.getGlobalWatermark());
+
+		// other groups are aligned independently
+		SourceWatermarkAligner other = new SourceWatermarkAligner(
+			aggregateManager, "other-group", "first", 100L, 0L, new UnregisteredMetricsGroup());
+		other.updateLocalWatermark(1000L);
+		other.awaitAlignment();
+		assertEquals(1000L, other.getGlobalWatermark());
+	}
+
+	@Test
+	public void testPauseUntilOthersCatchUp() throws Exception {
+		GlobalAggregateManager aggregateManager = new TestGlobalAggregateManager();
+		InterceptingOperatorMetricGroup metricGroup = new InterceptingOperatorMetricGroup();
+
+		SourceWatermarkAligner slow = createAligner(aggregateManager, "slow", 10L);
+		SourceWatermarkAligner fast = new SourceWatermarkAligner(
+			aggregateManager, "group", "fast", 10L, 0L, metricGroup);
+
+		slow.updateLocalWatermark(100L);
+		slow.awaitAlignment();
+
+		// within the allowed drift
+		fast.updateLocalWatermark(110L);
+		fast.awaitAlignment();
+		assertEquals(0L, ((Counter) metricGroup.get(SourceWatermarkAligner.ALIGNMENT_PAUSES_METRIC)).getCount());
+
+		fast.updateLocalWatermark(150L);
+		CheckedThread fastEmitter = new CheckedThread() {
+			@Override
+			public void go() throws Exception {
+				fast.awaitAlignment();
+			}
+		};
+		fastEmitter.start();
+
+		// the fast subtask stays paused while it is ahead of the slow subtask
+		Thread.sleep(50L);
+		assertTrue(fastEmitter.isAlive());
+		assertEquals(50L, ((Gauge<?>) metricGroup.get(SourceWatermarkAligner.WATERMARK_DRIFT_METRIC)).getValue());
+
+		slow.updateLocalWatermark(145L);
+		slow.awaitAlignment();
+
+		fastEmitter.sync();
+		assertEquals(145L, fast.getGlobalWatermark());
+		assertEquals(5L, ((Gauge<?>) metricGroup.get(SourceWatermarkAligner.WATERMARK_DRIFT_METRIC)).getValue());
+		assertEquals(1L, ((Counter) metricGroup.get(SourceWatermarkAligner.ALIGNMENT_PAUSES_METRIC)).getCount());
+	}
+
+	@Test
+	public void testCancelReleasesPausedSubtask() throws Exception {
+		GlobalAggregateManager aggregateManager = new TestGlobalAggregateManager();
+
+		SourceWatermarkAligner slow = createAligner(aggregateManager, "slow", 0L);
+		SourceWatermarkAligner fast = new SourceWatermarkAligner(
+			aggregateManager, "group", "fast", 0L, 60_000L, new UnregisteredMetricsGroup());
+
+		slow.updateLocalWatermark(1L);
+		slow.awaitAlignment();
+
+		fast.updateLocalWatermark(2L);
+		CheckedThread fastEmitter = new CheckedThread() {
+			@Override
+			public void go() throws Exception {
+				fast.awaitAlignment();
+			}
+		};
+		fastEmitter.start();
+
+		Thread.sleep(50L);
+		assertTrue(fastEmitter.isAlive());
+
+		fast.cancel();
+		fastEmitter.sync();
+
+		// a cancelled aligner never pauses again
+		fast.awaitAlignment();
+	}
+
+	@Test
+	public void testIdleSubtaskReleasesGroup() throws Exception {
+		GlobalAggregateManager aggregateManager = new TestGlobalAggregateManager();
+
+		SourceWatermarkAligner idle = createAligner(aggregateManager, "idle", 10L);
+		SourceWatermarkAligner fast = createAligner(aggregateManager, "fast", 10L);
+
+		idle.updateLocalWatermark(1L);
+		idle.awaitAlignment();
+
+		fast.updateLocalWatermark(100L);
+		CheckedThread fastEmitter = new CheckedThread() {
+			@Override
+			public void go() throws Exception {
+				fast.awaitAlignment();
+			}
+		};
+		fastEmitter.start();
+
+		Thread.sleep(50L);
+		assertTrue(fastEmitter.isAlive());
+
+		// the idle subtask does not emit records anymore, it is removed from the group
+		idle.markIdle();
+		fastEmitter.sync();
+		assertEquals(100L, fast.getGlobalWatermark());
+
+		// and rejoins the group once it reports a watermark again
+		idle.updateLocalWatermark(95L);
+		idle.awaitAlignment();
+		assertEquals(95L, idle.getGlobalWatermark());
+		fast.awaitAlignment();
+		assertEquals(95L, fast.getGlobalWatermark());
+
+		idle.close();
+		fast.close();
+	}
+
+	@Test
+	public void testFinishedSubtaskReleasesGroup() throws Exception {
+		GlobalAggregateManager aggregateManager = new TestGlobalAggregateManager();
+
+		SourceWatermarkAligner finished = createAligner(aggregateManager, "finished", 10L);
+		SourceWatermarkAligner cancelled = createAligner(aggregateManager, "cancelled", 10L);
+		SourceWatermarkAligner fast = createAligner(aggregateManager, "fast", 10L);
+
+		finished.updateLocalWatermark(1L);
+		finished.awaitAlignment();
+		cancelled.updateLocalWatermark(5L);
+		cancelled.awaitAlignment();
+
+		fast.updateLocalWatermark(100L);
+		CheckedThread fastEmitter = new CheckedThread() {
+			@Override
+			public void go() throws Exception {
+				fast.awaitAlignment();
+			}
+		};
+		fastEmitter.start();
+
+		finished.close();
+		Thread.sleep(50L);
+		assertTrue(fastEmitter.isAlive());
+
+		cancelled.cancel();
+		fastEmitter.sync();
+		assertEquals(100L, fast.getGlobalWatermark());
+
+		fast.close();
+	}
+
+	private static SourceWatermarkAligner createAligner(
+			GlobalAggregateManager aggregateManager,
+			String subtaskId,
+			long maxDrift) {
+		return new SourceWatermarkAligner(
+			aggregateManager, "group", subtaskId, maxDrift, 0L, new UnregisteredMetricsGroup());
+	}
+}
@@ -305,4 +305,50 @@ public class StreamingJobGraphGeneratorTest extends TestLogger {
 			}
 		}
 	}
+
+	/**
+	 * Verifies that the declarations of operators to not modify their input or output end up
+	 * in the configs of the chained operators.
+	 */
+	@Test
+	public void testNotMutatedDeclarations() {
+		StreamExecutionEnvironment env = StreamExecutionEnvironment.getExecutionEnvironment();
+		env.setParallelism(1);
+
+		// CHAIN(Source -> Map -> Filter -> Sink)
+		env.fromElements(1, 2, 3)
+			.map(new MapFunction<Integer, Integer>() {
+				@Override
+				public Integer map(Integer value) {
+					return value;
+				}
+			}).name("test_map").declareInputNotMutated().declareOutputNotMutated()
+			.filter(new FilterFunction<Integer>() {
+				@Override
+				public boolean filter(Integer value) {
+					return true;
+				}
+			}).name("test_filter")
+			.print();
+
+		JobGraph jobGraph = StreamingJobGraphGenerator.createJobGraph(env.getStreamGraph());
+		assertEquals(1, jobGraph.getNumberOfVertices());
+
+		StreamConfig headConfig = new StreamConfig(jobGraph.getVerticesAsArray()[0].getConfiguration());
+		Map<Integer, StreamConfig> chainedConfigs = headConfig.getTransitiveChainedTaskConfigs(getClass().getClassLoader());
+
+		int numChecked = 0;
+		for (StreamConfig config : chainedConfigs.values()) {
+			if (config.getOperatorName().equals("test_map")) {
+				assertTrue(config.isInputNotMutated());
+				assertTrue(config.isOutputNotMutated());
+				numChecked++;
+			} else if (config.getOperatorName().equals("test_filter")) {
+				assertFalse(config.isInputNotMutated());
+				assertFalse(config.isOutputNotMutated());
+				numChecked++;
+			}
+		}
+		assertEquals(2, numChecked);
+	}
 }
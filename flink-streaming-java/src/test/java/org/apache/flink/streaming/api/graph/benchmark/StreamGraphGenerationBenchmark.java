@@ -0,0 +1,195 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.streaming.api.graph.benchmark;
+
+import org.apache.flink.api.common.functions.MapFunction;
+import org.apache.flink.api.common.functions.ReduceFunction;
+import org.apache.flink.api.java.functions.KeySelector;
+import org.apache.flink.api.java.typeutils.TypeExtractor;
+import org.apache.flink.api.java.typeutils.TypeExtractorStatistics;
+import org.apache.flink.runtime.jobgraph.JobGraph;
+import org.apache.flink.streaming.api.datastream.DataStream;
+import org.apache.flink.streaming.api.environment.StreamExecutionEnvironment;
+import org.apache.flink.streaming.api.functions.sink.DiscardingSink;
+import org.apache.flink.streaming.api.functions.source.SourceFunction;
+import org.apache.flink.streaming.api.graph.StreamGraph;
+import org.apache.flink.streaming.api.graph.StreamingJobGraphGenerator;
+
+/**
+ * Benchmark that defines a program with many transformations of POJOs and translates it into a
+ * {@link JobGraph}. It covers the work of the client before a job is submitted, including the
+ * {@link TypeExtractor}, which analyzes the functions while the program defines its
+ * transformations.
+ *
+ * <p>Every pipeline of the program consists of a source, a number of maps, a keyed reduce and a
+ * sink. All pipelines use the same function classes, like programs that are generated from a
+ * template.
+ *
+ * <p>The benchmark can be executed by the external
+ * <a href="https://github.com/dataArtisans/flink-benchmarks">flink-benchmarks</a> project, or
+ * standalone via {@link #main(String[])}.
+ */
+public class StreamGraphGenerationBenchmark {
+
+	private int numberOfPipelines;
+
+	private int mapsPerPipeline;
+
+	/**
+	 * Initializes the benchmark.
+	 *
+	 * @param numberOfPipelines number of independent pipelines of the program
+	 * @param mapsPerPipeline number of maps of every pipeline
+	 */
+	public void setUp(int numberOfPipelines, int mapsPerPipeline) {
+		this.numberOfPipelines = numberOfPipelines;
+		this.mapsPerPipeline = mapsPerPipeline;
+	}
+
+	/**
+	 * Defines the program in a new environment and translates it into a job graph.
+	 *
+	 * @return the job graph of the program
+	 */
+	public JobGraph executeBenchmark() {
+		StreamExecutionEnvironment env = StreamExecutionEnvironment.createLocalEnvironment(1);
+
+		for (int i = 0; i < numberOfPipelines; i++) {
+			DataStream<Event> events = env.addSource(new EventSource());
+			for (int j = 0; j < mapsPerPipeline; j++) {
+				events = events.map(new EventMapper());
+			}
+			events
+				.keyBy(new EventKeySelector())
+				.reduce(new EventReducer())
+				.addSink(new DiscardingSink<>());
+		}
+
+		StreamGraph streamGraph = env.getStreamGraph();
+		return StreamingJobGraphGenerator.createJobGraph(streamGraph);
+	}
+
+	/**
+	 * Runs the benchmark repeatedly with 100 pipelines of 10 maps each and prints the duration of
+	 * every run. The first run analyzes the function classes, later runs can take the return types
+	 * of the functions from the cache of the {@link TypeExtractor}.
+	 */
+	public static void main(String[] args) {
+		final int numberOfPipelines = args.length > 0 ? Integer.parseInt(args[0]) : 100;
+		final int mapsPerPipeline = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+		final int runs = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+
+		StreamGraphGenerationBenchmark benchmark = new StreamGraphGenerationBenchmark();
+		benchmark.setUp(numberOfPipelines, mapsPerPipeline);
+
+		for (int run = 0; run < runs; run++) {
+			final long extractions = TypeExtractorStatistics.getNumExtractions();
+			final long cacheHits = TypeExtractorStatistics.getNumCacheHits();
+
+			final long start = System.nanoTime();
+			final JobGraph jobGraph = benchmark.executeBenchmark();
+			final long durationMillis = Math.max(1L, (System.nanoTime() - start) / 1_000_000L);
+
+			System.out.println("Run " + run + ": " + jobGraph.getNumberOfVertices() + " job vertices in " +
+				durationMillis + " ms (" + (TypeExtractorStatistics.getNumExtractions() - extractions) +
+				" return types extracted, " + (TypeExtractorStatistics.getNumCacheHits() - cacheHits) +
+				" taken from the cache)");
+		}
+	}
+
+	// ------------------------------------------------------------------------
+	//  Types and functions of the program
+	// ------------------------------------------------------------------------
+
+	/**
+	 * POJO that is passed through the program.
+	 */
+	public static class Event {
+		public long id;
+		public String name;
+		public Payload payload;
+
+		public Event() {}
+	}
+
+	/**
+	 * Nested POJO of the {@link Event}.
+	 */
+	public static class Payload {
+		private int count;
+		private double value;
+
+		public Payload() {}
+
+		public int getCount() {
+			return count;
+		}
+
+		public void setCount(int count) {
+			this.count = count;
+		}
+
+		public double getValue() {
+			return value;
+		}
+
+		public void setValue(double value) {
+			this.value = value;
+		}
+	}
+
+	private static class EventSource implements SourceFunction<Event> {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		public void run(SourceContext<Event> ctx) {
+		}
+
+		@Override
+		public void cancel() {
+		}
+	}
+
+	private static class EventMapper implements MapFunction<Event, Event> {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		public Event map(Event value) {
+			return value;
+		}
+	}
+
+	private static class EventKeySelector implements KeySelector<Event, Long> {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		public Long getKey(Event value) {
+			return value.id;
+		}
+	}
+
+	private static class EventReducer implements ReduceFunction<Event> {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		public Event reduce(Event value1, Event value2) {
+			return value2;
+		}
+	}
+}
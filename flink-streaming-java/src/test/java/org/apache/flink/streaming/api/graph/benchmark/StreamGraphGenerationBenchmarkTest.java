@@ -0,0 +1,41 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.streaming.api.graph.benchmark;
+
+import org.apache.flink.util.TestLogger;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests for the {@link StreamGraphGenerationBenchmark}.
+ */
+public class StreamGraphGenerationBenchmarkTest extends TestLogger {
+
+	@Test
+	public void streamGraphGenerationBenchmark() {
+		StreamGraphGenerationBenchmark benchmark = new StreamGraphGenerationBenchmark();
+		benchmark.setUp(3, 2);
+
+		// every pipeline is split into two chains by the key by
+		assertEquals(6, benchmark.executeBenchmark().getNumberOfVertices());
+		assertEquals(6, benchmark.executeBenchmark().getNumberOfVertices());
+	}
+}
@@ -23,10 +23,14 @@ import org.apache.flink.api.common.typeinfo.BasicTypeInfo;
 import org.apache.flink.api.common.typeutils.base.StringSerializer;
 import org.apache.flink.api.java.functions.KeySelector;
 import org.apache.flink.api.java.tuple.Tuple2;
+import org.apache.flink.configuration.CheckpointingOptions;
+import org.apache.flink.configuration.Configuration;
 import org.apache.flink.core.fs.CloseableRegistry;
 import org.apache.flink.mock.Whitebox;
 import org.apache.flink.runtime.checkpoint.CheckpointOptions;
 import org.apache.flink.runtime.checkpoint.OperatorSubtaskState;
+import org.apache.flink.runtime.operators.testutils.MockEnvironment;
+import org.apache.flink.runtime.operators.testutils.MockEnvironmentBuilder;
 import org.apache.flink.runtime.state.AbstractKeyedStateBackend;
 import org.apache.flink.runtime.state.CheckpointStreamFactory;
 import org.apache.flink.runtime.state.KeyGroupRange;
@@ -39,6 +43,7 @@ import org.apache.flink.runtime.state.StateSnapshotContextSynchronousImpl;
 import org.apache.flink.runtime.state.VoidNamespace;
 import org.apache.flink.runtime.state.VoidNamespaceSerializer;
 import org.apache.flink.runtime.state.memory.MemCheckpointStreamFactory;
+import org.apache.flink.runtime.util.TestingTaskManagerRuntimeInfo;
 import org.apache.flink.streaming.runtime.streamrecord.StreamRecord;
 import org.apache.flink.streaming.runtime.tasks.StreamTask;
 import org.apache.flink.streaming.util.AbstractStreamOperatorTestHarness;
@@ -225,6 +230,66 @@ public class AbstractStreamOperatorTest {
 				contains("ON_PROC_TIME:CIAO"));
 	}
 
+	/**
+	 * Verify that timers are restored when switching between the timer queues of the heap backend and the
+	 * compact timer store.
+	 */
+	@Test
+	public void testTimersAreRestoredAcrossCompactTimerStoreChanges() throws Exception {
+		OperatorSubtaskState snapshot = null;
+
+		for (boolean useCompactTimerStore : new boolean[] {false, true, false, true}) {
+			try (MockEnvironment environment = createEnvironment(useCompactTimerStore);
+				KeyedOneInputStreamOperatorTestHarness<Integer, Tuple2<Integer, String>, String> testHarness =
+					new KeyedOneInputStreamOperatorTestHarness<>(
+						new TestOperator(),
+						new TestKeySelector(),
+						BasicTypeInfo.INT_TYPE_INFO,
+						environment)) {
+
+				testHarness.setProcessingTime(0L);
+				testHarness.setup();
+				testHarness.initializeState(snapshot);
+				testHarness.open();
+
+				if (snapshot == null) {
+					testHarness.processElement(new Tuple2<>(1, "SET_PROC_TIME_TIMER:20"), 0);
+					testHarness.processElement(new Tuple2<>(0, "SET_EVENT_TIME_TIMER:10"), 0);
+
+					testHarness.processElement(new Tuple2<>(0, "SET_STATE:HELLO"), 0);
+					testHarness.processElement(new Tuple2<>(1, "SET_STATE:CIAO"), 0);
+				}
+
+				snapshot = testHarness.snapshot(0, 0);
+			}
+		}
+
+		try (MockEnvironment environment = createEnvironment(true);
+			KeyedOneInputStreamOperatorTestHarness<Integer, Tuple2<Integer, String>, String> testHarness =
+				new KeyedOneInputStreamOperatorTestHarness<>(
+					new TestOperator(),
+					new TestKeySelector(),
+					BasicTypeInfo.INT_TYPE_INFO,
+					environment)) {
+
+			testHarness.setProcessingTime(0L);
+			testHarness.setup();
+			testHarness.initializeState(snapshot);
+			testHarness.open();
+
+			testHarness.processWatermark(10L);
+
+			assertThat(
+				extractResult(testHarness),
+				contains("ON_EVENT_TIME:HELLO"));
+
+			testHarness.setProcessingTime(20L);
+
+			assertThat(
+				extractResult(testHarness),
+				contains("ON_PROC_TIME:CIAO"));
+		}
+	}
 
 	/**
 	 * Verify that timers for the different time domains don't clash.
@@ -665,6 +730,18 @@ public class AbstractStreamOperatorTest {
 	 * Extracts the result values form the test harness and clear the output queue.
 	 */
 	@SuppressWarnings({"unchecked", "rawtypes"})
+	private static MockEnvironment createEnvironment(boolean useCompactTimerStore) {
+		Configuration configuration = new Configuration();
+		configuration.setBoolean(CheckpointingOptions.TIMER_SERVICE_COMPACT_STORE, useCompactTimerStore);
+
+		return new MockEnvironmentBuilder()
+			.setTaskName("MockTask")
+			.setMemorySize(3 * 1024 * 1024)
+			.setBufferSize(1024)
+			.setTaskManagerRuntimeInfo(new TestingTaskManagerRuntimeInfo(configuration))
+			.build();
+	}
+
 	private <T> List<T> extractResult(OneInputStreamOperatorTestHarness<?, T> testHarness) {
 		List<StreamRecord<? extends T>> streamRecords = testHarness.extractOutputStreamRecords();
 		List<T> result = new ArrayList<>();
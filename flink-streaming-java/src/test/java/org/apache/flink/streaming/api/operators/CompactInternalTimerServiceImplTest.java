@@ -0,0 +1,57 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.streaming.api.operators;
+
+import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.runtime.state.KeyGroupRange;
+import org.apache.flink.runtime.state.KeyGroupedInternalPriorityQueue;
+import org.apache.flink.runtime.state.Keyed;
+import org.apache.flink.runtime.state.PriorityComparable;
+import org.apache.flink.runtime.state.PriorityQueueSetFactory;
+import org.apache.flink.runtime.state.heap.HeapPriorityQueueElement;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Tests for {@link InternalTimerServiceImpl} with timers in {@link CompactTimerPriorityQueueSet compact queues}.
+ */
+public class CompactInternalTimerServiceImplTest extends InternalTimerServiceImplTest {
+
+	public CompactInternalTimerServiceImplTest(int startKeyGroup, int endKeyGroup, int maxParallelism) {
+		super(startKeyGroup, endKeyGroup, maxParallelism);
+	}
+
+	@Override
+	protected PriorityQueueSetFactory createQueueFactory(KeyGroupRange keyGroupRange, int numKeyGroups) {
+		return new PriorityQueueSetFactory() {
+			@Nonnull
+			@Override
+			@SuppressWarnings({"unchecked", "rawtypes"})
+			public <T extends HeapPriorityQueueElement & PriorityComparable & Keyed> KeyGroupedInternalPriorityQueue<T> create(
+				@Nonnull String stateName,
+				@Nonnull TypeSerializer<T> byteOrderedElementSerializer) {
+
+				return (KeyGroupedInternalPriorityQueue<T>) CompactTimerPriorityQueueSet.createKeyGroupPartitionedQueue(
+					(TimerSerializer) byteOrderedElementSerializer,
+					keyGroupRange,
+					numKeyGroups);
+			}
+		};
+	}
+}
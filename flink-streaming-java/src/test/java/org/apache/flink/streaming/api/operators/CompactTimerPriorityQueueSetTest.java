@@ -0,0 +1,182 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.streaming.api.operators;
+
+import org.apache.flink.api.common.typeutils.base.IntSerializer;
+import org.apache.flink.api.common.typeutils.base.StringSerializer;
+import org.apache.flink.core.memory.DataInputDeserializer;
+import org.apache.flink.core.memory.DataOutputSerializer;
+import org.apache.flink.util.CloseableIterator;
+import org.apache.flink.util.TestLogger;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link CompactTimerPriorityQueueSet}.
+ */
+public class CompactTimerPriorityQueueSetTest extends TestLogger {
+
+	@Test
+	public void testHeadChangeIsReported() {
+		CompactTimerPriorityQueueSet<Integer, String> queue = createQueue();
+
+		assertNull(queue.peek());
+		assertTrue(queue.add(timer(10L, 1, "a")));
+		assertFalse(queue.add(timer(20L, 1, "a")));
+		assertTrue(queue.add(timer(5L, 2, "a")));
+		assertFalse(queue.add(timer(5L, 3, "a")));
+
+		// duplicates are not added
+		assertFalse(queue.add(timer(5L, 3, "a")));
+		assertEquals(4, queue.size());
+		assertEquals(3, queue.numberOfBuckets());
+
+		assertEquals(timer(5L, 2, "a"), queue.peek());
+		assertFalse(queue.remove(timer(5L, 3, "a")));
+		assertFalse(queue.remove(timer(5L, 3, "a")));
+		assertTrue(queue.remove(timer(5L, 2, "a")));
+		assertEquals(2, queue.numberOfBuckets());
+
+		assertEquals(timer(10L, 1, "a"), queue.poll());
+		assertEquals(timer(20L, 1, "a"), queue.poll());
+		assertNull(queue.poll());
+		assertTrue(queue.isEmpty());
+		assertEquals(0, queue.numberOfBuckets());
+	}
+
+	@Test
+	public void testTimersOfOneTimestampAreFiredInInsertionOrder() {
+		CompactTimerPriorityQueueSet<Integer, String> queue = createQueue();
+
+		final int numTimers = 1000;
+		for (int i = 0; i < numTimers; i++) {
+			assertEquals(i == 0, queue.add(timer(42L, i, "window-" + (i % 7))));
+		}
+
+		// every other timer is removed, and adding existing timers again has no effect
+		for (int i = 0; i < numTimers; i += 2) {
+			queue.remove(timer(42L, i, "window-" + (i % 7)));
+		}
+		for (int i = 0; i < numTimers; i++) {
+			queue.add(timer(42L, i, "window-" + (i % 7)));
+		}
+		assertEquals(numTimers, queue.size());
+		assertEquals(1, queue.numberOfBuckets());
+
+		for (int i = 1; i < numTimers; i += 2) {
+			assertEquals(timer(42L, i, "window-" + (i % 7)), queue.poll());
+		}
+		for (int i = 0; i < numTimers; i += 2) {
+			assertEquals(timer(42L, i, "window-" + (i % 7)), queue.poll());
+		}
+		assertTrue(queue.isEmpty());
+	}
+
+	@Test
+	public void testRandomOperations() throws Exception {
+		CompactTimerPriorityQueueSet<Integer, String> queue = createQueue();
+		Set<TimerHeapInternalTimer<Integer, String>> expected = new HashSet<>();
+		Random random = new Random(42L);
+
+		for (int i = 0; i < 50_000; i++) {
+			TimerHeapInternalTimer<Integer, String> timer = timer(
+				random.nextInt(20),
+				random.nextInt(100),
+				random.nextBoolean() ? "ns" : "namespace-" + random.nextInt(3));
+
+			int operation = random.nextInt(10);
+			if (operation < 6) {
+				queue.add(timer);
+				expected.add(timer);
+			} else if (operation < 9) {
+				queue.remove(timer);
+				expected.remove(timer);
+			} else {
+				TimerHeapInternalTimer<Integer, String> polled = queue.poll();
+				if (polled == null) {
+					assertTrue(expected.isEmpty());
+				} else {
+					assertEquals(minTimestamp(expected), polled.getTimestamp());
+					assertTrue(expected.remove(polled));
+				}
+			}
+
+			assertEquals(expected.size(), queue.size());
+			if (!expected.isEmpty()) {
+				assertEquals(minTimestamp(expected), queue.peek().getTimestamp());
+			}
+
+			if (i % 1000 == 0) {
+				assertEquals(expected, contents(queue));
+			}
+		}
+
+		assertEquals(expected, contents(queue));
+	}
+
+	private static CompactTimerPriorityQueueSet<Integer, String> createQueue() {
+		return new CompactTimerPriorityQueueSet<>(
+			IntSerializer.INSTANCE,
+			StringSerializer.INSTANCE,
+			new DataOutputSerializer(16),
+			new DataInputDeserializer());
+	}
+
+	private static TimerHeapInternalTimer<Integer, String> timer(long timestamp, int key, String namespace) {
+		return new TimerHeapInternalTimer<>(timestamp, key, namespace);
+	}
+
+	private static long minTimestamp(Set<TimerHeapInternalTimer<Integer, String>> timers) {
+		long min = Long.MAX_VALUE;
+		for (TimerHeapInternalTimer<Integer, String> timer : timers) {
+			min = Math.min(min, timer.getTimestamp());
+		}
+		return min;
+	}
+
+	private static Set<TimerHeapInternalTimer<Integer, String>> contents(
+		CompactTimerPriorityQueueSet<Integer, String> queue) throws Exception {
+
+		List<TimerHeapInternalTimer<Integer, String>> timers = new ArrayList<>();
+		try (CloseableIterator<TimerHeapInternalTimer<Integer, String>> iterator = queue.iterator()) {
+			long lastTimestamp = Long.MIN_VALUE;
+			while (iterator.hasNext()) {
+				TimerHeapInternalTimer<Integer, String> timer = iterator.next();
+				assertTrue(timer.getTimestamp() >= lastTimestamp);
+				lastTimestamp = timer.getTimestamp();
+				timers.add(timer);
+			}
+		}
+
+		Set<TimerHeapInternalTimer<Integer, String>> result = new HashSet<>(timers);
+		assertEquals(timers.size(), result.size());
+		return result;
+	}
+}
@@ -320,6 +320,63 @@ public class InternalTimerServiceImplTest {
 		assertThat(processingTimeService.getActiveTimerTimestamps(), containsInAnyOrder(30L));
 	}
 
+	/**
+	 * Verify that with coalescing, processing-time timers of one interval share one physical timer at the
+	 * end of the interval and still fire with their original timestamps.
+	 */
+	@Test
+	public void testCoalescedProcessingTimeTimers() throws Exception {
+		@SuppressWarnings("unchecked")
+		Triggerable<Integer, String> mockTriggerable = mock(Triggerable.class);
+
+		TestKeyContext keyContext = new TestKeyContext();
+		TestProcessingTimeService processingTimeService = new TestProcessingTimeService();
+
+		TimerSerializer<Integer, String> timerSerializer =
+			new TimerSerializer<>(IntSerializer.INSTANCE, StringSerializer.INSTANCE);
+		PriorityQueueSetFactory priorityQueueSetFactory = createQueueFactory();
+		InternalTimerServiceImpl<Integer, String> timerService = new InternalTimerServiceImpl<>(
+			testKeyGroupRange,
+			keyContext,
+			processingTimeService,
+			createTimerQueue("__test_processing_timers", timerSerializer, priorityQueueSetFactory),
+			createTimerQueue("__test_event_timers", timerSerializer, priorityQueueSetFactory),
+			100L);
+		timerService.startTimerService(IntSerializer.INSTANCE, StringSerializer.INSTANCE, mockTriggerable);
+
+		int key = getKeyInKeyGroupRange(testKeyGroupRange, maxParallelism);
+		keyContext.setCurrentKey(key);
+
+		timerService.registerProcessingTimeTimer("ciao", 120);
+		timerService.registerProcessingTimeTimer("hello", 150);
+		timerService.registerProcessingTimeTimer("ciao", 200);
+
+		assertEquals(1, processingTimeService.getNumActiveTimers());
+		assertThat(processingTimeService.getActiveTimerTimestamps(), containsInAnyOrder(200L));
+
+		timerService.registerProcessingTimeTimer("hello", 250);
+		timerService.registerProcessingTimeTimer("hello", 101);
+
+		assertEquals(1, processingTimeService.getNumActiveTimers());
+		assertThat(processingTimeService.getActiveTimerTimestamps(), containsInAnyOrder(200L));
+
+		processingTimeService.setCurrentTime(199);
+
+		verify(mockTriggerable, never()).onProcessingTime(anyInternalTimer());
+
+		processingTimeService.setCurrentTime(200);
+
+		verify(mockTriggerable, times(4)).onProcessingTime(anyInternalTimer());
+		verify(mockTriggerable, times(1)).onProcessingTime(eq(new TimerHeapInternalTimer<>(101, key, "hello")));
+		verify(mockTriggerable, times(1)).onProcessingTime(eq(new TimerHeapInternalTimer<>(120, key, "ciao")));
+		verify(mockTriggerable, times(1)).onProcessingTime(eq(new TimerHeapInternalTimer<>(150, key, "hello")));
+		verify(mockTriggerable, times(1)).onProcessingTime(eq(new TimerHeapInternalTimer<>(200, key, "ciao")));
+
+		assertEquals(1, timerService.numProcessingTimeTimers());
+		assertEquals(1, processingTimeService.getNumActiveTimers());
+		assertThat(processingTimeService.getActiveTimerTimestamps(), containsInAnyOrder(300L));
+	}
+
 	@Test
 	public void testCurrentProcessingTime() throws Exception {
 
@@ -0,0 +1,334 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.streaming.api.operators;
+
+import org.apache.flink.api.common.ExecutionConfig;
+import org.apache.flink.api.common.functions.AggregateFunction;
+import org.apache.flink.api.common.functions.ReduceFunction;
+import org.apache.flink.api.common.typeinfo.BasicTypeInfo;
+import org.apache.flink.api.common.typeinfo.TypeHint;
+import org.apache.flink.api.common.typeinfo.TypeInformation;
+import org.apache.flink.api.common.typeutils.base.LongSerializer;
+import org.apache.flink.api.common.typeutils.base.StringSerializer;
+import org.apache.flink.api.java.functions.KeySelector;
+import org.apache.flink.api.java.tuple.Tuple2;
+import org.apache.flink.streaming.api.watermark.Watermark;
+import org.apache.flink.streaming.runtime.streamrecord.StreamRecord;
+import org.apache.flink.streaming.util.KeyedOneInputStreamOperatorTestHarness;
+import org.apache.flink.streaming.util.OneInputStreamOperatorTestHarness;
+import org.apache.flink.streaming.util.TestHarnessUtil;
+import org.apache.flink.util.TestLogger;
+
+import org.junit.Test;
+
+import java.util.Comparator;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link LocalReduceOperator}, {@link LocalAggregateOperator} and {@link LocalAggregateMergeOperator}.
+ */
+public class LocalAggregateOperatorTest extends TestLogger {
+
+	private static final TypeInformation<Tuple2<String, Integer>> INPUT_TYPE =
+		TypeInformation.of(new TypeHint<Tuple2<String, Integer>>() {});
+
+	@Test
+	public void testBundleIsEmittedWhenFull() throws Exception {
+		try (OneInputStreamOperatorTestHarness<Tuple2<String, Integer>, Tuple2<String, Integer>> testHarness =
+				createReduceHarness(3L, 1000L)) {
+
+			testHarness.open();
+
+			testHarness.processElement(new StreamRecord<>(Tuple2.of("a", 1), 1L));
+			testHarness.processElement(new StreamRecord<>(Tuple2.of("a", 2), 4L));
+			assertTrue(testHarness.getOutput().isEmpty());
+
+			testHarness.processElement(new StreamRecord<>(Tuple2.of("a", 3), 2L));
+
+			ConcurrentLinkedQueue<Object> expectedOutput = new ConcurrentLinkedQueue<>();
+			expectedOutput.add(new StreamRecord<>(Tuple2.of("a", 6), 4L));
+
+			TestHarnessUtil.assertOutputEquals("Output was not correct.", expectedOutput, testHarness.getOutput());
+		}
+	}
+
+	@Test
+	public void testBundleIsEmittedAfterDelay() throws Exception {
+		try (OneInputStreamOperatorTestHarness<Tuple2<String, Integer>, Tuple2<String, Integer>> testHarness =
+				createReduceHarness(100L, 1000L)) {
+
+			testHarness.open();
+			testHarness.setProcessingTime(0L);
+
+			testHarness.processElement(new StreamRecord<>(Tuple2.of("a", 1)));
+			testHarness.processElement(new StreamRecord<>(Tuple2.of("a", 2)));
+
+			testHarness.setProcessingTime(999L);
+			assertTrue(testHarness.getOutput().isEmpty());
+
+			testHarness.setProcessingTime(1000L);
+
+			ConcurrentLinkedQueue<Object> expectedOutput = new ConcurrentLinkedQueue<>();
+			expectedOutput.add(new StreamRecord<>(Tuple2.of("a", 3)));
+
+			TestHarnessUtil.assertOutputEquals("Output was not correct.", expectedOutput, testHarness.getOutput());
+		}
+	}
+
+	@Test
+	public void testBundleIsEmittedBeforeWatermarkAndBarrier() throws Exception {
+		LocalReduceOperator<String, Tuple2<String, Integer>> operator = createReduceOperator(100L, 1000L);
+
+		try (OneInputStreamOperatorTestHarness<Tuple2<String, Integer>, Tuple2<String, Integer>> testHarness =
+				new OneInputStreamOperatorTestHarness<>(operator)) {
+
+			testHarness.open();
+
+			testHarness.processElement(new StreamRecord<>(Tuple2.of("a", 1), 1L));
+			testHarness.processElement(new StreamRecord<>(Tuple2.of("a", 2), 2L));
+			testHarness.processWatermark(new Watermark(2L));
+
+			testHarness.processElement(new StreamRecord<>(Tuple2.of("b", 3), 3L));
+			testHarness.processElement(new StreamRecord<>(Tuple2.of("b", 4), 5L));
+			operator.prepareSnapshotPreBarrier(1L);
+			assertEquals(0L, operator.getNumElementsInBundle());
+
+			ConcurrentLinkedQueue<Object> expectedOutput = new ConcurrentLinkedQueue<>();
+			expectedOutput.add(new StreamRecord<>(Tuple2.of("a", 3), 2L));
+			expectedOutput.add(new Watermark(2L));
+			expectedOutput.add(new StreamRecord<>(Tuple2.of("b", 7), 5L));
+
+			TestHarnessUtil.assertOutputEquals("Output was not correct.", expectedOutput, testHarness.getOutput());
+		}
+	}
+
+	@Test
+	public void testReduceDoesNotModifyInputs() throws Exception {
+		try (OneInputStreamOperatorTestHarness<Tuple2<String, Integer>, Tuple2<String, Integer>> testHarness =
+				createReduceHarness(100L, 1000L)) {
+
+			testHarness.open();
+
+			Tuple2<String, Integer> first = Tuple2.of("a", 1);
+			Tuple2<String, Integer> second = Tuple2.of("a", 2);
+			testHarness.processElement(new StreamRecord<>(first));
+			testHarness.processElement(new StreamRecord<>(second));
+			testHarness.close();
+
+			assertEquals(Tuple2.of("a", 1), first);
+			assertEquals(Tuple2.of("a", 2), second);
+
+			ConcurrentLinkedQueue<Object> expectedOutput = new ConcurrentLinkedQueue<>();
+			expectedOutput.add(new StreamRecord<>(Tuple2.of("a", 3)));
+
+			TestHarnessUtil.assertOutputEquals("Output was not correct.", expectedOutput, testHarness.getOutput());
+		}
+	}
+
+	@Test
+	public void testLocalAggregate() throws Exception {
+		LocalAggregateOperator<String, Tuple2<String, Integer>, Long> operator = new LocalAggregateOperator<>(
+			new CountAggregate(),
+			new FirstFieldKeySelector(),
+			StringSerializer.INSTANCE,
+			INPUT_TYPE.createSerializer(new ExecutionConfig()),
+			3L,
+			1000L);
+
+		try (OneInputStreamOperatorTestHarness<Tuple2<String, Integer>, Tuple2<String, Long>> testHarness =
+				new OneInputStreamOperatorTestHarness<>(operator)) {
+
+			testHarness.open();
+
+			testHarness.processElement(new StreamRecord<>(Tuple2.of("a", 1), 1L));
+			testHarness.processElement(new StreamRecord<>(Tuple2.of("a", 2), 2L));
+			testHarness.processElement(new StreamRecord<>(Tuple2.of("a", 3), 3L));
+
+			ConcurrentLinkedQueue<Object> expectedOutput = new ConcurrentLinkedQueue<>();
+			expectedOutput.add(new StreamRecord<>(Tuple2.of("a", 3L), 3L));
+
+			TestHarnessUtil.assertOutputEquals("Output was not correct.", expectedOutput, testHarness.getOutput());
+		}
+	}
+
+	@Test
+	public void testLocalAggregateWithObjectReuse() throws Exception {
+		LocalAggregateOperator<String, Tuple2<String, Integer>, Tuple2<String, Integer>> operator =
+			new LocalAggregateOperator<>(
+				new MaxAggregate(),
+				new FirstFieldKeySelector(),
+				StringSerializer.INSTANCE,
+				INPUT_TYPE.createSerializer(new ExecutionConfig()),
+				100L,
+				1000L);
+
+		try (OneInputStreamOperatorTestHarness<Tuple2<String, Integer>, Tuple2<String, Tuple2<String, Integer>>> testHarness =
+				new OneInputStreamOperatorTestHarness<>(operator)) {
+
+			testHarness.getExecutionConfig().enableObjectReuse();
+			testHarness.open();
+
+			// the upstream operator reuses the same record
+			Tuple2<String, Integer> reused = Tuple2.of("a", 5);
+			testHarness.processElement(new StreamRecord<>(reused));
+			reused.f1 = 1;
+			testHarness.processElement(new StreamRecord<>(reused));
+			reused.f0 = "b";
+			reused.f1 = 2;
+			testHarness.processElement(new StreamRecord<>(reused));
+			testHarness.close();
+
+			ConcurrentLinkedQueue<Object> expectedOutput = new ConcurrentLinkedQueue<>();
+			expectedOutput.add(new StreamRecord<>(Tuple2.of("a", Tuple2.of("a", 5))));
+			expectedOutput.add(new StreamRecord<>(Tuple2.of("b", Tuple2.of("b", 2))));
+
+			TestHarnessUtil.assertOutputEqualsSorted(
+				"Output was not correct.",
+				expectedOutput,
+				testHarness.getOutput(),
+				Comparator.comparing(Object::toString));
+		}
+	}
+
+	@Test
+	public void testMergeLocalAggregates() throws Exception {
+		LocalAggregateMergeOperator<String, Long, Long> operator =
+			new LocalAggregateMergeOperator<>(new CountAggregate(), LongSerializer.INSTANCE);
+
+		try (KeyedOneInputStreamOperatorTestHarness<String, Tuple2<String, Long>, Long> testHarness =
+				new KeyedOneInputStreamOperatorTestHarness<>(
+					operator,
+					new LocalAggregateOperator.AccumulatorKeySelector<>(),
+					BasicTypeInfo.STRING_TYPE_INFO)) {
+
+			testHarness.open();
+
+			testHarness.processElement(new StreamRecord<>(Tuple2.of("a", 3L), 1L));
+			testHarness.processElement(new StreamRecord<>(Tuple2.of("b", 1L), 2L));
+			testHarness.processElement(new StreamRecord<>(Tuple2.of("a", 2L), 3L));
+
+			ConcurrentLinkedQueue<Object> expectedOutput = new ConcurrentLinkedQueue<>();
+			expectedOutput.add(new StreamRecord<>(3L, 1L));
+			expectedOutput.add(new StreamRecord<>(1L, 2L));
+			expectedOutput.add(new StreamRecord<>(5L, 3L));
+
+			TestHarnessUtil.assertOutputEquals("Output was not correct.", expectedOutput, testHarness.getOutput());
+		}
+	}
+
+	private static LocalReduceOperator<String, Tuple2<String, Integer>> createReduceOperator(
+			long maxBundleSize,
+			long maxBundleDelay) {
+
+		return new LocalReduceOperator<>(
+			new SumReducer(),
+			new FirstFieldKeySelector(),
+			StringSerializer.INSTANCE,
+			INPUT_TYPE.createSerializer(new ExecutionConfig()),
+			maxBundleSize,
+			maxBundleDelay);
+	}
+
+	private static OneInputStreamOperatorTestHarness<Tuple2<String, Integer>, Tuple2<String, Integer>> createReduceHarness(
+			long maxBundleSize,
+			long maxBundleDelay) throws Exception {
+
+		return new OneInputStreamOperatorTestHarness<>(createReduceOperator(maxBundleSize, maxBundleDelay));
+	}
+
+	// ------------------------------------------------------------------------
+
+	private static class FirstFieldKeySelector implements KeySelector<Tuple2<String, Integer>, String> {
+
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		public String getKey(Tuple2<String, Integer> value) {
+			return value.f0;
+		}
+	}
+
+	private static class SumReducer implements ReduceFunction<Tuple2<String, Integer>> {
+
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		public Tuple2<String, Integer> reduce(Tuple2<String, Integer> value1, Tuple2<String, Integer> value2) {
+			value1.f1 += value2.f1;
+			return value1;
+		}
+	}
+
+	/**
+	 * Keeps the input element with the largest value as accumulator, so it references input elements.
+	 */
+	private static class MaxAggregate implements AggregateFunction<
+			Tuple2<String, Integer>, Tuple2<String, Integer>, Tuple2<String, Integer>> {
+
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		public Tuple2<String, Integer> createAccumulator() {
+			return null;
+		}
+
+		@Override
+		public Tuple2<String, Integer> add(Tuple2<String, Integer> value, Tuple2<String, Integer> accumulator) {
+			return accumulator == null || value.f1 > accumulator.f1 ? value : accumulator;
+		}
+
+		@Override
+		public Tuple2<String, Integer> getResult(Tuple2<String, Integer> accumulator) {
+			return accumulator;
+		}
+
+		@Override
+		public Tuple2<String, Integer> merge(Tuple2<String, Integer> a, Tuple2<String, Integer> b) {
+			return a.f1 >= b.f1 ? a : b;
+		}
+	}
+
+	private static class CountAggregate implements AggregateFunction<Tuple2<String, Integer>, Long, Long> {
+
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		public Long createAccumulator() {
+			return 0L;
+		}
+
+		@Override
+		public Long add(Tuple2<String, Integer> value, Long accumulator) {
+			return accumulator + 1;
+		}
+
+		@Override
+		public Long getResult(Long accumulator) {
+			return accumulator;
+		}
+
+		@Override
+		public Long merge(Long a, Long b) {
+			return a + b;
+		}
+	}
+}
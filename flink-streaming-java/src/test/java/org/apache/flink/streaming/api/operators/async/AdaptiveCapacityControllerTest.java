@@ -0,0 +1,67 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.streaming.api.operators.async;
+
+import org.apache.flink.util.TestLogger;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests for the {@link AdaptiveCapacityController}.
+ */
+public class AdaptiveCapacityControllerTest extends TestLogger {
+
+	@Test
+	public void testCapacityShrinksOnSlowRequestsAndGrowsOnFastRequests() {
+		AdaptiveCapacityController controller = new AdaptiveCapacityController(2, 8, 100L);
+		assertEquals(8, controller.getCapacity());
+
+		controller.onSuccess(200L);
+		assertEquals(4, controller.getCapacity());
+
+		// the remaining slow requests of the same round do not decrease the capacity again
+		controller.onSuccess(200L);
+		controller.onFailure();
+		controller.onFailure();
+		assertEquals(4, controller.getCapacity());
+
+		// a full round of slow requests decreases the capacity down to the minimum
+		controller.onFailure();
+		assertEquals(4, controller.getCapacity());
+		controller.onFailure();
+		assertEquals(2, controller.getCapacity());
+		for (int i = 0; i < 10; i++) {
+			controller.onFailure();
+		}
+		assertEquals(2, controller.getCapacity());
+
+		// the capacity grows by one after a full capacity of fast requests
+		controller.onSuccess(10L);
+		assertEquals(2, controller.getCapacity());
+		controller.onSuccess(10L);
+		assertEquals(3, controller.getCapacity());
+
+		for (int i = 0; i < 100; i++) {
+			controller.onSuccess(10L);
+		}
+		assertEquals(8, controller.getCapacity());
+	}
+}
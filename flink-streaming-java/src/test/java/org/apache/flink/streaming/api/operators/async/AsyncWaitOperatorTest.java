@@ -18,10 +18,12 @@
 
 package org.apache.flink.streaming.api.operators.async;
 
+import org.apache.flink.api.common.ExecutionConfig;
 import org.apache.flink.api.common.functions.MapFunction;
 import org.apache.flink.api.common.functions.RichMapFunction;
 import org.apache.flink.api.common.typeinfo.BasicTypeInfo;
 import org.apache.flink.api.common.typeutils.base.IntSerializer;
+import org.apache.flink.api.java.functions.KeySelector;
 import org.apache.flink.configuration.Configuration;
 import org.apache.flink.core.testutils.CheckedThread;
 import org.apache.flink.core.testutils.OneShotLatch;
@@ -39,6 +41,7 @@ import org.apache.flink.runtime.operators.testutils.MockEnvironmentBuilder;
 import org.apache.flink.runtime.operators.testutils.MockInputSplitProvider;
 import org.apache.flink.runtime.state.TestTaskStateManager;
 import org.apache.flink.streaming.api.datastream.AsyncDataStream;
+import org.apache.flink.streaming.api.datastream.AsyncWaitOptions;
 import org.apache.flink.streaming.api.datastream.DataStream;
 import org.apache.flink.streaming.api.environment.StreamExecutionEnvironment;
 import org.apache.flink.streaming.api.functions.async.AsyncFunction;
@@ -90,6 +93,7 @@ import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertThat;
@@ -271,12 +275,22 @@ public class AsyncWaitOperatorTest extends TestLogger {
 		testEventTime(AsyncDataStream.OutputMode.UNORDERED);
 	}
 
+	/**
+	 * Test the AsyncWaitOperator with key ordered mode and event time.
+	 */
+	@Test
+	public void testWaterMarkKeyOrdered() throws Exception {
+		testEventTime(AsyncDataStream.OutputMode.KEY_ORDERED);
+	}
+
 	private void testEventTime(AsyncDataStream.OutputMode mode) throws Exception {
 		final AsyncWaitOperator<Integer, Integer> operator = new AsyncWaitOperator<>(
 			new MyAsyncFunction(),
 			TIMEOUT,
 			2,
-			mode);
+			mode,
+			mode == AsyncDataStream.OutputMode.KEY_ORDERED ? new ModuloKeySelector() : null,
+			AsyncWaitOptions.DEFAULT);
 
 		final OneInputStreamOperatorTestHarness<Integer, Integer> testHarness =
 				new OneInputStreamOperatorTestHarness<>(operator, IntSerializer.INSTANCE);
@@ -713,6 +727,7 @@ public class AsyncWaitOperatorTest extends TestLogger {
 
 		StreamTask<?, ?> containingTask = mock(StreamTask.class);
 		when(containingTask.getEnvironment()).thenReturn(environment);
+		when(containingTask.getExecutionConfig()).thenReturn(new ExecutionConfig());
 		when(containingTask.getCheckpointLock()).thenReturn(lock);
 		when(containingTask.getProcessingTimeService()).thenReturn(new TestProcessingTimeService());
 
@@ -816,6 +831,7 @@ public class AsyncWaitOperatorTest extends TestLogger {
 
 		StreamTask<?, ?> containingTask = mock(StreamTask.class);
 		when(containingTask.getEnvironment()).thenReturn(environment);
+		when(containingTask.getExecutionConfig()).thenReturn(new ExecutionConfig());
 		when(containingTask.getCheckpointLock()).thenReturn(lock);
 		when(containingTask.getProcessingTimeService()).thenReturn(processingTimeService);
 
@@ -917,6 +933,133 @@ public class AsyncWaitOperatorTest extends TestLogger {
 		assertTrue(harness.getEnvironment().getActualExternalFailureCause().isPresent());
 	}
 
+	/**
+	 * Tests that failed requests are retried after a backoff that doubles with every retry.
+	 */
+	@Test
+	public void testRetryFailedRequests() throws Exception {
+		final FailingAsyncFunction asyncFunction = new FailingAsyncFunction(2);
+
+		final AsyncWaitOperator<Integer, Integer> operator = new AsyncWaitOperator<>(
+			asyncFunction,
+			TIMEOUT,
+			2,
+			AsyncDataStream.OutputMode.ORDERED,
+			null,
+			AsyncWaitOptions.builder().setRetries(2, 10L, 100L, TimeUnit.MILLISECONDS).build());
+
+		final OneInputStreamOperatorTestHarness<Integer, Integer> testHarness =
+			new OneInputStreamOperatorTestHarness<>(operator, IntSerializer.INSTANCE);
+
+		testHarness.open();
+		testHarness.setProcessingTime(0L);
+
+		synchronized (testHarness.getCheckpointLock()) {
+			testHarness.processElement(new StreamRecord<>(1, 1L));
+		}
+
+		assertEquals(1, asyncFunction.getNumAttempts());
+
+		testHarness.setProcessingTime(10L);
+		assertEquals(2, asyncFunction.getNumAttempts());
+
+		testHarness.setProcessingTime(29L);
+		assertEquals(2, asyncFunction.getNumAttempts());
+
+		testHarness.setProcessingTime(30L);
+		assertEquals(3, asyncFunction.getNumAttempts());
+
+		synchronized (testHarness.getCheckpointLock()) {
+			testHarness.close();
+		}
+
+		final ConcurrentLinkedQueue<Object> expectedOutput = new ConcurrentLinkedQueue<>();
+		expectedOutput.add(new StreamRecord<>(2, 1L));
+
+		TestHarnessUtil.assertOutputEquals("Output was not correct.", expectedOutput, testHarness.getOutput());
+	}
+
+	/**
+	 * Tests that the operator fails once the retries of a request are exhausted.
+	 */
+	@Test
+	public void testRetriesExhausted() throws Exception {
+		final FailingAsyncFunction asyncFunction = new FailingAsyncFunction(Integer.MAX_VALUE);
+
+		final AsyncWaitOperator<Integer, Integer> operator = new AsyncWaitOperator<>(
+			asyncFunction,
+			TIMEOUT,
+			2,
+			AsyncDataStream.OutputMode.UNORDERED,
+			null,
+			AsyncWaitOptions.builder().setRetries(1, 10L, 10L, TimeUnit.MILLISECONDS).build());
+
+		final MockEnvironment mockEnvironment = createMockEnvironment();
+		mockEnvironment.setExpectedExternalFailureCause(Throwable.class);
+
+		final OneInputStreamOperatorTestHarness<Integer, Integer> testHarness =
+			new OneInputStreamOperatorTestHarness<>(operator, IntSerializer.INSTANCE, mockEnvironment);
+
+		testHarness.open();
+		testHarness.setProcessingTime(0L);
+
+		synchronized (testHarness.getCheckpointLock()) {
+			testHarness.processElement(new StreamRecord<>(1, 1L));
+		}
+
+		testHarness.setProcessingTime(10L);
+
+		synchronized (testHarness.getCheckpointLock()) {
+			testHarness.close();
+		}
+
+		assertEquals(2, asyncFunction.getNumAttempts());
+		assertTrue(mockEnvironment.getActualExternalFailureCause().isPresent());
+	}
+
+	/**
+	 * AsyncFunction which completes the result with an {@link Exception} for the given number of
+	 * attempts and then with twice the input.
+	 */
+	private static class FailingAsyncFunction implements AsyncFunction<Integer, Integer> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final int numFailures;
+
+		private final AtomicInteger numAttempts = new AtomicInteger();
+
+		FailingAsyncFunction(int numFailures) {
+			this.numFailures = numFailures;
+		}
+
+		@Override
+		public void asyncInvoke(Integer input, ResultFuture<Integer> resultFuture) throws Exception {
+			if (numAttempts.incrementAndGet() <= numFailures) {
+				resultFuture.completeExceptionally(new Exception("Test exception"));
+			} else {
+				resultFuture.complete(Collections.singletonList(input * 2));
+			}
+		}
+
+		int getNumAttempts() {
+			return numAttempts.get();
+		}
+	}
+
+	/**
+	 * Key selector which groups the integers by their remainder of the division by 2.
+	 */
+	private static class ModuloKeySelector implements KeySelector<Integer, Integer> {
+
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		public Integer getKey(Integer value) {
+			return value % 2;
+		}
+	}
+
 	/**
 	 * AsyncFunction which completes the result with an {@link Exception}.
 	 */
@@ -0,0 +1,182 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.streaming.api.operators.async.queue;
+
+import org.apache.flink.api.java.functions.KeySelector;
+import org.apache.flink.streaming.api.operators.async.OperatorActions;
+import org.apache.flink.streaming.api.watermark.Watermark;
+import org.apache.flink.streaming.runtime.streamrecord.StreamRecord;
+import org.apache.flink.util.TestLogger;
+
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * {@link KeyOrderedStreamElementQueue} specific tests.
+ */
+public class KeyOrderedStreamElementQueueTest extends TestLogger {
+	private static final long timeout = 10000L;
+	private static ExecutorService executor;
+
+	/** Records with the same tens digit have the same key. */
+	private static final KeySelector<Integer, Integer> KEY_SELECTOR = value -> value / 10;
+
+	@BeforeClass
+	public static void setup() {
+		executor = Executors.newFixedThreadPool(3);
+	}
+
+	@AfterClass
+	public static void shutdown() {
+		executor.shutdown();
+
+		try {
+			if (!executor.awaitTermination(timeout, TimeUnit.MILLISECONDS)) {
+				executor.shutdownNow();
+			}
+		} catch (InterruptedException interrupted) {
+			executor.shutdownNow();
+
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Tests that results are emitted in order per key, independently across keys, and that no
+	 * result overtakes a watermark.
+	 */
+	@Test
+	public void testCompletionOrder() throws Exception {
+		OperatorActions operatorActions = mock(OperatorActions.class);
+
+		final KeyOrderedStreamElementQueue queue =
+			new KeyOrderedStreamElementQueue(8, executor, operatorActions, KEY_SELECTOR);
+
+		StreamRecordQueueEntry<Integer> record11 = new StreamRecordQueueEntry<>(new StreamRecord<>(11, 0L));
+		StreamRecordQueueEntry<Integer> record12 = new StreamRecordQueueEntry<>(new StreamRecord<>(12, 1L));
+		StreamRecordQueueEntry<Integer> record21 = new StreamRecordQueueEntry<>(new StreamRecord<>(21, 2L));
+		WatermarkQueueEntry watermark = new WatermarkQueueEntry(new Watermark(3L));
+		StreamRecordQueueEntry<Integer> record13 = new StreamRecordQueueEntry<>(new StreamRecord<>(13, 4L));
+
+		List<StreamElementQueueEntry<?>> entries = Arrays.asList(record11, record12, record21, watermark, record13);
+
+		// The queue should look like R11, R12, R21, W, R13
+		for (StreamElementQueueEntry<?> entry : entries) {
+			queue.put(entry);
+		}
+
+		Assert.assertEquals(5, queue.size());
+
+		CompletableFuture<AsyncResult> firstPoll = pollAsync(queue);
+
+		// this should not fulfill the poll, because R11 of the same key has not been completed
+		record12.complete(Collections.<Integer>emptyList());
+
+		Thread.sleep(10L);
+
+		Assert.assertFalse(firstPoll.isDone());
+
+		// R21 has another key and is not blocked by R11
+		record21.complete(Collections.<Integer>emptyList());
+
+		Assert.assertEquals(record21, firstPoll.get());
+
+		CompletableFuture<AsyncResult> secondPoll = pollAsync(queue);
+
+		// R13 must not overtake the watermark
+		record13.complete(Collections.<Integer>emptyList());
+
+		Thread.sleep(10L);
+
+		Assert.assertFalse(secondPoll.isDone());
+
+		record11.complete(Collections.<Integer>emptyList());
+
+		Assert.assertEquals(record11, secondPoll.get());
+		Assert.assertEquals(record12, queue.poll());
+		Assert.assertEquals(watermark, queue.poll());
+		Assert.assertEquals(record13, queue.poll());
+
+		Assert.assertTrue(queue.isEmpty());
+
+		verify(operatorActions, never()).failOperator(any(Exception.class));
+	}
+
+	/**
+	 * Tests that the values of the queue keep the order of the entries of each key, so that the
+	 * order is preserved when the entries are restored.
+	 */
+	@Test
+	public void testValuesKeepOrderPerKey() throws Exception {
+		OperatorActions operatorActions = mock(OperatorActions.class);
+
+		final KeyOrderedStreamElementQueue queue =
+			new KeyOrderedStreamElementQueue(8, executor, operatorActions, KEY_SELECTOR);
+
+		StreamRecordQueueEntry<Integer> record11 = new StreamRecordQueueEntry<>(new StreamRecord<>(11, 0L));
+		StreamRecordQueueEntry<Integer> record21 = new StreamRecordQueueEntry<>(new StreamRecord<>(21, 1L));
+		StreamRecordQueueEntry<Integer> record12 = new StreamRecordQueueEntry<>(new StreamRecord<>(12, 2L));
+		StreamRecordQueueEntry<Integer> record22 = new StreamRecordQueueEntry<>(new StreamRecord<>(22, 3L));
+
+		for (StreamElementQueueEntry<?> entry : Arrays.asList(record11, record21, record12, record22)) {
+			queue.put(entry);
+		}
+
+		record21.complete(Collections.<Integer>emptyList());
+		Assert.assertEquals(record21, queue.peekBlockingly());
+
+		List<StreamElementQueueEntry<?>> values = new ArrayList<>(queue.values());
+
+		Assert.assertEquals(4, values.size());
+		Assert.assertEquals(record21, values.get(0));
+		Assert.assertTrue(values.indexOf(record11) < values.indexOf(record12));
+		Assert.assertTrue(values.indexOf(record21) < values.indexOf(record22));
+
+		verify(operatorActions, never()).failOperator(any(Exception.class));
+	}
+
+	private static CompletableFuture<AsyncResult> pollAsync(KeyOrderedStreamElementQueue queue) {
+		return CompletableFuture.supplyAsync(
+			() -> {
+				try {
+					return queue.poll();
+				} catch (InterruptedException e) {
+					throw new CompletionException(e);
+				}
+			},
+			executor);
+	}
+}
@@ -41,6 +41,7 @@ import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 
+import static org.apache.flink.streaming.api.operators.async.queue.StreamElementQueueTest.StreamElementQueueType.KeyOrderedStreamElementQueueType;
 import static org.apache.flink.streaming.api.operators.async.queue.StreamElementQueueTest.StreamElementQueueType.OrderedStreamElementQueueType;
 import static org.apache.flink.streaming.api.operators.async.queue.StreamElementQueueTest.StreamElementQueueType.UnorderedStreamElementQueueType;
 import static org.mockito.Matchers.any;
@@ -80,12 +81,13 @@ public class StreamElementQueueTest extends TestLogger {
 
 	enum StreamElementQueueType {
 		OrderedStreamElementQueueType,
-		UnorderedStreamElementQueueType
+		UnorderedStreamElementQueueType,
+		KeyOrderedStreamElementQueueType
 	}
 
 	@Parameterized.Parameters
 	public static Collection<StreamElementQueueType> streamElementQueueTypes() {
-		return Arrays.asList(OrderedStreamElementQueueType, UnorderedStreamElementQueueType);
+		return Arrays.asList(OrderedStreamElementQueueType, UnorderedStreamElementQueueType, KeyOrderedStreamElementQueueType);
 	}
 
 	private final StreamElementQueueType streamElementQueueType;
@@ -100,6 +102,8 @@ public class StreamElementQueueTest extends TestLogger {
 				return new OrderedStreamElementQueue(capacity, executor, operatorActions);
 			case UnorderedStreamElementQueueType:
 				return new UnorderedStreamElementQueue(capacity, executor, operatorActions);
+			case KeyOrderedStreamElementQueueType:
+				return new KeyOrderedStreamElementQueue(capacity, executor, operatorActions, (Integer value) -> value % 2);
 			default:
 				throw new IllegalStateException("Unknown stream element queue type: " + streamElementQueueType);
 		}
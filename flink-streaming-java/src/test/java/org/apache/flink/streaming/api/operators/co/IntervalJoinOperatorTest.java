@@ -39,6 +39,7 @@ import org.apache.flink.shaded.guava18.com.google.common.collect.Iterables;
 import org.apache.flink.shaded.guava18.com.google.common.collect.Lists;
 
 import org.junit.Assert;
+import org.junit.Assume;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
@@ -60,15 +61,18 @@ public class IntervalJoinOperatorTest {
 
 	private final boolean lhsFasterThanRhs;
 
-	@Parameters(name = "lhs faster than rhs: {0}")
+	private final boolean bucketing;
+
+	@Parameters(name = "lhs faster than rhs: {0}, bucketing: {1}")
 	public static Collection<Object[]> data() {
 		return Arrays.asList(new Object[][]{
-			{true}, {false}
+			{true, false}, {false, false}, {true, true}, {false, true}
 		});
 	}
 
-	public IntervalJoinOperatorTest(boolean lhsFasterThanRhs) {
+	public IntervalJoinOperatorTest(boolean lhsFasterThanRhs, boolean bucketing) {
 		this.lhsFasterThanRhs = lhsFasterThanRhs;
+		this.bucketing = bucketing;
 	}
 
 	@Test
@@ -199,6 +203,8 @@ public class IntervalJoinOperatorTest {
 
 	@Test
 	public void testStateCleanupNegativeInclusiveNegativeInclusive() throws Exception {
+		// the buffers of a bucketed join are cleaned up per bucket, see testBucketedStateCleanup()
+		Assume.assumeFalse(bucketing);
 
 		setupHarness(-1, true, 0, true)
 			.processElement1(1)
@@ -236,6 +242,9 @@ public class IntervalJoinOperatorTest {
 
 	@Test
 	public void testStateCleanupNegativePositiveNegativeExlusive() throws Exception {
+		// the buffers of a bucketed join are cleaned up per bucket, see testBucketedStateCleanup()
+		Assume.assumeFalse(bucketing);
+
 		setupHarness(-2, false, 1, false)
 			.processElement1(1)
 			.processElement1(2)
@@ -272,6 +281,9 @@ public class IntervalJoinOperatorTest {
 
 	@Test
 	public void testStateCleanupPositiveInclusivePositiveInclusive() throws Exception {
+		// the buffers of a bucketed join are cleaned up per bucket, see testBucketedStateCleanup()
+		Assume.assumeFalse(bucketing);
+
 		setupHarness(0, true, 1, true)
 			.processElement1(1)
 			.processElement1(2)
@@ -308,6 +320,9 @@ public class IntervalJoinOperatorTest {
 
 	@Test
 	public void testStateCleanupPositiveExlusivePositiveExclusive() throws Exception {
+		// the buffers of a bucketed join are cleaned up per bucket, see testBucketedStateCleanup()
+		Assume.assumeFalse(bucketing);
+
 		setupHarness(-1, false, 2, false)
 			.processElement1(1)
 			.processElement1(2)
@@ -342,6 +357,40 @@ public class IntervalJoinOperatorTest {
 			.close();
 	}
 
+	@Test
+	public void testBucketedStateCleanup() throws Exception {
+		Assume.assumeTrue(bucketing);
+
+		// the join interval and therefore the buckets are 3 wide: [0, 2], [3, 5], [6, 8]
+		JoinTestBuilder builder = setupHarness(-1, true, 1, true)
+			.processElement1(1)
+			.processElement1(2)
+			.processElement1(3)
+			.processElement1(4)
+			.processElement1(5)
+
+			.processElement2(1)
+			.processElement2(2)
+			.processElement2(3)
+			.processElement2(4)
+			.processElement2(5);
+
+		// both buffers have two buckets, and the index of their last bucket
+		Assert.assertEquals(6, builder.get().numKeyedStateEntries());
+
+		// the first buckets can be cleaned up when the watermark passes their last timestamp + 1
+		builder.processWatermark1(2).processWatermark2(2);
+		Assert.assertEquals(6, builder.get().numKeyedStateEntries());
+
+		builder.processWatermark1(3).processWatermark2(3);
+		Assert.assertEquals(4, builder.get().numKeyedStateEntries());
+
+		builder.processWatermark1(6).processWatermark2(6);
+		Assert.assertEquals(0, builder.get().numKeyedStateEntries());
+
+		builder.close();
+	}
+
 	@Test
 	public void testRestoreFromSnapshot() throws Exception {
 
@@ -658,7 +707,8 @@ public class IntervalJoinOperatorTest {
 				upperBoundInclusive,
 				TestElem.serializer(),
 				TestElem.serializer(),
-				new PassthroughFunction()
+				new PassthroughFunction(),
+				bucketing
 			);
 
 		return new TestHarness(
@@ -682,7 +732,8 @@ public class IntervalJoinOperatorTest {
 				upperBoundInclusive,
 				TestElem.serializer(),
 				TestElem.serializer(),
-				new PassthroughFunction()
+				new PassthroughFunction(),
+				bucketing
 			);
 
 		TestHarness t = new TestHarness(
@@ -0,0 +1,174 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.streaming.api.operators.co.benchmark;
+
+import org.apache.flink.api.common.typeinfo.BasicTypeInfo;
+import org.apache.flink.api.common.typeutils.base.LongSerializer;
+import org.apache.flink.api.java.functions.KeySelector;
+import org.apache.flink.runtime.state.StateBackend;
+import org.apache.flink.runtime.state.memory.MemoryStateBackend;
+import org.apache.flink.streaming.api.functions.co.ProcessJoinFunction;
+import org.apache.flink.streaming.api.operators.co.IntervalJoinOperator;
+import org.apache.flink.streaming.api.watermark.Watermark;
+import org.apache.flink.streaming.runtime.streamrecord.StreamRecord;
+import org.apache.flink.streaming.util.KeyedTwoInputStreamOperatorTestHarness;
+import org.apache.flink.util.Collector;
+
+/**
+ * Benchmark that compares the {@link IntervalJoinOperator} with and without bucketing of the
+ * buffered elements, on a given state backend.
+ *
+ * <p>The records of both sides have ascending timestamps of one record per millisecond, and the
+ * watermarks lag behind the timestamps by a configurable delay. The buffers therefore hold the
+ * elements of the watermark delay, while an element is only joined with the elements of the join
+ * interval.
+ *
+ * <p>The benchmark can be executed by the external
+ * <a href="https://github.com/dataArtisans/flink-benchmarks">flink-benchmarks</a> project, or
+ * standalone via {@link #main(String[])} for the heap state backend.
+ */
+public class IntervalJoinBenchmark {
+
+	/** Number of records between two watermarks. */
+	private static final int RECORDS_PER_WATERMARK = 1000;
+
+	private KeyedTwoInputStreamOperatorTestHarness<Long, Long, Long, Long> testHarness;
+
+	private int numberOfKeys;
+
+	private long watermarkDelay;
+
+	/**
+	 * Initializes the benchmark.
+	 *
+	 * @param bucketing whether the buffers of the join are bucketed
+	 * @param stateBackend the state backend for the buffers of the join
+	 * @param lowerBound the inclusive lower bound of the join interval
+	 * @param upperBound the inclusive upper bound of the join interval
+	 * @param watermarkDelay the delay of the watermarks behind the timestamps of the records
+	 * @param numberOfKeys number of distinct keys of the records
+	 */
+	public void setUp(
+			boolean bucketing,
+			StateBackend stateBackend,
+			long lowerBound,
+			long upperBound,
+			long watermarkDelay,
+			int numberOfKeys) throws Exception {
+
+		this.numberOfKeys = numberOfKeys;
+		this.watermarkDelay = watermarkDelay;
+
+		IntervalJoinOperator<Long, Long, Long, Long> operator = new IntervalJoinOperator<>(
+			lowerBound,
+			upperBound,
+			true,
+			true,
+			LongSerializer.INSTANCE,
+			LongSerializer.INSTANCE,
+			new DiscardingJoinFunction(),
+			bucketing);
+
+		testHarness = new KeyedTwoInputStreamOperatorTestHarness<>(
+			operator, new IdentityKeySelector(), new IdentityKeySelector(), BasicTypeInfo.LONG_TYPE_INFO);
+		testHarness.setStateBackend(stateBackend);
+		testHarness.open();
+	}
+
+	/**
+	 * Processes the given number of records, alternating between both sides of the join, with a
+	 * watermark on both sides every {@value #RECORDS_PER_WATERMARK} records.
+	 *
+	 * @param records number of records to process
+	 */
+	public void executeBenchmark(long records) throws Exception {
+		final StreamRecord<Long> record = new StreamRecord<>(0L);
+
+		for (long i = 0; i < records; i++) {
+			record.replace(i % numberOfKeys, i);
+			if (i % 2 == 0) {
+				testHarness.processElement1(record);
+			} else {
+				testHarness.processElement2(record);
+			}
+
+			if (i % RECORDS_PER_WATERMARK == RECORDS_PER_WATERMARK - 1) {
+				final Watermark watermark = new Watermark(i - watermarkDelay);
+				testHarness.processWatermark1(watermark);
+				testHarness.processWatermark2(watermark);
+				// the output is not of interest and would otherwise grow with the number of records
+				testHarness.getOutput().clear();
+			}
+		}
+
+		testHarness.processWatermark1(new Watermark(Long.MAX_VALUE));
+		testHarness.processWatermark2(new Watermark(Long.MAX_VALUE));
+		testHarness.getOutput().clear();
+	}
+
+	public void tearDown() throws Exception {
+		if (testHarness != null) {
+			testHarness.close();
+		}
+	}
+
+	/**
+	 * Runs the benchmark with and without bucketing on the given state backend and prints the
+	 * throughput. The join interval is [-100 ms, 100 ms] and the watermarks lag one minute behind.
+	 */
+	public static void run(StateBackend stateBackend, long records) throws Exception {
+		for (boolean bucketing : new boolean[] {false, true}) {
+			IntervalJoinBenchmark benchmark = new IntervalJoinBenchmark();
+			benchmark.setUp(bucketing, stateBackend, -100L, 100L, 60_000L, 10);
+			try {
+				final long start = System.nanoTime();
+				benchmark.executeBenchmark(records);
+				final long durationMillis = Math.max(1L, (System.nanoTime() - start) / 1_000_000L);
+
+				System.out.println(stateBackend.getClass().getSimpleName() + (bucketing ? ", bucketing" : "") + ": " +
+					records + " records in " + durationMillis + " ms (" + (records * 1000L / durationMillis) + " records/s)");
+			} finally {
+				benchmark.tearDown();
+			}
+		}
+	}
+
+	public static void main(String[] args) throws Exception {
+		final long records = args.length > 0 ? Long.parseLong(args[0]) : 1_000_000L;
+		run(new MemoryStateBackend(), records);
+	}
+
+	/** The joined pairs are not of interest and are discarded. */
+	private static class DiscardingJoinFunction extends ProcessJoinFunction<Long, Long, Long> {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		public void processElement(Long left, Long right, Context ctx, Collector<Long> out) {
+		}
+	}
+
+	private static class IdentityKeySelector implements KeySelector<Long, Long> {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		public Long getKey(Long value) {
+			return value;
+		}
+	}
+}
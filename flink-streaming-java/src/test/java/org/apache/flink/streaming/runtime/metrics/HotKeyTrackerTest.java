@@ -0,0 +1,132 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.streaming.runtime.metrics;
+
+import org.apache.flink.metrics.Gauge;
+import org.apache.flink.metrics.groups.UnregisteredMetricsGroup;
+import org.apache.flink.runtime.state.KeyGroupRangeAssignment;
+import org.apache.flink.util.TestLogger;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for the {@link HotKeyTracker}.
+ */
+public class HotKeyTrackerTest extends TestLogger {
+
+	private static final int MAX_PARALLELISM = 128;
+
+	@Test
+	public void testFindsHottestKeys() {
+		HotKeyTracker<String> tracker = new HotKeyTracker<>(8, 1, MAX_PARALLELISM);
+
+		for (int i = 0; i < 10_000; i++) {
+			// half of the records have the hot key, a fifth the warm key, the rest distinct keys
+			String key = i % 10 < 5 ? "hot" : i % 10 < 7 ? "warm" : "key-" + i;
+			tracker.add(key, KeyGroupRangeAssignment.assignToKeyGroup(key, MAX_PARALLELISM));
+		}
+
+		HotKeyTracker.Snapshot snapshot = tracker.getSnapshot();
+		assertTrue(snapshot.getHotKeys(), snapshot.getHotKeys().startsWith("[hot=0.5, warm=0.2, "));
+		assertEquals(0.5, snapshot.getHottestKeyShare(), 0.0);
+		assertEquals(KeyGroupRangeAssignment.assignToKeyGroup("hot", MAX_PARALLELISM), snapshot.getHottestKeyGroup());
+		assertTrue(snapshot.getHottestKeyGroupShare() >= 0.5);
+	}
+
+	@Test
+	public void testSampling() {
+		HotKeyTracker<Integer> tracker = new HotKeyTracker<>(4, 16, MAX_PARALLELISM);
+
+		for (int i = 0; i < 10_000; i++) {
+			tracker.add(i % 2, i % 2);
+		}
+
+		HotKeyTracker.Snapshot snapshot = tracker.getSnapshot();
+		assertEquals(0.5, snapshot.getHottestKeyShare(), 0.1);
+		assertEquals(0.5, snapshot.getHottestKeyGroupShare(), 0.1);
+	}
+
+	@Test
+	public void testMutatedKeysAreNotCorrupted() {
+		HotKeyTracker<MutableKey> tracker = new HotKeyTracker<>(4, 1, MAX_PARALLELISM);
+
+		// the producer reuses the same key object for all records
+		MutableKey key = new MutableKey();
+		for (String value : new String[] {"hot", "cold", "hot", "hot"}) {
+			key.value = value;
+			tracker.add(key, 0);
+		}
+
+		assertEquals("[hot=0.75, cold=0.25]", tracker.getSnapshot().getHotKeys());
+	}
+
+	@Test
+	public void testMetricsReflectAllSampledRecords() {
+		HotKeyTracker<String> tracker = new HotKeyTracker<>(4, 1, MAX_PARALLELISM);
+
+		Map<String, Gauge<?>> gauges = new HashMap<>();
+		tracker.registerMetrics(new UnregisteredMetricsGroup() {
+			@Override
+			public <T, G extends Gauge<T>> G gauge(String name, G gauge) {
+				gauges.put(name, gauge);
+				return gauge;
+			}
+		});
+
+		assertEquals("[]", gauges.get("hotKeys").getValue());
+		assertEquals(-1, gauges.get("hottestKeyGroup").getValue());
+
+		tracker.add("a", 3);
+		assertEquals("[a=1.0]", gauges.get("hotKeys").getValue());
+		assertEquals(1.0, gauges.get("hottestKeyShare").getValue());
+		assertEquals(3, gauges.get("hottestKeyGroup").getValue());
+		assertEquals(1.0, gauges.get("hottestKeyGroupShare").getValue());
+
+		tracker.add("b", 5);
+		tracker.add("b", 5);
+		assertEquals("[b=0.667, a=0.333]", gauges.get("hotKeys").getValue());
+		assertEquals(5, gauges.get("hottestKeyGroup").getValue());
+	}
+
+	private static final class MutableKey {
+
+		String value;
+
+		@Override
+		public boolean equals(Object o) {
+			return o instanceof MutableKey && ((MutableKey) o).value.equals(value);
+		}
+
+		@Override
+		public int hashCode() {
+			return value.hashCode();
+		}
+
+		@Override
+		public String toString() {
+			return value;
+		}
+	}
+}
@@ -355,11 +355,45 @@ public class MergingWindowSetTest {
 		mergeFunction.reset();
 		assertEquals(new TimeWindow(0, 13), windowSet.addWindow(new TimeWindow(0, 13), mergeFunction));
 		assertTrue(mergeFunction.hasMerged());
-		assertThat(mergeFunction.mergedStateWindows(), anyOf(
-				containsInAnyOrder(new TimeWindow(0, 3), new TimeWindow(5, 8)),
-				containsInAnyOrder(new TimeWindow(0, 3), new TimeWindow(10, 13)),
-				containsInAnyOrder(new TimeWindow(5, 8), new TimeWindow(10, 13))));
-		assertThat(windowSet.getStateWindow(new TimeWindow(0, 13)), anyOf(is(new TimeWindow(1, 3)), is(new TimeWindow(5, 8)), is(new TimeWindow(10, 13))));
+		// the first of the largest windows keeps its state window
+		assertThat(mergeFunction.mergedStateWindows(), containsInAnyOrder(new TimeWindow(1, 3), new TimeWindow(10, 13)));
+		assertEquals(new TimeWindow(5, 8), windowSet.getStateWindow(new TimeWindow(0, 13)));
+	}
+
+	/**
+	 * Verifies that the state window of the largest merged window becomes the state window of the
+	 * merge result, so that a growing session keeps its state window and only the state of the
+	 * smaller windows is merged into it.
+	 */
+	@Test
+	public void testLargestWindowKeepsStateWindow() throws Exception {
+		@SuppressWarnings("unchecked")
+		ListState<Tuple2<TimeWindow, TimeWindow>> mockState = mock(ListState.class);
+
+		MergingWindowSet<TimeWindow> windowSet = new MergingWindowSet<>(EventTimeSessionWindows.withGap(Time.milliseconds(3)), mockState);
+
+		TestingMergeFunction mergeFunction = new TestingMergeFunction();
+
+		mergeFunction.reset();
+		assertEquals(new TimeWindow(10, 20), windowSet.addWindow(new TimeWindow(10, 20), mergeFunction));
+		assertEquals(new TimeWindow(22, 25), windowSet.addWindow(new TimeWindow(22, 25), mergeFunction));
+		assertFalse(mergeFunction.hasMerged());
+
+		// a small window that bridges the two sessions, after the large one
+		mergeFunction.reset();
+		assertEquals(new TimeWindow(10, 25), windowSet.addWindow(new TimeWindow(19, 23), mergeFunction));
+		assertTrue(mergeFunction.hasMerged());
+		assertEquals(new TimeWindow(10, 20), mergeFunction.stateWindow());
+		assertThat(mergeFunction.mergedStateWindows(), containsInAnyOrder(new TimeWindow(22, 25)));
+
+		// a new window that extends the session to the front
+		mergeFunction.reset();
+		assertEquals(new TimeWindow(8, 25), windowSet.addWindow(new TimeWindow(8, 11), mergeFunction));
+		assertTrue(mergeFunction.hasMerged());
+		assertEquals(new TimeWindow(10, 20), mergeFunction.stateWindow());
+		assertTrue(mergeFunction.mergedStateWindows().isEmpty());
+
+		assertEquals(new TimeWindow(10, 20), windowSet.getStateWindow(new TimeWindow(8, 25)));
 	}
 
 	@Test
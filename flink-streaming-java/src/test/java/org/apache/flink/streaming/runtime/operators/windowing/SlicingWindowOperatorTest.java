@@ -0,0 +1,376 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.streaming.runtime.operators.windowing;
+
+import org.apache.flink.api.common.ExecutionConfig;
+import org.apache.flink.api.common.functions.AggregateFunction;
+import org.apache.flink.api.common.functions.ReduceFunction;
+import org.apache.flink.api.common.state.ReducingStateDescriptor;
+import org.apache.flink.api.common.typeinfo.BasicTypeInfo;
+import org.apache.flink.api.common.typeinfo.TypeHint;
+import org.apache.flink.api.common.typeinfo.TypeInformation;
+import org.apache.flink.api.common.typeutils.base.LongSerializer;
+import org.apache.flink.api.java.functions.KeySelector;
+import org.apache.flink.api.java.tuple.Tuple2;
+import org.apache.flink.runtime.checkpoint.OperatorSubtaskState;
+import org.apache.flink.streaming.api.functions.windowing.PassThroughWindowFunction;
+import org.apache.flink.streaming.api.operators.OneInputStreamOperator;
+import org.apache.flink.streaming.api.watermark.Watermark;
+import org.apache.flink.streaming.api.windowing.assigners.SlidingEventTimeWindows;
+import org.apache.flink.streaming.api.windowing.assigners.SlidingProcessingTimeWindows;
+import org.apache.flink.streaming.api.windowing.assigners.WindowAssigner;
+import org.apache.flink.streaming.api.windowing.time.Time;
+import org.apache.flink.streaming.api.windowing.triggers.EventTimeTrigger;
+import org.apache.flink.streaming.api.windowing.triggers.ProcessingTimeTrigger;
+import org.apache.flink.streaming.api.windowing.triggers.Trigger;
+import org.apache.flink.streaming.api.windowing.windows.TimeWindow;
+import org.apache.flink.streaming.runtime.operators.windowing.functions.InternalSingleValueWindowFunction;
+import org.apache.flink.streaming.runtime.streamrecord.StreamRecord;
+import org.apache.flink.streaming.util.KeyedOneInputStreamOperatorTestHarness;
+import org.apache.flink.util.OutputTag;
+import org.apache.flink.util.TestLogger;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+/**
+ * Tests for {@link SlicingWindowOperator}.
+ */
+public class SlicingWindowOperatorTest extends TestLogger {
+
+	private static final TypeInformation<Tuple2<String, Integer>> STRING_INT_TUPLE =
+		TypeInformation.of(new TypeHint<Tuple2<String, Integer>>(){});
+
+	private static final OutputTag<Tuple2<String, Integer>> LATE_OUTPUT_TAG =
+		new OutputTag<>("late-data", STRING_INT_TUPLE);
+
+	@Test
+	public void testEventTimeWindowsAreEvaluatedLikeWindowOperator() throws Exception {
+		verifyEventTimeWindowsAgainstWindowOperator(
+			SlidingEventTimeWindows.of(Time.seconds(3), Time.seconds(1)), 0L);
+	}
+
+	@Test
+	public void testEventTimeWindowsWithSlideNotDividingSizeAreEvaluatedLikeWindowOperator() throws Exception {
+		verifyEventTimeWindowsAgainstWindowOperator(
+			SlidingEventTimeWindows.of(Time.seconds(5), Time.seconds(2), Time.milliseconds(500)), 0L);
+	}
+
+	@Test
+	public void testAllowedLatenessIsHandledLikeWindowOperator() throws Exception {
+		verifyEventTimeWindowsAgainstWindowOperator(
+			SlidingEventTimeWindows.of(Time.seconds(3), Time.seconds(1)), 1500L);
+	}
+
+	@Test
+	public void testProcessingTimeWindowsAreEvaluatedLikeWindowOperator() throws Exception {
+		final SlidingProcessingTimeWindows windowAssigner = SlidingProcessingTimeWindows.of(Time.seconds(3), Time.seconds(1));
+
+		try (KeyedOneInputStreamOperatorTestHarness<String, Tuple2<String, Integer>, Tuple2<String, Integer>> slicingHarness =
+				createTestHarness(createSlicingWindowOperator(windowAssigner, 0L));
+			KeyedOneInputStreamOperatorTestHarness<String, Tuple2<String, Integer>, Tuple2<String, Integer>> windowHarness =
+				createTestHarness(createWindowOperator(windowAssigner, ProcessingTimeTrigger.create(), 0L))) {
+
+			slicingHarness.open();
+			windowHarness.open();
+
+			final Random random = new Random(42L);
+			long processingTime = 0L;
+
+			for (int i = 0; i < 2000; i++) {
+				if (random.nextInt(10) == 0) {
+					// never advance to the max timestamp of a window, where the order of timers and
+					// elements differs between the operators
+					processingTime += 100 * random.nextInt(7);
+					slicingHarness.setProcessingTime(processingTime);
+					windowHarness.setProcessingTime(processingTime);
+				}
+
+				final String key = "key" + random.nextInt(5);
+				final int value = random.nextInt(100);
+				slicingHarness.processElement(new StreamRecord<>(new Tuple2<>(key, value)));
+				windowHarness.processElement(new StreamRecord<>(new Tuple2<>(key, value)));
+			}
+
+			slicingHarness.setProcessingTime(processingTime + 10_000L);
+			windowHarness.setProcessingTime(processingTime + 10_000L);
+
+			assertFalse(windowHarness.getOutput().isEmpty());
+			assertEquals(extractRecords(windowHarness.getOutput()), extractRecords(slicingHarness.getOutput()));
+		}
+	}
+
+	@Test
+	public void testElementUpdatesSingleSliceAndTimer() throws Exception {
+		SlicingWindowOperator<String, Tuple2<String, Integer>, Tuple2<String, Integer>, Tuple2<String, Integer>, Tuple2<String, Integer>> operator =
+			createSlicingWindowOperator(SlidingEventTimeWindows.of(Time.hours(1), Time.minutes(1)), 0L);
+
+		try (KeyedOneInputStreamOperatorTestHarness<String, Tuple2<String, Integer>, Tuple2<String, Integer>> testHarness =
+				createTestHarness(operator)) {
+
+			testHarness.open();
+
+			testHarness.processElement(new StreamRecord<>(new Tuple2<>("key", 1), 10L));
+			testHarness.processElement(new StreamRecord<>(new Tuple2<>("key", 1), 20L));
+
+			assertEquals(Time.minutes(1).toMilliseconds(), operator.getSliceSize());
+			assertEquals(1, testHarness.numKeyedStateEntries());
+			assertEquals(1, testHarness.numEventTimeTimers());
+
+			// the first window fires and the timer for the next window is registered
+			testHarness.processWatermark(new Watermark(Time.minutes(1).toMilliseconds() - 1));
+
+			assertEquals(1, testHarness.numKeyedStateEntries());
+			assertEquals(1, testHarness.numEventTimeTimers());
+			assertEquals(
+				Collections.singletonList(new Tuple2<>("key", 2) + "@" + (Time.minutes(1).toMilliseconds() - 1)),
+				extractRecords(testHarness.getOutput()));
+
+			// after the last window of the slice, all state is cleaned up
+			testHarness.processWatermark(new Watermark(Time.hours(1).toMilliseconds()));
+
+			assertEquals(60, extractRecords(testHarness.getOutput()).size());
+			assertEquals(0, testHarness.numKeyedStateEntries());
+			assertEquals(0, testHarness.numEventTimeTimers());
+		}
+	}
+
+	@Test
+	public void testRestoreFromSnapshot() throws Exception {
+		final SlidingEventTimeWindows windowAssigner = SlidingEventTimeWindows.of(Time.seconds(3), Time.seconds(1));
+		final List<String> expectedOutput = new ArrayList<>();
+		final List<String> actualOutput = new ArrayList<>();
+		final OperatorSubtaskState snapshot;
+
+		try (KeyedOneInputStreamOperatorTestHarness<String, Tuple2<String, Integer>, Tuple2<String, Integer>> testHarness =
+				createTestHarness(createSlicingWindowOperator(windowAssigner, 0L))) {
+
+			testHarness.open();
+
+			testHarness.processElement(new StreamRecord<>(new Tuple2<>("key1", 1), 500L));
+			testHarness.processElement(new StreamRecord<>(new Tuple2<>("key2", 1), 1500L));
+			testHarness.processWatermark(new Watermark(999L));
+
+			actualOutput.addAll(extractRecords(testHarness.getOutput()));
+			snapshot = testHarness.snapshot(0L, 0L);
+		}
+
+		try (KeyedOneInputStreamOperatorTestHarness<String, Tuple2<String, Integer>, Tuple2<String, Integer>> testHarness =
+				createTestHarness(createSlicingWindowOperator(windowAssigner, 0L))) {
+
+			testHarness.setup();
+			testHarness.initializeState(snapshot);
+			testHarness.open();
+
+			testHarness.processElement(new StreamRecord<>(new Tuple2<>("key1", 1), 2500L));
+			testHarness.processWatermark(new Watermark(5000L));
+
+			actualOutput.addAll(extractRecords(testHarness.getOutput()));
+		}
+
+		Collections.addAll(expectedOutput,
+			"(key1,1)@999",
+			"(key1,1)@1999", "(key2,1)@1999",
+			"(key1,2)@2999", "(key2,1)@2999",
+			"(key1,1)@3999", "(key2,1)@3999",
+			"(key1,1)@4999");
+		Collections.sort(expectedOutput);
+		Collections.sort(actualOutput);
+
+		assertEquals(expectedOutput, actualOutput);
+	}
+
+	@Test
+	public void testAggregateFunction() throws Exception {
+		SlicingWindowOperator<String, Tuple2<String, Integer>, Long, Long, Long> operator = new SlicingWindowOperator<>(
+			SlidingEventTimeWindows.of(Time.seconds(4), Time.seconds(2)),
+			new CountAggregateFunction(),
+			LongSerializer.INSTANCE,
+			new InternalSingleValueWindowFunction<>(new PassThroughWindowFunction<String, TimeWindow, Long>()),
+			0L,
+			null);
+
+		try (KeyedOneInputStreamOperatorTestHarness<String, Tuple2<String, Integer>, Long> testHarness =
+				new KeyedOneInputStreamOperatorTestHarness<>(operator, new TupleKeySelector(), BasicTypeInfo.STRING_TYPE_INFO)) {
+
+			testHarness.open();
+
+			testHarness.processElement(new StreamRecord<>(new Tuple2<>("key", 1), 100L));
+			testHarness.processElement(new StreamRecord<>(new Tuple2<>("key", 1), 2100L));
+			testHarness.processElement(new StreamRecord<>(new Tuple2<>("key", 1), 2200L));
+			testHarness.processWatermark(new Watermark(6000L));
+
+			assertEquals(Arrays.asList("1@1999", "2@5999", "3@3999"), extractRecords(testHarness.getOutput()));
+		}
+	}
+
+	// ------------------------------------------------------------------------
+
+	private void verifyEventTimeWindowsAgainstWindowOperator(
+			SlidingEventTimeWindows windowAssigner,
+			long allowedLateness) throws Exception {
+
+		try (KeyedOneInputStreamOperatorTestHarness<String, Tuple2<String, Integer>, Tuple2<String, Integer>> slicingHarness =
+				createTestHarness(createSlicingWindowOperator(windowAssigner, allowedLateness));
+			KeyedOneInputStreamOperatorTestHarness<String, Tuple2<String, Integer>, Tuple2<String, Integer>> windowHarness =
+				createTestHarness(createWindowOperator(windowAssigner, EventTimeTrigger.create(), allowedLateness))) {
+
+			slicingHarness.open();
+			windowHarness.open();
+
+			final Random random = new Random(42L);
+			long maxTimestamp = 0L;
+
+			for (int i = 0; i < 5000; i++) {
+				// elements are out of order by up to 7 seconds, but the watermark only lags by 2 seconds
+				final long timestamp = Math.max(0L, maxTimestamp + random.nextInt(7600) - 7000L);
+				maxTimestamp = Math.max(maxTimestamp, timestamp);
+
+				final String key = "key" + random.nextInt(5);
+				final int value = random.nextInt(100);
+				slicingHarness.processElement(new StreamRecord<>(new Tuple2<>(key, value), timestamp));
+				windowHarness.processElement(new StreamRecord<>(new Tuple2<>(key, value), timestamp));
+
+				if (random.nextInt(20) == 0) {
+					Watermark watermark = new Watermark(maxTimestamp - 2000L);
+					slicingHarness.processWatermark(watermark);
+					windowHarness.processWatermark(watermark);
+				}
+			}
+
+			slicingHarness.processWatermark(new Watermark(Long.MAX_VALUE));
+			windowHarness.processWatermark(new Watermark(Long.MAX_VALUE));
+
+			assertFalse(windowHarness.getOutput().isEmpty());
+			assertFalse(windowHarness.getSideOutput(LATE_OUTPUT_TAG).isEmpty());
+			assertEquals(extractRecords(windowHarness.getOutput()), extractRecords(slicingHarness.getOutput()));
+			assertEquals(
+				extractRecords(windowHarness.getSideOutput(LATE_OUTPUT_TAG)),
+				extractRecords(slicingHarness.getSideOutput(LATE_OUTPUT_TAG)));
+
+			assertEquals(0, slicingHarness.numKeyedStateEntries());
+			assertEquals(0, slicingHarness.numEventTimeTimers());
+		}
+	}
+
+	private static SlicingWindowOperator<String, Tuple2<String, Integer>, Tuple2<String, Integer>, Tuple2<String, Integer>, Tuple2<String, Integer>> createSlicingWindowOperator(
+			WindowAssigner<?, TimeWindow> windowAssigner,
+			long allowedLateness) {
+
+		return new SlicingWindowOperator<>(
+			windowAssigner,
+			new SlicingWindowOperator.ReduceAggregateFunction<>(new SumReducer()),
+			STRING_INT_TUPLE.createSerializer(new ExecutionConfig()),
+			new InternalSingleValueWindowFunction<>(new PassThroughWindowFunction<String, TimeWindow, Tuple2<String, Integer>>()),
+			allowedLateness,
+			LATE_OUTPUT_TAG);
+	}
+
+	private static WindowOperator<String, Tuple2<String, Integer>, Tuple2<String, Integer>, Tuple2<String, Integer>, TimeWindow> createWindowOperator(
+			WindowAssigner<Object, TimeWindow> windowAssigner,
+			Trigger<Object, TimeWindow> trigger,
+			long allowedLateness) {
+
+		ReducingStateDescriptor<Tuple2<String, Integer>> stateDesc = new ReducingStateDescriptor<>("window-contents",
+			new SumReducer(),
+			STRING_INT_TUPLE.createSerializer(new ExecutionConfig()));
+
+		return new WindowOperator<>(
+			windowAssigner,
+			new TimeWindow.Serializer(),
+			new TupleKeySelector(),
+			BasicTypeInfo.STRING_TYPE_INFO.createSerializer(new ExecutionConfig()),
+			stateDesc,
+			new InternalSingleValueWindowFunction<>(new PassThroughWindowFunction<String, TimeWindow, Tuple2<String, Integer>>()),
+			trigger,
+			allowedLateness,
+			LATE_OUTPUT_TAG);
+	}
+
+	private static <OUT> KeyedOneInputStreamOperatorTestHarness<String, Tuple2<String, Integer>, OUT> createTestHarness(
+			OneInputStreamOperator<Tuple2<String, Integer>, OUT> operator) throws Exception {
+		return new KeyedOneInputStreamOperatorTestHarness<>(operator, new TupleKeySelector(), BasicTypeInfo.STRING_TYPE_INFO);
+	}
+
+	/**
+	 * Returns the records of the given output as sorted strings of value and timestamp.
+	 */
+	private static List<String> extractRecords(Collection<?> output) {
+		List<String> records = new ArrayList<>();
+		for (Object element : output) {
+			if (element instanceof StreamRecord) {
+				StreamRecord<?> record = (StreamRecord<?>) element;
+				records.add(record.getValue() + "@" + record.getTimestamp());
+			}
+		}
+		Collections.sort(records);
+		return records;
+	}
+
+	private static class SumReducer implements ReduceFunction<Tuple2<String, Integer>> {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		public Tuple2<String, Integer> reduce(Tuple2<String, Integer> value1, Tuple2<String, Integer> value2) {
+			return new Tuple2<>(value2.f0, value1.f1 + value2.f1);
+		}
+	}
+
+	private static class CountAggregateFunction implements AggregateFunction<Tuple2<String, Integer>, Long, Long> {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		public Long createAccumulator() {
+			return 0L;
+		}
+
+		@Override
+		public Long add(Tuple2<String, Integer> value, Long accumulator) {
+			return accumulator + 1;
+		}
+
+		@Override
+		public Long getResult(Long accumulator) {
+			return accumulator;
+		}
+
+		@Override
+		public Long merge(Long a, Long b) {
+			return a + b;
+		}
+	}
+
+	private static class TupleKeySelector implements KeySelector<Tuple2<String, Integer>, String> {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		public String getKey(Tuple2<String, Integer> value) {
+			return value.f0;
+		}
+	}
+}
@@ -432,6 +432,74 @@ public class WindowOperatorTest extends TestLogger {
 		testHarness.close();
 	}
 
+	/**
+	 * Verifies that lazily merged session windows, which reference the state of the merged windows
+	 * instead of copying it, emit the same contents and clean up the state of all merged windows.
+	 */
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testLazyMergingSessionWindows() throws Exception {
+		closeCalled.set(0);
+
+		final int sessionSize = 3;
+
+		ListStateDescriptor<Tuple2<String, Integer>> stateDesc = new ListStateDescriptor<>("window-contents",
+				STRING_INT_TUPLE.createSerializer(new ExecutionConfig()));
+
+		WindowOperator<String, Tuple2<String, Integer>, Iterable<Tuple2<String, Integer>>, Tuple3<String, Long, Long>, TimeWindow> operator = new WindowOperator<>(
+				EventTimeSessionWindows.withGap(Time.seconds(sessionSize)),
+				new TimeWindow.Serializer(),
+				new TupleKeySelector(),
+				BasicTypeInfo.STRING_TYPE_INFO.createSerializer(new ExecutionConfig()),
+				stateDesc,
+				new InternalIterableWindowFunction<>(new SessionWindowFunction()),
+				EventTimeTrigger.create(),
+				0,
+				null /* late data output tag */,
+				true /* lazy merging */);
+
+		OneInputStreamOperatorTestHarness<Tuple2<String, Integer>, Tuple3<String, Long, Long>> testHarness =
+				createTestHarness(operator);
+
+		ConcurrentLinkedQueue<Object> expectedOutput = new ConcurrentLinkedQueue<>();
+
+		testHarness.open();
+
+		// two separate sessions that are bridged by a later element
+		testHarness.processElement(new StreamRecord<>(new Tuple2<>("key2", 1), 0));
+		testHarness.processElement(new StreamRecord<>(new Tuple2<>("key2", 2), 1000));
+		testHarness.processElement(new StreamRecord<>(new Tuple2<>("key2", 3), 5000));
+		testHarness.processElement(new StreamRecord<>(new Tuple2<>("key2", 4), 2500));
+
+		testHarness.processElement(new StreamRecord<>(new Tuple2<>("key1", 1), 10));
+		testHarness.processElement(new StreamRecord<>(new Tuple2<>("key1", 2), 1000));
+
+		// do a snapshot, close and restore again
+		OperatorSubtaskState snapshot = testHarness.snapshot(0L, 0L);
+		testHarness.close();
+
+		testHarness = createTestHarness(operator);
+		testHarness.setup();
+		testHarness.initializeState(snapshot);
+		testHarness.open();
+
+		// merge the restored sessions again
+		testHarness.processElement(new StreamRecord<>(new Tuple2<>("key1", 3), 2500));
+		testHarness.processElement(new StreamRecord<>(new Tuple2<>("key2", 5), 7000));
+		testHarness.processElement(new StreamRecord<>(new Tuple2<>("key2", 5), 7000));
+
+		testHarness.processWatermark(new Watermark(12000));
+
+		expectedOutput.add(new StreamRecord<>(new Tuple3<>("key1-6", 10L, 5500L), 5499));
+		expectedOutput.add(new StreamRecord<>(new Tuple3<>("key2-20", 0L, 10000L), 9999));
+		expectedOutput.add(new Watermark(12000));
+
+		TestHarnessUtil.assertOutputEqualsSorted("Output was not correct.", expectedOutput, testHarness.getOutput(), new Tuple3ResultSortComparator());
+		assertEquals(0, ((KeyedOneInputStreamOperatorTestHarness<?, ?, ?>) testHarness).numKeyedStateEntries());
+
+		testHarness.close();
+	}
+
 	@Test
 	@SuppressWarnings("unchecked")
 	public void testSessionWindowsWithProcessFunction() throws Exception {
@@ -0,0 +1,183 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.streaming.runtime.operators.windowing.benchmark;
+
+import org.apache.flink.api.common.functions.AggregateFunction;
+import org.apache.flink.api.common.state.AggregatingStateDescriptor;
+import org.apache.flink.api.common.typeinfo.BasicTypeInfo;
+import org.apache.flink.api.common.typeutils.base.LongSerializer;
+import org.apache.flink.api.java.functions.KeySelector;
+import org.apache.flink.streaming.api.functions.windowing.PassThroughWindowFunction;
+import org.apache.flink.streaming.api.operators.OneInputStreamOperator;
+import org.apache.flink.streaming.api.watermark.Watermark;
+import org.apache.flink.streaming.api.windowing.assigners.SlidingEventTimeWindows;
+import org.apache.flink.streaming.api.windowing.time.Time;
+import org.apache.flink.streaming.api.windowing.triggers.EventTimeTrigger;
+import org.apache.flink.streaming.api.windowing.windows.TimeWindow;
+import org.apache.flink.streaming.runtime.operators.windowing.SlicingWindowOperator;
+import org.apache.flink.streaming.runtime.operators.windowing.WindowOperator;
+import org.apache.flink.streaming.runtime.operators.windowing.functions.InternalSingleValueWindowFunction;
+import org.apache.flink.streaming.runtime.streamrecord.StreamRecord;
+import org.apache.flink.streaming.util.KeyedOneInputStreamOperatorTestHarness;
+
+/**
+ * Benchmark that compares the evaluation of sliding event time windows with an incremental
+ * aggregation by the {@link WindowOperator} and by the {@link SlicingWindowOperator}.
+ *
+ * <p>The benchmark can be executed by the external
+ * <a href="https://github.com/dataArtisans/flink-benchmarks">flink-benchmarks</a> project, or
+ * standalone via {@link #main(String[])}.
+ */
+public class SlidingWindowBenchmark {
+
+	/** Number of records between two watermarks. */
+	private static final int RECORDS_PER_WATERMARK = 1000;
+
+	private KeyedOneInputStreamOperatorTestHarness<Long, Long, Long> testHarness;
+
+	private int numberOfKeys;
+
+	/**
+	 * Initializes the benchmark.
+	 *
+	 * @param slicing whether to use the {@link SlicingWindowOperator} instead of the {@link WindowOperator}
+	 * @param windowSize size of the sliding windows
+	 * @param windowSlide slide of the sliding windows
+	 * @param numberOfKeys number of distinct keys of the records
+	 */
+	public void setUp(boolean slicing, Time windowSize, Time windowSlide, int numberOfKeys) throws Exception {
+		this.numberOfKeys = numberOfKeys;
+
+		SlidingEventTimeWindows windowAssigner = SlidingEventTimeWindows.of(windowSize, windowSlide);
+		InternalSingleValueWindowFunction<Long, Long, Long, TimeWindow> windowFunction =
+			new InternalSingleValueWindowFunction<>(new PassThroughWindowFunction<Long, TimeWindow, Long>());
+
+		OneInputStreamOperator<Long, Long> operator;
+		if (slicing) {
+			operator = new SlicingWindowOperator<>(
+				windowAssigner,
+				new SumAggregateFunction(),
+				LongSerializer.INSTANCE,
+				windowFunction,
+				0L,
+				null);
+		} else {
+			operator = new WindowOperator<>(
+				windowAssigner,
+				new TimeWindow.Serializer(),
+				new IdentityKeySelector(),
+				LongSerializer.INSTANCE,
+				new AggregatingStateDescriptor<>("window-contents", new SumAggregateFunction(), LongSerializer.INSTANCE),
+				windowFunction,
+				EventTimeTrigger.create(),
+				0L,
+				null);
+		}
+
+		testHarness = new KeyedOneInputStreamOperatorTestHarness<>(
+			operator, new IdentityKeySelector(), BasicTypeInfo.LONG_TYPE_INFO);
+		testHarness.open();
+	}
+
+	/**
+	 * Processes the given number of records, with ascending timestamps of one record per
+	 * millisecond, and a watermark every {@value #RECORDS_PER_WATERMARK} records.
+	 *
+	 * @param records number of records to process
+	 */
+	public void executeBenchmark(long records) throws Exception {
+		final StreamRecord<Long> record = new StreamRecord<>(0L);
+
+		for (long i = 0; i < records; i++) {
+			record.replace(i % numberOfKeys, i);
+			testHarness.processElement(record);
+
+			if (i % RECORDS_PER_WATERMARK == RECORDS_PER_WATERMARK - 1) {
+				testHarness.processWatermark(new Watermark(i));
+				// the output is not of interest and would otherwise grow with the number of records
+				testHarness.getOutput().clear();
+			}
+		}
+
+		testHarness.processWatermark(new Watermark(Long.MAX_VALUE));
+		testHarness.getOutput().clear();
+	}
+
+	public void tearDown() throws Exception {
+		if (testHarness != null) {
+			testHarness.close();
+		}
+	}
+
+	/**
+	 * Runs the benchmark with windows of one hour that slide by one minute on both operators and
+	 * prints the throughput.
+	 */
+	public static void main(String[] args) throws Exception {
+		final long records = args.length > 0 ? Long.parseLong(args[0]) : 10_000_000L;
+
+		for (boolean slicing : new boolean[] {false, true}) {
+			SlidingWindowBenchmark benchmark = new SlidingWindowBenchmark();
+			benchmark.setUp(slicing, Time.hours(1), Time.minutes(1), 100);
+			try {
+				final long start = System.nanoTime();
+				benchmark.executeBenchmark(records);
+				final long durationMillis = Math.max(1L, (System.nanoTime() - start) / 1_000_000L);
+
+				System.out.println((slicing ? "SlicingWindowOperator" : "WindowOperator") + ": " +
+					records + " records in " + durationMillis + " ms (" + (records * 1000L / durationMillis) + " records/s)");
+			} finally {
+				benchmark.tearDown();
+			}
+		}
+	}
+
+	private static class SumAggregateFunction implements AggregateFunction<Long, Long, Long> {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		public Long createAccumulator() {
+			return 0L;
+		}
+
+		@Override
+		public Long add(Long value, Long accumulator) {
+			return accumulator + value;
+		}
+
+		@Override
+		public Long getResult(Long accumulator) {
+			return accumulator;
+		}
+
+		@Override
+		public Long merge(Long a, Long b) {
+			return a + b;
+		}
+	}
+
+	private static class IdentityKeySelector implements KeySelector<Long, Long> {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		public Long getKey(Long value) {
+			return value;
+		}
+	}
+}
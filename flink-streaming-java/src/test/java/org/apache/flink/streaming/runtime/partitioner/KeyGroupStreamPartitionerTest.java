@@ -19,6 +19,7 @@ package org.apache.flink.streaming.runtime.partitioner;
 
 import org.apache.flink.api.java.functions.KeySelector;
 import org.apache.flink.api.java.tuple.Tuple2;
+import org.apache.flink.metrics.groups.UnregisteredMetricsGroup;
 import org.apache.flink.runtime.plugable.SerializationDelegate;
 import org.apache.flink.streaming.runtime.streamrecord.StreamRecord;
 import org.apache.flink.util.TestLogger;
@@ -27,6 +28,7 @@ import org.junit.Before;
 import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
 
 /**
  * Tests for {@link KeyGroupStreamPartitioner}.
@@ -63,6 +65,20 @@ public class KeyGroupStreamPartitionerTest extends TestLogger {
 		assertEquals(selectChannels(serializationDelegate1, 1024), selectChannels(serializationDelegate2, 1024));
 	}
 
+	@Test
+	public void testHotKeyTrackingKeepsChannels() {
+		serializationDelegate1.setInstance(streamRecord1);
+
+		int channel = selectChannels(serializationDelegate1, 7);
+
+		KeyGroupStreamPartitioner<Tuple2<String, Integer>, String> original = keyGroupPartitioner;
+		keyGroupPartitioner = original.withHotKeyTracking(4, 1, new UnregisteredMetricsGroup());
+
+		assertNotSame(original, keyGroupPartitioner);
+		assertEquals(original.getMaxParallelism(), keyGroupPartitioner.getMaxParallelism());
+		assertEquals(channel, selectChannels(serializationDelegate1, 7));
+	}
+
 	private int selectChannels(
 			SerializationDelegate<StreamRecord<Tuple2<String, Integer>>> serializationDelegate,
 			int numberOfChannels) {
@@ -21,6 +21,7 @@ package org.apache.flink.streaming.runtime.streamrecord;
 import org.apache.flink.api.common.typeutils.TypeSerializer;
 import org.apache.flink.api.common.typeutils.base.LongSerializer;
 import org.apache.flink.api.common.typeutils.base.StringSerializer;
+import org.apache.flink.api.common.typeutils.base.VarLongSerializer;
 import org.apache.flink.core.memory.DataInputDeserializer;
 import org.apache.flink.core.memory.DataOutputSerializer;
 import org.apache.flink.runtime.jobgraph.OperatorID;
@@ -33,6 +34,7 @@ import java.io.IOException;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -73,9 +75,34 @@ public class StreamElementSerializerTest {
 
 	@Test
 	public void testSerialization() throws Exception {
-		final StreamElementSerializer<String> serializer =
-				new StreamElementSerializer<String>(StringSerializer.INSTANCE);
+		testSerialization(new StreamElementSerializer<String>(StringSerializer.INSTANCE));
+	}
+
+	@Test
+	public void testSerializationWithCompactTimestamps() throws Exception {
+		testSerialization(new StreamElementSerializer<String>(StringSerializer.INSTANCE, true));
+	}
+
+	@Test
+	public void testCompactTimestampsWriteFewerBytes() throws Exception {
+		StreamRecord<Long> record = new StreamRecord<>(1L, 1546300800000L);
+
+		// a tag, the timestamp and the value
+		assertEquals(1 + 8 + 8, getSerializedLength(record, new StreamElementSerializer<>(LongSerializer.INSTANCE)));
+		assertEquals(1 + 6 + 1, getSerializedLength(record, new StreamElementSerializer<>(VarLongSerializer.INSTANCE, true)));
+	}
 
+	@Test
+	public void testMigrationToAndFromCompactTimestamps() {
+		StreamElementSerializer<String> serializer = new StreamElementSerializer<>(StringSerializer.INSTANCE);
+		StreamElementSerializer<String> compactSerializer = new StreamElementSerializer<>(StringSerializer.INSTANCE, true);
+
+		assertTrue(serializer.snapshotConfiguration().resolveSchemaCompatibility(compactSerializer).isCompatibleAfterMigration());
+		assertTrue(compactSerializer.snapshotConfiguration().resolveSchemaCompatibility(serializer).isCompatibleAfterMigration());
+		assertTrue(compactSerializer.snapshotConfiguration().resolveSchemaCompatibility(compactSerializer).isCompatibleAsIs());
+	}
+
+	private static void testSerialization(StreamElementSerializer<String> serializer) throws Exception {
 		StreamRecord<String> withoutTimestamp = new StreamRecord<>("test 1 2 分享基督耶穌的愛給們，開拓雙贏!");
 		assertEquals(withoutTimestamp, serializeAndDeserialize(withoutTimestamp, serializer));
 
@@ -95,6 +122,12 @@ public class StreamElementSerializerTest {
 		assertEquals(latencyMarker, serializeAndDeserialize(latencyMarker, serializer));
 	}
 
+	private static int getSerializedLength(StreamElement element, StreamElementSerializer<?> serializer) throws IOException {
+		DataOutputSerializer output = new DataOutputSerializer(32);
+		serializer.serialize(element, output);
+		return output.length();
+	}
+
 	@SuppressWarnings("unchecked")
 	private static <T, X extends StreamElement> X serializeAndDeserialize(
 			X record,
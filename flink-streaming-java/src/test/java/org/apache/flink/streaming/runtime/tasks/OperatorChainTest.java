@@ -18,6 +18,7 @@
 
 package org.apache.flink.streaming.runtime.tasks;
 
+import org.apache.flink.api.common.typeutils.base.array.IntPrimitiveArraySerializer;
 import org.apache.flink.configuration.Configuration;
 import org.apache.flink.runtime.jobgraph.OperatorID;
 import org.apache.flink.runtime.operators.testutils.MockEnvironment;
@@ -32,15 +33,21 @@ import org.apache.flink.streaming.runtime.streamrecord.StreamRecord;
 import org.apache.flink.streaming.runtime.streamstatus.StreamStatusProvider;
 import org.apache.flink.streaming.runtime.tasks.OperatorChain.BroadcastingOutputCollector;
 import org.apache.flink.streaming.runtime.tasks.OperatorChain.ChainingOutput;
+import org.apache.flink.streaming.runtime.tasks.OperatorChain.CopyingChainingOutput;
 import org.apache.flink.streaming.runtime.tasks.OperatorChain.WatermarkGaugeExposingOutput;
 
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.apache.flink.util.Preconditions.checkArgument;
 import static org.apache.flink.util.Preconditions.checkNotNull;
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.mockito.Mockito.mock;
 
 /**
@@ -65,6 +72,28 @@ public class OperatorChainTest {
 		assertEquals(3, intRef.get());
 	}
 
+	@Test
+	public void testCopyingChainingOutputSharesValuesIfNotCopyingValues() {
+		final int[] value = {1, 2, 3};
+
+		final CollectingOperator copying = new CollectingOperator();
+		new CopyingChainingOutput<>(copying, IntPrimitiveArraySerializer.INSTANCE, null, mock(StreamStatusProvider.class))
+			.collect(new StreamRecord<>(value));
+
+		final CollectingOperator sharing = new CollectingOperator();
+		final StreamRecord<int[]> record = new StreamRecord<>(value);
+		new CopyingChainingOutput<>(sharing, IntPrimitiveArraySerializer.INSTANCE, false, null, mock(StreamStatusProvider.class))
+			.collect(record);
+
+		assertEquals(1, copying.received.size());
+		assertNotSame(value, copying.received.get(0).getValue());
+		assertArrayEquals(value, copying.received.get(0).getValue());
+
+		assertEquals(1, sharing.received.size());
+		assertNotSame(record, sharing.received.get(0));
+		assertSame(value, sharing.received.get(0).getValue());
+	}
+
 	// ------------------------------------------------------------------------
 	//  Operator Chain Setup Utils
 	// ------------------------------------------------------------------------
@@ -113,6 +142,20 @@ public class OperatorChainTest {
 	//  Test Operator Implementations
 	// ------------------------------------------------------------------------
 
+	private static class CollectingOperator
+			extends AbstractStreamOperator<int[]>
+			implements OneInputStreamOperator<int[], int[]> {
+
+		private static final long serialVersionUID = 1L;
+
+		final List<StreamRecord<int[]>> received = new ArrayList<>();
+
+		@Override
+		public void processElement(StreamRecord<int[]> element) {
+			received.add(element);
+		}
+	}
+
 	private static class ValidatingOperator
 			extends AbstractStreamOperator<String>
 			implements OneInputStreamOperator<String, String> {
@@ -20,6 +20,7 @@ package org.apache.flink.streaming.api.scala
 
 import org.apache.flink.annotation.PublicEvolving
 import org.apache.flink.api.common.typeinfo.TypeInformation
+import org.apache.flink.api.java.functions.KeySelector
 import org.apache.flink.streaming.api.datastream.{AsyncDataStream => JavaAsyncDataStream}
 import org.apache.flink.streaming.api.functions.async.{AsyncFunction => JavaAsyncFunction, ResultFuture => JavaResultFuture}
 import org.apache.flink.streaming.api.scala.async._
@@ -286,6 +287,51 @@ object AsyncDataStream {
     orderedWait(input, timeout, timeUnit, DEFAULT_QUEUE_CAPACITY)(asyncFunction)
   }
 
+  /**
+    * Apply an asynchronous function on the input data stream. The output order is the same as the
+    * input order of the elements with the same key. The results of elements with different keys
+    * are emitted as soon as they are completed.
+    *
+    * @param input to apply the async function on
+    * @param keySelector to extract the key of the elements
+    * @param asyncFunction to use
+    * @param timeout for the asynchronous operation to complete
+    * @param timeUnit of the timeout
+    * @param capacity of the operator which is equivalent to the number of concurrent asynchronous
+    *                 operations
+    * @tparam IN Type of the input record
+    * @tparam KEY Type of the key
+    * @tparam OUT Type of the output record
+    * @return the resulting stream containing the asynchronous results
+    */
+  def orderedWaitByKey[IN, KEY, OUT: TypeInformation](
+      input: DataStream[IN],
+      keySelector: IN => KEY,
+      asyncFunction: AsyncFunction[IN, OUT],
+      timeout: Long,
+      timeUnit: TimeUnit,
+      capacity: Int)
+    : DataStream[OUT] = {
+
+    Preconditions.checkNotNull(keySelector)
+    val cleanKeySelector = input.executionEnvironment.scalaClean(keySelector)
+    val javaKeySelector = new KeySelector[IN, KEY] {
+      override def getKey(value: IN): KEY = cleanKeySelector(value)
+    }
+
+    val javaAsyncFunction = wrapAsJavaAsyncFunction(asyncFunction)
+
+    val outType : TypeInformation[OUT] = implicitly[TypeInformation[OUT]]
+
+    asScalaStream(JavaAsyncDataStream.orderedWaitByKey[IN, OUT](
+      input.javaStream,
+      javaKeySelector,
+      javaAsyncFunction,
+      timeout,
+      timeUnit,
+      capacity).returns(outType))
+  }
+
   private def wrapAsJavaAsyncFunction[IN, OUT: TypeInformation](
       asyncFunction: AsyncFunction[IN, OUT])
     : JavaAsyncFunction[IN, OUT] = asyncFunction match {
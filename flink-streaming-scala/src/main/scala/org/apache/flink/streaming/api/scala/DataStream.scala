@@ -343,6 +343,40 @@ class DataStream[T](stream: JavaStream[T]) {
     this
   }
 
+  /**
+   * Declares that this operator does not modify the records it receives. If object reuse
+   * is disabled, records handed to this operator by a chained predecessor are then not
+   * copied, provided that the predecessor declared with [[declareOutputNotMutated]] to not
+   * modify them either.
+   *
+   * @return The operator with the declaration set.
+   */
+  @PublicEvolving
+  def declareInputNotMutated(): DataStream[T] = {
+    stream match {
+      case ds: SingleOutputStreamOperator[T] => ds.declareInputNotMutated()
+      case _ =>
+        throw new UnsupportedOperationException("Only supported for operators.")
+    }
+    this
+  }
+
+  /**
+   * Declares that this operator does not modify the records it emits after emitting them,
+   * for example by reusing the output object.
+   *
+   * @return The operator with the declaration set.
+   */
+  @PublicEvolving
+  def declareOutputNotMutated(): DataStream[T] = {
+    stream match {
+      case ds: SingleOutputStreamOperator[T] => ds.declareOutputNotMutated()
+      case _ =>
+        throw new UnsupportedOperationException("Only supported for operators.")
+    }
+    this
+  }
+
   // --------------------------------------------------------------------------
   //  Stream Transformations 
   // --------------------------------------------------------------------------
@@ -23,6 +23,7 @@ import org.apache.flink.api.common.functions._
 import org.apache.flink.api.common.state.{FoldingStateDescriptor, ReducingStateDescriptor, ValueStateDescriptor}
 import org.apache.flink.api.common.typeinfo.TypeInformation
 import org.apache.flink.api.common.typeutils.TypeSerializer
+import org.apache.flink.api.java.tuple.{Tuple2 => JavaTuple2}
 import org.apache.flink.streaming.api.datastream.{QueryableStateStream, DataStream => JavaStream, KeyedStream => KeyedJavaStream, WindowedStream => WindowedJavaStream}
 import org.apache.flink.streaming.api.functions.aggregation.AggregationFunction.AggregationType
 import org.apache.flink.streaming.api.functions.aggregation.{ComparableAggregator, SumAggregator}
@@ -173,6 +174,7 @@ class KeyedStream[T, K](javaStream: KeyedJavaStream[T, K]) extends DataStream[T]
 
     private var lowerBoundInclusive = true
     private var upperBoundInclusive = true
+    private var bucketing = false
 
     /**
       * Set the lower bound to be exclusive
@@ -192,6 +194,16 @@ class KeyedStream[T, K](javaStream: KeyedJavaStream[T, K]) extends DataStream[T]
       this
     }
 
+    /**
+      * Buffers the elements of both sides in time buckets of the width of the join interval, so
+      * that an element only reads the buckets that overlap with its join interval
+      */
+    @PublicEvolving
+    def enableBucketing(): IntervalJoined[IN1, IN2, KEY] = {
+      this.bucketing = true
+      this
+    }
+
     /**
       * Completes the join operation with the user function that is executed for each joined pair
       * of elements.
@@ -214,6 +226,9 @@ class KeyedStream[T, K](javaStream: KeyedJavaStream[T, K]) extends DataStream[T]
         upperBound,
         lowerBoundInclusive,
         upperBoundInclusive)
+      if (bucketing) {
+        javaJoined.enableBucketing()
+      }
       asScalaStream(javaJoined.process(processJoinFunction, outType))
     }
   }
@@ -286,6 +301,64 @@ class KeyedStream[T, K](javaStream: KeyedJavaStream[T, K]) extends DataStream[T]
     new WindowedStream(new WindowedJavaStream[T, K, W](javaStream, assigner))
   }
 
+  // ------------------------------------------------------------------------
+  //  Local pre-aggregation
+  // ------------------------------------------------------------------------
+
+  /**
+   * Combines the elements of each key with the given [[ReduceFunction]] before they are
+   * shuffled by key. A bundle of pre-reduced elements is emitted after `maxBundleSize`
+   * elements, after `maxBundleDelay`, before watermarks, and before checkpoint barriers.
+   *
+   * The returned stream is partitioned by the same key.
+   */
+  @PublicEvolving
+  def localReduce(
+      reducer: ReduceFunction[T],
+      maxBundleSize: Long,
+      maxBundleDelay: Time): KeyedStream[T, K] = {
+    if (reducer == null) {
+      throw new NullPointerException("Reduce function must not be null.")
+    }
+
+    new KeyedStream(javaStream.localReduce(reducer, maxBundleSize, maxBundleDelay))
+  }
+
+  /**
+   * Combines the elements of each key into accumulators of the given [[AggregateFunction]]
+   * before they are shuffled by key. A bundle of accumulators is emitted after `maxBundleSize`
+   * elements, after `maxBundleDelay`, before watermarks, and before checkpoint barriers.
+   *
+   * The returned stream contains the key and the accumulator of each bundle and is partitioned
+   * by the same key.
+   */
+  @PublicEvolving
+  def localAggregate[ACC](
+      aggFunction: AggregateFunction[T, ACC, _],
+      maxBundleSize: Long,
+      maxBundleDelay: Time): KeyedStream[JavaTuple2[K, ACC], K] = {
+    if (aggFunction == null) {
+      throw new NullPointerException("Aggregate function must not be null.")
+    }
+
+    new KeyedStream(javaStream.localAggregate(aggFunction, maxBundleSize, maxBundleDelay))
+  }
+
+  /**
+   * Merges the accumulators of a stream that was pre-aggregated with [[localAggregate]]. The
+   * merged accumulator of each key is kept in keyed state, and the current result of the given
+   * [[AggregateFunction]] is emitted for every received accumulator.
+   */
+  @PublicEvolving
+  def mergeLocalAggregates[ACC, R: TypeInformation](
+      aggFunction: AggregateFunction[_, ACC, R]): DataStream[R] = {
+    if (aggFunction == null) {
+      throw new NullPointerException("Aggregate function must not be null.")
+    }
+
+    asScalaStream(javaStream.mergeLocalAggregates(aggFunction, implicitly[TypeInformation[R]]))
+  }
+
   // ------------------------------------------------------------------------
   //  Non-Windowed aggregation operations
   // ------------------------------------------------------------------------
@@ -108,6 +108,32 @@ class WindowedStream[T, K, W <: Window](javaStream: JavaWStream[T, K, W]) {
     this
   }
 
+  /**
+   * Evaluates incremental aggregations, i.e. `reduce()` and `aggregate()`, by slicing the
+   * sliding windows instead of adding each element to every window it belongs to.
+   *
+   * Each element is aggregated into exactly one slice of the greatest common divisor of window
+   * size and slide, and the slices of a window are merged when the window fires. Slicing can
+   * only be used with sliding time windows, with their default trigger and without evictor.
+   */
+  @PublicEvolving
+  def enableSlicing(): WindowedStream[T, K, W] = {
+    javaStream.enableSlicing()
+    this
+  }
+
+  /**
+   * Merges the contents of merging windows, such as session windows, lazily when the window
+   * function has no incremental aggregation. The resulting window keeps references to the state
+   * of the merged windows instead of copying their elements. This can only be used with merging
+   * window assigners.
+   */
+  @PublicEvolving
+  def enableLazyMerging(): WindowedStream[T, K, W] = {
+    javaStream.enableLazyMerging()
+    this
+  }
+
   // ------------------------------------------------------------------------
   //  Operations on the keyed windows
   // ------------------------------------------------------------------------
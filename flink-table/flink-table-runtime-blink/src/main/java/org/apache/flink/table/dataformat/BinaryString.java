@@ -241,13 +241,8 @@ public final class BinaryString extends LazyBinaryFormat<String> implements Comp
 			MemorySegment seg1 = segments[0];
 			MemorySegment seg2 = other.segments[0];
 
-			for (int i = 0; i < len; i++) {
-				int res = (seg1.get(offset + i) & 0xFF) - (seg2.get(other.offset + i) & 0xFF);
-				if (res != 0) {
-					return res;
-				}
-			}
-			return sizeInBytes - other.sizeInBytes;
+			int res = seg1.compare(seg2, offset, other.offset, len);
+			return res != 0 ? res : sizeInBytes - other.sizeInBytes;
 		}
 
 		// if there are multi segments.
@@ -295,11 +290,9 @@ public final class BinaryString extends LazyBinaryFormat<String> implements Comp
 
 		while (needCompare > 0) {
 			// compare in one segment.
-			for (int i = 0; i < needCompare; i++) {
-				int res = (seg1.get(offset1 + i) & 0xFF) - (seg2.get(offset2 + i) & 0xFF);
-				if (res != 0) {
-					return res;
-				}
+			int res = seg1.compare(seg2, offset1, offset2, needCompare);
+			if (res != 0) {
+				return res;
 			}
 			if (needCompare == len) {
 				break;
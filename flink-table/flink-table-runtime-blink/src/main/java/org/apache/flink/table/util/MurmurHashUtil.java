@@ -74,6 +74,38 @@ public final class MurmurHashUtil {
 		return hashBytes(segment, offset, lengthInBytes, DEFAULT_SEED);
 	}
 
+	/**
+	 * Hash bytes in multiple MemorySegments, length must be aligned to 4 bytes. The bytes are
+	 * hashed in place, the result is the same as hashing a copy of them with
+	 * {@link #hashUnsafeBytesByWords(Object, long, int)}.
+	 * @param segments segments.
+	 * @param offset offset for MemorySegments
+	 * @param lengthInBytes length in MemorySegments
+	 * @return hash code
+	 */
+	public static int hashBytesByWords(MemorySegment[] segments, int offset, int lengthInBytes) {
+		int h1 = hashBytesByInt(segments, offset, lengthInBytes, DEFAULT_SEED);
+		return fmix(h1, lengthInBytes);
+	}
+
+	/**
+	 * Hash bytes in multiple MemorySegments. The bytes are hashed in place, the result is
+	 * the same as hashing a copy of them with {@link #hashUnsafeBytes(Object, long, int)}.
+	 * @param segments segments.
+	 * @param offset offset for MemorySegments
+	 * @param lengthInBytes length in MemorySegments
+	 * @return hash code
+	 */
+	public static int hashBytes(MemorySegment[] segments, int offset, int lengthInBytes) {
+		int lengthAligned = lengthInBytes - lengthInBytes % 4;
+		int h1 = hashBytesByInt(segments, offset, lengthAligned, DEFAULT_SEED);
+		for (int i = lengthAligned; i < lengthInBytes; i++) {
+			int k1 = mixK1(SegmentsUtil.getByte(segments, offset + i));
+			h1 = mixH1(h1, k1);
+		}
+		return fmix(h1, lengthInBytes);
+	}
+
 	private static int hashUnsafeBytesByWords(Object base, long offset, int lengthInBytes, int seed) {
 		int h1 = hashUnsafeBytesByInt(base, offset, lengthInBytes, seed);
 		return fmix(h1, lengthInBytes);
@@ -128,6 +160,30 @@ public final class MurmurHashUtil {
 		return h1;
 	}
 
+	private static int hashBytesByInt(MemorySegment[] segments, int offset, int lengthInBytes, int seed) {
+		assert (lengthInBytes % 4 == 0);
+		int segSize = segments[0].size();
+		int h1 = seed;
+		int i = 0;
+		while (i < lengthInBytes) {
+			int pos = offset + i;
+			int segIndex = pos / segSize;
+			int segOffset = pos - segIndex * segSize; // equal to %
+			int wordsInSegment = Math.min(lengthInBytes - i, segSize - segOffset) >>> 2;
+			if (wordsInSegment > 0) {
+				// hash all words which are located entirely in the current segment.
+				h1 = hashBytesByInt(segments[segIndex], segOffset, wordsInSegment << 2, h1);
+				i += wordsInSegment << 2;
+			} else {
+				// the word spans the boundary of two segments.
+				int k1 = mixK1(SegmentsUtil.getInt(segments, pos));
+				h1 = mixH1(h1, k1);
+				i += 4;
+			}
+		}
+		return h1;
+	}
+
 	private static int mixK1(int k1) {
 		k1 *= C1;
 		k1 = Integer.rotateLeft(k1, 15);
@@ -24,8 +24,6 @@ import org.apache.flink.core.memory.MemorySegment;
 import java.io.IOException;
 import java.nio.ByteOrder;
 
-import static org.apache.flink.core.memory.MemoryUtils.UNSAFE;
-
 /**
  * Util for data format segments calc.
  */
@@ -46,8 +44,6 @@ public class SegmentsUtil {
 	private static final int MAX_BYTES_LENGTH = 1024 * 64;
 	private static final int MAX_CHARS_LENGTH = 1024 * 32;
 
-	private static final int BYTE_ARRAY_BASE_OFFSET = UNSAFE.arrayBaseOffset(byte[].class);
-
 	private static final ThreadLocal<byte[]> BYTES_LOCAL = new ThreadLocal<>();
 	private static final ThreadLocal<char[]> CHARS_LOCAL = new ThreadLocal<>();
 
@@ -360,6 +356,93 @@ public class SegmentsUtil {
 		return true;
 	}
 
+	/**
+	 * Compares two memory segments regions lexicographically as unsigned bytes.
+	 *
+	 * @param segments1 Segments 1
+	 * @param offset1 Offset of segments1 to start comparing
+	 * @param segments2 Segments 2
+	 * @param offset2 Offset of segments2 to start comparing
+	 * @param len Length of the compared memory region
+	 *
+	 * @return 0 if equal, a negative value if segments1 &lt; segments2, a positive value otherwise
+	 */
+	public static int compare(
+			MemorySegment[] segments1, int offset1,
+			MemorySegment[] segments2, int offset2, int len) {
+		if (inFirstSegment(segments1, offset1, len) && inFirstSegment(segments2, offset2, len)) {
+			return segments1[0].compare(segments2[0], offset1, offset2, len);
+		}
+		int mismatch = findFirstMismatchMultiSegments(segments1, offset1, segments2, offset2, len);
+		if (mismatch < 0) {
+			return 0;
+		}
+		return (getByte(segments1, offset1 + mismatch) & 0xff) - (getByte(segments2, offset2 + mismatch) & 0xff);
+	}
+
+	/**
+	 * Finds the first byte in which two memory segments regions differ.
+	 *
+	 * @param segments1 Segments 1
+	 * @param offset1 Offset of segments1 to start comparing
+	 * @param segments2 Segments 2
+	 * @param offset2 Offset of segments2 to start comparing
+	 * @param len Length of the compared memory region
+	 *
+	 * @return The index of the first differing byte, relative to the offsets, or -1 if the
+	 *         regions are equal
+	 */
+	public static int findFirstMismatch(
+			MemorySegment[] segments1, int offset1,
+			MemorySegment[] segments2, int offset2, int len) {
+		if (inFirstSegment(segments1, offset1, len) && inFirstSegment(segments2, offset2, len)) {
+			return segments1[0].findFirstMismatch(segments2[0], offset1, offset2, len);
+		} else {
+			return findFirstMismatchMultiSegments(segments1, offset1, segments2, offset2, len);
+		}
+	}
+
+	@VisibleForTesting
+	static int findFirstMismatchMultiSegments(
+			MemorySegment[] segments1, int offset1,
+			MemorySegment[] segments2, int offset2, int len) {
+		if (len == 0) {
+			// quick way and avoid segSize is zero.
+			return -1;
+		}
+
+		int segSize1 = segments1[0].size();
+		int segSize2 = segments2[0].size();
+
+		// find first segIndex and segOffset of segments.
+		int segIndex1 = offset1 / segSize1;
+		int segIndex2 = offset2 / segSize2;
+		int segOffset1 = offset1 - segSize1 * segIndex1; // equal to %
+		int segOffset2 = offset2 - segSize2 * segIndex2; // equal to %
+
+		int compared = 0;
+		while (compared < len) {
+			int compareLen = Math.min(Math.min(len - compared, segSize1 - segOffset1), segSize2 - segOffset2);
+			int mismatch = segments1[segIndex1].findFirstMismatch(
+					segments2[segIndex2], segOffset1, segOffset2, compareLen);
+			if (mismatch >= 0) {
+				return compared + mismatch;
+			}
+			compared += compareLen;
+			segOffset1 += compareLen;
+			if (segOffset1 == segSize1) {
+				segOffset1 = 0;
+				segIndex1++;
+			}
+			segOffset2 += compareLen;
+			if (segOffset2 == segSize2) {
+				segOffset2 = 0;
+				segIndex2++;
+			}
+		}
+		return -1;
+	}
+
 	/**
 	 * hash segments to int, numBytes must be aligned to 4 bytes.
 	 *
@@ -375,10 +458,9 @@ public class SegmentsUtil {
 		}
 	}
 
-	private static int hashMultiSegByWords(MemorySegment[] segments, int offset, int numBytes) {
-		byte[] bytes = allocateReuseBytes(numBytes);
-		copyMultiSegmentsToBytes(segments, offset, bytes, 0, numBytes);
-		return MurmurHashUtil.hashUnsafeBytesByWords(bytes, BYTE_ARRAY_BASE_OFFSET, numBytes);
+	@VisibleForTesting
+	static int hashMultiSegByWords(MemorySegment[] segments, int offset, int numBytes) {
+		return MurmurHashUtil.hashBytesByWords(segments, offset, numBytes);
 	}
 
 	/**
@@ -396,10 +478,9 @@ public class SegmentsUtil {
 		}
 	}
 
-	private static int hashMultiSeg(MemorySegment[] segments, int offset, int numBytes) {
-		byte[] bytes = allocateReuseBytes(numBytes);
-		copyMultiSegmentsToBytes(segments, offset, bytes, 0, numBytes);
-		return MurmurHashUtil.hashUnsafeBytes(bytes, BYTE_ARRAY_BASE_OFFSET, numBytes);
+	@VisibleForTesting
+	static int hashMultiSeg(MemorySegment[] segments, int offset, int numBytes) {
+		return MurmurHashUtil.hashBytes(segments, offset, numBytes);
 	}
 
 	/**
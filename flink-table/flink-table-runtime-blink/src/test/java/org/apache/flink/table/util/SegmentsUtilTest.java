@@ -24,6 +24,8 @@ import org.apache.flink.table.dataformat.BinaryRowTest;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.Random;
+
 /**
  * Test for {@link SegmentsUtil}, most is covered by {@link BinaryRowTest},
  * this just test some boundary scenarios testing.
@@ -59,4 +61,87 @@ public class SegmentsUtilTest {
 		Assert.assertFalse(SegmentsUtil.equals(segments1, 0, segments2, 1, 7));
 	}
 
+	@Test
+	public void testCompare() {
+		MemorySegment[] segments1 = new MemorySegment[3];
+		segments1[0] = MemorySegmentFactory.wrap(new byte[]{0, 2, 5});
+		segments1[1] = MemorySegmentFactory.wrap(new byte[]{6, 12, 15});
+		segments1[2] = MemorySegmentFactory.wrap(new byte[]{1, 1, 1});
+
+		MemorySegment[] segments2 = new MemorySegment[2];
+		segments2[0] = MemorySegmentFactory.wrap(new byte[]{6, 0, 2, 5});
+		segments2[1] = MemorySegmentFactory.wrap(new byte[]{6, 12, 15, (byte) 200});
+
+		Assert.assertEquals(-1, SegmentsUtil.findFirstMismatchMultiSegments(segments1, 0, segments2, 0, 0));
+		Assert.assertEquals(-1, SegmentsUtil.findFirstMismatch(segments1, 0, segments2, 1, 3));
+		Assert.assertEquals(-1, SegmentsUtil.findFirstMismatch(segments1, 0, segments2, 1, 6));
+		Assert.assertEquals(6, SegmentsUtil.findFirstMismatch(segments1, 0, segments2, 1, 7));
+		Assert.assertEquals(0, SegmentsUtil.findFirstMismatch(segments1, 0, segments2, 0, 7));
+
+		Assert.assertEquals(0, SegmentsUtil.compare(segments1, 0, segments2, 1, 6));
+		Assert.assertTrue(SegmentsUtil.compare(segments1, 0, segments2, 1, 7) < 0);
+		Assert.assertTrue(SegmentsUtil.compare(segments2, 1, segments1, 0, 7) > 0);
+		Assert.assertTrue(SegmentsUtil.compare(segments1, 0, segments2, 0, 7) < 0);
+	}
+
+	@Test
+	public void testCompareLongRegions() {
+		Random random = new Random();
+		byte[] bytes = new byte[256];
+		random.nextBytes(bytes);
+
+		MemorySegment[] segments1 = split(bytes, 19);
+		MemorySegment[] segments2 = split(bytes, 64);
+
+		Assert.assertEquals(-1, SegmentsUtil.findFirstMismatch(segments1, 0, segments2, 0, bytes.length));
+
+		for (int i = 0; i < 100; i++) {
+			int start = random.nextInt(bytes.length);
+			int pos = start + random.nextInt(bytes.length - start);
+
+			byte original = bytes[pos];
+			byte changed = (byte) (original + 1 + random.nextInt(255));
+			SegmentsUtil.setByte(segments1, pos, changed);
+
+			Assert.assertEquals(pos - start,
+					SegmentsUtil.findFirstMismatch(segments1, start, segments2, start, bytes.length - start));
+			Assert.assertEquals(Integer.signum((changed & 0xff) - (original & 0xff)),
+					Integer.signum(SegmentsUtil.compare(segments1, start, segments2, start, bytes.length - start)));
+
+			SegmentsUtil.setByte(segments1, pos, original);
+		}
+	}
+
+	@Test
+	public void testHash() {
+		byte[] bytes = new byte[103];
+		new Random().nextBytes(bytes);
+
+		MemorySegment[] segments = split(bytes, 13);
+		MemorySegment segment = MemorySegmentFactory.wrap(bytes);
+
+		for (int offset = 0; offset < 10; offset++) {
+			for (int len = 0; len <= bytes.length - offset - 3; len += 4) {
+				Assert.assertEquals(
+						MurmurHashUtil.hashBytesByWords(segment, offset, len),
+						SegmentsUtil.hashMultiSegByWords(segments, offset, len));
+			}
+			for (int len = 0; len <= bytes.length - offset; len++) {
+				Assert.assertEquals(
+						MurmurHashUtil.hashBytes(segment, offset, len),
+						SegmentsUtil.hashMultiSeg(segments, offset, len));
+			}
+		}
+	}
+
+	private static MemorySegment[] split(byte[] bytes, int segSize) {
+		int numSegments = (bytes.length + segSize - 1) / segSize;
+		MemorySegment[] segments = new MemorySegment[numSegments];
+		for (int i = 0; i < numSegments; i++) {
+			byte[] segBytes = new byte[segSize];
+			System.arraycopy(bytes, i * segSize, segBytes, 0, Math.min(segSize, bytes.length - i * segSize));
+			segments[i] = MemorySegmentFactory.wrap(segBytes);
+		}
+		return segments;
+	}
 }